@@ -268,7 +268,7 @@ public class FootstepPlanningModuleLauncher
                                                {
                                                   if (status.getFootstepPlanningResult() != null && status.getFootstepPlanningResult().terminalResult()
                                                       && generateLog.get())
-                                                     logger.logSession(LOG_DIRECTORY);
+                                                     logger.logSessionAsync(LOG_DIRECTORY);
                                                });
    }
 
@@ -0,0 +1,266 @@
+package us.ihmc.commonWalkingControlModules.controllerCore;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import us.ihmc.commonWalkingControlModules.momentumBasedController.feedbackController.FeedbackControllerInterface;
+import us.ihmc.euclid.referenceFrame.ReferenceFrame;
+import us.ihmc.mecano.frames.MovingReferenceFrame;
+
+/**
+ * Evaluates the feedback controllers of the {@link WholeBodyFeedbackController} on a small pool of worker threads, the calling
+ * thread taking its share of the work and waiting on the workers before returning.
+ * <p>
+ * Controllers are registered in groups: the controllers of a group may share data, for instance the spatial, point and orientation
+ * controllers of an end-effector share their control frame, and are always evaluated by the same thread in registration order,
+ * including the {@link FeedbackControllerInterface#initialize()} of the disabled ones. Groups registered with a {@code null} key
+ * are evaluated on the calling thread, which is used for the controllers relying on whole-body calculators such as the center of
+ * mass controller. This way, the state of every controller after a tick is the same as with the serial evaluation.
+ * </p>
+ * <p>
+ * The reference frames of the robot are updated lazily when queried, which is not thread-safe. The frames registered with
+ * {@link #addFrameToUpdate(ReferenceFrame)} get their transform to root, and their twist for the {@link MovingReferenceFrame}s,
+ * updated on the calling thread before the workers are released. The controllers then only read the state of the frames shared
+ * between groups, such as the pelvis or chest frames used as control base. Frames that are neither registered nor owned by a single group, such as a z-up frame used as trajectory frame by
+ * several controllers, should be up-to-date before calling the controller core.
+ * </p>
+ * <p>
+ * The workers spin for a short while after each tick and then park until released. Nothing is allocated after the controllers
+ * have been registered. The thread factory can be used to create pinned realtime threads.
+ * </p>
+ */
+public class ParallelFeedbackControllerEvaluator
+{
+   private static final int WORKER_SPIN_ITERATIONS = 20000;
+
+   private final Map<Object, ControllerGroup> groupMap = new HashMap<>();
+   private final List<ControllerGroup> callingThreadGroups = new ArrayList<>();
+   private final List<ReferenceFrame> framesToUpdate = new ArrayList<>();
+   private final Worker[] workers;
+
+   private final AtomicInteger numberOfWorkersRunning = new AtomicInteger();
+   private volatile WholeBodyControllerCoreMode currentMode = WholeBodyControllerCoreMode.OFF;
+   private volatile long tickIndex = 0;
+   private volatile boolean isShutdown = false;
+   private volatile Throwable workerException = null;
+
+   /**
+    * @param numberOfWorkerThreads the number of threads to create in addition to the calling thread.
+    * @param threadFactory         the factory used to create the worker threads.
+    */
+   public ParallelFeedbackControllerEvaluator(int numberOfWorkerThreads, ThreadFactory threadFactory)
+   {
+      if (numberOfWorkerThreads < 1)
+         throw new IllegalArgumentException("Expected at least one worker thread, was: " + numberOfWorkerThreads);
+
+      workers = new Worker[numberOfWorkerThreads];
+
+      for (int i = 0; i < numberOfWorkerThreads; i++)
+      {
+         workers[i] = new Worker();
+         workers[i].thread = threadFactory.newThread(workers[i]);
+         workers[i].thread.start();
+      }
+   }
+
+   public void addFrameToUpdate(ReferenceFrame frame)
+   {
+      if (frame != null && !framesToUpdate.contains(frame))
+         framesToUpdate.add(frame);
+   }
+
+   /**
+    * Registers a controller to the group identified by {@code groupKey}, creating the group if needed. New groups are given to the
+    * worker with the fewest controllers.
+    *
+    * @param groupKey   the key of the group, typically the end-effector or joint of the controller. When {@code null}, the
+    *                   controller is evaluated on the calling thread.
+    * @param controller the controller to register.
+    */
+   public void registerController(Object groupKey, FeedbackControllerInterface controller)
+   {
+      ControllerGroup group = groupKey == null ? null : groupMap.get(groupKey);
+
+      if (group == null)
+      {
+         group = new ControllerGroup();
+
+         if (groupKey == null)
+         {
+            callingThreadGroups.add(group);
+         }
+         else
+         {
+            groupMap.put(groupKey, group);
+            Worker leastLoadedWorker = workers[0];
+            for (int i = 1; i < workers.length; i++)
+            {
+               if (workers[i].numberOfControllers < leastLoadedWorker.numberOfControllers)
+                  leastLoadedWorker = workers[i];
+            }
+            leastLoadedWorker.groups.add(group);
+            group.owner = leastLoadedWorker;
+         }
+      }
+
+      group.controllers.add(controller);
+      if (group.owner != null)
+         group.owner.numberOfControllers++;
+   }
+
+   /**
+    * Computes the feedback of every enabled controller for the given mode and initializes the disabled ones. Returns once all the
+    * controllers have been evaluated.
+    */
+   public void evaluate(WholeBodyControllerCoreMode mode)
+   {
+      if (isShutdown)
+         throw new IllegalStateException("The evaluator has been shutdown.");
+
+      for (int i = 0; i < framesToUpdate.size(); i++)
+      {
+         ReferenceFrame frame = framesToUpdate.get(i);
+         frame.getTransformToRoot();
+         if (frame instanceof MovingReferenceFrame)
+            ((MovingReferenceFrame) frame).getTwistOfFrame();
+      }
+
+      currentMode = mode;
+      workerException = null;
+      numberOfWorkersRunning.set(workers.length);
+      tickIndex++; // Releases the workers, everything written above is visible to them.
+
+      for (int i = 0; i < workers.length; i++)
+         LockSupport.unpark(workers[i].thread);
+
+      Throwable callingThreadException = null;
+
+      try
+      {
+         for (int i = 0; i < callingThreadGroups.size(); i++)
+            callingThreadGroups.get(i).evaluate(mode);
+      }
+      catch (Throwable e)
+      {
+         callingThreadException = e;
+      }
+
+      while (numberOfWorkersRunning.get() > 0)
+         Thread.onSpinWait();
+
+      if (callingThreadException == null)
+         callingThreadException = workerException;
+
+      if (callingThreadException instanceof RuntimeException)
+         throw (RuntimeException) callingThreadException;
+      else if (callingThreadException instanceof Error)
+         throw (Error) callingThreadException;
+      else if (callingThreadException != null)
+         throw new RuntimeException(callingThreadException);
+   }
+
+   public int getNumberOfWorkerThreads()
+   {
+      return workers.length;
+   }
+
+   /**
+    * Stops the worker threads. The evaluator cannot be used afterwards.
+    */
+   public void shutdown()
+   {
+      isShutdown = true;
+      for (int i = 0; i < workers.length; i++)
+         LockSupport.unpark(workers[i].thread);
+   }
+
+   private static class ControllerGroup
+   {
+      private final List<FeedbackControllerInterface> controllers = new ArrayList<>();
+      private Worker owner;
+
+      private void evaluate(WholeBodyControllerCoreMode mode)
+      {
+         for (int i = 0; i < controllers.size(); i++)
+         {
+            FeedbackControllerInterface controller = controllers.get(i);
+
+            if (!controller.isEnabled())
+            {
+               controller.initialize();
+               continue;
+            }
+
+            switch (mode)
+            {
+               case INVERSE_DYNAMICS:
+                  controller.computeInverseDynamics();
+                  break;
+               case INVERSE_KINEMATICS:
+                  controller.computeInverseKinematics();
+                  break;
+               case VIRTUAL_MODEL:
+                  controller.computeVirtualModelControl();
+                  break;
+               default:
+                  break;
+            }
+         }
+      }
+   }
+
+   private class Worker implements Runnable
+   {
+      private final List<ControllerGroup> groups = new ArrayList<>();
+      private int numberOfControllers = 0;
+      private Thread thread;
+      private long lastTickIndex = 0;
+
+      @Override
+      public void run()
+      {
+         while (true)
+         {
+            int spinCount = 0;
+
+            while (tickIndex == lastTickIndex && !isShutdown)
+            {
+               if (spinCount < WORKER_SPIN_ITERATIONS)
+               {
+                  spinCount++;
+                  Thread.onSpinWait();
+               }
+               else
+               {
+                  LockSupport.park(this);
+               }
+            }
+
+            if (isShutdown)
+               return;
+
+            lastTickIndex = tickIndex;
+
+            try
+            {
+               WholeBodyControllerCoreMode mode = currentMode;
+               for (int i = 0; i < groups.size(); i++)
+                  groups.get(i).evaluate(mode);
+            }
+            catch (Throwable e)
+            {
+               workerException = e;
+            }
+            finally
+            {
+               numberOfWorkersRunning.decrementAndGet();
+            }
+         }
+      }
+   }
+}
@@ -23,6 +23,7 @@ import us.ihmc.robotics.MultiBodySystemMissingTools;
 import us.ihmc.robotics.SCS2YoGraphicHolder;
 import us.ihmc.robotics.contactable.ContactablePlaneBody;
 import us.ihmc.robotics.screwTheory.GravityCoriolisExternalWrenchMatrixCalculator;
+import us.ihmc.robotics.screwTheory.IncrementalMassMatrixCalculator;
 import us.ihmc.robotics.screwTheory.RigidBodyTwistCalculator;
 import us.ihmc.scs2.definition.yoGraphic.YoGraphicDefinition;
 import us.ihmc.scs2.definition.yoGraphic.YoGraphicGroupDefinition;
@@ -58,6 +59,7 @@ public class WholeBodyControlCoreToolbox implements SCS2YoGraphicHolder
    private CentroidalMomentumRateCalculator centroidalMomentumRateCalculator;
    // TODO The mass-matrix calculator (when created) should be used for computing the momentum stuff. Probably need some interface and API improvements.
    private CompositeRigidBodyMassMatrixCalculator massMatrixCalculator;
+   private IncrementalMassMatrixCalculator incrementalMassMatrixCalculator;
    private final InverseDynamicsCalculator inverseDynamicsCalculator;
    /**
     * Used with the inverse dynamics module to compute the achieved accelerations from the QP solution.
@@ -109,6 +111,7 @@ public class WholeBodyControlCoreToolbox implements SCS2YoGraphicHolder
    private MotionQPInputCalculator motionQPInputCalculator;
    private WholeBodyControllerBoundCalculator qpBoundCalculator;
    private WrenchMatrixCalculator wrenchMatrixCalculator;
+   private WholeBodyControllerCoreProfiler controllerCoreProfiler;
 
    private boolean enableInverseDynamicsModule = false;
    private boolean enableInverseKinematicsModule = false;
@@ -421,6 +424,13 @@ public class WholeBodyControlCoreToolbox implements SCS2YoGraphicHolder
       return wrenchMatrixCalculator;
    }
 
+   public WholeBodyControllerCoreProfiler getControllerCoreProfiler()
+   {
+      if (controllerCoreProfiler == null)
+         controllerCoreProfiler = new WholeBodyControllerCoreProfiler(registry);
+      return controllerCoreProfiler;
+   }
+
    public ControllerCoreOptimizationSettings getOptimizationSettings()
    {
       return optimizationSettings;
@@ -514,6 +524,13 @@ public class WholeBodyControlCoreToolbox implements SCS2YoGraphicHolder
       return massMatrixCalculator;
    }
 
+   public IncrementalMassMatrixCalculator getIncrementalMassMatrixCalculator()
+   {
+      if (incrementalMassMatrixCalculator == null)
+         incrementalMassMatrixCalculator = new IncrementalMassMatrixCalculator(multiBodySystemInput);
+      return incrementalMassMatrixCalculator;
+   }
+
    public FloatingJointBasics getRootJoint()
    {
       return rootJoint;
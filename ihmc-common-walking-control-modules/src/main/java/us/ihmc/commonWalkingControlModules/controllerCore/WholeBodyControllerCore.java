@@ -1,5 +1,8 @@
 package us.ihmc.commonWalkingControlModules.controllerCore;
 
+import java.nio.file.Path;
+import java.util.concurrent.ThreadFactory;
+
 import us.ihmc.commonWalkingControlModules.controllerCore.command.ControllerCoreCommand;
 import us.ihmc.commonWalkingControlModules.controllerCore.command.ControllerCoreCommandInterface;
 import us.ihmc.commonWalkingControlModules.controllerCore.command.ControllerCoreOutput;
@@ -50,6 +53,7 @@ public class WholeBodyControllerCore implements SCS2YoGraphicHolder
    private final ExecutionTimer controllerCoreComputeTimer = new ExecutionTimer("controllerCoreComputeTimer", 1.0, registry);
    private final ExecutionTimer controllerCoreFeedbackControlTimer = new ExecutionTimer("controllerCoreFeedbackControlTimer", 1.0, registry);
    private final ExecutionTimer controllerCoreSubmissionTimer = new ExecutionTimer("controllerCoreSubmissionTimer", 1.0, registry);
+   private final WholeBodyControllerCoreProfiler profiler;
 
    @Deprecated
    public WholeBodyControllerCore(WholeBodyControlCoreToolbox toolbox, FeedbackControlCommandList allPossibleCommands, YoRegistry parentRegistry)
@@ -77,6 +81,8 @@ public class WholeBodyControllerCore implements SCS2YoGraphicHolder
                                   YoRegistry parentRegistry)
    {
       this.toolbox = toolbox;
+      profiler = toolbox.getControllerCoreProfiler();
+      profiler.attachComputeTimer(controllerCoreComputeTimer);
       feedbackController = new WholeBodyFeedbackController(toolbox, feedbackControllerTemplate, registry);
 
       if (toolbox.isEnableInverseDynamicsModule())
@@ -144,6 +150,20 @@ public class WholeBodyControllerCore implements SCS2YoGraphicHolder
       feedbackController.registerControllers(template);
    }
 
+   /**
+    * Evaluates the feedback controllers on {@code numberOfWorkerThreads} threads in addition to the controller thread, see
+    * {@link ParallelFeedbackControllerEvaluator}. Less than 1 reverts to the serial evaluation.
+    */
+   public void setupParallelFeedbackControllers(int numberOfWorkerThreads, ThreadFactory threadFactory)
+   {
+      feedbackController.setupParallelEvaluation(numberOfWorkerThreads, threadFactory);
+   }
+
+   public void shutdownParallelFeedbackControllers()
+   {
+      feedbackController.shutdownParallelEvaluation();
+   }
+
    public void initialize()
    {
       feedbackController.initialize();
@@ -248,6 +268,7 @@ public class WholeBodyControllerCore implements SCS2YoGraphicHolder
          controllerCoreOutput.setRootJointDesiredConfigurationData(rootJointDesiredConfigurationData);
       controllerCoreOutput.setLowLevelOneDoFJointDesiredDataHolder(jointDesiredOutputList);
       controllerCoreComputeTimer.stopMeasurement();
+      profiler.endTick();
    }
 
    // TODO Clean me up once compute() and submitControllerCoreCommand(ControllerCoreCommandInterface) have been removed.
@@ -260,6 +281,7 @@ public class WholeBodyControllerCore implements SCS2YoGraphicHolder
    private void computeFeedbackControllers()
    {
       controllerCoreFeedbackControlTimer.startMeasurement();
+      profiler.getFeedbackControl().start();
       FeedbackControlCommandList feedbackControlCommandList = internalCommandInput.getFeedbackControlCommandList();
 
       switch (currentMode.getEnumValue())
@@ -290,6 +312,7 @@ public class WholeBodyControllerCore implements SCS2YoGraphicHolder
       }
 
       feedbackControlCommandList.clear();
+      profiler.getFeedbackControl().stop();
       controllerCoreFeedbackControlTimer.stopMeasurement();
    }
 
@@ -305,9 +328,11 @@ public class WholeBodyControllerCore implements SCS2YoGraphicHolder
       inverseDynamicsSolver.compute();
       feedbackController.computeAchievedAccelerations();
 
+      profiler.getOutputSubmission().start();
       jointDesiredOutputList.completeWith(inverseDynamicsSolver.getOutput());
       if (rootJointDesiredConfigurationData != null)
          rootJointDesiredConfigurationData.completeWith(inverseDynamicsSolver.getOutputForRootJoint());
+      profiler.getOutputSubmission().stop();
       controllerCoreOutput.setLinearMomentumRate(inverseDynamicsSolver.getAchievedMomentumRateLinear());
       controllerCoreOutput.setAngularMomentumRate(inverseDynamicsSolver.getAchievedMomentumRateAngular());
    }
@@ -315,14 +340,18 @@ public class WholeBodyControllerCore implements SCS2YoGraphicHolder
    private void doInverseKinematics()
    {
       controllerCoreSubmissionTimer.startMeasurement();
+      profiler.getQPInputConversion().start();
       inverseKinematicsSolver.submitInverseKinematicsCommandList(internalCommandInput.getInverseKinematicsCommandList());
+      profiler.getQPInputConversion().stop();
       controllerCoreSubmissionTimer.stopMeasurement();
       inverseKinematicsSolver.compute();
       feedbackController.computeAchievedVelocities();
 
+      profiler.getOutputSubmission().start();
       jointDesiredOutputList.completeWith(inverseKinematicsSolver.getOutput());
       if (rootJointDesiredConfigurationData != null)
          rootJointDesiredConfigurationData.completeWith(inverseKinematicsSolver.getOutputForRootJoint());
+      profiler.getOutputSubmission().stop();
       controllerCoreOutput.setLinearMomentum(inverseKinematicsSolver.getAchievedMomentumLinear());
       controllerCoreOutput.setAngularMomentum(inverseKinematicsSolver.getAchievedMomentumAngular());
    }
@@ -330,13 +359,17 @@ public class WholeBodyControllerCore implements SCS2YoGraphicHolder
    private void doVirtualModelControl()
    {
       controllerCoreSubmissionTimer.startMeasurement();
+      profiler.getQPInputConversion().start();
       virtualModelControlSolver.submitVirtualModelControlCommandList(internalCommandInput.getVirtualModelControlCommandList());
+      profiler.getQPInputConversion().stop();
       controllerCoreSubmissionTimer.stopMeasurement();
       virtualModelControlSolver.compute();
 
+      profiler.getOutputSubmission().start();
       jointDesiredOutputList.completeWith(virtualModelControlSolver.getOutput());
       if (rootJointDesiredConfigurationData != null)
          rootJointDesiredConfigurationData.completeWith(virtualModelControlSolver.getOutputForRootJoint());
+      profiler.getOutputSubmission().stop();
       controllerCoreOutput.setLinearMomentumRate(virtualModelControlSolver.getAchievedMomentumRateLinear());
       controllerCoreOutput.setAngularMomentumRate(virtualModelControlSolver.getAchievedMomentumRateAngular());
    }
@@ -347,6 +380,19 @@ public class WholeBodyControllerCore implements SCS2YoGraphicHolder
       jointDesiredOutputList.insertDesiredTorquesIntoOneDoFJoints(controlledOneDoFJoints);
    }
 
+   public WholeBodyControllerCoreProfiler getProfiler()
+   {
+      return profiler;
+   }
+
+   /**
+    * Writes the latency histograms of the controller core stages to the given file, this can be called from any thread.
+    */
+   public void writeLatencyReport(Path file)
+   {
+      profiler.writeReport(file);
+   }
+
    public ControllerCoreOutput getControllerCoreOutput()
    {
       return controllerCoreOutput;
@@ -0,0 +1,92 @@
+package us.ihmc.commonWalkingControlModules.controllerCore;
+
+import java.nio.file.Path;
+
+import us.ihmc.robotics.time.ExecutionTimer;
+import us.ihmc.robotics.time.LatencyProfiler;
+import us.ihmc.robotics.time.LatencyProfiler.Stage;
+import us.ihmc.yoVariables.registry.YoRegistry;
+
+/**
+ * Latency histograms of the stages of a {@link WholeBodyControllerCore} tick, shared through the {@link WholeBodyControlCoreToolbox}
+ * so the solvers can measure their own stages. The percentiles of each stage are available as YoVariables, see
+ * {@link LatencyProfiler}.
+ */
+public class WholeBodyControllerCoreProfiler
+{
+   private final LatencyProfiler profiler;
+
+   private final Stage feedbackControl;
+   private final Stage qpInputConversion;
+   private final Stage dynamicsMatrix;
+   private final Stage qpSolve;
+   private final Stage outputSubmission;
+
+   public WholeBodyControllerCoreProfiler(YoRegistry parentRegistry)
+   {
+      profiler = new LatencyProfiler("controllerCoreProfiler", parentRegistry);
+      feedbackControl = profiler.addStage("controllerCoreFeedbackControl");
+      qpInputConversion = profiler.addStage("controllerCoreQPInputConversion");
+      dynamicsMatrix = profiler.addStage("controllerCoreDynamicsMatrix");
+      qpSolve = profiler.addStage("controllerCoreQPSolve");
+      outputSubmission = profiler.addStage("controllerCoreOutputSubmission");
+   }
+
+   /**
+    * Records every measurement of the timer of the whole tick.
+    */
+   public void attachComputeTimer(ExecutionTimer computeTimer)
+   {
+      profiler.addStage("controllerCoreCompute", computeTimer);
+   }
+
+   /** Evaluation of the feedback controllers */
+   public Stage getFeedbackControl()
+   {
+      return feedbackControl;
+   }
+
+   /** Conversion of the commands into QP tasks by the {@code MotionQPInputCalculator} */
+   public Stage getQPInputConversion()
+   {
+      return qpInputConversion;
+   }
+
+   /** Update of the {@code DynamicsMatrixCalculator} */
+   public Stage getDynamicsMatrix()
+   {
+      return dynamicsMatrix;
+   }
+
+   /** Solving the QP */
+   public Stage getQPSolve()
+   {
+      return qpSolve;
+   }
+
+   /** Packing the solution into the desired joint outputs */
+   public Stage getOutputSubmission()
+   {
+      return outputSubmission;
+   }
+
+   public void endTick()
+   {
+      profiler.endTick();
+   }
+
+   public void reset()
+   {
+      profiler.reset();
+   }
+
+   public void writeReport(Path file)
+   {
+      profiler.writeReport(file);
+   }
+
+   public LatencyProfiler getLatencyProfiler()
+   {
+      return profiler;
+   }
+}
@@ -12,6 +12,7 @@ import us.ihmc.commonWalkingControlModules.momentumBasedController.feedbackContr
 import us.ihmc.commonWalkingControlModules.momentumBasedController.feedbackController.taskspace.OrientationFeedbackController;
 import us.ihmc.commonWalkingControlModules.momentumBasedController.feedbackController.taskspace.PointFeedbackController;
 import us.ihmc.commonWalkingControlModules.momentumBasedController.feedbackController.taskspace.SpatialFeedbackController;
+import us.ihmc.commons.thread.ThreadTools;
 import us.ihmc.mecano.multiBodySystem.interfaces.OneDoFJointBasics;
 import us.ihmc.mecano.multiBodySystem.interfaces.RigidBodyBasics;
 import us.ihmc.robotics.SCS2YoGraphicHolder;
@@ -24,6 +25,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ThreadFactory;
 
 public class WholeBodyFeedbackController implements SCS2YoGraphicHolder
 {
@@ -33,6 +35,10 @@ public class WholeBodyFeedbackController implements SCS2YoGraphicHolder
    private final VirtualModelControlCommandList virtualModelControlOutput = new VirtualModelControlCommandList();
 
    private final List<FeedbackControllerInterface> allControllers = new ArrayList<>();
+   /** Key of the group of controllers sharing data, see {@link ParallelFeedbackControllerEvaluator}. */
+   private final List<Object> allControllerGroupKeys = new ArrayList<>();
+   private ParallelFeedbackControllerEvaluator parallelEvaluator = null;
+   private final YoBoolean useParallelEvaluation = new YoBoolean("useParallelFeedbackControllerEvaluation", registry);
 
    private final YoBoolean dynamicControllerConstructionEnabled = new YoBoolean("dynamicControllerConstructionEnabled", registry);
    private final YoBoolean hasBeenInitializedOnce = new YoBoolean("hasBeenInitializedOnce", registry);
@@ -102,7 +108,7 @@ public class WholeBodyFeedbackController implements SCS2YoGraphicHolder
       {
          SpatialFeedbackController controller = feedbackControllerFactory.buildSpatialFeedbackController(endEffector, endEffectorControllers.size());
          endEffectorControllers.add(controller);
-         allControllers.add(controller);
+         addController(endEffector, controller);
       }
    }
 
@@ -117,7 +123,7 @@ public class WholeBodyFeedbackController implements SCS2YoGraphicHolder
       {
          PointFeedbackController controller = feedbackControllerFactory.buildPointFeedbackController(endEffector, endEffectorControllers.size());
          endEffectorControllers.add(controller);
-         allControllers.add(controller);
+         addController(endEffector, controller);
       }
    }
 
@@ -132,7 +138,7 @@ public class WholeBodyFeedbackController implements SCS2YoGraphicHolder
       {
          OrientationFeedbackController controller = feedbackControllerFactory.buildOrientationFeedbackController(endEffector, endEffectorControllers.size());
          endEffectorControllers.add(controller);
-         allControllers.add(controller);
+         addController(endEffector, controller);
       }
    }
 
@@ -142,7 +148,7 @@ public class WholeBodyFeedbackController implements SCS2YoGraphicHolder
       {
          OneDoFJointFeedbackController controller = feedbackControllerFactory.buildOneDoFJointFeedbackController(joint);
          oneDoFJointFeedbackControllerMap.put(joint, controller);
-         allControllers.add(controller);
+         addController(joint, controller);
       }
    }
 
@@ -151,10 +157,72 @@ public class WholeBodyFeedbackController implements SCS2YoGraphicHolder
       if (centerOfMassFeedbackController == null)
       {
          centerOfMassFeedbackController = feedbackControllerFactory.buildCenterOfMassFeedbackController();
-         allControllers.add(centerOfMassFeedbackController);
+         // Relies on the whole-body centroidal momentum calculator, evaluated on the controller thread.
+         addController(null, centerOfMassFeedbackController);
       }
    }
 
+   private void addController(Object groupKey, FeedbackControllerInterface controller)
+   {
+      allControllers.add(controller);
+      allControllerGroupKeys.add(groupKey);
+
+      if (parallelEvaluator != null)
+         parallelEvaluator.registerController(groupKey, controller);
+   }
+
+   /**
+    * Sets up the evaluation of the feedback controllers on worker threads, see {@link ParallelFeedbackControllerEvaluator}. The
+    * controllers of a same end-effector are evaluated by the same thread, the outputs are identical to the serial evaluation.
+    *
+    * @param numberOfWorkerThreads the number of threads in addition to the controller thread. Less than 1 reverts to the serial
+    *                              evaluation.
+    * @param threadFactory         the factory for the worker threads, can be used to create pinned realtime threads.
+    */
+   public void setupParallelEvaluation(int numberOfWorkerThreads, ThreadFactory threadFactory)
+   {
+      shutdownParallelEvaluation();
+
+      if (numberOfWorkerThreads < 1)
+         return;
+
+      parallelEvaluator = new ParallelFeedbackControllerEvaluator(numberOfWorkerThreads, threadFactory);
+
+      for (RigidBodyBasics rigidBody : coreToolbox.getRootBody().subtreeIterable())
+      {
+         parallelEvaluator.addFrameToUpdate(rigidBody.getBodyFixedFrame());
+         if (rigidBody.getParentJoint() != null)
+         {
+            parallelEvaluator.addFrameToUpdate(rigidBody.getParentJoint().getFrameBeforeJoint());
+            parallelEvaluator.addFrameToUpdate(rigidBody.getParentJoint().getFrameAfterJoint());
+         }
+      }
+      parallelEvaluator.addFrameToUpdate(coreToolbox.getCenterOfMassFrame());
+
+      for (int i = 0; i < allControllers.size(); i++)
+         parallelEvaluator.registerController(allControllerGroupKeys.get(i), allControllers.get(i));
+
+      useParallelEvaluation.set(true);
+   }
+
+   public void setupParallelEvaluation(int numberOfWorkerThreads)
+   {
+      setupParallelEvaluation(numberOfWorkerThreads, ThreadTools.createNamedDaemonThreadFactory(getClass().getSimpleName()));
+   }
+
+   public void shutdownParallelEvaluation()
+   {
+      if (parallelEvaluator != null)
+         parallelEvaluator.shutdown();
+      parallelEvaluator = null;
+      useParallelEvaluation.set(false);
+   }
+
+   private boolean isParallelEvaluationActive()
+   {
+      return parallelEvaluator != null && useParallelEvaluation.getValue();
+   }
+
    public void initialize()
    {
       hasBeenInitializedOnce.set(true);
@@ -181,17 +249,31 @@ public class WholeBodyFeedbackController implements SCS2YoGraphicHolder
       feedbackControllerTimer.startMeasurement();
       inverseDynamicsOutput.clear();
 
-      for (int i = 0; i < allControllers.size(); i++)
+      if (isParallelEvaluationActive())
       {
-         FeedbackControllerInterface controller = allControllers.get(i);
-         if (controller.isEnabled())
+         parallelEvaluator.evaluate(WholeBodyControllerCoreMode.INVERSE_DYNAMICS);
+
+         for (int i = 0; i < allControllers.size(); i++)
          {
-            controller.computeInverseDynamics();
-            inverseDynamicsOutput.addCommand(controller.getInverseDynamicsOutput());
+            FeedbackControllerInterface controller = allControllers.get(i);
+            if (controller.isEnabled())
+               inverseDynamicsOutput.addCommand(controller.getInverseDynamicsOutput());
          }
-         else
+      }
+      else
+      {
+         for (int i = 0; i < allControllers.size(); i++)
          {
-            controller.initialize();
+            FeedbackControllerInterface controller = allControllers.get(i);
+            if (controller.isEnabled())
+            {
+               controller.computeInverseDynamics();
+               inverseDynamicsOutput.addCommand(controller.getInverseDynamicsOutput());
+            }
+            else
+            {
+               controller.initialize();
+            }
          }
       }
       feedbackControllerToolbox.registerFeedbackControllerOutput(inverseDynamicsOutput);
@@ -205,17 +287,31 @@ public class WholeBodyFeedbackController implements SCS2YoGraphicHolder
       feedbackControllerTimer.startMeasurement();
       inverseKinematicsOutput.clear();
 
-      for (int i = 0; i < allControllers.size(); i++)
+      if (isParallelEvaluationActive())
       {
-         FeedbackControllerInterface controller = allControllers.get(i);
-         if (controller.isEnabled())
+         parallelEvaluator.evaluate(WholeBodyControllerCoreMode.INVERSE_KINEMATICS);
+
+         for (int i = 0; i < allControllers.size(); i++)
          {
-            controller.computeInverseKinematics();
-            inverseKinematicsOutput.addCommand(controller.getInverseKinematicsOutput());
+            FeedbackControllerInterface controller = allControllers.get(i);
+            if (controller.isEnabled())
+               inverseKinematicsOutput.addCommand(controller.getInverseKinematicsOutput());
          }
-         else
+      }
+      else
+      {
+         for (int i = 0; i < allControllers.size(); i++)
          {
-            controller.initialize();
+            FeedbackControllerInterface controller = allControllers.get(i);
+            if (controller.isEnabled())
+            {
+               controller.computeInverseKinematics();
+               inverseKinematicsOutput.addCommand(controller.getInverseKinematicsOutput());
+            }
+            else
+            {
+               controller.initialize();
+            }
          }
       }
       feedbackControllerToolbox.clearUnusedData();
@@ -230,17 +326,31 @@ public class WholeBodyFeedbackController implements SCS2YoGraphicHolder
       feedbackControllerTimer.startMeasurement();
       virtualModelControlOutput.clear();
 
-      for (int i = 0; i < allControllers.size(); i++)
+      if (isParallelEvaluationActive())
       {
-         FeedbackControllerInterface controller = allControllers.get(i);
-         if (controller.isEnabled())
+         parallelEvaluator.evaluate(WholeBodyControllerCoreMode.VIRTUAL_MODEL);
+
+         for (int i = 0; i < allControllers.size(); i++)
          {
-            controller.computeVirtualModelControl();
-            virtualModelControlOutput.addCommand(controller.getVirtualModelControlOutput());
+            FeedbackControllerInterface controller = allControllers.get(i);
+            if (controller.isEnabled())
+               virtualModelControlOutput.addCommand(controller.getVirtualModelControlOutput());
          }
-         else
+      }
+      else
+      {
+         for (int i = 0; i < allControllers.size(); i++)
          {
-            controller.initialize();
+            FeedbackControllerInterface controller = allControllers.get(i);
+            if (controller.isEnabled())
+            {
+               controller.computeVirtualModelControl();
+               virtualModelControlOutput.addCommand(controller.getVirtualModelControlOutput());
+            }
+            else
+            {
+               controller.initialize();
+            }
          }
       }
       feedbackControllerToolbox.clearUnusedData();
@@ -362,7 +472,7 @@ public class WholeBodyFeedbackController implements SCS2YoGraphicHolder
                                                                                     feedbackControllerToolbox,
                                                                                     registry);
                endEffectorControllers.add(controller);
-               allControllers.add(controller);
+               addController(endEffector, controller);
 
                if (isOrientationControllerCreatedAndEnabled(endEffector, controllerIndex))
                   continue; // The orientation controller and the spatial controller share data => cannot be used at the same time.
@@ -426,7 +536,7 @@ public class WholeBodyFeedbackController implements SCS2YoGraphicHolder
                int controllerIndex = endEffectorControllers.size();
                PointFeedbackController controller = new PointFeedbackController(endEffector, controllerIndex, coreToolbox, feedbackControllerToolbox, registry);
                endEffectorControllers.add(controller);
-               allControllers.add(controller);
+               addController(endEffector, controller);
 
                if (isSpatialControllerCreatedAndEnabled(endEffector, controllerIndex))
                   continue; // The point controller and the spatial controller share data => cannot be used at the same time.
@@ -492,7 +602,7 @@ public class WholeBodyFeedbackController implements SCS2YoGraphicHolder
                                                                                             feedbackControllerToolbox,
                                                                                             registry);
                endEffectorControllers.add(controller);
-               allControllers.add(controller);
+               addController(endEffector, controller);
 
                if (isSpatialControllerCreatedAndEnabled(endEffector, controllerIndex))
                   continue; // The orientation controller and the spatial controller share data => cannot be used at the same time.
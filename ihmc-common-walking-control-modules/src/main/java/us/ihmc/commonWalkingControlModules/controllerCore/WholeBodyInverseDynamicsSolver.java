@@ -131,10 +131,12 @@ public class WholeBodyInverseDynamicsSolver implements SCS2YoGraphicHolder
    private final double controlDT;
    private final ExecutionTimer setupTimer;
    private final ExecutionTimer outputTimer;
+   private final WholeBodyControllerCoreProfiler profiler;
 
    public WholeBodyInverseDynamicsSolver(WholeBodyControlCoreToolbox toolbox, YoRegistry parentRegistry)
    {
       controlDT = toolbox.getControlDT();
+      profiler = toolbox.getControllerCoreProfiler();
       rootJoint = toolbox.getRootJoint();
       inverseDynamicsCalculator = toolbox.getInverseDynamicsCalculator();
       dynamicsMatrixCalculator = new DynamicsMatrixCalculator(toolbox);
@@ -220,11 +222,12 @@ public class WholeBodyInverseDynamicsSolver implements SCS2YoGraphicHolder
       // When you initialize into this controller, reset the estimator positions to current. Otherwise it might be in a bad state
       // where the feet are all jacked up. For example, after falling and getting back up.
       optimizationControlModule.initialize();
+      optimizationControlModule.resetActiveSet();
       planeContactWrenchProcessor.initialize();
 
       if (updateDynamicMatrixCalculator.getValue())
       {
-         dynamicsMatrixCalculator.reset();
+         dynamicsMatrixCalculator.initialize();
       }
       if (!useDynamicMatrixCalculatorForInverseDynamics.getValue())
       {
@@ -261,6 +264,7 @@ public class WholeBodyInverseDynamicsSolver implements SCS2YoGraphicHolder
          // Or maybe just use the previous ticks solution.
       }
       outputTimer.startMeasurement();
+      profiler.getOutputSubmission().start();
       MomentumModuleSolution momentumModuleSolution = optimizationControlModule.getMomentumModuleSolution();
 
       DMatrixRMaj jointAccelerations = momentumModuleSolution.getJointAccelerations();
@@ -281,7 +285,9 @@ public class WholeBodyInverseDynamicsSolver implements SCS2YoGraphicHolder
          //         rigidBodyAccelerationProvider.compute();
          inverseDynamicsCalculator.compute(jointAccelerations);
 
+         profiler.getDynamicsMatrix().start();
          dynamicsMatrixCalculator.compute();
+         profiler.getDynamicsMatrix().stop();
          DMatrixRMaj tauSolution = dynamicsMatrixCalculator.computeJointTorques(jointAccelerations, rhoSolution);
 
          for (int jointIndex = 0; jointIndex < controlledOneDoFJoints.length; jointIndex++)
@@ -359,6 +365,7 @@ public class WholeBodyInverseDynamicsSolver implements SCS2YoGraphicHolder
       if (wrenchVisualizer != null)
          wrenchVisualizer.visualize(externalWrenchSolution);
 
+      profiler.getOutputSubmission().stop();
       outputTimer.stopMeasurement();
    }
 
@@ -411,9 +418,13 @@ public class WholeBodyInverseDynamicsSolver implements SCS2YoGraphicHolder
    {
       if (updateDynamicMatrixCalculator.getValue())
       {
+         profiler.getDynamicsMatrix().start();
          dynamicsMatrixCalculator.compute();
+         profiler.getDynamicsMatrix().stop();
       }
 
+      profiler.getQPInputConversion().start();
+
       for (int i = 0; i < inverseDynamicsCommandList.getNumberOfCommands(); i++)
       {
          InverseDynamicsCommand<?> command = inverseDynamicsCommandList.getCommand(i);
@@ -491,6 +502,7 @@ public class WholeBodyInverseDynamicsSolver implements SCS2YoGraphicHolder
          }
       }
 
+      profiler.getQPInputConversion().stop();
       inverseDynamicsCommandList.clear();
    }
 
@@ -16,10 +16,20 @@ import us.ihmc.mecano.spatial.interfaces.WrenchReadOnly;
 import us.ihmc.mecano.tools.MultiBodySystemTools;
 import us.ihmc.robotics.screwTheory.FloatingBaseRigidBodyDynamicsCalculator;
 import us.ihmc.robotics.screwTheory.GravityCoriolisExternalWrenchMatrixCalculator;
+import us.ihmc.robotics.screwTheory.IncrementalMassMatrixCalculator;
 
 public class DynamicsMatrixCalculator
 {
    private final CompositeRigidBodyMassMatrixCalculator massMatrixCalculator;
+   private final IncrementalMassMatrixCalculator incrementalMassMatrixCalculator;
+   /**
+    * When {@code true}, the mass-matrix is updated incrementally, only the coefficients affected by the joints that moved since the
+    * last call to {@link #compute()} are recomputed. In particular, calling {@link #compute()} several times in a control tick only
+    * updates the mass-matrix once.
+    */
+   private boolean useIncrementalMassMatrix = true;
+   /** The floating base matrices are only extracted when requested. */
+   private boolean areFloatingBaseMatricesUpToDate = false;
    private final GravityCoriolisExternalWrenchMatrixCalculator coriolisMatrixCalculator;
    private final ContactWrenchMatrixCalculator contactWrenchMatrixCalculator;
 
@@ -51,6 +61,7 @@ public class DynamicsMatrixCalculator
       JointIndexHandler jointIndexHandler = toolbox.getJointIndexHandler();
 
       massMatrixCalculator = toolbox.getMassMatrixCalculator();
+      incrementalMassMatrixCalculator = toolbox.getIncrementalMassMatrixCalculator();
       coriolisMatrixCalculator = toolbox.getGravityCoriolisExternalWrenchMatrixCalculator();
       contactWrenchMatrixCalculator = toolbox.getContactWrenchMatrixCalculator();
 
@@ -78,14 +89,37 @@ public class DynamicsMatrixCalculator
       torqueMinimizationObjective = new DMatrixRMaj(bodyDoFs, 1);
    }
 
+   /**
+    * Clears the external wrenches, to be called every control tick. The mass-matrix keeps being updated incrementally.
+    */
    public void reset()
    {
       coriolisMatrixCalculator.setExternalWrenchesToZero();
    }
 
+   /**
+    * Clears the external wrenches and requests a full update of the mass-matrix at the next call to {@link #compute()}. To be called
+    * when the controller is initialized and whenever the robot model changed, e.g. a change of inertia or of a joint offset.
+    */
+   public void initialize()
+   {
+      reset();
+      incrementalMassMatrixCalculator.reset();
+   }
+
+   public void setUseIncrementalMassMatrix(boolean useIncrementalMassMatrix)
+   {
+      if (useIncrementalMassMatrix && !this.useIncrementalMassMatrix)
+         incrementalMassMatrixCalculator.reset();
+      this.useIncrementalMassMatrix = useIncrementalMassMatrix;
+   }
+
    public void compute()
    {
-      massMatrixCalculator.reset();
+      if (useIncrementalMassMatrix)
+         incrementalMassMatrixCalculator.compute();
+      else
+         massMatrixCalculator.reset();
       coriolisMatrixCalculator.compute();
 
       computeMatrices();
@@ -105,21 +139,36 @@ public class DynamicsMatrixCalculator
       coriolisMatrixCalculator.setExternalWrench(rigidBody, externalWrench);
    }
 
+   private DMatrixRMaj getFullMassMatrix()
+   {
+      return useIncrementalMassMatrix ? incrementalMassMatrixCalculator.getMassMatrix() : massMatrixCalculator.getMassMatrix();
+   }
+
    private void computeMatrices()
    {
-      DMatrixRMaj massMatrix = massMatrixCalculator.getMassMatrix();
-      helper.extractFloatingBaseMassMatrix(massMatrix, floatingBaseMassMatrix);
-      helper.extractBodyMassMatrix(massMatrix, bodyMassMatrix);
+      // Only the body matrices are used by the optimization, the floating base matrices are extracted on demand.
+      areFloatingBaseMatricesUpToDate = false;
+
+      helper.extractBodyMassMatrix(getFullMassMatrix(), bodyMassMatrix);
 
       helper.computeCoriolisMatrix(coriolisMatrix);
-      helper.extractFloatingBaseCoriolisMatrix(coriolisMatrix, floatingBaseCoriolisMatrix);
       helper.extractBodyCoriolisMatrix(coriolisMatrix, bodyCoriolisMatrix);
 
       contactWrenchMatrixCalculator.computeContactForceJacobian(contactForceJacobian);
-      helper.extractFloatingBaseContactForceJacobianMatrix(contactForceJacobian, floatingBaseContactForceJacobian);
       helper.extractBodyContactForceJacobianMatrix(contactForceJacobian, bodyContactForceJacobian);
    }
 
+   private void updateFloatingBaseMatrices()
+   {
+      if (areFloatingBaseMatricesUpToDate)
+         return;
+
+      helper.extractFloatingBaseMassMatrix(getFullMassMatrix(), floatingBaseMassMatrix);
+      helper.extractFloatingBaseCoriolisMatrix(coriolisMatrix, floatingBaseCoriolisMatrix);
+      helper.extractFloatingBaseContactForceJacobianMatrix(contactForceJacobian, floatingBaseContactForceJacobian);
+      areFloatingBaseMatricesUpToDate = true;
+   }
+
    private void computeTorqueMinimizationTaskMatrices()
    {
       CommonOps_DDRM.transpose(bodyContactForceJacobian, bodyContactForceJacobianTranspose);
@@ -130,16 +179,19 @@ public class DynamicsMatrixCalculator
 
    public void getFloatingBaseMassMatrix(DMatrixRMaj floatingBaseMassMatrixToPack)
    {
+      updateFloatingBaseMatrices();
       floatingBaseMassMatrixToPack.set(floatingBaseMassMatrix);
    }
 
    public void getFloatingBaseCoriolisMatrix(DMatrixRMaj floatingBaseCoriolisMatrixToPack)
    {
+      updateFloatingBaseMatrices();
       floatingBaseCoriolisMatrixToPack.set(floatingBaseCoriolisMatrix);
    }
 
    public void getFloatingBaseContactForceJacobian(DMatrixRMaj floatingBaseContactForceJacobianToPack)
    {
+      updateFloatingBaseMatrices();
       floatingBaseContactForceJacobianToPack.set(floatingBaseContactForceJacobian);
    }
 
@@ -160,6 +212,7 @@ public class DynamicsMatrixCalculator
 
    public void getMassMatrix(DMatrixRMaj massMatrixToPack)
    {
+      updateFloatingBaseMatrices();
       MatrixTools.setMatrixBlock(massMatrixToPack,
                                  0,
                                  0,
@@ -182,6 +235,7 @@ public class DynamicsMatrixCalculator
 
    public void getCoriolisMatrix(DMatrixRMaj coriolisMatrixToPack)
    {
+      updateFloatingBaseMatrices();
       MatrixTools.setMatrixBlock(coriolisMatrixToPack,
                                  0,
                                  0,
@@ -15,6 +15,7 @@ import org.ejml.dense.row.CommonOps_DDRM;
 import gnu.trove.list.array.TIntArrayList;
 import gnu.trove.map.hash.TObjectDoubleHashMap;
 import us.ihmc.commonWalkingControlModules.controllerCore.WholeBodyControlCoreToolbox;
+import us.ihmc.commonWalkingControlModules.controllerCore.WholeBodyControllerCoreProfiler;
 import us.ihmc.commonWalkingControlModules.controllerCore.command.ConstraintType;
 import us.ihmc.commonWalkingControlModules.controllerCore.command.inverseDynamics.CenterOfPressureCommand;
 import us.ihmc.commonWalkingControlModules.controllerCore.command.inverseDynamics.ContactWrenchCommand;
@@ -118,6 +119,7 @@ public class InverseDynamicsOptimizationControlModule implements SCS2YoGraphicHo
    private final YoBoolean useWarmStart = new YoBoolean("useWarmStartInSolver", registry);
    private final YoInteger maximumNumberOfIterations = new YoInteger("maximumNumberOfIterationsInSolver", registry);
    private final ExecutionTimer optimizationTimer = new ExecutionTimer("InvDynOptimizationTimer", registry);
+   private final WholeBodyControllerCoreProfiler profiler;
 
    private final ArrayList<QPObjectiveCommand> nullspaceQPObjectiveCommands = new ArrayList<>();
    private final ArrayList<RigidBodyReadOnly> rigidBodiesWithCoPCommands = new ArrayList<>();
@@ -136,6 +138,7 @@ public class InverseDynamicsOptimizationControlModule implements SCS2YoGraphicHo
       oneDoFJoints = jointIndexHandler.getIndexedOneDoFJoints();
       kinematicLoopFunctions = toolbox.getKinematicLoopFunctions();
       this.dynamicsMatrixCalculator = dynamicsMatrixCalculator;
+      profiler = toolbox.getControllerCoreProfiler();
 
       for (OneDoFJointBasics inactiveJoint : toolbox.getInactiveOneDoFJoints())
          inactiveJointIndices.add(jointIndexHandler.getOneDoFJointIndex(inactiveJoint));
@@ -239,6 +242,14 @@ public class InverseDynamicsOptimizationControlModule implements SCS2YoGraphicHo
       motionQPInputCalculator.initialize();
    }
 
+   /**
+    * Discards the active set of the previous solve, such that the next QP is solved without warm start.
+    */
+   public void resetActiveSet()
+   {
+      qpSolver.notifyResetActiveSet();
+   }
+
    public void resetCustomBounds()
    {
       CommonOps_DDRM.fill(customQDDotMaxMatrix, Double.POSITIVE_INFINITY);
@@ -273,6 +284,7 @@ public class InverseDynamicsOptimizationControlModule implements SCS2YoGraphicHo
       setupWrenchesEquilibriumConstraint();
 
       // The Jacobian for all the primary tasks has been computed, so we should now submit the tasks take place in the nullspace.
+      profiler.getQPInputConversion().start();
       for (int i = 0; i < nullspaceQPObjectiveCommands.size(); i++)
       {
          QPObjectiveCommand command = nullspaceQPObjectiveCommands.get(i);
@@ -301,15 +313,16 @@ public class InverseDynamicsOptimizationControlModule implements SCS2YoGraphicHo
          }
 
       }
+      profiler.getQPInputConversion().stop();
 
       qpSolver.setMaxNumberOfIterations(maximumNumberOfIterations.getIntegerValue());
-      if (useWarmStart.getBooleanValue() && wrenchMatrixCalculator.hasContactStateChanged())
-      {
-         qpSolver.setUseWarmStart(useWarmStart.getBooleanValue());
+      qpSolver.setUseWarmStart(useWarmStart.getBooleanValue());
+      if (wrenchMatrixCalculator.hasContactStateChanged())
          qpSolver.notifyResetActiveSet();
-      }
 
+      profiler.getQPSolve().start();
       boolean hasConverged = qpSolver.solve();
+      profiler.getQPSolve().stop();
       if (!hasConverged)
       {
          if (!hasNotConvergedInPast.getBooleanValue())
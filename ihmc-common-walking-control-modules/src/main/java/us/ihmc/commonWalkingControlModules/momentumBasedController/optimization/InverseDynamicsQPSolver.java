@@ -68,6 +68,9 @@ public class InverseDynamicsQPSolver
    private final YoInteger numberOfEqualityConstraints = new YoInteger("numberOfEqualityConstraints", registry);
    private final YoInteger numberOfInequalityConstraints = new YoInteger("numberOfInequalityConstraints", registry);
    private final YoInteger numberOfConstraints = new YoInteger("numberOfConstraints", registry);
+   private final YoBoolean hasActiveSetBeenReset = new YoBoolean("hasQPActiveSetBeenReset", registry);
+   private final YoBoolean retryWithColdStart = new YoBoolean("retryQPWithColdStart", registry);
+   private final YoInteger numberOfColdStartRetries = new YoInteger("numberOfQPColdStartRetries", registry);
    private final YoDouble jointAccelerationRegularization = new YoDouble("jointAccelerationRegularization", registry);
    private final YoDouble jointJerkRegularization = new YoDouble("jointJerkRegularization", registry);
    private final YoDouble jointTorqueWeight = new YoDouble("jointTorqueWeight", registry);
@@ -85,6 +88,11 @@ public class InverseDynamicsQPSolver
    private boolean useWarmStart = false;
    private int maxNumberOfIterations = 100;
 
+   private boolean previousTickFailed = false;
+   private int previousNumberOfEqualityConstraints = -1;
+   private int previousNumberOfInequalityConstraints = -1;
+   private int previousNumberOfActiveVariables = -1;
+
    private final double dt;
 
    public InverseDynamicsQPSolver(NativeActiveSetQPSolverWithInactiveVariablesInterface qpSolver,
@@ -102,6 +110,7 @@ public class InverseDynamicsQPSolver
       this.dt = dt;
 
       addRateRegularization.set(false);
+      retryWithColdStart.set(false);
 
       solver_H = qpSolver.getCostHessianUnsafe();
       solver_f = qpSolver.getCostGradientUnsafe();
@@ -219,6 +228,14 @@ public class InverseDynamicsQPSolver
       regularizationMatrix.insert(weight, numberOfDoFs, numberOfDoFs);
    }
 
+   /**
+    * Sets whether the active set of the previous tick is used as the initial guess of the next solve. The active set is still
+    * discarded when a reset is requested with {@link #notifyResetActiveSet()}, when the previous solve failed, or when the number of
+    * constraints or active variables changed since the previous tick, as its indices would then be meaningless. If a solve fails or
+    * does not converge within the maximum number of iterations, the next tick starts from an empty active set. Setting the
+    * {@code retryQPWithColdStart} variable instead re-solves a failed warm-started QP in the same tick, at the cost of up to twice
+    * the worst-case solve time.
+    */
    public void setUseWarmStart(boolean useWarmStart)
    {
       this.useWarmStart = useWarmStart;
@@ -241,6 +258,10 @@ public class InverseDynamicsQPSolver
       return ret;
    }
 
+   /**
+    * Clears the QP problem before it is populated for a new control tick. The active set of the previous tick is kept for warm
+    * starting, use {@link #notifyResetActiveSet()} to discard it.
+    */
    public void reset()
    {
       regularizationMatrix.fillDiagonal(0, 0, numberOfDoFs, jointAccelerationRegularization.getDoubleValue());
@@ -286,7 +307,9 @@ public class InverseDynamicsQPSolver
       switch (input.getConstraintType())
       {
          case OBJECTIVE:
-            if (input.useWeightScalar())
+            if (isSparse(input.getTaskJacobianColumnBlocks()))
+               addSparseQPTask(input, inputDomain);
+            else if (input.useWeightScalar())
                addQPTask(input.taskJacobian, input.taskObjective, input.getWeightScalar(), inputDomain);
             else
                addQPTask(input.taskJacobian, input.taskObjective, input.taskWeightMatrix, inputDomain);
@@ -381,6 +404,84 @@ public class InverseDynamicsQPSolver
       addTaskInternal(taskJacobian, taskConvectiveTerm, taskWeight, directCostHessian, directCostGradient, getVariableOffset(inputDomain));
    }
 
+   private static boolean isSparse(JacobianColumnBlocks columnBlocks)
+   {
+      return !columnBlocks.isDense() && columnBlocks.getNumberOfNonZeroColumns() < columnBlocks.getNumberOfColumns();
+   }
+
+   private final NativeMatrix tempCompactJacobian = new NativeMatrix(0, 0);
+   private final NativeMatrix tempCompactHessian = new NativeMatrix(0, 0);
+   private final NativeMatrix tempCompactGradient = new NativeMatrix(0, 0);
+
+   /**
+    * Sets up an objective the same way as {@link #addQPTask}, considering only the columns of the task Jacobian given by
+    * {@link NativeQPInputTypeA#getTaskJacobianColumnBlocks()}. The non-zero columns are gathered in a compact Jacobian, the
+    * compact J<sup>T</sup> W J and J<sup>T</sup> W b are computed and then added block by block to the Hessian and gradient.
+    */
+   private void addSparseQPTask(NativeQPInputTypeA input, QPInputDomain inputDomain)
+   {
+      NativeMatrix taskJacobian = input.taskJacobian;
+      JacobianColumnBlocks columnBlocks = input.getTaskJacobianColumnBlocks();
+
+      if (taskJacobian.getNumCols() != getNumberOfVariables(inputDomain) || columnBlocks.getNumberOfColumns() != taskJacobian.getNumCols())
+      {
+         throw new RuntimeException("Invalid task size. Expected " + getNumberOfVariables(inputDomain) + " but received " + taskJacobian.getNumCols());
+      }
+
+      int offset = getVariableOffset(inputDomain);
+      int taskSize = taskJacobian.getNumRows();
+      int compactSize = columnBlocks.getNumberOfNonZeroColumns();
+
+      tempCompactJacobian.reshape(taskSize, compactSize);
+      int compactColumn = 0;
+      for (int block = 0; block < columnBlocks.getNumberOfBlocks(); block++)
+      {
+         tempCompactJacobian.insert(taskJacobian, 0, taskSize, columnBlocks.getBlockStart(block), columnBlocks.getBlockEnd(block), 0, compactColumn);
+         compactColumn += columnBlocks.getBlockSize(block);
+      }
+
+      tempCompactHessian.reshape(compactSize, compactSize);
+      tempCompactHessian.zero();
+      tempCompactGradient.reshape(compactSize, 1);
+      tempCompactGradient.zero();
+
+      if (input.useWeightScalar())
+      {
+         // Compute: H += J^T W J
+         tempCompactHessian.multAddBlockTransA(input.getWeightScalar(), tempCompactJacobian, tempCompactJacobian, 0, 0);
+         // Compute: f += - J^T W Objective
+         tempCompactGradient.multAddBlockTransA(-input.getWeightScalar(), tempCompactJacobian, input.taskObjective, 0, 0);
+      }
+      else
+      {
+         // J^T W
+         tempJtW.multTransA(tempCompactJacobian, input.taskWeightMatrix);
+         // Compute: H += J^T W J
+         tempCompactHessian.multAddBlock(tempJtW, tempCompactJacobian, 0, 0);
+         // Compute: f += - J^T W Objective
+         tempCompactGradient.multAddBlock(-1.0, tempJtW, input.taskObjective, 0, 0);
+      }
+
+      int compactRow = 0;
+      for (int rowBlock = 0; rowBlock < columnBlocks.getNumberOfBlocks(); rowBlock++)
+      {
+         int row = offset + columnBlocks.getBlockStart(rowBlock);
+         int rowBlockSize = columnBlocks.getBlockSize(rowBlock);
+
+         compactColumn = 0;
+         for (int columnBlock = 0; columnBlock < columnBlocks.getNumberOfBlocks(); columnBlock++)
+         {
+            int column = offset + columnBlocks.getBlockStart(columnBlock);
+            int columnBlockSize = columnBlocks.getBlockSize(columnBlock);
+            solver_H.addBlock(tempCompactHessian, row, column, compactRow, compactColumn, rowBlockSize, columnBlockSize);
+            compactColumn += columnBlockSize;
+         }
+
+         solver_f.addBlock(tempCompactGradient, row, 0, compactRow, 0, rowBlockSize, 1);
+         compactRow += rowBlockSize;
+      }
+   }
+
    /**
     * Sets up an objective similarly to {@link #addQPTask} but with an identity Jacobian, J=I:
     * <p>
@@ -673,8 +774,6 @@ public class InverseDynamicsQPSolver
 
       qpSolver.setUseWarmStart(useWarmStart);
       qpSolver.setMaxNumberOfIterations(maxNumberOfIterations);
-      if (useWarmStart && pollResetActiveSet())
-         qpSolver.resetActiveSet();
 
       TIntArrayList inactiveIndices = applySubstitution(); // This needs to be done right before configuring the QP and solving.
 
@@ -689,14 +788,40 @@ public class InverseDynamicsQPSolver
       numberOfActiveVariables.set((int) solverInput_activeIndices.sum());
       qpSolver.setActiveVariables(solverInput_activeIndices);
 
+      boolean hasProblemStructureChanged = numberOfEqualityConstraints.getIntegerValue() != previousNumberOfEqualityConstraints
+                                           || numberOfInequalityConstraints.getIntegerValue() != previousNumberOfInequalityConstraints
+                                           || numberOfActiveVariables.getIntegerValue() != previousNumberOfActiveVariables;
+      boolean isResetRequested = pollResetActiveSet();
+      boolean isWarmStarted = useWarmStart && !isResetRequested && !hasProblemStructureChanged && !previousTickFailed;
+
+      hasActiveSetBeenReset.set(useWarmStart && !isWarmStarted);
+      if (hasActiveSetBeenReset.getBooleanValue())
+         qpSolver.resetActiveSet();
+
       numberOfIterations.set(qpSolver.solve(solverOutput));
+
+      if (isWarmStarted && retryWithColdStart.getBooleanValue() && (solverOutput.containsNaN() || numberOfIterations.getIntegerValue() >= maxNumberOfIterations))
+      { // The previous active set was a bad guess, start over from an empty one.
+         numberOfColdStartRetries.increment();
+         hasActiveSetBeenReset.set(true);
+         qpSolver.resetActiveSet();
+         numberOfIterations.set(qpSolver.solve(solverOutput));
+      }
+
       removeSubstitution(); // This needs to be done right after solving.
 
       qpSolverTimer.stopMeasurement();
 
       hasWrenchesEquilibriumConstraintBeenSetup = false;
 
-      if (solverOutput.containsNaN())
+      previousNumberOfEqualityConstraints = numberOfEqualityConstraints.getIntegerValue();
+      previousNumberOfInequalityConstraints = numberOfInequalityConstraints.getIntegerValue();
+      previousNumberOfActiveVariables = numberOfActiveVariables.getIntegerValue();
+      boolean hasFailed = solverOutput.containsNaN();
+      // A solve that ran out of iterations leaves an unreliable active set, the next tick starts cold instead.
+      previousTickFailed = hasFailed || numberOfIterations.getIntegerValue() >= maxNumberOfIterations;
+
+      if (hasFailed)
       {
          return false;
       }
@@ -750,6 +875,14 @@ public class InverseDynamicsQPSolver
       accelerationVariablesSubstitution.removeSubstitutionToSolution(solverOutput);
    }
 
+   /**
+    * @return whether the last call to {@link #solve()} started from an empty active set while warm start is enabled.
+    */
+   public boolean hasActiveSetBeenReset()
+   {
+      return hasActiveSetBeenReset.getBooleanValue();
+   }
+
    public NativeMatrix getJointAccelerations()
    {
       return solverOutput_jointAccelerations;
@@ -0,0 +1,153 @@
+package us.ihmc.commonWalkingControlModules.momentumBasedController.optimization;
+
+import gnu.trove.list.array.TIntArrayList;
+
+/**
+ * Describes which columns of a task Jacobian may be non-zero, as a sorted list of disjoint column ranges. A task on a single
+ * kinematic chain typically spans the floating joint and the joints of the chain, which are a few contiguous ranges of the
+ * {@link JointIndexHandler} indices.
+ * <p>
+ * The QP solver uses it to accumulate {@code H += J}<sup>T</sup>{@code WJ} over the non-zero blocks only. When dense, which is the
+ * default, all the columns are considered.
+ * </p>
+ */
+public class JacobianColumnBlocks
+{
+   private final TIntArrayList blockStarts = new TIntArrayList();
+   /** Exclusive */
+   private final TIntArrayList blockEnds = new TIntArrayList();
+   private int numberOfColumns = 0;
+   private boolean isDense = true;
+
+   /**
+    * All the columns are considered, this is the default.
+    */
+   public void setToDense(int numberOfColumns)
+   {
+      this.numberOfColumns = numberOfColumns;
+      isDense = true;
+      blockStarts.resetQuick();
+      blockEnds.resetQuick();
+   }
+
+   /**
+    * No column is considered until columns are added.
+    */
+   public void setToEmpty(int numberOfColumns)
+   {
+      this.numberOfColumns = numberOfColumns;
+      isDense = false;
+      blockStarts.resetQuick();
+      blockEnds.resetQuick();
+   }
+
+   public void addColumns(int[] columns)
+   {
+      for (int column : columns)
+         addColumnRange(column, column + 1);
+   }
+
+   /**
+    * Adds the columns in [start, end), merging with the existing blocks they overlap or touch.
+    */
+   public void addColumnRange(int start, int end)
+   {
+      if (isDense || start >= end)
+         return;
+      if (start < 0 || end > numberOfColumns)
+         throw new IndexOutOfBoundsException("Column range [" + start + ", " + end + ") is out of [0, " + numberOfColumns + ")");
+
+      int index = 0;
+      while (index < blockEnds.size() && blockEnds.get(index) < start)
+         index++;
+
+      if (index == blockEnds.size() || blockStarts.get(index) > end)
+      {
+         blockStarts.insert(index, start);
+         blockEnds.insert(index, end);
+         return;
+      }
+
+      blockStarts.set(index, Math.min(start, blockStarts.get(index)));
+      int newEnd = Math.max(end, blockEnds.get(index));
+
+      while (index + 1 < blockStarts.size() && blockStarts.get(index + 1) <= newEnd)
+      {
+         newEnd = Math.max(newEnd, blockEnds.get(index + 1));
+         blockStarts.removeAt(index + 1);
+         blockEnds.removeAt(index + 1);
+      }
+
+      blockEnds.set(index, newEnd);
+   }
+
+   public void set(JacobianColumnBlocks other)
+   {
+      numberOfColumns = other.numberOfColumns;
+      isDense = other.isDense;
+      blockStarts.resetQuick();
+      blockStarts.addAll(other.blockStarts);
+      blockEnds.resetQuick();
+      blockEnds.addAll(other.blockEnds);
+   }
+
+   public boolean isDense()
+   {
+      return isDense;
+   }
+
+   public int getNumberOfColumns()
+   {
+      return numberOfColumns;
+   }
+
+   /**
+    * @return the number of blocks, or 1 when dense
+    */
+   public int getNumberOfBlocks()
+   {
+      return isDense ? 1 : blockStarts.size();
+   }
+
+   public int getBlockStart(int blockIndex)
+   {
+      return isDense ? 0 : blockStarts.get(blockIndex);
+   }
+
+   public int getBlockEnd(int blockIndex)
+   {
+      return isDense ? numberOfColumns : blockEnds.get(blockIndex);
+   }
+
+   public int getBlockSize(int blockIndex)
+   {
+      return getBlockEnd(blockIndex) - getBlockStart(blockIndex);
+   }
+
+   public int getNumberOfNonZeroColumns()
+   {
+      if (isDense)
+         return numberOfColumns;
+
+      int count = 0;
+      for (int i = 0; i < blockStarts.size(); i++)
+         count += blockEnds.get(i) - blockStarts.get(i);
+      return count;
+   }
+
+   @Override
+   public String toString()
+   {
+      if (isDense)
+         return "dense, " + numberOfColumns + " columns";
+
+      StringBuilder builder = new StringBuilder();
+      for (int i = 0; i < blockStarts.size(); i++)
+      {
+         if (i > 0)
+            builder.append(", ");
+         builder.append("[").append(blockStarts.get(i)).append(", ").append(blockEnds.get(i)).append(")");
+      }
+      return builder.append(" of ").append(numberOfColumns).append(" columns").toString();
+   }
+}
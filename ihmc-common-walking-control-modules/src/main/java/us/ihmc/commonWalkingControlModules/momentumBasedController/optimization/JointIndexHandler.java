@@ -233,6 +233,21 @@ public class JointIndexHandler
          return jointIndices[0];
    }
 
+   /**
+    * Packs the columns of the given joints, ignoring the joints that are not indexed.
+    */
+   public void packColumnBlocks(List<? extends JointReadOnly> joints, JacobianColumnBlocks columnBlocksToPack)
+   {
+      columnBlocksToPack.setToEmpty(numberOfDoFs);
+
+      for (int i = 0; i < joints.size(); i++)
+      {
+         int[] jointIndices = columnsForJoints.get(joints.get(i));
+         if (jointIndices != null)
+            columnBlocksToPack.addColumns(jointIndices);
+      }
+   }
+
    public int[] getJointIndices(JointReadOnly joint)
    {
       return columnsForJoints.get(joint);
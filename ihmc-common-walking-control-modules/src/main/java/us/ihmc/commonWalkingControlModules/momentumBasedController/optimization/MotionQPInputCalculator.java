@@ -557,6 +557,7 @@ public class MotionQPInputCalculator
 
       // Step 2: The small Jacobian matrix into the full Jacobian matrix. Proper indexing has to be ensured, so it is handled by the jointIndexHandler.
       jointIndexHandler.compactBlockToFullBlockIgnoreUnindexedJoints(jointsUsedInTask, nativeTempTaskJacobian, qpInputToPack.taskJacobian);
+      jointIndexHandler.packColumnBlocks(jointsUsedInTask, qpInputToPack.getTaskJacobianColumnBlocks());
 
       if (primaryBase == null)
       { // No primary base provided for this task.
@@ -771,6 +772,7 @@ public class MotionQPInputCalculator
          nativeTempTaskJacobian.mult(nativeTempSelectionMatrix, nativeCentroidalMomentumMatrix);
          qpInputToPack.taskJacobian.zero();
          List<JointReadOnly> jointSelection = commandToConvert.getJointSelection();
+         qpInputToPack.getTaskJacobianColumnBlocks().setToEmpty(numberOfDoFs);
 
          for (int i = 0; i < jointSelection.size(); i++)
          {
@@ -778,6 +780,7 @@ public class MotionQPInputCalculator
             int jointFirstIndex = jointIndices[0];
             int jointLastIndex = jointIndices[jointIndices.length - 1];
             qpInputToPack.taskJacobian.insert(nativeTempTaskJacobian, 0, taskSize, jointFirstIndex, jointLastIndex + 1, 0, jointFirstIndex);
+            qpInputToPack.getTaskJacobianColumnBlocks().addColumnRange(jointFirstIndex, jointLastIndex + 1);
          }
       }
 
@@ -1062,6 +1065,7 @@ public class MotionQPInputCalculator
       qpInputToPack.taskJacobian.zero();
       qpInputToPack.taskWeightMatrix.zero();
       qpInputToPack.setUseWeightScalar(false);
+      qpInputToPack.getTaskJacobianColumnBlocks().setToEmpty(numberOfDoFs);
 
       int row = 0;
       for (int jointIndex = 0; jointIndex < commandToConvert.getNumberOfJoints(); jointIndex++)
@@ -1075,6 +1079,7 @@ public class MotionQPInputCalculator
          if (columns == null)
             return false;
 
+         qpInputToPack.getTaskJacobianColumnBlocks().addColumns(columns);
          qpInputToPack.taskObjective.insert(commandToConvert.getDesiredAcceleration(jointIndex), row, 0);
          for (int column : columns)
          {
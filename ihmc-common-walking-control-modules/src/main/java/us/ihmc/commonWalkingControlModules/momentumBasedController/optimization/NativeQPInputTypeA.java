@@ -16,6 +16,7 @@ public class NativeQPInputTypeA
    public final NativeMatrix taskJacobian = new NativeMatrix(0, 0);
    public final NativeMatrix taskObjective = new NativeMatrix(0, 0);
    public final NativeMatrix taskWeightMatrix = new NativeMatrix(0, 0);
+   private final JacobianColumnBlocks taskJacobianColumnBlocks = new JacobianColumnBlocks();
 
    private boolean useWeightScalar = false;
    private double taskWeightScalar;
@@ -76,6 +77,7 @@ public class NativeQPInputTypeA
    public void set(QPInputTypeA inputTypeA)
    {
       setTaskJacobian(inputTypeA.getTaskJacobian());
+      taskJacobianColumnBlocks.setToDense(inputTypeA.taskJacobian.getNumCols());
       setTaskObjective(inputTypeA.getTaskObjective());
       setUseWeightScalar(inputTypeA.useWeightScalar());
       setNumberOfVariables(inputTypeA.taskJacobian.getNumCols());
@@ -104,6 +106,7 @@ public class NativeQPInputTypeA
       taskJacobian.zero();
       taskObjective.zero();
       taskWeightMatrix.zero();
+      taskJacobianColumnBlocks.setToDense(numberOfVariables);
    }
 
    public void setTaskJacobian(DMatrix taskJacobian)
@@ -116,6 +119,14 @@ public class NativeQPInputTypeA
       return taskJacobian;
    }
 
+   /**
+    * The columns of {@link #taskJacobian} that may be non-zero, reset to dense by {@link #reshape(int)}.
+    */
+   public JacobianColumnBlocks getTaskJacobianColumnBlocks()
+   {
+      return taskJacobianColumnBlocks;
+   }
+
    public void setTaskObjective(DMatrix taskObjective)
    {
       this.taskObjective.set(taskObjective);
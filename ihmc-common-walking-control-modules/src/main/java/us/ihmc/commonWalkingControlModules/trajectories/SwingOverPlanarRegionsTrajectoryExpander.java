@@ -355,7 +355,7 @@ public class SwingOverPlanarRegionsTrajectoryExpander
       List<PlanarRegion> filteredRegions = PlanarRegionTools.filterPlanarRegionsWithBoundingCapsule(swingStartPosition,
                                                                                                     swingEndPosition,
                                                                                                     filterDistance,
-                                                                                                    planarRegionsList.getPlanarRegionsAsList());
+                                                                                                    planarRegionsList);
 
       status.set(SwingOverPlanarRegionsStatus.SEARCHING_FOR_SOLUTION);
       numberOfTriesCounter.resetCount();
@@ -0,0 +1,324 @@
+package us.ihmc.commonWalkingControlModules.controllerCore;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.Test;
+
+import us.ihmc.commonWalkingControlModules.controllerCore.command.feedbackController.FeedbackControlCommandList;
+import us.ihmc.commonWalkingControlModules.controllerCore.command.feedbackController.OrientationFeedbackControlCommand;
+import us.ihmc.commonWalkingControlModules.controllerCore.command.feedbackController.PointFeedbackControlCommand;
+import us.ihmc.commonWalkingControlModules.controllerCore.command.feedbackController.SpatialFeedbackControlCommand;
+import us.ihmc.commonWalkingControlModules.controllerCore.command.inverseDynamics.InverseDynamicsCommand;
+import us.ihmc.commonWalkingControlModules.controllerCore.command.inverseKinematics.InverseKinematicsCommand;
+import us.ihmc.commonWalkingControlModules.controllerCore.command.virtualModelControl.VirtualModelControlCommand;
+import us.ihmc.commonWalkingControlModules.momentumBasedController.HighLevelHumanoidControllerToolbox;
+import us.ihmc.commonWalkingControlModules.momentumBasedController.feedbackController.FeedbackControllerInterface;
+import us.ihmc.euclid.referenceFrame.FramePoint3D;
+import us.ihmc.euclid.referenceFrame.FramePose3D;
+import us.ihmc.euclid.referenceFrame.FrameQuaternion;
+import us.ihmc.euclid.referenceFrame.FrameVector3D;
+import us.ihmc.euclid.referenceFrame.ReferenceFrame;
+import us.ihmc.euclid.referenceFrame.tools.EuclidFrameRandomTools;
+import us.ihmc.mecano.frames.CenterOfMassReferenceFrame;
+import us.ihmc.mecano.multiBodySystem.interfaces.JointBasics;
+import us.ihmc.mecano.multiBodySystem.interfaces.RigidBodyBasics;
+import us.ihmc.mecano.spatial.SpatialVector;
+import us.ihmc.mecano.tools.JointStateType;
+import us.ihmc.mecano.tools.MultiBodySystemRandomTools;
+import us.ihmc.robotModels.FullHumanoidRobotModel;
+import us.ihmc.robotModels.FullRobotModelTestTools;
+import us.ihmc.robotics.controllers.pidGains.implementations.DefaultPID3DGains;
+import us.ihmc.robotics.controllers.pidGains.implementations.DefaultPIDSE3Gains;
+import us.ihmc.robotics.robotSide.RobotSide;
+import us.ihmc.yoVariables.registry.YoRegistry;
+
+public class ParallelFeedbackControllerEvaluatorTest
+{
+   @Test
+   public void testSameStateAsSerialEvaluation()
+   {
+      Random random = new Random(6431L);
+      int numberOfGroups = 12;
+      int controllersPerGroup = 3;
+
+      List<FakeController> serialControllers = new ArrayList<>();
+      List<FakeController> parallelControllers = new ArrayList<>();
+      ParallelFeedbackControllerEvaluator evaluator = new ParallelFeedbackControllerEvaluator(3, Executors.defaultThreadFactory());
+
+      for (int groupIndex = 0; groupIndex < numberOfGroups; groupIndex++)
+      {
+         // Controllers of a same group share their state, the result depends on the evaluation order.
+         SharedState serialState = new SharedState();
+         SharedState parallelState = new SharedState();
+         Object groupKey = groupIndex == 0 ? null : Integer.valueOf(groupIndex);
+
+         for (int i = 0; i < controllersPerGroup; i++)
+         {
+            serialControllers.add(new FakeController(serialState, i + 1));
+            FakeController parallelController = new FakeController(parallelState, i + 1);
+            parallelControllers.add(parallelController);
+            evaluator.registerController(groupKey, parallelController);
+         }
+      }
+
+      Thread callingThread = Thread.currentThread();
+
+      for (int tick = 0; tick < 500; tick++)
+      {
+         for (int i = 0; i < serialControllers.size(); i++)
+         {
+            boolean enabled = random.nextBoolean();
+            serialControllers.get(i).setEnabled(enabled);
+            parallelControllers.get(i).setEnabled(enabled);
+         }
+
+         for (int i = 0; i < serialControllers.size(); i++)
+         {
+            FakeController controller = serialControllers.get(i);
+            if (controller.isEnabled())
+               controller.computeInverseDynamics();
+            else
+               controller.initialize();
+         }
+
+         evaluator.evaluate(WholeBodyControllerCoreMode.INVERSE_DYNAMICS);
+
+         for (int i = 0; i < serialControllers.size(); i++)
+         {
+            assertEquals(serialControllers.get(i).output, parallelControllers.get(i).output);
+            assertEquals(serialControllers.get(i).sharedState.value, parallelControllers.get(i).sharedState.value);
+         }
+
+         for (int i = 0; i < controllersPerGroup; i++)
+            assertSame(callingThread, parallelControllers.get(i).lastThread);
+      }
+
+      evaluator.shutdown();
+   }
+
+   @Test
+   public void testSameOutputAsSerialEvaluationOnHumanoid()
+   {
+      Random random = new Random(98245L);
+      double controlDT = 0.004;
+
+      FullHumanoidRobotModel robotModel = new FullRobotModelTestTools.RandomFullHumanoidRobotModel(random);
+      RigidBodyBasics elevator = robotModel.getElevator();
+      RigidBodyBasics pelvis = robotModel.getPelvis();
+      RigidBodyBasics chest = robotModel.getChest();
+      JointBasics[] jointsToOptimizeFor = HighLevelHumanoidControllerToolbox.computeJointsToOptimizeFor(robotModel, new JointBasics[0]);
+      ReferenceFrame centerOfMassFrame = new CenterOfMassReferenceFrame("centerOfMassFrame", ReferenceFrame.getWorldFrame(), elevator);
+
+      // The hands and the pelvis are controlled with respect to the chest and pelvis, whose frames are shared between the groups.
+      FeedbackControlCommandList allCommands = new FeedbackControlCommandList();
+      List<Runnable> commandRandomizers = new ArrayList<>();
+
+      for (RobotSide robotSide : RobotSide.values)
+      {
+         SpatialFeedbackControlCommand handCommand = new SpatialFeedbackControlCommand();
+         handCommand.set(chest, robotModel.getHand(robotSide));
+         DefaultPIDSE3Gains handGains = new DefaultPIDSE3Gains();
+         handGains.getPositionGains().setProportialAndDerivativeGains(100.0, 20.0);
+         handGains.getOrientationGains().setProportialAndDerivativeGains(100.0, 20.0);
+         handCommand.setGains(handGains);
+         allCommands.addCommand(handCommand);
+         commandRandomizers.add(() ->
+         {
+            FramePose3D desiredPose = EuclidFrameRandomTools.nextFramePose3D(random, chest.getBodyFixedFrame());
+            SpatialVector zero = new SpatialVector(desiredPose.getReferenceFrame());
+            handCommand.setInverseDynamics(desiredPose, zero, zero);
+         });
+
+         PointFeedbackControlCommand footCommand = new PointFeedbackControlCommand();
+         footCommand.set(pelvis, robotModel.getFoot(robotSide));
+         DefaultPID3DGains footGains = new DefaultPID3DGains();
+         footGains.setProportionalGains(200.0);
+         footGains.setDerivativeGains(30.0);
+         footCommand.setGains(footGains);
+         allCommands.addCommand(footCommand);
+         commandRandomizers.add(() ->
+         {
+            FramePoint3D desiredPosition = EuclidFrameRandomTools.nextFramePoint3D(random, pelvis.getBodyFixedFrame(), 1.0, 1.0, 1.0);
+            footCommand.setInverseDynamics(desiredPosition, new FrameVector3D(desiredPosition.getReferenceFrame()), null);
+         });
+      }
+
+      OrientationFeedbackControlCommand chestCommand = new OrientationFeedbackControlCommand();
+      chestCommand.set(pelvis, chest);
+      DefaultPID3DGains chestGains = new DefaultPID3DGains();
+      chestGains.setProportionalGains(50.0);
+      chestGains.setDerivativeGains(10.0);
+      chestCommand.setGains(chestGains);
+      allCommands.addCommand(chestCommand);
+      commandRandomizers.add(() ->
+      {
+         FrameQuaternion desiredOrientation = EuclidFrameRandomTools.nextFrameQuaternion(random, pelvis.getBodyFixedFrame());
+         chestCommand.setInverseDynamics(desiredOrientation, new FrameVector3D(desiredOrientation.getReferenceFrame()), null);
+      });
+
+      WholeBodyFeedbackController serialController = createFeedbackController(controlDT, robotModel, jointsToOptimizeFor, centerOfMassFrame, allCommands);
+      WholeBodyFeedbackController parallelController = createFeedbackController(controlDT, robotModel, jointsToOptimizeFor, centerOfMassFrame, allCommands);
+      parallelController.setupParallelEvaluation(3, Executors.defaultThreadFactory());
+      serialController.initialize();
+      parallelController.initialize();
+
+      FeedbackControlCommandList tickCommands = new FeedbackControlCommandList();
+
+      for (int tick = 0; tick < 200; tick++)
+      {
+         MultiBodySystemRandomTools.nextState(random, JointStateType.CONFIGURATION, -Math.PI / 2.0, Math.PI / 2.0, robotModel.getOneDoFJoints());
+         MultiBodySystemRandomTools.nextState(random, JointStateType.VELOCITY, jointsToOptimizeFor);
+
+         tickCommands.clear();
+         for (int i = 0; i < allCommands.getNumberOfCommands(); i++)
+         {
+            if (random.nextInt(4) == 0)
+               continue; // Some controllers get disabled and initialized instead.
+            commandRandomizers.get(i).run();
+            tickCommands.addCommand(allCommands.getCommand(i));
+         }
+
+         robotModel.updateFrames();
+         serialController.reset();
+         serialController.submitFeedbackControlCommandList(WholeBodyControllerCoreMode.INVERSE_DYNAMICS, tickCommands);
+         serialController.computeInverseDynamics();
+
+         // Marks the twists of the robot frames as out-of-date again, such that the workers would race to update them.
+         robotModel.updateFrames();
+         parallelController.reset();
+         parallelController.submitFeedbackControlCommandList(WholeBodyControllerCoreMode.INVERSE_DYNAMICS, tickCommands);
+         parallelController.computeInverseDynamics();
+
+         assertEquals(serialController.getInverseDynamicsOutput(), parallelController.getInverseDynamicsOutput());
+      }
+
+      parallelController.shutdownParallelEvaluation();
+   }
+
+   private static WholeBodyFeedbackController createFeedbackController(double controlDT,
+                                                                       FullHumanoidRobotModel robotModel,
+                                                                       JointBasics[] jointsToOptimizeFor,
+                                                                       ReferenceFrame centerOfMassFrame,
+                                                                       FeedbackControlCommandList allCommands)
+   {
+      YoRegistry registry = new YoRegistry("test");
+      WholeBodyControlCoreToolbox toolbox = new WholeBodyControlCoreToolbox(controlDT,
+                                                                            9.81,
+                                                                            robotModel.getRootJoint(),
+                                                                            jointsToOptimizeFor,
+                                                                            centerOfMassFrame,
+                                                                            null,
+                                                                            null,
+                                                                            registry);
+      toolbox.setupForInverseDynamicsSolver(new ArrayList<>());
+      return new WholeBodyFeedbackController(toolbox, new FeedbackControllerTemplate(allCommands), registry);
+   }
+
+   @Test
+   public void testWorkerExceptionIsRethrown()
+   {
+      ParallelFeedbackControllerEvaluator evaluator = new ParallelFeedbackControllerEvaluator(2, Executors.defaultThreadFactory());
+      FakeController controller = new FakeController(new SharedState(), 1)
+      {
+         @Override
+         public void computeInverseKinematics()
+         {
+            throw new IllegalStateException("Expected");
+         }
+      };
+      controller.setEnabled(true);
+      evaluator.registerController("group", controller);
+
+      assertThrows(IllegalStateException.class, () -> evaluator.evaluate(WholeBodyControllerCoreMode.INVERSE_KINEMATICS));
+      // The evaluator is still usable after an exception.
+      evaluator.evaluate(WholeBodyControllerCoreMode.INVERSE_DYNAMICS);
+
+      evaluator.shutdown();
+      assertThrows(IllegalStateException.class, () -> evaluator.evaluate(WholeBodyControllerCoreMode.INVERSE_DYNAMICS));
+   }
+
+   private static class SharedState
+   {
+      private double value = 1.0;
+   }
+
+   private static class FakeController implements FeedbackControllerInterface
+   {
+      private final SharedState sharedState;
+      private final double gain;
+      private boolean isEnabled = false;
+      private double output = 0.0;
+      private Thread lastThread;
+
+      public FakeController(SharedState sharedState, double gain)
+      {
+         this.sharedState = sharedState;
+         this.gain = gain;
+      }
+
+      @Override
+      public void initialize()
+      {
+         sharedState.value = 0.5 * sharedState.value + gain;
+         lastThread = Thread.currentThread();
+      }
+
+      @Override
+      public void setEnabled(boolean isEnabled)
+      {
+         this.isEnabled = isEnabled;
+      }
+
+      @Override
+      public void computeInverseDynamics()
+      {
+         sharedState.value = Math.sin(sharedState.value * gain) + 1.0;
+         output = sharedState.value * gain;
+         lastThread = Thread.currentThread();
+      }
+
+      @Override
+      public void computeInverseKinematics()
+      {
+      }
+
+      @Override
+      public void computeVirtualModelControl()
+      {
+      }
+
+      @Override
+      public void computeAchievedAcceleration()
+      {
+      }
+
+      @Override
+      public boolean isEnabled()
+      {
+         return isEnabled;
+      }
+
+      @Override
+      public InverseDynamicsCommand<?> getInverseDynamicsOutput()
+      {
+         return null;
+      }
+
+      @Override
+      public InverseKinematicsCommand<?> getInverseKinematicsOutput()
+      {
+         return null;
+      }
+
+      @Override
+      public VirtualModelControlCommand<?> getVirtualModelControlOutput()
+      {
+         return null;
+      }
+   }
+}
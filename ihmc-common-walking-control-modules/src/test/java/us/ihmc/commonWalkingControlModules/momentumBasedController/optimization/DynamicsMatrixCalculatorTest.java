@@ -21,6 +21,7 @@ import us.ihmc.log.LogTools;
 import us.ihmc.matrixlib.MatrixTestTools;
 import us.ihmc.matrixlib.MatrixTools;
 import us.ihmc.mecano.algorithms.CentroidalMomentumRateCalculator;
+import us.ihmc.mecano.algorithms.CompositeRigidBodyMassMatrixCalculator;
 import us.ihmc.mecano.algorithms.InverseDynamicsCalculator;
 import us.ihmc.mecano.multiBodySystem.interfaces.FloatingJointBasics;
 import us.ihmc.mecano.multiBodySystem.interfaces.JointBasics;
@@ -35,6 +36,7 @@ import us.ihmc.robotModels.FullHumanoidRobotModel;
 import us.ihmc.robotModels.FullRobotModelTestTools;
 import us.ihmc.robotics.contactable.ContactablePlaneBody;
 import us.ihmc.robotics.robotSide.RobotSide;
+import us.ihmc.robotics.screwTheory.IncrementalMassMatrixCalculator;
 import us.ihmc.robotics.screwTheory.TwistCalculator;
 import us.ihmc.sensorProcessing.frames.CommonHumanoidReferenceFrames;
 import us.ihmc.yoVariables.registry.YoRegistry;
@@ -319,6 +321,48 @@ public class DynamicsMatrixCalculatorTest
       }
    }
 
+   @Test
+   public void testMassMatrixIsUpdatedIncrementallyAcrossTicks() throws Exception
+   {
+      setupTest();
+
+      ArrayList<OneDoFJointBasics> joints = new ArrayList<>();
+      fullHumanoidRobotModel.getOneDoFJoints(joints);
+      IncrementalMassMatrixCalculator incrementalMassMatrixCalculator = toolbox.getIncrementalMassMatrixCalculator();
+      CompositeRigidBodyMassMatrixCalculator expectedMassMatrixCalculator = toolbox.getMassMatrixCalculator();
+      DMatrixRMaj massMatrix = new DMatrixRMaj(degreesOfFreedom, degreesOfFreedom);
+
+      dynamicsMatrixCalculator.initialize();
+      update();
+      int numberOfBlocks = incrementalMassMatrixCalculator.getNumberOfBlocksUpdated();
+      assertTrue(numberOfBlocks > 0);
+
+      for (int tick = 0; tick < 10; tick++)
+      {
+         // Same sequence as the controller core: reset every tick, then compute.
+         dynamicsMatrixCalculator.reset();
+         int jointIndex = random.nextInt(joints.size());
+         MultiBodySystemRandomTools.nextState(random, JointStateType.CONFIGURATION, -Math.PI / 2.0, Math.PI / 2.0, joints.subList(jointIndex, jointIndex + 1));
+         update();
+
+         int numberOfBlocksUpdated = incrementalMassMatrixCalculator.getNumberOfBlocksUpdated();
+         assertTrue(numberOfBlocksUpdated > 0, "tick " + tick);
+         assertTrue(numberOfBlocksUpdated < numberOfBlocks, "tick " + tick + ": full update of the mass-matrix");
+
+         expectedMassMatrixCalculator.reset();
+         dynamicsMatrixCalculator.getMassMatrix(massMatrix);
+         MatrixTestTools.assertMatrixEquals(expectedMassMatrixCalculator.getMassMatrix(), massMatrix, 1.0e-10);
+      }
+
+      dynamicsMatrixCalculator.reset();
+      update();
+      assertEquals(0, incrementalMassMatrixCalculator.getNumberOfBlocksUpdated());
+
+      dynamicsMatrixCalculator.initialize();
+      update();
+      assertEquals(numberOfBlocks, incrementalMassMatrixCalculator.getNumberOfBlocksUpdated());
+   }
+
    @Test
    public void testOther() throws Exception
    {
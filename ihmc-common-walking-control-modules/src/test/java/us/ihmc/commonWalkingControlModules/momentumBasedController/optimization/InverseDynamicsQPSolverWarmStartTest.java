@@ -0,0 +1,175 @@
+package us.ihmc.commonWalkingControlModules.momentumBasedController.optimization;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import us.ihmc.commonWalkingControlModules.momentumBasedController.optimization.InverseDynamicsQPSolver.QPInputDomain;
+import us.ihmc.convexOptimization.quadraticProgram.SimpleEfficientActiveSetQPSolverWithInactiveVariables;
+import us.ihmc.matrixlib.NativeMatrix;
+import us.ihmc.yoVariables.registry.YoRegistry;
+
+public class InverseDynamicsQPSolverWarmStartTest
+{
+   private static final int numberOfDoFs = 12;
+   private static final int rhoSize = 4;
+   private static final int taskSize = 8;
+   private static final double maxJointAcceleration = 1.0;
+   private static final double epsilon = 1.0e-7;
+
+   @Test
+   public void testWarmStartMatchesColdStart()
+   {
+      Random random = new Random(3451L);
+      InverseDynamicsQPSolver warmSolver = createSolver(true);
+      InverseDynamicsQPSolver coldSolver = createSolver(false);
+
+      NativeMatrix taskJacobian = nextMatrix(random, taskSize, numberOfDoFs);
+      NativeMatrix taskObjective = nextMatrix(random, taskSize, 1);
+      NativeMatrix rhoJacobian = nextMatrix(random, rhoSize, rhoSize);
+      NativeMatrix rhoObjective = nextMatrix(random, rhoSize, 1);
+
+      int numberOfWarmStartedTicks = 0;
+
+      for (int tick = 0; tick < 200; tick++)
+      {
+         // Slowly varying objective, such that the active set mostly carries over from one tick to the next.
+         perturb(random, taskObjective, 0.05);
+         perturb(random, rhoObjective, 0.05);
+
+         setupProblem(warmSolver, taskJacobian, taskObjective, rhoJacobian, rhoObjective);
+         setupProblem(coldSolver, taskJacobian, taskObjective, rhoJacobian, rhoObjective);
+         assertTrue(warmSolver.solve());
+         assertTrue(coldSolver.solve());
+
+         if (tick == 0)
+            assertTrue(warmSolver.hasActiveSetBeenReset());
+         else if (!warmSolver.hasActiveSetBeenReset())
+            numberOfWarmStartedTicks++;
+
+         assertMatrixEquals(coldSolver.getJointAccelerations(), warmSolver.getJointAccelerations(), epsilon);
+         assertMatrixEquals(coldSolver.getRhos(), warmSolver.getRhos(), epsilon);
+      }
+
+      assertEquals(199, numberOfWarmStartedTicks);
+   }
+
+   @Test
+   public void testActiveSetIsResetWhenProblemStructureChanges()
+   {
+      Random random = new Random(8942L);
+      InverseDynamicsQPSolver warmSolver = createSolver(true);
+      InverseDynamicsQPSolver coldSolver = createSolver(false);
+
+      NativeMatrix taskJacobian = nextMatrix(random, taskSize, numberOfDoFs);
+      NativeMatrix taskObjective = nextMatrix(random, taskSize, 1);
+      NativeMatrix rhoJacobian = nextMatrix(random, rhoSize, rhoSize);
+      NativeMatrix rhoObjective = nextMatrix(random, rhoSize, 1);
+      NativeMatrix constraintJacobian = nextMatrix(random, 2, numberOfDoFs);
+      NativeMatrix constraintObjective = new NativeMatrix(2, 1);
+      constraintObjective.fill(0.1);
+
+      setupProblem(warmSolver, taskJacobian, taskObjective, rhoJacobian, rhoObjective);
+      assertTrue(warmSolver.solve());
+      assertTrue(warmSolver.hasActiveSetBeenReset());
+
+      setupProblem(warmSolver, taskJacobian, taskObjective, rhoJacobian, rhoObjective);
+      assertTrue(warmSolver.solve());
+      assertFalse(warmSolver.hasActiveSetBeenReset());
+
+      // Adding inequality constraints shifts the constraint indices, the previous active set has to be discarded.
+      setupProblem(warmSolver, taskJacobian, taskObjective, rhoJacobian, rhoObjective);
+      warmSolver.addLesserOrEqualInequalityConstraint(constraintJacobian, constraintObjective, QPInputDomain.MOTION);
+      setupProblem(coldSolver, taskJacobian, taskObjective, rhoJacobian, rhoObjective);
+      coldSolver.addLesserOrEqualInequalityConstraint(constraintJacobian, constraintObjective, QPInputDomain.MOTION);
+      assertTrue(warmSolver.solve());
+      assertTrue(coldSolver.solve());
+      assertTrue(warmSolver.hasActiveSetBeenReset());
+      assertMatrixEquals(coldSolver.getJointAccelerations(), warmSolver.getJointAccelerations(), epsilon);
+
+      // Same structure as the previous tick, the active set is kept.
+      setupProblem(warmSolver, taskJacobian, taskObjective, rhoJacobian, rhoObjective);
+      warmSolver.addLesserOrEqualInequalityConstraint(constraintJacobian, constraintObjective, QPInputDomain.MOTION);
+      assertTrue(warmSolver.solve());
+      assertFalse(warmSolver.hasActiveSetBeenReset());
+
+      // Deactivating a variable changes the problem size.
+      setupProblem(warmSolver, taskJacobian, taskObjective, rhoJacobian, rhoObjective);
+      warmSolver.addLesserOrEqualInequalityConstraint(constraintJacobian, constraintObjective, QPInputDomain.MOTION);
+      warmSolver.setActiveDoF(0, false);
+      assertTrue(warmSolver.solve());
+      assertTrue(warmSolver.hasActiveSetBeenReset());
+
+      // Explicit reset request, as done on contact state changes.
+      setupProblem(warmSolver, taskJacobian, taskObjective, rhoJacobian, rhoObjective);
+      warmSolver.addLesserOrEqualInequalityConstraint(constraintJacobian, constraintObjective, QPInputDomain.MOTION);
+      warmSolver.setActiveDoF(0, false);
+      warmSolver.notifyResetActiveSet();
+      assertTrue(warmSolver.solve());
+      assertTrue(warmSolver.hasActiveSetBeenReset());
+   }
+
+   private static InverseDynamicsQPSolver createSolver(boolean useWarmStart)
+   {
+      YoRegistry registry = new YoRegistry("test");
+      InverseDynamicsQPSolver solver = new InverseDynamicsQPSolver(new SimpleEfficientActiveSetQPSolverWithInactiveVariables(),
+                                                                   numberOfDoFs,
+                                                                   rhoSize,
+                                                                   false,
+                                                                   0.001,
+                                                                   registry);
+      solver.setUseWarmStart(useWarmStart);
+      solver.setMaxNumberOfIterations(500);
+      return solver;
+   }
+
+   private static void setupProblem(InverseDynamicsQPSolver solver,
+                                    NativeMatrix taskJacobian,
+                                    NativeMatrix taskObjective,
+                                    NativeMatrix rhoJacobian,
+                                    NativeMatrix rhoObjective)
+   {
+      solver.reset();
+      solver.resetRateRegularization();
+      solver.setMinJointAccelerations(-maxJointAcceleration);
+      solver.setMaxJointAccelerations(maxJointAcceleration);
+      solver.setMinRho(0.0);
+      solver.addQPTask(taskJacobian, taskObjective, 1.0, QPInputDomain.MOTION);
+      solver.addQPTask(rhoJacobian, rhoObjective, 1.0, QPInputDomain.RHO);
+      solver.setupWrenchesEquilibriumConstraint(null, null, null, null, null);
+   }
+
+   private static NativeMatrix nextMatrix(Random random, int numRows, int numCols)
+   {
+      NativeMatrix matrix = new NativeMatrix(numRows, numCols);
+      for (int row = 0; row < numRows; row++)
+      {
+         for (int col = 0; col < numCols; col++)
+            matrix.set(row, col, 10.0 * (random.nextDouble() - 0.5));
+      }
+      return matrix;
+   }
+
+   private static void perturb(Random random, NativeMatrix matrix, double amplitude)
+   {
+      for (int row = 0; row < matrix.getNumRows(); row++)
+      {
+         for (int col = 0; col < matrix.getNumCols(); col++)
+            matrix.set(row, col, matrix.get(row, col) + amplitude * (random.nextDouble() - 0.5));
+      }
+   }
+
+   private static void assertMatrixEquals(NativeMatrix expected, NativeMatrix actual, double epsilon)
+   {
+      assertEquals(expected.getNumRows(), actual.getNumRows());
+      assertEquals(expected.getNumCols(), actual.getNumCols());
+
+      for (int row = 0; row < expected.getNumRows(); row++)
+      {
+         for (int col = 0; col < expected.getNumCols(); col++)
+            assertEquals(expected.get(row, col), actual.get(row, col), epsilon, "Mismatch at (" + row + ", " + col + ")");
+      }
+   }
+}
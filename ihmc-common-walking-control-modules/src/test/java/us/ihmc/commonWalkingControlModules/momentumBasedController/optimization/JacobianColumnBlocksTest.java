@@ -0,0 +1,131 @@
+package us.ihmc.commonWalkingControlModules.momentumBasedController.optimization;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+import org.ejml.data.DMatrixRMaj;
+import org.junit.jupiter.api.Test;
+
+import us.ihmc.commonWalkingControlModules.controllerCore.command.ConstraintType;
+import us.ihmc.commonWalkingControlModules.momentumBasedController.optimization.InverseDynamicsQPSolver.QPInputDomain;
+import us.ihmc.convexOptimization.quadraticProgram.SimpleEfficientActiveSetQPSolverWithInactiveVariables;
+import us.ihmc.matrixlib.NativeMatrix;
+import us.ihmc.yoVariables.registry.YoRegistry;
+
+public class JacobianColumnBlocksTest
+{
+   @Test
+   public void testBlockMerging()
+   {
+      JacobianColumnBlocks columnBlocks = new JacobianColumnBlocks();
+      columnBlocks.setToEmpty(30);
+      assertEquals(0, columnBlocks.getNumberOfBlocks());
+
+      columnBlocks.addColumnRange(10, 12);
+      columnBlocks.addColumnRange(0, 6);
+      columnBlocks.addColumns(new int[] {20, 21, 22});
+      assertEquals(3, columnBlocks.getNumberOfBlocks());
+      assertEquals(11, columnBlocks.getNumberOfNonZeroColumns());
+
+      // Touching the first block
+      columnBlocks.addColumnRange(6, 7);
+      assertEquals(3, columnBlocks.getNumberOfBlocks());
+      assertEquals(0, columnBlocks.getBlockStart(0));
+      assertEquals(7, columnBlocks.getBlockEnd(0));
+
+      // Bridging the two last blocks
+      columnBlocks.addColumnRange(11, 21);
+      assertEquals(2, columnBlocks.getNumberOfBlocks());
+      assertEquals(10, columnBlocks.getBlockStart(1));
+      assertEquals(23, columnBlocks.getBlockEnd(1));
+      assertEquals(20, columnBlocks.getNumberOfNonZeroColumns());
+
+      // Already included
+      columnBlocks.addColumnRange(2, 4);
+      assertEquals(2, columnBlocks.getNumberOfBlocks());
+
+      assertThrows(IndexOutOfBoundsException.class, () -> columnBlocks.addColumnRange(25, 31));
+
+      columnBlocks.setToDense(30);
+      assertTrue(columnBlocks.isDense());
+      assertEquals(1, columnBlocks.getNumberOfBlocks());
+      assertEquals(30, columnBlocks.getBlockSize(0));
+   }
+
+   @Test
+   public void testSparseAssemblyMatchesDenseAssembly()
+   {
+      Random random = new Random(4543L);
+      int numberOfDoFs = 20;
+      int rhoSize = 8;
+      int taskSize = 6;
+
+      for (int iteration = 0; iteration < 50; iteration++)
+      {
+         YoRegistry registry = new YoRegistry("test");
+         SimpleEfficientActiveSetQPSolverWithInactiveVariables denseActiveSetSolver = new SimpleEfficientActiveSetQPSolverWithInactiveVariables();
+         SimpleEfficientActiveSetQPSolverWithInactiveVariables sparseActiveSetSolver = new SimpleEfficientActiveSetQPSolverWithInactiveVariables();
+         InverseDynamicsQPSolver denseSolver = new InverseDynamicsQPSolver(denseActiveSetSolver, numberOfDoFs, rhoSize, false, 0.001, registry);
+         InverseDynamicsQPSolver sparseSolver = new InverseDynamicsQPSolver(sparseActiveSetSolver, numberOfDoFs, rhoSize, false, 0.001, registry);
+         denseSolver.reset();
+         sparseSolver.reset();
+
+         NativeQPInputTypeA input = new NativeQPInputTypeA(numberOfDoFs);
+         input.reshape(taskSize);
+         input.setConstraintType(ConstraintType.OBJECTIVE);
+         JacobianColumnBlocks columnBlocks = input.getTaskJacobianColumnBlocks();
+         columnBlocks.setToEmpty(numberOfDoFs);
+         for (int i = 0; i < 3; i++)
+         {
+            int start = random.nextInt(numberOfDoFs);
+            columnBlocks.addColumnRange(start, Math.min(numberOfDoFs, start + 1 + random.nextInt(4)));
+         }
+
+         DMatrixRMaj taskJacobian = new DMatrixRMaj(taskSize, numberOfDoFs);
+         for (int block = 0; block < columnBlocks.getNumberOfBlocks(); block++)
+         {
+            for (int column = columnBlocks.getBlockStart(block); column < columnBlocks.getBlockEnd(block); column++)
+            {
+               for (int row = 0; row < taskSize; row++)
+                  taskJacobian.set(row, column, random.nextDouble() - 0.5);
+            }
+         }
+         DMatrixRMaj taskObjective = new DMatrixRMaj(taskSize, 1);
+         DMatrixRMaj taskWeight = new DMatrixRMaj(taskSize, taskSize);
+         for (int row = 0; row < taskSize; row++)
+         {
+            taskObjective.set(row, 0, random.nextDouble() - 0.5);
+            taskWeight.set(row, row, random.nextDouble());
+         }
+
+         input.taskJacobian.set(taskJacobian);
+         input.taskObjective.set(taskObjective);
+         boolean useWeightScalar = random.nextBoolean();
+         input.setUseWeightScalar(useWeightScalar);
+         if (useWeightScalar)
+            input.setWeight(random.nextDouble());
+         else
+            input.taskWeightMatrix.set(taskWeight);
+
+         sparseSolver.addQPInput(input, QPInputDomain.MOTION);
+         columnBlocks.setToDense(numberOfDoFs);
+         denseSolver.addQPInput(input, QPInputDomain.MOTION);
+
+         assertMatrixEquals(denseActiveSetSolver.getCostHessianUnsafe(), sparseActiveSetSolver.getCostHessianUnsafe(), 1.0e-12);
+         assertMatrixEquals(denseActiveSetSolver.getCostGradientUnsafe(), sparseActiveSetSolver.getCostGradientUnsafe(), 1.0e-12);
+      }
+   }
+
+   private static void assertMatrixEquals(NativeMatrix expected, NativeMatrix actual, double epsilon)
+   {
+      assertEquals(expected.getNumRows(), actual.getNumRows());
+      assertEquals(expected.getNumCols(), actual.getNumCols());
+
+      for (int row = 0; row < expected.getNumRows(); row++)
+      {
+         for (int column = 0; column < expected.getNumCols(); column++)
+            assertEquals(expected.get(row, column), actual.get(row, column), epsilon);
+      }
+   }
+}
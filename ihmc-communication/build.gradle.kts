@@ -19,12 +19,23 @@ mainDependencies {
    api("org.boofcv:boofcv-geo:0.36")
    api("commons-net:commons-net:3.6")
    api("org.lz4:lz4-java:1.8.0")
+   api("com.github.luben:zstd-jni:1.5.5-11")
 
    api("us.ihmc:ihmc-robotics-toolkit:source")
    api("us.ihmc:ihmc-interfaces:source")
    api("us.ihmc:ihmc-java-toolkit:source")
 }
 
+benchmarksDependencies {
+   api(ihmc.sourceSetProject("main"))
+
+   api("us.ihmc:ihmc-java-toolkit-benchmarks:source")
+}
+
+ihmc.sourceSetProject("benchmarks").dependencies {
+   add("annotationProcessor", "us.ihmc:ihmc-java-toolkit-benchmarks:source")
+}
+
 testDependencies {
    api("us.ihmc:ihmc-robotics-toolkit-test:source")
    api("us.ihmc:ihmc-ros2-library-test:0.24.4")
@@ -0,0 +1,164 @@
+package us.ihmc.communication.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import controller_msgs.msg.dds.StereoVisionPointCloudMessage;
+import us.ihmc.communication.compression.PointCloudCodec;
+import us.ihmc.communication.packets.StereoPointCloudCompression;
+import us.ihmc.communication.packets.StereoPointCloudCompression.ColorAccessor;
+import us.ihmc.communication.packets.StereoPointCloudCompression.CompressionIntermediateVariablesPackage;
+import us.ihmc.communication.packets.StereoPointCloudCompression.DiscretizationParameters;
+import us.ihmc.communication.packets.StereoPointCloudCompression.PointAccessor;
+import us.ihmc.communication.packets.StereoPointCloudCompression.PointCoordinateConsumer;
+
+/**
+ * Compresses and decompresses a depth-camera-like point-cloud with each codec.
+ * <p>
+ * The {@link ByteCounters} report the raw and compressed bytes per second, the raw throughput in MB/s
+ * is {@code rawBytes / 1.0e6} and the compression ratio is {@code rawBytes / compressedBytes}. The
+ * ratio is also printed at setup.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class StereoPointCloudCompressionBenchmark
+{
+   @Param({"LZ4", "LZ4_CHUNKED", "LZ4_MORTON_DELTA", "ZSTD_CHUNKED", "ZSTD_MORTON_DELTA"})
+   public PointCloudCodec codec;
+
+   /** Width of the depth image, the height is 3/4 of it. */
+   @Param({"640", "1280"})
+   public int width;
+
+   private static final double RESOLUTION = 0.002;
+
+   private int numberOfPoints;
+   private int rawSize;
+   private PointAccessor pointAccessor;
+   private ColorAccessor colorAccessor;
+   private final DiscretizationParameters discretizationParameters = DiscretizationParameters.bbxCalculator(RESOLUTION);
+   private final CompressionIntermediateVariablesPackage variablesPackage = new CompressionIntermediateVariablesPackage();
+   private StereoVisionPointCloudMessage compressedMessage;
+   private int compressedSize;
+
+   private final float[] decompressedPoints = new float[3 * 1280 * 960];
+   private final PointCoordinateConsumer pointCoordinateConsumer = new PointCoordinateConsumer()
+   {
+      private int index = 0;
+
+      @Override
+      public void accept(double x, double y, double z)
+      {
+         if (index >= 3 * numberOfPoints)
+            index = 0;
+         decompressedPoints[index++] = (float) x;
+         decompressedPoints[index++] = (float) y;
+         decompressedPoints[index++] = (float) z;
+      }
+   };
+
+   @AuxCounters(AuxCounters.Type.OPERATIONS)
+   @State(Scope.Thread)
+   public static class ByteCounters
+   {
+      public long rawBytes;
+      public long compressedBytes;
+
+      @Setup(Level.Iteration)
+      public void reset()
+      {
+         rawBytes = 0;
+         compressedBytes = 0;
+      }
+   }
+
+   @Setup(Level.Trial)
+   public void setup()
+   {
+      Random random = new Random(4567);
+      int height = width * 3 / 4;
+      numberOfPoints = width * height;
+      float[] points = new float[3 * numberOfPoints];
+      int[] colors = new int[numberOfPoints];
+
+      // A slanted floor seen by a camera with some depth noise and a smooth color gradient.
+      for (int row = 0; row < height; row++)
+      {
+         for (int column = 0; column < width; column++)
+         {
+            int index = row * width + column;
+            double depth = 0.5 + 4.0 * row / height + 0.005 * random.nextGaussian();
+            points[3 * index] = (float) depth;
+            points[3 * index + 1] = (float) (depth * (column - 0.5 * width) / width);
+            points[3 * index + 2] = (float) (-0.3 * depth + 0.01 * Math.sin(0.05 * column));
+            colors[index] = StereoPointCloudCompression.rgb(row * 255 / height, column * 255 / width, 128 + random.nextInt(8));
+         }
+      }
+
+      pointAccessor = PointAccessor.wrap(points);
+      colorAccessor = ColorAccessor.wrapRGB(colors);
+      rawSize = StereoPointCloudCompression.computePointByteBufferSize(numberOfPoints)
+            + StereoPointCloudCompression.computeColorByteBufferSize(numberOfPoints);
+
+      compressedMessage = new StereoVisionPointCloudMessage();
+      compressedMessage.set(compressPointCloud());
+      compressedSize = compressedMessage.getPointCloud().size() + compressedMessage.getColors().size();
+      System.out.printf("%n%s, %d points: compression ratio %.2f (%d -> %d bytes)%n",
+                        codec,
+                        numberOfPoints,
+                        (double) rawSize / compressedSize,
+                        rawSize,
+                        compressedSize);
+   }
+
+   private StereoVisionPointCloudMessage compressPointCloud()
+   {
+      return StereoPointCloudCompression.compressPointCloud(0,
+                                                            pointAccessor,
+                                                            colorAccessor,
+                                                            discretizationParameters,
+                                                            numberOfPoints,
+                                                            codec,
+                                                            variablesPackage);
+   }
+
+   @Benchmark
+   public StereoVisionPointCloudMessage compress(ByteCounters counters)
+   {
+      StereoVisionPointCloudMessage message = compressPointCloud();
+      counters.rawBytes += rawSize;
+      counters.compressedBytes += message.getPointCloud().size() + message.getColors().size();
+      return message;
+   }
+
+   @Benchmark
+   public float[] decompress(ByteCounters counters)
+   {
+      StereoPointCloudCompression.decompressPointCloud(compressedMessage, pointCoordinateConsumer);
+      StereoPointCloudCompression.decompressColors(compressedMessage, (red, green, blue) ->
+      {
+      });
+      counters.rawBytes += rawSize;
+      counters.compressedBytes += compressedSize;
+      return decompressedPoints;
+   }
+}
@@ -1,6 +1,6 @@
 package us.ihmc.communication;
 
-import java.util.EnumMap;
+import java.util.Arrays;
 import java.util.HashMap;
 
 import us.ihmc.commons.PrintTools;
@@ -20,19 +20,21 @@ public class PacketRouter<T extends Enum<T>>
 
    private final int BROADCAST = 0;
 
-   private final EnumMap<T, PacketCommunicator> communicators;
-   private final HashMap<PacketCommunicator, T> communicatorDestinations;
+   private static final int NO_REDIRECT = -1;
 
-   private final EnumMap<T, GlobalPacketConsumer> consumers;
-   private final EnumMap<T, T> redirects;
+   // Indexed by the ordinal of the destination, so routing a packet does not need any map lookup.
+   private final PacketCommunicator[] communicators;
+   private final PacketRoutingAction[] consumers;
+   private final int[] redirects;
+   private final HashMap<PacketCommunicator, PacketRoutingAction> routingActions = new HashMap<>();
 
    public PacketRouter(Class<T> destinationType)
    {
       destinationConstants = destinationType.getEnumConstants();
-      communicators = new EnumMap<>(destinationType);
-      consumers = new EnumMap<>(destinationType);
-      communicatorDestinations = new HashMap<>();
-      redirects = new EnumMap<>(destinationType);
+      communicators = new PacketCommunicator[destinationConstants.length];
+      consumers = new PacketRoutingAction[destinationConstants.length];
+      redirects = new int[destinationConstants.length];
+      Arrays.fill(redirects, NO_REDIRECT);
 
       PrintTools.debug(DEBUG, this, "Creating Packet Router");
    }
@@ -42,34 +44,30 @@ public class PacketRouter<T extends Enum<T>>
       checkCommunicatorId(destination);
 
       // check if this communicator already points to the other destination
-      GlobalPacketConsumer packetRoutingAction = null;
-      T otherDestination = communicatorDestinations.get(packetCommunicator);
+      PacketRoutingAction packetRoutingAction = routingActions.get(packetCommunicator);
 
-      if (otherDestination != null)
-      {
-         packetRoutingAction = consumers.get(otherDestination);
-         // this listener is already attached to that communicator
-      }
-      else
+      if (packetRoutingAction == null)
       {
          packetRoutingAction = new PacketRoutingAction(packetCommunicator);
          packetCommunicator.attachGlobalListener(packetRoutingAction);
+         routingActions.put(packetCommunicator, packetRoutingAction);
       }
+      // else this listener is already attached to that communicator
 
-      consumers.put(destination, packetRoutingAction);
-      communicators.put(destination, packetCommunicator);
-      communicatorDestinations.put(packetCommunicator, destination);
+      packetRoutingAction.source = destination;
+      consumers[destination.ordinal()] = packetRoutingAction;
+      communicators[destination.ordinal()] = packetCommunicator;
 
       PrintTools.debug(DEBUG, this, "Attached " + destination + " to the network processor");
    }
 
    private void checkCommunicatorId(final T destination)
    {
-      if (isBroadcast(destination))
+      if (isBroadcast(destination.ordinal()))
       {
          throw new IllegalArgumentException("packetCommunicator cannot have an id of zero, it's reserved for broadcast!!");
       }
-      if (communicators.containsKey(destination))
+      if (communicators[destination.ordinal()] != null)
       {
          throw new IllegalArgumentException("Tried to register " + destination + " but already registerd communicator with that id!");
       }
@@ -81,33 +79,36 @@ public class PacketRouter<T extends Enum<T>>
     * If a the redirect happens to be set to the senders id it will assume 
     * the sender new about the redirect and send to the original destination,  
     * ignoring the redirect
-    * @param sourceCommunicator the source communicator that sent the packet
+    * @param routingAction the routing action of the source communicator that sent the packet
     * @param packet
     */
-   private void processPacketRouting(PacketCommunicator sourceCommunicator, Packet<?> packet)
+   private void processPacketRouting(PacketRoutingAction routingAction, Packet<?> packet)
    {
-      T source = communicatorDestinations.get(sourceCommunicator);
+      int source = routingAction.source.ordinal();
 
-      if (shouldPrintDebugStatement(sourceCommunicator, packet.getDestination(), packet))
+      if (shouldPrintDebugStatement(source, packet.getDestination(), packet))
       {
          PrintTools.debug(this, "NP received " + packet.getClass().getSimpleName() + " heading for " + destinationConstants[packet.destination] + " from "
-               + source + " at " + System.nanoTime());
+               + destinationConstants[source] + " at " + System.nanoTime());
       }
 
-      T destination = getPacketDestination(sourceCommunicator, packet);
+      int destination = getPacketDestination(source, packet);
 
-      packet.setSource(source.ordinal());
+      packet.setSource(source);
 
-      PacketCommunicator destinationCommunicator = communicators.get(destination);
       if (isBroadcast(destination))
       {
-         broadcastPacket(sourceCommunicator, packet);
+         broadcastPacket(routingAction.communicator, source, packet);
+         return;
       }
-      else if (destinationCommunicator != null && destinationCommunicator.isConnected())
+
+      PacketCommunicator destinationCommunicator = communicators[destination];
+      if (destinationCommunicator != null && destinationCommunicator.isConnected())
       {
-         if (shouldPrintDebugStatement(sourceCommunicator, destination.ordinal(), packet))
+         if (shouldPrintDebugStatement(source, destination, packet))
          {
-            PrintTools.debug(this, "Sending " + packet.getClass().getSimpleName() + " from " + source + " to " + destination + " at " + System.nanoTime());
+            PrintTools.debug(this, "Sending " + packet.getClass().getSimpleName() + " from " + destinationConstants[source] + " to "
+                  + destinationConstants[destination] + " at " + System.nanoTime());
          }
 
          forwardPacket(packet, destinationCommunicator);
@@ -115,9 +116,9 @@ public class PacketRouter<T extends Enum<T>>
 
    }
 
-   private boolean isBroadcast(T destination)
+   private boolean isBroadcast(int destination)
    {
-      return destination.ordinal() == BROADCAST;
+      return destination == BROADCAST;
    }
 
    private void forwardPacket(Packet<?> packet, PacketCommunicator destinationCommunicator)
@@ -125,49 +126,50 @@ public class PacketRouter<T extends Enum<T>>
       destinationCommunicator.send(packet);
    }
 
-   private T getPacketDestination(PacketCommunicator sourceCommunicator, Packet<?> packet)
+   private int getPacketDestination(int source, Packet<?> packet)
    {
       if (packet.getDestination() < 0 || packet.getDestination() >= destinationConstants.length)
       {
          PrintTools.error(this, packet.getClass().getSimpleName() + " from: " + PacketDestination.fromOrdinal(packet.getSource()) + " Invalid destination: "
                + packet.getDestination() + " sending to Broadcast");
-         return destinationConstants[0];
+         return BROADCAST;
       }
 
-      T destination = destinationConstants[packet.getDestination()];
-      if (redirects.containsKey(destination))
+      int destination = packet.getDestination();
+      if (redirects[destination] != NO_REDIRECT)
       {
          destination = getRedirectDestination(destination);
-         if (destination != communicatorDestinations.get(sourceCommunicator))
+         if (destination != source)
          {
-            packet.setDestination(destination.ordinal());
+            packet.setDestination(destination);
          }
       }
-      return destinationConstants[packet.getDestination()];
+      return packet.getDestination();
    }
 
    /**
     * sends the packet to every communicator once, except the sender or any
     * communicators with redirects
    **/
-   private void broadcastPacket(PacketCommunicator sourceCommunicator, Packet<?> packet)
+   private void broadcastPacket(PacketCommunicator sourceCommunicator, int source, Packet<?> packet)
    {
-      for (T destination : destinationConstants)
+      for (int destination = 0; destination < communicators.length; destination++)
       {
-         if (isBroadcast(destination) || !communicators.containsKey(destination))
+         PacketCommunicator destinationCommunicator = communicators[destination];
+
+         if (isBroadcast(destination) || destinationCommunicator == null)
          {
             continue;
          }
 
-         PacketCommunicator destinationCommunicator = communicators.get(destination);
-         if (sourceCommunicator != destinationCommunicator && !redirects.containsKey(destination))
+         if (sourceCommunicator != destinationCommunicator && redirects[destination] == NO_REDIRECT)
          {
-            if (destinationCommunicator != null && destinationCommunicator.isConnected())
+            if (destinationCommunicator.isConnected())
             {
-               if (shouldPrintDebugStatement(sourceCommunicator, destination.ordinal(), packet))
+               if (shouldPrintDebugStatement(source, destination, packet))
                {
-                  PrintTools.debug(this, "Sending " + packet.getClass().getSimpleName() + " from " + communicatorDestinations.get(sourceCommunicator) + " to "
-                        + destination + " at " + System.nanoTime());
+                  PrintTools.debug(this, "Sending " + packet.getClass().getSimpleName() + " from " + destinationConstants[source] + " to "
+                        + destinationConstants[destination] + " at " + System.nanoTime());
                }
                forwardPacket(packet, destinationCommunicator);
             }
@@ -176,58 +178,66 @@ public class PacketRouter<T extends Enum<T>>
    }
 
    /**
-    * possible infinite recursion for funs.
+    * Follows the redirects starting from the given destination, bounded by the number of destinations in case of a loop.
     */
-   private T getRedirectDestination(T destination)
+   private int getRedirectDestination(int destination)
    {
-      if (redirects.containsKey(destination))
+      for (int i = 0; i < redirects.length && redirects[destination] != NO_REDIRECT; i++)
       {
-         destination = getRedirectDestination(redirects.get(destination));
+         destination = redirects[destination];
       }
       return destination;
    }
 
    public void detatchObjectCommunicator(T id)
    {
-      PacketCommunicator communicator = communicators.remove(id);
-      GlobalPacketConsumer consumer = consumers.remove(id);
+      int index = id.ordinal();
+      PacketCommunicator communicator = communicators[index];
+      GlobalPacketConsumer consumer = consumers[index];
+      communicators[index] = null;
+      consumers[index] = null;
 
       if (communicator != null)
       {
          communicator.detachGlobalListener(consumer);
+         routingActions.remove(communicator);
       }
 
-      redirects.remove(id);
+      redirects[index] = NO_REDIRECT;
 
-      for (T destination : destinationConstants)
+      for (int destination = 0; destination < redirects.length; destination++)
       {
-         if (redirects.get(destination) == id)
+         if (redirects[destination] == index)
          {
-            redirects.remove(destination);
+            redirects[destination] = NO_REDIRECT;
          }
       }
    }
 
    public void setPacketRedirects(T redirectFrom, T redirectTo)
    {
-      if (redirects.containsValue(redirectFrom))
+      for (int destination = 0; destination < redirects.length; destination++)
       {
-         throw new IllegalArgumentException(redirectTo + " is currently redirecting and can't be chained");
+         if (redirects[destination] == redirectFrom.ordinal())
+         {
+            throw new IllegalArgumentException(redirectTo + " is currently redirecting and can't be chained");
+         }
       }
-      redirects.put(redirectFrom, redirectTo);
+      redirects[redirectFrom.ordinal()] = redirectTo.ordinal();
    }
 
    public void removePacketRedirect(int redirectFrom)
    {
-      redirects.remove(redirectFrom);
+      if (redirectFrom >= 0 && redirectFrom < redirects.length)
+         redirects[redirectFrom] = NO_REDIRECT;
    }
 
-   private boolean shouldPrintDebugStatement(PacketCommunicator sourceCommunicator, int destinationCommunicatorId, Packet<?> packetType)
+   private boolean shouldPrintDebugStatement(int sourceCommunicatorId, int destinationCommunicatorId, Packet<?> packetType)
    {
       if (!DEBUG)
          return false;
 
-      if (sourceCommunicatorIdToDebug != Integer.MIN_VALUE && sourceCommunicatorIdToDebug != communicatorDestinations.get(sourceCommunicator).ordinal())
+      if (sourceCommunicatorIdToDebug != Integer.MIN_VALUE && sourceCommunicatorIdToDebug != sourceCommunicatorId)
       {
          return false;
       }
@@ -271,6 +281,8 @@ public class PacketRouter<T extends Enum<T>>
    private class PacketRoutingAction implements GlobalPacketConsumer
    {
       private final PacketCommunicator communicator;
+      /** The last destination the communicator was attached to, used as source of the packets it receives. */
+      private T source;
 
       private PacketRoutingAction(PacketCommunicator packetCommunicator)
       {
@@ -280,7 +292,7 @@ public class PacketRouter<T extends Enum<T>>
       @Override
       public void receivedPacket(Packet<?> packet)
       {
-         processPacketRouting(communicator, packet);
+         processPacketRouting(this, packet);
       }
    }
 }
@@ -0,0 +1,176 @@
+package us.ihmc.communication.compression;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Lossless pre-filter for quantized point-clouds which makes them a lot more compressible by
+ * general purpose codecs.
+ * <p>
+ * The points are sorted along a Morton (Z-order) curve such that consecutive points are close to
+ * each other. Each coordinate is then replaced with the zigzag-encoded difference with the same
+ * coordinate of the previous point, which is small most of the time, and the bytes are split into
+ * planes: the high bytes of all the x differences, then their low bytes, and the same for y and z.
+ * The colors are reordered the same way and stored as a red plane, a green plane and a blue plane.
+ * </p>
+ * <p>
+ * The original order of the points is not transmitted, the decoded points and colors come out in
+ * Morton order.
+ * </p>
+ */
+public class MortonDeltaPointCloudFilter
+{
+   /** The local point index is stored in the lowest 15 bits of the 63-bit sort keys. */
+   public static final int MAX_NUMBER_OF_POINTS = 1 << 15;
+
+   private static final int INDEX_BITS = 15;
+   private static final long INDEX_MASK = MAX_NUMBER_OF_POINTS - 1;
+
+   private long[] sortKeys = new long[0];
+
+   public MortonDeltaPointCloudFilter()
+   {
+   }
+
+   /**
+    * Filters the quantized coordinates and colors of {@code numberOfPoints} points starting at
+    * {@code offset}.
+    *
+    * @param keys           the quantized coordinates, stored as x, y, z for each point. Not modified.
+    * @param rgb            the colors, stored as red, green, blue for each point. Not modified.
+    * @param offset         the index of the first point to filter.
+    * @param numberOfPoints the number of points to filter, at most {@link #MAX_NUMBER_OF_POINTS}.
+    * @param pointsToPack   the buffer in which the {@code 6 * numberOfPoints} filtered coordinate
+    *                       bytes are written from its position. Modified.
+    * @param colorsToPack   the buffer in which the {@code 3 * numberOfPoints} filtered color bytes
+    *                       are written from its position. Modified.
+    */
+   public void encode(short[] keys, byte[] rgb, int offset, int numberOfPoints, ByteBuffer pointsToPack, ByteBuffer colorsToPack)
+   {
+      if (numberOfPoints > MAX_NUMBER_OF_POINTS)
+         throw new IllegalArgumentException("Too many points: " + numberOfPoints + ", the maximum is: " + MAX_NUMBER_OF_POINTS);
+
+      if (sortKeys.length < numberOfPoints)
+         sortKeys = new long[numberOfPoints];
+
+      for (int i = 0; i < numberOfPoints; i++)
+      {
+         int keyIndex = 3 * (offset + i);
+         long morton = interleave(toUnsigned(keys[keyIndex])) | interleave(toUnsigned(keys[keyIndex + 1])) << 1
+               | interleave(toUnsigned(keys[keyIndex + 2])) << 2;
+         sortKeys[i] = morton << INDEX_BITS | i;
+      }
+
+      Arrays.sort(sortKeys, 0, numberOfPoints);
+
+      int pointsStart = pointsToPack.position();
+
+      for (int axis = 0; axis < 3; axis++)
+      {
+         int hiPlane = pointsStart + 2 * axis * numberOfPoints;
+         int loPlane = hiPlane + numberOfPoints;
+         int previous = 0;
+
+         for (int i = 0; i < numberOfPoints; i++)
+         {
+            int key = toUnsigned(keys[3 * (offset + (int) (sortKeys[i] & INDEX_MASK)) + axis]);
+            int delta = (short) (key - previous);
+            int zigzag = ((delta << 1) ^ (delta >> 15)) & 0xFFFF;
+            pointsToPack.put(hiPlane + i, (byte) (zigzag >>> 8));
+            pointsToPack.put(loPlane + i, (byte) zigzag);
+            previous = key;
+         }
+      }
+
+      pointsToPack.position(pointsStart + 6 * numberOfPoints);
+
+      int colorsStart = colorsToPack.position();
+
+      for (int channel = 0; channel < 3; channel++)
+      {
+         int plane = colorsStart + channel * numberOfPoints;
+
+         for (int i = 0; i < numberOfPoints; i++)
+         {
+            colorsToPack.put(plane + i, rgb[3 * (offset + (int) (sortKeys[i] & INDEX_MASK)) + channel]);
+         }
+      }
+
+      colorsToPack.position(colorsStart + 3 * numberOfPoints);
+   }
+
+   /**
+    * Reverts the filtering of the coordinates of {@code numberOfPoints} points.
+    *
+    * @param points         the filtered coordinates, read from the buffer position. Modified.
+    * @param numberOfPoints the number of points.
+    * @param keysToPack     the array in which the quantized coordinates are stored as x, y, z.
+    *                       Modified.
+    * @param offset         the index of the first point to write in {@code keysToPack}.
+    */
+   public static void decodePoints(ByteBuffer points, int numberOfPoints, short[] keysToPack, int offset)
+   {
+      int pointsStart = points.position();
+
+      for (int axis = 0; axis < 3; axis++)
+      {
+         int hiPlane = pointsStart + 2 * axis * numberOfPoints;
+         int loPlane = hiPlane + numberOfPoints;
+         int previous = 0;
+
+         for (int i = 0; i < numberOfPoints; i++)
+         {
+            int zigzag = (points.get(hiPlane + i) & 0xFF) << 8 | (points.get(loPlane + i) & 0xFF);
+            int delta = (zigzag >>> 1) ^ -(zigzag & 1);
+            int key = (previous + delta) & 0xFFFF;
+            keysToPack[3 * (offset + i) + axis] = (short) (key - 32768);
+            previous = key;
+         }
+      }
+
+      points.position(pointsStart + 6 * numberOfPoints);
+   }
+
+   /**
+    * Reverts the filtering of the colors of {@code numberOfPoints} points.
+    *
+    * @param colors         the filtered colors, read from the buffer position. Modified.
+    * @param numberOfPoints the number of points.
+    * @param rgbToPack      the array in which the colors are stored as red, green, blue. Modified.
+    * @param offset         the index of the first point to write in {@code rgbToPack}.
+    */
+   public static void decodeColors(ByteBuffer colors, int numberOfPoints, byte[] rgbToPack, int offset)
+   {
+      int colorsStart = colors.position();
+
+      for (int channel = 0; channel < 3; channel++)
+      {
+         int plane = colorsStart + channel * numberOfPoints;
+
+         for (int i = 0; i < numberOfPoints; i++)
+         {
+            rgbToPack[3 * (offset + i) + channel] = colors.get(plane + i);
+         }
+      }
+
+      colors.position(colorsStart + 3 * numberOfPoints);
+   }
+
+   private static int toUnsigned(short key)
+   {
+      return key + 32768;
+   }
+
+   /**
+    * Spreads the 16 bits of {@code value} such that there are two zero bits between each of them.
+    */
+   private static long interleave(int value)
+   {
+      long x = value & 0xFFFFL;
+      x = (x | x << 16) & 0x0000FF0000FFL;
+      x = (x | x << 8) & 0x00F00F00F00FL;
+      x = (x | x << 4) & 0x0C30C30C30C3L;
+      x = (x | x << 2) & 0x249249249249L;
+      return x;
+   }
+}
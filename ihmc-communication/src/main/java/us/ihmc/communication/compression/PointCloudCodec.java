@@ -0,0 +1,85 @@
+package us.ihmc.communication.compression;
+
+import java.util.function.Supplier;
+
+/**
+ * Codecs available to compress the quantized point-cloud and colors of a
+ * {@code StereoVisionPointCloudMessage}, identified by {@link #getId()} in the header of the
+ * compressed data written by the chunked codecs.
+ * <p>
+ * {@link #LZ4} is the original format: a single LZ4 block for the whole point-cloud. The other
+ * codecs split the point-cloud into chunks of at most {@link #MAX_POINTS_PER_CHUNK} points which are
+ * compressed and decompressed independently and in parallel.
+ * </p>
+ * <p>
+ * The codecs using the {@link MortonDeltaPointCloudFilter} reorder the points of each chunk along a
+ * Morton curve before compressing. The colors follow the points but the original point order is not
+ * preserved.
+ * </p>
+ */
+public enum PointCloudCodec
+{
+   /** Single LZ4 block, fastest and compatible with the receivers not knowing about the other codecs. */
+   LZ4(0, false, LZ4CompressionImplementation::new),
+   /** LZ4 over independent chunks. */
+   LZ4_CHUNKED(1, false, LZ4CompressionImplementation::new),
+   /** LZ4 over independent chunks with the Morton/delta pre-filter. */
+   LZ4_MORTON_DELTA(2, true, LZ4CompressionImplementation::new),
+   /** Zstandard over independent chunks. */
+   ZSTD_CHUNKED(3, false, ZstdCompressionImplementation::new),
+   /** Zstandard over independent chunks with the Morton/delta pre-filter, best ratio. */
+   ZSTD_MORTON_DELTA(4, true, ZstdCompressionImplementation::new);
+
+   /**
+    * The maximum number of points per chunk, limited by the size of the local point index in the
+    * Morton sort keys.
+    */
+   public static final int MAX_POINTS_PER_CHUNK = MortonDeltaPointCloudFilter.MAX_NUMBER_OF_POINTS;
+
+   private static final PointCloudCodec[] values = values();
+
+   private final byte id;
+   private final boolean useMortonDeltaFilter;
+   private final ThreadLocal<CompressionImplementation> compressorThreadLocal;
+
+   private PointCloudCodec(int id, boolean useMortonDeltaFilter, Supplier<CompressionImplementation> compressorSupplier)
+   {
+      this.id = (byte) id;
+      this.useMortonDeltaFilter = useMortonDeltaFilter;
+      compressorThreadLocal = ThreadLocal.withInitial(compressorSupplier);
+   }
+
+   public byte getId()
+   {
+      return id;
+   }
+
+   public boolean isChunked()
+   {
+      return this != LZ4;
+   }
+
+   public boolean useMortonDeltaFilter()
+   {
+      return useMortonDeltaFilter;
+   }
+
+   /**
+    * @return the compressor for this codec owned by the calling thread.
+    */
+   public CompressionImplementation getCompressor()
+   {
+      return compressorThreadLocal.get();
+   }
+
+   public static PointCloudCodec fromId(byte id)
+   {
+      for (PointCloudCodec codec : values)
+      {
+         if (codec.id == id)
+            return codec;
+      }
+
+      throw new IllegalArgumentException("Unknown point-cloud codec: " + id);
+   }
+}
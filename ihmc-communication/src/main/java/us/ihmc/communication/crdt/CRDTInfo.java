@@ -8,15 +8,65 @@ public class CRDTInfo
    private final int maxFreezeDuration;
    private long updateNumber = 0;
 
+   /**
+    * Status fields are only published when they change, so a full snapshot of the state is
+    * published every this many updates in case a message got dropped or the other side just
+    * connected.
+    */
+   private int fullSnapshotPeriod;
+   private long lastFullSnapshotUpdateNumber = 0;
+   private boolean isFullSnapshotRequested = true;
+   private boolean isFullSnapshotUpdate = false;
+
    public CRDTInfo(ROS2ActorDesignation actorDesignation, int maxFreezeDuration)
    {
       this.actorDesignation = actorDesignation;
       this.maxFreezeDuration = maxFreezeDuration;
+
+      fullSnapshotPeriod = Math.max(1, maxFreezeDuration);
+      updateFullSnapshot();
    }
 
    public void startNextUpdate()
    {
       ++updateNumber;
+      updateFullSnapshot();
+   }
+
+   private void updateFullSnapshot()
+   {
+      isFullSnapshotUpdate = isFullSnapshotRequested || updateNumber - lastFullSnapshotUpdateNumber >= fullSnapshotPeriod;
+
+      if (isFullSnapshotUpdate)
+      {
+         lastFullSnapshotUpdateNumber = updateNumber;
+         isFullSnapshotRequested = false;
+      }
+   }
+
+   /**
+    * Requests the next update to publish the full state, e.g. after a new subscriber appeared.
+    * Takes effect on the next call to {@link #startNextUpdate()}.
+    */
+   public void requestFullSnapshot()
+   {
+      isFullSnapshotRequested = true;
+   }
+
+   /**
+    * @param fullSnapshotPeriod the number of updates between two full snapshots. Defaults to the max freeze duration.
+    */
+   public void setFullSnapshotPeriod(int fullSnapshotPeriod)
+   {
+      this.fullSnapshotPeriod = Math.max(1, fullSnapshotPeriod);
+   }
+
+   /**
+    * @return whether the current update should publish all the fields, whether they changed or not.
+    */
+   public boolean isFullSnapshotUpdate()
+   {
+      return isFullSnapshotUpdate;
    }
 
    public long getUpdateNumber()
@@ -0,0 +1,133 @@
+package us.ihmc.communication.crdt;
+
+import java.util.function.IntSupplier;
+
+/**
+ * Keeps track of the bandwidth and serialization time of the publications of a CRDT node.
+ * The statistics are computed over windows of the given duration.
+ *
+ * Call {@link #startSerialization()} before packing the message and
+ * {@link #stopSerialization(IntSupplier, boolean)} once it is packed.
+ *
+ * Computing the serialized size of a message costs about as much as serializing it, so it is
+ * only computed for one in every {@link #SIZE_SAMPLE_PERIOD} publications and the bandwidth
+ * is estimated from the average sampled size.
+ */
+public class CRDTPublicationStatistics
+{
+   public static final int SIZE_SAMPLE_PERIOD = 10;
+
+   private final long windowDurationNanos;
+
+   private long serializationStartNanos = -1L;
+   private long windowStartNanos = -1L;
+   private long windowSampledBytes = 0;
+   private int windowSizeSamples = 0;
+   private long windowSerializationNanos = 0;
+   private int windowPublications = 0;
+   private int windowFullSnapshots = 0;
+
+   private double bytesPerSecond = 0.0;
+   private double publicationsPerSecond = 0.0;
+   private double averageSerializationTime = 0.0;
+   private double fullSnapshotRatio = 0.0;
+   private long totalPublications = 0;
+
+   /**
+    * @param windowDuration the duration in seconds over which the statistics are computed.
+    */
+   public CRDTPublicationStatistics(double windowDuration)
+   {
+      windowDurationNanos = (long) (windowDuration * 1.0e9);
+   }
+
+   public void startSerialization()
+   {
+      serializationStartNanos = System.nanoTime();
+   }
+
+   /**
+    * @param serializedSize gives the serialized size of the message that is about to be published, only
+    *                       called for the publications whose size is sampled.
+    * @param isFullSnapshot whether the message carries the full state or only what changed.
+    * @return whether this publication completed a window, i.e. the statistics were just updated.
+    */
+   public boolean stopSerialization(IntSupplier serializedSize, boolean isFullSnapshot)
+   {
+      long now = System.nanoTime();
+
+      if (serializationStartNanos >= 0L)
+         windowSerializationNanos += now - serializationStartNanos;
+      serializationStartNanos = -1L;
+
+      if (windowStartNanos < 0L)
+         windowStartNanos = now;
+
+      if (totalPublications % SIZE_SAMPLE_PERIOD == 0)
+      {
+         windowSampledBytes += serializedSize.getAsInt();
+         ++windowSizeSamples;
+      }
+
+      ++windowPublications;
+      if (isFullSnapshot)
+         ++windowFullSnapshots;
+      ++totalPublications;
+
+      long windowDuration = now - windowStartNanos;
+      if (windowDuration < windowDurationNanos)
+         return false;
+
+      double windowDurationInSeconds = windowDuration * 1.0e-9;
+      publicationsPerSecond = windowPublications / windowDurationInSeconds;
+      if (windowSizeSamples > 0)
+         bytesPerSecond = (double) windowSampledBytes / windowSizeSamples * publicationsPerSecond;
+      averageSerializationTime = windowSerializationNanos * 1.0e-9 / windowPublications;
+      fullSnapshotRatio = (double) windowFullSnapshots / windowPublications;
+
+      windowStartNanos = now;
+      windowSampledBytes = 0;
+      windowSizeSamples = 0;
+      windowSerializationNanos = 0;
+      windowPublications = 0;
+      windowFullSnapshots = 0;
+      return true;
+   }
+
+   /** @return the estimated bandwidth, in bytes per second. */
+   public double getBytesPerSecond()
+   {
+      return bytesPerSecond;
+   }
+
+   public double getPublicationsPerSecond()
+   {
+      return publicationsPerSecond;
+   }
+
+   /** @return the average time spent packing a message, in seconds. */
+   public double getAverageSerializationTime()
+   {
+      return averageSerializationTime;
+   }
+
+   /** @return the fraction of the publications that were full snapshots. */
+   public double getFullSnapshotRatio()
+   {
+      return fullSnapshotRatio;
+   }
+
+   public long getTotalPublications()
+   {
+      return totalPublications;
+   }
+
+   @Override
+   public String toString()
+   {
+      return "%.1f kB/s, %.1f Hz, %.3f ms serialization, %.0f%% full snapshots".formatted(bytesPerSecond / 1000.0,
+                                                                                           publicationsPerSecond,
+                                                                                           averageSerializationTime * 1000.0,
+                                                                                           fullSnapshotRatio * 100.0);
+   }
+}
@@ -24,9 +24,12 @@ public class CRDTStatusBoolean extends CRDTStatusField
 
    public void setValue(boolean value)
    {
-      checkActorCanModifyAndMarkHasStatus();
+      if (this.value != value)
+      {
+         checkActorCanModifyAndMarkHasStatus();
 
-      this.value = value;
+         this.value = value;
+      }
    }
 
    public boolean toMessage()
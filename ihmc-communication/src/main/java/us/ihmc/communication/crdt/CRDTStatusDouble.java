@@ -20,9 +20,12 @@ public class CRDTStatusDouble extends CRDTStatusField
 
    public void setValue(double value)
    {
-      checkActorCanModifyAndMarkHasStatus();
+      if (this.value != value)
+      {
+         checkActorCanModifyAndMarkHasStatus();
 
-      this.value = value;
+         this.value = value;
+      }
    }
 
    public double toMessage()
@@ -2,6 +2,8 @@ package us.ihmc.communication.crdt;
 
 import us.ihmc.communication.ros2.ROS2ActorDesignation;
 
+import java.util.Arrays;
+
 /**
  * Represents a double array that should only be modified by one actor type
  * and read-only for the others. The internal writeable instance is kept protected
@@ -11,7 +13,11 @@ public class CRDTStatusDoubleArray extends CRDTStatusMutableField<double[]>
 {
    public CRDTStatusDoubleArray(ROS2ActorDesignation sideThatCanModify, CRDTInfo crdtInfo, int arraySize)
    {
-      super(sideThatCanModify, crdtInfo, () -> new double[arraySize]);
+      super(sideThatCanModify,
+            crdtInfo,
+            () -> new double[arraySize],
+            Arrays::equals,
+            (destination, source) -> System.arraycopy(source, 0, destination, 0, arraySize));
    }
 
    public double getValueReadOnly(int index)
@@ -26,12 +26,17 @@ public class CRDTStatusField
 
    protected void checkActorCanModifyAndMarkHasStatus()
    {
-      if (isModificationDisallowed())
-         throw new RuntimeException("%s is not allowed to modify this value.".formatted(crdtInfo.getActorDesignation()));
+      checkActorCanModify();
 
       hasStatus.set();
    }
 
+   protected void checkActorCanModify()
+   {
+      if (isModificationDisallowed())
+         throw new RuntimeException("%s is not allowed to modify this value.".formatted(crdtInfo.getActorDesignation()));
+   }
+
    protected boolean isModificationDisallowed()
    {
       return sideThatCanModify != crdtInfo.getActorDesignation();
@@ -16,7 +16,11 @@ public class CRDTStatusFootstepList extends CRDTStatusMutableField<RecyclingArra
 {
    public CRDTStatusFootstepList(ROS2ActorDesignation sideThatCanModify, CRDTInfo crdtInfo)
    {
-      super(sideThatCanModify, crdtInfo, () -> new RecyclingArrayList<>(FootstepPlanActionFootstepDefinitionMessage::new));
+      super(sideThatCanModify,
+            crdtInfo,
+            () -> new RecyclingArrayList<>(FootstepPlanActionFootstepDefinitionMessage::new),
+            (listA, listB) -> listEquals(listA, listB, FootstepPlanActionFootstepDefinitionMessage::equals),
+            (destination, source) -> setList(destination, source, FootstepPlanActionFootstepDefinitionMessage::set));
    }
 
    public Pose3DReadOnly getPoseReadOnly(int index)
@@ -2,6 +2,8 @@ package us.ihmc.communication.crdt;
 
 import us.ihmc.communication.ros2.ROS2ActorDesignation;
 
+import java.util.Objects;
+
 /**
  * Represents a data field that should only be modified by one actor type
  * and read-only for the others.
@@ -24,9 +26,12 @@ public class CRDTStatusImmutableField<T> extends CRDTStatusField
 
    public void setValue(T value)
    {
-      checkActorCanModifyAndMarkHasStatus();
+      if (!Objects.equals(this.value, value))
+      {
+         checkActorCanModifyAndMarkHasStatus();
 
-      this.value = value;
+         this.value = value;
+      }
    }
 
    public T toMessage()
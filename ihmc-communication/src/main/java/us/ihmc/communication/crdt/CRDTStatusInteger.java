@@ -24,9 +24,12 @@ public class CRDTStatusInteger extends CRDTStatusField
 
    public void setValue(int value)
    {
-      checkActorCanModifyAndMarkHasStatus();
+      if (this.value != value)
+      {
+         checkActorCanModifyAndMarkHasStatus();
 
-      this.value = value;
+         this.value = value;
+      }
    }
 
    public int toMessage()
@@ -24,9 +24,12 @@ public class CRDTStatusLong extends CRDTStatusField
 
    public void setValue(long value)
    {
-      checkActorCanModifyAndMarkHasStatus();
+      if (this.value != value)
+      {
+         checkActorCanModifyAndMarkHasStatus();
 
-      this.value = value;
+         this.value = value;
+      }
    }
 
    public long toMessage()
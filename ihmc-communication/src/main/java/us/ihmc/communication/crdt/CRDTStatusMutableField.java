@@ -1,7 +1,11 @@
 package us.ihmc.communication.crdt;
 
+import us.ihmc.commons.lists.RecyclingArrayList;
 import us.ihmc.communication.ros2.ROS2ActorDesignation;
 
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.BiPredicate;
 import java.util.function.Supplier;
 
 /**
@@ -9,28 +13,107 @@ import java.util.function.Supplier;
  * and read-only for the others. The internal writeable instance is kept protected
  * from unchecked modifications.
  *
+ * Accessing the value does not mark the field as having a status. When the field is
+ * created with an equality test, the value is compared to the one it had when the status
+ * was last polled, so setting the same value every tick is not published again. Otherwise,
+ * modifications have to be marked with {@link #markModified()}.
+ *
  * This is abstract because there is a need to provide a read-only access to this
  * mutable value, which will vary by type.
  */
 public abstract class CRDTStatusMutableField<T> extends CRDTStatusField
 {
    private final T value;
+   /** Copy of the value when the status was last polled, {@code null} if not compared by value. */
+   private final T lastPolledValue;
+   private final BiPredicate<T, T> valueEquals;
+   private final BiConsumer<T, T> valueSetter;
+   private boolean isValueAccessed = false;
 
    public CRDTStatusMutableField(ROS2ActorDesignation sideThatCanModify, CRDTInfo crdtInfo, Supplier<T> valueSupplier)
+   {
+      this(sideThatCanModify, crdtInfo, valueSupplier, null, null);
+   }
+
+   /**
+    * @param valueEquals whether two values are equal, used to detect the modifications made through {@link #accessValue()}.
+    * @param valueSetter sets the first value to the second one.
+    */
+   public CRDTStatusMutableField(ROS2ActorDesignation sideThatCanModify,
+                                 CRDTInfo crdtInfo,
+                                 Supplier<T> valueSupplier,
+                                 BiPredicate<T, T> valueEquals,
+                                 BiConsumer<T, T> valueSetter)
    {
       super(sideThatCanModify, crdtInfo);
 
       value = valueSupplier.get();
+      this.valueEquals = valueEquals;
+      this.valueSetter = valueSetter;
+      lastPolledValue = valueEquals == null ? null : valueSupplier.get();
    }
 
+   /**
+    * Only use this if modifying the value. Modifications are detected by comparing the value
+    * when the status is polled, or have to be marked with {@link #markModified()} if this field
+    * is not compared by value.
+    */
    public T accessValue()
    {
-      checkActorCanModifyAndMarkHasStatus();
+      checkActorCanModify();
+      isValueAccessed = true;
       return value;
    }
 
+   /**
+    * Marks the value as modified, such that it is sent with the next status.
+    */
+   public void markModified()
+   {
+      checkActorCanModifyAndMarkHasStatus();
+   }
+
+   @Override
+   public boolean pollHasStatus()
+   {
+      boolean hasStatus = super.pollHasStatus();
+
+      if (isValueAccessed && lastPolledValue != null && !valueEquals.test(value, lastPolledValue))
+      {
+         valueSetter.accept(lastPolledValue, value);
+         hasStatus = true;
+      }
+      isValueAccessed = false;
+
+      return hasStatus;
+   }
+
    protected T getValueInternal()
    {
       return value;
    }
+
+   protected static <E> boolean listEquals(List<E> listA, List<E> listB, BiPredicate<E, E> elementEquals)
+   {
+      if (listA.size() != listB.size())
+         return false;
+
+      for (int i = 0; i < listA.size(); i++)
+      {
+         if (!elementEquals.test(listA.get(i), listB.get(i)))
+            return false;
+      }
+
+      return true;
+   }
+
+   protected static <E> void setList(RecyclingArrayList<E> destination, List<E> source, BiConsumer<E, E> elementSetter)
+   {
+      destination.clear();
+
+      for (int i = 0; i < source.size(); i++)
+      {
+         elementSetter.accept(destination.add(), source.get(i));
+      }
+   }
 }
@@ -13,7 +13,11 @@ public class CRDTStatusOneDoFJointTrajectoryList extends CRDTStatusMutableField<
 {
    public CRDTStatusOneDoFJointTrajectoryList(ROS2ActorDesignation sideThatCanModify, CRDTInfo crdtInfo)
    {
-      super(sideThatCanModify, crdtInfo, () -> new RecyclingArrayList<>(() -> new RecyclingArrayList<>(OneDoFTrajectoryPoint::new)));
+      super(sideThatCanModify,
+            crdtInfo,
+            () -> new RecyclingArrayList<>(() -> new RecyclingArrayList<>(OneDoFTrajectoryPoint::new)),
+            (listA, listB) -> listEquals(listA, listB, (pointsA, pointsB) -> listEquals(pointsA, pointsB, OneDoFTrajectoryPoint::equals)),
+            (destination, source) -> setList(destination, source, (points, sourcePoints) -> setList(points, sourcePoints, OneDoFTrajectoryPoint::set)));
    }
 
    public OneDoFTrajectoryPointReadOnly getValueReadOnly(int jointIndex, int trajectoryPointIndex)
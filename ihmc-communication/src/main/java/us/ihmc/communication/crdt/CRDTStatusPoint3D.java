@@ -13,7 +13,7 @@ public class CRDTStatusPoint3D extends CRDTStatusMutableField<Point3D>
 {
    public CRDTStatusPoint3D(ROS2ActorDesignation sideThatCanModify, CRDTInfo crdtInfo)
    {
-      super(sideThatCanModify, crdtInfo, Point3D::new);
+      super(sideThatCanModify, crdtInfo, Point3D::new, Point3D::equals, Point3D::set);
    }
 
    public Point3DReadOnly getValueReadOnly()
@@ -13,7 +13,7 @@ public class CRDTStatusPose3D extends CRDTStatusMutableField<Pose3D>
 {
    public CRDTStatusPose3D(ROS2ActorDesignation sideThatCanModify, CRDTInfo crdtInfo)
    {
-      super(sideThatCanModify, crdtInfo, Pose3D::new);
+      super(sideThatCanModify, crdtInfo, Pose3D::new, Pose3D::equals, Pose3D::set);
    }
 
    public Pose3DReadOnly getValueReadOnly()
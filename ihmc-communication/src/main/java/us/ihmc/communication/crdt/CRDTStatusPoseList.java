@@ -15,7 +15,11 @@ public class CRDTStatusPoseList extends CRDTStatusMutableField<RecyclingArrayLis
 {
    public CRDTStatusPoseList(ROS2ActorDesignation sideThatCanModify, CRDTInfo crdtInfo)
    {
-      super(sideThatCanModify, crdtInfo, () -> new RecyclingArrayList<>(Pose3D::new));
+      super(sideThatCanModify,
+            crdtInfo,
+            () -> new RecyclingArrayList<>(Pose3D::new),
+            (listA, listB) -> listEquals(listA, listB, Pose3D::equals),
+            (destination, source) -> setList(destination, source, Pose3D::set));
    }
 
    public Pose3DReadOnly getValueReadOnly(int index)
@@ -16,7 +16,7 @@ public class CRDTStatusRigidBodyTransform extends CRDTStatusMutableField<RigidBo
 {
    public CRDTStatusRigidBodyTransform(ROS2ActorDesignation sideThatCanModify, CRDTInfo crdtInfo)
    {
-      super(sideThatCanModify, crdtInfo, RigidBodyTransform::new);
+      super(sideThatCanModify, crdtInfo, RigidBodyTransform::new, RigidBodyTransform::equals, RigidBodyTransform::set);
    }
 
    public RigidBodyTransformReadOnly getValueReadOnly()
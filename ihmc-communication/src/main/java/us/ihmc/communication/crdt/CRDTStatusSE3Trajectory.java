@@ -13,7 +13,11 @@ public class CRDTStatusSE3Trajectory extends CRDTStatusMutableField<RecyclingArr
 {
    public CRDTStatusSE3Trajectory(ROS2ActorDesignation sideThatCanModify, CRDTInfo crdtInfo)
    {
-      super(sideThatCanModify, crdtInfo, () -> new RecyclingArrayList<>(SE3TrajectoryPoint::new));
+      super(sideThatCanModify,
+            crdtInfo,
+            () -> new RecyclingArrayList<>(SE3TrajectoryPoint::new),
+            (listA, listB) -> listEquals(listA, listB, SE3TrajectoryPoint::equals),
+            (destination, source) -> setList(destination, source, SE3TrajectoryPoint::set));
    }
 
    public SE3TrajectoryPointReadOnly getValueReadOnly(int index)
@@ -13,7 +13,7 @@ public class CRDTStatusVector3D extends CRDTStatusMutableField<Vector3D>
 {
    public CRDTStatusVector3D(ROS2ActorDesignation sideThatCanModify, CRDTInfo crdtInfo)
    {
-      super(sideThatCanModify, crdtInfo, Vector3D::new);
+      super(sideThatCanModify, crdtInfo, Vector3D::new, Vector3D::equals, Vector3D::set);
    }
 
    public Vector3DReadOnly getValueReadOnly()
@@ -0,0 +1,89 @@
+package us.ihmc.communication.packetCommunicator;
+
+import java.util.function.Supplier;
+
+import us.ihmc.communication.net.PacketConsumer;
+import us.ihmc.communication.packets.Packet;
+
+/**
+ * Bounded alternative to {@link ConcurrentPacketQueue} for streams received at high rate, e.g. joystick or teleoperation commands.
+ * <p>
+ * It is backed by a {@link PacketRingBuffer}: the received packets are copied into packets allocated at construction, which are read
+ * with {@link #pollInto(Packet)}. When full, the incoming packets are dropped and counted. It supports a single producer and a single
+ * consumer, which is the case when attached to a {@link PacketCommunicator} with
+ * {@link PacketCommunicator#attachListener(Class, PacketConsumer)}.
+ * </p>
+ * <p>
+ * Only the queue does not allocate, the packets received by a {@link PacketCommunicator} are still deserialized into new instances
+ * before being copied into the queue.
+ * </p>
+ */
+public class BoundedPacketQueue<T extends Packet<T>> implements PacketConsumer<T>
+{
+   private final PacketRingBuffer<T> ringBuffer;
+
+   /**
+    * @param capacity       the maximum number of queued packets, rounded up to the next power of two.
+    * @param packetSupplier used to create the pooled packets.
+    */
+   public BoundedPacketQueue(int capacity, Supplier<T> packetSupplier)
+   {
+      ringBuffer = new PacketRingBuffer<>(capacity, packetSupplier);
+   }
+
+   public boolean isNewPacketAvailable()
+   {
+      return !ringBuffer.isEmpty();
+   }
+
+   /**
+    * Removes the oldest packet and copies it into {@code packetToPack}.
+    *
+    * @param packetToPack the packet in which the oldest packet is stored. Modified.
+    * @return {@code false} if the queue was empty.
+    */
+   public boolean pollInto(T packetToPack)
+   {
+      return ringBuffer.poll(packetToPack);
+   }
+
+   /**
+    * Copies the packet into the queue.
+    *
+    * @param packet the packet to queue. Not modified.
+    * @return {@code false} if the queue was full and the packet was dropped.
+    */
+   public boolean put(T packet)
+   {
+      return ringBuffer.offer(packet);
+   }
+
+   public void clear()
+   {
+      ringBuffer.clear();
+   }
+
+   @Override
+   public void receivedPacket(T packet)
+   {
+      put(packet);
+   }
+
+   public int size()
+   {
+      return ringBuffer.size();
+   }
+
+   public int capacity()
+   {
+      return ringBuffer.capacity();
+   }
+
+   /**
+    * @return the number of packets dropped because the queue was full.
+    */
+   public long getNumberOfDroppedPackets()
+   {
+      return ringBuffer.getNumberOfDroppedPackets();
+   }
+}
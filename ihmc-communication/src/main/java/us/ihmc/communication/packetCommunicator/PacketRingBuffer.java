@@ -0,0 +1,176 @@
+package us.ihmc.communication.packetCommunicator;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import us.ihmc.communication.packets.Packet;
+
+/**
+ * Bounded single-producer single-consumer queue of packets which does not allocate once created.
+ * <p>
+ * All the packets are allocated at construction and recycled: {@link #offer(Packet)} copies the given packet into the next free
+ * slot and the consumer either copies the oldest packet out with {@link #poll(Packet)}, or reads it in place with
+ * {@link #peek()} and hands the slot back with {@link #release()}.
+ * </p>
+ * <p>
+ * When the buffer is full the incoming packet is dropped: {@link #offer(Packet)} returns {@code false} so the producer can apply
+ * backpressure, and the number of dropped packets is reported by {@link #getNumberOfDroppedPackets()}. The packets already queued
+ * are never overwritten, which is what allows the consumer to read them in place.
+ * </p>
+ * <p>
+ * Only one thread may call {@link #offer(Packet)} and only one thread may call the consumer methods.
+ * </p>
+ */
+public class PacketRingBuffer<T extends Packet<T>>
+{
+   private final T[] slots;
+   private final int mask;
+
+   /** Index of the next slot to be written, only written by the producer. */
+   private final AtomicLong writeIndex = new AtomicLong();
+   /** Index of the next slot to be read, only written by the consumer. */
+   private final AtomicLong readIndex = new AtomicLong();
+   private final AtomicLong numberOfDroppedPackets = new AtomicLong();
+
+   /** Producer copy of {@link #readIndex}, refreshed only when the buffer looks full. */
+   private long cachedReadIndex = 0;
+   /** Consumer copy of {@link #writeIndex}, refreshed only when the buffer looks empty. */
+   private long cachedWriteIndex = 0;
+
+   /**
+    * @param capacity       the maximum number of queued packets, rounded up to the next power of two.
+    * @param packetSupplier used to create the pooled packets.
+    */
+   @SuppressWarnings("unchecked")
+   public PacketRingBuffer(int capacity, Supplier<T> packetSupplier)
+   {
+      if (capacity < 1)
+         throw new IllegalArgumentException("The capacity must be at least 1, was: " + capacity);
+
+      int size = Integer.highestOneBit(capacity);
+      if (size < capacity)
+         size <<= 1;
+
+      slots = (T[]) new Packet[size];
+      mask = size - 1;
+
+      for (int i = 0; i < size; i++)
+         slots[i] = packetSupplier.get();
+   }
+
+   /**
+    * Producer side: copies the packet into the buffer.
+    *
+    * @param packet the packet to copy. Not modified.
+    * @return {@code false} if the buffer was full and the packet was dropped.
+    */
+   public boolean offer(T packet)
+   {
+      long index = writeIndex.get();
+
+      if (index - cachedReadIndex >= slots.length)
+      {
+         cachedReadIndex = readIndex.get();
+
+         if (index - cachedReadIndex >= slots.length)
+         {
+            numberOfDroppedPackets.incrementAndGet();
+            return false;
+         }
+      }
+
+      slots[(int) (index & mask)].set(packet);
+      writeIndex.lazySet(index + 1);
+      return true;
+   }
+
+   /**
+    * Consumer side: copies the oldest packet into {@code packetToPack} and removes it from the buffer.
+    *
+    * @param packetToPack the packet in which the oldest packet is stored. Modified.
+    * @return {@code false} if the buffer was empty, in which case {@code packetToPack} is not modified.
+    */
+   public boolean poll(T packetToPack)
+   {
+      T packet = peek();
+
+      if (packet == null)
+         return false;
+
+      packetToPack.set(packet);
+      release();
+      return true;
+   }
+
+   /**
+    * Consumer side: gets the oldest packet without removing it.
+    * <p>
+    * The packet belongs to the buffer: it should not be modified nor kept after calling {@link #release()}.
+    * </p>
+    *
+    * @return the oldest packet, or {@code null} if the buffer is empty.
+    */
+   public T peek()
+   {
+      long index = readIndex.get();
+
+      if (index >= cachedWriteIndex)
+      {
+         cachedWriteIndex = writeIndex.get();
+
+         if (index >= cachedWriteIndex)
+            return null;
+      }
+
+      return slots[(int) (index & mask)];
+   }
+
+   /**
+    * Consumer side: removes the packet last returned by {@link #peek()}, its slot can be reused by the producer afterwards.
+    */
+   public void release()
+   {
+      long index = readIndex.get();
+
+      if (index >= cachedWriteIndex)
+         throw new IllegalStateException("No packet to release, peek() should return a packet first.");
+
+      readIndex.lazySet(index + 1);
+   }
+
+   /**
+    * Consumer side: removes all the queued packets.
+    */
+   public void clear()
+   {
+      cachedWriteIndex = writeIndex.get();
+      readIndex.lazySet(cachedWriteIndex);
+   }
+
+   public boolean isEmpty()
+   {
+      return size() == 0;
+   }
+
+   /**
+    * @return the number of queued packets. Only an estimate when called while the producer or the consumer is running.
+    */
+   public int size()
+   {
+      long size = writeIndex.get() - readIndex.get();
+      return (int) Math.max(0L, Math.min(size, slots.length));
+   }
+
+   public int capacity()
+   {
+      return slots.length;
+   }
+
+   /**
+    * @return the number of packets dropped by {@link #offer(Packet)} because the buffer was full.
+    */
+   public long getNumberOfDroppedPackets()
+   {
+      return numberOfDroppedPackets.get();
+   }
+}
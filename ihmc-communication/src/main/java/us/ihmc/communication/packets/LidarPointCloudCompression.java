@@ -5,7 +5,9 @@ import net.jpountz.lz4.LZ4Exception;
 import us.ihmc.communication.compression.LZ4CompressionImplementation;
 import us.ihmc.idl.IDLSequence;
 
+import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
 
 /**
@@ -19,6 +21,23 @@ public class LidarPointCloudCompression
    private static final boolean debug = false;
    private static boolean hasPrintedStackTrace = false;
 
+   /**
+    * Scratch space used by the methods decompressing into primitive arrays and buffers. Once grown to
+    * the size of the largest scan received, these methods do not allocate anything.
+    * <p>
+    * An instance should not be shared between threads.
+    * </p>
+    */
+   public static class DecompressionIntermediateVariablesPackage
+   {
+      private ByteBuffer compressedPointCloudWrapper;
+      private ByteBuffer decompressedPointCloudByteBuffer = ByteBuffer.allocate(0);
+
+      public DecompressionIntermediateVariablesPackage()
+      {
+      }
+   }
+
    public static void compressPointCloud(int pointCloudSize, LidarScanMessage messageToPack, LidarPointCoordinateFunction coordinateFunction)
    {
       // 3 coordinates per point, 4 bytes per coordinate
@@ -89,6 +108,81 @@ public class LidarPointCloudCompression
       }
    }
 
+   /**
+    * Decompresses the scan into an array of coordinates without creating any object per point.
+    *
+    * @param compressedPointCloud the compressed scan. Not modified.
+    * @param numberOfPoints       the number of points in the scan.
+    * @param pointCloudToPack     the array in which the coordinates are stored as x, y, z for each
+    *                             point, it has to hold at least {@code 3 * numberOfPoints} elements.
+    *                             Modified.
+    * @param variablesPackage     the scratch space to reuse.
+    * @return the number of points.
+    */
+   public static int decompressPointCloud(IDLSequence.Byte compressedPointCloud,
+                                          int numberOfPoints,
+                                          float[] pointCloudToPack,
+                                          DecompressionIntermediateVariablesPackage variablesPackage)
+   {
+      if (pointCloudToPack.length < 3 * numberOfPoints)
+         throw new IllegalArgumentException("The array is too small: " + pointCloudToPack.length + ", expected at least: " + 3 * numberOfPoints);
+
+      ByteBuffer decompressedPointCloud = decompressDiscretizedPointCloud(compressedPointCloud, numberOfPoints, variablesPackage);
+
+      for (int i = 0; i < 3 * numberOfPoints; i++)
+         pointCloudToPack[i] = (float) (POINT_RESOLUTION * decompressedPointCloud.getInt(Integer.BYTES * i));
+
+      return numberOfPoints;
+   }
+
+   /**
+    * Decompresses the scan into a buffer of coordinates, e.g. a direct buffer to be uploaded to the
+    * GPU, without creating any object per point.
+    *
+    * @param compressedPointCloud the compressed scan. Not modified.
+    * @param numberOfPoints       the number of points in the scan.
+    * @param pointCloudToPack     the buffer in which the coordinates are stored as x, y, z for each
+    *                             point, starting at its position which is then advanced. Modified.
+    * @param variablesPackage     the scratch space to reuse.
+    * @return the number of points.
+    */
+   public static int decompressPointCloud(IDLSequence.Byte compressedPointCloud,
+                                          int numberOfPoints,
+                                          FloatBuffer pointCloudToPack,
+                                          DecompressionIntermediateVariablesPackage variablesPackage)
+   {
+      if (pointCloudToPack.remaining() < 3 * numberOfPoints)
+         throw new BufferOverflowException();
+
+      ByteBuffer decompressedPointCloud = decompressDiscretizedPointCloud(compressedPointCloud, numberOfPoints, variablesPackage);
+
+      for (int i = 0; i < 3 * numberOfPoints; i++)
+         pointCloudToPack.put((float) (POINT_RESOLUTION * decompressedPointCloud.getInt(Integer.BYTES * i)));
+
+      return numberOfPoints;
+   }
+
+   private static ByteBuffer decompressDiscretizedPointCloud(IDLSequence.Byte compressedPointCloud,
+                                                             int numberOfPoints,
+                                                             DecompressionIntermediateVariablesPackage variablesPackage)
+   {
+      byte[] compressedArray = compressedPointCloud.getBuffer().array();
+      if (variablesPackage.compressedPointCloudWrapper == null || variablesPackage.compressedPointCloudWrapper.array() != compressedArray)
+         variablesPackage.compressedPointCloudWrapper = ByteBuffer.wrap(compressedArray);
+      ByteBuffer compressedPointCloudByteBuffer = variablesPackage.compressedPointCloudWrapper;
+      compressedPointCloudByteBuffer.clear();
+      compressedPointCloudByteBuffer.limit(compressedPointCloud.size());
+
+      int numberOfDecompressedBytes = numberOfPoints * 4 * 3;
+      if (variablesPackage.decompressedPointCloudByteBuffer.capacity() < numberOfDecompressedBytes)
+         variablesPackage.decompressedPointCloudByteBuffer = ByteBuffer.allocate(numberOfDecompressedBytes);
+      ByteBuffer decompressedPointCloudByteBuffer = variablesPackage.decompressedPointCloudByteBuffer;
+      decompressedPointCloudByteBuffer.clear();
+
+      compressorThreadLocal.get().decompress(compressedPointCloudByteBuffer, decompressedPointCloudByteBuffer, numberOfDecompressedBytes);
+      return decompressedPointCloudByteBuffer;
+   }
+
    public interface LidarPointCoordinateFunction
    {
       /**
@@ -1,11 +1,18 @@
 package us.ihmc.communication.packets;
 
 import java.awt.Color;
+import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
 
 import controller_msgs.msg.dds.StereoVisionPointCloudMessage;
 import net.jpountz.lz4.LZ4Exception;
+import us.ihmc.communication.compression.CompressionImplementation;
 import us.ihmc.communication.compression.LZ4CompressionImplementation;
+import us.ihmc.communication.compression.MortonDeltaPointCloudFilter;
+import us.ihmc.communication.compression.PointCloudCodec;
 import us.ihmc.euclid.tools.EuclidCoreTools;
 import us.ihmc.euclid.tuple3D.Point3D;
 import us.ihmc.euclid.tuple3D.Point3D32;
@@ -23,6 +30,21 @@ public class StereoPointCloudCompression
    private static final int OCTREE_DEPTH = 16;
    private static final double RESOLUTION_TO_SIZE_RATIO = Math.pow(2.0, OCTREE_DEPTH) - 1;
    private static final ThreadLocal<LZ4CompressionImplementation> compressorThreadLocal = ThreadLocal.withInitial(LZ4CompressionImplementation::new);
+   private static final ThreadLocal<MortonDeltaPointCloudFilter> mortonDeltaFilterThreadLocal = ThreadLocal.withInitial(MortonDeltaPointCloudFilter::new);
+   private static final ThreadLocal<ByteBuffer> chunkDecompressionBufferThreadLocal = ThreadLocal.withInitial(() -> ByteBuffer.allocate(computePointByteBufferSize(PointCloudCodec.MAX_POINTS_PER_CHUNK)));
+
+   /**
+    * First byte of the data compressed with a chunked codec, followed by the codec id and the chunk
+    * table. A block written by the LZ4 compressor cannot start with it: it would be a match token
+    * without any literal before it to refer to.
+    */
+   private static final byte CHUNKED_FORMAT_MARKER = 0x0F;
+   /** The marker, the codec id and the number of chunks. */
+   private static final int CHUNKED_FORMAT_HEADER_SIZE = 2 + Integer.BYTES;
+   /** Per chunk: the number of points and the size of the compressed data. */
+   private static final int CHUNK_HEADER_SIZE = 2 * Integer.BYTES;
+   /** Room left per chunk for the worst case expansion of the compression. */
+   private static final int CHUNK_COMPRESSION_MARGIN = 64;
 
    public static class CompressionIntermediateVariablesPackage
    {
@@ -40,10 +62,33 @@ public class StereoPointCloudCompression
       private int pointCloudByteBufferSize;
       private int colorByteBufferSize;
 
+      // Only used by the chunked codecs.
+      private short[] quantizedPoints = new short[0];
+      private byte[] quantizedColors = new byte[0];
+      private ChunkBuffers[] chunkBuffers = new ChunkBuffers[0];
+
       public CompressionIntermediateVariablesPackage()
       {
       }
 
+      private void initializeChunks(int numberOfPoints, int numberOfChunks)
+      {
+         if (quantizedPoints.length < 3 * numberOfPoints)
+         {
+            quantizedPoints = new short[3 * numberOfPoints];
+            quantizedColors = new byte[3 * numberOfPoints];
+         }
+
+         if (chunkBuffers.length < numberOfChunks)
+         {
+            ChunkBuffers[] newChunkBuffers = new ChunkBuffers[numberOfChunks];
+            System.arraycopy(chunkBuffers, 0, newChunkBuffers, 0, chunkBuffers.length);
+            for (int i = chunkBuffers.length; i < numberOfChunks; i++)
+               newChunkBuffers[i] = new ChunkBuffers();
+            chunkBuffers = newChunkBuffers;
+         }
+      }
+
       private void initialize(int numberOfPoints)
       {
          pointCloudByteBufferSize = computePointByteBufferSize(numberOfPoints);
@@ -55,8 +100,9 @@ public class StereoPointCloudCompression
             rawColorByteBuffer = ByteBuffer.allocate(colorByteBufferSize);
 
             // LZ4 compression apparently needs some additional room to do its thing.
-            byteBufferedPointCloud = new IDLSequence.Byte(pointCloudByteBufferSize * 2, "type_9");
-            byteBufferedColors = new IDLSequence.Byte(colorByteBufferSize * 2, "type_9");
+            int chunkedOverhead = computeChunkedOverhead(numberOfPoints);
+            byteBufferedPointCloud = new IDLSequence.Byte(pointCloudByteBufferSize * 2 + chunkedOverhead, "type_9");
+            byteBufferedColors = new IDLSequence.Byte(colorByteBufferSize * 2 + chunkedOverhead, "type_9");
 
             message.point_cloud_ = byteBufferedPointCloud;
             message.colors_ = byteBufferedColors;
@@ -92,6 +138,72 @@ public class StereoPointCloudCompression
       }
    }
 
+   /**
+    * Scratch space used by the methods decompressing into primitive arrays and buffers. Once grown to
+    * the size of the largest point-cloud received, these methods do not allocate anything per point.
+    * <p>
+    * An instance should not be shared between threads.
+    * </p>
+    */
+   public static class DecompressionIntermediateVariablesPackage
+   {
+      private ByteBuffer decompressedByteBuffer = ByteBuffer.allocate(0);
+      private short[] quantizedPoints = new short[0];
+      private byte[] quantizedColors = new byte[0];
+      private final ChunkTable chunkTable = new ChunkTable();
+
+      private ByteBuffer compressedPointCloudWrapper;
+      private ByteBuffer compressedColorsWrapper;
+
+      public DecompressionIntermediateVariablesPackage()
+      {
+      }
+
+      private ByteBuffer getDecompressedByteBuffer(int size)
+      {
+         if (decompressedByteBuffer.capacity() < size)
+            decompressedByteBuffer = ByteBuffer.allocate(size);
+         decompressedByteBuffer.clear();
+         return decompressedByteBuffer;
+      }
+
+      private short[] getQuantizedPoints(int numberOfPoints)
+      {
+         if (quantizedPoints.length < 3 * numberOfPoints)
+            quantizedPoints = new short[3 * numberOfPoints];
+         return quantizedPoints;
+      }
+
+      private byte[] getQuantizedColors(int numberOfPoints)
+      {
+         if (quantizedColors.length < 3 * numberOfPoints)
+            quantizedColors = new byte[3 * numberOfPoints];
+         return quantizedColors;
+      }
+
+      private ByteBuffer wrapPointCloud(IDLSequence.Byte compressedPointCloud)
+      {
+         compressedPointCloudWrapper = wrap(compressedPointCloudWrapper, compressedPointCloud);
+         return compressedPointCloudWrapper;
+      }
+
+      private ByteBuffer wrapColors(IDLSequence.Byte compressedColors)
+      {
+         compressedColorsWrapper = wrap(compressedColorsWrapper, compressedColors);
+         return compressedColorsWrapper;
+      }
+
+      private static ByteBuffer wrap(ByteBuffer wrapper, IDLSequence.Byte sequence)
+      {
+         byte[] array = sequence.getBuffer().array();
+         if (wrapper == null || wrapper.array() != array)
+            wrapper = ByteBuffer.wrap(array);
+         wrapper.clear();
+         wrapper.limit(sequence.size());
+         return wrapper;
+      }
+   }
+
    public static int computeColorByteBufferSize(int numberOfPoints)
    {
       return numberOfPoints * 3;
@@ -102,6 +214,16 @@ public class StereoPointCloudCompression
       return numberOfPoints * 3 * 2;
    }
 
+   public static int computeNumberOfChunks(int numberOfPoints)
+   {
+      return (numberOfPoints + PointCloudCodec.MAX_POINTS_PER_CHUNK - 1) / PointCloudCodec.MAX_POINTS_PER_CHUNK;
+   }
+
+   private static int computeChunkedOverhead(int numberOfPoints)
+   {
+      return CHUNKED_FORMAT_HEADER_SIZE + computeNumberOfChunks(numberOfPoints) * (CHUNK_HEADER_SIZE + CHUNK_COMPRESSION_MARGIN);
+   }
+
    /**
     * Compresses the given point-cloud by doing the following:
     * <ul>
@@ -173,6 +295,23 @@ public class StereoPointCloudCompression
                                 variablesPackage);
    }
 
+   public static StereoVisionPointCloudMessage compressPointCloud(long timestamp,
+                                                                  PointAccessor pointAccessor,
+                                                                  ColorAccessor colorAccessor,
+                                                                  int numberOfPoints,
+                                                                  double minimumResolution,
+                                                                  PointCloudCodec codec,
+                                                                  CompressionIntermediateVariablesPackage variablesPackage)
+   {
+      return compressPointCloud(timestamp,
+                                pointAccessor,
+                                colorAccessor,
+                                DiscretizationParameters.bbxCalculator(minimumResolution),
+                                numberOfPoints,
+                                codec,
+                                variablesPackage);
+   }
+
    public static StereoVisionPointCloudMessage compressPointCloud(long timestamp,
                                                                   PointAccessor pointAccessor,
                                                                   ColorAccessor colorAccessor,
@@ -196,12 +335,40 @@ public class StereoPointCloudCompression
                                                                   int numberOfPoints,
                                                                   boolean useLZ4Compressor,
                                                                   CompressionIntermediateVariablesPackage variablesPackage)
+   {
+      return compressPointCloud(timestamp,
+                                pointAccessor,
+                                colorAccessor,
+                                discretizationParameters,
+                                numberOfPoints,
+                                useLZ4Compressor ? PointCloudCodec.LZ4 : null,
+                                variablesPackage);
+   }
+
+   /**
+    * Quantizes the point-cloud and compresses it with the given codec.
+    * <p>
+    * The chunked codecs compress the chunks in parallel using the common fork-join pool. When the
+    * codec uses the {@link MortonDeltaPointCloudFilter}, the points are reordered and will be
+    * decompressed in a different order than the one given here, each point keeping its color.
+    * </p>
+    *
+    * @param codec the codec to use, or {@code null} to send the quantized point-cloud uncompressed.
+    */
+   public static StereoVisionPointCloudMessage compressPointCloud(long timestamp,
+                                                                  PointAccessor pointAccessor,
+                                                                  ColorAccessor colorAccessor,
+                                                                  DiscretizationParameters discretizationParameters,
+                                                                  int numberOfPoints,
+                                                                  PointCloudCodec codec,
+                                                                  CompressionIntermediateVariablesPackage variablesPackage)
    {
       if (variablesPackage == null)
          variablesPackage = new CompressionIntermediateVariablesPackage();
 
       variablesPackage.initialize(numberOfPoints);
 
+      boolean useLZ4Compressor = codec != null;
       StereoVisionPointCloudMessage message = variablesPackage.message;
       message.setTimestamp(timestamp);
       message.setSensorPoseConfidence(1.0);
@@ -235,6 +402,32 @@ public class StereoPointCloudCompression
          variablesPackage.byteBufferedPointCloud.getBuffer().position(variablesPackage.pointCloudByteBufferSize);
          variablesPackage.byteBufferedColors.getBuffer().position(variablesPackage.colorByteBufferSize);
       }
+      else if (codec.isChunked())
+      {
+         short[] quantizedPoints = variablesPackage.quantizedPoints;
+         byte[] quantizedColors = variablesPackage.quantizedColors;
+         int numberOfChunks = computeNumberOfChunks(numberOfPoints);
+         variablesPackage.initializeChunks(numberOfPoints, numberOfChunks);
+
+         for (int i = 0; i < numberOfPoints; i++)
+         {
+            quantizedPoints[3 * i] = (short) ((pointAccessor.getX(i) - centerX) * invResolution);
+            quantizedPoints[3 * i + 1] = (short) ((pointAccessor.getY(i) - centerY) * invResolution);
+            quantizedPoints[3 * i + 2] = (short) ((pointAccessor.getZ(i) - centerZ) * invResolution);
+            quantizedColors[3 * i] = colorAccessor.getRed(i);
+            quantizedColors[3 * i + 1] = colorAccessor.getGreen(i);
+            quantizedColors[3 * i + 2] = colorAccessor.getBlue(i);
+         }
+
+         CompressionIntermediateVariablesPackage chunkVariables = variablesPackage;
+         forEachChunk(numberOfChunks, chunkIndex -> compressChunk(chunkIndex, numberOfPoints, codec, chunkVariables));
+
+         int compressedPointCloudSize = writeChunks(codec, numberOfChunks, variablesPackage.chunkBuffers, true, variablesPackage.compressedPointCloudByteBuffer);
+         int compressedColorSize = writeChunks(codec, numberOfChunks, variablesPackage.chunkBuffers, false, variablesPackage.compressedColorByteBuffer);
+
+         variablesPackage.byteBufferedPointCloud.getBuffer().position(compressedPointCloudSize);
+         variablesPackage.byteBufferedColors.getBuffer().position(compressedColorSize);
+      }
       else
       {
          ByteBuffer rawPointCloudByteBuffer = variablesPackage.rawPointCloudByteBuffer;
@@ -285,13 +478,164 @@ public class StereoPointCloudCompression
       return message;
    }
 
+   private static void compressChunk(int chunkIndex, int numberOfPoints, PointCloudCodec codec, CompressionIntermediateVariablesPackage variablesPackage)
+   {
+      ChunkBuffers chunk = variablesPackage.chunkBuffers[chunkIndex];
+      int firstPointIndex = chunkIndex * PointCloudCodec.MAX_POINTS_PER_CHUNK;
+      chunk.numberOfPoints = Math.min(PointCloudCodec.MAX_POINTS_PER_CHUNK, numberOfPoints - firstPointIndex);
+
+      ByteBuffer rawPoints = chunk.rawPoints;
+      ByteBuffer rawColors = chunk.rawColors;
+      rawPoints.clear();
+      rawColors.clear();
+
+      if (codec.useMortonDeltaFilter())
+      {
+         mortonDeltaFilterThreadLocal.get().encode(variablesPackage.quantizedPoints,
+                                                   variablesPackage.quantizedColors,
+                                                   firstPointIndex,
+                                                   chunk.numberOfPoints,
+                                                   rawPoints,
+                                                   rawColors);
+      }
+      else
+      {
+         for (int i = 3 * firstPointIndex; i < 3 * (firstPointIndex + chunk.numberOfPoints); i++)
+            rawPoints.putShort(variablesPackage.quantizedPoints[i]);
+         rawColors.put(variablesPackage.quantizedColors, 3 * firstPointIndex, 3 * chunk.numberOfPoints);
+      }
+
+      rawPoints.flip();
+      rawColors.flip();
+
+      CompressionImplementation compressor = codec.getCompressor();
+      chunk.compressedPoints = ensureCapacity(chunk.compressedPoints, compressor.maxCompressedLength(rawPoints.remaining()));
+      chunk.compressedColors = ensureCapacity(chunk.compressedColors, compressor.maxCompressedLength(rawColors.remaining()));
+      chunk.compressedPointsSize = compressor.compress(rawPoints, chunk.compressedPoints);
+      chunk.compressedColorsSize = compressor.compress(rawColors, chunk.compressedColors);
+   }
+
+   /**
+    * Writes the compressed chunks as: the {@link #CHUNKED_FORMAT_MARKER}, the codec id and the number
+    * of chunks, then the number of points and compressed size of each chunk, then the compressed data
+    * of each chunk.
+    */
+   private static int writeChunks(PointCloudCodec codec, int numberOfChunks, ChunkBuffers[] chunkBuffers, boolean writePoints, ByteBuffer output)
+   {
+      output.put(CHUNKED_FORMAT_MARKER);
+      output.put(codec.getId());
+      output.putInt(numberOfChunks);
+
+      for (int i = 0; i < numberOfChunks; i++)
+      {
+         ChunkBuffers chunk = chunkBuffers[i];
+         output.putInt(chunk.numberOfPoints);
+         output.putInt(writePoints ? chunk.compressedPointsSize : chunk.compressedColorsSize);
+      }
+
+      for (int i = 0; i < numberOfChunks; i++)
+      {
+         ChunkBuffers chunk = chunkBuffers[i];
+         if (writePoints)
+            output.put(chunk.compressedPoints.array(), 0, chunk.compressedPointsSize);
+         else
+            output.put(chunk.compressedColors.array(), 0, chunk.compressedColorsSize);
+      }
+
+      return output.position();
+   }
+
+   /**
+    * Decompresses chunks written by
+    * {@link #writeChunks(PointCloudCodec, int, ChunkBuffers[], boolean, ByteBuffer)} in parallel into
+    * either {@code keysToPack} or {@code rgbToPack}.
+    */
+   private static void decompressChunks(IDLSequence.Byte compressedData, int numberOfPoints, ChunkTable chunkTable, short[] keysToPack, byte[] rgbToPack)
+   {
+      byte[] data = compressedData.getBuffer().array();
+      chunkTable.read(data, compressedData.size(), numberOfPoints);
+      PointCloudCodec codec = chunkTable.codec;
+
+      forEachChunk(chunkTable.numberOfChunks, chunkIndex ->
+      {
+         int chunkSize = chunkTable.chunkNumberOfPoints[chunkIndex];
+         ByteBuffer source = ByteBuffer.wrap(data, chunkTable.chunkDataOffsets[chunkIndex], chunkTable.chunkDataSizes[chunkIndex]).slice();
+         ByteBuffer decompressed = chunkDecompressionBufferThreadLocal.get();
+         decompressed.clear();
+         int decompressedLength = keysToPack != null ? computePointByteBufferSize(chunkSize) : computeColorByteBufferSize(chunkSize);
+         codec.getCompressor().decompress(source, decompressed, decompressedLength);
+         decompressed.flip();
+
+         int firstPointIndex = chunkTable.chunkPointOffsets[chunkIndex];
+
+         if (keysToPack != null)
+         {
+            if (codec.useMortonDeltaFilter())
+            {
+               MortonDeltaPointCloudFilter.decodePoints(decompressed, chunkSize, keysToPack, firstPointIndex);
+            }
+            else
+            {
+               for (int i = 3 * firstPointIndex; i < 3 * (firstPointIndex + chunkSize); i++)
+                  keysToPack[i] = decompressed.getShort();
+            }
+         }
+         else
+         {
+            if (codec.useMortonDeltaFilter())
+               MortonDeltaPointCloudFilter.decodeColors(decompressed, chunkSize, rgbToPack, firstPointIndex);
+            else
+               decompressed.get(rgbToPack, 3 * firstPointIndex, 3 * chunkSize);
+         }
+      });
+   }
+
+   private static void forEachChunk(int numberOfChunks, IntConsumer chunkTask)
+   {
+      if (numberOfChunks == 1)
+         chunkTask.accept(0);
+      else
+         IntStream.range(0, numberOfChunks).parallel().forEach(chunkTask);
+   }
+
+   private static ByteBuffer ensureCapacity(ByteBuffer buffer, int capacity)
+   {
+      if (buffer == null || buffer.capacity() < capacity)
+         return ByteBuffer.allocate(capacity);
+
+      buffer.clear();
+      return buffer;
+   }
+
+   /**
+    * @param compressedData the point-cloud or colors of a message compressed with a codec.
+    * @return whether the data starts with the header written by the chunked codecs.
+    */
+   private static boolean isChunked(IDLSequence.Byte compressedData)
+   {
+      return compressedData.size() >= CHUNKED_FORMAT_HEADER_SIZE && compressedData.get(0) == CHUNKED_FORMAT_MARKER;
+   }
+
+   /**
+    * Reads the codec from the header of the compressed point-cloud.
+    *
+    * @return the codec used to compress the message, or {@code null} if it is not compressed.
+    */
+   public static PointCloudCodec getCodec(StereoVisionPointCloudMessage message)
+   {
+      if (!message.getLz4Compressed())
+         return null;
+      else if (isChunked(message.getPointCloud()))
+         return PointCloudCodec.fromId(message.getPointCloud().get(1));
+      else
+         return PointCloudCodec.LZ4;
+   }
+
    public static Point3D32[] decompressPointCloudToArray32(StereoVisionPointCloudMessage message)
    {
-      return decompressPointCloudToArray32(message.getPointCloud(),
-                                           message.getPointCloudCenter(),
-                                           message.getResolution(),
-                                           message.getNumberOfPoints(),
-                                           message.getLz4Compressed());
+      Point3D32[] pointCloud = new Point3D32[message.getNumberOfPoints()];
+      decompressPointCloud(message, PointCoordinateConsumer.toArray(pointCloud));
+      return pointCloud;
    }
 
    public static Point3D32[] decompressPointCloudToArray32(IDLSequence.Byte compressedPointCloud,
@@ -307,11 +651,9 @@ public class StereoPointCloudCompression
 
    public static Point3D[] decompressPointCloudToArray(StereoVisionPointCloudMessage message)
    {
-      return decompressPointCloudToArray(message.getPointCloud(),
-                                         message.getPointCloudCenter(),
-                                         message.getResolution(),
-                                         message.getNumberOfPoints(),
-                                         message.getLz4Compressed());
+      Point3D[] pointCloud = new Point3D[message.getNumberOfPoints()];
+      decompressPointCloud(message, PointCoordinateConsumer.toArray(pointCloud));
+      return pointCloud;
    }
 
    public static Point3D[] decompressPointCloudToArray(IDLSequence.Byte compressedPointCloud,
@@ -335,6 +677,10 @@ public class StereoPointCloudCompression
                            pointCoordinateConsumer);
    }
 
+   /**
+    * @param isLZ4Compressed whether the point-cloud has been compressed, the codec used is read from
+    *                        the compressed data.
+    */
    public static void decompressPointCloud(IDLSequence.Byte compressedPointCloud,
                                            Point3D center,
                                            double resolution,
@@ -342,7 +688,20 @@ public class StereoPointCloudCompression
                                            boolean isLZ4Compressed,
                                            PointCoordinateConsumer pointCoordinateConsumer)
    {
-      if (isLZ4Compressed)
+      if (isLZ4Compressed && isChunked(compressedPointCloud))
+      {
+         short[] keys = new short[3 * numberOfPoints];
+         decompressChunks(compressedPointCloud, numberOfPoints, new ChunkTable(), keys, null);
+
+         for (int i = 0; i < numberOfPoints; i++)
+         {
+            double x = (keys[3 * i] + 0.5) * resolution;
+            double y = (keys[3 * i + 1] + 0.5) * resolution;
+            double z = (keys[3 * i + 2] + 0.5) * resolution;
+            pointCoordinateConsumer.accept(x + center.getX(), y + center.getY(), z + center.getZ());
+         }
+      }
+      else if (isLZ4Compressed)
       {
          ByteBuffer compressedPointCloudByteBuffer = compressedPointCloud.copyByteBuffer();
          ByteBuffer decompressedPointCloudByteBuffer = ByteBuffer.allocate(computePointByteBufferSize(numberOfPoints));
@@ -370,6 +729,152 @@ public class StereoPointCloudCompression
       }
    }
 
+   /**
+    * Decompresses the point-cloud into an array of coordinates without creating any object per point.
+    *
+    * @param message          the message to decompress. Not modified.
+    * @param pointCloudToPack the array in which the coordinates are stored as x, y, z for each point,
+    *                         it has to hold at least {@code 3 * message.getNumberOfPoints()} elements.
+    *                         Modified.
+    * @param variablesPackage the scratch space to reuse.
+    * @return the number of points.
+    */
+   public static int decompressPointCloud(StereoVisionPointCloudMessage message,
+                                          float[] pointCloudToPack,
+                                          DecompressionIntermediateVariablesPackage variablesPackage)
+   {
+      int numberOfPoints = message.getNumberOfPoints();
+
+      if (pointCloudToPack.length < 3 * numberOfPoints)
+         throw new IllegalArgumentException("The array is too small: " + pointCloudToPack.length + ", expected at least: " + 3 * numberOfPoints);
+
+      short[] quantizedPoints = decompressQuantizedPoints(message, variablesPackage);
+      double resolution = message.getResolution();
+      Point3D center = message.getPointCloudCenter();
+
+      for (int i = 0; i < numberOfPoints; i++)
+      {
+         pointCloudToPack[3 * i] = (float) ((quantizedPoints[3 * i] + 0.5) * resolution + center.getX());
+         pointCloudToPack[3 * i + 1] = (float) ((quantizedPoints[3 * i + 1] + 0.5) * resolution + center.getY());
+         pointCloudToPack[3 * i + 2] = (float) ((quantizedPoints[3 * i + 2] + 0.5) * resolution + center.getZ());
+      }
+
+      return numberOfPoints;
+   }
+
+   /**
+    * Decompresses the point-cloud into a buffer of coordinates, e.g. a direct buffer to be uploaded
+    * to the GPU, without creating any object per point.
+    *
+    * @param message          the message to decompress. Not modified.
+    * @param pointCloudToPack the buffer in which the coordinates are stored as x, y, z for each point,
+    *                         starting at its position which is then advanced. Modified.
+    * @param variablesPackage the scratch space to reuse.
+    * @return the number of points.
+    */
+   public static int decompressPointCloud(StereoVisionPointCloudMessage message,
+                                          FloatBuffer pointCloudToPack,
+                                          DecompressionIntermediateVariablesPackage variablesPackage)
+   {
+      int numberOfPoints = message.getNumberOfPoints();
+
+      if (pointCloudToPack.remaining() < 3 * numberOfPoints)
+         throw new BufferOverflowException();
+
+      short[] quantizedPoints = decompressQuantizedPoints(message, variablesPackage);
+      double resolution = message.getResolution();
+      Point3D center = message.getPointCloudCenter();
+
+      for (int i = 0; i < numberOfPoints; i++)
+      {
+         pointCloudToPack.put((float) ((quantizedPoints[3 * i] + 0.5) * resolution + center.getX()));
+         pointCloudToPack.put((float) ((quantizedPoints[3 * i + 1] + 0.5) * resolution + center.getY()));
+         pointCloudToPack.put((float) ((quantizedPoints[3 * i + 2] + 0.5) * resolution + center.getZ()));
+      }
+
+      return numberOfPoints;
+   }
+
+   /**
+    * Decompresses the colors into an array of RGB values without creating any object per point.
+    *
+    * @param message          the message to decompress. Not modified.
+    * @param colorsToPack     the array in which the colors are stored, it has to hold at least
+    *                         {@code message.getNumberOfPoints()} elements. Modified.
+    * @param variablesPackage the scratch space to reuse.
+    * @return the number of points.
+    */
+   public static int decompressColors(StereoVisionPointCloudMessage message, int[] colorsToPack, DecompressionIntermediateVariablesPackage variablesPackage)
+   {
+      int numberOfPoints = message.getNumberOfPoints();
+
+      if (colorsToPack.length < numberOfPoints)
+         throw new IllegalArgumentException("The array is too small: " + colorsToPack.length + ", expected at least: " + numberOfPoints);
+
+      byte[] quantizedColors = decompressQuantizedColors(message, variablesPackage);
+
+      for (int i = 0; i < numberOfPoints; i++)
+      {
+         colorsToPack[i] = rgb(quantizedColors[3 * i], quantizedColors[3 * i + 1], quantizedColors[3 * i + 2]);
+      }
+
+      return numberOfPoints;
+   }
+
+   private static short[] decompressQuantizedPoints(StereoVisionPointCloudMessage message, DecompressionIntermediateVariablesPackage variablesPackage)
+   {
+      int numberOfPoints = message.getNumberOfPoints();
+      short[] quantizedPoints = variablesPackage.getQuantizedPoints(numberOfPoints);
+
+      if (message.getLz4Compressed() && isChunked(message.getPointCloud()))
+      {
+         decompressChunks(message.getPointCloud(), numberOfPoints, variablesPackage.chunkTable, quantizedPoints, null);
+         return quantizedPoints;
+      }
+
+      ByteBuffer source = variablesPackage.wrapPointCloud(message.getPointCloud());
+
+      if (message.getLz4Compressed())
+      {
+         int pointCloudByteBufferSize = computePointByteBufferSize(numberOfPoints);
+         ByteBuffer decompressed = variablesPackage.getDecompressedByteBuffer(pointCloudByteBufferSize);
+         compressorThreadLocal.get().decompress(source, decompressed, pointCloudByteBufferSize);
+         source = decompressed;
+      }
+
+      for (int i = 0; i < 3 * numberOfPoints; i++)
+      {
+         quantizedPoints[i] = source.getShort(2 * i);
+      }
+
+      return quantizedPoints;
+   }
+
+   private static byte[] decompressQuantizedColors(StereoVisionPointCloudMessage message, DecompressionIntermediateVariablesPackage variablesPackage)
+   {
+      int numberOfPoints = message.getNumberOfPoints();
+      byte[] quantizedColors = variablesPackage.getQuantizedColors(numberOfPoints);
+
+      if (message.getLz4Compressed() && isChunked(message.getColors()))
+      {
+         decompressChunks(message.getColors(), numberOfPoints, variablesPackage.chunkTable, null, quantizedColors);
+         return quantizedColors;
+      }
+
+      ByteBuffer source = variablesPackage.wrapColors(message.getColors());
+
+      if (message.getLz4Compressed())
+      {
+         int colorByteBufferSize = computeColorByteBufferSize(numberOfPoints);
+         ByteBuffer decompressed = variablesPackage.getDecompressedByteBuffer(colorByteBufferSize);
+         compressorThreadLocal.get().decompress(source, decompressed, colorByteBufferSize);
+         source = decompressed;
+      }
+
+      source.get(0, quantizedColors, 0, 3 * numberOfPoints);
+      return quantizedColors;
+   }
+
    public static double getPointCoordinate(byte byteHi, byte byteLo, double resolution)
    {
       return (toShort(byteHi, byteLo) + 0.5) * resolution;
@@ -377,7 +882,9 @@ public class StereoPointCloudCompression
 
    public static Color[] decompressColorsToAWTColorArray(StereoVisionPointCloudMessage message)
    {
-      return decompressColorsToAWTColorArray(message.getColors(), message.getNumberOfPoints(), message.getLz4Compressed());
+      Color[] colors = new Color[message.getNumberOfPoints()];
+      decompressColors(message, ColorConsumer.toAWTColorArray(colors));
+      return colors;
    }
 
    public static Color[] decompressColorsToAWTColorArray(IDLSequence.Byte compressedColors, int numberOfPoints, boolean isLZ4Compressed)
@@ -389,7 +896,9 @@ public class StereoPointCloudCompression
 
    public static int[] decompressColorsToIntArray(StereoVisionPointCloudMessage message)
    {
-      return decompressColorsToIntArray(message.getColors(), message.getNumberOfPoints(), message.getLz4Compressed());
+      int[] colors = new int[message.getNumberOfPoints()];
+      decompressColors(message, ColorConsumer.toRGBArray(colors));
+      return colors;
    }
 
    public static int[] decompressColorsToIntArray(IDLSequence.Byte compressedColors, int numberOfPoints, boolean isLZ4Compressed)
@@ -404,9 +913,23 @@ public class StereoPointCloudCompression
       decompressColors(message.getColors(), message.getNumberOfPoints(), message.getLz4Compressed(), colorConsumer);
    }
 
+   /**
+    * @param isLZ4Compressed whether the colors have been compressed, the codec used is read from the
+    *                        compressed data.
+    */
    public static void decompressColors(IDLSequence.Byte compressedColors, int numberOfPoints, boolean isLZ4Compressed, ColorConsumer colorConsumer)
    {
-      if (isLZ4Compressed)
+      if (isLZ4Compressed && isChunked(compressedColors))
+      {
+         byte[] rgb = new byte[3 * numberOfPoints];
+         decompressChunks(compressedColors, numberOfPoints, new ChunkTable(), null, rgb);
+
+         for (int i = 0; i < numberOfPoints; i++)
+         {
+            colorConsumer.accept(rgb[3 * i] & 0xFF, rgb[3 * i + 1] & 0xFF, rgb[3 * i + 2] & 0xFF);
+         }
+      }
+      else if (isLZ4Compressed)
       {
          ByteBuffer compressedColorByteBuffer = compressedColors.copyByteBuffer();
          int colorByteBufferSize = computeColorByteBufferSize(numberOfPoints);
@@ -436,6 +959,66 @@ public class StereoPointCloudCompression
       }
    }
 
+   /**
+    * Location of the chunks in the compressed data, read from the header written by
+    * {@link StereoPointCloudCompression#writeChunks(PointCloudCodec, int, ChunkBuffers[], boolean, ByteBuffer)}.
+    */
+   private static class ChunkTable
+   {
+      private PointCloudCodec codec;
+      private int numberOfChunks;
+      private int[] chunkPointOffsets = new int[0];
+      private int[] chunkNumberOfPoints = new int[0];
+      private int[] chunkDataOffsets = new int[0];
+      private int[] chunkDataSizes = new int[0];
+
+      private void read(byte[] data, int dataSize, int expectedNumberOfPoints)
+      {
+         codec = PointCloudCodec.fromId(data[1]);
+         numberOfChunks = readInt(data, 2);
+
+         if (chunkPointOffsets.length < numberOfChunks)
+         {
+            chunkPointOffsets = new int[numberOfChunks];
+            chunkNumberOfPoints = new int[numberOfChunks];
+            chunkDataOffsets = new int[numberOfChunks];
+            chunkDataSizes = new int[numberOfChunks];
+         }
+
+         int pointOffset = 0;
+         int dataOffset = CHUNKED_FORMAT_HEADER_SIZE + numberOfChunks * CHUNK_HEADER_SIZE;
+
+         for (int i = 0; i < numberOfChunks; i++)
+         {
+            chunkPointOffsets[i] = pointOffset;
+            chunkNumberOfPoints[i] = readInt(data, CHUNKED_FORMAT_HEADER_SIZE + i * CHUNK_HEADER_SIZE);
+            chunkDataOffsets[i] = dataOffset;
+            chunkDataSizes[i] = readInt(data, CHUNKED_FORMAT_HEADER_SIZE + Integer.BYTES + i * CHUNK_HEADER_SIZE);
+            pointOffset += chunkNumberOfPoints[i];
+            dataOffset += chunkDataSizes[i];
+         }
+
+         if (pointOffset != expectedNumberOfPoints || dataOffset > dataSize)
+            throw new IllegalArgumentException("Inconsistent chunked point-cloud data, expected " + expectedNumberOfPoints + " points, found: " + pointOffset);
+      }
+
+      private static int readInt(byte[] data, int index)
+      {
+         return (data[index] & 0xFF) << 24 | (data[index + 1] & 0xFF) << 16 | (data[index + 2] & 0xFF) << 8 | (data[index + 3] & 0xFF);
+      }
+   }
+
+   private static class ChunkBuffers
+   {
+      private final ByteBuffer rawPoints = ByteBuffer.allocate(computePointByteBufferSize(PointCloudCodec.MAX_POINTS_PER_CHUNK));
+      private final ByteBuffer rawColors = ByteBuffer.allocate(computeColorByteBufferSize(PointCloudCodec.MAX_POINTS_PER_CHUNK));
+      private ByteBuffer compressedPoints;
+      private ByteBuffer compressedColors;
+      private int numberOfPoints;
+      private int compressedPointsSize;
+      private int compressedColorsSize;
+   }
+
    public static short toShort(byte byteHi, byte byteLo)
    {
       return (short) (((byteHi & 0xFF) << 8) | ((byteLo & 0xFF) << 0));
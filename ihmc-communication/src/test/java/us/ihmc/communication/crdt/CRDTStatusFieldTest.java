@@ -0,0 +1,107 @@
+package us.ihmc.communication.crdt;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import us.ihmc.communication.ros2.ROS2ActorDesignation;
+import us.ihmc.euclid.geometry.Pose3D;
+import us.ihmc.euclid.transform.RigidBodyTransform;
+
+public class CRDTStatusFieldTest
+{
+   @Test
+   public void testStatusIsOnlyMarkedWhenChanged()
+   {
+      CRDTInfo crdtInfo = new CRDTInfo(ROS2ActorDesignation.ROBOT, 10);
+      CRDTStatusDouble statusDouble = new CRDTStatusDouble(ROS2ActorDesignation.ROBOT, crdtInfo, 0.0);
+      CRDTStatusString statusString = new CRDTStatusString(ROS2ActorDesignation.ROBOT, crdtInfo, "");
+      CRDTStatusDoubleArray statusArray = new CRDTStatusDoubleArray(ROS2ActorDesignation.ROBOT, crdtInfo, 3);
+
+      Assertions.assertFalse(statusDouble.pollHasStatus());
+
+      statusDouble.setValue(0.0);
+      statusString.setValue("");
+      statusArray.setValue(1, 0.0);
+      Assertions.assertFalse(statusDouble.pollHasStatus());
+      Assertions.assertFalse(statusString.pollHasStatus());
+      Assertions.assertFalse(statusArray.pollHasStatus());
+
+      statusDouble.setValue(1.0);
+      statusString.setValue(new String("changed"));
+      statusArray.setValue(1, 2.0);
+      Assertions.assertTrue(statusDouble.pollHasStatus());
+      Assertions.assertTrue(statusString.pollHasStatus());
+      Assertions.assertTrue(statusArray.pollHasStatus());
+      Assertions.assertFalse(statusDouble.pollHasStatus());
+
+      // Equal strings are not a change
+      statusString.setValue(new String("changed"));
+      Assertions.assertFalse(statusString.pollHasStatus());
+
+      // The side that cannot modify is still rejected when the value changes
+      CRDTStatusDouble operatorStatus = new CRDTStatusDouble(ROS2ActorDesignation.OPERATOR, crdtInfo, 0.0);
+      Assertions.assertThrows(RuntimeException.class, () -> operatorStatus.setValue(1.0));
+   }
+
+   @Test
+   public void testMutableFieldIsComparedByValue()
+   {
+      CRDTInfo crdtInfo = new CRDTInfo(ROS2ActorDesignation.ROBOT, 10);
+      CRDTStatusPose3D statusPose = new CRDTStatusPose3D(ROS2ActorDesignation.ROBOT, crdtInfo);
+
+      // Accessing the value is not a change
+      statusPose.accessValue();
+      Assertions.assertFalse(statusPose.pollHasStatus());
+
+      statusPose.accessValue().set(new Pose3D());
+      Assertions.assertFalse(statusPose.pollHasStatus());
+
+      Pose3D pose = new Pose3D(1.0, 2.0, 3.0, 0.1, 0.2, 0.3);
+      statusPose.accessValue().set(pose);
+      Assertions.assertTrue(statusPose.pollHasStatus());
+      statusPose.accessValue().set(pose);
+      Assertions.assertFalse(statusPose.pollHasStatus());
+
+      statusPose.markModified();
+      Assertions.assertTrue(statusPose.pollHasStatus());
+      Assertions.assertFalse(statusPose.pollHasStatus());
+
+      CRDTStatusSE3Trajectory statusTrajectory = new CRDTStatusSE3Trajectory(ROS2ActorDesignation.ROBOT, crdtInfo);
+      RigidBodyTransform startPose = new RigidBodyTransform();
+      RigidBodyTransform endPose = new RigidBodyTransform();
+      endPose.getTranslation().set(1.0, 0.0, 0.5);
+
+      statusTrajectory.setSingleSegmentTrajectory(startPose, endPose, 2.0);
+      Assertions.assertTrue(statusTrajectory.pollHasStatus());
+      statusTrajectory.setSingleSegmentTrajectory(startPose, endPose, 2.0);
+      Assertions.assertFalse(statusTrajectory.pollHasStatus());
+      statusTrajectory.setSingleSegmentTrajectory(startPose, endPose, 3.0);
+      Assertions.assertTrue(statusTrajectory.pollHasStatus());
+
+      // The side that cannot modify cannot access the value
+      CRDTStatusPose3D operatorPose = new CRDTStatusPose3D(ROS2ActorDesignation.OPERATOR, crdtInfo);
+      Assertions.assertThrows(RuntimeException.class, operatorPose::accessValue);
+   }
+
+   @Test
+   public void testFullSnapshots()
+   {
+      int snapshotPeriod = 5;
+      CRDTInfo crdtInfo = new CRDTInfo(ROS2ActorDesignation.OPERATOR, snapshotPeriod);
+
+      // The first update is always a full snapshot
+      Assertions.assertTrue(crdtInfo.isFullSnapshotUpdate());
+
+      for (int update = 1; update <= 3 * snapshotPeriod; update++)
+      {
+         crdtInfo.startNextUpdate();
+         Assertions.assertEquals(update % snapshotPeriod == 0, crdtInfo.isFullSnapshotUpdate());
+      }
+
+      crdtInfo.requestFullSnapshot();
+      Assertions.assertFalse(crdtInfo.isFullSnapshotUpdate());
+      crdtInfo.startNextUpdate();
+      Assertions.assertTrue(crdtInfo.isFullSnapshotUpdate());
+      crdtInfo.startNextUpdate();
+      Assertions.assertFalse(crdtInfo.isFullSnapshotUpdate());
+   }
+}
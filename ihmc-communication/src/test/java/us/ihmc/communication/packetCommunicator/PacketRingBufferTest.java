@@ -0,0 +1,127 @@
+package us.ihmc.communication.packetCommunicator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import us.ihmc.communication.packets.Packet;
+
+public class PacketRingBufferTest
+{
+   @Test
+   public void testOfferAndPoll()
+   {
+      PacketRingBuffer<TestPacket> ringBuffer = new PacketRingBuffer<>(5, TestPacket::new);
+      assertEquals(8, ringBuffer.capacity());
+      assertTrue(ringBuffer.isEmpty());
+
+      TestPacket packet = new TestPacket();
+      TestPacket polledPacket = new TestPacket();
+      assertFalse(ringBuffer.poll(polledPacket));
+
+      for (int i = 0; i < 10; i++)
+      {
+         packet.value = i;
+         assertEquals(i < 8, ringBuffer.offer(packet));
+      }
+
+      assertEquals(8, ringBuffer.size());
+      assertEquals(2, ringBuffer.getNumberOfDroppedPackets());
+
+      // The queued packets are copies, the oldest ones are kept.
+      packet.value = -1;
+      TestPacket peekedPacket = ringBuffer.peek();
+      assertEquals(0, peekedPacket.value);
+      assertSame(peekedPacket, ringBuffer.peek());
+      ringBuffer.release();
+
+      for (int i = 1; i < 8; i++)
+      {
+         assertTrue(ringBuffer.poll(polledPacket));
+         assertEquals(i, polledPacket.value);
+      }
+
+      assertFalse(ringBuffer.poll(polledPacket));
+      assertNull(ringBuffer.peek());
+      assertThrows(IllegalStateException.class, () -> ringBuffer.release());
+
+      // The slots are recycled.
+      assertTrue(ringBuffer.offer(packet));
+      assertSame(peekedPacket, ringBuffer.peek());
+      ringBuffer.clear();
+      assertTrue(ringBuffer.isEmpty());
+   }
+
+   @Test
+   public void testSingleProducerSingleConsumer() throws InterruptedException
+   {
+      int numberOfPackets = 1000000;
+      PacketRingBuffer<TestPacket> ringBuffer = new PacketRingBuffer<>(64, TestPacket::new);
+
+      Thread producer = new Thread(() ->
+      {
+         TestPacket packet = new TestPacket();
+         for (int i = 0; i < numberOfPackets; i++)
+         {
+            packet.value = i;
+            while (!ringBuffer.offer(packet))
+               Thread.onSpinWait();
+         }
+      });
+      producer.start();
+
+      TestPacket polledPacket = new TestPacket();
+      for (int expected = 0; expected < numberOfPackets; expected++)
+      {
+         while (!ringBuffer.poll(polledPacket))
+            Thread.onSpinWait();
+         assertEquals(expected, polledPacket.value);
+      }
+
+      producer.join();
+      assertTrue(ringBuffer.isEmpty());
+   }
+
+   @Test
+   public void testBoundedPacketQueue()
+   {
+      BoundedPacketQueue<TestPacket> queue = new BoundedPacketQueue<>(2, TestPacket::new);
+      TestPacket packet = new TestPacket();
+
+      for (int i = 0; i < 3; i++)
+      {
+         packet.value = i;
+         queue.receivedPacket(packet);
+      }
+
+      assertEquals(2, queue.size());
+      assertEquals(1, queue.getNumberOfDroppedPackets());
+      assertFalse(queue.put(packet));
+
+      TestPacket packetToPack = new TestPacket();
+      assertTrue(queue.pollInto(packetToPack));
+      assertEquals(0, packetToPack.value);
+      assertTrue(queue.pollInto(packetToPack));
+      assertEquals(1, packetToPack.value);
+      assertFalse(queue.pollInto(packetToPack));
+      assertFalse(queue.isNewPacketAvailable());
+   }
+
+   private static class TestPacket extends Packet<TestPacket>
+   {
+      private int value;
+
+      @Override
+      public void set(TestPacket other)
+      {
+         value = other.value;
+         setPacketInformation(other);
+      }
+
+      @Override
+      public boolean epsilonEquals(TestPacket other, double epsilon)
+      {
+         return value == other.value;
+      }
+   }
+}
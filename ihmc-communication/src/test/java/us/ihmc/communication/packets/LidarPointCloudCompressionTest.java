@@ -8,6 +8,7 @@ import us.ihmc.euclid.transform.RigidBodyTransform;
 import us.ihmc.euclid.tuple3D.Point3D;
 import us.ihmc.robotics.geometry.RigidBodyTransformGenerator;
 
+import java.nio.FloatBuffer;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
@@ -20,6 +21,7 @@ public class LidarPointCloudCompressionTest
       int numberOfTests = 100;
       Random random = new Random(3242);
       RigidBodyTransformGenerator rigidBodyTransformGenerator = new RigidBodyTransformGenerator();
+      LidarPointCloudCompression.DecompressionIntermediateVariablesPackage decompressionVariables = new LidarPointCloudCompression.DecompressionIntermediateVariablesPackage();
 
       for (int i = 0; i < numberOfTests; i++)
       {
@@ -61,6 +63,24 @@ public class LidarPointCloudCompressionTest
             Assertions.assertEquals(inputPoint.getY(), outputPoint.getY(), 1e-6 + LidarPointCloudCompression.POINT_RESOLUTION, "Lidar point cloud compression failed");
             Assertions.assertEquals(inputPoint.getZ(), outputPoint.getZ(), 1e-6 + LidarPointCloudCompression.POINT_RESOLUTION, "Lidar point cloud compression failed");
          }
+
+         // Uncompress message into primitive buffers, reusing the scratch space between iterations
+         float[] outputArray = new float[3 * numberOfPoints + 3];
+         FloatBuffer outputBuffer = FloatBuffer.allocate(3 * numberOfPoints);
+         Assertions.assertEquals(numberOfPoints, LidarPointCloudCompression.decompressPointCloud(lidarScanMessage.getScan(), numberOfPoints, outputArray, decompressionVariables));
+         Assertions.assertEquals(numberOfPoints, LidarPointCloudCompression.decompressPointCloud(lidarScanMessage.getScan(), numberOfPoints, outputBuffer, decompressionVariables));
+         Assertions.assertFalse(outputBuffer.hasRemaining());
+
+         for (int j = 0; j < numberOfPoints; j++)
+         {
+            Point3D outputPoint = outputPoints.get(j);
+
+            for (int axis = 0; axis < 3; axis++)
+            {
+               Assertions.assertEquals((float) outputPoint.getElement(axis), outputArray[3 * j + axis]);
+               Assertions.assertEquals((float) outputPoint.getElement(axis), outputBuffer.get(3 * j + axis));
+            }
+         }
       }
    }
 }
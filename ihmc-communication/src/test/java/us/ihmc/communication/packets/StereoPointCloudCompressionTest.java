@@ -4,7 +4,10 @@ import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import java.awt.Color;
+import java.nio.FloatBuffer;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Random;
 import java.util.Set;
 
@@ -12,8 +15,10 @@ import org.junit.jupiter.api.Test;
 
 import controller_msgs.msg.dds.StereoVisionPointCloudMessage;
 import us.ihmc.commons.MathTools;
+import us.ihmc.communication.compression.PointCloudCodec;
 import us.ihmc.communication.packets.StereoPointCloudCompression.ColorAccessor;
 import us.ihmc.communication.packets.StereoPointCloudCompression.CompressionIntermediateVariablesPackage;
+import us.ihmc.communication.packets.StereoPointCloudCompression.DecompressionIntermediateVariablesPackage;
 import us.ihmc.communication.packets.StereoPointCloudCompression.DiscretizationParameters;
 import us.ihmc.communication.packets.StereoPointCloudCompression.PointAccessor;
 import us.ihmc.euclid.geometry.BoundingBox3D;
@@ -91,6 +96,147 @@ public class StereoPointCloudCompressionTest
       }
    }
 
+   @Test
+   public void testCodecs()
+   {
+      Random random = new Random(3465);
+      CompressionIntermediateVariablesPackage variablesPackage = new CompressionIntermediateVariablesPackage();
+      double resolution = 0.005;
+      DiscretizationParameters discretizationParameters = DiscretizationParameters.fixedDiscretizationParameters(null, resolution);
+
+      for (PointCloudCodec codec : PointCloudCodec.values())
+      {
+         // Spans several chunks, the last one being partially filled.
+         int numberOfPoints = 2 * PointCloudCodec.MAX_POINTS_PER_CHUNK + random.nextInt(PointCloudCodec.MAX_POINTS_PER_CHUNK);
+         float[] inputPointCloud = new float[3 * numberOfPoints];
+         int[] inputColors = new int[numberOfPoints];
+         Map<Long, Integer> inputColorMap = new HashMap<>();
+
+         for (int i = 0; i < numberOfPoints; i++)
+         {
+            // Points at the center of the cells with positive coordinates are quantized without loss.
+            do
+            {
+               inputPointCloud[3 * i] = (float) ((random.nextInt(20000) + 0.5) * resolution);
+               inputPointCloud[3 * i + 1] = (float) ((random.nextInt(20000) + 0.5) * resolution);
+               inputPointCloud[3 * i + 2] = (float) ((random.nextInt(200) + 0.5) * resolution);
+            }
+            while (inputColorMap.containsKey(toCellKey(inputPointCloud[3 * i], inputPointCloud[3 * i + 1], inputPointCloud[3 * i + 2], resolution)));
+
+            inputColors[i] = random.nextInt(1 << 24);
+            inputColorMap.put(toCellKey(inputPointCloud[3 * i], inputPointCloud[3 * i + 1], inputPointCloud[3 * i + 2], resolution), inputColors[i]);
+         }
+
+         StereoVisionPointCloudMessage message = StereoPointCloudCompression.compressPointCloud(0,
+                                                                                                PointAccessor.wrap(inputPointCloud),
+                                                                                                ColorAccessor.wrapRGB(inputColors),
+                                                                                                discretizationParameters,
+                                                                                                numberOfPoints,
+                                                                                                codec,
+                                                                                                variablesPackage);
+         assertEquals(codec, StereoPointCloudCompression.getCodec(message));
+         assertEquals(numberOfPoints, message.getNumberOfPoints());
+
+         Point3D[] outputPointCloud = StereoPointCloudCompression.decompressPointCloudToArray(message);
+         int[] outputColors = StereoPointCloudCompression.decompressColorsToIntArray(message);
+
+         // The codec is read from the compressed data, the message fields are enough to decompress it.
+         Point3D[] outputPointCloudFromFields = StereoPointCloudCompression.decompressPointCloudToArray(message.getPointCloud(),
+                                                                                                       message.getPointCloudCenter(),
+                                                                                                       message.getResolution(),
+                                                                                                       numberOfPoints,
+                                                                                                       true);
+         assertArrayEquals(outputPointCloud, outputPointCloudFromFields, codec.name());
+         assertArrayEquals(outputColors,
+                           StereoPointCloudCompression.decompressColorsToIntArray(message.getColors(), numberOfPoints, true),
+                           codec.name());
+
+         if (codec.useMortonDeltaFilter())
+         {
+            // The points are reordered, each point has to keep its color.
+            Map<Long, Integer> outputColorMap = new HashMap<>();
+            for (int i = 0; i < numberOfPoints; i++)
+               outputColorMap.put(toCellKey(outputPointCloud[i].getX(), outputPointCloud[i].getY(), outputPointCloud[i].getZ(), resolution), outputColors[i]);
+            assertEquals(inputColorMap, outputColorMap, codec.name());
+         }
+         else
+         {
+            assertArrayEquals(inputColors, outputColors, codec.name());
+
+            for (int i = 0; i < numberOfPoints; i++)
+            {
+               assertEquals(inputPointCloud[3 * i], outputPointCloud[i].getX(), 1.0e-5, codec.name());
+               assertEquals(inputPointCloud[3 * i + 1], outputPointCloud[i].getY(), 1.0e-5, codec.name());
+               assertEquals(inputPointCloud[3 * i + 2], outputPointCloud[i].getZ(), 1.0e-5, codec.name());
+            }
+         }
+      }
+   }
+
+   @Test
+   public void testDecompressionIntoPrimitiveBuffers()
+   {
+      Random random = new Random(8734);
+      CompressionIntermediateVariablesPackage compressionVariables = new CompressionIntermediateVariablesPackage();
+      DecompressionIntermediateVariablesPackage decompressionVariables = new DecompressionIntermediateVariablesPackage();
+      PointCloudCodec[] codecs = {null, PointCloudCodec.LZ4, PointCloudCodec.LZ4_CHUNKED, PointCloudCodec.ZSTD_MORTON_DELTA};
+
+      for (int i = 0; i < 12; i++)
+      {
+         PointCloudCodec codec = codecs[i % codecs.length];
+         int numberOfPoints = random.nextInt(3 * PointCloudCodec.MAX_POINTS_PER_CHUNK) + 1;
+         float[] inputPointCloud = new float[3 * numberOfPoints];
+         int[] inputColors = new int[numberOfPoints];
+
+         for (int j = 0; j < numberOfPoints; j++)
+         {
+            inputPointCloud[3 * j] = (float) EuclidCoreRandomTools.nextDouble(random, 5.0);
+            inputPointCloud[3 * j + 1] = (float) EuclidCoreRandomTools.nextDouble(random, 5.0);
+            inputPointCloud[3 * j + 2] = (float) EuclidCoreRandomTools.nextDouble(random, 1.0);
+            inputColors[j] = random.nextInt(1 << 24);
+         }
+
+         StereoVisionPointCloudMessage message = StereoPointCloudCompression.compressPointCloud(0,
+                                                                                                PointAccessor.wrap(inputPointCloud),
+                                                                                                ColorAccessor.wrapRGB(inputColors),
+                                                                                                numberOfPoints,
+                                                                                                0.001,
+                                                                                                codec,
+                                                                                                compressionVariables);
+
+         Point3D[] expectedPointCloud = StereoPointCloudCompression.decompressPointCloudToArray(message);
+         int[] expectedColors = StereoPointCloudCompression.decompressColorsToIntArray(message);
+
+         float[] outputArray = new float[3 * numberOfPoints];
+         FloatBuffer outputBuffer = FloatBuffer.allocate(3 * numberOfPoints + 3);
+         outputBuffer.put(-1.0f);
+         int[] outputColors = new int[numberOfPoints + 1];
+
+         assertEquals(numberOfPoints, StereoPointCloudCompression.decompressPointCloud(message, outputArray, decompressionVariables));
+         assertEquals(numberOfPoints, StereoPointCloudCompression.decompressPointCloud(message, outputBuffer, decompressionVariables));
+         assertEquals(numberOfPoints, StereoPointCloudCompression.decompressColors(message, outputColors, decompressionVariables));
+         assertEquals(3 * numberOfPoints + 1, outputBuffer.position());
+
+         for (int j = 0; j < numberOfPoints; j++)
+         {
+            for (int axis = 0; axis < 3; axis++)
+            {
+               assertEquals(expectedPointCloud[j].getElement(axis), outputArray[3 * j + axis], 1.0e-5);
+               assertEquals(outputArray[3 * j + axis], outputBuffer.get(1 + 3 * j + axis));
+            }
+            assertEquals(expectedColors[j], outputColors[j]);
+         }
+      }
+   }
+
+   private static long toCellKey(double x, double y, double z, double resolution)
+   {
+      long xKey = (long) Math.floor(x / resolution);
+      long yKey = (long) Math.floor(y / resolution);
+      long zKey = (long) Math.floor(z / resolution);
+      return (xKey << 40) | (yKey << 20) | zKey;
+   }
+
    public static void main(String[] args)
    { // For benchmark
 
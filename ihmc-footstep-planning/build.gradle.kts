@@ -33,3 +33,14 @@ visualizersDependencies {
    api("us.ihmc:ihmc-common-walking-control-modules-test:source")
 
 }
+
+benchmarksDependencies {
+   api(ihmc.sourceSetProject("main"))
+
+   api("us.ihmc:ihmc-path-planning-data-sets:source")
+   api("us.ihmc:ihmc-java-toolkit-benchmarks:source")
+}
+
+ihmc.sourceSetProject("benchmarks").dependencies {
+   add("annotationProcessor", "us.ihmc:ihmc-java-toolkit-benchmarks:source")
+}
@@ -0,0 +1,42 @@
+package us.ihmc.footstepPlanning.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import us.ihmc.footstepPlanning.FootstepPlannerOutput;
+import us.ihmc.footstepPlanning.FootstepPlanningModule;
+import us.ihmc.footstepPlanning.bodyPath.AStarBodyPathPlanner;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class AStarBodyPathPlannerBenchmark
+{
+   @Param({"_20190219_182005_Random", "_20191213_134839_Cinders", "_20200513_151318_StairsIHMC_Bottom"})
+   public String dataSetName;
+
+   private FootstepPlanningBenchmarkEnvironment environment;
+   private AStarBodyPathPlanner bodyPathPlanner;
+   private final FootstepPlannerOutput output = new FootstepPlannerOutput();
+
+   @Setup(Level.Trial)
+   public void setup()
+   {
+      environment = new FootstepPlanningBenchmarkEnvironment(dataSetName);
+      FootstepPlanningModule planningModule = environment.getPlanningModule();
+      bodyPathPlanner = new AStarBodyPathPlanner(planningModule.getFootstepPlannerParameters(),
+                                                 planningModule.getAStarBodyPathPlannerParameters(),
+                                                 planningModule.getFootPolygons());
+   }
+
+   @Benchmark
+   public FootstepPlannerOutput handleRequest()
+   {
+      output.clear();
+      bodyPathPlanner.handleRequest(environment.getRequest(), output);
+      return output;
+   }
+}
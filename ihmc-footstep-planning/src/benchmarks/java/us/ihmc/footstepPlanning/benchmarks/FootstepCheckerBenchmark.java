@@ -0,0 +1,60 @@
+package us.ihmc.footstepPlanning.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import us.ihmc.footstepPlanning.FootstepPlanningModule;
+import us.ihmc.footstepPlanning.graphSearch.graph.FootstepGraphNode;
+import us.ihmc.footstepPlanning.graphSearch.stepChecking.FootstepCheckerInterface;
+import us.ihmc.footstepPlanning.graphSearch.stepExpansion.ParameterBasedStepExpansion;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks the children of the start node of a data set with the height map checker used by the A* planner. Steps are snapped
+ * during setup so this measures the checks themselves.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class FootstepCheckerBenchmark
+{
+   @Param({"_20190219_182005_Random", "_20191213_134839_Cinders"})
+   public String dataSetName;
+
+   private FootstepCheckerInterface checker;
+   private FootstepGraphNode parentNode;
+   private final List<FootstepGraphNode> childNodes = new ArrayList<>();
+   private int childIndex = 0;
+
+   @Setup(Level.Trial)
+   public void setup()
+   {
+      FootstepPlanningBenchmarkEnvironment environment = new FootstepPlanningBenchmarkEnvironment(dataSetName);
+      FootstepPlanningModule planningModule = environment.getPlanningModule();
+      checker = planningModule.getChecker();
+      parentNode = environment.getStartNode();
+
+      ParameterBasedStepExpansion expansion = new ParameterBasedStepExpansion(planningModule.getFootstepPlannerParameters(),
+                                                                              planningModule.getAStarFootstepPlanner().getReferenceBasedIdealStepCalculator(),
+                                                                              planningModule.getFootPolygons());
+      expansion.initialize();
+      expansion.doFullExpansion(parentNode, childNodes);
+
+      for (int i = 0; i < childNodes.size(); i++)
+      {
+         planningModule.getSnapper().snapFootstep(childNodes.get(i).getSecondStep(), parentNode.getSecondStep(), true);
+      }
+   }
+
+   @Benchmark
+   public boolean isStepValid()
+   {
+      FootstepGraphNode childNode = childNodes.get(childIndex);
+      childIndex = (childIndex + 1) % childNodes.size();
+      return checker.isStepValid(childNode.getSecondStep(), parentNode.getSecondStep(), parentNode.getFirstStep());
+   }
+}
@@ -0,0 +1,79 @@
+package us.ihmc.footstepPlanning.benchmarks;
+
+import us.ihmc.euclid.geometry.Pose3D;
+import us.ihmc.euclid.tuple4D.Quaternion;
+import us.ihmc.footstepPlanning.FootstepPlannerRequest;
+import us.ihmc.footstepPlanning.FootstepPlanningModule;
+import us.ihmc.footstepPlanning.graphSearch.graph.DiscreteFootstep;
+import us.ihmc.footstepPlanning.graphSearch.graph.FootstepGraphNode;
+import us.ihmc.footstepPlanning.tools.PlanarRegionToHeightMapConverter;
+import us.ihmc.pathPlanning.DataSet;
+import us.ihmc.pathPlanning.DataSetIOTools;
+import us.ihmc.pathPlanning.DataSetName;
+import us.ihmc.pathPlanning.PlannerInput;
+import us.ihmc.robotics.robotSide.RobotSide;
+import us.ihmc.sensorProcessing.heightMap.HeightMapData;
+import us.ihmc.sensorProcessing.heightMap.HeightMapMessageTools;
+
+/**
+ * Loads one of the bundled path planning data sets and sets up a planning module and request for it, in the same way as
+ * FootstepPlanningModuleTimingTest. The module is run once so that the snapper, checker and expansion are initialized.
+ */
+public class FootstepPlanningBenchmarkEnvironment
+{
+   private final FootstepPlanningModule planningModule;
+   private final FootstepPlannerRequest request = new FootstepPlannerRequest();
+   private final HeightMapData heightMapData;
+   private final FootstepGraphNode startNode;
+
+   public FootstepPlanningBenchmarkEnvironment(String dataSetName)
+   {
+      planningModule = new FootstepPlanningModule(getClass().getSimpleName(), false);
+      DataSet dataSet = DataSetIOTools.loadDataSet(DataSetName.valueOf(dataSetName));
+      PlannerInput plannerInput = dataSet.getPlannerInput();
+      heightMapData = HeightMapMessageTools.unpackMessage(PlanarRegionToHeightMapConverter.convertFromPlanarRegionsToHeightMap(dataSet.getPlanarRegionsList()));
+
+      double idealFootstepWidth = planningModule.getFootstepPlannerParameters().getIdealFootstepWidth();
+      Pose3D initialMidFootPose = new Pose3D(plannerInput.getStartPosition(), new Quaternion(plannerInput.getStartYaw(), 0.0, 0.0));
+      Pose3D goalMidFootPose = new Pose3D(plannerInput.getGoalPosition(), new Quaternion(plannerInput.getGoalYaw(), 0.0, 0.0));
+
+      request.setTimeout(Double.MAX_VALUE);
+      request.setStartFootPoses(idealFootstepWidth, initialMidFootPose);
+      request.setGoalFootPoses(idealFootstepWidth, goalMidFootPose);
+      request.setRequestedInitialStanceSide(RobotSide.LEFT);
+      request.setHeightMapData(heightMapData);
+      request.setPlanBodyPath(false);
+      request.setAbortIfBodyPathPlannerFails(false);
+
+      Pose3D stancePose = request.getStartFootPoses().get(RobotSide.LEFT);
+      Pose3D swingPose = request.getStartFootPoses().get(RobotSide.RIGHT);
+      DiscreteFootstep stanceStep = new DiscreteFootstep(stancePose.getX(), stancePose.getY(), stancePose.getYaw(), RobotSide.LEFT);
+      DiscreteFootstep startOfSwing = new DiscreteFootstep(swingPose.getX(), swingPose.getY(), swingPose.getYaw(), RobotSide.RIGHT);
+      startNode = new FootstepGraphNode(startOfSwing, stanceStep);
+
+      planningModule.handleRequest(request, true);
+   }
+
+   public FootstepPlanningModule getPlanningModule()
+   {
+      return planningModule;
+   }
+
+   public FootstepPlannerRequest getRequest()
+   {
+      return request;
+   }
+
+   public HeightMapData getHeightMapData()
+   {
+      return heightMapData;
+   }
+
+   /**
+    * @return the node of the request's start stance, with the left foot as stance foot
+    */
+   public FootstepGraphNode getStartNode()
+   {
+      return startNode;
+   }
+}
@@ -0,0 +1,35 @@
+package us.ihmc.footstepPlanning.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import us.ihmc.footstepPlanning.FootstepPlannerOutput;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end footstep planning on the bundled data sets, body path planning disabled.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class FootstepPlanningModuleBenchmark
+{
+   @Param({"_20190219_182005_Random", "_20191213_134839_Cinders", "_20200513_151318_StairsIHMC_Bottom"})
+   public String dataSetName;
+
+   private FootstepPlanningBenchmarkEnvironment environment;
+
+   @Setup(Level.Trial)
+   public void setup()
+   {
+      environment = new FootstepPlanningBenchmarkEnvironment(dataSetName);
+   }
+
+   @Benchmark
+   public FootstepPlannerOutput handleRequest()
+   {
+      return environment.getPlanningModule().handleRequest(environment.getRequest(), true);
+   }
+}
@@ -0,0 +1,68 @@
+package us.ihmc.footstepPlanning.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import us.ihmc.footstepPlanning.FootstepPlanningModule;
+import us.ihmc.footstepPlanning.graphSearch.footstepSnapping.FootstepSnapAndWiggler;
+import us.ihmc.footstepPlanning.graphSearch.footstepSnapping.FootstepSnapData;
+import us.ihmc.footstepPlanning.graphSearch.graph.DiscreteFootstep;
+import us.ihmc.footstepPlanning.graphSearch.graph.FootstepGraphNode;
+import us.ihmc.footstepPlanning.graphSearch.stepExpansion.ParameterBasedStepExpansion;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Snaps the children of the start node of a data set. The snap data is cleared before each snap so every operation is a full
+ * height map snap rather than a cache lookup.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class FootstepSnapAndWigglerBenchmark
+{
+   @Param({"_20190219_182005_Random", "_20191213_134839_Cinders"})
+   public String dataSetName;
+
+   @Param({"false", "true"})
+   public boolean computeWiggleTransform;
+
+   private FootstepSnapAndWiggler snapper;
+   private DiscreteFootstep stanceStep;
+   private final List<DiscreteFootstep> footstepsToSnap = new ArrayList<>();
+   private int footstepIndex = 0;
+
+   @Setup(Level.Trial)
+   public void setup()
+   {
+      FootstepPlanningBenchmarkEnvironment environment = new FootstepPlanningBenchmarkEnvironment(dataSetName);
+      FootstepPlanningModule planningModule = environment.getPlanningModule();
+      snapper = planningModule.getSnapper();
+      stanceStep = environment.getStartNode().getSecondStep();
+
+      ParameterBasedStepExpansion expansion = new ParameterBasedStepExpansion(planningModule.getFootstepPlannerParameters(),
+                                                                              planningModule.getAStarFootstepPlanner().getReferenceBasedIdealStepCalculator(),
+                                                                              planningModule.getFootPolygons());
+      expansion.initialize();
+
+      List<FootstepGraphNode> childNodes = new ArrayList<>();
+      expansion.doFullExpansion(environment.getStartNode(), childNodes);
+      for (int i = 0; i < childNodes.size(); i++)
+      {
+         footstepsToSnap.add(childNodes.get(i).getSecondStep());
+      }
+   }
+
+   @Benchmark
+   public FootstepSnapData snapFootstep()
+   {
+      DiscreteFootstep footstep = footstepsToSnap.get(footstepIndex);
+      footstepIndex = (footstepIndex + 1) % footstepsToSnap.size();
+
+      footstep.clearSnapData();
+      return snapper.snapFootstep(footstep, stanceStep, computeWiggleTransform);
+   }
+}
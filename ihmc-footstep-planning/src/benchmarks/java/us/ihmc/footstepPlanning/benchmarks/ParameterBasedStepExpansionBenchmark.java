@@ -0,0 +1,46 @@
+package us.ihmc.footstepPlanning.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import us.ihmc.footstepPlanning.FootstepPlanningModule;
+import us.ihmc.footstepPlanning.graphSearch.graph.FootstepGraphNode;
+import us.ihmc.footstepPlanning.graphSearch.stepExpansion.ParameterBasedStepExpansion;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class ParameterBasedStepExpansionBenchmark
+{
+   @Param({"_20190219_182005_Random"})
+   public String dataSetName;
+
+   private ParameterBasedStepExpansion expansion;
+   private FootstepGraphNode nodeToExpand;
+   private final List<FootstepGraphNode> expansionToPack = new ArrayList<>();
+
+   @Setup(Level.Trial)
+   public void setup()
+   {
+      FootstepPlanningBenchmarkEnvironment environment = new FootstepPlanningBenchmarkEnvironment(dataSetName);
+      FootstepPlanningModule planningModule = environment.getPlanningModule();
+
+      expansion = new ParameterBasedStepExpansion(planningModule.getFootstepPlannerParameters(),
+                                                  planningModule.getAStarFootstepPlanner().getReferenceBasedIdealStepCalculator(),
+                                                  planningModule.getFootPolygons());
+      expansion.initialize();
+      nodeToExpand = environment.getStartNode();
+   }
+
+   @Benchmark
+   public List<FootstepGraphNode> doFullExpansion()
+   {
+      expansion.doFullExpansion(nodeToExpand, expansionToPack);
+      return expansionToPack;
+   }
+}
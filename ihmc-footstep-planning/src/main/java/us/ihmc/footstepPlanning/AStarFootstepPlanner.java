@@ -19,8 +19,10 @@ import us.ihmc.footstepPlanning.graphSearch.graph.DiscreteFootstep;
 import us.ihmc.footstepPlanning.graphSearch.graph.FootstepGraphNode;
 import us.ihmc.footstepPlanning.graphSearch.parameters.DefaultFootstepPlannerParametersBasics;
 import us.ihmc.footstepPlanning.graphSearch.stepChecking.HeightMapFootstepChecker;
+import us.ihmc.footstepPlanning.graphSearch.stepChecking.PersistentFootstepCheckCache;
 import us.ihmc.footstepPlanning.graphSearch.stepCost.FootstepCostCalculator;
 import us.ihmc.footstepPlanning.graphSearch.stepExpansion.IdealStepCalculator;
+import us.ihmc.footstepPlanning.graphSearch.stepExpansion.ParallelSnappingStepExpansion;
 import us.ihmc.footstepPlanning.graphSearch.stepExpansion.ParameterBasedStepExpansion;
 import us.ihmc.footstepPlanning.graphSearch.stepExpansion.ReferenceBasedIdealStepCalculator;
 import us.ihmc.footstepPlanning.graphSearch.stepExpansion.ReferenceBasedStepExpansion;
@@ -54,7 +56,9 @@ public class AStarFootstepPlanner
    private final FootstepSnapAndWiggler snapper;
    private final ParameterBasedStepExpansion nominalExpansion;
    private final ReferenceBasedStepExpansion referenceBasedExpansion;
+   private final ParallelSnappingStepExpansion parallelSnappingExpansion;
    private final HeightMapFootstepChecker checker;
+   private final PersistentFootstepCheckCache persistentCheckCache;
    private final FootstepPlannerHeuristicCalculator distanceAndYawHeuristics;
    private final IdealStepCalculator idealStepCalculator;
    private final ReferenceBasedIdealStepCalculator referenceBasedIdealStepCalculator;
@@ -83,6 +87,9 @@ public class AStarFootstepPlanner
    private int iterations = 0;
    private FootstepPlanningResult result = null;
 
+   private double anytimeInitialHeuristicInflation = 1.0;
+   private double anytimeHeuristicInflationDecrement = 0.5;
+
    public AStarFootstepPlanner(DefaultFootstepPlannerParametersBasics footstepPlannerParameters,
                                SideDependentList<ConvexPolygon2D> footPolygons,
                                WaypointDefinedBodyPathPlanHolder bodyPathPlanHolder,
@@ -101,6 +108,7 @@ public class AStarFootstepPlanner
       this.statusCallbacks = statusCallbacks;
 
       this.checker = new HeightMapFootstepChecker(footstepPlannerParameters, footPolygons, plannerEnvironmentHandler, snapper, stepReachabilityData, registry);
+      this.persistentCheckCache = new PersistentFootstepCheckCache(checker, snapper.getPersistentSnapCache(), footstepPlannerParameters);
       this.idealStepCalculator = new IdealStepCalculator(footstepPlannerParameters, checker, bodyPathPlanHolder, plannerEnvironmentHandler, registry);
       this.referenceBasedIdealStepCalculator = new ReferenceBasedIdealStepCalculator(footstepPlannerParameters, idealStepCalculator, registry);
 
@@ -110,7 +118,12 @@ public class AStarFootstepPlanner
       this.distanceAndYawHeuristics = new FootstepPlannerHeuristicCalculator(footstepPlannerParameters, bodyPathPlanHolder, registry);
       stepCostCalculator = new FootstepCostCalculator(footstepPlannerParameters, snapper, referenceBasedIdealStepCalculator, distanceAndYawHeuristics::compute, footPolygons, registry);
 
-      this.iterationConductor = new AStarFootstepPlannerIterationConductor(referenceBasedExpansion, checker, stepCostCalculator, distanceAndYawHeuristics::compute);
+      this.parallelSnappingExpansion = new ParallelSnappingStepExpansion(referenceBasedExpansion, snapper);
+
+      this.iterationConductor = new AStarFootstepPlannerIterationConductor(parallelSnappingExpansion,
+                                                                           persistentCheckCache,
+                                                                           stepCostCalculator,
+                                                                           distanceAndYawHeuristics::computeInflated);
       this.completionChecker = new FootstepPlannerCompletionChecker(footstepPlannerParameters, iterationConductor, distanceAndYawHeuristics, snapper);
 
       referenceBasedIdealStepCalculator.setFootstepGraph(iterationConductor.getGraph());
@@ -169,6 +182,10 @@ public class AStarFootstepPlanner
       snapper.clearSnapData();
       plannerEnvironmentHandler.setHeightMap(heightMapData);
       plannerEnvironmentHandler.setTerrainMapData(terrainMapData);
+      snapper.setPersistentSnapCacheCapacity(footstepPlannerParameters.getPersistentSnapCacheCapacity());
+      snapper.updatePersistentSnapCache();
+      persistentCheckCache.setCapacity(footstepPlannerParameters.getPersistentCheckCacheCapacity());
+      persistentCheckCache.update();
 
       checker.setHeightMapData(heightMapData);
       stepCostCalculator.setHeightMapData(heightMapData);
@@ -189,8 +206,15 @@ public class AStarFootstepPlanner
       }
 
       // Setup footstep planner
+      boolean proximityMode = request.getGoalDistanceProximity() > 0.0 || request.getGoalYawProximity() > 0.0;
+      boolean anytimePlanning = anytimeInitialHeuristicInflation > 1.0 && !proximityMode;
+      distanceAndYawHeuristics.setHeuristicInflation(anytimePlanning ? anytimeInitialHeuristicInflation : 1.0);
+      boolean planPublishedInSearchPhase = false;
+
       FootstepGraphNode startNode = createStartNode(request);
       addFootPosesToSnapper(request);
+      iterationConductor.setUsePrimitiveOpenAndClosedSets(footstepPlannerParameters.getUsePrimitiveOpenAndClosedSets());
+      parallelSnappingExpansion.setNumberOfWorkers(footstepPlannerParameters.getNumberOfSnappingWorkers());
       iterationConductor.initialize(startNode);
       distanceAndYawHeuristics.initialize(goalMidFootPose);
       idealStepCalculator.initialize(goalSteps);
@@ -221,26 +245,53 @@ public class AStarFootstepPlanner
          iterations++;
          outputToPack.getPlannerTimings().setStepPlanningIterations(iterations);
 
+         // an anytime search that is still improving its plan returns the best plan found so far
          if (stopwatch.totalElapsed() >= request.getTimeout())
          {
-            result = FootstepPlanningResult.TIMED_OUT_BEFORE_SOLUTION;
+            result = completionChecker.isGoalReached() ? FootstepPlanningResult.FOUND_SOLUTION : FootstepPlanningResult.TIMED_OUT_BEFORE_SOLUTION;
             break;
          }
          if (haltRequested.get() || checkCustomTerminationConditions())
          {
-            result = FootstepPlanningResult.HALTED;
+            result = completionChecker.isGoalReached() ? FootstepPlanningResult.FOUND_SOLUTION : FootstepPlanningResult.HALTED;
             break;
          }
          if (request.getMaximumIterations() > 0 && iterations > request.getMaximumIterations())
          {
-            result = FootstepPlanningResult.MAXIMUM_ITERATIONS_REACHED;
+            result = completionChecker.isGoalReached() ? FootstepPlanningResult.FOUND_SOLUTION : FootstepPlanningResult.MAXIMUM_ITERATIONS_REACHED;
             break;
          }
 
+         // a search phase of the anytime search ends once no open node can lead to a cheaper goal under the current inflation
+         if (anytimePlanning && completionChecker.isGoalReached() && completionChecker.getGoalCostFromStart() <= iterationConductor.peekNextNodeCost())
+         {
+            double heuristicInflation = distanceAndYawHeuristics.getHeuristicInflation();
+            if (!planPublishedInSearchPhase)
+            {
+               // the phase didn't improve the plan, it is published again so that every phase with an inflated heuristic publishes one plan
+               reportStatus(request, outputToPack);
+               stopwatch.lap();
+            }
+
+            double goalCost = completionChecker.getGoalCostFromStart();
+            if (heuristicInflation <= 1.0 || goalCost <= iterationConductor.computeMinimumOpenSetCost(distanceAndYawHeuristics::compute))
+            {
+               result = FootstepPlanningResult.FOUND_SOLUTION;
+               break;
+            }
+
+            // keep searching the same graph with a less inflated heuristic, plans aren't published while searching without inflation
+            heuristicInflation = Math.max(1.0, heuristicInflation - anytimeHeuristicInflationDecrement);
+            distanceAndYawHeuristics.setHeuristicInflation(heuristicInflation);
+            iterationConductor.reorderOpenSet();
+            planPublishedInSearchPhase = heuristicInflation <= 1.0;
+            continue;
+         }
+
          FootstepGraphNode nodeToExpand = iterationConductor.getNextNode();
          if (nodeToExpand == null)
          {
-            result = FootstepPlanningResult.NO_PATH_EXISTS;
+            result = completionChecker.isGoalReached() ? FootstepPlanningResult.FOUND_SOLUTION : FootstepPlanningResult.NO_PATH_EXISTS;
             break;
          }
 
@@ -262,6 +313,18 @@ public class AStarFootstepPlanner
                iterationCallbacks.forEach(callback -> callback.accept(iterationData));
             }
 
+            if (anytimePlanning)
+            {
+               // publish the first plan found in this search phase and keep searching until the phase ends, see above
+               if (!planPublishedInSearchPhase)
+               {
+                  reportStatus(request, outputToPack);
+                  stopwatch.lap();
+                  planPublishedInSearchPhase = true;
+               }
+               continue;
+            }
+
             result = FootstepPlanningResult.FOUND_SOLUTION;
             break;
          }
@@ -449,6 +512,40 @@ public class AStarFootstepPlanner
       haltRequested.set(true);
    }
 
+   /**
+    * Enables anytime planning, as an anytime repairing A* search. The search starts with the heuristic inflated by
+    * {@code initialHeuristicInflation} to quickly find a first plan. Each search phase with an inflated heuristic publishes one plan through
+    * the status callbacks, as soon as it reaches the goal or, if it doesn't improve on the previous plan, when it ends. Once the
+    * cost of the best plan is no higher than the lowest inflated cost in the open set, the inflation is lowered by
+    * {@code heuristicInflationDecrement} and the search continues on the same graph. It stops when that happens with no inflation, when
+    * the best plan is no costlier than the lowest uninflated cost in the open set, when the open set is exhausted or when the request
+    * stops. The best plan found is then returned as a solution.
+    *
+    * An initial inflation of one or less disables anytime planning, which is the default. Requests using goal proximity are
+    * always planned without inflation.
+    *
+    * The search graph is rebuilt for every request since edge costs depend on the start, goal and body path. What carries over between
+    * requests are the snaps and step checks over unchanged terrain, see {@link PersistentFootstepCheckCache}.
+    */
+   public void setAnytimePlanning(double initialHeuristicInflation, double heuristicInflationDecrement)
+   {
+      if (heuristicInflationDecrement <= 0.0)
+         throw new IllegalArgumentException("Heuristic inflation decrement must be positive: " + heuristicInflationDecrement);
+
+      this.anytimeInitialHeuristicInflation = initialHeuristicInflation;
+      this.anytimeHeuristicInflationDecrement = heuristicInflationDecrement;
+   }
+
+   public boolean isAnytimePlanningEnabled()
+   {
+      return anytimeInitialHeuristicInflation > 1.0;
+   }
+
+   public void destroy()
+   {
+      parallelSnappingExpansion.shutdown();
+   }
+
    private void addFootPosesToSnapper(FootstepPlannerRequest request)
    {
       addSnapData(request.getStartFootPoses().get(RobotSide.LEFT), RobotSide.LEFT);
@@ -510,6 +607,11 @@ public class AStarFootstepPlanner
       return checker;
    }
 
+   public PersistentFootstepCheckCache getPersistentCheckCache()
+   {
+      return persistentCheckCache;
+   }
+
    public AStarFootstepPlannerIterationConductor getIterationConductor()
    {
       return iterationConductor;
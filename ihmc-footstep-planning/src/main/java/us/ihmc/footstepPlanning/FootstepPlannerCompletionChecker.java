@@ -30,7 +30,10 @@ public class FootstepPlannerCompletionChecker
    private final RigidBodyTransform endNodeEndStepTransform, endNodeStartStepTransform;
    private int endNodePathSize;
    private SideDependentList<DiscreteFootstep> goalNodes;
+   /* Goal nodes reached through each side, kept such that the cheaper one is the end node */
+   private final SideDependentList<FootstepGraphNode> reachedGoalNodes = new SideDependentList<>();
    private double endNodeCost;
+   private boolean goalReached;
    private final FootstepSnapperReadOnly snapper;
 
    private final SquaredUpStepComparator squaredUpStepComparator = new SquaredUpStepComparator();
@@ -54,6 +57,8 @@ public class FootstepPlannerCompletionChecker
       this.startNode = startNode;
       this.goalNodes = goalNodes;
       this.endNodePathSize = 0;
+      this.goalReached = false;
+      reachedGoalNodes.clear();
 
       this.goalDistanceProximity = goalDistanceProximity;
       this.goalYawProximity = goalYawProximity;
@@ -69,6 +74,10 @@ public class FootstepPlannerCompletionChecker
    /**
     * Checks if goal is reachable. If it is, the goal step is appended by a goal step on the opposite side and the expanded step is returned.
     * If the goal is not reached this returns null
+    *
+    * When planning continues after the goal has been reached, as in anytime planning, the goal can be reached again through other
+    * steps. The graph keeps the cheaper path to each goal node, and the end node is the goal node with the lowest cost from start,
+    * which matters when the goal is reached through both sides.
     */
    public FootstepGraphNode checkIfGoalIsReached(AStarIterationData<FootstepGraphNode> iterationData)
    {
@@ -97,13 +106,21 @@ public class FootstepPlannerCompletionChecker
             if (childNode.getSecondStep().equals(goalNodes.get(childNode.getSecondStepSide())))
             {
                RobotSide achievedGoalSide = childNode.getSecondStepSide();
-               endNode = new FootstepGraphNode(goalNodes.get(achievedGoalSide), goalNodes.get(achievedGoalSide.getOppositeSide()));
-               iterationConductor.getGraph().checkAndSetEdge(childNode, endNode, 0.0);
+               FootstepGraphNode goalNode = new FootstepGraphNode(goalNodes.get(achievedGoalSide), goalNodes.get(achievedGoalSide.getOppositeSide()));
+               iterationConductor.getGraph().updateEdgeCost(childNode, goalNode, 0.0);
+               reachedGoalNodes.put(achievedGoalSide, goalNode);
+               goalReached = true;
+               updateGoalEndNode();
                return childNode;
             }
          }
       }
 
+      if (goalReached)
+      {
+         return null;
+      }
+
       for (int i = 0; i < iterationData.getValidChildNodes().size(); i++)
       {
          FootstepGraphNode childNode = iterationData.getValidChildNodes().get(i);
@@ -123,13 +140,47 @@ public class FootstepPlannerCompletionChecker
       return null;
    }
 
+   /**
+    * Cost decreases can be propagated to either goal node after it has been reached, so the cheaper one is picked from the live graph
+    * costs.
+    */
+   private void updateGoalEndNode()
+   {
+      endNode = null;
+      for (RobotSide robotSide : RobotSide.values)
+      {
+         FootstepGraphNode goalNode = reachedGoalNodes.get(robotSide);
+         if (goalNode != null && (endNode == null || iterationConductor.getCostFromStart(goalNode) < iterationConductor.getCostFromStart(endNode)))
+            endNode = goalNode;
+      }
+   }
+
+   /**
+    * @return the cost from start of the cheapest goal node reached, or {@link Double#POSITIVE_INFINITY} if the goal hasn't been reached
+    */
+   public double getGoalCostFromStart()
+   {
+      if (!goalReached)
+         return Double.POSITIVE_INFINITY;
+
+      updateGoalEndNode();
+      return iterationConductor.getCostFromStart(endNode);
+   }
+
    public boolean isProximityModeEnabled()
    {
       return goalDistanceProximity > 0.0 || goalYawProximity > 0.0;
    }
 
+   public boolean isGoalReached()
+   {
+      return goalReached;
+   }
+
    public FootstepGraphNode getEndNode()
    {
+      if (goalReached)
+         updateGoalEndNode();
       return endNode;
    }
 
@@ -203,6 +203,7 @@ public class FootstepPlanningModule implements CloseableAndDisposable
 
    public void destroy()
    {
+      aStarFootstepPlanner.destroy();
       if (useGPU)
          ((GPUAStarBodyPathPlanner) bodyPathPlannerInterface).destroyOpenCLStuff();
    }
@@ -2,10 +2,12 @@ package us.ihmc.footstepPlanning.graphSearch;
 
 import us.ihmc.footstepPlanning.AStarFootstepPlanner;
 import us.ihmc.footstepPlanning.graphSearch.graph.FootstepGraphNode;
+import us.ihmc.footstepPlanning.graphSearch.graph.PackedFootstepGraphNodeKey;
 import us.ihmc.footstepPlanning.graphSearch.stepChecking.FootstepCheckerInterface;
 import us.ihmc.footstepPlanning.graphSearch.stepCost.FootstepCostCalculatorInterface;
 import us.ihmc.footstepPlanning.graphSearch.stepExpansion.FootstepExpansion;
 import us.ihmc.pathPlanning.graph.structure.DirectedGraph;
+import us.ihmc.pathPlanning.graph.structure.IndexedNodeHeap;
 import us.ihmc.pathPlanning.graph.structure.NodeComparator;
 
 import java.util.ArrayList;
@@ -17,6 +19,14 @@ import java.util.function.ToDoubleFunction;
 /**
  * Class that performs planning iterations given generic node expansion, checker, cost and heuristic calculators.
  * Interfaces between {@link AStarFootstepPlanner} and {@link DirectedGraph}
+ *
+ * By default the open set is a {@link PriorityQueue} and the closed set a {@link HashSet} of nodes. When
+ * {@link #setUsePrimitiveOpenAndClosedSets(boolean)} is enabled, both are replaced by an {@link IndexedNodeHeap}
+ * keyed on {@link PackedFootstepGraphNodeKey}, which caches heuristic costs and does not hash or box nodes.
+ * Queued nodes are re-keyed whenever the {@link DirectedGraph} lowers their cost.
+ *
+ * Expansion is not allocation free either way: the {@link DirectedGraph} still allocates its edge bookkeeping for every
+ * child node, and the heap grows its arrays whenever the open set exceeds its capacity.
  */
 public class AStarFootstepPlannerIterationConductor
 {
@@ -24,11 +34,17 @@ public class AStarFootstepPlannerIterationConductor
    private final DirectedGraph<FootstepGraphNode> graph = new DirectedGraph<>();
    private final AStarIterationData<FootstepGraphNode> iterationData = new AStarIterationData<>();
    private final List<FootstepGraphNode> neighbors = new ArrayList<>();
+   private final List<FootstepGraphNode> reorderBuffer = new ArrayList<>();
 
    private final PriorityQueue<FootstepGraphNode> stack;
+   private final IndexedNodeHeap<FootstepGraphNode> nodeHeap;
+   private boolean usePrimitiveOpenAndClosedSetsRequested = false;
+   private boolean usePrimitiveOpenAndClosedSets = false;
+
    private final FootstepExpansion nodeExpansion;
    private final FootstepCheckerInterface edgeChecker;
    private final FootstepCostCalculatorInterface edgeCostCalculator;
+   private final ToDoubleFunction<FootstepGraphNode> heuristicsCalculator;
 
    /**
     * @param nodeExpansion edge calculator. Calling {@code nodeExpansion.apply} returns all possible neighbor nodes
@@ -44,9 +60,28 @@ public class AStarFootstepPlannerIterationConductor
       this.nodeExpansion = nodeExpansion;
       this.edgeChecker = edgeChecker;
       this.edgeCostCalculator = edgeCostCalculator;
+      this.heuristicsCalculator = heuristicsCalculator;
 
       NodeComparator<FootstepGraphNode> nodeComparator = new NodeComparator<>(graph, heuristicsCalculator);
       this.stack = new PriorityQueue<>(nodeComparator);
+      this.nodeHeap = new IndexedNodeHeap<>(heuristicsCalculator);
+      graph.setNodeCostDecreaseCallback(this::onNodeCostDecreased);
+   }
+
+   /**
+    * Selects the open and closed set implementation. Takes effect on the next call to {@link #initialize(FootstepGraphNode)}
+    */
+   public void setUsePrimitiveOpenAndClosedSets(boolean usePrimitiveOpenAndClosedSets)
+   {
+      this.usePrimitiveOpenAndClosedSetsRequested = usePrimitiveOpenAndClosedSets;
+   }
+
+   /**
+    * @return the open and closed set implementation used by the current search
+    */
+   public boolean getUsePrimitiveOpenAndClosedSets()
+   {
+      return usePrimitiveOpenAndClosedSets;
    }
 
    /**
@@ -56,10 +91,12 @@ public class AStarFootstepPlannerIterationConductor
    public void initialize(FootstepGraphNode startNode)
    {
       stack.clear();
-      stack.add(startNode);
+      nodeHeap.clear();
+      expandedNodeSet.clear();
+      usePrimitiveOpenAndClosedSets = usePrimitiveOpenAndClosedSetsRequested;
       graph.initialize(startNode);
 
-      expandedNodeSet.clear();
+      addToOpenSet(startNode);
    }
 
   /**
@@ -92,7 +129,7 @@ public class AStarFootstepPlannerIterationConductor
             double edgeCost = edgeCostCalculator.computeCost(neighbor.getSecondStep(), nodeToExpand.getSecondStep(), nodeToExpand.getFirstStep());
             graph.checkAndSetEdge(nodeToExpand, neighbor, edgeCost);
             iterationData.getValidChildNodes().add(neighbor);
-            stack.add(neighbor);
+            addToOpenSet(neighbor);
          }
          else
          {
@@ -103,7 +140,11 @@ public class AStarFootstepPlannerIterationConductor
 
       if (partialExpansion)
       {
-         stack.add(nodeToExpand);
+         addToOpenSet(nodeToExpand);
+      }
+      else if (usePrimitiveOpenAndClosedSets)
+      {
+         nodeHeap.close(PackedFootstepGraphNodeKey.pack(nodeToExpand));
       }
       else
       {
@@ -113,8 +154,37 @@ public class AStarFootstepPlannerIterationConductor
       return iterationData;
    }
 
+   private void addToOpenSet(FootstepGraphNode node)
+   {
+      if (usePrimitiveOpenAndClosedSets)
+      {
+         nodeHeap.addOrDecreaseCost(PackedFootstepGraphNodeKey.pack(node), node, graph.getCostFromStart(node));
+      }
+      else
+      {
+         stack.add(node);
+      }
+   }
+
+   /**
+    * The heap stores the cost of each queued node, so it has to be re-keyed when the graph finds a cheaper path to a node
+    * or propagates a lower cost to the children of a partially expanded node.
+    */
+   private void onNodeCostDecreased(FootstepGraphNode node, double newCost)
+   {
+      if (usePrimitiveOpenAndClosedSets)
+      {
+         nodeHeap.decreaseCostIfQueued(PackedFootstepGraphNodeKey.pack(node), newCost);
+      }
+   }
+
    public FootstepGraphNode getNextNode()
    {
+      if (usePrimitiveOpenAndClosedSets)
+      {
+         return nodeHeap.poll();
+      }
+
       while (!stack.isEmpty())
       {
          FootstepGraphNode nextNode = stack.poll();
@@ -127,6 +197,74 @@ public class AStarFootstepPlannerIterationConductor
       return null;
    }
 
+   /**
+    * Restores the order of the open set after the heuristic has changed, e.g. when an anytime search lowers its heuristic inflation.
+    * Expanded nodes stay closed, cost decreases found later are propagated to their children by the {@link DirectedGraph}.
+    */
+   public void reorderOpenSet()
+   {
+      if (usePrimitiveOpenAndClosedSets)
+      {
+         nodeHeap.updateHeuristics();
+         return;
+      }
+
+      reorderBuffer.clear();
+      while (!stack.isEmpty())
+      {
+         FootstepGraphNode node = stack.poll();
+         if (!expandedNodeSet.contains(node))
+         {
+            reorderBuffer.add(node);
+         }
+      }
+
+      stack.addAll(reorderBuffer);
+      reorderBuffer.clear();
+   }
+
+   /**
+    * @return the cost from start plus heuristic cost of the next node to be expanded, or {@link Double#POSITIVE_INFINITY} if the open
+    *       set is empty
+    */
+   public double peekNextNodeCost()
+   {
+      if (usePrimitiveOpenAndClosedSets)
+      {
+         return nodeHeap.peekTotalCost();
+      }
+
+      while (!stack.isEmpty() && expandedNodeSet.contains(stack.peek()))
+      {
+         stack.poll();
+      }
+
+      FootstepGraphNode nextNode = stack.peek();
+      return nextNode == null ? Double.POSITIVE_INFINITY : graph.getCostFromStart(nextNode) + heuristicsCalculator.applyAsDouble(nextNode);
+   }
+
+   /**
+    * Scans the open set, e.g. to bound the suboptimality of an anytime search using the uninflated heuristic.
+    *
+    * @return the lowest cost from start plus the given heuristic over the open set, or {@link Double#POSITIVE_INFINITY} if it is empty
+    */
+   public double computeMinimumOpenSetCost(ToDoubleFunction<FootstepGraphNode> heuristics)
+   {
+      if (usePrimitiveOpenAndClosedSets)
+      {
+         return nodeHeap.computeMinimumTotalCost(heuristics);
+      }
+
+      double minimumCost = Double.POSITIVE_INFINITY;
+      for (FootstepGraphNode node : stack)
+      {
+         if (!expandedNodeSet.contains(node))
+            minimumCost = Math.min(minimumCost, graph.getCostFromStart(node) + heuristics.applyAsDouble(node));
+      }
+
+      return minimumCost;
+   }
+
    public DirectedGraph<FootstepGraphNode> getGraph()
    {
       return graph;
@@ -20,6 +20,9 @@ public class FootstepPlannerHeuristicCalculator
    private final Pose3D projectionPose = new Pose3D();
    private final Pose3D goalPose = new Pose3D();
 
+   /** Additional factor applied to the heuristic used to order the open set, see {@link #computeInflated(FootstepGraphNode)} */
+   private double heuristicInflation = 1.0;
+
    public FootstepPlannerHeuristicCalculator(DefaultFootstepPlannerParametersReadOnly parameters,
                                              WaypointDefinedBodyPathPlanHolder bodyPathPlanHolder,
                                              YoRegistry parentRegistry)
@@ -63,4 +66,23 @@ public class FootstepPlannerHeuristicCalculator
 
       return parameters.getAStarHeuristicsWeight() * (initialTurnDistance + walkDistance + finalTurnDistance);
    }
+
+   /**
+    * Heuristic used to order the open set. This is {@link #compute(FootstepGraphNode)} scaled by the heuristic inflation, which is
+    * above one while an anytime search is looking for a first, suboptimal plan. Edge costs always use the uninflated heuristic.
+    */
+   public double computeInflated(FootstepGraphNode node)
+   {
+      return heuristicInflation * compute(node);
+   }
+
+   public void setHeuristicInflation(double heuristicInflation)
+   {
+      this.heuristicInflation = heuristicInflation;
+   }
+
+   public double getHeuristicInflation()
+   {
+      return heuristicInflation;
+   }
 }
@@ -11,12 +11,14 @@ import us.ihmc.footstepPlanning.graphSearch.parameters.DefaultFootstepPlannerPar
 import us.ihmc.footstepPlanning.polygonSnapping.HeightMapPolygonSnapper;
 import us.ihmc.footstepPlanning.polygonSnapping.HeightMapSnapWiggler;
 import us.ihmc.graphicsDescription.yoGraphics.YoGraphicsListRegistry;
+import us.ihmc.robotics.robotSide.RobotSide;
 import us.ihmc.robotics.robotSide.SideDependentList;
 import us.ihmc.simulationconstructionset.util.TickAndUpdatable;
 import us.ihmc.yoVariables.registry.YoRegistry;
 
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class FootstepSnapAndWiggler implements FootstepSnapperReadOnly
 {
@@ -26,13 +28,15 @@ public class FootstepSnapAndWiggler implements FootstepSnapperReadOnly
    private final WiggleParameters wiggleParameters = new WiggleParameters();
    private double flatGroundHeight = 0.0;
 
-   private final HashSet<DiscreteFootstep> snappedFootsteps = new HashSet<>();
-   private final HashMap<DiscreteFootstep, FootstepSnapData> manuallySnappedFootsteps = new HashMap<>();
+   // Concurrent so that snap transforms can be precomputed from several threads, see snapWithoutWiggle
+   private final Set<DiscreteFootstep> snappedFootsteps = ConcurrentHashMap.newKeySet();
+   private final Map<DiscreteFootstep, FootstepSnapData> manuallySnappedFootsteps = new ConcurrentHashMap<>();
 
    private final FootstepPlannerEnvironmentHandler environmentHandler;
 
    private final HeightMapPolygonSnapper heightMapSnapper = new HeightMapPolygonSnapper();
    private final HeightMapSnapWiggler heightMapSnapWiggler;
+   private final PersistentFootstepSnapCache persistentSnapCache;
 
    // Use this by default
    public FootstepSnapAndWiggler(SideDependentList<ConvexPolygon2D> footPolygonsInSoleFrame,
@@ -54,6 +58,22 @@ public class FootstepSnapAndWiggler implements FootstepSnapperReadOnly
       this.parameters = parameters;
       this.heightMapSnapWiggler = new HeightMapSnapWiggler(footPolygonsInSoleFrame, wiggleParameters);
       this.environmentHandler = environmentHandler;
+      this.persistentSnapCache = new PersistentFootstepSnapCache(computeFootprintRadius(footPolygonsInSoleFrame));
+   }
+
+   private static double computeFootprintRadius(SideDependentList<ConvexPolygon2D> footPolygons)
+   {
+      double radius = 0.0;
+      for (RobotSide robotSide : RobotSide.values)
+      {
+         ConvexPolygon2D footPolygon = footPolygons.get(robotSide);
+         for (int i = 0; i < footPolygon.getNumberOfVertices(); i++)
+         {
+            radius = Math.max(radius, footPolygon.getVertex(i).distanceFromOrigin());
+         }
+      }
+
+      return radius;
    }
 
    public void setFlatGroundHeight(double flatGroundHeight)
@@ -73,6 +93,40 @@ public class FootstepSnapAndWiggler implements FootstepSnapperReadOnly
       manuallySnappedFootsteps.clear();
    }
 
+   /**
+    * Sets the number of snap results kept across planning requests, see {@link PersistentFootstepSnapCache}. Zero, the default, disables the
+    * persistent cache. It is opt-in because it only pays off when consecutive requests plan over mostly unchanged height maps.
+    * The planner sets it from {@link DefaultFootstepPlannerParametersReadOnly#getPersistentSnapCacheCapacity()} before each request.
+    */
+   public void setPersistentSnapCacheCapacity(int capacity)
+   {
+      persistentSnapCache.setCapacity(capacity);
+   }
+
+   /**
+    * Should be called after the environment handler is given a new height map. Removes persistent snap results over the parts of the
+    * height map that changed.
+    */
+   public void updatePersistentSnapCache()
+   {
+      if (!persistentSnapCache.isEnabled())
+         return;
+
+      if (environmentHandler.hasHeightMap() && !environmentHandler.hasTerrainMapData())
+      {
+         persistentSnapCache.update(environmentHandler.getHeightMap(), parameters.getHeightMapSnapThreshold(), parameters.getMinSurfaceIncline());
+      }
+      else
+      {
+         persistentSnapCache.clear();
+      }
+   }
+
+   public PersistentFootstepSnapCache getPersistentSnapCache()
+   {
+      return persistentSnapCache;
+   }
+
    public FootstepSnapData snapFootstep(DiscreteFootstep footstep)
    {
       return snapFootstep(footstep, null, false);
@@ -109,7 +163,13 @@ public class FootstepSnapAndWiggler implements FootstepSnapperReadOnly
          }
          else
          {
-            FootstepSnapData snapData = computeSnapTransform(footstep, stanceStep);
+            FootstepSnapData snapData = persistentSnapCache.get(footstep);
+            if (snapData == null)
+            {
+               snapData = computeSnapTransform(footstep, stanceStep);
+               persistentSnapCache.put(footstep, snapData);
+            }
+
             footstep.setSnapData(snapData);
             snappedFootsteps.add(footstep);
 
@@ -129,11 +189,39 @@ public class FootstepSnapAndWiggler implements FootstepSnapperReadOnly
 
    protected FootstepSnapData computeSnapTransform(DiscreteFootstep footstepToSnap, DiscreteFootstep stanceStep)
    {
-      return heightMapSnapper.computeSnapData(footstepToSnap,
-                                              footPolygonsInSoleFrame.get(footstepToSnap.getRobotSide()),
-                                              environmentHandler,
-                                              parameters.getHeightMapSnapThreshold(),
-                                              parameters.getMinSurfaceIncline());
+      return computeSnapTransform(footstepToSnap, heightMapSnapper);
+   }
+
+   private FootstepSnapData computeSnapTransform(DiscreteFootstep footstepToSnap, HeightMapPolygonSnapper polygonSnapper)
+   {
+      return polygonSnapper.computeSnapData(footstepToSnap,
+                                            footPolygonsInSoleFrame.get(footstepToSnap.getRobotSide()),
+                                            environmentHandler,
+                                            parameters.getHeightMapSnapThreshold(),
+                                            parameters.getMinSurfaceIncline());
+   }
+
+   /**
+    * Computes and stores the snap transform of the footstep, without the wiggle transform, unless it's already snapped.
+    * The result is the same as the snap transform computed by {@link #snapFootstep(DiscreteFootstep, DiscreteFootstep, boolean)}.
+    * This can be called concurrently for different footsteps, as long as each thread passes its own polygon snapper.
+    */
+   public void snapWithoutWiggle(DiscreteFootstep footstep, HeightMapPolygonSnapper polygonSnapper)
+   {
+      if (footstep.hasSnapData() || environmentHandler.flatGroundMode() || manuallySnappedFootsteps.containsKey(footstep))
+      {
+         return;
+      }
+
+      FootstepSnapData snapData = persistentSnapCache.get(footstep);
+      if (snapData == null)
+      {
+         snapData = computeSnapTransform(footstep, polygonSnapper);
+         persistentSnapCache.put(footstep, snapData);
+      }
+
+      footstep.setSnapData(snapData);
+      snappedFootsteps.add(footstep);
    }
 
    /**
@@ -0,0 +1,405 @@
+package us.ihmc.footstepPlanning.graphSearch.footstepSnapping;
+
+import gnu.trove.map.hash.TLongLongHashMap;
+import gnu.trove.set.hash.TLongHashSet;
+import us.ihmc.footstepPlanning.graphSearch.graph.DiscreteFootstep;
+import us.ihmc.sensorProcessing.heightMap.HeightMapData;
+import us.ihmc.sensorProcessing.heightMap.HeightMapTools;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded least-recently-used cache of snap results that is kept across planning requests. It is opt-in, the capacity is zero by default
+ * and is set with {@link FootstepSnapAndWiggler#setPersistentSnapCacheCapacity(int)}.
+ *
+ * The height map is divided into world-aligned tiles of {@value #cellsPerTile} x {@value #cellsPerTile} cells. Each time a new
+ * height map is given to {@link #update}, a checksum of every tile holding occupied cells is compared to the one of the previous map,
+ * and only cached snaps whose foot polygon overlaps a changed tile are removed. Giving the same height map again without modifying it
+ * skips the checksums. Changing the resolution, estimated ground height or snap parameters clears the cache.
+ *
+ * Snaps are stored in {@value #defaultNumberOfSegments} segments, each with its own lock and least-recently-used order, so that
+ * parallel snapping workers rarely contend. The capacity is split evenly between the segments.
+ *
+ * Only snap transforms are cached, wiggle transforms depend on the stance step and are recomputed by the snapper.
+ */
+public class PersistentFootstepSnapCache
+{
+   static final int cellsPerTile = 16;
+   static final int defaultNumberOfSegments = 16;
+
+   private final double footprintRadius;
+   private volatile int capacity = 0;
+   private final Segment[] segments;
+
+   private TLongLongHashMap tileChecksums = new TLongLongHashMap();
+   private TLongLongHashMap previousTileChecksums = new TLongLongHashMap();
+   private final TLongHashSet changedTiles = new TLongHashSet();
+   private boolean changedOnLastUpdate = false;
+   private boolean gridMovedOnLastUpdate = false;
+   private long clearCount = 0;
+
+   private volatile double resolution = Double.NaN;
+   private double estimatedGroundHeight = Double.NaN;
+   private double snapHeightThreshold = Double.NaN;
+   private double minSurfaceIncline = Double.NaN;
+
+   private HeightMapData lastHeightMapData = null;
+   private long lastModificationCount = -1;
+   /* Range of tiles fully covered by both the previous and the current height map grids */
+   private int minCoveredTileX, maxCoveredTileX, minCoveredTileY, maxCoveredTileY;
+   private int minFullTileX, maxFullTileX, minFullTileY, maxFullTileY;
+
+   /**
+    * @param footprintRadius maximum distance from a footstep to a cell that affects its snap
+    */
+   public PersistentFootstepSnapCache(double footprintRadius)
+   {
+      this(footprintRadius, defaultNumberOfSegments);
+   }
+
+   PersistentFootstepSnapCache(double footprintRadius, int numberOfSegments)
+   {
+      this.footprintRadius = footprintRadius;
+      segments = new Segment[numberOfSegments];
+      for (int i = 0; i < numberOfSegments; i++)
+         segments[i] = new Segment();
+   }
+
+   /**
+    * Sets the maximum number of cached snaps. Zero disables the cache.
+    */
+   public void setCapacity(int capacity)
+   {
+      this.capacity = capacity;
+      if (capacity == 0)
+      {
+         clear();
+         return;
+      }
+
+      for (Segment segment : segments)
+      {
+         synchronized (segment)
+         {
+            while (segment.size() > segmentCapacity())
+               segment.remove(segment.keySet().iterator().next());
+         }
+      }
+   }
+
+   public boolean isEnabled()
+   {
+      return capacity > 0;
+   }
+
+   /**
+    * @return maximum distance from a footstep to a cell that affects its snap
+    */
+   public double getFootprintRadius()
+   {
+      return footprintRadius;
+   }
+
+   /**
+    * @return the number of times all cached snaps were dropped, either by {@link #clear()} or because the height map resolution,
+    *       estimated ground height or snap parameters changed. Caches built on top of this one compare it to know when to clear themselves.
+    */
+   public long getClearCount()
+   {
+      return clearCount;
+   }
+
+   /**
+    * Whether the height map changed inside the given world-frame rectangle in the last call to {@link #update}, using the same tiles that
+    * invalidate cached snaps.
+    */
+   public boolean isRegionChanged(double minX, double maxX, double minY, double maxY)
+   {
+      if (!changedOnLastUpdate)
+         return false;
+
+      double tileSize = cellsPerTile * resolution;
+      int minTileX = (int) Math.floor(minX / tileSize);
+      int maxTileX = (int) Math.floor(maxX / tileSize);
+      int minTileY = (int) Math.floor(minY / tileSize);
+      int maxTileY = (int) Math.floor(maxY / tileSize);
+      return isInvalidated(minTileX, maxTileX, minTileY, maxTileY);
+   }
+
+   public void clear()
+   {
+      clearSegments();
+      tileChecksums.clear();
+      lastHeightMapData = null;
+      resolution = Double.NaN;
+   }
+
+   /**
+    * Invalidates cached snaps that overlap height map tiles which changed since the previous call. Not thread-safe with respect to
+    * {@link #get} and {@link #put}, it is meant to be called between planning requests.
+    */
+   public void update(HeightMapData heightMapData, double snapHeightThreshold, double minSurfaceIncline)
+   {
+      if (!isEnabled())
+         return;
+
+      boolean parametersChanged = Double.compare(resolution, heightMapData.getGridResolutionXY()) != 0;
+      parametersChanged |= Double.compare(estimatedGroundHeight, heightMapData.getEstimatedGroundHeight()) != 0;
+      parametersChanged |= Double.compare(this.snapHeightThreshold, snapHeightThreshold) != 0;
+      parametersChanged |= Double.compare(this.minSurfaceIncline, minSurfaceIncline) != 0;
+
+      changedOnLastUpdate = false;
+      if (!parametersChanged && heightMapData == lastHeightMapData && heightMapData.getModificationCount() == lastModificationCount)
+         return;
+
+      resolution = heightMapData.getGridResolutionXY();
+      estimatedGroundHeight = heightMapData.getEstimatedGroundHeight();
+      this.snapHeightThreshold = snapHeightThreshold;
+      this.minSurfaceIncline = minSurfaceIncline;
+      lastHeightMapData = heightMapData;
+      lastModificationCount = heightMapData.getModificationCount();
+
+      TLongLongHashMap swap = previousTileChecksums;
+      previousTileChecksums = tileChecksums;
+      tileChecksums = swap;
+      computeTileChecksums(heightMapData, tileChecksums);
+      boolean gridMoved = updateCoveredTiles(heightMapData, parametersChanged);
+
+      if (parametersChanged)
+      {
+         clearSegments();
+         return;
+      }
+
+      gridMovedOnLastUpdate = gridMoved;
+
+      changedTiles.clear();
+      tileChecksums.forEachEntry((tileKey, checksum) ->
+                                 {
+                                    if (!previousTileChecksums.containsKey(tileKey) || previousTileChecksums.get(tileKey) != checksum)
+                                       changedTiles.add(tileKey);
+                                    return true;
+                                 });
+      previousTileChecksums.forEachKey(tileKey ->
+                                       {
+                                          if (!tileChecksums.containsKey(tileKey))
+                                             changedTiles.add(tileKey);
+                                          return true;
+                                       });
+
+      if (changedTiles.isEmpty() && !gridMoved)
+         return;
+
+      changedOnLastUpdate = true;
+      for (Segment segment : segments)
+      {
+         synchronized (segment)
+         {
+            Iterator<CachedSnap> iterator = segment.values().iterator();
+            while (iterator.hasNext())
+            {
+               CachedSnap cachedSnap = iterator.next();
+               if (isInvalidated(cachedSnap.minTileX, cachedSnap.maxTileX, cachedSnap.minTileY, cachedSnap.maxTileY))
+                  iterator.remove();
+            }
+         }
+      }
+   }
+
+   /**
+    * @return a copy of the cached snap data of the footstep, or null if it isn't cached
+    */
+   public FootstepSnapData get(DiscreteFootstep footstep)
+   {
+      if (!isEnabled())
+         return null;
+
+      Segment segment = getSegment(footstep);
+      FootstepSnapData snapData = new FootstepSnapData();
+      synchronized (segment)
+      {
+         CachedSnap cachedSnap = segment.get(footstep);
+         if (cachedSnap == null)
+            return null;
+         snapData.set(cachedSnap.snapData);
+      }
+
+      return snapData;
+   }
+
+   public void put(DiscreteFootstep footstep, FootstepSnapDataReadOnly snapData)
+   {
+      double resolution = this.resolution;
+      if (!isEnabled() || Double.isNaN(resolution))
+         return;
+
+      CachedSnap cachedSnap = new CachedSnap();
+      cachedSnap.snapData.set(snapData);
+      cachedSnap.snapData.getWiggleTransformInWorld().setToNaN();
+
+      double tileSize = cellsPerTile * resolution;
+      cachedSnap.minTileX = (int) Math.floor((footstep.getX() - footprintRadius) / tileSize);
+      cachedSnap.maxTileX = (int) Math.floor((footstep.getX() + footprintRadius) / tileSize);
+      cachedSnap.minTileY = (int) Math.floor((footstep.getY() - footprintRadius) / tileSize);
+      cachedSnap.maxTileY = (int) Math.floor((footstep.getY() + footprintRadius) / tileSize);
+
+      Segment segment = getSegment(footstep);
+      synchronized (segment)
+      {
+         segment.put(footstep, cachedSnap);
+      }
+   }
+
+   public int size()
+   {
+      int size = 0;
+      for (Segment segment : segments)
+      {
+         synchronized (segment)
+         {
+            size += segment.size();
+         }
+      }
+
+      return size;
+   }
+
+   private Segment getSegment(DiscreteFootstep footstep)
+   {
+      int hash = footstep.hashCode();
+      hash ^= hash >>> 16;
+      return segments[Math.floorMod(hash, segments.length)];
+   }
+
+   private int segmentCapacity()
+   {
+      return (capacity + segments.length - 1) / segments.length;
+   }
+
+   private void clearSegments()
+   {
+      clearCount++;
+      for (Segment segment : segments)
+      {
+         synchronized (segment)
+         {
+            segment.clear();
+         }
+      }
+   }
+
+   /**
+    * Cells outside of the grid are not snapped like unoccupied cells inside of it, so snaps over tiles that aren't fully covered by both
+    * the previous and the current grid are invalidated when the grid moves.
+    *
+    * @return whether the range of tiles covered by the grid changed
+    */
+   private boolean updateCoveredTiles(HeightMapData heightMapData, boolean parametersChanged)
+   {
+      double resolution = heightMapData.getGridResolutionXY();
+      int centerIndex = heightMapData.getCenterIndex();
+      long minWorldXIndex = Math.round(HeightMapTools.indexToCoordinate(0, heightMapData.getGridCenter().getX(), resolution, centerIndex) / resolution);
+      long minWorldYIndex = Math.round(HeightMapTools.indexToCoordinate(0, heightMapData.getGridCenter().getY(), resolution, centerIndex) / resolution);
+      long maxWorldXIndex = minWorldXIndex + heightMapData.getCellsPerAxis() - 1;
+      long maxWorldYIndex = minWorldYIndex + heightMapData.getCellsPerAxis() - 1;
+
+      int previousMinFullTileX = minFullTileX, previousMaxFullTileX = maxFullTileX;
+      int previousMinFullTileY = minFullTileY, previousMaxFullTileY = maxFullTileY;
+      minFullTileX = (int) -Math.floorDiv(-minWorldXIndex, cellsPerTile);
+      maxFullTileX = (int) Math.floorDiv(maxWorldXIndex + 1, cellsPerTile) - 1;
+      minFullTileY = (int) -Math.floorDiv(-minWorldYIndex, cellsPerTile);
+      maxFullTileY = (int) Math.floorDiv(maxWorldYIndex + 1, cellsPerTile) - 1;
+
+      if (parametersChanged)
+         return false;
+
+      minCoveredTileX = Math.max(minFullTileX, previousMinFullTileX);
+      maxCoveredTileX = Math.min(maxFullTileX, previousMaxFullTileX);
+      minCoveredTileY = Math.max(minFullTileY, previousMinFullTileY);
+      maxCoveredTileY = Math.min(maxFullTileY, previousMaxFullTileY);
+
+      return minFullTileX != previousMinFullTileX || maxFullTileX != previousMaxFullTileX || minFullTileY != previousMinFullTileY
+             || maxFullTileY != previousMaxFullTileY;
+   }
+
+   /**
+    * Only occupied cells contribute to the checksums, unoccupied cells are at the estimated ground height which clears the cache when it
+    * changes.
+    */
+   private static void computeTileChecksums(HeightMapData heightMapData, TLongLongHashMap tileChecksumsToPack)
+   {
+      tileChecksumsToPack.clear();
+
+      double resolution = heightMapData.getGridResolutionXY();
+      int centerIndex = heightMapData.getCenterIndex();
+      double centerX = heightMapData.getGridCenter().getX();
+      double centerY = heightMapData.getGridCenter().getY();
+
+      for (int i = 0; i < heightMapData.getNumberOfOccupiedCells(); i++)
+      {
+         int key = heightMapData.getKey(i);
+         int xIndex = HeightMapTools.keyToXIndex(key, centerIndex);
+         int yIndex = HeightMapTools.keyToYIndex(key, centerIndex);
+         long worldXIndex = Math.round(HeightMapTools.indexToCoordinate(xIndex, centerX, resolution, centerIndex) / resolution);
+         long worldYIndex = Math.round(HeightMapTools.indexToCoordinate(yIndex, centerY, resolution, centerIndex) / resolution);
+         int tileX = (int) Math.floorDiv(worldXIndex, cellsPerTile);
+         int tileY = (int) Math.floorDiv(worldYIndex, cellsPerTile);
+
+         long cellHash = mix(31 * (31 * worldXIndex + worldYIndex) + Double.doubleToLongBits(heightMapData.getHeightAt(key)));
+         tileChecksumsToPack.adjustOrPutValue(tileKey(tileX, tileY), cellHash, cellHash);
+      }
+   }
+
+   private boolean isInvalidated(int minTileX, int maxTileX, int minTileY, int maxTileY)
+   {
+      boolean insideCoveredTiles = minTileX >= minCoveredTileX && maxTileX <= maxCoveredTileX && minTileY >= minCoveredTileY && maxTileY <= maxCoveredTileY;
+      if (gridMovedOnLastUpdate && !insideCoveredTiles)
+         return true;
+
+      for (int tileX = minTileX; tileX <= maxTileX; tileX++)
+      {
+         for (int tileY = minTileY; tileY <= maxTileY; tileY++)
+         {
+            if (changedTiles.contains(tileKey(tileX, tileY)))
+               return true;
+         }
+      }
+
+      return false;
+   }
+
+   private static long tileKey(int tileX, int tileY)
+   {
+      return ((long) tileX << 32) | (tileY & 0xFFFFFFFFL);
+   }
+
+   private static long mix(long value)
+   {
+      value ^= value >>> 33;
+      value *= 0xff51afd7ed558ccdL;
+      value ^= value >>> 33;
+      return value;
+   }
+
+   private class Segment extends LinkedHashMap<DiscreteFootstep, CachedSnap>
+   {
+      Segment()
+      {
+         super(16, 0.75f, true);
+      }
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<DiscreteFootstep, CachedSnap> eldest)
+      {
+         return size() > segmentCapacity();
+      }
+   }
+
+   private class CachedSnap
+   {
+      private final FootstepSnapData snapData = new FootstepSnapData();
+      private int minTileX, maxTileX, minTileY, maxTileY;
+   }
+}
@@ -0,0 +1,91 @@
+package us.ihmc.footstepPlanning.graphSearch.graph;
+
+import us.ihmc.robotics.robotSide.RobotSide;
+
+/**
+ * Encodes a {@link FootstepGraphNode} as a single non-negative {@code long}, which can be used as a key by primitive collections.
+ *
+ * The second (stance) step is stored with absolute lattice indices and the first (start-of-swing) step relative to it:
+ * <pre>
+ *    bit  0      second step side
+ *    bits 1-6    second step yaw index
+ *    bits 7-12   first step yaw index
+ *    bits 13-29  second step x index
+ *    bits 30-46  second step y index
+ *    bits 47-54  first step x index relative to second step
+ *    bits 55-62  first step y index relative to second step
+ * </pre>
+ * This covers +/- {@value #MAX_ABSOLUTE_INDEX} lattice cells from the origin and stance widths of +/- {@value #MAX_RELATIVE_INDEX} cells.
+ */
+public final class PackedFootstepGraphNodeKey
+{
+   static final int MAX_ABSOLUTE_INDEX = (1 << 16) - 1;
+   static final int MAX_RELATIVE_INDEX = (1 << 7) - 1;
+
+   private static final int YAW_BITS = 6;
+   private static final int ABSOLUTE_BITS = 17;
+   private static final int RELATIVE_BITS = 8;
+
+   private static final int SECOND_YAW_SHIFT = 1;
+   private static final int FIRST_YAW_SHIFT = SECOND_YAW_SHIFT + YAW_BITS;
+   private static final int SECOND_X_SHIFT = FIRST_YAW_SHIFT + YAW_BITS;
+   private static final int SECOND_Y_SHIFT = SECOND_X_SHIFT + ABSOLUTE_BITS;
+   private static final int FIRST_X_SHIFT = SECOND_Y_SHIFT + ABSOLUTE_BITS;
+   private static final int FIRST_Y_SHIFT = FIRST_X_SHIFT + RELATIVE_BITS;
+
+   private static final long YAW_MASK = (1L << YAW_BITS) - 1;
+   private static final long ABSOLUTE_MASK = (1L << ABSOLUTE_BITS) - 1;
+   private static final long RELATIVE_MASK = (1L << RELATIVE_BITS) - 1;
+
+   private PackedFootstepGraphNodeKey()
+   {
+   }
+
+   public static long pack(FootstepGraphNode node)
+   {
+      return pack(node.getFirstStep(), node.getSecondStep());
+   }
+
+   public static long pack(DiscreteFootstep firstStep, DiscreteFootstep secondStep)
+   {
+      int secondX = secondStep.getXIndex();
+      int secondY = secondStep.getYIndex();
+      int relativeFirstX = firstStep.getXIndex() - secondX;
+      int relativeFirstY = firstStep.getYIndex() - secondY;
+
+      checkRange(secondX, MAX_ABSOLUTE_INDEX);
+      checkRange(secondY, MAX_ABSOLUTE_INDEX);
+      checkRange(relativeFirstX, MAX_RELATIVE_INDEX);
+      checkRange(relativeFirstY, MAX_RELATIVE_INDEX);
+
+      long key = secondStep.getRobotSide() == RobotSide.LEFT ? 0L : 1L;
+      key |= (secondStep.getYawIndex() & YAW_MASK) << SECOND_YAW_SHIFT;
+      key |= (firstStep.getYawIndex() & YAW_MASK) << FIRST_YAW_SHIFT;
+      key |= ((long) (secondX + MAX_ABSOLUTE_INDEX) & ABSOLUTE_MASK) << SECOND_X_SHIFT;
+      key |= ((long) (secondY + MAX_ABSOLUTE_INDEX) & ABSOLUTE_MASK) << SECOND_Y_SHIFT;
+      key |= ((long) (relativeFirstX + MAX_RELATIVE_INDEX) & RELATIVE_MASK) << FIRST_X_SHIFT;
+      key |= ((long) (relativeFirstY + MAX_RELATIVE_INDEX) & RELATIVE_MASK) << FIRST_Y_SHIFT;
+      return key;
+   }
+
+   public static FootstepGraphNode unpack(long key)
+   {
+      RobotSide secondStepSide = (key & 1L) == 0L ? RobotSide.LEFT : RobotSide.RIGHT;
+      int secondYaw = (int) ((key >>> SECOND_YAW_SHIFT) & YAW_MASK);
+      int firstYaw = (int) ((key >>> FIRST_YAW_SHIFT) & YAW_MASK);
+      int secondX = (int) ((key >>> SECOND_X_SHIFT) & ABSOLUTE_MASK) - MAX_ABSOLUTE_INDEX;
+      int secondY = (int) ((key >>> SECOND_Y_SHIFT) & ABSOLUTE_MASK) - MAX_ABSOLUTE_INDEX;
+      int firstX = secondX + (int) ((key >>> FIRST_X_SHIFT) & RELATIVE_MASK) - MAX_RELATIVE_INDEX;
+      int firstY = secondY + (int) ((key >>> FIRST_Y_SHIFT) & RELATIVE_MASK) - MAX_RELATIVE_INDEX;
+
+      DiscreteFootstep firstStep = new DiscreteFootstep(firstX, firstY, firstYaw, secondStepSide.getOppositeSide());
+      DiscreteFootstep secondStep = new DiscreteFootstep(secondX, secondY, secondYaw, secondStepSide);
+      return new FootstepGraphNode(firstStep, secondStep);
+   }
+
+   private static void checkRange(int index, int maxIndex)
+   {
+      if (index < -maxIndex || index > maxIndex)
+         throw new IllegalArgumentException("Lattice index " + index + " can't be packed, must be in the range +/- " + maxIndex);
+   }
+}
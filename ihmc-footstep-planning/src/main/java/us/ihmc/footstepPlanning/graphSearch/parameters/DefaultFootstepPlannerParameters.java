@@ -76,6 +76,10 @@ public class DefaultFootstepPlannerParameters extends StoredPropertySet implemen
    public static final DoubleStoredPropertyKey minDistanceFromCliffTops = keys.addDoubleKey("Min distance from cliff tops");
    public static final DoubleStoredPropertyKey scaledFootPolygonPercentage = keys.addDoubleKey("Scaled foot polygon percentage");
    public static final DoubleStoredPropertyKey cliffHeightThreshold = keys.addDoubleKey("Cliff height threshold");
+   public static final BooleanStoredPropertyKey usePrimitiveOpenAndClosedSets = keys.addBooleanKey("Use primitive open and closed sets", false);
+   public static final IntegerStoredPropertyKey numberOfSnappingWorkers = keys.addIntegerKey("Number of snapping workers", 0);
+   public static final IntegerStoredPropertyKey persistentSnapCacheCapacity = keys.addIntegerKey("Persistent snap cache capacity", 0);
+   public static final IntegerStoredPropertyKey persistentCheckCacheCapacity = keys.addIntegerKey("Persistent check cache capacity", 0);
 
 
    public DefaultFootstepPlannerParameters() // for tests and stuff that's probably not gonna save
@@ -340,6 +340,26 @@ public interface DefaultFootstepPlannerParametersBasics extends DefaultFootstepP
       set(DefaultFootstepPlannerParameters.cliffHeightThreshold, cliffHeightThreshold);
    }
 
+   default void setUsePrimitiveOpenAndClosedSets(boolean usePrimitiveOpenAndClosedSets)
+   {
+      set(DefaultFootstepPlannerParameters.usePrimitiveOpenAndClosedSets, usePrimitiveOpenAndClosedSets);
+   }
+
+   default void setNumberOfSnappingWorkers(int numberOfSnappingWorkers)
+   {
+      set(DefaultFootstepPlannerParameters.numberOfSnappingWorkers, numberOfSnappingWorkers);
+   }
+
+   default void setPersistentSnapCacheCapacity(int persistentSnapCacheCapacity)
+   {
+      set(DefaultFootstepPlannerParameters.persistentSnapCacheCapacity, persistentSnapCacheCapacity);
+   }
+
+   default void setPersistentCheckCacheCapacity(int persistentCheckCacheCapacity)
+   {
+      set(DefaultFootstepPlannerParameters.persistentCheckCacheCapacity, persistentCheckCacheCapacity);
+   }
+
    default void set(FootstepPlannerParametersPacket parametersPacket)
    {
       double noValue = FootstepPlannerParametersPacket.DEFAULT_NO_VALUE;
@@ -481,5 +501,12 @@ public interface DefaultFootstepPlannerParametersBasics extends DefaultFootstepP
          setCliffHeightThreshold(parametersPacket.getCliffHeightThreshold());
       if (parametersPacket.getScaledFootPolygonPercentage() != noValue)
          setScaledFootPolygonPercentage(parametersPacket.getScaledFootPolygonPercentage());
+      setUsePrimitiveOpenAndClosedSets(parametersPacket.getUsePrimitiveOpenAndClosedSets());
+      if (parametersPacket.getNumberOfSnappingWorkers() >= 0)
+         setNumberOfSnappingWorkers(parametersPacket.getNumberOfSnappingWorkers());
+      if (parametersPacket.getPersistentSnapCacheCapacity() >= 0)
+         setPersistentSnapCacheCapacity(parametersPacket.getPersistentSnapCacheCapacity());
+      if (parametersPacket.getPersistentCheckCacheCapacity() >= 0)
+         setPersistentCheckCacheCapacity(parametersPacket.getPersistentCheckCacheCapacity());
    }
 }
\ No newline at end of file
@@ -628,4 +628,42 @@ public interface DefaultFootstepPlannerParametersReadOnly extends StoredProperty
    {
       return get(cliffHeightThreshold);
    }
+
+   /**
+    * If true, the A* search keeps its open and closed sets in a primitive indexed heap keyed on packed node indices instead of a
+    * priority queue and hash set of nodes. This caches the heuristic cost of each node and avoids allocating during the search.
+    */
+   default boolean getUsePrimitiveOpenAndClosedSets()
+   {
+      return get(usePrimitiveOpenAndClosedSets);
+   }
+
+   /**
+    * Number of worker threads that snap the candidate steps of each expansion in parallel. Wiggling, checking and costs stay on the
+    * planning thread, so the plan is the same as with serial snapping. Zero or one snaps on the planning thread.
+    */
+   default int getNumberOfSnappingWorkers()
+   {
+      return get(numberOfSnappingWorkers);
+   }
+
+   /**
+    * Maximum number of snap results kept across planning requests. They are only reused over the parts of the height map that did not
+    * change since the previous request, which pays off when replanning repeatedly over the same terrain. Zero, the default, disables
+    * the persistent cache.
+    */
+   default int getPersistentSnapCacheCapacity()
+   {
+      return get(persistentSnapCacheCapacity);
+   }
+
+   /**
+    * Maximum number of step validity checks kept across planning requests. They are reused for steps away from the parts of the height map
+    * that changed since the previous request, also when the start or goal moved. Only used while the persistent snap cache is enabled,
+    * see {@link #getPersistentSnapCacheCapacity()}. Zero, the default, disables the persistent check cache.
+    */
+   default int getPersistentCheckCacheCapacity()
+   {
+      return get(persistentCheckCacheCapacity);
+   }
 }
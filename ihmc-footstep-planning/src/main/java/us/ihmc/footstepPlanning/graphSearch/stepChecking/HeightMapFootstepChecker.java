@@ -375,6 +375,21 @@ public class HeightMapFootstepChecker implements FootstepCheckerInterface
       return rejectionReason.getValue();
    }
 
+   public boolean hasCustomFootstepCheckers()
+   {
+      return !customFootstepCheckers.isEmpty();
+   }
+
+   /**
+    * Sets the logged variables as if a step had been checked with the given result, used when the result is reused from
+    * {@link PersistentFootstepCheckCache}.
+    */
+   void setCachedRejectionReason(BipedalFootstepPlannerNodeRejectionReason cachedRejectionReason)
+   {
+      clearLoggedVariables();
+      rejectionReason.set(cachedRejectionReason);
+   }
+
    private double queryHeightMapTraversabilityDistanceMargin(double x, double y)
    {
       // TODO
@@ -0,0 +1,196 @@
+package us.ihmc.footstepPlanning.graphSearch.stepChecking;
+
+import us.ihmc.euclid.tools.EuclidCoreTools;
+import us.ihmc.footstepPlanning.graphSearch.footstepSnapping.PersistentFootstepSnapCache;
+import us.ihmc.footstepPlanning.graphSearch.graph.DiscreteFootstep;
+import us.ihmc.footstepPlanning.graphSearch.graph.FootstepGraphNode;
+import us.ihmc.footstepPlanning.graphSearch.graph.visualization.BipedalFootstepPlannerNodeRejectionReason;
+import us.ihmc.footstepPlanning.graphSearch.parameters.DefaultFootstepPlannerParametersReadOnly;
+import us.ihmc.pathPlanning.graph.structure.GraphEdge;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded least-recently-used cache of {@link HeightMapFootstepChecker} results that is kept across planning requests, such that
+ * replanning over mostly unchanged terrain only checks the edges near the parts of the height map that changed. It is opt-in, the capacity
+ * is zero by default and is set from {@link DefaultFootstepPlannerParametersReadOnly#getPersistentCheckCacheCapacity()}.
+ *
+ * A result only depends on the candidate, stance and start of swing steps, the height map around them and the planner parameters. It does
+ * not depend on the start, goal or body path of the request, so it stays valid while the robot walks and replans towards a moving goal.
+ * Edge costs do depend on those and are recomputed for every request.
+ *
+ * Results are dropped with the tiles of the {@link PersistentFootstepSnapCache}: a result is removed when the height map changed within
+ * the reach of any of the checks around its steps, and the whole cache is cleared whenever the snap cache is cleared or any planner
+ * parameter changes. Results are therefore only cached while the persistent snap cache is enabled. They are not cached while wiggling
+ * during planning, since the wiggle of a step depends on the order in which its edges are checked, or while custom footstep checkers are
+ * attached.
+ */
+public class PersistentFootstepCheckCache implements FootstepCheckerInterface
+{
+   private final HeightMapFootstepChecker checker;
+   private final PersistentFootstepSnapCache snapCache;
+   private final DefaultFootstepPlannerParametersReadOnly parameters;
+
+   private final Map<GraphEdge<FootstepGraphNode>, CachedCheck> cachedChecks = new LinkedHashMap<>(16, 0.75f, true)
+   {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<GraphEdge<FootstepGraphNode>, CachedCheck> eldest)
+      {
+         return size() > capacity;
+      }
+   };
+
+   private int capacity = 0;
+   private long snapCacheClearCount = -1;
+   private final List<Object> parameterValues = new ArrayList<>();
+   private int numberOfChecks = 0;
+   private int numberOfCachedChecks = 0;
+
+   public PersistentFootstepCheckCache(HeightMapFootstepChecker checker, PersistentFootstepSnapCache snapCache, DefaultFootstepPlannerParametersReadOnly parameters)
+   {
+      this.checker = checker;
+      this.snapCache = snapCache;
+      this.parameters = parameters;
+   }
+
+   /**
+    * Sets the maximum number of cached results. Zero disables the cache.
+    */
+   public void setCapacity(int capacity)
+   {
+      this.capacity = capacity;
+      if (capacity == 0)
+      {
+         clear();
+         return;
+      }
+
+      Iterator<GraphEdge<FootstepGraphNode>> iterator = cachedChecks.keySet().iterator();
+      while (cachedChecks.size() > capacity)
+      {
+         iterator.next();
+         iterator.remove();
+      }
+   }
+
+   public boolean isEnabled()
+   {
+      return capacity > 0;
+   }
+
+   public void clear()
+   {
+      cachedChecks.clear();
+   }
+
+   /**
+    * Should be called after {@link PersistentFootstepSnapCache#update}, removes the results checked over the parts of the height map that
+    * changed. Also resets the counters of {@link #getNumberOfChecks()} and {@link #getNumberOfCachedChecks()}.
+    */
+   public void update()
+   {
+      numberOfChecks = 0;
+      numberOfCachedChecks = 0;
+
+      if (!isEnabled())
+         return;
+
+      List<Object> currentParameterValues = parameters.getAll();
+      if (!snapCache.isEnabled() || snapCache.getClearCount() != snapCacheClearCount || !currentParameterValues.equals(parameterValues))
+      {
+         clear();
+         snapCacheClearCount = snapCache.getClearCount();
+         parameterValues.clear();
+         parameterValues.addAll(currentParameterValues);
+         return;
+      }
+
+      Iterator<CachedCheck> iterator = cachedChecks.values().iterator();
+      while (iterator.hasNext())
+      {
+         CachedCheck cachedCheck = iterator.next();
+         if (snapCache.isRegionChanged(cachedCheck.minX, cachedCheck.maxX, cachedCheck.minY, cachedCheck.maxY))
+            iterator.remove();
+      }
+   }
+
+   @Override
+   public boolean isStepValid(DiscreteFootstep candidateStep, DiscreteFootstep stanceStep, DiscreteFootstep startOfSwing)
+   {
+      numberOfChecks++;
+
+      boolean useCache = isEnabled() && snapCache.isEnabled() && !parameters.getWiggleWhilePlanning() && !checker.hasCustomFootstepCheckers();
+      if (!useCache || stanceStep == null || startOfSwing == null)
+      {
+         return checker.isStepValid(candidateStep, stanceStep, startOfSwing);
+      }
+
+      GraphEdge<FootstepGraphNode> edge = new GraphEdge<>(new FootstepGraphNode(startOfSwing, stanceStep), new FootstepGraphNode(stanceStep, candidateStep));
+      CachedCheck cachedCheck = cachedChecks.get(edge);
+      if (cachedCheck != null)
+      {
+         numberOfCachedChecks++;
+         checker.setCachedRejectionReason(cachedCheck.rejectionReason);
+         return cachedCheck.rejectionReason == null;
+      }
+
+      boolean valid = checker.isStepValid(candidateStep, stanceStep, startOfSwing);
+
+      cachedCheck = new CachedCheck();
+      cachedCheck.rejectionReason = checker.getRejectionReason();
+      double margin = computeCheckedDistanceFromSteps();
+      cachedCheck.minX = Math.min(candidateStep.getX(), Math.min(stanceStep.getX(), startOfSwing.getX())) - margin;
+      cachedCheck.maxX = Math.max(candidateStep.getX(), Math.max(stanceStep.getX(), startOfSwing.getX())) + margin;
+      cachedCheck.minY = Math.min(candidateStep.getY(), Math.min(stanceStep.getY(), startOfSwing.getY())) - margin;
+      cachedCheck.maxY = Math.max(candidateStep.getY(), Math.max(stanceStep.getY(), startOfSwing.getY())) + margin;
+      cachedChecks.put(edge, cachedCheck);
+
+      return valid;
+   }
+
+   /**
+    * The checks query the height map under the foot polygons, under the scaled foot polygons of the cliff check, along the line between
+    * the steps and inside the body box placed between them. This returns the furthest any of these can reach from the steps.
+    */
+   private double computeCheckedDistanceFromSteps()
+   {
+      double footprintRadius = snapCache.getFootprintRadius() * Math.max(1.0, 1.02 * parameters.getScaledFootPolygonPercentage());
+      if (!parameters.getCheckForBodyBoxCollisions())
+         return footprintRadius;
+
+      double bodyBoxReach = EuclidCoreTools.norm(Math.abs(parameters.getBodyBoxBaseX()) + 0.5 * parameters.getBodyBoxDepth(),
+                                                 Math.abs(parameters.getBodyBoxBaseY()) + 0.5 * parameters.getBodyBoxWidth());
+      return Math.max(footprintRadius, bodyBoxReach);
+   }
+
+   public int size()
+   {
+      return cachedChecks.size();
+   }
+
+   /**
+    * @return the number of edges checked since the last call to {@link #update()}
+    */
+   public int getNumberOfChecks()
+   {
+      return numberOfChecks;
+   }
+
+   /**
+    * @return the number of edges whose result was reused from a previous request since the last call to {@link #update()}
+    */
+   public int getNumberOfCachedChecks()
+   {
+      return numberOfCachedChecks;
+   }
+
+   private static class CachedCheck
+   {
+      private BipedalFootstepPlannerNodeRejectionReason rejectionReason;
+      private double minX, maxX, minY, maxY;
+   }
+}
@@ -0,0 +1,157 @@
+package us.ihmc.footstepPlanning.graphSearch.stepExpansion;
+
+import us.ihmc.commons.thread.ThreadTools;
+import us.ihmc.footstepPlanning.graphSearch.footstepSnapping.FootstepSnapAndWiggler;
+import us.ihmc.footstepPlanning.graphSearch.graph.FootstepGraphNode;
+import us.ihmc.footstepPlanning.polygonSnapping.HeightMapPolygonSnapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Wraps a {@link FootstepExpansion} and snaps the candidate steps of each expansion across a pool of worker threads, before they
+ * are handed to the checker and cost calculator.
+ *
+ * Only the snap transform is precomputed, each worker using its own {@link HeightMapPolygonSnapper}. Wiggling, checking and
+ * cost calculation stay on the planning thread in expansion order, so the resulting plan is identical to serial planning.
+ * With zero or one workers this is a pass-through. The workers are daemon threads, such that a planner which is never destroyed
+ * does not keep the JVM alive.
+ */
+public class ParallelSnappingStepExpansion implements FootstepExpansion
+{
+   /** Expansions smaller than this are snapped on the planning thread */
+   private static final int minimumCandidatesPerWorker = 4;
+
+   private final FootstepExpansion expansion;
+   private final FootstepSnapAndWiggler snapper;
+
+   private ExecutorService executorService = null;
+   private final List<HeightMapPolygonSnapper> workerSnappers = new ArrayList<>();
+   private final List<SnapTask> snapTasks = new ArrayList<>();
+   private final List<Future<?>> futures = new ArrayList<>();
+
+   public ParallelSnappingStepExpansion(FootstepExpansion expansion, FootstepSnapAndWiggler snapper)
+   {
+      this.expansion = expansion;
+      this.snapper = snapper;
+   }
+
+   /**
+    * Sets the number of worker threads used to snap candidate steps. Zero or one disables parallel snapping.
+    */
+   public void setNumberOfWorkers(int numberOfWorkers)
+   {
+      if (numberOfWorkers == workerSnappers.size())
+         return;
+
+      shutdown();
+
+      if (numberOfWorkers > 1)
+      {
+         executorService = Executors.newFixedThreadPool(numberOfWorkers, ThreadTools.createNamedDaemonThreadFactory(getClass().getSimpleName()));
+         for (int i = 0; i < numberOfWorkers; i++)
+         {
+            workerSnappers.add(new HeightMapPolygonSnapper());
+            snapTasks.add(new SnapTask(workerSnappers.get(i)));
+         }
+      }
+   }
+
+   public int getNumberOfWorkers()
+   {
+      return workerSnappers.size();
+   }
+
+   @Override
+   public void doFullExpansion(FootstepGraphNode stanceNode, List<FootstepGraphNode> expansionToPack)
+   {
+      expansion.doFullExpansion(stanceNode, expansionToPack);
+      snapInParallel(expansionToPack);
+   }
+
+   @Override
+   public boolean doIterativeExpansion(FootstepGraphNode stanceNode, List<FootstepGraphNode> expansionToPack)
+   {
+      boolean partialExpansion = expansion.doIterativeExpansion(stanceNode, expansionToPack);
+      snapInParallel(expansionToPack);
+      return partialExpansion;
+   }
+
+   private void snapInParallel(List<FootstepGraphNode> candidates)
+   {
+      int numberOfWorkers = Math.min(workerSnappers.size(), candidates.size() / minimumCandidatesPerWorker);
+      if (numberOfWorkers < 2)
+         return;
+
+      futures.clear();
+      int candidatesPerWorker = (candidates.size() + numberOfWorkers - 1) / numberOfWorkers;
+      for (int i = 0; i < numberOfWorkers; i++)
+      {
+         SnapTask snapTask = snapTasks.get(i);
+         snapTask.set(candidates, i * candidatesPerWorker, Math.min(candidates.size(), (i + 1) * candidatesPerWorker));
+         futures.add(executorService.submit(snapTask));
+      }
+
+      for (int i = 0; i < futures.size(); i++)
+      {
+         try
+         {
+            futures.get(i).get();
+         }
+         catch (InterruptedException | ExecutionException e)
+         {
+            throw new RuntimeException(e);
+         }
+      }
+   }
+
+   /**
+    * Stops the worker threads, after which candidates are snapped on the planning thread.
+    */
+   public void shutdown()
+   {
+      if (executorService != null)
+      {
+         executorService.shutdownNow();
+         executorService = null;
+      }
+
+      workerSnappers.clear();
+      snapTasks.clear();
+   }
+
+   private class SnapTask implements Callable<Void>
+   {
+      private final HeightMapPolygonSnapper polygonSnapper;
+      private List<FootstepGraphNode> candidates;
+      private int startIndex, endIndex;
+
+      SnapTask(HeightMapPolygonSnapper polygonSnapper)
+      {
+         this.polygonSnapper = polygonSnapper;
+      }
+
+      void set(List<FootstepGraphNode> candidates, int startIndex, int endIndex)
+      {
+         this.candidates = candidates;
+         this.startIndex = startIndex;
+         this.endIndex = endIndex;
+      }
+
+      @Override
+      public Void call()
+      {
+         for (int i = startIndex; i < endIndex; i++)
+         {
+            snapper.snapWithoutWiggle(candidates.get(i).getSecondStep(), polygonSnapper);
+         }
+
+         return null;
+      }
+   }
+}
@@ -0,0 +1,165 @@
+package us.ihmc.footstepPlanning.log;
+
+import us.ihmc.euclid.tuple4D.Quaternion;
+import us.ihmc.footstepPlanning.bodyPath.BodyPathLatticePoint;
+import us.ihmc.footstepPlanning.graphSearch.graph.FootstepGraphNode;
+import us.ihmc.pathPlanning.graph.structure.GraphEdge;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Random access to the iterations of a binary planner iteration data file, see {@link FootstepPlannerLogBinaryFormat}.
+ *
+ * Uncompressed files are memory-mapped, so opening a large log only reads its record index and iterations are decoded when
+ * requested. Compressed files are inflated in memory when opened.
+ */
+public class FootstepPlannerIterationDataReader
+{
+   private final ByteBuffer buffer;
+   private final int fileType;
+   private final int numberOfVariables;
+   private final int numberOfIterations;
+   private final int indexOffset;
+   private final Quaternion tempQuaternion = new Quaternion();
+
+   public FootstepPlannerIterationDataReader(Path file) throws IOException
+   {
+      if (file.getFileName().toString().endsWith(FootstepPlannerLogger.compressedFileExtension))
+      {
+         try (InputStream inputStream = new GZIPInputStream(Files.newInputStream(file), FootstepPlannerLogWriter.CHUNK_SIZE))
+         {
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            inputStream.transferTo(outputStream);
+            buffer = ByteBuffer.wrap(outputStream.toByteArray());
+         }
+      }
+      else
+      {
+         try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+         {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+         }
+      }
+
+      if (buffer.capacity() < FootstepPlannerLogBinaryFormat.HEADER_SIZE + FootstepPlannerLogBinaryFormat.FOOTER_SIZE)
+         throw new IOException("Incomplete planner log file " + file);
+
+      buffer.position(0);
+      if (buffer.getInt() != FootstepPlannerLogBinaryFormat.MAGIC)
+         throw new IOException("Not a binary planner log file " + file);
+      int version = buffer.getInt();
+      if (version != FootstepPlannerLogBinaryFormat.VERSION)
+         throw new IOException("Unsupported planner log version " + version + " in " + file);
+      fileType = buffer.getInt();
+      numberOfVariables = buffer.getInt();
+
+      int footerOffset = buffer.capacity() - FootstepPlannerLogBinaryFormat.FOOTER_SIZE;
+      numberOfIterations = buffer.getInt(footerOffset);
+      if (buffer.getInt(footerOffset + Integer.BYTES) != FootstepPlannerLogBinaryFormat.FOOTER_MAGIC)
+         throw new IOException("Incomplete planner log file " + file);
+      indexOffset = footerOffset - numberOfIterations * Long.BYTES;
+   }
+
+   public int getNumberOfIterations()
+   {
+      return numberOfIterations;
+   }
+
+   public int getNumberOfVariables()
+   {
+      return numberOfVariables;
+   }
+
+   public boolean isBodyPathData()
+   {
+      return fileType == FootstepPlannerLogBinaryFormat.BODY_PATH_ITERATIONS;
+   }
+
+   /**
+    * Decodes the given footstep planner iteration, and puts the data of its edges in the given map.
+    */
+   public FootstepPlannerIterationData readFootstepIteration(int index, Map<GraphEdge<FootstepGraphNode>, FootstepPlannerEdgeData> edgeDataMapToPack)
+   {
+      if (isBodyPathData())
+         throw new IllegalStateException("This file contains body path planner iterations");
+
+      seekIteration(index);
+
+      FootstepPlannerIterationData iterationData = new FootstepPlannerIterationData();
+      iterationData.setParentNode(FootstepPlannerLogBinaryFormat.getNode(buffer));
+      iterationData.setIdealChildNode(FootstepPlannerLogBinaryFormat.getNode(buffer));
+      iterationData.setNominalIdealChildNode(FootstepPlannerLogBinaryFormat.getNode(buffer));
+      FootstepPlannerLogBinaryFormat.getSnapData(buffer, iterationData.getParentStartSnapData(), tempQuaternion);
+      FootstepPlannerLogBinaryFormat.getSnapData(buffer, iterationData.getParentEndSnapData(), tempQuaternion);
+
+      int numberOfEdges = buffer.getInt();
+      for (int i = 0; i < numberOfEdges; i++)
+      {
+         FootstepPlannerEdgeData edgeData = new FootstepPlannerEdgeData(numberOfVariables);
+         edgeData.setParentNode(iterationData.getParentNode());
+         edgeData.setChildNode(FootstepPlannerLogBinaryFormat.getNode(buffer));
+         edgeData.setSolutionEdge(buffer.get() != 0);
+         FootstepPlannerLogBinaryFormat.getSnapData(buffer, edgeData.getEndStepSnapData(), tempQuaternion);
+         for (int j = 0; j < numberOfVariables; j++)
+         {
+            edgeData.setData(j, buffer.getLong());
+         }
+
+         iterationData.getChildNodes().add(edgeData.getChildNode());
+         edgeDataMapToPack.put(new GraphEdge<>(iterationData.getParentNode(), edgeData.getChildNode()), edgeData);
+      }
+
+      return iterationData;
+   }
+
+   /**
+    * Decodes the given body path planner iteration, and puts the data of its edges in the given map.
+    */
+   public AStarBodyPathIterationData readBodyPathIteration(int index, Map<GraphEdge<BodyPathLatticePoint>, AStarBodyPathEdgeData> edgeDataMapToPack)
+   {
+      if (!isBodyPathData())
+         throw new IllegalStateException("This file contains footstep planner iterations");
+
+      seekIteration(index);
+
+      AStarBodyPathIterationData iterationData = new AStarBodyPathIterationData();
+      iterationData.setParentNode(FootstepPlannerLogBinaryFormat.getBodyPathNode(buffer));
+      iterationData.setParentNodeHeight(buffer.getDouble());
+
+      int numberOfEdges = buffer.getInt();
+      for (int i = 0; i < numberOfEdges; i++)
+      {
+         AStarBodyPathEdgeData edgeData = new AStarBodyPathEdgeData(numberOfVariables);
+         edgeData.setParentNode(iterationData.getParentNode());
+         edgeData.setChildNode(FootstepPlannerLogBinaryFormat.getBodyPathNode(buffer));
+         edgeData.setSolutionEdge(buffer.get() != 0);
+         edgeData.setChildSnapHeight(buffer.getDouble());
+         for (int j = 0; j < numberOfVariables; j++)
+         {
+            edgeData.setData(j, buffer.getLong());
+         }
+
+         iterationData.getChildNodes().add(edgeData.getChildNode());
+         edgeDataMapToPack.put(new GraphEdge<>(iterationData.getParentNode(), edgeData.getChildNode()), edgeData);
+      }
+
+      return iterationData;
+   }
+
+   private void seekIteration(int index)
+   {
+      if (index < 0 || index >= numberOfIterations)
+         throw new IndexOutOfBoundsException("Iteration " + index + " out of " + numberOfIterations);
+
+      buffer.position((int) buffer.getLong(indexOffset + index * Long.BYTES));
+   }
+}
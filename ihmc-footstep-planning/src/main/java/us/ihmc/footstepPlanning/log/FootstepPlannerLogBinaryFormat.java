@@ -0,0 +1,172 @@
+package us.ihmc.footstepPlanning.log;
+
+import us.ihmc.euclid.geometry.ConvexPolygon2D;
+import us.ihmc.euclid.transform.RigidBodyTransform;
+import us.ihmc.euclid.tuple2D.interfaces.Point2DReadOnly;
+import us.ihmc.euclid.tuple3D.interfaces.Tuple3DReadOnly;
+import us.ihmc.euclid.tuple4D.Quaternion;
+import us.ihmc.footstepPlanning.bodyPath.BodyPathLatticePoint;
+import us.ihmc.footstepPlanning.graphSearch.footstepSnapping.FootstepSnapData;
+import us.ihmc.footstepPlanning.graphSearch.graph.DiscreteFootstep;
+import us.ihmc.footstepPlanning.graphSearch.graph.FootstepGraphNode;
+import us.ihmc.robotics.robotSide.RobotSide;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Binary encoding of the planner iteration data files. All values are big-endian.
+ *
+ * <pre>
+ * header:  int magic, int version, int file type, int number of variables
+ * records: one per iteration
+ * footer:  long offset of each record, int number of records, int footer magic
+ * </pre>
+ *
+ * A footstep iteration is its parent, ideal and nominal ideal nodes, the parent start and end snap data, the number of edges,
+ * then for each edge the child node, whether it's a solution edge, its snap data and one long per variable.
+ * A body path iteration is its parent node and height, the number of edges, then for each edge the child node, whether it's a
+ * solution edge, its height and one long per variable.
+ *
+ * Nodes and snap data are fixed-width, apart from the vertices of the cropped foothold.
+ */
+final class FootstepPlannerLogBinaryFormat
+{
+   static final int MAGIC = 0x46504C42;
+   static final int FOOTER_MAGIC = 0x46504C45;
+   static final int VERSION = 1;
+
+   static final int FOOTSTEP_ITERATIONS = 0;
+   static final int BODY_PATH_ITERATIONS = 1;
+
+   static final int HEADER_SIZE = 4 * Integer.BYTES;
+   static final int FOOTER_SIZE = 2 * Integer.BYTES;
+   static final int NODE_SIZE = 1 + 8 * Integer.BYTES;
+   static final int BODY_PATH_NODE_SIZE = 1 + 2 * Integer.BYTES;
+   private static final int SNAP_DATA_SIZE = 14 * Double.BYTES + Integer.BYTES + Double.BYTES + Integer.BYTES;
+   private static final int VERTEX_SIZE = 2 * Double.BYTES;
+
+   private FootstepPlannerLogBinaryFormat()
+   {
+   }
+
+   static void putNode(ByteBuffer buffer, FootstepGraphNode node)
+   {
+      buffer.put((byte) (node == null ? 0 : 1));
+      if (node == null)
+      {
+         for (int i = 0; i < 8; i++)
+            buffer.putInt(0);
+      }
+      else
+      {
+         putStep(buffer, node.getFirstStep());
+         putStep(buffer, node.getSecondStep());
+      }
+   }
+
+   private static void putStep(ByteBuffer buffer, DiscreteFootstep step)
+   {
+      buffer.putInt(step.getXIndex());
+      buffer.putInt(step.getYIndex());
+      buffer.putInt(step.getYawIndex());
+      buffer.putInt(step.getRobotSide().ordinal());
+   }
+
+   static FootstepGraphNode getNode(ByteBuffer buffer)
+   {
+      boolean present = buffer.get() != 0;
+      DiscreteFootstep firstStep = getStep(buffer);
+      DiscreteFootstep secondStep = getStep(buffer);
+      return present ? new FootstepGraphNode(firstStep, secondStep) : null;
+   }
+
+   private static DiscreteFootstep getStep(ByteBuffer buffer)
+   {
+      int xIndex = buffer.getInt();
+      int yIndex = buffer.getInt();
+      int yawIndex = buffer.getInt();
+      RobotSide robotSide = RobotSide.values[buffer.getInt()];
+      return new DiscreteFootstep(xIndex, yIndex, yawIndex, robotSide);
+   }
+
+   static void putBodyPathNode(ByteBuffer buffer, BodyPathLatticePoint node)
+   {
+      buffer.put((byte) (node == null ? 0 : 1));
+      buffer.putInt(node == null ? 0 : node.getXIndex());
+      buffer.putInt(node == null ? 0 : node.getYIndex());
+   }
+
+   static BodyPathLatticePoint getBodyPathNode(ByteBuffer buffer)
+   {
+      boolean present = buffer.get() != 0;
+      int xIndex = buffer.getInt();
+      int yIndex = buffer.getInt();
+      return present ? new BodyPathLatticePoint(xIndex, yIndex) : null;
+   }
+
+   static int getSnapDataSize(FootstepSnapData snapData)
+   {
+      return SNAP_DATA_SIZE + VERTEX_SIZE * getNumberOfFootholdVertices(snapData.getCroppedFoothold());
+   }
+
+   private static int getNumberOfFootholdVertices(ConvexPolygon2D croppedFoothold)
+   {
+      return croppedFoothold.isEmpty() || croppedFoothold.containsNaN() ? 0 : croppedFoothold.getNumberOfVertices();
+   }
+
+   static void putSnapData(ByteBuffer buffer, FootstepSnapData snapData, Quaternion tempQuaternion)
+   {
+      putTransform(buffer, snapData.getSnapTransform(), tempQuaternion);
+      putTransform(buffer, snapData.getWiggleTransformInWorld(), tempQuaternion);
+      buffer.putInt(snapData.getRegionIndex());
+      buffer.putDouble(snapData.getAchievedInsideDelta());
+
+      ConvexPolygon2D croppedFoothold = snapData.getCroppedFoothold();
+      int numberOfVertices = getNumberOfFootholdVertices(croppedFoothold);
+      buffer.putInt(numberOfVertices);
+      for (int i = 0; i < numberOfVertices; i++)
+      {
+         Point2DReadOnly vertex = croppedFoothold.getVertex(i);
+         buffer.putDouble(vertex.getX());
+         buffer.putDouble(vertex.getY());
+      }
+   }
+
+   private static void putTransform(ByteBuffer buffer, RigidBodyTransform transform, Quaternion tempQuaternion)
+   {
+      tempQuaternion.set(transform.getRotation());
+      buffer.putDouble(tempQuaternion.getX());
+      buffer.putDouble(tempQuaternion.getY());
+      buffer.putDouble(tempQuaternion.getZ());
+      buffer.putDouble(tempQuaternion.getS());
+
+      Tuple3DReadOnly translation = transform.getTranslation();
+      buffer.putDouble(translation.getX());
+      buffer.putDouble(translation.getY());
+      buffer.putDouble(translation.getZ());
+   }
+
+   static void getSnapData(ByteBuffer buffer, FootstepSnapData snapDataToPack, Quaternion tempQuaternion)
+   {
+      getTransform(buffer, snapDataToPack.getSnapTransform(), tempQuaternion);
+      getTransform(buffer, snapDataToPack.getWiggleTransformInWorld(), tempQuaternion);
+      snapDataToPack.setRegionIndex(buffer.getInt());
+      snapDataToPack.setAchievedInsideDelta(buffer.getDouble());
+
+      ConvexPolygon2D croppedFoothold = snapDataToPack.getCroppedFoothold();
+      croppedFoothold.clear();
+      int numberOfVertices = buffer.getInt();
+      for (int i = 0; i < numberOfVertices; i++)
+      {
+         croppedFoothold.addVertex(buffer.getDouble(), buffer.getDouble());
+      }
+      croppedFoothold.update();
+   }
+
+   private static void getTransform(ByteBuffer buffer, RigidBodyTransform transformToPack, Quaternion tempQuaternion)
+   {
+      tempQuaternion.setUnsafe(buffer.getDouble(), buffer.getDouble(), buffer.getDouble(), buffer.getDouble());
+      transformToPack.getRotation().set(tempQuaternion);
+      transformToPack.getTranslation().set(buffer.getDouble(), buffer.getDouble(), buffer.getDouble());
+   }
+}
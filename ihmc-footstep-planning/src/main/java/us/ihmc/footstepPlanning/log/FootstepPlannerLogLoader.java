@@ -214,11 +214,91 @@ public class FootstepPlannerLogLoader
          log.getFootPolygons().put(RobotSide.LEFT, readPolygon(dataFileReader.readLine()));
          log.getFootPolygons().put(RobotSide.RIGHT, readPolygon(dataFileReader.readLine()));
 
+         dataFileReader.close();
+
          // load data file
+         File dataFile = findDataFile(logDirectory, FootstepPlannerLogger.dataFileName);
+         if (dataFile != null)
+         {
+            FootstepPlannerIterationDataReader iterationDataReader = new FootstepPlannerIterationDataReader(dataFile.toPath());
+            for (int i = 0; i < iterationDataReader.getNumberOfIterations(); i++)
+            {
+               log.getIterationData().add(iterationDataReader.readFootstepIteration(i, log.getEdgeDataMap()));
+            }
+         }
+         else
+         {
+            loadLegacyFootstepData(new File(logDirectory, FootstepPlannerLogger.legacyDataFileName), numberOfVariables);
+         }
+
+         // load body path header file
+         headerFile = new File(logDirectory, FootstepPlannerLogger.bodyPathHeaderFileName);
+         dataFileReader = new BufferedReader(new FileReader(headerFile));
+         numberOfVariables = loadVariableDescriptors(dataFileReader, log.getBodyPathVariableDescriptors());
+
          dataFileReader.close();
-         File dataFile = new File(logDirectory, FootstepPlannerLogger.dataFileName);
-         dataFileReader = new BufferedReader(new FileReader(dataFile));
 
+         // load data file
+         dataFile = findDataFile(logDirectory, FootstepPlannerLogger.astarBodyPathPlanFileName);
+         if (dataFile != null)
+         {
+            FootstepPlannerIterationDataReader iterationDataReader = new FootstepPlannerIterationDataReader(dataFile.toPath());
+            for (int i = 0; i < iterationDataReader.getNumberOfIterations(); i++)
+            {
+               log.getBodyPathIterationData().add(iterationDataReader.readBodyPathIteration(i, log.getBodyPathEdgeDataMap()));
+            }
+         }
+         else
+         {
+            loadLegacyBodyPathData(new File(logDirectory, FootstepPlannerLogger.legacyAStarBodyPathPlanFileName), numberOfVariables);
+         }
+
+         return LoadResult.LOADED;
+      }
+      catch (Exception e)
+      {
+         LogTools.error("Exception while loading log");
+         e.printStackTrace();
+         return LoadResult.ERROR;
+      }
+   }
+
+   /**
+    * Opens the footstep planner iteration data of the given log for random access, without decoding all of it. This is the
+    * preferred way to look at large logs. Returns null for logs written in the legacy text format.
+    */
+   public static FootstepPlannerIterationDataReader openFootstepIterationData(File logDirectory) throws IOException
+   {
+      File dataFile = findDataFile(logDirectory, FootstepPlannerLogger.dataFileName);
+      return dataFile == null ? null : new FootstepPlannerIterationDataReader(dataFile.toPath());
+   }
+
+   /**
+    * Opens the body path planner iteration data of the given log for random access, see {@link #openFootstepIterationData(File)}.
+    */
+   public static FootstepPlannerIterationDataReader openBodyPathIterationData(File logDirectory) throws IOException
+   {
+      File dataFile = findDataFile(logDirectory, FootstepPlannerLogger.astarBodyPathPlanFileName);
+      return dataFile == null ? null : new FootstepPlannerIterationDataReader(dataFile.toPath());
+   }
+
+   private static File findDataFile(File logDirectory, String fileName)
+   {
+      File dataFile = new File(logDirectory, fileName);
+      if (dataFile.exists())
+         return dataFile;
+
+      File compressedDataFile = new File(logDirectory, fileName + FootstepPlannerLogger.compressedFileExtension);
+      if (compressedDataFile.exists())
+         return compressedDataFile;
+
+      return null;
+   }
+
+   private void loadLegacyFootstepData(File dataFile, int numberOfVariables) throws IOException
+   {
+      try (BufferedReader dataFileReader = new BufferedReader(new FileReader(dataFile)))
+      {
          while (dataFileReader.readLine() != null)
          {
             FootstepPlannerIterationData iterationData = new FootstepPlannerIterationData();
@@ -251,18 +331,13 @@ public class FootstepPlannerLogLoader
                log.getEdgeDataMap().put(new GraphEdge<>(iterationData.getParentNode(), edgeData.getChildNode()), edgeData);
             }
          }
+      }
+   }
 
-         // load body path header file
-         dataFileReader.close();
-         headerFile = new File(logDirectory, FootstepPlannerLogger.bodyPathHeaderFileName);
-         dataFileReader = new BufferedReader(new FileReader(headerFile));
-         numberOfVariables = loadVariableDescriptors(dataFileReader, log.getBodyPathVariableDescriptors());
-
-         // load data file
-         dataFileReader.close();
-         dataFile = new File(logDirectory, FootstepPlannerLogger.astarBodyPathPlanFileName);
-         dataFileReader = new BufferedReader(new FileReader(dataFile));
-
+   private void loadLegacyBodyPathData(File dataFile, int numberOfVariables) throws IOException
+   {
+      try (BufferedReader dataFileReader = new BufferedReader(new FileReader(dataFile)))
+      {
          while (dataFileReader.readLine() != null)
          {
             AStarBodyPathIterationData iterationData = new AStarBodyPathIterationData();
@@ -292,14 +367,6 @@ public class FootstepPlannerLogLoader
                log.getBodyPathEdgeDataMap().put(new GraphEdge<>(iterationData.getParentNode(), edgeData.getChildNode()), edgeData);
             }
          }
-
-         return LoadResult.LOADED;
-      }
-      catch (Exception e)
-      {
-         LogTools.error("Exception while loading log");
-         e.printStackTrace();
-         return LoadResult.ERROR;
       }
    }
 
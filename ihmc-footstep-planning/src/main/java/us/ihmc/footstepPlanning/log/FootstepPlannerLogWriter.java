@@ -0,0 +1,339 @@
+package us.ihmc.footstepPlanning.log;
+
+import gnu.trove.list.array.TLongArrayList;
+import us.ihmc.commons.nio.FileTools;
+import us.ihmc.commons.thread.ThreadTools;
+import us.ihmc.log.LogTools;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes the files of footstep planner logs on a background thread, so that logging doesn't keep the planning thread on disk access.
+ *
+ * Binary files are encoded by the calling thread into fixed size chunks, which are handed to the writer thread through a bounded
+ * queue. When all chunks are pending, the calling thread waits for the writer thread to release one, which bounds the memory used
+ * by pending logs. Binary files are optionally gzip compressed by the writer thread.
+ *
+ * A single writer, see {@link #getInstance()}, is shared by all the loggers of the process. It is started by the first logger, and
+ * its thread, chunks and shutdown hook live until the JVM exits.
+ */
+class FootstepPlannerLogWriter
+{
+   static final int CHUNK_SIZE = 1 << 16;
+   // Maximum number of chunks of binary data waiting to be written, shared by all loggers
+   private static final int MAX_PENDING_CHUNKS = 64;
+   private static final int MAX_PENDING_FILES = 16;
+
+   private final BlockingQueue<Runnable> taskQueue;
+   private final BlockingQueue<Chunk> freeChunks;
+
+   private static class InstanceHolder
+   {
+      private static final FootstepPlannerLogWriter instance = new FootstepPlannerLogWriter(MAX_PENDING_CHUNKS);
+   }
+
+   /**
+    * @return the writer shared by all loggers, started on the first call
+    */
+   static FootstepPlannerLogWriter getInstance()
+   {
+      return InstanceHolder.instance;
+   }
+
+   FootstepPlannerLogWriter(int numberOfChunks)
+   {
+      taskQueue = new ArrayBlockingQueue<>(numberOfChunks + MAX_PENDING_FILES);
+      freeChunks = new ArrayBlockingQueue<>(numberOfChunks);
+      for (int i = 0; i < numberOfChunks; i++)
+      {
+         freeChunks.add(new Chunk());
+      }
+
+      ThreadTools.startAsDaemon(this::runWriter, getClass().getSimpleName());
+      // pending logs are written before the JVM exits
+      Runtime.getRuntime().addShutdownHook(new Thread(this::waitForPendingTasks, getClass().getSimpleName() + "ShutdownHook"));
+   }
+
+   /**
+    * Queues a file to be written with the given contents
+    *
+    * @param writeFailed set if writing the file fails
+    */
+   void writeFile(Path file, byte[] contents, AtomicBoolean writeFailed)
+   {
+      submit(() ->
+             {
+                try
+                {
+                   FileTools.ensureFileExists(file);
+                   Files.write(file, contents);
+                }
+                catch (IOException e)
+                {
+                   LogTools.error("Error writing {}: {}", file, e.getMessage());
+                   writeFailed.set(true);
+                }
+             });
+   }
+
+   /**
+    * Starts a binary file, which is written as its chunks fill up, until it is closed.
+    *
+    * @param writeFailed set if writing the file fails
+    */
+   BinaryFile openBinaryFile(Path file, boolean compress, int fileType, int numberOfVariables, AtomicBoolean writeFailed)
+   {
+      FileChannelHolder channelHolder = new FileChannelHolder(writeFailed);
+      submit(() -> channelHolder.open(file, compress));
+
+      BinaryFile binaryFile = new BinaryFile(channelHolder);
+      ByteBuffer buffer = binaryFile.reserve(FootstepPlannerLogBinaryFormat.HEADER_SIZE);
+      buffer.putInt(FootstepPlannerLogBinaryFormat.MAGIC);
+      buffer.putInt(FootstepPlannerLogBinaryFormat.VERSION);
+      buffer.putInt(fileType);
+      buffer.putInt(numberOfVariables);
+      return binaryFile;
+   }
+
+   /**
+    * Waits until all the files queued so far, by any logger, are written.
+    *
+    * @param writeFailed the error flag given when queuing files, which is reset
+    * @return false if an error occurred while writing any file queued with this flag since the last call
+    */
+   boolean flush(AtomicBoolean writeFailed)
+   {
+      waitForPendingTasks();
+      return !writeFailed.getAndSet(false);
+   }
+
+   private void waitForPendingTasks()
+   {
+      CountDownLatch latch = new CountDownLatch(1);
+      submit(latch::countDown);
+
+      try
+      {
+         latch.await();
+      }
+      catch (InterruptedException e)
+      {
+         Thread.currentThread().interrupt();
+      }
+   }
+
+   private void submit(Runnable task)
+   {
+      try
+      {
+         taskQueue.put(task);
+      }
+      catch (InterruptedException e)
+      {
+         throw new RuntimeException(e);
+      }
+   }
+
+   private void runWriter()
+   {
+      while (true)
+      {
+         try
+         {
+            taskQueue.take().run();
+         }
+         catch (InterruptedException e)
+         {
+            return;
+         }
+      }
+   }
+
+   /**
+    * Channel of a binary file, only accessed by the writer thread
+    */
+   private static class FileChannelHolder
+   {
+      private final AtomicBoolean writeFailed;
+      private WritableByteChannel channel = null;
+
+      FileChannelHolder(AtomicBoolean writeFailed)
+      {
+         this.writeFailed = writeFailed;
+      }
+
+      void open(Path file, boolean compress)
+      {
+         try
+         {
+            FileTools.ensureFileExists(file);
+            if (compress)
+            {
+               GZIPOutputStream outputStream = new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(file), CHUNK_SIZE), CHUNK_SIZE);
+               channel = Channels.newChannel(outputStream);
+            }
+            else
+            {
+               channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            }
+         }
+         catch (IOException e)
+         {
+            LogTools.error("Error opening {}: {}", file, e.getMessage());
+            writeFailed.set(true);
+            channel = null;
+         }
+      }
+
+      void write(ByteBuffer buffer)
+      {
+         if (channel == null)
+            return;
+
+         try
+         {
+            while (buffer.hasRemaining())
+               channel.write(buffer);
+         }
+         catch (IOException e)
+         {
+            LogTools.error("Error writing log file: {}", e.getMessage());
+            writeFailed.set(true);
+            close();
+         }
+      }
+
+      void close()
+      {
+         if (channel == null)
+            return;
+
+         try
+         {
+            channel.close();
+         }
+         catch (IOException e)
+         {
+            LogTools.error("Error closing log file: {}", e.getMessage());
+            writeFailed.set(true);
+         }
+
+         channel = null;
+      }
+   }
+
+   private class Chunk implements Runnable
+   {
+      private final ByteBuffer buffer = ByteBuffer.allocate(CHUNK_SIZE);
+      /* File the chunk is written to, set when it is submitted */
+      private FileChannelHolder channelHolder;
+
+      @Override
+      public void run()
+      {
+         try
+         {
+            buffer.flip();
+            channelHolder.write(buffer);
+         }
+         finally
+         {
+            buffer.clear();
+            channelHolder = null;
+            freeChunks.add(this);
+         }
+      }
+   }
+
+   /**
+    * Binary file being encoded by the calling thread. Values are put in the buffers returned by {@link #reserve(int)}.
+    */
+   class BinaryFile
+   {
+      private final FileChannelHolder channelHolder;
+      private final TLongArrayList recordOffsets = new TLongArrayList();
+      private Chunk chunk = null;
+      private long submittedBytes = 0;
+
+      private BinaryFile(FileChannelHolder channelHolder)
+      {
+         this.channelHolder = channelHolder;
+      }
+
+      /**
+       * @return a buffer with at least the given number of bytes remaining, exactly that many must be put in it
+       */
+      ByteBuffer reserve(int numberOfBytes)
+      {
+         if (numberOfBytes > CHUNK_SIZE)
+            throw new IllegalArgumentException("Can't reserve " + numberOfBytes + " bytes, the chunk size is " + CHUNK_SIZE);
+
+         if (chunk != null && chunk.buffer.remaining() < numberOfBytes)
+            submitChunk();
+
+         if (chunk == null)
+         {
+            try
+            {
+               chunk = freeChunks.take();
+            }
+            catch (InterruptedException e)
+            {
+               throw new RuntimeException(e);
+            }
+         }
+
+         return chunk.buffer;
+      }
+
+      /**
+       * Marks the start of a record, which the reader can seek to
+       */
+      void startRecord()
+      {
+         recordOffsets.add(submittedBytes + (chunk == null ? 0 : chunk.buffer.position()));
+      }
+
+      /**
+       * Writes the record index and closes the file
+       */
+      void close()
+      {
+         for (int i = 0; i < recordOffsets.size(); i++)
+         {
+            reserve(Long.BYTES).putLong(recordOffsets.get(i));
+         }
+
+         ByteBuffer buffer = reserve(FootstepPlannerLogBinaryFormat.FOOTER_SIZE);
+         buffer.putInt(recordOffsets.size());
+         buffer.putInt(FootstepPlannerLogBinaryFormat.FOOTER_MAGIC);
+
+         submitChunk();
+         submit(channelHolder::close);
+      }
+
+      private void submitChunk()
+      {
+         if (chunk == null)
+            return;
+
+         submittedBytes += chunk.buffer.position();
+         chunk.channelHolder = channelHolder;
+         submit(chunk);
+         chunk = null;
+      }
+   }
+}
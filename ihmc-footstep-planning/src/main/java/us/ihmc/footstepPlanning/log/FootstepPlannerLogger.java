@@ -9,18 +9,12 @@ import us.ihmc.commons.nio.FileTools;
 import us.ihmc.communication.property.StoredPropertySetMessageTools;
 import us.ihmc.euclid.geometry.ConvexPolygon2D;
 import us.ihmc.euclid.tools.EuclidCoreIOTools;
-import us.ihmc.euclid.transform.RigidBodyTransform;
 import us.ihmc.euclid.tuple2D.interfaces.Point2DReadOnly;
 import us.ihmc.euclid.tuple2D.interfaces.Tuple2DReadOnly;
-import us.ihmc.euclid.tuple3D.interfaces.Tuple3DReadOnly;
 import us.ihmc.euclid.tuple4D.Quaternion;
-import us.ihmc.euclid.tuple4D.interfaces.QuaternionReadOnly;
 import us.ihmc.footstepPlanning.FootstepPlanningModule;
-import us.ihmc.footstepPlanning.bodyPath.BodyPathLatticePoint;
 import us.ihmc.footstepPlanning.communication.FootstepPlannerMessagerAPI;
 import us.ihmc.footstepPlanning.graphSearch.footstepSnapping.FootstepSnapData;
-import us.ihmc.footstepPlanning.graphSearch.graph.DiscreteFootstep;
-import us.ihmc.footstepPlanning.graphSearch.graph.FootstepGraphNode;
 import us.ihmc.footstepPlanning.tools.FootstepPlannerMessageTools;
 import us.ihmc.idl.serializers.extra.JSONSerializer;
 import us.ihmc.log.LogTools;
@@ -37,6 +31,8 @@ import us.ihmc.yoVariables.variable.YoVariable;
 import us.ihmc.yoVariables.variable.YoVariableType;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -45,6 +41,14 @@ import java.util.*;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Stream;
 
+/**
+ * Logs the request, parameters, output and iteration data of the last plan of a {@link FootstepPlanningModule}.
+ *
+ * The planner data is encoded in a binary format on the calling thread, see {@link FootstepPlannerLogBinaryFormat}, and written
+ * to disk by a background thread, see {@link FootstepPlannerLogWriter}. The logSession methods wait for the files to be on disk
+ * before returning, the logSessionAsync methods return once the log is encoded, in which case use {@link #waitForLogsToBeWritten()}
+ * before reading the log back from the same process.
+ */
 public class FootstepPlannerLogger
 {
    private static final SimpleDateFormat directoryDateFormat = new SimpleDateFormat("yyyyMMdd");
@@ -79,15 +83,22 @@ public class FootstepPlannerLogger
    static final String statusPacketFileName = "StatusPacket.json";
    static final String headerFileName = "Header.txt";
    static final String bodyPathHeaderFileName = "BodyPathHeader.txt";
-   static final String dataFileName = "PlannerIterationData.log";
-   static final String astarBodyPathPlanFileName = "AStarBodyPathPlanData.log";
+   static final String dataFileName = "PlannerIterationData.bin";
+   static final String astarBodyPathPlanFileName = "AStarBodyPathPlanData.bin";
+   static final String compressedFileExtension = ".gz";
+   // Text data files written by earlier versions, which the loader still reads
+   static final String legacyDataFileName = "PlannerIterationData.log";
+   static final String legacyAStarBodyPathPlanFileName = "AStarBodyPathPlanData.log";
 
    private final FootstepPlanningModule planner;
    private final AtomicBoolean generatingLog = new AtomicBoolean();
    private String latestLogDirectory;
-   private FileOutputStream outputStream = null;
-   private PrintStream printStream = null;
-   private FileWriter fileWriter = null;
+   private Writer fileWriter = null;
+   private final FootstepPlannerLogWriter logWriter = FootstepPlannerLogWriter.getInstance();
+   private final AtomicBoolean writeFailed = new AtomicBoolean();
+   private boolean compressionEnabled = false;
+   private final List<FootstepPlannerEdgeData> edgeDataToLog = new ArrayList<>();
+   private final Quaternion tempQuaternion = new Quaternion();
 
    private final FootstepPlanningRequestPacket requestPacket = new FootstepPlanningRequestPacket();
    private final FootstepPlannerParametersPacket footstepParametersPacket = new FootstepPlannerParametersPacket();
@@ -200,16 +211,44 @@ public class FootstepPlannerLogger
     * <p> Contents of the log file include: json of footstep parameters packet, json of visibility parameters packet, json of request packet,
     * json of terminal output packet, log file containing graph structure and data
     *
-    * @return if the logger succeeded
+    * <p> Waits for the files to be written to disk, see {@link #logSessionAsync(String)} to only wait for the log to be encoded.
+    *
+    * @return if the logger succeeded in writing the log
     */
    public boolean logSession(String logDirectory)
    {
-      String logDirectoryWithDate = logDirectory + File.separator + directoryDateFormat.format(new Date());
-      String sessionDirectory = generateALogFolderName(logDirectoryWithDate);
-      return logSessionWithExactFolderName(sessionDirectory);
+      return logSessionWithExactFolderName(generateADatedLogFolderName(logDirectory));
    }
 
    public boolean logSessionWithExactFolderName(String sessionDirectory)
+   {
+      return logSessionWithExactFolderNameAsync(sessionDirectory) && waitForLogsToBeWritten();
+   }
+
+   public boolean logSessionAsync()
+   {
+      return logSessionAsync(defaultLogsDirectory);
+   }
+
+   /**
+    * Same as {@link #logSession(String)}, but returns once the log is encoded. Its files are written by a background thread and might
+    * not be on disk yet, call {@link #waitForLogsToBeWritten()} when they are needed, e.g. to read them back or report them. Pending
+    * logs are still written if the process exits.
+    *
+    * @return if the logger succeeded in encoding the log, errors writing the files are reported by {@link #waitForLogsToBeWritten()}
+    */
+   public boolean logSessionAsync(String logDirectory)
+   {
+      return logSessionWithExactFolderNameAsync(generateADatedLogFolderName(logDirectory));
+   }
+
+   private static String generateADatedLogFolderName(String logDirectory)
+   {
+      String logDirectoryWithDate = logDirectory + File.separator + directoryDateFormat.format(new Date());
+      return generateALogFolderName(logDirectoryWithDate);
+   }
+
+   public boolean logSessionWithExactFolderNameAsync(String sessionDirectory)
    {
       LogTools.info("Logging Session: " + sessionDirectory);
       latestLogDirectory = sessionDirectory;
@@ -217,142 +256,119 @@ public class FootstepPlannerLogger
       try
       {
          // log request packet
-         String requestPacketFile = sessionDirectory + requestPacketFileName;
          planner.getRequest().setPacket(requestPacket);
-         byte[] serializedRequest = requestPacketSerializer.serializeToBytes(requestPacket);
-         writeToFile(requestPacketFile, serializedRequest);
+         logWriter.writeFile(Paths.get(sessionDirectory + requestPacketFileName), requestPacketSerializer.serializeToBytes(requestPacket), writeFailed);
 
          // log footstep planner parameters packet
-         String footstepParametersPacketFile = sessionDirectory + footstepParametersFileName;
          FootstepPlannerMessageTools.copyParametersToPacket(footstepParametersPacket, planner.getFootstepPlannerParameters());
-         byte[] serializedFootstepParameters = footstepParametersPacketSerializer.serializeToBytes(footstepParametersPacket);
-         writeToFile(footstepParametersPacketFile, serializedFootstepParameters);
+         logWriter.writeFile(Paths.get(sessionDirectory + footstepParametersFileName), footstepParametersPacketSerializer.serializeToBytes(footstepParametersPacket), writeFailed);
 
          // log body path planner parameters packet
-         String bodyPathParametersPacketFile = sessionDirectory + bodyPathParametersFileName;
          StoredPropertySetMessageTools.toMessage(bodyPathParametersPacket, planner.getAStarBodyPathPlannerParameters());
-         byte[] serializedBodyPathParameters = bodyPathParametersPacketSerializer.serializeToBytes(bodyPathParametersPacket);
-         writeToFile(bodyPathParametersPacketFile, serializedBodyPathParameters);
+         logWriter.writeFile(Paths.get(sessionDirectory + bodyPathParametersFileName), bodyPathParametersPacketSerializer.serializeToBytes(bodyPathParametersPacket), writeFailed);
 
          // log swing parameters packet
-         String swingParametersPacketFile = sessionDirectory + swingParametersFileName;
          swingPlannerParametersPacket.set(planner.getSwingPlannerParameters().getAsPacket());
-         byte[] serializedSwingParameters = swingPlannerParametersPacketSerializer.serializeToBytes(swingPlannerParametersPacket);
-         writeToFile(swingParametersPacketFile, serializedSwingParameters);
+         logWriter.writeFile(Paths.get(sessionDirectory + swingParametersFileName), swingPlannerParametersPacketSerializer.serializeToBytes(swingPlannerParametersPacket), writeFailed);
 
          // log status packet
-         String statusPacketFile = sessionDirectory + statusPacketFileName;
          planner.getOutput().setPacket(outputStatus);
-         byte[] serializedStatus = statusPacketSerializer.serializeToBytes(outputStatus);
-         writeToFile(statusPacketFile, serializedStatus);
+         logWriter.writeFile(Paths.get(sessionDirectory + statusPacketFileName), statusPacketSerializer.serializeToBytes(outputStatus), writeFailed);
       }
       catch (Exception e)
       {
          LogTools.error("Error generating log");
-         outputStream = null;
-         printStream = null;
          e.printStackTrace();
          return false;
       }
 
       // log planner iteration header file
+      int numberOfVariables;
       try
       {
-         File plannerHeaderFile = new File(sessionDirectory + headerFileName);
-         FileTools.ensureFileExists(plannerHeaderFile.toPath());
-         fileWriter = new FileWriter(plannerHeaderFile);
+         fileWriter = new StringWriter();
 
-         logVariableDescriptors(planner.getAStarPlannerRegistry());
+         numberOfVariables = logVariableDescriptors(planner.getAStarPlannerRegistry());
          SideDependentList<ConvexPolygon2D> footPolygons = planner.getFootPolygons();
          for (RobotSide robotSide : RobotSide.values)
          {
             writeFootPolygon(0, robotSide.getLowerCaseName() + "FootPolygon:", footPolygons.get(robotSide));
          }
 
-         fileWriter.flush();
+         logWriter.writeFile(Paths.get(sessionDirectory + headerFileName), fileWriter.toString().getBytes(StandardCharsets.UTF_8), writeFailed);
       }
       catch (Exception e)
       {
          LogTools.error("Error logging header file");
-         fileWriter = null;
-         outputStream = null;
-         printStream = null;
          e.printStackTrace();
          return false;
       }
 
       // log body path planner iteration header file
+      int numberOfBodyPathVariables;
       try
       {
-         File plannerHeaderFile = new File(sessionDirectory + bodyPathHeaderFileName);
-         FileTools.ensureFileExists(plannerHeaderFile.toPath());
-         fileWriter = new FileWriter(plannerHeaderFile);
+         fileWriter = new StringWriter();
 
-         logVariableDescriptors(planner.getBodyPathPlannerRegistry());
-         fileWriter.flush();
+         numberOfBodyPathVariables = logVariableDescriptors(planner.getBodyPathPlannerRegistry());
+         logWriter.writeFile(Paths.get(sessionDirectory + bodyPathHeaderFileName), fileWriter.toString().getBytes(StandardCharsets.UTF_8), writeFailed);
       }
       catch (Exception e)
       {
          LogTools.error("Error logging header file");
-         fileWriter = null;
-         outputStream = null;
-         printStream = null;
          e.printStackTrace();
          return false;
       }
 
       // Log footstep planner iteration data
-      String plannerIterationDataFileName = sessionDirectory + dataFileName;
       try
       {
-         File plannerDataFile = new File(plannerIterationDataFileName);
-         FileTools.ensureFileExists(plannerDataFile.toPath());
-         fileWriter = new FileWriter(plannerIterationDataFileName);
+         Path plannerDataFile = Paths.get(sessionDirectory + dataFileName + (compressionEnabled ? compressedFileExtension : ""));
+         FootstepPlannerLogWriter.BinaryFile binaryFile = logWriter.openBinaryFile(plannerDataFile,
+                                                                                  compressionEnabled,
+                                                                                  FootstepPlannerLogBinaryFormat.FOOTSTEP_ITERATIONS,
+                                                                                  numberOfVariables,
+                                                                                  writeFailed);
 
          List<FootstepPlannerIterationData> iterationDataList = planner.getIterationData();
          for (int i = 0; i < iterationDataList.size(); i++)
          {
             FootstepPlannerIterationData iterationData = iterationDataList.get(i);
-            fileWriter.write("Iteration " + i + newLine);
-            writeNode(1, "parentNode", iterationData.getParentNode());
-            writeNode(1, "idealStep", iterationData.getIdealChildNode());
-            writeNode(1, "nominalIdealStep", iterationData.getNominalIdealChildNode());
-            writeLine(1, "edges:" + iterationData.getChildNodes().size());
-            writeSnapData(1, iterationData.getParentStartSnapData());
-            writeSnapData(1, iterationData.getParentEndSnapData());
+            binaryFile.startRecord();
+
+            ByteBuffer buffer = binaryFile.reserve(3 * FootstepPlannerLogBinaryFormat.NODE_SIZE);
+            FootstepPlannerLogBinaryFormat.putNode(buffer, iterationData.getParentNode());
+            FootstepPlannerLogBinaryFormat.putNode(buffer, iterationData.getIdealChildNode());
+            FootstepPlannerLogBinaryFormat.putNode(buffer, iterationData.getNominalIdealChildNode());
+            writeSnapData(binaryFile, iterationData.getParentStartSnapData());
+            writeSnapData(binaryFile, iterationData.getParentEndSnapData());
 
+            edgeDataToLog.clear();
             for (int j = 0; j < iterationData.getChildNodes().size(); j++)
             {
                FootstepPlannerEdgeData edgeData = planner.getEdgeDataMap()
                                                          .get(new GraphEdge<>(iterationData.getParentNode(), iterationData.getChildNodes().get(j)));
                if (edgeData != null) // Sometimes it's not there. Not sure if that's expected. TODO: Verify. @dcalvert
-               {
-                  // indicate start of data
-                  writeLine(1, "Edge:");
-                  writeNode(2, "candidateNode", edgeData.getChildNode());
-                  writeLine(2, "solutionEdge:" + edgeData.isSolutionEdge());
-                  writeSnapData(2, edgeData.getEndStepSnapData());
-
-                  // write additional data as doubles
-                  fileWriter.write(tab + tab + "data:");
-                  long[] dataBuffer = edgeData.getDataBuffer();
-                  for (int k = 0; k < dataBuffer.length; k++)
-                  {
-                     fileWriter.write(dataBuffer[k] + (k == dataBuffer.length - 1 ? "" : ","));
-                  }
-                  fileWriter.write(newLine);
-               }
+                  edgeDataToLog.add(edgeData);
+            }
+
+            binaryFile.reserve(Integer.BYTES).putInt(edgeDataToLog.size());
+            for (int j = 0; j < edgeDataToLog.size(); j++)
+            {
+               FootstepPlannerEdgeData edgeData = edgeDataToLog.get(j);
+               buffer = binaryFile.reserve(FootstepPlannerLogBinaryFormat.NODE_SIZE + 1);
+               FootstepPlannerLogBinaryFormat.putNode(buffer, edgeData.getChildNode());
+               buffer.put((byte) (edgeData.isSolutionEdge() ? 1 : 0));
+               writeSnapData(binaryFile, edgeData.getEndStepSnapData());
+               writeData(binaryFile, edgeData.getDataBuffer(), numberOfVariables);
             }
          }
 
-         fileWriter.flush();
+         binaryFile.close();
       }
       catch (Exception e)
       {
          LogTools.error("Error logging footstep planner data");
-         fileWriter = null;
-         outputStream = null;
-         printStream = null;
          e.printStackTrace();
          return false;
       }
@@ -360,18 +376,23 @@ public class FootstepPlannerLogger
       // Log body path planner iteration data
       try
       {
-         File plannerDataFile = new File(sessionDirectory + astarBodyPathPlanFileName);
-         FileTools.ensureFileExists(plannerDataFile.toPath());
-         fileWriter = new FileWriter(sessionDirectory + astarBodyPathPlanFileName);
+         Path bodyPathDataFile = Paths.get(sessionDirectory + astarBodyPathPlanFileName + (compressionEnabled ? compressedFileExtension : ""));
+         FootstepPlannerLogWriter.BinaryFile binaryFile = logWriter.openBinaryFile(bodyPathDataFile,
+                                                                                  compressionEnabled,
+                                                                                  FootstepPlannerLogBinaryFormat.BODY_PATH_ITERATIONS,
+                                                                                  numberOfBodyPathVariables,
+                                                                                  writeFailed);
 
          List<AStarBodyPathIterationData> iterationDataList = planner.getBodyPathIterationData();
          for (int i = 0; i < iterationDataList.size(); i++)
          {
             AStarBodyPathIterationData iterationData = iterationDataList.get(i);
-            fileWriter.write("Iteration " + i + newLine);
-            writeNode(1, "parentNode", iterationData.getParentNode());
-            writeLine(1, "edges:" + iterationData.getChildNodes().size());
-            writeLine(1, "height:" + iterationData.getParentNodeHeight());
+            binaryFile.startRecord();
+
+            ByteBuffer buffer = binaryFile.reserve(FootstepPlannerLogBinaryFormat.BODY_PATH_NODE_SIZE + Double.BYTES + Integer.BYTES);
+            FootstepPlannerLogBinaryFormat.putBodyPathNode(buffer, iterationData.getParentNode());
+            buffer.putDouble(iterationData.getParentNodeHeight());
+            buffer.putInt(iterationData.getChildNodes().size());
 
             for (int j = 0; j < iterationData.getChildNodes().size(); j++)
             {
@@ -379,36 +400,23 @@ public class FootstepPlannerLogger
                                                        .get(new GraphEdge<>(iterationData.getParentNode(), iterationData.getChildNodes().get(j)));
                if (edgeData == null)
                {
-                  System.out.println();
                   throw new RuntimeException(
                         "No edge data!" + "\n Parent: " + iterationData.getParentNode() + "\n Child: " + iterationData.getChildNodes().get(j));
                }
 
-               // indicate start of data
-               writeLine(1, "Edge:");
-               writeNode(2, "candidateNode", edgeData.getChildNode());
-               writeLine(2, "solutionEdge:" + edgeData.isSolutionEdge());
-               writeLine(2, "height:" + edgeData.getChildSnapHeight());
-
-               // write additional data as doubles
-               fileWriter.write(tab + tab + "data:");
-               long[] dataBuffer = edgeData.getDataBuffer();
-               for (int k = 0; k < dataBuffer.length; k++)
-               {
-                  fileWriter.write(dataBuffer[k] + (k == dataBuffer.length - 1 ? "" : ","));
-               }
-               fileWriter.write(newLine);
+               buffer = binaryFile.reserve(FootstepPlannerLogBinaryFormat.BODY_PATH_NODE_SIZE + 1 + Double.BYTES);
+               FootstepPlannerLogBinaryFormat.putBodyPathNode(buffer, edgeData.getChildNode());
+               buffer.put((byte) (edgeData.isSolutionEdge() ? 1 : 0));
+               buffer.putDouble(edgeData.getChildSnapHeight());
+               writeData(binaryFile, edgeData.getDataBuffer(), numberOfBodyPathVariables);
             }
          }
 
-         fileWriter.flush();
+         binaryFile.close();
       }
       catch (Exception e)
       {
          LogTools.error("Error logging body path planner data");
-         fileWriter = null;
-         outputStream = null;
-         printStream = null;
          e.printStackTrace();
          return false;
       }
@@ -416,7 +424,41 @@ public class FootstepPlannerLogger
       return true;
    }
 
-   private void logVariableDescriptors(YoRegistry registry) throws IOException
+   /**
+    * Waits until the logs are written to disk. Logs are written on a background thread, so this is only needed before reading them
+    * back from the same process.
+    *
+    * @return false if an error occurred while writing logs since the last call
+    */
+   public boolean waitForLogsToBeWritten()
+   {
+      return logWriter.flush(writeFailed);
+   }
+
+   /**
+    * Whether the planner iteration data files are gzip compressed. They are smaller, but the log loader has to inflate them in memory.
+    */
+   public void setCompressionEnabled(boolean compressionEnabled)
+   {
+      this.compressionEnabled = compressionEnabled;
+   }
+
+   private void writeSnapData(FootstepPlannerLogWriter.BinaryFile binaryFile, FootstepSnapData snapData)
+   {
+      ByteBuffer buffer = binaryFile.reserve(FootstepPlannerLogBinaryFormat.getSnapDataSize(snapData));
+      FootstepPlannerLogBinaryFormat.putSnapData(buffer, snapData, tempQuaternion);
+   }
+
+   private static void writeData(FootstepPlannerLogWriter.BinaryFile binaryFile, long[] dataBuffer, int numberOfVariables)
+   {
+      ByteBuffer buffer = binaryFile.reserve(numberOfVariables * Long.BYTES);
+      for (int k = 0; k < numberOfVariables; k++)
+      {
+         buffer.putLong(k < dataBuffer.length ? dataBuffer[k] : 0L);
+      }
+   }
+
+   private int logVariableDescriptors(YoRegistry registry) throws IOException
    {
       Map<Class<?>, Integer> enumIndexMap = new HashMap<>();
       List<YoVariable> allVariables = registry.collectSubtreeVariables();
@@ -478,92 +520,8 @@ public class FootstepPlannerLogger
 
          fileWriter.write(newLine);
       }
-   }
-
-   /**
-    * This method writes the contents of a file to the filePath specified.
-    * This method is intended to be optimized to run as fast as possible
-    */
-   private void writeToFile(String file, byte[] fileContents) throws Exception
-   {
-      Path filePath = Paths.get(file);
-      FileTools.ensureFileExists(filePath);
-
-      // This uses a try-with-resources to make sure the BufferedOutputStream is closed properly
-      try (BufferedOutputStream bufferedOutputStream = new BufferedOutputStream(new FileOutputStream(filePath.toFile())))
-      {
-         bufferedOutputStream.write(fileContents);
-         bufferedOutputStream.flush();
-      }
-      catch (IOException e)
-      {
-         System.err.println("Error writing to file: " + e.getMessage());
-         e.printStackTrace();
-      }
-   }
 
-   private void writeNode(int numTabs, String name, BodyPathLatticePoint node) throws IOException
-   {
-      if (node == null)
-      {
-         writeLine(numTabs, name + ":null");
-      }
-      else
-      {
-         writeLine(numTabs, name + ":" + node.getXIndex() + "," + node.getYIndex());
-      }
-   }
-
-   private void writeNode(int numTabs, String name, FootstepGraphNode node) throws IOException
-   {
-      if (node == null)
-      {
-         writeLine(numTabs, name + ":null");
-      }
-      else
-      {
-         DiscreteFootstep firstStep = node.getFirstStep();
-         DiscreteFootstep secondStep = node.getSecondStep();
-         writeLine(numTabs,
-                   name + ":" + firstStep.getXIndex() + "," + firstStep.getYIndex() + "," + firstStep.getYawIndex() + "," + firstStep.getRobotSide().ordinal()
-                   + "," + secondStep.getXIndex() + "," + secondStep.getYIndex() + "," + secondStep.getYawIndex() + "," + secondStep.getRobotSide().ordinal());
-      }
-   }
-
-   private void writeSnapData(int numTabs, FootstepSnapData snapData) throws IOException
-   {
-      RigidBodyTransform snapTransform = snapData.getSnapTransform();
-      writeTransform(numTabs, "snapTransform: ", new Quaternion(snapTransform.getRotation()), snapTransform.getTranslation());
-      RigidBodyTransform wiggleTransform = snapData.getWiggleTransformInWorld();
-      writeTransform(numTabs, "wiggleTransform: ", new Quaternion(wiggleTransform.getRotation()), wiggleTransform.getTranslation());
-
-      ConvexPolygon2D croppedFoothold = snapData.getCroppedFoothold();
-      if (croppedFoothold.isEmpty() || croppedFoothold.containsNaN())
-      {
-         writeLine(numTabs, "croppedFoothold: null");
-      }
-      else
-      {
-         writeFootPolygon(numTabs, "croppedFoothold:", croppedFoothold);
-      }
-
-      int regionIndex = snapData.getRegionIndex();
-      writeLine(numTabs, "regionIndex:" + regionIndex);
-      writeLine(numTabs, "deltaInside:" + snapData.getAchievedInsideDelta());
-   }
-
-   private void writeTransform(int numTabs, String name, QuaternionReadOnly orientation, Tuple3DReadOnly translation) throws IOException
-   {
-      writeLine(numTabs,
-                name + EuclidCoreIOTools.getStringOf(",",
-                                                     EuclidCoreIOTools.getStringFormat(8, 8),
-                                                     orientation.getX(),
-                                                     orientation.getY(),
-                                                     orientation.getZ(),
-                                                     orientation.getS(),
-                                                     translation.getX(),
-                                                     translation.getY(),
-                                                     translation.getZ()));
+      return allVariables.size();
    }
 
    private void writeFootPolygon(int numTabs, String name, ConvexPolygon2D footPolygon) throws IOException
@@ -1,10 +1,12 @@
 package us.ihmc.footstepPlanning.polygonSnapping;
 
+import us.ihmc.euclid.geometry.interfaces.BoundingBox2DReadOnly;
 import us.ihmc.euclid.geometry.interfaces.ConvexPolygon2DReadOnly;
 import us.ihmc.euclid.transform.RigidBodyTransform;
 import us.ihmc.euclid.tuple3D.Point3D;
 import us.ihmc.robotics.geometry.PlanarRegion;
 import us.ihmc.robotics.geometry.PlanarRegionTools;
+import us.ihmc.robotics.geometry.PlanarRegionsList;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -14,6 +16,7 @@ import static us.ihmc.footstepPlanning.polygonSnapping.PlanarRegionsListPolygonS
 
 public class GarbageFreePlanarRegionListPolygonSnapper
 {
+   private final List<PlanarRegion> candidateRegions = new ArrayList<>();
    private final List<PlanarRegion> intersectingRegions = new ArrayList<>();
 
    private final GarbageFreePlanarRegionPolygonSnapper polygonSnapper = new GarbageFreePlanarRegionPolygonSnapper();
@@ -22,6 +25,34 @@ public class GarbageFreePlanarRegionListPolygonSnapper
    private final RigidBodyTransform highestTransform = new RigidBodyTransform();
    private final Point3D highestVertexInWorld = new Point3D();
 
+   /**
+    * Same as {@link #snapPolygonToPlanarRegionsList(ConvexPolygon2DReadOnly, List, double, PlanarRegion, RigidBodyTransform)} but
+    * only tests the regions which bounds overlap the polygon, using the spatial index of the list.
+    */
+   public boolean snapPolygonToPlanarRegionsList(ConvexPolygon2DReadOnly polygonToSnap,
+                                                 PlanarRegionsList planarRegionsListToSnapTo,
+                                                 double maximumRegionHeightToConsider,
+                                                 PlanarRegion regionToPack,
+                                                 RigidBodyTransform snapTransformToPack)
+   {
+      if (polygonToSnap.isEmpty())
+      {
+         return snapPolygonToPlanarRegionsList(polygonToSnap,
+                                               planarRegionsListToSnapTo.getPlanarRegionsAsList(),
+                                               maximumRegionHeightToConsider,
+                                               regionToPack,
+                                               snapTransformToPack);
+      }
+
+      BoundingBox2DReadOnly boundingBox = polygonToSnap.getBoundingBox();
+      planarRegionsListToSnapTo.findCandidatePlanarRegions(boundingBox.getMinX(),
+                                                           boundingBox.getMinY(),
+                                                           boundingBox.getMaxX(),
+                                                           boundingBox.getMaxY(),
+                                                           candidateRegions);
+      return snapPolygonToPlanarRegionsList(polygonToSnap, candidateRegions, maximumRegionHeightToConsider, regionToPack, snapTransformToPack);
+   }
+
    public boolean snapPolygonToPlanarRegionsList(ConvexPolygon2DReadOnly polygonToSnap,
                                                  List<PlanarRegion> planarRegionsListToSnapTo,
                                                  double maximumRegionHeightToConsider,
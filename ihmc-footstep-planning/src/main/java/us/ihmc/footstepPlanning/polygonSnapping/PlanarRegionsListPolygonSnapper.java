@@ -42,13 +42,18 @@ public class PlanarRegionsListPolygonSnapper
     */
    public static RigidBodyTransform snapPolygonToPlanarRegionsList(ConvexPolygon2DReadOnly polygonToSnap, PlanarRegionsList planarRegionsListToSnapTo, double maximumRegionHeightToConsider, PlanarRegion regionToPack)
    {
-      return snapPolygonToPlanarRegionsList(polygonToSnap, planarRegionsListToSnapTo.getPlanarRegionsAsList(), maximumRegionHeightToConsider, regionToPack);
+      List<PlanarRegion> intersectingRegions = PlanarRegionTools.findPlanarRegionsIntersectingPolygon(polygonToSnap, planarRegionsListToSnapTo);
+      return snapPolygonToIntersectingRegions(polygonToSnap, intersectingRegions, maximumRegionHeightToConsider, regionToPack);
    }
 
    public static RigidBodyTransform snapPolygonToPlanarRegionsList(ConvexPolygon2DReadOnly polygonToSnap, List<PlanarRegion> planarRegionsListToSnapTo, double maximumRegionHeightToConsider, PlanarRegion regionToPack)
    {
       List<PlanarRegion> intersectingRegions = PlanarRegionTools.findPlanarRegionsIntersectingPolygon(polygonToSnap, planarRegionsListToSnapTo);
+      return snapPolygonToIntersectingRegions(polygonToSnap, intersectingRegions, maximumRegionHeightToConsider, regionToPack);
+   }
 
+   private static RigidBodyTransform snapPolygonToIntersectingRegions(ConvexPolygon2DReadOnly polygonToSnap, List<PlanarRegion> intersectingRegions, double maximumRegionHeightToConsider, PlanarRegion regionToPack)
+   {
       if ((intersectingRegions == null) || (intersectingRegions.isEmpty()))
       {
          return null;
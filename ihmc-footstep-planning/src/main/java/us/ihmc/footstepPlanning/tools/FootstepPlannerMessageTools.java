@@ -103,6 +103,10 @@ public class FootstepPlannerMessageTools
       packet.setHeightMapSnapThreshold(parameters.getHeightMapSnapThreshold());
       packet.setCliffHeightThreshold(parameters.getCliffHeightThreshold());
       packet.setScaledFootPolygonPercentage(parameters.getScaledFootPolygonPercentage());
+      packet.setUsePrimitiveOpenAndClosedSets(parameters.getUsePrimitiveOpenAndClosedSets());
+      packet.setNumberOfSnappingWorkers(parameters.getNumberOfSnappingWorkers());
+      packet.setPersistentSnapCacheCapacity(parameters.getPersistentSnapCacheCapacity());
+      packet.setPersistentCheckCacheCapacity(parameters.getPersistentCheckCacheCapacity());
 
       packet.setAStarHeuristicsWeight(parameters.getAStarHeuristicsWeight());
       packet.setYawWeight(parameters.getYawWeight());
@@ -0,0 +1,92 @@
+package us.ihmc.footstepPlanning;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import us.ihmc.euclid.geometry.Pose3D;
+import us.ihmc.footstepPlanning.tools.PlanarRegionToHeightMapConverter;
+import us.ihmc.footstepPlanning.tools.PlannerTools;
+import us.ihmc.pathPlanning.DataSet;
+import us.ihmc.pathPlanning.DataSetIOTools;
+import us.ihmc.pathPlanning.PlannerInput;
+import us.ihmc.robotics.robotSide.RobotSide;
+import us.ihmc.robotics.robotSide.SideDependentList;
+import us.ihmc.sensorProcessing.heightMap.HeightMapMessageTools;
+
+/**
+ * Plans the recorded A* data sets once with the legacy open and closed sets and once with the primitive ones, both have to
+ * expand the same nodes and return the same plans.
+ */
+public class AStarFootstepPlannerPrimitiveOpenSetDataSetTest
+{
+   private static final double EPSILON = 1.0e-12;
+
+   @Test
+   public void testPrimitiveOpenAndClosedSetsGiveSamePlans()
+   {
+      List<DataSet> dataSets = DataSetIOTools.loadDataSets(dataSet ->
+                                                           {
+                                                              if (!dataSet.hasPlannerInput())
+                                                                 return false;
+                                                              PlannerInput plannerInput = dataSet.getPlannerInput();
+                                                              return plannerInput.getStepPlannerIsTestable() && plannerInput.containsIterationLimitFlag("a_star");
+                                                           });
+      assertFalse(dataSets.isEmpty(), "Did not find any datasets to test.");
+
+      FootstepPlanningModule legacyModule = new FootstepPlanningModule("legacyModule");
+      FootstepPlanningModule primitiveModule = new FootstepPlanningModule("primitiveModule");
+      legacyModule.getFootstepPlannerParameters().setUsePrimitiveOpenAndClosedSets(false);
+      primitiveModule.getFootstepPlannerParameters().setUsePrimitiveOpenAndClosedSets(true);
+
+      for (DataSet dataSet : dataSets)
+      {
+         FootstepPlannerOutput legacyOutput = legacyModule.handleRequest(createPlanningRequest(legacyModule, dataSet));
+         FootstepPlannerOutput primitiveOutput = primitiveModule.handleRequest(createPlanningRequest(primitiveModule, dataSet));
+         String message = dataSet.getName();
+
+         assertEquals(legacyOutput.getFootstepPlanningResult(), primitiveOutput.getFootstepPlanningResult(), message);
+         assertEquals(legacyOutput.getPlannerTimings().getStepPlanningIterations(), primitiveOutput.getPlannerTimings().getStepPlanningIterations(), message);
+
+         FootstepPlan legacyPlan = legacyOutput.getFootstepPlan();
+         FootstepPlan primitivePlan = primitiveOutput.getFootstepPlan();
+         assertEquals(legacyPlan.getNumberOfSteps(), primitivePlan.getNumberOfSteps(), message);
+
+         for (int i = 0; i < legacyPlan.getNumberOfSteps(); i++)
+         {
+            PlannedFootstep legacyStep = legacyPlan.getFootstep(i);
+            PlannedFootstep primitiveStep = primitivePlan.getFootstep(i);
+            assertEquals(legacyStep.getRobotSide(), primitiveStep.getRobotSide(), message + ", step " + i);
+            assertTrue(legacyStep.getFootstepPose().epsilonEquals(primitiveStep.getFootstepPose(), EPSILON), message + ", step " + i);
+         }
+      }
+
+      legacyModule.closeAndDispose();
+      primitiveModule.closeAndDispose();
+   }
+
+   private static FootstepPlannerRequest createPlanningRequest(FootstepPlanningModule planningModule, DataSet dataSet)
+   {
+      PlannerInput plannerInput = dataSet.getPlannerInput();
+      double idealFootstepWidth = planningModule.getFootstepPlannerParameters().getIdealFootstepWidth();
+      double startYaw = plannerInput.hasStartOrientation() ? plannerInput.getStartYaw() : 0.0;
+      double goalYaw = plannerInput.hasGoalOrientation() ? plannerInput.getGoalYaw() : 0.0;
+      SideDependentList<Pose3D> startSteps = PlannerTools.createSquaredUpFootsteps(plannerInput.getStartPosition(), startYaw, idealFootstepWidth);
+      SideDependentList<Pose3D> goalSteps = PlannerTools.createSquaredUpFootsteps(plannerInput.getGoalPosition(), goalYaw, idealFootstepWidth);
+
+      FootstepPlannerRequest request = new FootstepPlannerRequest();
+      request.setStartFootPoses(startSteps.get(RobotSide.LEFT), startSteps.get(RobotSide.RIGHT));
+      request.setGoalFootPoses(goalSteps.get(RobotSide.LEFT), goalSteps.get(RobotSide.RIGHT));
+      request.setPlanBodyPath(false);
+      request.setPerformAStarSearch(true);
+      request.setHeightMapData(HeightMapMessageTools.unpackMessage(PlanarRegionToHeightMapConverter.convertFromPlanarRegionsToHeightMap(dataSet.getPlanarRegionsList())));
+      request.setMaximumIterations(300);
+      request.setTimeout(Double.MAX_VALUE);
+      request.setHorizonLength(Double.MAX_VALUE);
+      return request;
+   }
+}
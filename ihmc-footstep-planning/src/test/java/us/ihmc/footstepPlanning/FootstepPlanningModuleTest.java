@@ -8,7 +8,10 @@ import org.junit.jupiter.api.Test;
 import us.ihmc.commons.MathTools;
 import us.ihmc.commons.time.Stopwatch;
 import us.ihmc.euclid.geometry.Pose3D;
+import us.ihmc.euclid.geometry.interfaces.Pose3DReadOnly;
 import us.ihmc.euclid.tuple4D.Quaternion;
+import us.ihmc.footstepPlanning.graphSearch.footstepSnapping.PersistentFootstepSnapCache;
+import us.ihmc.footstepPlanning.graphSearch.stepChecking.PersistentFootstepCheckCache;
 import us.ihmc.footstepPlanning.tools.PlanarRegionToHeightMapConverter;
 import us.ihmc.pathPlanning.DataSet;
 import us.ihmc.pathPlanning.DataSetIOTools;
@@ -16,6 +19,7 @@ import us.ihmc.pathPlanning.DataSetName;
 import us.ihmc.pathPlanning.PlannerInput;
 import us.ihmc.robotics.geometry.PlanarRegionsListGenerator;
 import us.ihmc.robotics.robotSide.RobotSide;
+import us.ihmc.sensorProcessing.heightMap.HeightMapData;
 import us.ihmc.sensorProcessing.heightMap.HeightMapMessageTools;
 
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -338,4 +342,159 @@ public class FootstepPlanningModuleTest
       double finalStepX = plan.getFootstep(plan.getNumberOfSteps() - 1).getFootstepPose().getX();
       Assertions.assertTrue(MathTools.intervalContains(finalStepX, xThreshold, xThreshold + planningModule.getFootstepPlannerParameters().getMaxStepReach(), 1e-5));
    }
+
+   @Test
+   public void testParallelSnappingMatchesSerialPlan()
+   {
+      FootstepPlanningModule planningModule = new FootstepPlanningModule(getClass().getSimpleName(), false);
+      FootstepPlannerRequest request = createDataSetRequest(planningModule, DataSetName._20190219_182005_Random);
+
+      FootstepPlannerOutput output = planningModule.handleRequest(request);
+      Assertions.assertEquals(FootstepPlanningResult.FOUND_SOLUTION, output.getFootstepPlanningResult());
+      FootstepPlan serialPlan = new FootstepPlan(output.getFootstepPlan());
+
+      planningModule.getFootstepPlannerParameters().setNumberOfSnappingWorkers(4);
+      output = planningModule.handleRequest(request);
+      Assertions.assertEquals(FootstepPlanningResult.FOUND_SOLUTION, output.getFootstepPlanningResult());
+      assertPlansEqual(serialPlan, output.getFootstepPlan());
+
+      planningModule.destroy();
+   }
+
+   @Test
+   public void testPersistentSnapCacheFollowsPlannerParameters()
+   {
+      FootstepPlanningModule planningModule = new FootstepPlanningModule(getClass().getSimpleName(), false);
+      FootstepPlannerRequest request = createDataSetRequest(planningModule, DataSetName._20190219_182005_Random);
+      PersistentFootstepSnapCache persistentSnapCache = planningModule.getAStarFootstepPlanner().getSnapper().getPersistentSnapCache();
+
+      FootstepPlannerOutput output = planningModule.handleRequest(request);
+      Assertions.assertEquals(FootstepPlanningResult.FOUND_SOLUTION, output.getFootstepPlanningResult());
+      FootstepPlan uncachedPlan = new FootstepPlan(output.getFootstepPlan());
+      Assertions.assertFalse(persistentSnapCache.isEnabled());
+      Assertions.assertEquals(0, persistentSnapCache.size());
+
+      planningModule.getFootstepPlannerParameters().setPersistentSnapCacheCapacity(100000);
+      output = planningModule.handleRequest(request);
+      Assertions.assertTrue(persistentSnapCache.isEnabled());
+      Assertions.assertTrue(persistentSnapCache.size() > 0);
+      assertPlansEqual(uncachedPlan, output.getFootstepPlan());
+
+      // Same request again, the snaps are served from the persistent cache
+      output = planningModule.handleRequest(request);
+      assertPlansEqual(uncachedPlan, output.getFootstepPlan());
+
+      planningModule.getFootstepPlannerParameters().setPersistentSnapCacheCapacity(0);
+      planningModule.handleRequest(request);
+      Assertions.assertFalse(persistentSnapCache.isEnabled());
+      Assertions.assertEquals(0, persistentSnapCache.size());
+
+      planningModule.destroy();
+   }
+
+   @Test
+   public void testPersistentCheckCacheReusesChecksOverUnchangedTerrain()
+   {
+      FootstepPlanningModule planningModule = new FootstepPlanningModule(getClass().getSimpleName(), false);
+      FootstepPlanningModule uncachedPlanningModule = new FootstepPlanningModule(getClass().getSimpleName() + "Uncached", false);
+      FootstepPlannerRequest request = createDataSetRequest(planningModule, DataSetName._20190219_182005_Random);
+      PersistentFootstepCheckCache persistentCheckCache = planningModule.getAStarFootstepPlanner().getPersistentCheckCache();
+
+      planningModule.getFootstepPlannerParameters().setPersistentSnapCacheCapacity(100000);
+      planningModule.getFootstepPlannerParameters().setPersistentCheckCacheCapacity(1000000);
+      FootstepPlannerOutput output = planningModule.handleRequest(request);
+      Assertions.assertEquals(FootstepPlanningResult.FOUND_SOLUTION, output.getFootstepPlanningResult());
+      FootstepPlan firstPlan = new FootstepPlan(output.getFootstepPlan());
+      assertPlansEqual(uncachedPlanningModule.handleRequest(request).getFootstepPlan(), firstPlan);
+      Assertions.assertEquals(0, persistentCheckCache.getNumberOfCachedChecks());
+      Assertions.assertTrue(persistentCheckCache.size() > 0);
+
+      // Same terrain, every step check is reused
+      output = planningModule.handleRequest(request);
+      assertPlansEqual(firstPlan, output.getFootstepPlan());
+      Assertions.assertTrue(persistentCheckCache.getNumberOfChecks() > 0);
+      Assertions.assertEquals(persistentCheckCache.getNumberOfChecks(), persistentCheckCache.getNumberOfCachedChecks());
+
+      // Raise the terrain under a step of the plan, only the checks around it are done again
+      Pose3DReadOnly modifiedStep = firstPlan.getFootstep(firstPlan.getNumberOfSteps() / 2).getFootstepPose();
+      HeightMapData modifiedHeightMapData = createDataSetRequest(planningModule, DataSetName._20190219_182005_Random).getHeightMapData();
+      modifiedHeightMapData.setHeightAt(modifiedStep.getX(), modifiedStep.getY(), modifiedStep.getZ() + 0.3);
+      request.setHeightMapData(modifiedHeightMapData);
+
+      output = planningModule.handleRequest(request);
+      Assertions.assertTrue(persistentCheckCache.getNumberOfCachedChecks() > 0);
+      Assertions.assertTrue(persistentCheckCache.getNumberOfCachedChecks() < persistentCheckCache.getNumberOfChecks());
+      FootstepPlannerOutput uncachedOutput = uncachedPlanningModule.handleRequest(request);
+      Assertions.assertEquals(uncachedOutput.getFootstepPlanningResult(), output.getFootstepPlanningResult());
+      assertPlansEqual(uncachedOutput.getFootstepPlan(), output.getFootstepPlan());
+
+      // Changing a parameter clears the cache
+      planningModule.getFootstepPlannerParameters().setMaxStepReach(planningModule.getFootstepPlannerParameters().getMaxStepReach() - 0.01);
+      planningModule.handleRequest(request);
+      Assertions.assertEquals(0, persistentCheckCache.getNumberOfCachedChecks());
+
+      planningModule.destroy();
+      uncachedPlanningModule.destroy();
+   }
+
+   @Test
+   public void testAnytimePlanningPublishesImprovingPlans()
+   {
+      FootstepPlanningModule planningModule = new FootstepPlanningModule(getClass().getSimpleName(), false);
+      FootstepPlannerRequest request = createDataSetRequest(planningModule, DataSetName._20190219_182005_Random);
+      request.setStatusPublishPeriod(0.0);
+
+      MutableInt numberOfIntermediatePlans = new MutableInt();
+      planningModule.addStatusCallback(output ->
+                                       {
+                                          if (output.getFootstepPlanningResult() == FootstepPlanningResult.PLANNING)
+                                          {
+                                             Assertions.assertTrue(output.getFootstepPlan().getNumberOfSteps() > 0);
+                                             numberOfIntermediatePlans.increment();
+                                          }
+                                       });
+
+      // inflation is lowered from 3 to 2 to 1, one plan is published by each of the two inflated search phases
+      planningModule.getAStarFootstepPlanner().setAnytimePlanning(3.0, 1.0);
+      FootstepPlannerOutput output = planningModule.handleRequest(request);
+      Assertions.assertEquals(FootstepPlanningResult.FOUND_SOLUTION, output.getFootstepPlanningResult());
+      Assertions.assertEquals(2, numberOfIntermediatePlans.intValue());
+      Assertions.assertTrue(output.getFootstepPlan().getNumberOfSteps() > 0);
+
+      planningModule.getAStarFootstepPlanner().setAnytimePlanning(1.0, 1.0);
+      numberOfIntermediatePlans.setValue(0);
+      output = planningModule.handleRequest(request);
+      Assertions.assertEquals(FootstepPlanningResult.FOUND_SOLUTION, output.getFootstepPlanningResult());
+      Assertions.assertEquals(0, numberOfIntermediatePlans.intValue());
+
+      planningModule.destroy();
+   }
+
+   private static FootstepPlannerRequest createDataSetRequest(FootstepPlanningModule planningModule, DataSetName dataSetName)
+   {
+      DataSet dataSet = DataSetIOTools.loadDataSet(dataSetName);
+      PlannerInput plannerInput = dataSet.getPlannerInput();
+
+      FootstepPlannerRequest request = new FootstepPlannerRequest();
+      request.setTimeout(Double.MAX_VALUE);
+      Pose3D initialMidFootPose = new Pose3D(plannerInput.getStartPosition(), new Quaternion(plannerInput.getStartYaw(), 0.0, 0.0));
+      Pose3D goalMidFootPose = new Pose3D(plannerInput.getGoalPosition(), new Quaternion(plannerInput.getGoalYaw(), 0.0, 0.0));
+      request.setStartFootPoses(planningModule.getFootstepPlannerParameters().getIdealFootstepWidth(), initialMidFootPose);
+      request.setGoalFootPoses(planningModule.getFootstepPlannerParameters().getIdealFootstepWidth(), goalMidFootPose);
+      request.setRequestedInitialStanceSide(RobotSide.LEFT);
+      request.setHeightMapData(HeightMapMessageTools.unpackMessage(PlanarRegionToHeightMapConverter.convertFromPlanarRegionsToHeightMap(dataSet.getPlanarRegionsList())));
+      request.setPlanBodyPath(false);
+      request.setAbortIfBodyPathPlannerFails(false);
+      return request;
+   }
+
+   private static void assertPlansEqual(FootstepPlan expectedPlan, FootstepPlan actualPlan)
+   {
+      Assertions.assertEquals(expectedPlan.getNumberOfSteps(), actualPlan.getNumberOfSteps());
+      for (int i = 0; i < expectedPlan.getNumberOfSteps(); i++)
+      {
+         Assertions.assertEquals(expectedPlan.getFootstep(i).getRobotSide(), actualPlan.getFootstep(i).getRobotSide());
+         Assertions.assertTrue(expectedPlan.getFootstep(i).getFootstepPose().epsilonEquals(actualPlan.getFootstep(i).getFootstepPose(), 1e-10));
+      }
+   }
 }
@@ -4,18 +4,40 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import us.ihmc.footstepPlanning.graphSearch.graph.DiscreteFootstep;
 import us.ihmc.footstepPlanning.graphSearch.graph.FootstepGraphNode;
+import us.ihmc.footstepPlanning.graphSearch.stepExpansion.FootstepExpansion;
+import us.ihmc.pathPlanning.graph.structure.DirectedGraph;
 import us.ihmc.robotics.robotSide.RobotSide;
 import us.ihmc.robotics.robotSide.SideDependentList;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.ToDoubleFunction;
 
 public class AStarFootstepPlannerIterationConductorTest
 {
    @Test
    public void testSimple2DGridSearch()
+   {
+      runSimple2DGridSearch(false);
+   }
+
+   @Test
+   public void testSimple2DGridSearchWithPrimitiveOpenAndClosedSets()
+   {
+      runSimple2DGridSearch(true);
+   }
+
+   private void runSimple2DGridSearch(boolean usePrimitiveOpenAndClosedSets)
    {
       ManhattanDistanceCalculator distanceCalculator = new ManhattanDistanceCalculator();
       AStarFootstepPlannerIterationConductor planner = new AStarFootstepPlannerIterationConductor(this::getNeighbors, (n1, n2, n3) -> true, (n1, n2, n3) -> 1.0, distanceCalculator::getManhattanDistance);
+      planner.setUsePrimitiveOpenAndClosedSets(usePrimitiveOpenAndClosedSets);
 
       DiscreteFootstep leftStartStep = new DiscreteFootstep(0, 1, 0, RobotSide.LEFT);
       DiscreteFootstep rightStartStep = new DiscreteFootstep(0, -1, 0, RobotSide.RIGHT);
@@ -50,6 +72,199 @@ public class AStarFootstepPlannerIterationConductorTest
       }
    }
 
+   /**
+    * Plans over a terrain with random step costs, using an inconsistent heuristic and partial expansions such that cheaper paths are
+    * found to nodes that already have children. The {@link DirectedGraph} then lowers the costs of these children, which the primitive
+    * open set has to re-key. The expansion order and the plan are compared to a reference search that re-evaluates the live graph costs
+    * of all its open nodes every time it picks the next node to expand.
+    */
+   @Test
+   public void testPrimitiveOpenSetOnTerrainWithCostRepropagation()
+   {
+      Random random = new Random(2390L);
+      int numberOfTerrains = 20;
+      int terrainsWithRepropagatedCosts = 0;
+
+      for (int terrain = 0; terrain < numberOfTerrains; terrain++)
+      {
+         RandomTerrain randomTerrain = new RandomTerrain(random);
+         long heuristicNoiseSeed = random.nextLong();
+         ToDoubleFunction<FootstepGraphNode> heuristics = node -> Math.max(0, TERRAIN_GOAL_X - node.getSecondStep().getXIndex())
+                                                                  + 6.0 * new Random(heuristicNoiseSeed ^ hashSteps(node)).nextDouble();
+
+         DiscreteFootstep leftStartStep = new DiscreteFootstep(0, 1, 0, RobotSide.LEFT);
+         DiscreteFootstep rightStartStep = new DiscreteFootstep(0, -1, 0, RobotSide.RIGHT);
+         FootstepGraphNode startNode = new FootstepGraphNode(rightStartStep, leftStartStep);
+
+         AStarFootstepPlannerIterationConductor planner = new AStarFootstepPlannerIterationConductor(new BatchedTerrainExpansion(),
+                                                                                                     (n1, n2, n3) -> true,
+                                                                                                     (n1, n2, n3) -> randomTerrain.getStepCost(n1),
+                                                                                                     heuristics);
+         planner.setUsePrimitiveOpenAndClosedSets(true);
+         planner.initialize(startNode);
+
+         Map<FootstepGraphNode, Double> costsWhenAdded = new HashMap<>();
+         List<FootstepGraphNode> expansionOrder = new ArrayList<>();
+         FootstepGraphNode goalNode;
+         while (true)
+         {
+            FootstepGraphNode nodeToExpand = planner.getNextNode();
+            Assertions.assertNotNull(nodeToExpand);
+            expansionOrder.add(nodeToExpand);
+            if (isTerrainGoal(nodeToExpand))
+            {
+               goalNode = nodeToExpand;
+               break;
+            }
+
+            AStarIterationData<FootstepGraphNode> iterationData = planner.doPlanningIteration(nodeToExpand, true);
+            for (FootstepGraphNode childNode : iterationData.getValidChildNodes())
+               costsWhenAdded.putIfAbsent(childNode, planner.getCostFromStart(childNode));
+         }
+
+         DirectedGraph<FootstepGraphNode> graph = planner.getGraph();
+         boolean costsWereRepropagated = costsWhenAdded.keySet()
+                                                       .stream()
+                                                       .anyMatch(node -> graph.getOutgoingEdges().containsKey(node)
+                                                                         && graph.getCostFromStart(node) < costsWhenAdded.get(node));
+         if (costsWereRepropagated)
+            terrainsWithRepropagatedCosts++;
+
+         List<FootstepGraphNode> expectedExpansionOrder = new ArrayList<>();
+         List<FootstepGraphNode> expectedPlan = planWithLiveCostOpenSet(startNode, randomTerrain, heuristics, expectedExpansionOrder);
+         Assertions.assertEquals(expectedExpansionOrder, expansionOrder);
+         Assertions.assertEquals(expectedPlan, graph.getPathFromStart(goalNode));
+      }
+
+      Assertions.assertTrue(terrainsWithRepropagatedCosts > numberOfTerrains / 2, "Only " + terrainsWithRepropagatedCosts + " terrains re-propagated costs");
+   }
+
+   private static final int TERRAIN_GOAL_X = 10;
+
+   private static boolean isTerrainGoal(FootstepGraphNode node)
+   {
+      return node.getSecondStep().getXIndex() >= TERRAIN_GOAL_X;
+   }
+
+   private static long hashSteps(FootstepGraphNode node)
+   {
+      DiscreteFootstep firstStep = node.getFirstStep();
+      DiscreteFootstep secondStep = node.getSecondStep();
+      return 31L * (31L * (31L * secondStep.getXIndex() + secondStep.getYIndex()) + firstStep.getXIndex()) + firstStep.getYIndex();
+   }
+
+   private static List<FootstepGraphNode> planWithLiveCostOpenSet(FootstepGraphNode startNode,
+                                                                  RandomTerrain randomTerrain,
+                                                                  ToDoubleFunction<FootstepGraphNode> heuristics,
+                                                                  List<FootstepGraphNode> expansionOrderToPack)
+   {
+      BatchedTerrainExpansion expansion = new BatchedTerrainExpansion();
+      DirectedGraph<FootstepGraphNode> graph = new DirectedGraph<>();
+      Set<FootstepGraphNode> openSet = new LinkedHashSet<>();
+      Set<FootstepGraphNode> closedSet = new HashSet<>();
+      List<FootstepGraphNode> childNodes = new ArrayList<>();
+
+      graph.initialize(startNode);
+      openSet.add(startNode);
+
+      while (!openSet.isEmpty())
+      {
+         FootstepGraphNode nodeToExpand = null;
+         double lowestCost = Double.POSITIVE_INFINITY;
+         for (FootstepGraphNode node : openSet)
+         {
+            double cost = graph.getCostFromStart(node) + heuristics.applyAsDouble(node);
+            if (cost < lowestCost)
+            {
+               lowestCost = cost;
+               nodeToExpand = node;
+            }
+         }
+
+         openSet.remove(nodeToExpand);
+         expansionOrderToPack.add(nodeToExpand);
+         if (isTerrainGoal(nodeToExpand))
+            return graph.getPathFromStart(nodeToExpand);
+
+         boolean partialExpansion = expansion.doIterativeExpansion(nodeToExpand, childNodes);
+         for (FootstepGraphNode childNode : childNodes)
+         {
+            graph.checkAndSetEdge(nodeToExpand, childNode, randomTerrain.getStepCost(childNode.getSecondStep()));
+            if (!closedSet.contains(childNode))
+               openSet.add(childNode);
+         }
+
+         if (partialExpansion)
+            openSet.add(nodeToExpand);
+         else
+            closedSet.add(nodeToExpand);
+      }
+
+      return null;
+   }
+
+   /**
+    * Random cost of stepping on each cell of the terrain.
+    */
+   private static class RandomTerrain
+   {
+      private final Map<Long, Double> cellCosts = new HashMap<>();
+      private final long seed;
+
+      RandomTerrain(Random random)
+      {
+         seed = random.nextLong();
+      }
+
+      double getStepCost(DiscreteFootstep step)
+      {
+         long cellKey = ((long) step.getXIndex() << 32) ^ (step.getYIndex() & 0xFFFFFFFFL);
+         return cellCosts.computeIfAbsent(cellKey, key -> 1.0 + 4.0 * new Random(seed ^ key).nextDouble());
+      }
+   }
+
+   /**
+    * Steps forward, in place or backward with a varying width, packed a few steps at a time.
+    */
+   private static class BatchedTerrainExpansion implements FootstepExpansion
+   {
+      private static final int BATCH_SIZE = 3;
+      private final Map<FootstepGraphNode, Integer> expandedChildren = new HashMap<>();
+
+      @Override
+      public void doFullExpansion(FootstepGraphNode stanceNode, List<FootstepGraphNode> expansionToPack)
+      {
+         expansionToPack.clear();
+
+         DiscreteFootstep stanceStep = stanceNode.getSecondStep();
+         RobotSide swingSide = stanceNode.getFirstStepSide();
+         for (int xOffset = -1; xOffset <= 2; xOffset++)
+         {
+            for (int width = 2; width <= 3; width++)
+            {
+               int yIndex = stanceStep.getYIndex() + (swingSide == RobotSide.LEFT ? width : -width);
+               if (Math.abs(yIndex) <= 4)
+                  expansionToPack.add(new FootstepGraphNode(stanceStep, new DiscreteFootstep(stanceStep.getXIndex() + xOffset, yIndex, 0, swingSide)));
+            }
+         }
+      }
+
+      @Override
+      public boolean doIterativeExpansion(FootstepGraphNode stanceNode, List<FootstepGraphNode> expansionToPack)
+      {
+         List<FootstepGraphNode> fullExpansion = new ArrayList<>();
+         doFullExpansion(stanceNode, fullExpansion);
+
+         int startIndex = expandedChildren.getOrDefault(stanceNode, 0);
+         int endIndex = Math.min(fullExpansion.size(), startIndex + BATCH_SIZE);
+         expandedChildren.put(stanceNode, endIndex);
+
+         expansionToPack.clear();
+         expansionToPack.addAll(fullExpansion.subList(startIndex, endIndex));
+         return endIndex < fullExpansion.size();
+      }
+   }
+
    private class ManhattanDistanceCalculator
    {
       private SideDependentList<DiscreteFootstep> goalSteps;
@@ -0,0 +1,211 @@
+package us.ihmc.footstepPlanning.graphSearch.footstepSnapping;
+
+import org.junit.jupiter.api.Test;
+import us.ihmc.euclid.transform.RigidBodyTransform;
+import us.ihmc.footstepPlanning.graphSearch.graph.DiscreteFootstep;
+import us.ihmc.robotics.robotSide.RobotSide;
+import us.ihmc.sensorProcessing.heightMap.HeightMapData;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PersistentFootstepSnapCacheTest
+{
+   private static final double resolution = 0.02;
+   private static final double gridSize = 4.0;
+   private static final double snapHeightThreshold = 0.04;
+   private static final double minSurfaceIncline = 0.7;
+
+   @Test
+   public void testInvalidationByChangedCells()
+   {
+      PersistentFootstepSnapCache cache = new PersistentFootstepSnapCache(0.15);
+      cache.setCapacity(100);
+
+      HeightMapData heightMapData = createFlatHeightMap(0.0);
+      cache.update(heightMapData, snapHeightThreshold, minSurfaceIncline);
+
+      DiscreteFootstep nearStep = new DiscreteFootstep(0.5, 0.5, 0.0, RobotSide.LEFT);
+      DiscreteFootstep farStep = new DiscreteFootstep(-1.0, -1.0, 0.0, RobotSide.RIGHT);
+      cache.put(nearStep, createSnapData(0.1));
+      cache.put(farStep, createSnapData(0.2));
+
+      // same map, nothing is invalidated
+      cache.update(createFlatHeightMap(0.0), snapHeightThreshold, minSurfaceIncline);
+      assertEquals(2, cache.size());
+      assertEquals(0.1, cache.get(nearStep).getSnapTransform().getTranslationZ());
+
+      // change a cell under the near step
+      heightMapData = createFlatHeightMap(0.0);
+      heightMapData.setHeightAt(0.52, 0.48, 0.3);
+      cache.update(heightMapData, snapHeightThreshold, minSurfaceIncline);
+      assertNull(cache.get(nearStep));
+      assertNotNull(cache.get(farStep));
+
+      // changing parameters clears the cache
+      cache.update(heightMapData, snapHeightThreshold + 0.01, minSurfaceIncline);
+      assertEquals(0, cache.size());
+   }
+
+   @Test
+   public void testInvalidationByGridMotion()
+   {
+      PersistentFootstepSnapCache cache = new PersistentFootstepSnapCache(0.15);
+      cache.setCapacity(100);
+      cache.update(createFlatHeightMap(0.0), snapHeightThreshold, minSurfaceIncline);
+
+      DiscreteFootstep centerStep = new DiscreteFootstep(0.0, 0.0, 0.0, RobotSide.LEFT);
+      DiscreteFootstep edgeStep = new DiscreteFootstep(1.8, 0.0, 0.0, RobotSide.RIGHT);
+      cache.put(centerStep, createSnapData(0.1));
+      cache.put(edgeStep, createSnapData(0.2));
+
+      // same occupied cells, but the grid now extends past the edge step
+      HeightMapData movedHeightMapData = createFlatHeightMap(0.0, 0.5);
+      cache.update(movedHeightMapData, snapHeightThreshold, minSurfaceIncline);
+      assertNotNull(cache.get(centerStep));
+      assertNull(cache.get(edgeStep));
+   }
+
+   @Test
+   public void testUnmodifiedHeightMapIsSkipped()
+   {
+      PersistentFootstepSnapCache cache = new PersistentFootstepSnapCache(0.15);
+      cache.setCapacity(100);
+
+      HeightMapData heightMapData = createFlatHeightMap(0.0);
+      cache.update(heightMapData, snapHeightThreshold, minSurfaceIncline);
+
+      DiscreteFootstep step = new DiscreteFootstep(0.5, 0.5, 0.0, RobotSide.LEFT);
+      cache.put(step, createSnapData(0.1));
+      cache.update(heightMapData, snapHeightThreshold, minSurfaceIncline);
+      assertNotNull(cache.get(step));
+
+      // modifying the same instance is detected
+      heightMapData.setHeightAt(0.52, 0.48, 0.3);
+      cache.update(heightMapData, snapHeightThreshold, minSurfaceIncline);
+      assertNull(cache.get(step));
+   }
+
+   @Test
+   public void testChangedRegionsAndClearCount()
+   {
+      PersistentFootstepSnapCache cache = new PersistentFootstepSnapCache(0.15);
+      cache.setCapacity(100);
+      long clearCount = cache.getClearCount();
+
+      HeightMapData heightMapData = createFlatHeightMap(0.0);
+      cache.update(heightMapData, snapHeightThreshold, minSurfaceIncline);
+      assertEquals(clearCount + 1, cache.getClearCount());
+      assertFalse(cache.isRegionChanged(0.4, 0.6, 0.4, 0.6));
+
+      // only the region around the changed cell is reported, and only until the next update
+      heightMapData = createFlatHeightMap(0.0);
+      heightMapData.setHeightAt(0.52, 0.48, 0.3);
+      cache.update(heightMapData, snapHeightThreshold, minSurfaceIncline);
+      assertTrue(cache.isRegionChanged(0.4, 0.6, 0.4, 0.6));
+      assertFalse(cache.isRegionChanged(-1.1, -0.9, -1.1, -0.9));
+      assertEquals(clearCount + 1, cache.getClearCount());
+
+      cache.update(heightMapData, snapHeightThreshold, minSurfaceIncline);
+      assertFalse(cache.isRegionChanged(0.4, 0.6, 0.4, 0.6));
+
+      cache.update(heightMapData, snapHeightThreshold + 0.01, minSurfaceIncline);
+      assertEquals(clearCount + 2, cache.getClearCount());
+   }
+
+   @Test
+   public void testConcurrentAccess() throws InterruptedException
+   {
+      PersistentFootstepSnapCache cache = new PersistentFootstepSnapCache(0.15);
+      int stepsPerThread = 2000;
+      int numberOfThreads = 4;
+      cache.setCapacity(numberOfThreads * stepsPerThread);
+      cache.update(createFlatHeightMap(0.0), snapHeightThreshold, minSurfaceIncline);
+
+      AtomicInteger mismatches = new AtomicInteger();
+      Thread[] threads = new Thread[numberOfThreads];
+      for (int threadIndex = 0; threadIndex < numberOfThreads; threadIndex++)
+      {
+         int xIndex = threadIndex;
+         threads[threadIndex] = new Thread(() ->
+                                           {
+                                              for (int yIndex = 0; yIndex < stepsPerThread; yIndex++)
+                                              {
+                                                 DiscreteFootstep step = new DiscreteFootstep(xIndex, yIndex, 0, RobotSide.LEFT);
+                                                 cache.put(step, createSnapData(yIndex));
+                                                 FootstepSnapData snapData = cache.get(step);
+                                                 if (snapData == null || snapData.getSnapTransform().getTranslationZ() != yIndex)
+                                                    mismatches.incrementAndGet();
+                                              }
+                                           });
+         threads[threadIndex].start();
+      }
+
+      for (Thread thread : threads)
+         thread.join();
+
+      assertEquals(0, mismatches.get());
+      assertTrue(cache.size() <= numberOfThreads * stepsPerThread);
+   }
+
+   @Test
+   public void testCapacity()
+   {
+      // a single segment, such that the least recently used order is global
+      PersistentFootstepSnapCache cache = new PersistentFootstepSnapCache(0.15, 1);
+      cache.put(new DiscreteFootstep(0.0, 0.0), createSnapData(0.0));
+      assertEquals(0, cache.size());
+
+      cache.setCapacity(2);
+      cache.update(createFlatHeightMap(0.0), snapHeightThreshold, minSurfaceIncline);
+
+      DiscreteFootstep step0 = new DiscreteFootstep(0.0, 0.0);
+      DiscreteFootstep step1 = new DiscreteFootstep(0.5, 0.0);
+      DiscreteFootstep step2 = new DiscreteFootstep(1.0, 0.0);
+      cache.put(step0, createSnapData(0.0));
+      cache.put(step1, createSnapData(0.0));
+      assertNotNull(cache.get(step0));
+      cache.put(step2, createSnapData(0.0));
+
+      // step1 is the least recently used
+      assertEquals(2, cache.size());
+      assertNull(cache.get(step1));
+      assertNotNull(cache.get(step0));
+      assertNotNull(cache.get(step2));
+
+      // cached data has no wiggle and is copied
+      FootstepSnapData snapData = cache.get(step0);
+      assertTrue(snapData.getWiggleTransformInWorld().containsNaN());
+      snapData.getSnapTransform().getTranslation().setZ(1.0);
+      assertEquals(0.0, cache.get(step0).getSnapTransform().getTranslationZ());
+   }
+
+   private static HeightMapData createFlatHeightMap(double height)
+   {
+      return createFlatHeightMap(height, 0.0);
+   }
+
+   private static HeightMapData createFlatHeightMap(double height, double gridCenterX)
+   {
+      HeightMapData heightMapData = new HeightMapData(resolution, gridSize, gridCenterX, 0.0);
+      for (double x = -1.5; x <= 1.5; x += resolution)
+      {
+         for (double y = -1.5; y <= 1.5; y += resolution)
+         {
+            heightMapData.setHeightAt(x, y, height);
+         }
+      }
+
+      return heightMapData;
+   }
+
+   private static FootstepSnapData createSnapData(double height)
+   {
+      RigidBodyTransform snapTransform = new RigidBodyTransform();
+      snapTransform.getTranslation().setZ(height);
+      FootstepSnapData snapData = new FootstepSnapData(snapTransform);
+      snapData.getWiggleTransformInWorld().setIdentity();
+      return snapData;
+   }
+}
@@ -0,0 +1,72 @@
+package us.ihmc.footstepPlanning.graphSearch.graph;
+
+import org.junit.jupiter.api.Test;
+import us.ihmc.robotics.robotSide.RobotSide;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PackedFootstepGraphNodeKeyTest
+{
+   @Test
+   public void testPackAndUnpack()
+   {
+      Random random = new Random(2390L);
+      int numTrials = 1000;
+
+      for (int i = 0; i < numTrials; i++)
+      {
+         RobotSide stanceSide = RobotSide.generateRandomRobotSide(random);
+         int stanceX = random.nextInt(2 * PackedFootstepGraphNodeKey.MAX_ABSOLUTE_INDEX + 1) - PackedFootstepGraphNodeKey.MAX_ABSOLUTE_INDEX;
+         int stanceY = random.nextInt(2 * PackedFootstepGraphNodeKey.MAX_ABSOLUTE_INDEX + 1) - PackedFootstepGraphNodeKey.MAX_ABSOLUTE_INDEX;
+         int swingX = stanceX + random.nextInt(2 * PackedFootstepGraphNodeKey.MAX_RELATIVE_INDEX + 1) - PackedFootstepGraphNodeKey.MAX_RELATIVE_INDEX;
+         int swingY = stanceY + random.nextInt(2 * PackedFootstepGraphNodeKey.MAX_RELATIVE_INDEX + 1) - PackedFootstepGraphNodeKey.MAX_RELATIVE_INDEX;
+
+         DiscreteFootstep firstStep = new DiscreteFootstep(swingX, swingY, random.nextInt(LatticePoint.yawDivisions), stanceSide.getOppositeSide());
+         DiscreteFootstep secondStep = new DiscreteFootstep(stanceX, stanceY, random.nextInt(LatticePoint.yawDivisions), stanceSide);
+         FootstepGraphNode node = new FootstepGraphNode(firstStep, secondStep);
+
+         long key = PackedFootstepGraphNodeKey.pack(node);
+         assertTrue(key >= 0L);
+         assertEquals(node, PackedFootstepGraphNodeKey.unpack(key));
+      }
+   }
+
+   @Test
+   public void testKeysAreUnique()
+   {
+      Set<Long> keys = new HashSet<>();
+      Set<FootstepGraphNode> nodes = new HashSet<>();
+
+      for (RobotSide stanceSide : RobotSide.values)
+      {
+         for (int x = -2; x <= 2; x++)
+         {
+            for (int y = -2; y <= 2; y++)
+            {
+               for (int yaw = 0; yaw < LatticePoint.yawDivisions; yaw += 5)
+               {
+                  DiscreteFootstep firstStep = new DiscreteFootstep(x, y, yaw, stanceSide.getOppositeSide());
+                  DiscreteFootstep secondStep = new DiscreteFootstep(y, x, LatticePoint.yawDivisions - 1 - yaw, stanceSide);
+                  FootstepGraphNode node = new FootstepGraphNode(firstStep, secondStep);
+                  nodes.add(node);
+                  keys.add(PackedFootstepGraphNodeKey.pack(node));
+               }
+            }
+         }
+      }
+
+      assertEquals(nodes.size(), keys.size());
+   }
+
+   @Test
+   public void testOutOfRange()
+   {
+      DiscreteFootstep firstStep = new DiscreteFootstep(0, 0, 0, RobotSide.LEFT);
+      DiscreteFootstep secondStep = new DiscreteFootstep(PackedFootstepGraphNodeKey.MAX_RELATIVE_INDEX + 1, 0, 0, RobotSide.RIGHT);
+      assertThrows(IllegalArgumentException.class, () -> PackedFootstepGraphNodeKey.pack(new FootstepGraphNode(firstStep, secondStep)));
+   }
+}
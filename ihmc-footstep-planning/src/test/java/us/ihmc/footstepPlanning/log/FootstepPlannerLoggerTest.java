@@ -14,15 +14,20 @@ import us.ihmc.euclid.tuple4D.Quaternion;
 import us.ihmc.footstepPlanning.FootstepPlannerOutput;
 import us.ihmc.footstepPlanning.FootstepPlannerRequest;
 import us.ihmc.footstepPlanning.FootstepPlanningModule;
+import us.ihmc.footstepPlanning.graphSearch.graph.FootstepGraphNode;
 import us.ihmc.footstepPlanning.tools.FootstepPlannerMessageTools;
 import us.ihmc.footstepPlanning.tools.PlanarRegionToHeightMapConverter;
 import us.ihmc.pathPlanning.DataSet;
 import us.ihmc.pathPlanning.DataSetIOTools;
 import us.ihmc.pathPlanning.DataSetName;
+import us.ihmc.pathPlanning.graph.structure.GraphEdge;
 import us.ihmc.robotics.robotSide.RobotSide;
 import us.ihmc.sensorProcessing.heightMap.HeightMapMessageTools;
 
 import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -127,4 +132,58 @@ public class FootstepPlannerLoggerTest
       assertTrue(expectedFootstepParameters.epsilonEquals(log.getFootstepParametersPacket(), 1e-5));
       assertTrue(expectedOutputStatusPacket.epsilonEquals(log.getStatusPacket(), 1e-5));
    }
+
+   @Test
+   public void testCompressedIterationDataMatchesPlanner() throws IOException
+   {
+      FootstepPlanningModule planningModule = new FootstepPlanningModule("testModule", false);
+      DataSet dataSet = DataSetIOTools.loadDataSet(DataSetName._20190220_172417_EOD_Cinders);
+
+      FootstepPlannerRequest request = new FootstepPlannerRequest();
+      Pose3D initialMidFootPose = new Pose3D(dataSet.getPlannerInput().getStartPosition(), new Quaternion(dataSet.getPlannerInput().getStartYaw(), 0.0, 0.0));
+      Pose3D goalMidFootPose = new Pose3D(dataSet.getPlannerInput().getGoalPosition(), new Quaternion(dataSet.getPlannerInput().getGoalYaw(), 0.0, 0.0));
+      request.setRequestedInitialStanceSide(RobotSide.LEFT);
+      request.setStartFootPoses(planningModule.getFootstepPlannerParameters().getIdealFootstepWidth(), initialMidFootPose);
+      request.setGoalFootPoses(planningModule.getFootstepPlannerParameters().getIdealFootstepWidth(), goalMidFootPose);
+      request.setHeightMapData(HeightMapMessageTools.unpackMessage(PlanarRegionToHeightMapConverter.convertFromPlanarRegionsToHeightMap(dataSet.getPlanarRegionsList())));
+      request.setPlanBodyPath(true);
+      planningModule.handleRequest(request);
+
+      FootstepPlannerLogger logger = new FootstepPlannerLogger(planningModule);
+      logger.setCompressionEnabled(true);
+      assertTrue(logger.logSessionAsync(logDirectory));
+      assertTrue(logger.waitForLogsToBeWritten());
+
+      File logFile = new File(logger.getLatestLogDirectory());
+      FootstepPlannerLogLoader logLoader = new FootstepPlannerLogLoader();
+      assertSame(FootstepPlannerLogLoader.LoadResult.LOADED, logLoader.load(logFile));
+      FootstepPlannerLog log = logLoader.getLog();
+
+      List<FootstepPlannerIterationData> expectedIterations = planningModule.getIterationData();
+      assertEquals(expectedIterations.size(), log.getIterationData().size());
+      for (int i = 0; i < expectedIterations.size(); i++)
+      {
+         FootstepPlannerIterationData expected = expectedIterations.get(i);
+         FootstepPlannerIterationData actual = log.getIterationData().get(i);
+         assertEquals(expected.getParentNode(), actual.getParentNode());
+         assertEquals(expected.getIdealChildNode(), actual.getIdealChildNode());
+         assertTrue(expected.getParentEndSnapData().getSnapTransform().epsilonEquals(actual.getParentEndSnapData().getSnapTransform(), 1e-9));
+
+         for (FootstepGraphNode childNode : actual.getChildNodes())
+         {
+            GraphEdge<FootstepGraphNode> edge = new GraphEdge<>(actual.getParentNode(), childNode);
+            FootstepPlannerEdgeData expectedEdgeData = planningModule.getEdgeDataMap().get(edge);
+            FootstepPlannerEdgeData actualEdgeData = log.getEdgeDataMap().get(edge);
+            assertEquals(expectedEdgeData.isSolutionEdge(), actualEdgeData.isSolutionEdge());
+            assertArrayEquals(expectedEdgeData.getDataBuffer(), actualEdgeData.getDataBuffer());
+         }
+      }
+      assertEquals(planningModule.getBodyPathIterationData().size(), log.getBodyPathIterationData().size());
+
+      // random access to a single iteration
+      FootstepPlannerIterationDataReader reader = FootstepPlannerLogLoader.openFootstepIterationData(logFile);
+      int lastIteration = reader.getNumberOfIterations() - 1;
+      FootstepPlannerIterationData lastIterationData = reader.readFootstepIteration(lastIteration, new HashMap<>());
+      assertEquals(expectedIterations.get(lastIteration).getParentNode(), lastIterationData.getParentNode());
+   }
 }
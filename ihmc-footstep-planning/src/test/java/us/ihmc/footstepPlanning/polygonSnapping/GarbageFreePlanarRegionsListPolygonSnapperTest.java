@@ -18,6 +18,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 
+import static us.ihmc.robotics.Assert.assertEquals;
 import static us.ihmc.robotics.Assert.assertTrue;
 
 public class GarbageFreePlanarRegionsListPolygonSnapperTest
@@ -170,6 +171,57 @@ public class GarbageFreePlanarRegionsListPolygonSnapperTest
       doATest(planarRegionsList, xyYawToTest, visualize);
    }
 
+   @Test
+   public void testPlanarRegionsListOverloadGivesSameResults()
+   {
+      Random random = new Random(1492L);
+      double maxX = 2.0;
+      double maxY = 1.0;
+      double maxZ = 0.2;
+
+      PlanarRegionsList planarRegionsList = PlanarRegionsListExamples.generateBumpyGround(random, maxX, maxY, maxZ);
+      ConvexPolygon2D originalPolygon = PlanarRegionsListExamples.createRectanglePolygon(0.3, 0.15);
+      GarbageFreePlanarRegionListPolygonSnapper listSnapper = new GarbageFreePlanarRegionListPolygonSnapper();
+      GarbageFreePlanarRegionListPolygonSnapper indexedSnapper = new GarbageFreePlanarRegionListPolygonSnapper();
+
+      for (int i = 0; i < 1000; i++)
+      {
+         if (i == 500)
+         { // Moving a region in place, the spatial index of the list has to catch up.
+            RigidBodyTransform transform = new RigidBodyTransform();
+            transform.getTranslation().set(0.5, 0.3, 0.1);
+            planarRegionsList.getPlanarRegion(random.nextInt(planarRegionsList.getNumberOfPlanarRegions())).applyTransform(transform);
+         }
+
+         ConvexPolygon2D polygonToSnap = new ConvexPolygon2D(originalPolygon);
+         RigidBodyTransform nonSnappedTransform = new RigidBodyTransform();
+         nonSnappedTransform.setRotationEulerAndZeroTranslation(0.0, 0.0, RandomNumbers.nextDouble(random, Math.PI));
+         nonSnappedTransform.getTranslation().set(RandomNumbers.nextDouble(random, maxX), RandomNumbers.nextDouble(random, maxY), 0.0);
+         polygonToSnap.applyTransform(nonSnappedTransform, false);
+
+         PlanarRegion expectedRegion = new PlanarRegion();
+         RigidBodyTransform expectedSnapTransform = new RigidBodyTransform();
+         boolean expectedSnapped = listSnapper.snapPolygonToPlanarRegionsList(polygonToSnap,
+                                                                               planarRegionsList.getPlanarRegionsAsList(),
+                                                                               Double.POSITIVE_INFINITY,
+                                                                               expectedRegion,
+                                                                               expectedSnapTransform);
+
+         PlanarRegion actualRegion = new PlanarRegion();
+         RigidBodyTransform actualSnapTransform = new RigidBodyTransform();
+         boolean actualSnapped = indexedSnapper.snapPolygonToPlanarRegionsList(polygonToSnap,
+                                                                              planarRegionsList,
+                                                                              Double.POSITIVE_INFINITY,
+                                                                              actualRegion,
+                                                                              actualSnapTransform);
+
+         assertEquals(expectedSnapped, actualSnapped);
+         assertTrue(expectedSnapTransform.epsilonEquals(actualSnapTransform, 1.0e-12));
+         if (expectedSnapped)
+            assertTrue(expectedRegion.epsilonEquals(actualRegion, 1.0e-12));
+      }
+   }
+
    private static void doATest(PlanarRegionsList planarRegionsList, ArrayList<double[]> xyYawToTest, boolean visualize)
    {
       ConvexPolygon2D originalPolygon = PlanarRegionsListExamples.createRectanglePolygon(0.3, 0.15);
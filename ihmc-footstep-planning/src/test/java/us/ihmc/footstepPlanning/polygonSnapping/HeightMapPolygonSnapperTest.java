@@ -139,8 +139,9 @@ public class HeightMapPolygonSnapperTest
          environmentHandler.setHeightMap(heightMapData);
          snapper.snapPolygonToHeightMap(polygonToSnap, environmentHandler, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY);
 
-         Assertions.assertTrue(plane.getNormal().epsilonEquals(snapper.getBestFitPlane().getNormal(), 1e-10));
-         Assertions.assertTrue(Math.abs(plane.getZOnPlane(0.0, 0.0) - snapper.getBestFitPlane().getZOnPlane(0.0, 0.0)) < 1e-10);
+         // height map data stores heights with float precision
+         Assertions.assertTrue(plane.getNormal().epsilonEquals(snapper.getBestFitPlane().getNormal(), 1e-4));
+         Assertions.assertTrue(Math.abs(plane.getZOnPlane(0.0, 0.0) - snapper.getBestFitPlane().getZOnPlane(0.0, 0.0)) < 1e-3);
       }
    }
 
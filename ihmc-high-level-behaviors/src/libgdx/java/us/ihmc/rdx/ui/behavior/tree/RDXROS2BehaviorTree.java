@@ -102,6 +102,7 @@ public class RDXROS2BehaviorTree extends RDXBehaviorTree
                                   publishFrequencyText.getText(),
                                   ros2BehaviorTreeState.getBehaviorTreeSubscription().getPreviousSequenceID(),
                                   ros2BehaviorTreeState.getBehaviorTreeSubscription().getOutOfOrderCount()));
+      ImGui.text("Publication: %s".formatted(ros2BehaviorTreeState.getPublicationStatistics()));
 
       super.renderImGuiWidgetsPost();
    }
@@ -269,7 +269,7 @@ public class ContinuousPlanner
       // In case logging footstep plans becomes a problem, we have this feature where we can not log plans if we want too
       if (continuousHikingParameters.getLogFootstepPlans())
       {
-         logger.logSession();
+         logger.logSessionAsync();
       }
    }
 
@@ -45,12 +45,18 @@ public class ROS2BehaviorTreeMessageTools
       treeStateMessage.getFootPoseActions().clear();
    }
 
-   public static void packMessage(BehaviorTreeNodeState nodeState, BehaviorTreeStateMessage treeStateMessage)
+   /**
+    * @param isFullSnapshot whether to pack the full node types even if their definition and status did not change.
+    */
+   public static void packMessage(BehaviorTreeNodeState nodeState, BehaviorTreeStateMessage treeStateMessage, boolean isFullSnapshot)
    {
       boolean packBasicNode = false;
 
+      // Always poll the status, so what was modified during this update is not sent again with the next one
+      boolean hasStatus = nodeState.hasStatus();
+
       // Only allow packing full node types if we have updated data
-      if (nodeState.getDefinition().isFrozen() || nodeState.hasStatus())
+      if (nodeState.getDefinition().isFrozen() || hasStatus || isFullSnapshot)
       {
          if (nodeState instanceof BehaviorTreeRootNodeState rootNodeState)
          {
@@ -1,19 +1,29 @@
 package us.ihmc.behaviors.behaviorTree.ros2;
 
 import behavior_msgs.msg.dds.BehaviorTreeStateMessage;
+import behavior_msgs.msg.dds.BehaviorTreeStateMessagePubSubType;
 import us.ihmc.behaviors.behaviorTree.BehaviorTreeNodeLayer;
 import us.ihmc.behaviors.behaviorTree.BehaviorTreeNodeState;
 import us.ihmc.behaviors.behaviorTree.BehaviorTreeState;
 import us.ihmc.communication.AutonomyAPI;
+import us.ihmc.communication.crdt.CRDTPublicationStatistics;
 import us.ihmc.communication.ros2.ROS2PublishSubscribeAPI;
+import us.ihmc.log.LogTools;
 import us.ihmc.ros2.ROS2Topic;
 
+import java.util.function.IntSupplier;
+
 public class ROS2BehaviorTreePublisher
 {
+   /** Duration in seconds over which the publication statistics are computed and logged. */
+   private static final double STATISTICS_WINDOW_DURATION = 10.0;
+
    private final BehaviorTreeState behaviorTreeState;
    private final ROS2PublishSubscribeAPI ros2PublishSubscribeAPI;
    private final BehaviorTreeStateMessage behaviorTreeMessage = new BehaviorTreeStateMessage();
    private final ROS2Topic<BehaviorTreeStateMessage> topic;
+   private final CRDTPublicationStatistics publicationStatistics = new CRDTPublicationStatistics(STATISTICS_WINDOW_DURATION);
+   private final IntSupplier serializedSize = () -> BehaviorTreeStateMessagePubSubType.getCdrSerializedSize(behaviorTreeMessage);
 
    public ROS2BehaviorTreePublisher(BehaviorTreeState behaviorTreeState, ROS2PublishSubscribeAPI ros2PublishSubscribeAPI)
    {
@@ -23,27 +33,45 @@ public class ROS2BehaviorTreePublisher
       topic = AutonomyAPI.BEAVIOR_TREE.getTopic(behaviorTreeState.getCRDTInfo().getActorDesignation().getOutgoingQualifier());
    }
 
+   /**
+    * Packs the whole tree into a single message. Nodes whose definition and status did not change
+    * since the last publication are packed as basic nodes, unless this update is a full snapshot.
+    */
    public void publish()
    {
+      boolean isFullSnapshot = behaviorTreeState.getCRDTInfo().isFullSnapshotUpdate();
+
+      publicationStatistics.startSerialization();
+
       behaviorTreeState.toMessage(behaviorTreeMessage);
       ROS2BehaviorTreeMessageTools.clearLists(behaviorTreeMessage);
 
       BehaviorTreeNodeLayer<?, ?, ?, ?> rootNode = behaviorTreeState.getRootNode();
       if (rootNode != null)
       {
-         packTreeToMessage(rootNode.getState());
+         packTreeToMessage(rootNode.getState(), isFullSnapshot);
+      }
+
+      if (publicationStatistics.stopSerialization(serializedSize, isFullSnapshot))
+      {
+         LogTools.info("Behavior tree publication (%s): %s".formatted(behaviorTreeState.getCRDTInfo().getActorDesignation(), publicationStatistics));
       }
 
       ros2PublishSubscribeAPI.publish(topic, behaviorTreeMessage);
    }
 
-   private void packTreeToMessage(BehaviorTreeNodeState behaviorTreeNode)
+   private void packTreeToMessage(BehaviorTreeNodeState behaviorTreeNode, boolean isFullSnapshot)
    {
-      ROS2BehaviorTreeMessageTools.packMessage(behaviorTreeNode, behaviorTreeMessage);
+      ROS2BehaviorTreeMessageTools.packMessage(behaviorTreeNode, behaviorTreeMessage, isFullSnapshot);
 
       for (Object child : behaviorTreeNode.getChildren())
       {
-         packTreeToMessage((BehaviorTreeNodeState) child);
+         packTreeToMessage((BehaviorTreeNodeState) child, isFullSnapshot);
       }
    }
+
+   public CRDTPublicationStatistics getPublicationStatistics()
+   {
+      return publicationStatistics;
+   }
 }
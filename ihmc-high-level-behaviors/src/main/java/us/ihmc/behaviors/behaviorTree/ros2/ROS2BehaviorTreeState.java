@@ -2,6 +2,7 @@ package us.ihmc.behaviors.behaviorTree.ros2;
 
 import us.ihmc.behaviors.behaviorTree.BehaviorTreeNodeLayer;
 import us.ihmc.behaviors.behaviorTree.BehaviorTreeState;
+import us.ihmc.communication.crdt.CRDTPublicationStatistics;
 import us.ihmc.communication.ros2.ROS2PublishSubscribeAPI;
 import us.ihmc.perception.sceneGraph.SceneGraph;
 
@@ -65,6 +66,19 @@ public class ROS2BehaviorTreeState
       behaviorTreeState.getCRDTInfo().startNextUpdate();
    }
 
+   /**
+    * Makes the next publication carry the full state of the tree instead of only what changed.
+    */
+   public void requestFullSnapshot()
+   {
+      behaviorTreeState.getCRDTInfo().requestFullSnapshot();
+   }
+
+   public CRDTPublicationStatistics getPublicationStatistics()
+   {
+      return behaviorTreePublisher.getPublicationStatistics();
+   }
+
    public void destroy()
    {
       behaviorTreeSubscription.destroy();
@@ -30,6 +30,7 @@ public class ROS2BehaviorTreeSubscription<T extends BehaviorTreeNodeLayer<T, ?,
    private int numberOfOnRobotNodes = 0;
    private final SwapReference<BehaviorTreeStateMessage> behaviorTreeStateMessageSwapReference;
    private final Notification recievedMessageNotification = new Notification();
+   private final Notification otherSideStartedNotification = new Notification();
    private final ROS2BehaviorTreeSubscriptionNode subscriptionRootNode = new ROS2BehaviorTreeSubscriptionNode();
    private final MutableInt subscriptionNodeDepthFirstIndex = new MutableInt();
 
@@ -53,7 +54,12 @@ public class ROS2BehaviorTreeSubscription<T extends BehaviorTreeNodeLayer<T, ?,
          long expectedSequenceID = previousSequenceID + 1;
          long difference = receivedSequenceID - expectedSequenceID;
 
-         if (Math.abs(difference) < ROS2BehaviorTreeState.SYNC_FREQUENCY) // Account for restarts
+         if (numberOfMessagesReceived == 1 || Math.abs(difference) >= ROS2BehaviorTreeState.SYNC_FREQUENCY)
+         {
+            // The other side just started or restarted, so it has to be sent our full state
+            otherSideStartedNotification.set();
+         }
+         else
          {
             if (difference > 0)
             {
@@ -73,6 +79,9 @@ public class ROS2BehaviorTreeSubscription<T extends BehaviorTreeNodeLayer<T, ?,
 
    public void update()
    {
+      if (otherSideStartedNotification.poll())
+         behaviorTreeState.getCRDTInfo().requestFullSnapshot();
+
       if (recievedMessageNotification.poll())
       {
          synchronized (behaviorTreeStateMessageSwapReference)
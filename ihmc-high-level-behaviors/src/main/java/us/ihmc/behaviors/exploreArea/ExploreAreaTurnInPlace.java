@@ -162,7 +162,7 @@ public class ExploreAreaTurnInPlace extends AsynchronousActionNode
       TypedNotification<WalkingStatusMessage> walkingCompleted = helper.getOrCreateRobotInterface().requestWalk(footstepDataListMessage);
       walkingCompleted.blockingPoll();
 
-      footstepPlannerLogger.logSession();
+      footstepPlannerLogger.logSessionAsync();
    }
 
 }
@@ -391,7 +391,7 @@ public class LookAndStepBodyPathPlanningTask
       footstepPlannerRequest.setPlanFootsteps(false);
       footstepPlanningModule.handleRequest(footstepPlannerRequest);
       FootstepPlannerLogger footstepPlannerLogger = new FootstepPlannerLogger(footstepPlanningModule);
-      footstepPlannerLogger.logSession();
+      footstepPlannerLogger.logSessionAsync();
 
       return new MutablePair<>(footstepPlanningModule.getOutput().getBodyPathPlanningResult(), footstepPlanningModule.getOutput().getBodyPath());
    }
@@ -211,7 +211,7 @@ public class TraverseStairsPlanStepsState extends TraverseStairsState
 
       // generate log
       FootstepPlannerLogger footstepPlannerLogger = new FootstepPlannerLogger(planningModule);
-      footstepPlannerLogger.logSession();
+      footstepPlannerLogger.logSessionAsync();
 
       // publish to ui
       FootstepPlanningToolboxOutputStatus outputStatus = new FootstepPlanningToolboxOutputStatus();
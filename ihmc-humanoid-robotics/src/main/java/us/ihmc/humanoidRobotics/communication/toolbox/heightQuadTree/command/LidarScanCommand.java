@@ -3,6 +3,7 @@ package us.ihmc.humanoidRobotics.communication.toolbox.heightQuadTree.command;
 import perception_msgs.msg.dds.LidarScanMessage;
 import us.ihmc.communication.controllerAPI.command.Command;
 import us.ihmc.communication.packets.LidarPointCloudCompression;
+import us.ihmc.communication.packets.LidarPointCloudCompression.DecompressionIntermediateVariablesPackage;
 import us.ihmc.euclid.referenceFrame.FramePoint3D;
 import us.ihmc.euclid.referenceFrame.FramePose3D;
 import us.ihmc.euclid.referenceFrame.ReferenceFrame;
@@ -18,6 +19,8 @@ public class LidarScanCommand implements Command<LidarScanCommand, LidarScanMess
    private final RecyclingArrayList<Point3D32> scan = new RecyclingArrayList<>(Point3D32.class);
    private final ReferenceFrame pointCloudFrame = ReferenceFrame.getWorldFrame();
    private final FramePose3D lidarPose = new FramePose3D();
+   private final DecompressionIntermediateVariablesPackage decompressionVariables = new DecompressionIntermediateVariablesPackage();
+   private float[] decompressedScan = new float[0];
 
    @Override
    public void clear()
@@ -47,13 +50,14 @@ public class LidarScanCommand implements Command<LidarScanCommand, LidarScanMess
       lidarPose.setIncludingFrame(ReferenceFrame.getWorldFrame(), message.getLidarPosition(), message.getLidarOrientation());
       scan.clear();
 
-      LidarPointCloudCompression.decompressPointCloud(message.getScan(), message.getNumberOfPoints(), (i, x, y, z) ->
-      {
-         Point3D32 point = scan.add();
-         point.setX(x);
-         point.setY(y);
-         point.setZ(z);
-      });
+      int numberOfPoints = message.getNumberOfPoints();
+      if (decompressedScan.length < 3 * numberOfPoints)
+         decompressedScan = new float[3 * numberOfPoints];
+
+      LidarPointCloudCompression.decompressPointCloud(message.getScan(), numberOfPoints, decompressedScan, decompressionVariables);
+
+      for (int i = 0; i < numberOfPoints; i++)
+         scan.add().set(decompressedScan[3 * i], decompressedScan[3 * i + 1], decompressedScan[3 * i + 2]);
    }
 
    public int getNumberOfPoints()
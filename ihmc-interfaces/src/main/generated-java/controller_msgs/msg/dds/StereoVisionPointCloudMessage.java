@@ -8,6 +8,10 @@ import us.ihmc.pubsub.TopicDataType;
 
 /**
        * Should disappear for the ROS equivalent.
+       * When lz4_compressed is true, the codec used for point_cloud and colors is identified by the header of the compressed data,
+       * see us.ihmc.communication.packets.StereoPointCloudCompression.
+       * The Morton codecs reorder the points, the decompressed points do not come in the order they were compressed in.
+       * Each point keeps its color.
        */
 public class StereoVisionPointCloudMessage extends Packet<StereoVisionPointCloudMessage> implements Settable<StereoVisionPointCloudMessage>, EpsilonComparable<StereoVisionPointCloudMessage>
 {
@@ -389,6 +389,22 @@ public class FootstepPlannerParametersPacket extends Packet<FootstepPlannerParam
             * When using a height map, a distance is set that determines if a cliff is detected or not
             */
    public double cliff_height_threshold_ = -11.1;
+   /**
+            * If true, the A* search stores its open and closed sets in a primitive indexed heap instead of a priority queue and hash set of nodes
+            */
+   public boolean use_primitive_open_and_closed_sets_;
+   /**
+            * Number of worker threads snapping the candidate steps of each expansion in parallel, zero or one snaps on the planning thread. Negative values are ignored
+            */
+   public int number_of_snapping_workers_ = -1;
+   /**
+            * Maximum number of snap results kept across planning requests over unchanged parts of the height map, zero disables it. Negative values are ignored
+            */
+   public int persistent_snap_cache_capacity_ = -1;
+   /**
+            * Maximum number of step validity checks kept across planning requests over unchanged parts of the height map, zero disables it. Negative values are ignored
+            */
+   public int persistent_check_cache_capacity_ = -1;
 
    public FootstepPlannerParametersPacket()
    {
@@ -540,6 +556,14 @@ public class FootstepPlannerParametersPacket extends Packet<FootstepPlannerParam
 
       cliff_height_threshold_ = other.cliff_height_threshold_;
 
+      use_primitive_open_and_closed_sets_ = other.use_primitive_open_and_closed_sets_;
+
+      number_of_snapping_workers_ = other.number_of_snapping_workers_;
+
+      persistent_snap_cache_capacity_ = other.persistent_snap_cache_capacity_;
+
+      persistent_check_cache_capacity_ = other.persistent_check_cache_capacity_;
+
    }
 
    /**
@@ -1775,6 +1799,66 @@ public class FootstepPlannerParametersPacket extends Packet<FootstepPlannerParam
       return cliff_height_threshold_;
    }
 
+   /**
+            * If true, the A* search stores its open and closed sets in a primitive indexed heap instead of a priority queue and hash set of nodes
+            */
+   public void setUsePrimitiveOpenAndClosedSets(boolean use_primitive_open_and_closed_sets)
+   {
+      use_primitive_open_and_closed_sets_ = use_primitive_open_and_closed_sets;
+   }
+   /**
+            * If true, the A* search stores its open and closed sets in a primitive indexed heap instead of a priority queue and hash set of nodes
+            */
+   public boolean getUsePrimitiveOpenAndClosedSets()
+   {
+      return use_primitive_open_and_closed_sets_;
+   }
+
+   /**
+            * Number of worker threads snapping the candidate steps of each expansion in parallel, zero or one snaps on the planning thread. Negative values are ignored
+            */
+   public void setNumberOfSnappingWorkers(int number_of_snapping_workers)
+   {
+      number_of_snapping_workers_ = number_of_snapping_workers;
+   }
+   /**
+            * Number of worker threads snapping the candidate steps of each expansion in parallel, zero or one snaps on the planning thread. Negative values are ignored
+            */
+   public int getNumberOfSnappingWorkers()
+   {
+      return number_of_snapping_workers_;
+   }
+
+   /**
+            * Maximum number of snap results kept across planning requests over unchanged parts of the height map, zero disables it. Negative values are ignored
+            */
+   public void setPersistentSnapCacheCapacity(int persistent_snap_cache_capacity)
+   {
+      persistent_snap_cache_capacity_ = persistent_snap_cache_capacity;
+   }
+   /**
+            * Maximum number of snap results kept across planning requests over unchanged parts of the height map, zero disables it. Negative values are ignored
+            */
+   public int getPersistentSnapCacheCapacity()
+   {
+      return persistent_snap_cache_capacity_;
+   }
+
+   /**
+            * Maximum number of step validity checks kept across planning requests over unchanged parts of the height map, zero disables it. Negative values are ignored
+            */
+   public void setPersistentCheckCacheCapacity(int persistent_check_cache_capacity)
+   {
+      persistent_check_cache_capacity_ = persistent_check_cache_capacity;
+   }
+   /**
+            * Maximum number of step validity checks kept across planning requests over unchanged parts of the height map, zero disables it. Negative values are ignored
+            */
+   public int getPersistentCheckCacheCapacity()
+   {
+      return persistent_check_cache_capacity_;
+   }
+
 
    public static Supplier<FootstepPlannerParametersPacketPubSubType> getPubSubType()
    {
@@ -1931,6 +2015,14 @@ public class FootstepPlannerParametersPacket extends Packet<FootstepPlannerParam
 
       if (!us.ihmc.idl.IDLTools.epsilonEqualsPrimitive(this.cliff_height_threshold_, other.cliff_height_threshold_, epsilon)) return false;
 
+      if (!us.ihmc.idl.IDLTools.epsilonEqualsBoolean(this.use_primitive_open_and_closed_sets_, other.use_primitive_open_and_closed_sets_, epsilon)) return false;
+
+      if (!us.ihmc.idl.IDLTools.epsilonEqualsPrimitive(this.number_of_snapping_workers_, other.number_of_snapping_workers_, epsilon)) return false;
+
+      if (!us.ihmc.idl.IDLTools.epsilonEqualsPrimitive(this.persistent_snap_cache_capacity_, other.persistent_snap_cache_capacity_, epsilon)) return false;
+
+      if (!us.ihmc.idl.IDLTools.epsilonEqualsPrimitive(this.persistent_check_cache_capacity_, other.persistent_check_cache_capacity_, epsilon)) return false;
+
 
       return true;
    }
@@ -2082,6 +2174,14 @@ public class FootstepPlannerParametersPacket extends Packet<FootstepPlannerParam
 
       if(this.cliff_height_threshold_ != otherMyClass.cliff_height_threshold_) return false;
 
+      if(this.use_primitive_open_and_closed_sets_ != otherMyClass.use_primitive_open_and_closed_sets_) return false;
+
+      if(this.number_of_snapping_workers_ != otherMyClass.number_of_snapping_workers_) return false;
+
+      if(this.persistent_snap_cache_capacity_ != otherMyClass.persistent_snap_cache_capacity_) return false;
+
+      if(this.persistent_check_cache_capacity_ != otherMyClass.persistent_check_cache_capacity_) return false;
+
 
       return true;
    }
@@ -2229,7 +2329,15 @@ public class FootstepPlannerParametersPacket extends Packet<FootstepPlannerParam
       builder.append("scaled_foot_polygon_percentage=");
       builder.append(this.scaled_foot_polygon_percentage_);      builder.append(", ");
       builder.append("cliff_height_threshold=");
-      builder.append(this.cliff_height_threshold_);
+      builder.append(this.cliff_height_threshold_);      builder.append(", ");
+      builder.append("use_primitive_open_and_closed_sets=");
+      builder.append(this.use_primitive_open_and_closed_sets_);      builder.append(", ");
+      builder.append("number_of_snapping_workers=");
+      builder.append(this.number_of_snapping_workers_);      builder.append(", ");
+      builder.append("persistent_snap_cache_capacity=");
+      builder.append(this.persistent_snap_cache_capacity_);      builder.append(", ");
+      builder.append("persistent_check_cache_capacity=");
+      builder.append(this.persistent_check_cache_capacity_);
       builder.append("}");
       return builder.toString();
    }
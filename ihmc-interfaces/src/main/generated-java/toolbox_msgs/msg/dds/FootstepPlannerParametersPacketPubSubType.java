@@ -190,6 +190,14 @@ public class FootstepPlannerParametersPacketPubSubType implements us.ihmc.pubsub
 
       current_alignment += 8 + us.ihmc.idl.CDR.alignment(current_alignment, 8);
 
+      current_alignment += 1 + us.ihmc.idl.CDR.alignment(current_alignment, 1);
+
+      current_alignment += 4 + us.ihmc.idl.CDR.alignment(current_alignment, 4);
+
+      current_alignment += 4 + us.ihmc.idl.CDR.alignment(current_alignment, 4);
+
+      current_alignment += 4 + us.ihmc.idl.CDR.alignment(current_alignment, 4);
+
 
       return current_alignment - initial_alignment;
    }
@@ -410,6 +418,18 @@ public class FootstepPlannerParametersPacketPubSubType implements us.ihmc.pubsub
       current_alignment += 8 + us.ihmc.idl.CDR.alignment(current_alignment, 8);
 
 
+      current_alignment += 1 + us.ihmc.idl.CDR.alignment(current_alignment, 1);
+
+
+      current_alignment += 4 + us.ihmc.idl.CDR.alignment(current_alignment, 4);
+
+
+      current_alignment += 4 + us.ihmc.idl.CDR.alignment(current_alignment, 4);
+
+
+      current_alignment += 4 + us.ihmc.idl.CDR.alignment(current_alignment, 4);
+
+
 
       return current_alignment - initial_alignment;
    }
@@ -554,6 +574,14 @@ public class FootstepPlannerParametersPacketPubSubType implements us.ihmc.pubsub
 
       cdr.write_type_6(data.getCliffHeightThreshold());
 
+      cdr.write_type_7(data.getUsePrimitiveOpenAndClosedSets());
+
+      cdr.write_type_2(data.getNumberOfSnappingWorkers());
+
+      cdr.write_type_2(data.getPersistentSnapCacheCapacity());
+
+      cdr.write_type_2(data.getPersistentCheckCacheCapacity());
+
    }
 
    public static void read(toolbox_msgs.msg.dds.FootstepPlannerParametersPacket data, us.ihmc.idl.CDR cdr)
@@ -696,6 +724,14 @@ public class FootstepPlannerParametersPacketPubSubType implements us.ihmc.pubsub
       	
       data.setCliffHeightThreshold(cdr.read_type_6());
       	
+      data.setUsePrimitiveOpenAndClosedSets(cdr.read_type_7());
+      	
+      data.setNumberOfSnappingWorkers(cdr.read_type_2());
+      	
+      data.setPersistentSnapCacheCapacity(cdr.read_type_2());
+      	
+      data.setPersistentCheckCacheCapacity(cdr.read_type_2());
+      	
 
    }
 
@@ -771,6 +807,10 @@ public class FootstepPlannerParametersPacketPubSubType implements us.ihmc.pubsub
       ser.write_type_6("height_map_snap_threshold", data.getHeightMapSnapThreshold());
       ser.write_type_6("scaled_foot_polygon_percentage", data.getScaledFootPolygonPercentage());
       ser.write_type_6("cliff_height_threshold", data.getCliffHeightThreshold());
+      ser.write_type_7("use_primitive_open_and_closed_sets", data.getUsePrimitiveOpenAndClosedSets());
+      ser.write_type_2("number_of_snapping_workers", data.getNumberOfSnappingWorkers());
+      ser.write_type_2("persistent_snap_cache_capacity", data.getPersistentSnapCacheCapacity());
+      ser.write_type_2("persistent_check_cache_capacity", data.getPersistentCheckCacheCapacity());
    }
 
    @Override
@@ -845,6 +885,10 @@ public class FootstepPlannerParametersPacketPubSubType implements us.ihmc.pubsub
       data.setHeightMapSnapThreshold(ser.read_type_6("height_map_snap_threshold"));
       data.setScaledFootPolygonPercentage(ser.read_type_6("scaled_foot_polygon_percentage"));
       data.setCliffHeightThreshold(ser.read_type_6("cliff_height_threshold"));
+      data.setUsePrimitiveOpenAndClosedSets(ser.read_type_7("use_primitive_open_and_closed_sets"));
+      data.setNumberOfSnappingWorkers(ser.read_type_2("number_of_snapping_workers"));
+      data.setPersistentSnapCacheCapacity(ser.read_type_2("persistent_snap_cache_capacity"));
+      data.setPersistentCheckCacheCapacity(ser.read_type_2("persistent_check_cache_capacity"));
    }
 
    public static void staticCopy(toolbox_msgs.msg.dds.FootstepPlannerParametersPacket src, toolbox_msgs.msg.dds.FootstepPlannerParametersPacket dest)
@@ -32,6 +32,11 @@ mainDependencies {
    api("us.ihmc:ihmc-native-library-loader:2.0.3")
 }
 
+benchmarksDependencies {
+   api("org.openjdk.jmh:jmh-core:1.37")
+   api("org.openjdk.jmh:jmh-generator-annprocess:1.37")
+}
+
 testDependencies {
    api("us.ihmc:ihmc-robotics-toolkit-test:source")
 }
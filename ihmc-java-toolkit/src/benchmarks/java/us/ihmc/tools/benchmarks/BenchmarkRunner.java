@@ -0,0 +1,34 @@
+package us.ihmc.tools.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the JMH benchmarks found on the classpath with the GC profiler attached, which adds the allocation rate and bytes allocated
+ * per operation ("gc.alloc.rate.norm") to the throughput and latency percentiles. It is shared by the "benchmarks" source sets of
+ * all the projects, which depend on {@code ihmc-java-toolkit-benchmarks} for JMH and its annotation processor.
+ *
+ * The first optional argument is a regular expression selecting the benchmarks to run, e.g. "FootstepCheckerBenchmark", all the
+ * benchmarks on the classpath are run by default. The following optional arguments are benchmark parameters formatted as
+ * "name=value", e.g. "pointCloudDataFolder=/path/to/data".
+ */
+public class BenchmarkRunner
+{
+   public static void main(String[] args) throws RunnerException
+   {
+      OptionsBuilder options = new OptionsBuilder();
+      options.include(args.length > 0 ? args[0] : ".*").addProfiler(GCProfiler.class);
+
+      for (int i = 1; i < args.length; i++)
+      {
+         int separatorIndex = args[i].indexOf('=');
+         if (separatorIndex <= 0)
+            throw new IllegalArgumentException("Expected a benchmark parameter formatted as name=value, got: " + args[i]);
+         options.param(args[i].substring(0, separatorIndex), args[i].substring(separatorIndex + 1));
+      }
+
+      new Runner(options.build()).run();
+   }
+}
@@ -2,6 +2,7 @@ package us.ihmc.pathPlanning.graph.structure;
 
 import java.util.*;
 import java.util.function.Consumer;
+import java.util.function.ObjDoubleConsumer;
 
 /**
  * Class that maintains a directed graph.
@@ -22,6 +23,8 @@ public class DirectedGraph<N>
 
    /** Callback triggered when {@link #checkAndSetEdge(Object, Object, double)} is called */
    private Consumer<GraphEdge<N>> graphExpansionCallback = null;
+   /** Callback triggered with the node and its new cost whenever the cost of a known node decreases */
+   private ObjDoubleConsumer<N> nodeCostDecreaseCallback = null;
 
    /**
     * Removes all nodes and edges stored in the graph and
@@ -104,6 +107,7 @@ public class DirectedGraph<N>
          {
             nodeCostMap.put(endNode, new NodeCost(newNodeCost));
             incomingBestEdge.put(endNode, edge);
+            notifyNodeCostDecrease(endNode, newNodeCost);
             updateChildCostsRecursively(endNode);
          }
       }
@@ -187,10 +191,17 @@ public class DirectedGraph<N>
 
          nodeCostMap.put(childNode, new NodeCost(newCost));
          incomingBestEdge.put(childNode, outgoingEdge);
+         notifyNodeCostDecrease(childNode, newCost);
          updateChildCostsRecursively(childNode);
       }
    }
 
+   private void notifyNodeCostDecrease(N node, double newCost)
+   {
+      if (nodeCostDecreaseCallback != null)
+         nodeCostDecreaseCallback.accept(node, newCost);
+   }
+
    private void checkNodeExists(N node)
    {
       if (!nodeCostMap.containsKey(node))
@@ -216,6 +227,15 @@ public class DirectedGraph<N>
       this.graphExpansionCallback = graphExpansionCallback;
    }
 
+   /**
+    * Sets a callback notified whenever a cheaper path to a known node is found, including the costs lowered while propagating
+    * to the node's children. Open sets that store the cost of their nodes can use it to re-key them.
+    */
+   public void setNodeCostDecreaseCallback(ObjDoubleConsumer<N> nodeCostDecreaseCallback)
+   {
+      this.nodeCostDecreaseCallback = nodeCostDecreaseCallback;
+   }
+
    public HashMap<GraphEdge<N>, EdgeCost> getEdgeCostMap()
    {
       return edgeCostMap;
@@ -0,0 +1,417 @@
+package us.ihmc.pathPlanning.graph.structure;
+
+import java.util.Arrays;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Open and closed set of an A* search, keyed on a packed {@code long} per node.
+ *
+ * Nodes are stored in primitive slots holding the cost from start, the cached heuristic cost and
+ * whether the node has been expanded. Slots are located through an open-addressing hash table
+ * and the open set is an indexed binary heap over slot indices, which allows decrease-key
+ * without duplicate queue entries. Ties in total cost are broken by insertion order.
+ *
+ * After warm-up (arrays grow by doubling) adding, polling and closing nodes does not allocate.
+ *
+ * Keys must be non-negative, {@link #EMPTY_KEY} is reserved to mark free table entries.
+ */
+public class IndexedNodeHeap<N>
+{
+   public static final long EMPTY_KEY = -1L;
+   private static final int NOT_IN_HEAP = -1;
+   private static final int DEFAULT_CAPACITY = 1024;
+
+   private final ToDoubleFunction<N> heuristics;
+
+   /* Open-addressing table mapping key to slot index */
+   private long[] tableKeys;
+   private int[] tableSlots;
+   private int tableMask;
+
+   /* Per-slot data */
+   private long[] slotKeys;
+   private Object[] slotNodes;
+   private double[] costFromStart;
+   private double[] heuristicCost;
+   private long[] insertionOrder;
+   private int[] heapPosition;
+   private boolean[] closed;
+   private int numberOfSlots = 0;
+
+   /* Binary heap of slot indices */
+   private int[] heap;
+   private int heapSize = 0;
+   private long insertionCounter = 0;
+
+   public IndexedNodeHeap(ToDoubleFunction<N> heuristics)
+   {
+      this(heuristics, DEFAULT_CAPACITY);
+   }
+
+   public IndexedNodeHeap(ToDoubleFunction<N> heuristics, int initialCapacity)
+   {
+      this.heuristics = heuristics;
+
+      int capacity = Integer.highestOneBit(Math.max(16, initialCapacity) - 1) << 1;
+      tableKeys = new long[2 * capacity];
+      tableSlots = new int[2 * capacity];
+      tableMask = 2 * capacity - 1;
+      Arrays.fill(tableKeys, EMPTY_KEY);
+
+      slotKeys = new long[capacity];
+      slotNodes = new Object[capacity];
+      costFromStart = new double[capacity];
+      heuristicCost = new double[capacity];
+      insertionOrder = new long[capacity];
+      heapPosition = new int[capacity];
+      closed = new boolean[capacity];
+      heap = new int[capacity];
+   }
+
+   /**
+    * Removes all nodes from the open and closed set. Keeps the allocated capacity.
+    */
+   public void clear()
+   {
+      Arrays.fill(tableKeys, EMPTY_KEY);
+      Arrays.fill(slotNodes, 0, numberOfSlots, null);
+      numberOfSlots = 0;
+      heapSize = 0;
+      insertionCounter = 0;
+   }
+
+   /**
+    * Adds the node to the open set or lowers its cost if it is already queued with a higher cost.
+    * Nodes that have already been closed are ignored. The heuristic is evaluated once per node.
+    *
+    * @return whether the node was queued or its cost was decreased
+    */
+   public boolean addOrDecreaseCost(long key, N node, double nodeCostFromStart)
+   {
+      int slot = findSlot(key);
+      if (slot < 0)
+      {
+         slot = addSlot(key, node);
+         costFromStart[slot] = nodeCostFromStart;
+         heuristicCost[slot] = heuristics.applyAsDouble(node);
+         insertionOrder[slot] = insertionCounter++;
+         pushSlot(slot);
+         return true;
+      }
+
+      if (closed[slot])
+         return false;
+
+      if (heapPosition[slot] == NOT_IN_HEAP)
+      {
+         costFromStart[slot] = nodeCostFromStart;
+         insertionOrder[slot] = insertionCounter++;
+         pushSlot(slot);
+         return true;
+      }
+
+      if (nodeCostFromStart >= costFromStart[slot])
+         return false;
+
+      costFromStart[slot] = nodeCostFromStart;
+      insertionOrder[slot] = insertionCounter++;
+      siftUp(heapPosition[slot]);
+      return true;
+   }
+
+   /**
+    * Lowers the cost of a node that is currently queued in the open set and restores its position in the heap. Nodes that are not
+    * queued, because they are closed, being expanded or unknown, are ignored.
+    *
+    * @return whether the cost of the node was decreased
+    */
+   public boolean decreaseCostIfQueued(long key, double nodeCostFromStart)
+   {
+      int slot = findSlot(key);
+      if (slot < 0 || heapPosition[slot] == NOT_IN_HEAP || nodeCostFromStart >= costFromStart[slot])
+         return false;
+
+      costFromStart[slot] = nodeCostFromStart;
+      insertionOrder[slot] = insertionCounter++;
+      siftUp(heapPosition[slot]);
+      return true;
+   }
+
+   /**
+    * Removes and returns the node with the lowest cost from start plus heuristic cost, or null if the open set is empty.
+    * The node is not closed, call {@link #close(long)} once it has been fully expanded.
+    */
+   @SuppressWarnings("unchecked")
+   public N poll()
+   {
+      if (heapSize == 0)
+         return null;
+
+      int slot = heap[0];
+      heapSize--;
+      if (heapSize > 0)
+      {
+         heap[0] = heap[heapSize];
+         heapPosition[heap[0]] = 0;
+         siftDown(0);
+      }
+
+      heapPosition[slot] = NOT_IN_HEAP;
+      return (N) slotNodes[slot];
+   }
+
+   /**
+    * Marks the node as expanded. Closed nodes are never queued again until {@link #clear()} is called.
+    */
+   public void close(long key)
+   {
+      int slot = findSlot(key);
+      if (slot < 0)
+         return;
+
+      closed[slot] = true;
+      if (heapPosition[slot] != NOT_IN_HEAP)
+         removeFromHeap(heapPosition[slot]);
+   }
+
+   /**
+    * Re-evaluates the cached heuristic cost of every node that hasn't been closed and restores the heap order.
+    * Call this after the heuristic function has changed, for example when the heuristic inflation of an anytime search is lowered.
+    */
+   @SuppressWarnings("unchecked")
+   public void updateHeuristics()
+   {
+      for (int slot = 0; slot < numberOfSlots; slot++)
+      {
+         if (!closed[slot])
+            heuristicCost[slot] = heuristics.applyAsDouble((N) slotNodes[slot]);
+      }
+
+      for (int position = (heapSize >>> 1) - 1; position >= 0; position--)
+      {
+         siftDown(position);
+      }
+   }
+
+   /**
+    * @return the cost from start plus cached heuristic cost of the next node to be polled, or {@link Double#POSITIVE_INFINITY} if the
+    *       open set is empty
+    */
+   public double peekTotalCost()
+   {
+      if (heapSize == 0)
+         return Double.POSITIVE_INFINITY;
+
+      int slot = heap[0];
+      return costFromStart[slot] + heuristicCost[slot];
+   }
+
+   /**
+    * Evaluates the given heuristic, instead of the cached one, on every queued node.
+    *
+    * @return the lowest cost from start plus heuristic cost over the open set, or {@link Double#POSITIVE_INFINITY} if it is empty
+    */
+   @SuppressWarnings("unchecked")
+   public double computeMinimumTotalCost(ToDoubleFunction<N> heuristics)
+   {
+      double minimumTotalCost = Double.POSITIVE_INFINITY;
+      for (int position = 0; position < heapSize; position++)
+      {
+         int slot = heap[position];
+         minimumTotalCost = Math.min(minimumTotalCost, costFromStart[slot] + heuristics.applyAsDouble((N) slotNodes[slot]));
+      }
+
+      return minimumTotalCost;
+   }
+
+   public boolean isClosed(long key)
+   {
+      int slot = findSlot(key);
+      return slot >= 0 && closed[slot];
+   }
+
+   public boolean contains(long key)
+   {
+      return findSlot(key) >= 0;
+   }
+
+   public boolean isEmpty()
+   {
+      return heapSize == 0;
+   }
+
+   public int size()
+   {
+      return heapSize;
+   }
+
+   /**
+    * @return the stored cost from start of the node, or {@link Double#NaN} if it has not been added
+    */
+   public double getCostFromStart(long key)
+   {
+      int slot = findSlot(key);
+      return slot < 0 ? Double.NaN : costFromStart[slot];
+   }
+
+   /**
+    * @return the cached heuristic cost of the node, or {@link Double#NaN} if it has not been added
+    */
+   public double getHeuristicCost(long key)
+   {
+      int slot = findSlot(key);
+      return slot < 0 ? Double.NaN : heuristicCost[slot];
+   }
+
+   private int findSlot(long key)
+   {
+      int index = hash(key) & tableMask;
+      while (true)
+      {
+         long tableKey = tableKeys[index];
+         if (tableKey == key)
+            return tableSlots[index];
+         if (tableKey == EMPTY_KEY)
+            return -1;
+         index = (index + 1) & tableMask;
+      }
+   }
+
+   private int addSlot(long key, N node)
+   {
+      if (key == EMPTY_KEY)
+         throw new IllegalArgumentException("Key " + EMPTY_KEY + " is reserved");
+
+      if (numberOfSlots == slotKeys.length)
+         grow();
+
+      int slot = numberOfSlots++;
+      slotKeys[slot] = key;
+      slotNodes[slot] = node;
+      closed[slot] = false;
+      heapPosition[slot] = NOT_IN_HEAP;
+      insertIntoTable(key, slot);
+      return slot;
+   }
+
+   private void insertIntoTable(long key, int slot)
+   {
+      int index = hash(key) & tableMask;
+      while (tableKeys[index] != EMPTY_KEY)
+      {
+         index = (index + 1) & tableMask;
+      }
+
+      tableKeys[index] = key;
+      tableSlots[index] = slot;
+   }
+
+   private void grow()
+   {
+      int capacity = 2 * slotKeys.length;
+
+      slotKeys = Arrays.copyOf(slotKeys, capacity);
+      slotNodes = Arrays.copyOf(slotNodes, capacity);
+      costFromStart = Arrays.copyOf(costFromStart, capacity);
+      heuristicCost = Arrays.copyOf(heuristicCost, capacity);
+      insertionOrder = Arrays.copyOf(insertionOrder, capacity);
+      heapPosition = Arrays.copyOf(heapPosition, capacity);
+      closed = Arrays.copyOf(closed, capacity);
+      heap = Arrays.copyOf(heap, capacity);
+
+      tableKeys = new long[2 * capacity];
+      tableSlots = new int[2 * capacity];
+      tableMask = 2 * capacity - 1;
+      Arrays.fill(tableKeys, EMPTY_KEY);
+      for (int slot = 0; slot < numberOfSlots; slot++)
+      {
+         insertIntoTable(slotKeys[slot], slot);
+      }
+   }
+
+   private void pushSlot(int slot)
+   {
+      int position = heapSize++;
+      heap[position] = slot;
+      heapPosition[slot] = position;
+      siftUp(position);
+   }
+
+   private void removeFromHeap(int position)
+   {
+      int slot = heap[position];
+      heapPosition[slot] = NOT_IN_HEAP;
+      heapSize--;
+
+      if (position == heapSize)
+         return;
+
+      heap[position] = heap[heapSize];
+      heapPosition[heap[position]] = position;
+      siftDown(position);
+      siftUp(position);
+   }
+
+   private void siftUp(int position)
+   {
+      int slot = heap[position];
+      while (position > 0)
+      {
+         int parentPosition = (position - 1) >>> 1;
+         int parentSlot = heap[parentPosition];
+         if (!isLower(slot, parentSlot))
+            break;
+
+         heap[position] = parentSlot;
+         heapPosition[parentSlot] = position;
+         position = parentPosition;
+      }
+
+      heap[position] = slot;
+      heapPosition[slot] = position;
+   }
+
+   private void siftDown(int position)
+   {
+      int slot = heap[position];
+      while (true)
+      {
+         int childPosition = 2 * position + 1;
+         if (childPosition >= heapSize)
+            break;
+
+         if (childPosition + 1 < heapSize && isLower(heap[childPosition + 1], heap[childPosition]))
+            childPosition++;
+
+         int childSlot = heap[childPosition];
+         if (!isLower(childSlot, slot))
+            break;
+
+         heap[position] = childSlot;
+         heapPosition[childSlot] = position;
+         position = childPosition;
+      }
+
+      heap[position] = slot;
+      heapPosition[slot] = position;
+   }
+
+   private boolean isLower(int slotA, int slotB)
+   {
+      double costA = costFromStart[slotA] + heuristicCost[slotA];
+      double costB = costFromStart[slotB] + heuristicCost[slotB];
+      if (costA != costB)
+         return costA < costB;
+      return insertionOrder[slotA] < insertionOrder[slotB];
+   }
+
+   private static int hash(long key)
+   {
+      key ^= key >>> 33;
+      key *= 0xff51afd7ed558ccdL;
+      key ^= key >>> 33;
+      key *= 0xc4ceb9fe1a85ec53L;
+      key ^= key >>> 33;
+      return (int) key;
+   }
+}
@@ -16,7 +16,7 @@ import us.ihmc.robotics.geometry.PlanarRegionsList;
 //TODO: +++JerryPratt: Clean up package structure for all of these classes.
 public class NavigableRegions
 {
-   private List<PlanarRegion> regions;
+   private PlanarRegionsList regions;
    private List<NavigableRegion> navigableRegions;
 
    private final VisibilityGraphsParametersReadOnly parameters;
@@ -37,7 +37,7 @@ public class NavigableRegions
       if (regions != null)
       {
          regions = REAPlanarRegionTools.ensureClockwiseOrder(regions);
-         this.regions = regions.stream().filter(parameters.getPlanarRegionFilter()::isPlanarRegionRelevant).collect(Collectors.toList());
+         this.regions = new PlanarRegionsList(regions.stream().filter(parameters.getPlanarRegionFilter()::isPlanarRegionRelevant).collect(Collectors.toList()));
       }
       else
       {
@@ -48,12 +48,13 @@ public class NavigableRegions
 
    public void filterPlanarRegionsWithBoundingCapsule(Point3DReadOnly start, Point3DReadOnly goal, double explorationDistanceFromStartGoal)
    {
-      regions = PlanarRegionTools.filterPlanarRegionsWithBoundingCapsule(start, goal, explorationDistanceFromStartGoal, regions);
+      if (regions != null)
+         regions = new PlanarRegionsList(PlanarRegionTools.filterPlanarRegionsWithBoundingCapsule(start, goal, explorationDistanceFromStartGoal, regions));
    }
 
    public void createNavigableRegions()
    {
-      navigableRegions = NavigableRegionsFactory.createNavigableRegions(regions, parameters);
+      navigableRegions = NavigableRegionsFactory.createNavigableRegions(regions == null ? null : regions.getPlanarRegionsAsList(), parameters);
    }
 
    public List<NavigableRegion> getNavigableRegionsList()
@@ -0,0 +1,111 @@
+package us.ihmc.pathPlanning.graph.structure;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IndexedNodeHeapTest
+{
+   @Test
+   public void testPollOrderMatchesPriorityQueue()
+   {
+      Random random = new Random(4390L);
+      double[] costs = new double[5000];
+      for (int i = 0; i < costs.length; i++)
+      {
+         costs[i] = random.nextDouble();
+      }
+
+      IndexedNodeHeap<Integer> heap = new IndexedNodeHeap<>(node -> 0.0, 16);
+      PriorityQueue<Integer> queue = new PriorityQueue<>((a, b) -> Double.compare(costs[a], costs[b]));
+      for (int i = 0; i < costs.length; i++)
+      {
+         assertTrue(heap.addOrDecreaseCost(i, i, costs[i]));
+         queue.add(i);
+      }
+
+      assertEquals(costs.length, heap.size());
+      while (!queue.isEmpty())
+      {
+         assertEquals(queue.poll(), heap.poll());
+      }
+
+      assertTrue(heap.isEmpty());
+      assertNull(heap.poll());
+   }
+
+   @Test
+   public void testDecreaseCostAndClose()
+   {
+      IndexedNodeHeap<String> heap = new IndexedNodeHeap<>(node -> node.length());
+
+      heap.addOrDecreaseCost(0L, "a", 5.0);
+      heap.addOrDecreaseCost(1L, "bb", 3.0);
+      heap.addOrDecreaseCost(2L, "ccc", 4.0);
+      assertEquals(3.0, heap.getHeuristicCost(2L));
+
+      // higher cost is ignored, lower cost reorders
+      assertFalse(heap.addOrDecreaseCost(1L, "bb", 10.0));
+      assertTrue(heap.addOrDecreaseCost(0L, "a", 1.0));
+      assertEquals(1.0, heap.getCostFromStart(0L));
+      assertEquals(3, heap.size());
+
+      assertEquals("a", heap.poll());
+      heap.close(0L);
+      assertTrue(heap.isClosed(0L));
+      assertFalse(heap.addOrDecreaseCost(0L, "a", 0.0));
+
+      assertEquals("bb", heap.poll());
+      assertEquals("ccc", heap.poll());
+      assertTrue(heap.isEmpty());
+
+      // equal total cost is broken by insertion order
+      heap.addOrDecreaseCost(3L, "d", 1.0);
+      heap.addOrDecreaseCost(4L, "e", 1.0);
+      assertEquals("d", heap.poll());
+      assertEquals("e", heap.poll());
+
+      heap.clear();
+      assertFalse(heap.contains(0L));
+      assertTrue(Double.isNaN(heap.getCostFromStart(1L)));
+   }
+
+   @Test
+   public void testUpdateHeuristics()
+   {
+      double[] heuristicScale = {1.0};
+      IndexedNodeHeap<String> heap = new IndexedNodeHeap<>(node -> heuristicScale[0] * node.length());
+
+      heap.addOrDecreaseCost(0L, "aaaa", 0.0);
+      heap.addOrDecreaseCost(1L, "b", 2.0);
+
+      // with heuristic = length, "b" has total cost 3 and "aaaa" 4
+      heuristicScale[0] = 0.0;
+      assertEquals(4.0, heap.getHeuristicCost(0L));
+      heap.updateHeuristics();
+      assertEquals(0.0, heap.getHeuristicCost(0L));
+      assertEquals("aaaa", heap.poll());
+      assertEquals("b", heap.poll());
+   }
+
+   @Test
+   public void testPeekAndMinimumTotalCost()
+   {
+      IndexedNodeHeap<String> heap = new IndexedNodeHeap<>(node -> 2.0 * node.length());
+      assertEquals(Double.POSITIVE_INFINITY, heap.peekTotalCost());
+
+      heap.addOrDecreaseCost(0L, "aaa", 1.0);
+      heap.addOrDecreaseCost(1L, "b", 4.0);
+
+      // inflated totals are 7 and 6, uninflated totals are 4 and 5
+      assertEquals(6.0, heap.peekTotalCost());
+      assertEquals(4.0, heap.computeMinimumTotalCost(node -> node.length()));
+
+      assertEquals("b", heap.poll());
+      assertEquals(7.0, heap.peekTotalCost());
+      assertEquals(4.0, heap.computeMinimumTotalCost(node -> node.length()));
+   }
+}
@@ -52,6 +52,9 @@ import java.util.function.Supplier;
 
 public class HumanoidPerceptionModule
 {
+   // Tiles of the global height map beyond this are spilled to disk, so long missions don't grow the heap
+   private static final long GLOBAL_HEIGHT_MAP_MEMORY_BUDGET = 256L * 1024 * 1024;
+
    private final ResettableExceptionHandlingExecutorService executorService = MissingThreadTools.newSingleThreadExecutor(getClass().getSimpleName(), true, 16);
    private final BytePointer compressedDepthPointer = new BytePointer();
    private final FramePose3D cameraPose = new FramePose3D();
@@ -78,7 +81,7 @@ public class HumanoidPerceptionModule
    private FramePlanarRegionsList sensorFrameRegions;
    private HeightMapData latestHeightMapData;
    private BytedecoImage realsenseDepthImage;
-   private final GlobalHeightMap globalHeightMap = new GlobalHeightMap();
+   private final GlobalHeightMap globalHeightMap = new GlobalHeightMap(GLOBAL_HEIGHT_MAP_MEMORY_BUDGET);
    private final PerceptionStatistics perceptionStatistics = new PerceptionStatistics();
    private final Notification resetHeightMapRequested = new Notification();
 
@@ -425,6 +428,8 @@ public class HumanoidPerceptionModule
 
       if (localizationAndMappingTask != null)
          localizationAndMappingTask.destroy();
+
+      globalHeightMap.destroy();
    }
 
    public RapidHeightMapExtractor getRapidHeightMapExtractor()
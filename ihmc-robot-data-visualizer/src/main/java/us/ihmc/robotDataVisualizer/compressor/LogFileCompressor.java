@@ -5,7 +5,6 @@ import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.PrintStream;
-import java.nio.ByteBuffer;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
@@ -21,12 +20,17 @@ import us.ihmc.robotDataLogger.LogProperties;
 import us.ihmc.robotDataLogger.logger.LogPropertiesReader;
 import us.ihmc.robotDataLogger.logger.YoVariableLogReader;
 import us.ihmc.robotDataLogger.logger.YoVariableLoggerListener;
+import us.ihmc.robotDataVisualizer.logger.MemoryMappedYoVariableLogReader;
 import us.ihmc.robotDataVisualizer.logger.util.CustomProgressMonitor;
 import us.ihmc.robotDataVisualizer.logger.util.ProgressMonitorInterface;
 
 public class LogFileCompressor extends YoVariableLogReader
 {
    public static final int NUMBER_OF_THREADS = 8;
+   /**
+    * Size of each of the {@link #NUMBER_OF_THREADS} buffers holding the data waiting to be compressed. It sets the number of
+    * entries per compressed data file, so changing it changes the layout of the compressed logs.
+    */
    public static final int MAX_BUFFER_SIZE_IN_BYTE = 1000000000;
    public static final int COMPRESSION_LEVEL = 3;
 
@@ -52,7 +56,7 @@ public class LogFileCompressor extends YoVariableLogReader
 
       int maxBufferedElements = MAX_BUFFER_SIZE_IN_BYTE / 8;
 
-      bufferedElements = maxBufferedElements / getNumberOfVariables();
+      bufferedElements = Math.max(1, maxBufferedElements / getNumberOfVariables());
 
       this.progressMonitor = progressMonitor;
       progressMonitor.initialize("Log file compression", null, 0, getNumberOfEntries() / bufferedElements);
@@ -124,43 +128,54 @@ public class LogFileCompressor extends YoVariableLogReader
       out.println("Saved checksums");
    }
 
+   /**
+    * Transposes the log into one buffer per data file. The entries of a data file are read and
+    * transposed in parallel from the memory-mapped log, while the previous data files are being
+    * compressed on the thread pool.
+    */
    private void decompressData() throws IOException
    {
+      int numberOfVariables = getNumberOfVariables();
 
-      int fileIndex = 0;
-      int currentFileEntry = 0;
-
-      DataBuffer buffer = getFreeDataBuffer(fileIndex);
-
-      for (int i = 0; i < getNumberOfEntries(); i++)
+      try (MemoryMappedYoVariableLogReader reader = new MemoryMappedYoVariableLogReader(logDirectory, logProperties))
       {
-         ByteBuffer dataLine = readData(i);
-
-         for (int e = 0; e < getNumberOfVariables(); e++)
+         if (reader.getNumberOfStateVariables() != numberOfVariables)
          {
-            buffer.data[e][currentFileEntry * 8] = dataLine.get();
-            buffer.data[e][currentFileEntry * 8 + 1] = dataLine.get();
-            buffer.data[e][currentFileEntry * 8 + 2] = dataLine.get();
-            buffer.data[e][currentFileEntry * 8 + 3] = dataLine.get();
-            buffer.data[e][currentFileEntry * 8 + 4] = dataLine.get();
-            buffer.data[e][currentFileEntry * 8 + 5] = dataLine.get();
-            buffer.data[e][currentFileEntry * 8 + 6] = dataLine.get();
-            buffer.data[e][currentFileEntry * 8 + 7] = dataLine.get();
+            throw new RuntimeException("Expected " + numberOfVariables + " variables per entry, the log has " + reader.getNumberOfStateVariables());
          }
 
-         currentFileEntry++;
-         if (currentFileEntry >= bufferedElements)
+         int fileIndex = 0;
+
+         for (int firstEntry = 0; firstEntry < getNumberOfEntries(); firstEntry += bufferedElements)
          {
-            submitBuffer(buffer, currentFileEntry);
+            int fileStart = firstEntry;
+            int numberOfFileEntries = Math.min(bufferedElements, getNumberOfEntries() - fileStart);
+            DataBuffer buffer = getFreeDataBuffer(fileIndex);
+            byte[][] data = buffer.data;
+
+            reader.processInParallel(fileStart, fileStart + numberOfFileEntries, (entry, dataLine) ->
+            {
+               int index = (entry - fileStart) * 8;
+
+               for (int e = 0; e < numberOfVariables; e++)
+               {
+                  long value = dataLine.get(e);
+                  byte[] variableData = data[e];
+                  variableData[index] = (byte) (value >>> 56);
+                  variableData[index + 1] = (byte) (value >>> 48);
+                  variableData[index + 2] = (byte) (value >>> 40);
+                  variableData[index + 3] = (byte) (value >>> 32);
+                  variableData[index + 4] = (byte) (value >>> 24);
+                  variableData[index + 5] = (byte) (value >>> 16);
+                  variableData[index + 6] = (byte) (value >>> 8);
+                  variableData[index + 7] = (byte) value;
+               }
+            });
+
+            submitBuffer(buffer, numberOfFileEntries);
             fileIndex++;
-            buffer = getFreeDataBuffer(fileIndex);
-            currentFileEntry = 0;
          }
       }
-      if(currentFileEntry != 0)
-      {
-         submitBuffer(buffer, currentFileEntry);
-      }
 
       out.println("All data read");
       threadPool.shutdown();
@@ -0,0 +1,357 @@
+package us.ihmc.robotDataVisualizer.logger;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import us.ihmc.robotDataLogger.LogIndex;
+import us.ihmc.robotDataLogger.LogProperties;
+import us.ihmc.robotDataLogger.handshake.YoVariableHandshakeParser;
+import us.ihmc.tools.compression.SnappyUtils;
+
+/**
+ * Reads the variable data of a log through memory-mapped windows of the data file instead of
+ * reading it line by line through a stream.
+ * <p>
+ * The log is addressed by entry, i.e. one tick of the logger, using the index file for compressed
+ * logs and the fixed line size otherwise. Each {@link Cursor} maps at most
+ * {@link #getWindowSizeInBytes()} bytes of the data file at a time, such that
+ * {@link #processInParallel(int, int, EntryProcessor)} can split a range of entries among the
+ * worker threads with a bounded amount of mapped memory and let the throughput be limited by the
+ * disk rather than a single core decompressing the data.
+ * </p>
+ * <p>
+ * The reader itself is thread-safe, the cursors are not and should be used by a single thread.
+ * </p>
+ */
+public class MemoryMappedYoVariableLogReader implements Closeable
+{
+   public static final long DEFAULT_WINDOW_SIZE_IN_BYTES = 64L * 1024L * 1024L;
+   /** Ranges smaller than this are not split any further, the overhead of mapping a window would dominate. */
+   public static final int MINIMUM_ENTRIES_PER_RANGE = 1024;
+
+   private final FileChannel dataChannel;
+   private final long dataSize;
+   private final long windowSizeInBytes;
+
+   private final int numberOfStateVariables;
+   private final int entrySizeInBytes;
+   private final int maxCompressedEntrySize;
+
+   private final boolean compressed;
+   private final LogIndex logIndex;
+   private final int numberOfEntries;
+
+   public MemoryMappedYoVariableLogReader(File logDirectory, LogProperties logProperties) throws IOException
+   {
+      this(logDirectory, logProperties, DEFAULT_WINDOW_SIZE_IN_BYTES);
+   }
+
+   /**
+    * @param logDirectory      the directory of the log.
+    * @param logProperties     the properties of the log.
+    * @param windowSizeInBytes the maximum number of bytes of the data file mapped at once by each
+    *                          cursor. Increased to the size of an entry if smaller, and at most
+    *                          {@link Integer#MAX_VALUE}.
+    */
+   public MemoryMappedYoVariableLogReader(File logDirectory, LogProperties logProperties, long windowSizeInBytes) throws IOException
+   {
+      this(getDataFile(logDirectory, logProperties),
+           logProperties.getVariables().getCompressed() ? getIndexFile(logDirectory, logProperties) : null,
+           readNumberOfStateVariables(logDirectory, logProperties),
+           windowSizeInBytes);
+   }
+
+   /**
+    * @param logdata                the data file of the log.
+    * @param indexData              the index file of a compressed log, {@code null} if the log is not
+    *                               compressed.
+    * @param numberOfStateVariables the number of longs in an entry.
+    * @param windowSizeInBytes      the maximum number of bytes of the data file mapped at once by each
+    *                               cursor.
+    */
+   MemoryMappedYoVariableLogReader(File logdata, File indexData, int numberOfStateVariables, long windowSizeInBytes) throws IOException
+   {
+      this.numberOfStateVariables = numberOfStateVariables;
+      entrySizeInBytes = numberOfStateVariables * 8;
+      maxCompressedEntrySize = SnappyUtils.maxCompressedLength(entrySizeInBytes);
+
+      dataChannel = FileChannel.open(logdata.toPath(), StandardOpenOption.READ);
+      dataSize = dataChannel.size();
+
+      compressed = indexData != null;
+      if (compressed)
+      {
+         logIndex = new LogIndex(indexData, dataSize);
+         numberOfEntries = logIndex.getNumberOfEntries();
+         this.windowSizeInBytes = Math.min(Integer.MAX_VALUE, Math.max(windowSizeInBytes, maxCompressedEntrySize));
+      }
+      else
+      {
+         logIndex = null;
+         numberOfEntries = (int) (dataSize / entrySizeInBytes);
+         this.windowSizeInBytes = Math.min(Integer.MAX_VALUE, Math.max(windowSizeInBytes, entrySizeInBytes));
+      }
+   }
+
+   private static int readNumberOfStateVariables(File logDirectory, LogProperties logProperties) throws IOException
+   {
+      File handshake = new File(logDirectory, logProperties.getVariables().getHandshakeAsString());
+      if (!handshake.exists())
+      {
+         throw new RuntimeException("Cannot find " + logProperties.getVariables().getHandshakeAsString());
+      }
+      byte[] handshakeData = Files.readAllBytes(handshake.toPath());
+      return YoVariableHandshakeParser.getNumberOfStateVariables(logProperties.getVariables().getHandshakeFileType(), handshakeData);
+   }
+
+   private static File getDataFile(File logDirectory, LogProperties logProperties)
+   {
+      File logdata = new File(logDirectory, logProperties.getVariables().getDataAsString());
+      if (!logdata.exists())
+      {
+         throw new RuntimeException("Cannot find " + logProperties.getVariables().getDataAsString());
+      }
+      return logdata;
+   }
+
+   private static File getIndexFile(File logDirectory, LogProperties logProperties)
+   {
+      File indexData = new File(logDirectory, logProperties.getVariables().getIndexAsString());
+      if (!indexData.exists())
+      {
+         throw new RuntimeException("Cannot find " + logProperties.getVariables().getIndexAsString());
+      }
+      return indexData;
+   }
+
+   public int getNumberOfEntries()
+   {
+      return numberOfEntries;
+   }
+
+   /**
+    * @return the number of longs in an entry: the timestamp, the variables and the joint states.
+    */
+   public int getNumberOfStateVariables()
+   {
+      return numberOfStateVariables;
+   }
+
+   public int getEntrySizeInBytes()
+   {
+      return entrySizeInBytes;
+   }
+
+   public long getWindowSizeInBytes()
+   {
+      return windowSizeInBytes;
+   }
+
+   public boolean isCompressed()
+   {
+      return compressed;
+   }
+
+   /**
+    * Gets the timestamp of the given entry, from the index file when the log is compressed.
+    * <p>
+    * For uncompressed logs, prefer using a {@link Cursor} when querying many timestamps.
+    * </p>
+    */
+   public long getTimestamp(int entry)
+   {
+      if (compressed)
+         return logIndex.timestamps[entry];
+      else
+         return openCursor().read(entry).get(0);
+   }
+
+   /**
+    * Finds the first entry logged at or after the given timestamp.
+    *
+    * @param timestamp the timestamp to search for.
+    * @return the index of the entry, clamped to the entries of the log.
+    */
+   public int getPosition(long timestamp)
+   {
+      Cursor cursor = compressed ? null : openCursor();
+      int low = 0;
+      int high = numberOfEntries - 1;
+
+      while (low <= high)
+      {
+         int mid = (low + high) >>> 1;
+         long midTimestamp = compressed ? logIndex.timestamps[mid] : cursor.read(mid).get(0);
+
+         if (midTimestamp < timestamp)
+            low = mid + 1;
+         else if (midTimestamp > timestamp)
+            high = mid - 1;
+         else
+            return mid;
+      }
+
+      return Math.max(0, Math.min(low, numberOfEntries - 1));
+   }
+
+   /**
+    * Creates a new cursor to read entries from the log. The cursor is to be used by a single thread
+    * and is the most efficient when reading entries in increasing order.
+    */
+   public Cursor openCursor()
+   {
+      return new Cursor();
+   }
+
+   /**
+    * Reads all the entries in [{@code startEntry}, {@code endEntry}[ in parallel.
+    * <p>
+    * The range is split into contiguous sub-ranges which are processed on the common fork-join pool,
+    * each with its own cursor. The entries of a sub-range are processed in increasing order by a
+    * single thread, while different sub-ranges are processed concurrently, so the processor is
+    * expected to only write to state indexed by entry.
+    * </p>
+    *
+    * @param startEntry the first entry to process, inclusive.
+    * @param endEntry   the last entry to process, exclusive.
+    * @param processor  the callback invoked for each entry.
+    */
+   public void processInParallel(int startEntry, int endEntry, EntryProcessor processor)
+   {
+      int numberOfEntriesToProcess = endEntry - startEntry;
+      if (numberOfEntriesToProcess <= 0)
+         return;
+
+      int numberOfRanges = computeNumberOfRanges(numberOfEntriesToProcess, ForkJoinPool.getCommonPoolParallelism());
+
+      IntStream.range(0, numberOfRanges).parallel().forEach(range ->
+      {
+         int rangeStart = computeRangeStart(startEntry, numberOfEntriesToProcess, range, numberOfRanges);
+         int rangeEnd = computeRangeStart(startEntry, numberOfEntriesToProcess, range + 1, numberOfRanges);
+         Cursor cursor = openCursor();
+
+         for (int entry = rangeStart; entry < rangeEnd; entry++)
+         {
+            processor.process(entry, cursor.read(entry));
+         }
+      });
+   }
+
+   static int computeNumberOfRanges(int numberOfEntriesToProcess, int parallelism)
+   {
+      return Math.max(1, Math.min(4 * parallelism, numberOfEntriesToProcess / MINIMUM_ENTRIES_PER_RANGE));
+   }
+
+   static int computeRangeStart(int startEntry, int numberOfEntriesToProcess, int range, int numberOfRanges)
+   {
+      return startEntry + (int) ((long) numberOfEntriesToProcess * range / numberOfRanges);
+   }
+
+   @Override
+   public void close()
+   {
+      try
+      {
+         dataChannel.close();
+      }
+      catch (IOException e)
+      {
+         throw new RuntimeException(e);
+      }
+   }
+
+   public static interface EntryProcessor
+   {
+      /**
+       * @param entry     the index of the entry in the log.
+       * @param entryData the decompressed entry starting with the timestamp, only valid during this
+       *                  call. The position of the buffer can be modified.
+       */
+      void process(int entry, LongBuffer entryData);
+   }
+
+   /**
+    * Sequential reader over a window of the mapped data file. Not thread-safe.
+    */
+   public class Cursor
+   {
+      private MappedByteBuffer window;
+      private long windowStart = 0;
+      private long windowEnd = 0;
+
+      private final byte[] compressedEntry;
+      private final ByteBuffer compressedEntryBuffer;
+      private final ByteBuffer entryBuffer = ByteBuffer.allocate(entrySizeInBytes);
+      private final LongBuffer entryLongBuffer = entryBuffer.asLongBuffer();
+
+      private Cursor()
+      {
+         compressedEntry = compressed ? new byte[maxCompressedEntrySize] : null;
+         compressedEntryBuffer = compressed ? ByteBuffer.wrap(compressedEntry) : null;
+      }
+
+      /**
+       * Reads the given entry.
+       *
+       * @param entry the index of the entry in the log.
+       * @return the entry starting with the timestamp, only valid until the next call to this cursor.
+       */
+      public LongBuffer read(int entry)
+      {
+         if (entry < 0 || entry >= numberOfEntries)
+            throw new IndexOutOfBoundsException("Entry " + entry + " is out of bounds, the log has " + numberOfEntries + " entries.");
+
+         entryBuffer.clear();
+         entryLongBuffer.clear();
+
+         if (compressed)
+         {
+            long offset = logIndex.dataOffsets[entry];
+            int size = logIndex.compressedSizes[entry];
+            if (size > compressedEntry.length)
+               throw new RuntimeException("Entry " + entry + " has a compressed size of " + size + ", expected at most " + compressedEntry.length);
+
+            mapWindow(offset, size);
+            window.get((int) (offset - windowStart), compressedEntry, 0, size);
+            compressedEntryBuffer.clear();
+            compressedEntryBuffer.limit(size);
+            SnappyUtils.uncompress(compressedEntryBuffer, entryBuffer);
+         }
+         else
+         {
+            long offset = (long) entry * entrySizeInBytes;
+            mapWindow(offset, entrySizeInBytes);
+            window.get((int) (offset - windowStart), entryBuffer.array(), 0, entrySizeInBytes);
+         }
+
+         return entryLongBuffer;
+      }
+
+      private void mapWindow(long offset, int size)
+      {
+         if (window != null && offset >= windowStart && offset + size <= windowEnd)
+            return;
+
+         try
+         {
+            windowStart = offset;
+            windowEnd = Math.min(dataSize, offset + windowSizeInBytes);
+            window = dataChannel.map(MapMode.READ_ONLY, windowStart, windowEnd - windowStart);
+         }
+         catch (IOException e)
+         {
+            throw new RuntimeException(e);
+         }
+      }
+   }
+}
@@ -2,9 +2,9 @@ package us.ihmc.robotDataVisualizer.logger;
 
 import java.io.File;
 import java.io.IOException;
-import java.nio.ByteBuffer;
 import java.nio.LongBuffer;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -26,6 +26,12 @@ import us.ihmc.yoVariables.variable.*;
 
 public class YoVariableExporter extends YoVariableLogReader
 {
+   /**
+    * Size of the primitive buffers the entries are read into in parallel before being copied into the MATLAB arrays. This bounds the
+    * memory used on top of the MATLAB arrays regardless of the length of the exported range.
+    */
+   private static final long BATCH_SIZE_IN_BYTES = 256L * 1024L * 1024L;
+
    private final List<YoVariable> variables;
    private final Map<String, YoVariable> fullnameToVariableMap;
    private final Map<String, List<YoVariable>> nameToVariablesMap = new HashMap<>();
@@ -54,15 +60,10 @@ public class YoVariableExporter extends YoVariableLogReader
    {
       ProgressMonitorInterface monitor = new CustomProgressMonitor("Export data to Matlab", "Reading variable data", 0, 100);
 
-      if (!initialize())
+      try (MemoryMappedYoVariableLogReader reader = new MemoryMappedYoVariableLogReader(logDirectory, logProperties))
       {
-         return;
-      }
-
-      try
-      {
-         int startPosition = getPosition(start);
-         int endPosition = getPosition(end);
+         int startPosition = reader.getPosition(start);
+         int endPosition = reader.getPosition(end);
          int elements = endPosition - startPosition + 1;
 
          // Time element
@@ -70,30 +71,50 @@ public class YoVariableExporter extends YoVariableLogReader
          MLDouble robotTime = new MLDouble("robotTime", new int[] {elements, 1});
 
          List<DataHolder<?>> dataHolders = toDataHolders(elements, vargroup);
-
-         int step = elements / 90;
-
-         long firstTimestamp = -1;
-         for (int i = startPosition; i <= endPosition; i++)
+         int entriesPerBatch = (int) Math.min(elements,
+                                              Math.max(MemoryMappedYoVariableLogReader.MINIMUM_ENTRIES_PER_RANGE,
+                                                       BATCH_SIZE_IN_BYTES / (8L * (dataHolders.size() + 1))));
+         long[] batchTimestamps = new long[entriesPerBatch];
+         dataHolders.forEach(dataHolder -> dataHolder.allocateBatch(entriesPerBatch));
+
+         int step = Math.max(1, elements / 90);
+         AtomicInteger readEntries = new AtomicInteger();
+         long firstTimestamp = reader.getTimestamp(startPosition);
+
+         // The entries of a batch are read in parallel into primitive arrays, the MATLAB arrays are not thread-safe and are filled afterwards.
+         for (int batchStart = startPosition; batchStart <= endPosition; batchStart += entriesPerBatch)
          {
-            if ((i - startPosition) % step == 0)
-            {
-               monitor.setProgress((i - startPosition) / step);
-            }
-
-            ByteBuffer data = readData(i);
-            LongBuffer dataAsLong = data.asLongBuffer();
-
-            long entryTimestamp = dataAsLong.get();
+            int firstEntry = batchStart;
+            int batchSize = Math.min(entriesPerBatch, endPosition + 1 - firstEntry);
 
-            if (firstTimestamp == -1)
+            reader.processInParallel(firstEntry, firstEntry + batchSize, (entry, dataAsLong) ->
             {
-               firstTimestamp = entryTimestamp;
+               int batchElement = entry - firstEntry;
+               batchTimestamps[batchElement] = dataAsLong.get(0);
+
+               for (int i = 0; i < dataHolders.size(); i++)
+               {
+                  dataHolders.get(i).addEntry(batchElement, dataAsLong);
+               }
+
+               int progress = readEntries.incrementAndGet();
+               if (progress % step == 0)
+               {
+                  synchronized (monitor)
+                  {
+                     monitor.setProgress(progress / step);
+                  }
+               }
+            });
+
+            int firstElement = firstEntry - startPosition;
+            for (int i = 0; i < batchSize; i++)
+            {
+               timestamp.setReal(batchTimestamps[i], firstElement + i);
+               robotTime.setReal(Conversions.nanosecondsToSeconds(batchTimestamps[i] - firstTimestamp), firstElement + i);
             }
 
-            timestamp.setReal(entryTimestamp, i - startPosition);
-            robotTime.setReal(Conversions.nanosecondsToSeconds(entryTimestamp - firstTimestamp), i - startPosition);
-            dataHolders.forEach(dataHolder -> dataHolder.addEntry(dataAsLong));
+            dataHolders.forEach(dataHolder -> dataHolder.flushBatch(firstElement, batchSize));
          }
 
          monitor.setNote("Writing data to disk");
@@ -242,6 +263,7 @@ public class YoVariableExporter extends YoVariableLogReader
    {
       private final MLNumericArray<T> data;
       private final int offset;
+      private long[] batch;
 
       private int index = 0;
 
@@ -251,11 +273,23 @@ public class YoVariableExporter extends YoVariableLogReader
          this.offset = offset;
       }
 
-      public void addEntry(LongBuffer dataAsLong)
+      public void allocateBatch(int entriesPerBatch)
       {
-         long entryAsLong = dataAsLong.get(offset);
-         set(entryAsLong);
-         index++;
+         batch = new long[entriesPerBatch];
+      }
+
+      public void addEntry(int batchElement, LongBuffer dataAsLong)
+      {
+         batch[batchElement] = dataAsLong.get(offset);
+      }
+
+      public void flushBatch(int firstElement, int batchSize)
+      {
+         for (int i = 0; i < batchSize; i++)
+         {
+            index = firstElement + i;
+            set(batch[i]);
+         }
       }
 
       public abstract void set(long entryAsLong);
@@ -8,9 +8,6 @@ import java.io.DataInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
-import java.nio.ByteBuffer;
-import java.nio.LongBuffer;
-import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -27,7 +24,6 @@ import javax.swing.event.DocumentListener;
 import javax.swing.text.BadLocationException;
 
 import us.ihmc.robotDataLogger.handshake.YoVariableHandshakeParser;
-import us.ihmc.robotDataLogger.jointState.JointState;
 import us.ihmc.robotDataLogger.logger.LogPropertiesReader;
 import us.ihmc.robotDataLogger.logger.YoVariableLoggerListener;
 import us.ihmc.robotDataVisualizer.logger.util.FileSelectionDialog;
@@ -55,20 +51,12 @@ public class YoVariableExtracter
       parser.parseFrom(handshakeData);
       YoRegistry registry = parser.getRootRegistry();
 
-      File logdata = new File(logFile, logProperties.getVariables().getDataAsString());
-      if(!logdata.exists())
-      {
-         throw new RuntimeException("Cannot find " + logProperties.getVariables().getDataAsString());
-      }
       @SuppressWarnings("resource")
-      final FileChannel logChannel = new FileInputStream(logdata).getChannel();
+      MemoryMappedYoVariableLogReader logReader = new MemoryMappedYoVariableLogReader(logFile, logProperties);
 
       List<YoVariable> variables = parser.getYoVariablesList();
-      int jointStateOffset = variables.size();
-      int numberOfJointStates = JointState.getNumberOfJointStates(parser.getJointStates());
-      int bufferSize = (1 + jointStateOffset + numberOfJointStates) * 8;
 
-      new YoVariableDialog(bufferSize, logChannel, variables, registry);
+      new YoVariableDialog(logReader, variables, registry);
    }
 
    public static void main(String[] args) throws IOException
@@ -90,12 +78,9 @@ public class YoVariableExtracter
       private final JList<YoVariable> result;
       private final List<YoVariable> variables;
       
-      private final FileChannel logChannel;
-      private final int bufferSize;
-      private final ByteBuffer logLine;
-      private final LongBuffer logLongArray;
+      private final MemoryMappedYoVariableLogReader logReader;
 
-      public YoVariableDialog(int bufferSize, FileChannel logChannel, List<YoVariable> variables, YoRegistry registry)
+      public YoVariableDialog(MemoryMappedYoVariableLogReader logReader, List<YoVariable> variables, YoRegistry registry)
       {
          super();
          setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
@@ -103,9 +88,8 @@ public class YoVariableExtracter
          setLocationRelativeTo(null);
          setLocationByPlatform(true);
          setSize(300, 300);
-         this.bufferSize = bufferSize;
          this.registry = registry;
-         this.logChannel = logChannel;
+         this.logReader = logReader;
          this.variables = variables;
          
          searchField = new JTextField();
@@ -127,10 +111,6 @@ public class YoVariableExtracter
          setVisible(true);
 
          searchField.getDocument().addDocumentListener(this);
-         
-         
-         logLine = ByteBuffer.allocate(bufferSize);
-         logLongArray = logLine.asLongBuffer();
       }
 
       @Override
@@ -194,33 +174,39 @@ public class YoVariableExtracter
             result[i].append(" = [");
             offsets[i] = this.variables.indexOf(variable);
          }
-         ByteBuffer buffer = ByteBuffer.allocate(bufferSize);
-         LongBuffer longBuffer = buffer.asLongBuffer();
          StringBuffer t = new StringBuffer();
          
          t.append("t = [");
          try
          {
-            long tick = 0;
-            
-            logChannel.position(0);
-            while(logChannel.size() > tick * bufferSize)
+            // The values are read in parallel over the whole log, and only formatted once all the entries are read.
+            int numberOfEntries = logReader.getNumberOfEntries();
+            long[] timestamps = new long[numberOfEntries];
+            long[][] values = new long[variables.size()][numberOfEntries];
+
+            logReader.processInParallel(0, numberOfEntries, (entry, entryData) ->
+            {
+               timestamps[entry] = entryData.get(0);
+               for (int i = 0; i < offsets.length; i++)
+               {
+                  values[i][entry] = entryData.get(1 + offsets[i]);
+               }
+            });
+
+            for (int tick = 0; tick < numberOfEntries; tick++)
             {
-               buffer.clear();
-               logChannel.read(buffer);
-               t.append(longBuffer.get(0));
+               t.append(timestamps[tick]);
                t.append(",");
                
                for(int i = 0; i < variables.size(); i++)
                {
                   YoVariable variable = variables.get(i);
-                  variable.setValueFromLongBits(longBuffer.get(1 + offsets[i]), false);
+                  variable.setValueFromLongBits(values[i][tick], false);
                   result[i].append(variable.getValueAsString());
                   result[i].append(",");
                }
                
-               tick++;
-               if(tick % 10000 == 0)
+               if((tick + 1) % 10000 == 0)
                {
                   System.out.print(".");
                   System.out.flush();
@@ -1,25 +1,21 @@
 package us.ihmc.robotDataVisualizer.logger.searcher;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.nio.ByteBuffer;
 import java.nio.LongBuffer;
-import java.nio.channels.FileChannel;
 import java.util.HashMap;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import us.ihmc.commons.Conversions;
-import us.ihmc.robotDataLogger.LogIndex;
 import us.ihmc.robotDataLogger.jointState.JointState;
 import us.ihmc.robotDataLogger.logger.LogPropertiesReader;
+import us.ihmc.robotDataVisualizer.logger.MemoryMappedYoVariableLogReader;
 import us.ihmc.yoVariables.registry.YoRegistry;
 import us.ihmc.yoVariables.variable.YoDouble;
 import us.ihmc.yoVariables.variable.YoLong;
 import us.ihmc.yoVariables.variable.YoVariable;
 import us.ihmc.robotics.robotDescription.RobotDescription;
-import us.ihmc.tools.compression.SnappyUtils;
 
 public class SpecificLogVariableUpdater
 {
@@ -27,17 +23,13 @@ public class SpecificLogVariableUpdater
    private final YoLong timestamp = new YoLong("timestamp", registry);
    private final YoDouble robotTime = new YoDouble("robotTime", registry);
 
-   private final FileChannel logChannel;
+   private final MemoryMappedYoVariableLogReader logReader;
+   private final MemoryMappedYoVariableLogReader.Cursor logCursor;
    private final List<YoVariable> variables;
 
-   // Compressed data helpers
-   private final boolean compressed;
-   private final LogIndex logIndex;
-   private final ByteBuffer compressedBuffer;
    private int index = 0;
 
-   private final ByteBuffer logLine;
-   private final LongBuffer logLongArray;
+   private LongBuffer logLongArray;
 
    private final long initialTimestamp;
 
@@ -56,56 +48,25 @@ public class SpecificLogVariableUpdater
          indexes.put(yoVariable, new AtomicInteger(0));
       }
 
-      int jointStateOffset = variables.size();
-      int numberOfJointStates = JointState.getNumberOfJointStates(jointStates);
-      int bufferSize = (1 + jointStateOffset + numberOfJointStates) * 8;
+      int numberOfStateVariables = 1 + variables.size() + JointState.getNumberOfJointStates(jointStates);
 
-      File logdata = new File(selectedFile, logProperties.getVariables().getDataAsString());
-      if (!logdata.exists())
+      // The log is read sequentially through a memory-mapped window, which avoids a read call on the file channel per log line.
+      logReader = new MemoryMappedYoVariableLogReader(selectedFile, logProperties);
+      if (logReader.getNumberOfStateVariables() != numberOfStateVariables)
       {
-         throw new RuntimeException("Cannot find " + logProperties.getVariables().getDataAsString());
+         logReader.close();
+         throw new RuntimeException("Expected " + numberOfStateVariables + " variables per log line, the log has " + logReader.getNumberOfStateVariables());
       }
-      this.logChannel = new FileInputStream(logdata).getChannel();
-
-      this.compressed = logProperties.getVariables().getCompressed();
-      if (this.compressed)
+      if (logReader.getNumberOfEntries() == 0)
       {
-         File indexData = new File(selectedFile, logProperties.getVariables().getIndexAsString());
-         if (!indexData.exists())
-         {
-            throw new RuntimeException("Cannot find " + logProperties.getVariables().getIndexAsString());
-         }
-         logIndex = new LogIndex(indexData, logChannel.size());
-         compressedBuffer = ByteBuffer.allocate(SnappyUtils.maxCompressedLength(bufferSize));
-      }
-      else
-      {
-         logIndex = null;
-         compressedBuffer = null;
+         logReader.close();
+         throw new RuntimeException("The log " + selectedFile + " is empty");
       }
+      logCursor = logReader.openCursor();
 
-      logLine = ByteBuffer.allocate(bufferSize);
-      logLongArray = logLine.asLongBuffer();
+      logLongArray = logCursor.read(0);
+      initialTimestamp = logLongArray.get(0);
 
-      try
-      {
-      	if(this.compressed)
-      	{
-         	initialTimestamp = logIndex.getInitialTimestamp();
-         	positionChannel(0);
-         }
-         else
-         {
-         	readLogLine();
-         	initialTimestamp = logLine.getLong(0);
-         	positionChannel(0);
-         }
-      }
-      catch (IOException e)
-      {
-         throw new RuntimeException(e);
-      }
-      
       getIndexes();
    }
 
@@ -128,110 +89,45 @@ public class SpecificLogVariableUpdater
 
    public boolean readAndProcessALogLineReturnTrueIfDone(double DT)
    {
-      try
+      if (!readLogLine())
       {
-         if (!readLogLine())
-         {
-            return true;
-         }
+         return true;
+      }
 
-         timestamp.set(logLongArray.get());
-         robotTime.set(Conversions.nanosecondsToSeconds(timestamp.getLongValue() - initialTimestamp));
+      timestamp.set(logLongArray.get());
+      robotTime.set(Conversions.nanosecondsToSeconds(timestamp.getLongValue() - initialTimestamp));
 
-         for (int i = 0; i < variablesToUpdate.length; i++)
-         {
-            YoVariable variable = variablesToUpdate[i];
-            AtomicInteger position = indexes.get(variable);
-            
-            variable.setValueFromLongBits(logLongArray.get(position.get()), false);
-         }
-      }
-      catch (IOException e)
+      for (int i = 0; i < variablesToUpdate.length; i++)
       {
-         e.printStackTrace();
+         YoVariable variable = variablesToUpdate[i];
+         AtomicInteger position = indexes.get(variable);
+
+         variable.setValueFromLongBits(logLongArray.get(position.get()), false);
       }
 
       return false;
    }
 
-   private void positionChannel(int position) throws IOException
-   {
-      if (compressed)
-      {
-         index = position;
-         if(index < logIndex.dataOffsets.length)
-         {
-            logChannel.position(logIndex.dataOffsets[position]);
-         }
-      }
-      else
-      {
-         logChannel.position(((long)position) * ((long)logLine.capacity()));
-      }
-   }
-
-   private boolean readLogLine() throws IOException
+   private boolean readLogLine()
    {
-      logLine.clear();
-      logLongArray.clear();
-
-      if (compressed)
+      if (index >= logReader.getNumberOfEntries())
       {
-         if(index >= logIndex.getNumberOfEntries())
-         {
-            return false;
-         }
-         int size = logIndex.compressedSizes[index];
-         compressedBuffer.clear();
-         compressedBuffer.limit(size);
-
-         int read = logChannel.read(compressedBuffer);
-
-         if(read != size)
-         {
-            throw new RuntimeException("Expected read of " + size + ", got " + read + ". TODO: Implement loop for reading the full log line.");
-         }
-         compressedBuffer.flip();
-
-         SnappyUtils.uncompress(compressedBuffer, logLine);
-         ++index;
-
-         return true;
+         return false;
       }
-      else
-      {
-         int read = logChannel.read(logLine);
-         if(read < 0)
-         {
-            return false;
-         }
-         else if (read != logLine.capacity())
-         {
-            throw new RuntimeException("Expected read of " + logLine.capacity() + ", got " + read + ". TODO: Implement loop for reading the full log line.");
-         }
-         else
-         {
-            return true;
-         }
 
-      }
+      logLongArray = logCursor.read(index);
+      ++index;
+      return true;
    }
    
    public int getNumberOfEntries()
    {
-      return logIndex.getNumberOfEntries();
+      return logReader.getNumberOfEntries();
    }
 
    public void close()
    {
-      try
-      {
-         logChannel.close();
-      }
-      catch (IOException e)
-      {
-         e.printStackTrace();
-      }
+      logReader.close();
    }
 
    public double getTime()
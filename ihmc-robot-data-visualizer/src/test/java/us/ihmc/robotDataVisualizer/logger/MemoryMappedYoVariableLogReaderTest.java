@@ -0,0 +1,305 @@
+package us.ihmc.robotDataVisualizer.logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import us.ihmc.tools.compression.SnappyUtils;
+
+public class MemoryMappedYoVariableLogReaderTest
+{
+   private static final int numberOfStateVariables = 7;
+   private static final int numberOfEntries = 5000;
+   private static final long firstTimestamp = 1000L;
+   private static final long timestampIncrement = 10L;
+
+   @TempDir
+   File logDirectory;
+
+   @Test
+   public void testUncompressedRoundTrip() throws IOException
+   {
+      long[][] expectedData = createData(new Random(4531L));
+      File logdata = writeUncompressedLog(expectedData);
+
+      // Window that is not a multiple of the entry size, such that entries straddle the window boundaries.
+      long windowSizeInBytes = 3 * numberOfStateVariables * 8 + 5;
+
+      try (MemoryMappedYoVariableLogReader reader = new MemoryMappedYoVariableLogReader(logdata, null, numberOfStateVariables, windowSizeInBytes))
+      {
+         assertFalse(reader.isCompressed());
+         assertEquals(numberOfEntries, reader.getNumberOfEntries());
+         assertEquals(numberOfStateVariables * 8, reader.getEntrySizeInBytes());
+         assertEquals(windowSizeInBytes, reader.getWindowSizeInBytes());
+         assertReadsMatch(new Random(2341L), reader, expectedData);
+      }
+   }
+
+   @Test
+   public void testCompressedRoundTrip() throws IOException
+   {
+      long[][] expectedData = createData(new Random(9823L));
+      File[] files = writeCompressedLog(expectedData);
+
+      long windowSizeInBytes = 2 * SnappyUtils.maxCompressedLength(numberOfStateVariables * 8) + 3;
+
+      try (MemoryMappedYoVariableLogReader reader = new MemoryMappedYoVariableLogReader(files[0], files[1], numberOfStateVariables, windowSizeInBytes))
+      {
+         assertTrue(reader.isCompressed());
+         assertEquals(numberOfEntries, reader.getNumberOfEntries());
+         assertEquals(windowSizeInBytes, reader.getWindowSizeInBytes());
+         assertReadsMatch(new Random(7642L), reader, expectedData);
+      }
+   }
+
+   @Test
+   public void testWindowIsAtLeastOneEntry() throws IOException
+   {
+      long[][] expectedData = createData(new Random(1256L));
+      File logdata = writeUncompressedLog(expectedData);
+      File[] files = writeCompressedLog(expectedData);
+
+      try (MemoryMappedYoVariableLogReader reader = new MemoryMappedYoVariableLogReader(logdata, null, numberOfStateVariables, 1))
+      {
+         assertEquals(reader.getEntrySizeInBytes(), reader.getWindowSizeInBytes());
+         assertReadsMatch(new Random(6521L), reader, expectedData);
+      }
+
+      try (MemoryMappedYoVariableLogReader reader = new MemoryMappedYoVariableLogReader(files[0], files[1], numberOfStateVariables, 1))
+      {
+         assertEquals(SnappyUtils.maxCompressedLength(numberOfStateVariables * 8), reader.getWindowSizeInBytes());
+         assertReadsMatch(new Random(6522L), reader, expectedData);
+      }
+   }
+
+   @Test
+   public void testGetPosition() throws IOException
+   {
+      long[][] expectedData = createData(new Random(3467L));
+      File logdata = writeUncompressedLog(expectedData);
+      File[] files = writeCompressedLog(expectedData);
+
+      try (MemoryMappedYoVariableLogReader reader = new MemoryMappedYoVariableLogReader(logdata, null, numberOfStateVariables, 1000))
+      {
+         assertPositionsMatch(reader);
+      }
+
+      try (MemoryMappedYoVariableLogReader reader = new MemoryMappedYoVariableLogReader(files[0], files[1], numberOfStateVariables, 1000))
+      {
+         assertPositionsMatch(reader);
+      }
+   }
+
+   @Test
+   public void testProcessInParallel() throws IOException
+   {
+      long[][] expectedData = createData(new Random(8712L));
+      File logdata = writeUncompressedLog(expectedData);
+      File[] files = writeCompressedLog(expectedData);
+
+      try (MemoryMappedYoVariableLogReader reader = new MemoryMappedYoVariableLogReader(logdata, null, numberOfStateVariables, 4096))
+      {
+         assertProcessedOnce(reader, expectedData, 0, numberOfEntries);
+         assertProcessedOnce(reader, expectedData, 1234, 4321);
+         assertProcessedOnce(reader, expectedData, 17, 23);
+         assertProcessedOnce(reader, expectedData, 100, 100);
+      }
+
+      try (MemoryMappedYoVariableLogReader reader = new MemoryMappedYoVariableLogReader(files[0], files[1], numberOfStateVariables, 4096))
+      {
+         assertProcessedOnce(reader, expectedData, 0, numberOfEntries);
+         assertProcessedOnce(reader, expectedData, 1234, 4321);
+         assertProcessedOnce(reader, expectedData, 17, 23);
+         assertProcessedOnce(reader, expectedData, 100, 100);
+      }
+   }
+
+   @Test
+   public void testRangeSplitting()
+   {
+      int minimum = MemoryMappedYoVariableLogReader.MINIMUM_ENTRIES_PER_RANGE;
+
+      assertEquals(1, MemoryMappedYoVariableLogReader.computeNumberOfRanges(1, 8));
+      assertEquals(1, MemoryMappedYoVariableLogReader.computeNumberOfRanges(minimum - 1, 8));
+      assertEquals(1, MemoryMappedYoVariableLogReader.computeNumberOfRanges(2 * minimum - 1, 8));
+      assertEquals(2, MemoryMappedYoVariableLogReader.computeNumberOfRanges(2 * minimum, 8));
+      assertEquals(32, MemoryMappedYoVariableLogReader.computeNumberOfRanges(1000 * minimum, 8));
+      assertEquals(4, MemoryMappedYoVariableLogReader.computeNumberOfRanges(1000 * minimum, 1));
+
+      int[] startEntries = {0, 13, 100000};
+      int[] numbersOfEntries = {1, minimum - 1, 3 * minimum + 7, 1000 * minimum + 3, Integer.MAX_VALUE / 2};
+
+      for (int startEntry : startEntries)
+      {
+         for (int numberOfEntriesToProcess : numbersOfEntries)
+         {
+            int numberOfRanges = MemoryMappedYoVariableLogReader.computeNumberOfRanges(numberOfEntriesToProcess, 8);
+            assertEquals(startEntry, MemoryMappedYoVariableLogReader.computeRangeStart(startEntry, numberOfEntriesToProcess, 0, numberOfRanges));
+            assertEquals(startEntry + numberOfEntriesToProcess,
+                         MemoryMappedYoVariableLogReader.computeRangeStart(startEntry, numberOfEntriesToProcess, numberOfRanges, numberOfRanges));
+
+            for (int range = 0; range < numberOfRanges; range++)
+            {
+               int rangeStart = MemoryMappedYoVariableLogReader.computeRangeStart(startEntry, numberOfEntriesToProcess, range, numberOfRanges);
+               int rangeEnd = MemoryMappedYoVariableLogReader.computeRangeStart(startEntry, numberOfEntriesToProcess, range + 1, numberOfRanges);
+               assertTrue(rangeEnd > rangeStart);
+
+               if (numberOfRanges > 1)
+                  assertTrue(rangeEnd - rangeStart >= minimum);
+            }
+         }
+      }
+   }
+
+   private static void assertReadsMatch(Random random, MemoryMappedYoVariableLogReader reader, long[][] expectedData)
+   {
+      MemoryMappedYoVariableLogReader.Cursor cursor = reader.openCursor();
+
+      for (int entry = 0; entry < numberOfEntries; entry++)
+         assertEntryEquals(expectedData[entry], cursor.read(entry));
+
+      for (int entry = numberOfEntries - 1; entry >= 0; entry--)
+         assertEntryEquals(expectedData[entry], cursor.read(entry));
+
+      for (int i = 0; i < 1000; i++)
+      {
+         int entry = random.nextInt(numberOfEntries);
+         assertEntryEquals(expectedData[entry], cursor.read(entry));
+         assertEquals(expectedData[entry][0], reader.getTimestamp(entry));
+      }
+
+      assertThrows(IndexOutOfBoundsException.class, () -> cursor.read(-1));
+      assertThrows(IndexOutOfBoundsException.class, () -> cursor.read(numberOfEntries));
+   }
+
+   private static void assertPositionsMatch(MemoryMappedYoVariableLogReader reader)
+   {
+      for (int entry = 0; entry < numberOfEntries; entry++)
+      {
+         long timestamp = firstTimestamp + entry * timestampIncrement;
+         assertEquals(entry, reader.getPosition(timestamp));
+         // In between two entries, the next one is returned.
+         assertEquals(Math.min(entry + 1, numberOfEntries - 1), reader.getPosition(timestamp + timestampIncrement / 2));
+      }
+
+      assertEquals(0, reader.getPosition(Long.MIN_VALUE));
+      assertEquals(0, reader.getPosition(firstTimestamp - 1));
+      assertEquals(numberOfEntries - 1, reader.getPosition(firstTimestamp + numberOfEntries * timestampIncrement));
+      assertEquals(numberOfEntries - 1, reader.getPosition(Long.MAX_VALUE));
+   }
+
+   private static void assertProcessedOnce(MemoryMappedYoVariableLogReader reader, long[][] expectedData, int startEntry, int endEntry)
+   {
+      AtomicIntegerArray processCount = new AtomicIntegerArray(numberOfEntries);
+      boolean[] matches = new boolean[numberOfEntries];
+
+      reader.processInParallel(startEntry, endEntry, (entry, entryData) ->
+      {
+         processCount.incrementAndGet(entry);
+         matches[entry] = entryEquals(expectedData[entry], entryData);
+      });
+
+      for (int entry = 0; entry < numberOfEntries; entry++)
+      {
+         boolean inRange = entry >= startEntry && entry < endEntry;
+         assertEquals(inRange ? 1 : 0, processCount.get(entry), "Entry " + entry);
+         if (inRange)
+            assertTrue(matches[entry], "Entry " + entry);
+      }
+   }
+
+   private static void assertEntryEquals(long[] expected, LongBuffer actual)
+   {
+      assertTrue(entryEquals(expected, actual));
+   }
+
+   private static boolean entryEquals(long[] expected, LongBuffer actual)
+   {
+      for (int i = 0; i < numberOfStateVariables; i++)
+      {
+         if (expected[i] != actual.get(i))
+            return false;
+      }
+      return true;
+   }
+
+   private static long[][] createData(Random random)
+   {
+      long[][] data = new long[numberOfEntries][numberOfStateVariables];
+
+      for (int entry = 0; entry < numberOfEntries; entry++)
+      {
+         data[entry][0] = firstTimestamp + entry * timestampIncrement;
+
+         for (int i = 1; i < numberOfStateVariables; i++)
+         {
+            // Mix of repeated and random values, such that the compressed size varies from one entry to the next.
+            data[entry][i] = random.nextBoolean() ? i : random.nextLong();
+         }
+      }
+
+      return data;
+   }
+
+   private File writeUncompressedLog(long[][] data) throws IOException
+   {
+      File logdata = new File(logDirectory, "uncompressed.dat");
+      ByteBuffer entryBuffer = ByteBuffer.allocate(numberOfStateVariables * 8);
+
+      try (FileOutputStream dataStream = new FileOutputStream(logdata); FileChannel dataChannel = dataStream.getChannel())
+      {
+         for (long[] entry : data)
+         {
+            entryBuffer.clear();
+            entryBuffer.asLongBuffer().put(entry);
+            dataChannel.write(entryBuffer);
+         }
+      }
+
+      return logdata;
+   }
+
+   private File[] writeCompressedLog(long[][] data) throws IOException
+   {
+      File logdata = new File(logDirectory, "compressed.dat");
+      File indexData = new File(logDirectory, "compressed.index");
+      ByteBuffer entryBuffer = ByteBuffer.allocate(numberOfStateVariables * 8);
+      ByteBuffer compressed = ByteBuffer.allocate(SnappyUtils.maxCompressedLength(numberOfStateVariables * 8));
+      ByteBuffer indexLine = ByteBuffer.allocate(16);
+
+      try (FileOutputStream dataStream = new FileOutputStream(logdata);
+           FileChannel dataChannel = dataStream.getChannel();
+           FileOutputStream indexStream = new FileOutputStream(indexData);
+           FileChannel indexChannel = indexStream.getChannel())
+      {
+         for (long[] entry : data)
+         {
+            entryBuffer.clear();
+            entryBuffer.asLongBuffer().put(entry);
+            compressed.clear();
+            SnappyUtils.compress(entryBuffer, compressed);
+            compressed.flip();
+
+            indexLine.clear();
+            indexLine.putLong(entry[0]);
+            indexLine.putLong(dataChannel.position());
+            indexLine.flip();
+
+            indexChannel.write(indexLine);
+            dataChannel.write(compressed);
+         }
+      }
+
+      return new File[] {logdata, indexData};
+   }
+}
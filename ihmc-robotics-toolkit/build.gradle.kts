@@ -49,3 +49,13 @@ testDependencies {
    api("us.ihmc:ihmc-matrix-library-test:0.19.0")
    api("us.ihmc:ihmc-commons-testing:0.32.0")
 }
+
+benchmarksDependencies {
+   api(ihmc.sourceSetProject("main"))
+
+   api("us.ihmc:ihmc-java-toolkit-benchmarks:source")
+}
+
+ihmc.sourceSetProject("benchmarks").dependencies {
+   add("annotationProcessor", "us.ihmc:ihmc-java-toolkit-benchmarks:source")
+}
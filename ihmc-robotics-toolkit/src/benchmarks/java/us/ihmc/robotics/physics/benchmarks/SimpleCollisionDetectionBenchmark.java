@@ -0,0 +1,112 @@
+package us.ihmc.robotics.physics.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import us.ihmc.euclid.referenceFrame.FrameBox3D;
+import us.ihmc.euclid.referenceFrame.FrameSphere3D;
+import us.ihmc.euclid.referenceFrame.ReferenceFrame;
+import us.ihmc.euclid.tools.EuclidCoreRandomTools;
+import us.ihmc.mecano.multiBodySystem.RigidBody;
+import us.ihmc.mecano.multiBodySystem.interfaces.JointBasics;
+import us.ihmc.mecano.tools.MultiBodySystemRandomTools;
+import us.ihmc.robotics.physics.Collidable;
+import us.ihmc.robotics.physics.CollidableHolder;
+import us.ihmc.robotics.physics.CollisionListResult;
+import us.ihmc.robotics.physics.SimpleCollisionDetection;
+import us.ihmc.robotics.physics.SweepAndPruneCollisionBroadPhase;
+
+/**
+ * Compares the exhaustive search against the sweep-and-prune broad phase of
+ * {@link SimpleCollisionDetection} for two robots of 30 spheres each in a cluttered environment of
+ * randomly placed boxes lying on a large ground box. The spheres are moved slightly before each
+ * call as they would between two physics ticks.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class SimpleCollisionDetectionBenchmark
+{
+   private static final ReferenceFrame worldFrame = ReferenceFrame.getWorldFrame();
+
+   @Param({"10", "100", "500"})
+   public int numberOfStaticCollidables;
+
+   private final Random random = new Random(8723L);
+   private final List<FrameSphere3D> spheres = new ArrayList<>();
+   private final List<CollidableHolder> robotCollidableHolders = new ArrayList<>();
+   private CollidableHolder staticCollidableHolder;
+   private SimpleCollisionDetection exhaustiveCollisionDetection;
+   private SimpleCollisionDetection broadPhaseCollisionDetection;
+
+   @Setup(Level.Trial)
+   public void setup()
+   {
+      for (int robotIndex = 0; robotIndex < 2; robotIndex++)
+      {
+         RigidBody rootBody = new RigidBody("robot" + robotIndex + "RootBody", worldFrame);
+         List<Collidable> collidables = new ArrayList<>();
+
+         for (JointBasics joint : MultiBodySystemRandomTools.nextJointChain(random, "robot" + robotIndex, rootBody, 30))
+         {
+            FrameSphere3D sphere = new FrameSphere3D(worldFrame, EuclidCoreRandomTools.nextDouble(random, 0.05, 0.2));
+            sphere.getPosition().set(EuclidCoreRandomTools.nextDouble(random, 3.0), EuclidCoreRandomTools.nextDouble(random, 3.0), random.nextDouble());
+            spheres.add(sphere);
+            collidables.add(new Collidable(joint.getSuccessor(), -1, -1, sphere));
+         }
+
+         robotCollidableHolders.add(CollidableHolder.fromCollection(collidables));
+      }
+
+      List<Collidable> staticCollidables = new ArrayList<>();
+      FrameBox3D ground = new FrameBox3D(worldFrame, 50.0, 50.0, 0.1);
+      ground.getPosition().setZ(-0.05);
+      staticCollidables.add(new Collidable(null, -1, -1, ground));
+
+      for (int i = 1; i < numberOfStaticCollidables; i++)
+      {
+         FrameBox3D box = new FrameBox3D(worldFrame, EuclidCoreRandomTools.nextDouble(random, 0.1, 0.5), EuclidCoreRandomTools.nextDouble(random, 0.1, 0.5), 0.5);
+         box.getPosition().set(EuclidCoreRandomTools.nextDouble(random, 20.0), EuclidCoreRandomTools.nextDouble(random, 20.0), 0.25);
+         box.getOrientation().setToYawOrientation(EuclidCoreRandomTools.nextDouble(random, Math.PI));
+         staticCollidables.add(new Collidable(null, -1, -1, box));
+      }
+
+      staticCollidables.forEach(collidable -> collidable.updateBoundingBox(worldFrame));
+      staticCollidableHolder = CollidableHolder.fromCollection(staticCollidables);
+
+      exhaustiveCollisionDetection = new SimpleCollisionDetection(worldFrame);
+      exhaustiveCollisionDetection.setBroadPhase(null);
+      broadPhaseCollisionDetection = new SimpleCollisionDetection(worldFrame);
+      broadPhaseCollisionDetection.setBroadPhase(new SweepAndPruneCollisionBroadPhase());
+   }
+
+   @Setup(Level.Invocation)
+   public void moveSpheres()
+   {
+      for (int i = 0; i < spheres.size(); i++)
+      {
+         spheres.get(i).getPosition().add(EuclidCoreRandomTools.nextVector3D(random, 0.01));
+      }
+
+      robotCollidableHolders.forEach(holder -> holder.forEach(collidable -> collidable.updateBoundingBox(worldFrame)));
+   }
+
+   @Benchmark
+   public CollisionListResult exhaustive()
+   {
+      return exhaustiveCollisionDetection.evaluationCollisions(robotCollidableHolders, staticCollidableHolder, 0.001);
+   }
+
+   @Benchmark
+   public CollisionListResult sweepAndPrune()
+   {
+      return broadPhaseCollisionDetection.evaluationCollisions(robotCollidableHolders, staticCollidableHolder, 0.001);
+   }
+}
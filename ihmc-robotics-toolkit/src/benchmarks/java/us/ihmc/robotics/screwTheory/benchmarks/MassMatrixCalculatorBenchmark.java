@@ -0,0 +1,116 @@
+package us.ihmc.robotics.screwTheory.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.ejml.data.DMatrixRMaj;
+import org.openjdk.jmh.annotations.*;
+
+import us.ihmc.euclid.referenceFrame.ReferenceFrame;
+import us.ihmc.mecano.algorithms.CompositeRigidBodyMassMatrixCalculator;
+import us.ihmc.mecano.multiBodySystem.RevoluteJoint;
+import us.ihmc.mecano.multiBodySystem.RigidBody;
+import us.ihmc.mecano.multiBodySystem.SixDoFJoint;
+import us.ihmc.mecano.multiBodySystem.interfaces.JointBasics;
+import us.ihmc.mecano.multiBodySystem.interfaces.MultiBodySystemReadOnly;
+import us.ihmc.mecano.multiBodySystem.interfaces.RigidBodyBasics;
+import us.ihmc.mecano.tools.JointStateType;
+import us.ihmc.mecano.tools.MultiBodySystemRandomTools;
+import us.ihmc.robotics.screwTheory.IncrementalMassMatrixCalculator;
+
+/**
+ * Compares the full composite rigid-body algorithm against {@link IncrementalMassMatrixCalculator} on a floating humanoid-like
+ * tree: a pelvis with two 6-joint legs and a 3-joint torso carrying two 7-joint arms and a 2-joint neck. The joint configuration
+ * is changed before each call according to the scenario:
+ * <ul>
+ * <li>"ALL": every joint moves, the worst case for the incremental calculator.
+ * <li>"ARM": only the joints of one arm move, e.g. manipulation while standing.
+ * <li>"FLOATING": only the floating joint moves, e.g. while the robot balances.
+ * </ul>
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class MassMatrixCalculatorBenchmark
+{
+   @Param({"ALL", "ARM", "FLOATING"})
+   public String scenario;
+
+   private final Random random = new Random(45611L);
+   private RigidBodyBasics elevator;
+   private final List<JointBasics> movingJoints = new ArrayList<>();
+   private CompositeRigidBodyMassMatrixCalculator compositeRigidBodyCalculator;
+   private IncrementalMassMatrixCalculator incrementalCalculator;
+
+   @Setup(Level.Trial)
+   public void setup()
+   {
+      elevator = new RigidBody("elevator", ReferenceFrame.getWorldFrame());
+      SixDoFJoint rootJoint = new SixDoFJoint("rootJoint", elevator);
+      RigidBodyBasics pelvis = MultiBodySystemRandomTools.nextRigidBody(random, "pelvis", rootJoint);
+
+      List<RevoluteJoint> allRevoluteJoints = new ArrayList<>();
+      allRevoluteJoints.addAll(MultiBodySystemRandomTools.nextRevoluteJointChain(random, "leftLeg", pelvis, 6));
+      allRevoluteJoints.addAll(MultiBodySystemRandomTools.nextRevoluteJointChain(random, "rightLeg", pelvis, 6));
+      List<RevoluteJoint> torso = MultiBodySystemRandomTools.nextRevoluteJointChain(random, "torso", pelvis, 3);
+      RigidBodyBasics chest = torso.get(torso.size() - 1).getSuccessor();
+      List<RevoluteJoint> leftArm = MultiBodySystemRandomTools.nextRevoluteJointChain(random, "leftArm", chest, 7);
+      allRevoluteJoints.addAll(torso);
+      allRevoluteJoints.addAll(leftArm);
+      allRevoluteJoints.addAll(MultiBodySystemRandomTools.nextRevoluteJointChain(random, "rightArm", chest, 7));
+      allRevoluteJoints.addAll(MultiBodySystemRandomTools.nextRevoluteJointChain(random, "neck", chest, 2));
+
+      List<JointBasics> allJoints = new ArrayList<>();
+      allJoints.add(rootJoint);
+      allJoints.addAll(allRevoluteJoints);
+
+      switch (scenario)
+      {
+         case "ALL":
+            movingJoints.addAll(allJoints);
+            break;
+         case "ARM":
+            movingJoints.addAll(leftArm);
+            break;
+         case "FLOATING":
+            movingJoints.add(rootJoint);
+            break;
+         default:
+            throw new IllegalArgumentException("Unknown scenario: " + scenario);
+      }
+
+      MultiBodySystemRandomTools.nextState(random, JointStateType.CONFIGURATION, allJoints);
+      elevator.updateFramesRecursively();
+
+      MultiBodySystemReadOnly input = MultiBodySystemReadOnly.toMultiBodySystemInput(elevator);
+      compositeRigidBodyCalculator = new CompositeRigidBodyMassMatrixCalculator(input);
+      incrementalCalculator = new IncrementalMassMatrixCalculator(input);
+      incrementalCalculator.compute();
+   }
+
+   @Setup(Level.Invocation)
+   public void moveJoints()
+   {
+      MultiBodySystemRandomTools.nextState(random, JointStateType.CONFIGURATION, movingJoints);
+      elevator.updateFramesRecursively();
+   }
+
+   @Benchmark
+   public DMatrixRMaj compositeRigidBody()
+   {
+      compositeRigidBodyCalculator.reset();
+      return compositeRigidBodyCalculator.getMassMatrix();
+   }
+
+   @Benchmark
+   public DMatrixRMaj incremental()
+   {
+      incrementalCalculator.compute();
+      return incrementalCalculator.getMassMatrix();
+   }
+}
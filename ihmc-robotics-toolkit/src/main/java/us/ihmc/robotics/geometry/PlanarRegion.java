@@ -39,6 +39,8 @@ public class PlanarRegion implements SupportingVertexHolder, RegionInWorldInterf
    private int tickOfLastMeasurement = 0;
 
    private double area = 0;
+   /** Incremented whenever the geometry of this region changes, see {@link #getModificationCount()}. */
+   private int modificationCount = 0;
 
    /**
     * This transform also represents the pose of the PlanarRegion.
@@ -1190,6 +1192,7 @@ public class PlanarRegion implements SupportingVertexHolder, RegionInWorldInterf
    {
       fromLocalToWorldTransform.set(other.fromLocalToWorldTransform);
       fromWorldToLocalTransform.set(other.fromWorldToLocalTransform);
+      modificationCount++;
    }
 
    public void setBoundingBoxEpsilon(double epsilon)
@@ -1200,6 +1203,7 @@ public class PlanarRegion implements SupportingVertexHolder, RegionInWorldInterf
 
    public void updateBoundingBox()
    {
+      modificationCount++;
       boundingBox3dInWorld.set(Double.NaN, Double.NaN, Double.NaN, Double.NaN, Double.NaN, Double.NaN);
       for (int i = 0; i < this.getNumberOfConvexPolygons(); i++)
       {
@@ -1224,6 +1228,7 @@ public class PlanarRegion implements SupportingVertexHolder, RegionInWorldInterf
 
    public void updateConvexHull()
    {
+      modificationCount++;
       convexHull.clear();
       for (int i = 0; i < this.getNumberOfConvexPolygons(); i++)
       {
@@ -1662,6 +1667,23 @@ public class PlanarRegion implements SupportingVertexHolder, RegionInWorldInterf
       area = PlanarRegionTools.computePlanarRegionArea(this);
    }
 
+   /**
+    * Gets the number of times the geometry of this region has been modified, i.e. its transform,
+    * polygons or bounding box.
+    * <p>
+    * It is incremented by the methods modifying the geometry, e.g. {@link #set(PlanarRegion)} or
+    * {@link #applyTransform(RigidBodyTransformReadOnly)}, and by {@link #update()} which has to be
+    * called after modifying the polygons in place. It can be compared to a previous value to cheaply
+    * detect that the region changed.
+    * </p>
+    *
+    * @return the modification count.
+    */
+   public int getModificationCount()
+   {
+      return modificationCount;
+   }
+
    public ConvexPolygonTools getConvexPolygonTools()
    {
       return convexPolygonTools;
@@ -707,6 +707,34 @@ public class PlanarRegionTools
       return filterPlanarRegionsWithBoundingCapsule(new LineSegment3D(capsuleStartInWorld, capsuleEndInWorld), capsuleRadius, planarRegions);
    }
 
+   public static List<PlanarRegion> filterPlanarRegionsWithBoundingCapsule(Point3DReadOnly capsuleStartInWorld,
+                                                                           Point3DReadOnly capsuleEndInWorld,
+                                                                           double capsuleRadius,
+                                                                           PlanarRegionsList planarRegions)
+   {
+      return filterPlanarRegionsWithBoundingCapsule(new LineSegment3D(capsuleStartInWorld, capsuleEndInWorld), capsuleRadius, planarRegions);
+   }
+
+   /**
+    * Same as {@link #filterPlanarRegionsWithBoundingCapsule(LineSegment3D, double, List)} but only
+    * tests the regions which bounds overlap the capsule in the XY-plane.
+    */
+   public static List<PlanarRegion> filterPlanarRegionsWithBoundingCapsule(LineSegment3D capsuleSegmentInWorld,
+                                                                           double capsuleRadius,
+                                                                           PlanarRegionsList planarRegions)
+   {
+      if (!Double.isFinite(capsuleRadius) || capsuleRadius < 0.0)
+         return planarRegions.getPlanarRegionsAsList();
+
+      Point3DReadOnly firstEndpoint = capsuleSegmentInWorld.getFirstEndpoint();
+      Point3DReadOnly secondEndpoint = capsuleSegmentInWorld.getSecondEndpoint();
+      List<PlanarRegion> candidateRegions = planarRegions.findCandidatePlanarRegions(Math.min(firstEndpoint.getX(), secondEndpoint.getX()) - capsuleRadius,
+                                                                                     Math.min(firstEndpoint.getY(), secondEndpoint.getY()) - capsuleRadius,
+                                                                                     Math.max(firstEndpoint.getX(), secondEndpoint.getX()) + capsuleRadius,
+                                                                                     Math.max(firstEndpoint.getY(), secondEndpoint.getY()) + capsuleRadius);
+      return filterPlanarRegionsWithBoundingCapsule(capsuleSegmentInWorld, capsuleRadius, candidateRegions);
+   }
+
    public static List<PlanarRegion> filterPlanarRegionsWithBoundingCapsule(LineSegment3D capsuleSegmentInWorld,
                                                                            double capsuleRadius,
                                                                            List<PlanarRegion> planarRegions)
@@ -877,7 +905,38 @@ public class PlanarRegionTools
     */
    public static List<PlanarRegion> findPlanarRegionsIntersectingPolygon(ConvexPolygon2DReadOnly convexPolygon, PlanarRegionsList regions)
    {
-      return findPlanarRegionsIntersectingPolygon(convexPolygon, regions.getPlanarRegionsAsList());
+      return findPlanarRegionsIntersectingPolygon(convexPolygon, findCandidatePlanarRegions(convexPolygon, regions));
+   }
+
+   /**
+    * Find all the planar regions that intersect with the given convex polygon. The algorithm is
+    * equivalent to projecting all the regions onto the XY-plane and then finding the regions
+    * intersecting with the given convex polygon.
+    *
+    * @param convexPolygon the query.
+    * @param intersectingRegionsToPack the list of planar regions intersecting with the given polygon. Empty when no
+    *        region intersects.
+    * @param intersectionAreasToPack list of the areas of each of the intersecting regions. Empty when no region intersects.
+    * @return Returns false when no region intersects.
+    */
+   public static boolean findPlanarRegionsIntersectingPolygon(ConvexPolygon2DReadOnly convexPolygon,
+                                                              PlanarRegionsList regions,
+                                                              List<PlanarRegion> intersectingRegionsToPack,
+                                                              TDoubleArrayList intersectionAreasToPack)
+   {
+      return findPlanarRegionsIntersectingPolygon(convexPolygon,
+                                                  findCandidatePlanarRegions(convexPolygon, regions),
+                                                  intersectingRegionsToPack,
+                                                  intersectionAreasToPack);
+   }
+
+   private static List<PlanarRegion> findCandidatePlanarRegions(ConvexPolygon2DReadOnly convexPolygon, PlanarRegionsList regions)
+   {
+      if (convexPolygon.isEmpty())
+         return regions.getPlanarRegionsAsList();
+
+      BoundingBox2DReadOnly boundingBox = convexPolygon.getBoundingBox();
+      return regions.findCandidatePlanarRegions(boundingBox.getMinX(), boundingBox.getMinY(), boundingBox.getMaxX(), boundingBox.getMaxY());
    }
 
    /**
@@ -956,6 +1015,22 @@ public class PlanarRegionTools
    }
 
 
+   /**
+    * Find all the planar regions that contain the given point.
+    *
+    * @param point the query coordinates.
+    * @param maximumOrthogonalDistance tolerance expressed as maximum orthogonal distance from the
+    *       region.
+    * @return the list of planar regions containing the query. Returns null when no region contains
+    *       the query.
+    */
+   public static List<PlanarRegion> findPlanarRegionsContainingPoint(PlanarRegionsList planarRegionsToCheck,
+                                                                     Point3DReadOnly point,
+                                                                     double maximumOrthogonalDistance)
+   {
+      return planarRegionsToCheck.findPlanarRegionsContainingPoint(point, maximumOrthogonalDistance);
+   }
+
    /**
     * Find all the planar regions that contain the given point.
     *
@@ -1126,6 +1201,10 @@ public class PlanarRegionTools
     */
    public static Point3D projectPointToPlanes(Point3DReadOnly point, PlanarRegionsList regions)
    {
+      PlanarRegionsSpatialIndex spatialIndex = regions.getSpatialIndex();
+      if (spatialIndex != null)
+         return projectPointToPlanes(point, spatialIndex);
+
       double smallestDistance = Double.POSITIVE_INFINITY;
       Point3D closestPoint = null;
 
@@ -1144,6 +1223,38 @@ public class PlanarRegionTools
       return closestPoint;
    }
 
+   /**
+    * Visits the regions by increasing distance from their bounds to the point and stops as soon as
+    * the remaining regions cannot be closer. Ties are resolved as when visiting the regions in order.
+    */
+   private static Point3D projectPointToPlanes(Point3DReadOnly point, PlanarRegionsSpatialIndex spatialIndex)
+   {
+      double[] distanceLowerBounds = new double[spatialIndex.getNumberOfRegions()];
+      int[] sortedIndices = spatialIndex.sortByDistanceLowerBound(point, distanceLowerBounds);
+
+      double smallestDistance = Double.POSITIVE_INFINITY;
+      Point3D closestPoint = null;
+      int closestIndex = -1;
+
+      for (int index : sortedIndices)
+      {
+         if (closestPoint != null && distanceLowerBounds[index] > smallestDistance)
+            break;
+
+         Point3D intersection = closestPointOnPlanarRegion(point, spatialIndex.getRegion(index));
+         double distance = intersection.distance(point);
+
+         if (closestPoint == null || distance < smallestDistance || (distance == smallestDistance && index < closestIndex))
+         {
+            smallestDistance = distance;
+            closestPoint = intersection;
+            closestIndex = index;
+         }
+      }
+
+      return closestPoint;
+   }
+
    public static double distanceToPlanarRegion(Point3DReadOnly pointInWorld, PlanarRegion planarRegion)
    {
       return pointInWorld.distance(closestPointOnPlanarRegion(pointInWorld, planarRegion));
@@ -1358,7 +1469,11 @@ public class PlanarRegionTools
       if (regions == null)
          return projectPointToPlanesVertically(pointInWorld, (List<PlanarRegion>) null);
       else
-         return projectPointToPlanesVertically(pointInWorld, regions.getPlanarRegionsAsList());
+         return projectPointToPlanesVertically(pointInWorld,
+                                               regions.findCandidatePlanarRegions(pointInWorld.getX(),
+                                                                                  pointInWorld.getY(),
+                                                                                  pointInWorld.getX(),
+                                                                                  pointInWorld.getY()));
    }
 
    /**
@@ -18,6 +18,10 @@ public class PlanarRegionsList
    private final List<PlanarRegion> regions;
    private transient ArrayList<PlanarRegion> placeholderForRemovingRegions;
 
+   private boolean useSpatialIndex = true;
+   /** Built lazily on the first query, see {@link #getSpatialIndex()}. */
+   private transient PlanarRegionsSpatialIndex spatialIndex;
+
    public PlanarRegionsList()
    {
       regions = new ArrayList<>();
@@ -50,16 +54,19 @@ public class PlanarRegionsList
    public void addPlanarRegion(PlanarRegion region)
    {
       regions.add(region);
+      invalidateSpatialIndex();
    }
 
    public void addPlanarRegions(List<PlanarRegion> regions)
    {
       this.regions.addAll(regions);
+      invalidateSpatialIndex();
    }
 
    public void addPlanarRegionsList(PlanarRegionsList planarRegionsList)
    {
       regions.addAll(planarRegionsList.getPlanarRegionsAsList());
+      invalidateSpatialIndex();
    }
 
    /**
@@ -68,6 +75,105 @@ public class PlanarRegionsList
    public void clear()
    {
       regions.clear();
+      invalidateSpatialIndex();
+   }
+
+   /**
+    * Enables the spatial index used to speed up the queries on this list.
+    * <p>
+    * The index is a grid over the XY bounds of the regions, it is built on the first query and
+    * rebuilt whenever the regions have changed since, including when a region is modified in place
+    * or when the list returned by {@link #getPlanarRegionsAsList()} is modified. The queries return
+    * the same results with or without the index. It is only used when the list holds enough regions
+    * for it to be worth it.
+    * </p>
+    *
+    * @param enable whether to use the spatial index, {@code true} by default.
+    */
+   public void setSpatialIndexEnabled(boolean enable)
+   {
+      useSpatialIndex = enable;
+      if (!enable)
+         invalidateSpatialIndex();
+   }
+
+   /**
+    * Discards the spatial index such that it is rebuilt on the next query.
+    * <p>
+    * Changes to the list or to the regions are detected automatically, this is only to release the
+    * memory used by the index.
+    * </p>
+    */
+   public void invalidateSpatialIndex()
+   {
+      spatialIndex = null;
+   }
+
+   /**
+    * Gets the spatial index over the regions of this list, building it if needed.
+    *
+    * @return the up-to-date index, or {@code null} if it is disabled or not worth building.
+    */
+   PlanarRegionsSpatialIndex getSpatialIndex()
+   {
+      if (!useSpatialIndex || regions.size() < PlanarRegionsSpatialIndex.MINIMUM_NUMBER_OF_REGIONS)
+         return null;
+
+      PlanarRegionsSpatialIndex index = spatialIndex;
+
+      // Only compares the references and modification counts of the regions.
+      if (index == null || !index.isUpToDate(regions))
+      {
+         index = new PlanarRegionsSpatialIndex(regions);
+         spatialIndex = index;
+      }
+
+      return index;
+   }
+
+   /**
+    * Finds the planar regions that may overlap the given area once projected onto the XY-plane.
+    * <p>
+    * This is a broad-phase for the queries on this list: the result contains at least all the
+    * regions which bounding box overlaps the area, and may contain more. The regions are in the same
+    * order as in this list.
+    * </p>
+    *
+    * @param minX the lower x-bound of the area.
+    * @param minY the lower y-bound of the area.
+    * @param maxX the upper x-bound of the area.
+    * @param maxY the upper y-bound of the area.
+    * @return the candidate regions. Do not modify, this may be the list backing this object.
+    */
+   public List<PlanarRegion> findCandidatePlanarRegions(double minX, double minY, double maxX, double maxY)
+   {
+      PlanarRegionsSpatialIndex index = getSpatialIndex();
+
+      if (index == null)
+         return regions;
+      else
+         return index.findCandidates(minX, minY, maxX, maxY);
+   }
+
+   /**
+    * Same as {@link #findCandidatePlanarRegions(double, double, double, double)} but packs the result
+    * in the given list, without allocating once the internal buffers have grown large enough.
+    *
+    * @param candidatesToPack the candidate regions, in the same order as in this list. Modified.
+    */
+   public void findCandidatePlanarRegions(double minX, double minY, double maxX, double maxY, List<PlanarRegion> candidatesToPack)
+   {
+      PlanarRegionsSpatialIndex index = getSpatialIndex();
+
+      if (index == null)
+      {
+         candidatesToPack.clear();
+         candidatesToPack.addAll(regions);
+      }
+      else
+      {
+         index.findCandidates(minX, minY, maxX, maxY, candidatesToPack);
+      }
    }
 
 
@@ -81,9 +187,16 @@ public class PlanarRegionsList
     */
    public void findPlanarRegionsIntersectingLineSegment(LineSegment2DReadOnly lineSegmentInWorld, List<PlanarRegion> intersectingRegionsToPack)
    {
-      for (int i = 0; i < regions.size(); i++)
+      Point2DReadOnly firstEndpoint = lineSegmentInWorld.getFirstEndpoint();
+      Point2DReadOnly secondEndpoint = lineSegmentInWorld.getSecondEndpoint();
+      List<PlanarRegion> candidateRegions = findCandidatePlanarRegions(Math.min(firstEndpoint.getX(), secondEndpoint.getX()),
+                                                                       Math.min(firstEndpoint.getY(), secondEndpoint.getY()),
+                                                                       Math.max(firstEndpoint.getX(), secondEndpoint.getX()),
+                                                                       Math.max(firstEndpoint.getY(), secondEndpoint.getY()));
+
+      for (int i = 0; i < candidateRegions.size(); i++)
       {
-         PlanarRegion candidateRegion = regions.get(i);
+         PlanarRegion candidateRegion = candidateRegions.get(i);
          if (isLineSegmentObviouslyOutsideBoundingBox(candidateRegion, lineSegmentInWorld))
             continue;
 
@@ -107,9 +220,15 @@ public class PlanarRegionsList
     */
    public void findPlanarRegionsWithinEpsilonOfPoint(Point3DReadOnly pointInWorld, double epsilon, List<PlanarRegion> intersectingRegionsToPack)
    {
-      for (int i = 0; i < regions.size(); i++)
+      double radius = Math.abs(epsilon);
+      List<PlanarRegion> candidateRegions = findCandidatePlanarRegions(pointInWorld.getX() - radius,
+                                                                       pointInWorld.getY() - radius,
+                                                                       pointInWorld.getX() + radius,
+                                                                       pointInWorld.getY() + radius);
+
+      for (int i = 0; i < candidateRegions.size(); i++)
       {
-         PlanarRegion candidateRegion = regions.get(i);
+         PlanarRegion candidateRegion = candidateRegions.get(i);
          if (isPointXYObviouslyOutsideBoundingBox(candidateRegion, pointInWorld, epsilon))
             continue;
 
@@ -196,10 +315,13 @@ public class PlanarRegionsList
    public List<PlanarRegion> findPlanarRegionsContainingPoint(Point3DReadOnly point, double maximumOrthogonalDistance)
    {
       List<PlanarRegion> containers = null;
+      // The projection of the point onto a region is at most maximumOrthogonalDistance away from it.
+      double radius = Math.abs(maximumOrthogonalDistance);
+      List<PlanarRegion> candidateRegions = findCandidatePlanarRegions(point.getX() - radius, point.getY() - radius, point.getX() + radius, point.getY() + radius);
 
-      for (int i = 0; i < regions.size(); i++)
+      for (int i = 0; i < candidateRegions.size(); i++)
       {
-         PlanarRegion candidateRegion = regions.get(i);
+         PlanarRegion candidateRegion = candidateRegions.get(i);
          if (candidateRegion.isPointInside(point, maximumOrthogonalDistance))
          {
             if (containers == null)
@@ -238,10 +360,11 @@ public class PlanarRegionsList
    public List<PlanarRegion> findPlanarRegionsContainingPointByProjectionOntoXYPlane(double x, double y)
    {
       List<PlanarRegion> containers = null;
+      List<PlanarRegion> candidateRegions = findCandidatePlanarRegions(x, y, x, y);
 
-      for (int i = 0; i < regions.size(); i++)
+      for (int i = 0; i < candidateRegions.size(); i++)
       {
-         PlanarRegion candidateRegion = regions.get(i);
+         PlanarRegion candidateRegion = candidateRegions.get(i);
          if (candidateRegion.isPointInsideByProjectionOntoXYPlane(x, y))
          {
             if (containers == null)
@@ -261,10 +384,11 @@ public class PlanarRegionsList
    public List<PlanarRegion> findPlanarRegionsContainingPointByVerticalLineIntersection(double x, double y)
    {
       List<PlanarRegion> containers = null;
+      List<PlanarRegion> candidateRegions = findCandidatePlanarRegions(x, y, x, y);
 
-      for (int i = 0; i < regions.size(); i++)
+      for (int i = 0; i < candidateRegions.size(); i++)
       {
-         PlanarRegion candidateRegion = regions.get(i);
+         PlanarRegion candidateRegion = candidateRegions.get(i);
          if (candidateRegion.isPointInsideByVerticalLineIntersection(x, y))
          {
             if (containers == null)
@@ -367,6 +491,7 @@ public class PlanarRegionsList
    /** Retrieves the i<sup>th</sup> planar region of this list and removes it from this list. */
    public PlanarRegion pollPlanarRegion(int index)
    {
+      invalidateSpatialIndex();
       return regions.remove(index);
    }
 
@@ -407,6 +532,7 @@ public class PlanarRegionsList
       {
          regions.get(i).applyTransform(rigidBodyTransform);
       }
+      invalidateSpatialIndex();
    }
 
    public static PlanarRegionsList generatePlanarRegionsListFromRandomPolygonsWithRandomTransform(Random random, int numberOfRandomlyGeneratedPolygons,
@@ -482,6 +608,7 @@ public class PlanarRegionsList
       }
 
       placeholderForRemovingRegions.clear();
+      invalidateSpatialIndex();
    }
 
    public void queuePlanarRegionForRemoval(PlanarRegion planarRegionToRemove)
@@ -502,6 +629,7 @@ public class PlanarRegionsList
          }
 
          placeholderForRemovingRegions.clear();
+         invalidateSpatialIndex();
       }
    }
 
@@ -0,0 +1,354 @@
+package us.ihmc.robotics.geometry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import gnu.trove.list.array.TIntArrayList;
+import us.ihmc.euclid.geometry.BoundingBox3D;
+import us.ihmc.euclid.transform.interfaces.RigidBodyTransformReadOnly;
+import us.ihmc.euclid.tuple2D.interfaces.Point2DReadOnly;
+import us.ihmc.euclid.tuple3D.Point3D;
+import us.ihmc.euclid.tuple3D.interfaces.Point3DReadOnly;
+
+/**
+ * Uniform grid in the XY-plane over the world bounds of a list of planar regions, used by
+ * {@link PlanarRegionsList} to skip the regions that are obviously far from a query.
+ * <p>
+ * The bounds of a region include its bounding box, its convex hull and its concave hull such that
+ * any query that only looks at these is safe to be pruned with them. The index is immutable and
+ * holds the modification counts of the regions it was built from, which are used to detect when it
+ * is out of date.
+ * </p>
+ */
+class PlanarRegionsSpatialIndex
+{
+   /** Below this number of regions, scanning the list is as fast as querying the index. */
+   static final int MINIMUM_NUMBER_OF_REGIONS = 16;
+   /** Margin added to every query to account for numerical errors in the region tests. */
+   static final double QUERY_MARGIN = 1.0e-5;
+   private static final int MAXIMUM_NUMBER_OF_CELLS_PER_AXIS = 128;
+
+   private static final ThreadLocal<TIntArrayList> candidateIndicesBuffer = ThreadLocal.withInitial(TIntArrayList::new);
+
+   private final PlanarRegion[] regions;
+   private final int[] modificationCounts;
+
+   private final double[] minX, maxX, minY, maxY, minZ, maxZ;
+   /** Regions with undefined bounds, they are candidates to every query. */
+   private final int[] unboundedRegions;
+
+   private final double gridMinX, gridMinY, cellSize;
+   private final int numberOfCellsX, numberOfCellsY;
+   /** The regions of the cell {@code i} are {@code cellRegions[cellStarts[i]]} to {@code cellRegions[cellStarts[i + 1] - 1]}. */
+   private final int[] cellStarts;
+   private final int[] cellRegions;
+
+   PlanarRegionsSpatialIndex(List<PlanarRegion> planarRegions)
+   {
+      int numberOfRegions = planarRegions.size();
+      regions = planarRegions.toArray(new PlanarRegion[numberOfRegions]);
+      modificationCounts = new int[numberOfRegions];
+
+      minX = new double[numberOfRegions];
+      maxX = new double[numberOfRegions];
+      minY = new double[numberOfRegions];
+      maxY = new double[numberOfRegions];
+      minZ = new double[numberOfRegions];
+      maxZ = new double[numberOfRegions];
+
+      TIntArrayList unbounded = new TIntArrayList();
+      double boundsMinX = Double.POSITIVE_INFINITY, boundsMinY = Double.POSITIVE_INFINITY;
+      double boundsMaxX = Double.NEGATIVE_INFINITY, boundsMaxY = Double.NEGATIVE_INFINITY;
+      double averageSize = 0.0;
+      Point3D vertexInWorld = new Point3D();
+
+      for (int i = 0; i < numberOfRegions; i++)
+      {
+         PlanarRegion region = regions[i];
+         modificationCounts[i] = region.getModificationCount();
+         BoundingBox3D boundingBox = region.getBoundingBox3dInWorld();
+
+         minX[i] = boundingBox.getMinX();
+         maxX[i] = boundingBox.getMaxX();
+         minY[i] = boundingBox.getMinY();
+         maxY[i] = boundingBox.getMaxY();
+         minZ[i] = boundingBox.getMinZ();
+         maxZ[i] = boundingBox.getMaxZ();
+
+         RigidBodyTransformReadOnly transformToWorld = region.getTransformToWorld();
+
+         for (int j = 0; j < region.getConvexHull().getNumberOfVertices(); j++)
+         {
+            vertexInWorld.set(region.getConvexHull().getVertex(j));
+            transformToWorld.transform(vertexInWorld);
+            updateBounds(i, vertexInWorld);
+         }
+
+         for (int j = 0; j < region.getConcaveHullSize(); j++)
+         {
+            vertexInWorld.set(region.getConcaveHullVertex(j));
+            transformToWorld.transform(vertexInWorld);
+            updateBounds(i, vertexInWorld);
+         }
+
+         if (!isBounded(i))
+         {
+            unbounded.add(i);
+            continue;
+         }
+
+         boundsMinX = Math.min(boundsMinX, minX[i]);
+         boundsMinY = Math.min(boundsMinY, minY[i]);
+         boundsMaxX = Math.max(boundsMaxX, maxX[i]);
+         boundsMaxY = Math.max(boundsMaxY, maxY[i]);
+         averageSize += Math.max(maxX[i] - minX[i], maxY[i] - minY[i]);
+      }
+
+      unboundedRegions = unbounded.toArray();
+      int numberOfBoundedRegions = numberOfRegions - unboundedRegions.length;
+
+      if (numberOfBoundedRegions == 0)
+      {
+         gridMinX = gridMinY = 0.0;
+         cellSize = 1.0;
+         numberOfCellsX = numberOfCellsY = 0;
+         cellStarts = new int[1];
+         cellRegions = new int[0];
+         return;
+      }
+
+      averageSize /= numberOfBoundedRegions;
+      double width = boundsMaxX - boundsMinX;
+      double height = boundsMaxY - boundsMinY;
+      // Aiming for cells about the size of the regions while bounding the size of the grid.
+      double size = Math.max(averageSize, Math.sqrt(width * height / numberOfBoundedRegions));
+      size = Math.max(size, Math.max(width, height) / MAXIMUM_NUMBER_OF_CELLS_PER_AXIS);
+      cellSize = size > 0.0 ? size : 1.0;
+      gridMinX = boundsMinX;
+      gridMinY = boundsMinY;
+      numberOfCellsX = Math.min(MAXIMUM_NUMBER_OF_CELLS_PER_AXIS, (int) (width / cellSize) + 1);
+      numberOfCellsY = Math.min(MAXIMUM_NUMBER_OF_CELLS_PER_AXIS, (int) (height / cellSize) + 1);
+
+      int numberOfCells = numberOfCellsX * numberOfCellsY;
+      cellStarts = new int[numberOfCells + 1];
+
+      for (int i = 0; i < numberOfRegions; i++)
+      { // Counting the regions in each cell.
+         if (!isBounded(i))
+            continue;
+
+         for (int cellX = toCellX(minX[i]); cellX <= toCellX(maxX[i]); cellX++)
+         {
+            for (int cellY = toCellY(minY[i]); cellY <= toCellY(maxY[i]); cellY++)
+            {
+               cellStarts[cellX * numberOfCellsY + cellY + 1]++;
+            }
+         }
+      }
+
+      for (int cell = 0; cell < numberOfCells; cell++)
+         cellStarts[cell + 1] += cellStarts[cell];
+
+      cellRegions = new int[cellStarts[numberOfCells]];
+      int[] cellEnds = Arrays.copyOf(cellStarts, numberOfCells);
+
+      for (int i = 0; i < numberOfRegions; i++)
+      {
+         if (!isBounded(i))
+            continue;
+
+         for (int cellX = toCellX(minX[i]); cellX <= toCellX(maxX[i]); cellX++)
+         {
+            for (int cellY = toCellY(minY[i]); cellY <= toCellY(maxY[i]); cellY++)
+            {
+               cellRegions[cellEnds[cellX * numberOfCellsY + cellY]++] = i;
+            }
+         }
+      }
+   }
+
+   private void updateBounds(int index, Point3DReadOnly vertex)
+   {
+      // Math.min/max propagate NaN, which is what is expected for a region that is not defined.
+      minX[index] = Math.min(minX[index], vertex.getX());
+      maxX[index] = Math.max(maxX[index], vertex.getX());
+      minY[index] = Math.min(minY[index], vertex.getY());
+      maxY[index] = Math.max(maxY[index], vertex.getY());
+      minZ[index] = Math.min(minZ[index], vertex.getZ());
+      maxZ[index] = Math.max(maxZ[index], vertex.getZ());
+   }
+
+   private boolean isBounded(int index)
+   {
+      return Double.isFinite(minX[index]) && Double.isFinite(maxX[index]) && Double.isFinite(minY[index]) && Double.isFinite(maxY[index])
+            && !Double.isNaN(minZ[index]) && !Double.isNaN(maxZ[index]);
+   }
+
+   private int toCellX(double x)
+   {
+      return clampCell((int) Math.floor((x - gridMinX) / cellSize), numberOfCellsX);
+   }
+
+   private int toCellY(double y)
+   {
+      return clampCell((int) Math.floor((y - gridMinY) / cellSize), numberOfCellsY);
+   }
+
+   private static int clampCell(int cell, int numberOfCells)
+   {
+      return Math.max(0, Math.min(numberOfCells - 1, cell));
+   }
+
+   /**
+    * Finds the regions which bounds may overlap the given area of the XY-plane.
+    *
+    * @param point the center of the query area.
+    * @param radius the half-size of the query area.
+    * @return the candidate regions in the same order as in the original list.
+    */
+   List<PlanarRegion> findCandidates(Point2DReadOnly point, double radius)
+   {
+      return findCandidates(point.getX() - radius, point.getY() - radius, point.getX() + radius, point.getY() + radius);
+   }
+
+   /**
+    * Finds the regions which bounds may overlap the given area of the XY-plane.
+    *
+    * @return the candidate regions in the same order as in the original list.
+    */
+   List<PlanarRegion> findCandidates(double queryMinX, double queryMinY, double queryMaxX, double queryMaxY)
+   {
+      List<PlanarRegion> candidates = new ArrayList<>();
+      findCandidates(queryMinX, queryMinY, queryMaxX, queryMaxY, candidates);
+      return candidates;
+   }
+
+   /**
+    * Finds the regions which bounds may overlap the given area of the XY-plane, without allocating
+    * once the buffer of the calling thread has grown large enough.
+    *
+    * @param candidatesToPack the candidate regions in the same order as in the original list.
+    *                         Modified.
+    */
+   void findCandidates(double queryMinX, double queryMinY, double queryMaxX, double queryMaxY, List<PlanarRegion> candidatesToPack)
+   {
+      candidatesToPack.clear();
+      queryMinX -= QUERY_MARGIN;
+      queryMinY -= QUERY_MARGIN;
+      queryMaxX += QUERY_MARGIN;
+      queryMaxY += QUERY_MARGIN;
+
+      TIntArrayList candidateIndices = candidateIndicesBuffer.get();
+      candidateIndices.resetQuick();
+      candidateIndices.add(unboundedRegions);
+
+      if (numberOfCellsX > 0 && queryMaxX >= gridMinX && queryMaxY >= gridMinY
+            && queryMinX <= gridMinX + numberOfCellsX * cellSize && queryMinY <= gridMinY + numberOfCellsY * cellSize)
+      {
+         int startX = toCellX(queryMinX), endX = toCellX(queryMaxX);
+         int startY = toCellY(queryMinY), endY = toCellY(queryMaxY);
+
+         for (int cellX = startX; cellX <= endX; cellX++)
+         {
+            for (int cellY = startY; cellY <= endY; cellY++)
+            {
+               int cell = cellX * numberOfCellsY + cellY;
+
+               for (int k = cellStarts[cell]; k < cellStarts[cell + 1]; k++)
+               {
+                  int index = cellRegions[k];
+                  if (minX[index] <= queryMaxX && maxX[index] >= queryMinX && minY[index] <= queryMaxY && maxY[index] >= queryMinY)
+                     candidateIndices.add(index);
+               }
+            }
+         }
+      }
+
+      // A region spanning multiple cells is reported once per cell.
+      candidateIndices.sort();
+
+      for (int k = 0; k < candidateIndices.size(); k++)
+      {
+         int index = candidateIndices.getQuick(k);
+         if (k == 0 || index != candidateIndices.getQuick(k - 1))
+            candidatesToPack.add(regions[index]);
+      }
+   }
+
+   /**
+    * Computes for each region a lower bound of the distance from the given point to any point of the
+    * region, and sorts the regions by increasing lower bound.
+    * <p>
+    * The lower bounds are rounded down to single precision such that each region can be sorted as a
+    * single {@code long} holding the lower bound in its upper half and the region index in its lower
+    * half. Regions with the same rounded lower bound are sorted by increasing index.
+    * </p>
+    *
+    * @param point             the query.
+    * @param lowerBoundsToPack the lower bound of each region, indexed as in the original list.
+    *                          Modified.
+    * @return the indices of the regions sorted by increasing lower bound.
+    */
+   int[] sortByDistanceLowerBound(Point3DReadOnly point, double[] lowerBoundsToPack)
+   {
+      long[] sortKeys = new long[regions.length];
+
+      for (int i = 0; i < regions.length; i++)
+      {
+         float lowerBound = 0.0f;
+
+         if (isBounded(i))
+         {
+            double dx = Math.max(0.0, Math.max(minX[i] - point.getX(), point.getX() - maxX[i]));
+            double dy = Math.max(0.0, Math.max(minY[i] - point.getY(), point.getY() - maxY[i]));
+            double dz = Math.max(0.0, Math.max(minZ[i] - point.getZ(), point.getZ() - maxZ[i]));
+            double distance = Math.sqrt(dx * dx + dy * dy + dz * dz) - QUERY_MARGIN;
+            // Rounding down to remain a lower bound, NaN is mapped to 0 such that the region is always visited.
+            if (distance > 0.0)
+               lowerBound = Math.max(0.0f, Math.nextDown((float) distance));
+         }
+
+         lowerBoundsToPack[i] = lowerBound;
+         // The bits of a non-negative float sort in the same order as its value.
+         sortKeys[i] = ((long) Float.floatToIntBits(lowerBound) << 32) | i;
+      }
+
+      Arrays.sort(sortKeys);
+
+      int[] sortedIndices = new int[regions.length];
+      for (int k = 0; k < regions.length; k++)
+         sortedIndices[k] = (int) sortKeys[k];
+      return sortedIndices;
+   }
+
+   /**
+    * Tests whether this index still describes the given regions: same regions in the same order,
+    * none of them modified since this index was built.
+    */
+   boolean isUpToDate(List<PlanarRegion> planarRegions)
+   {
+      if (planarRegions.size() != regions.length)
+         return false;
+
+      for (int i = 0; i < regions.length; i++)
+      {
+         PlanarRegion region = planarRegions.get(i);
+
+         if (region != regions[i] || region.getModificationCount() != modificationCounts[i])
+            return false;
+      }
+
+      return true;
+   }
+
+   int getNumberOfRegions()
+   {
+      return regions.length;
+   }
+
+   PlanarRegion getRegion(int index)
+   {
+      return regions[index];
+   }
+}
@@ -0,0 +1,41 @@
+package us.ihmc.robotics.physics;
+
+import java.util.List;
+
+/**
+ * Broad phase of the collision detection: finds cheaply the pairs of collidables that may be
+ * colliding, such that only these pairs have to go through the narrow phase.
+ * <p>
+ * Implementations have to report at least all the pairs for which the bounding boxes intersect as
+ * defined by {@link Collidable#isCollidableWith(Collidable)}, reporting more pairs is allowed but
+ * slows down the narrow phase.
+ * </p>
+ *
+ * @see SimpleCollisionDetection#setBroadPhase(CollisionBroadPhase)
+ */
+public interface CollisionBroadPhase
+{
+   /**
+    * Finds the pairs of collidables whose bounding boxes overlap.
+    * <p>
+    * The bounding boxes of the collidables are up-to-date and all expressed in the same frame.
+    * </p>
+    *
+    * @param collidables                the collidables to test, starting with the
+    *                                   {@code numberOfDynamicCollidables} dynamic collidables
+    *                                   followed by the static collidables. Not modified.
+    * @param numberOfDynamicCollidables the number of dynamic collidables. Pairs of static
+    *                                   collidables are never reported.
+    * @param pairConsumer               called once for each overlapping pair.
+    */
+   void computeOverlappingPairs(List<Collidable> collidables, int numberOfDynamicCollidables, OverlappingPairConsumer pairConsumer);
+
+   public static interface OverlappingPairConsumer
+   {
+      /**
+       * @param indexA the index of the first collidable, always less than {@code indexB}.
+       * @param indexB the index of the second collidable.
+       */
+      void accept(int indexA, int indexB);
+   }
+}
@@ -2,7 +2,9 @@ package us.ihmc.robotics.physics;
 
 import us.ihmc.euclid.referenceFrame.FramePoint3D;
 import us.ihmc.euclid.referenceFrame.FrameUnitVector3D;
+import us.ihmc.euclid.referenceFrame.FrameVector3D;
 import us.ihmc.euclid.referenceFrame.collision.EuclidFrameShape3DCollisionResult;
+import us.ihmc.euclid.referenceFrame.interfaces.FrameVector3DReadOnly;
 
 public class CollisionResult
 {
@@ -25,6 +27,14 @@ public class CollisionResult
 
    private int collisionID = 0;
 
+   /**
+    * The impulse applied on A at the previous tick, used to warm-start the contact solver as this
+    * collision result is recycled as long as the two collidables remain in contact.
+    */
+   private boolean hasWarmStartImpulse = false;
+   private final FrameVector3D warmStartLinearImpulse = new FrameVector3D();
+   private double warmStartAngularImpulseZ = 0.0;
+
    /**
     * Creates a new empty collision result.
     */
@@ -65,6 +75,41 @@ public class CollisionResult
    {
       collisionData.swapShapes();
       collisionAxisForA.negate();
+      clearWarmStartImpulse();
+   }
+
+   /**
+    * Stores the impulse resulting from solving this collision such that it can be used as the
+    * initial guess at the next tick.
+    *
+    * @param linearImpulse   the linear part of the impulse applied on A. Not modified.
+    * @param angularImpulseZ the friction moment applied on A around the collision axis.
+    */
+   public void setWarmStartImpulse(FrameVector3DReadOnly linearImpulse, double angularImpulseZ)
+   {
+      warmStartLinearImpulse.setIncludingFrame(linearImpulse);
+      warmStartAngularImpulseZ = angularImpulseZ;
+      hasWarmStartImpulse = true;
+   }
+
+   public void clearWarmStartImpulse()
+   {
+      hasWarmStartImpulse = false;
+   }
+
+   public boolean hasWarmStartImpulse()
+   {
+      return hasWarmStartImpulse;
+   }
+
+   public FrameVector3DReadOnly getWarmStartLinearImpulse()
+   {
+      return warmStartLinearImpulse;
+   }
+
+   public double getWarmStartAngularImpulseZ()
+   {
+      return warmStartAngularImpulseZ;
    }
 
    public EuclidFrameShape3DCollisionResult getCollisionData()
@@ -76,6 +76,8 @@ public class ExperimentalPhysicsEngine
    private final YoContactParameters globalContactParameters;
    private final YoBoolean hasGlobalConstraintParameters;
    private final YoConstraintParameters globalConstraintParameters;
+   private final YoBoolean solveCollisionGroupsInParallel;
+   private final YoBoolean useContactWarmStart;
 
    private final YoDouble time = new YoDouble("physicsTime", registry);
    private final YoDouble rawTickDurationMilliseconds = new YoDouble("rawTickDurationMilliseconds", registry);
@@ -96,6 +98,8 @@ public class ExperimentalPhysicsEngine
       globalContactParameters = new YoContactParameters("globalContact", registry);
       hasGlobalConstraintParameters = new YoBoolean("hasGlobalConstraintParameters", registry);
       globalConstraintParameters = new YoConstraintParameters("globalConstraint", registry);
+      solveCollisionGroupsInParallel = new YoBoolean("solveCollisionGroupsInParallel", registry);
+      useContactWarmStart = new YoBoolean("useContactWarmStart", registry);
       multiContactImpulseCalculatorPool = new YoMultiContactImpulseCalculatorPool(1, rootFrame, multiContactCalculatorRegistry);
 
       environmentCollidableAppearance.setTransparency(environmentTransparency);
@@ -183,6 +187,33 @@ public class ExperimentalPhysicsEngine
       hasGlobalContactParameters.set(true);
    }
 
+   /**
+    * Enables solving the contact impulses of independent collision groups concurrently.
+    * <p>
+    * A collision group gathers the robots that are in contact with each other, directly or through
+    * other robots, and their collisions. The groups do not share any robot such that their impulses
+    * can be computed independently, the resulting velocity changes and external wrenches are still
+    * applied on the calling thread in the same order as when solving sequentially.
+    * </p>
+    *
+    * @param enable whether to solve the collision groups in parallel.
+    */
+   public void setSolveCollisionGroupsInParallel(boolean enable)
+   {
+      solveCollisionGroupsInParallel.set(enable);
+   }
+
+   /**
+    * Enables warm-starting the contact impulses with the solution of the previous tick.
+    *
+    * @param enable whether to warm-start the contact impulses.
+    * @see MultiContactImpulseCalculator#setWarmStart(boolean)
+    */
+   public void setContactWarmStart(boolean enable)
+   {
+      useContactWarmStart.set(enable);
+   }
+
    public boolean initialize()
    {
       if (!initialize)
@@ -251,6 +282,7 @@ public class ExperimentalPhysicsEngine
             calculator.setConstraintParameters(globalConstraintParameters);
          if (hasGlobalContactParameters.getValue())
             calculator.setContactParameters(globalContactParameters);
+         calculator.setWarmStart(useContactWarmStart.getValue());
 
          impulseCalculators.add(calculator);
          uncoveredRobotsRootBody.removeAll(collisionGroup.getRootBodies());
@@ -266,9 +298,21 @@ public class ExperimentalPhysicsEngine
          robot.getIntegrator().addJointVelocityChange(jointLimitConstraintCalculator.getJointVelocityChange(0));
       }
 
+      if (solveCollisionGroupsInParallel.getValue() && impulseCalculators.size() > 1)
+      {
+         double currentTime = time.getValue();
+         impulseCalculators.parallelStream().forEach(impulseCalculator -> impulseCalculator.computeImpulses(currentTime, dt, false));
+      }
+      else
+      {
+         for (MultiContactImpulseCalculator impulseCalculator : impulseCalculators)
+         {
+            impulseCalculator.computeImpulses(time.getValue(), dt, false);
+         }
+      }
+
       for (MultiContactImpulseCalculator impulseCalculator : impulseCalculators)
       {
-         impulseCalculator.computeImpulses(time.getValue(), dt, false);
          impulseCalculator.applyJointVelocityChanges();
          impulseCalculator.readExternalWrenches(dt, externalWrenchReaders);
       }
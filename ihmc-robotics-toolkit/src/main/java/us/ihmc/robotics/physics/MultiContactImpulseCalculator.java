@@ -34,6 +34,7 @@ public class MultiContactImpulseCalculator
    private double gamma = 0.99;
    private double tolerance = 1.0e-6;
    private boolean solveContactsIndependentlyOnFailure = false;
+   private boolean useWarmStart = false;
 
    private int maxNumberOfIterations = 100;
    private int iterationCounter = 0;
@@ -145,12 +146,23 @@ public class MultiContactImpulseCalculator
          ImpulseBasedConstraintCalculator calculator = allCalculators.get(0);
          calculator.computeImpulse(dt);
          calculator.finalizeImpulse();
+         updateWarmStartImpulses(true);
          return 0.0;
       }
       else
       { // Successive over-relaxation method to evaluate multiple inter-dependent constraints.
          double alpha = 1.0;
          double maxUpdateMagnitude = Double.POSITIVE_INFINITY;
+         boolean isWarmStarted = false;
+
+         if (useWarmStart)
+         { // Starting from the impulses of the previous tick, this has to be done once all the calculators have been initialized.
+            for (SingleContactImpulseCalculator calculator : contactCalculators)
+            {
+               calculator.applyWarmStart();
+               isWarmStarted |= calculator.isWarmStarted();
+            }
+         }
 
          iterationCounter = 0;
 
@@ -188,7 +200,8 @@ public class MultiContactImpulseCalculator
 
             iterationCounter++;
 
-            if (iterationCounter == 1 && numberOfClosingContacts <= 1)
+            // When warm-started, the first update of a calculator may have accounted for impulses that have been zeroed since.
+            if (iterationCounter == 1 && numberOfClosingContacts <= 1 && !isWarmStarted)
                break;
 
             alpha = alphaMin + gamma * (alpha - alphaMin);
@@ -220,10 +233,23 @@ public class MultiContactImpulseCalculator
             }
          }
 
+         updateWarmStartImpulses(hasConverged());
+
          return maxUpdateMagnitude;
       }
    }
 
+   private void updateWarmStartImpulses(boolean hasConverged)
+   {
+      for (SingleContactImpulseCalculator calculator : contactCalculators)
+      {
+         if (useWarmStart && hasConverged)
+            calculator.storeWarmStartImpulse();
+         else // Do not propagate a solution that has not converged.
+            calculator.getCollisionResult().clearWarmStartImpulse();
+      }
+   }
+
    public void setAlphaMin(double alphaMin)
    {
       this.alphaMin = alphaMin;
@@ -249,6 +275,22 @@ public class MultiContactImpulseCalculator
       this.solveContactsIndependentlyOnFailure = solveContactsIndependentlyOnFailure;
    }
 
+   /**
+    * Enables warm-starting the contact impulses with the solution of the previous tick.
+    * <p>
+    * The impulses are carried over through the {@link CollisionResult}s, which the collision
+    * detection recycles as long as the same pair of collidables remains in contact. Only solutions
+    * that converged are carried over. This reduces the number of iterations of the successive
+    * over-relaxation method for resting contacts.
+    * </p>
+    *
+    * @param useWarmStart whether to warm-start the contact impulses.
+    */
+   public void setWarmStart(boolean useWarmStart)
+   {
+      this.useWarmStart = useWarmStart;
+   }
+
    public void setSingleContactTolerance(double gamma)
    {
       contactCalculators.forEach(calculator -> calculator.setTolerance(gamma));
@@ -326,6 +368,11 @@ public class MultiContactImpulseCalculator
       return contactCalculators;
    }
 
+   public boolean isWarmStartEnabled()
+   {
+      return useWarmStart;
+   }
+
    public boolean hasConverged()
    {
       return iterationCounter <= maxNumberOfIterations;
@@ -1,8 +1,10 @@
 package us.ihmc.robotics.physics;
 
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 
+import gnu.trove.list.array.TIntArrayList;
 import gnu.trove.map.TIntObjectMap;
 import gnu.trove.map.hash.TIntObjectHashMap;
 import us.ihmc.euclid.referenceFrame.FramePoint3D;
@@ -20,6 +22,13 @@ public class SimpleCollisionDetection
    private final CollisionListResult allCollisions = new CollisionListResult();
    private final TIntObjectMap<CollisionListResult> previousCollisionMap = new TIntObjectHashMap<>();
 
+   private CollisionBroadPhase broadPhase = new SweepAndPruneCollisionBroadPhase();
+   private final List<Collidable> collidables = new ArrayList<>();
+   private final TIntArrayList holderStartIndices = new TIntArrayList();
+   /** For each collidable, the indices of the collidables with a greater index that overlap with it. */
+   private final List<TIntArrayList> overlappingCollidables = new ArrayList<>();
+   private final CollisionBroadPhase.OverlappingPairConsumer pairConsumer = (indexA, indexB) -> overlappingCollidables.get(indexA).add(indexB);
+
    public SimpleCollisionDetection(ReferenceFrame rootFrame)
    {
       this.rootFrame = rootFrame;
@@ -30,10 +39,30 @@ public class SimpleCollisionDetection
       this.minimumPenetration = minimumPenetration;
    }
 
+   /**
+    * Sets the broad phase used to select the pairs of collidables to evaluate.
+    * <p>
+    * The collisions and their order are the same whether a broad phase is used or not.
+    * </p>
+    *
+    * @param broadPhase the broad phase to use, or {@code null} to evaluate every pair of collidables.
+    *                   Default is {@link SweepAndPruneCollisionBroadPhase}.
+    */
+   public void setBroadPhase(CollisionBroadPhase broadPhase)
+   {
+      this.broadPhase = broadPhase;
+   }
+
    public CollisionListResult evaluationCollisions(List<? extends CollidableHolder> dynamicCollidableHolders, CollidableHolder staticCollidableHolder, double dt)
    {
       allCollisions.clear();
 
+      if (broadPhase != null)
+      {
+         evaluateBroadPhaseCollisions(dynamicCollidableHolders, staticCollidableHolder, dt);
+         return allCollisions;
+      }
+
       for (int i = 0; i < dynamicCollidableHolders.size(); i++)
       {
          CollidableHolder dynamicCollidableHolder = dynamicCollidableHolders.get(i);
@@ -77,6 +106,79 @@ public class SimpleCollisionDetection
       return allCollisions;
    }
 
+   /**
+    * Evaluates only the pairs reported by the broad phase, visiting them in the same order as the
+    * exhaustive search such that the resulting list of collisions is identical.
+    */
+   private void evaluateBroadPhaseCollisions(List<? extends CollidableHolder> dynamicCollidableHolders, CollidableHolder staticCollidableHolder, double dt)
+   {
+      collidables.clear();
+      holderStartIndices.resetQuick();
+
+      for (int i = 0; i < dynamicCollidableHolders.size(); i++)
+      {
+         holderStartIndices.add(collidables.size());
+         collidables.addAll(dynamicCollidableHolders.get(i).getCollidables());
+      }
+
+      int numberOfDynamicCollidables = collidables.size();
+      holderStartIndices.add(numberOfDynamicCollidables);
+
+      for (Collidable staticCollidable : staticCollidableHolder)
+         collidables.add(staticCollidable);
+
+      while (overlappingCollidables.size() < numberOfDynamicCollidables)
+         overlappingCollidables.add(new TIntArrayList());
+      for (int i = 0; i < numberOfDynamicCollidables; i++)
+         overlappingCollidables.get(i).resetQuick();
+
+      broadPhase.computeOverlappingPairs(collidables, numberOfDynamicCollidables, pairConsumer);
+
+      for (int i = 0; i < numberOfDynamicCollidables; i++)
+         overlappingCollidables.get(i).sort();
+
+      for (int i = 0; i < dynamicCollidableHolders.size(); i++)
+      {
+         CollisionListResult collisionResults = new CollisionListResult();
+         int start = holderStartIndices.get(i);
+         int end = holderStartIndices.get(i + 1);
+
+         // Pairs within the holder.
+         for (int j = start; j < end; j++)
+            evaluateOverlappingCollisions(j, j + 1, end, collisionResults, dt);
+
+         // Pairs with the static collidables.
+         for (int j = start; j < end; j++)
+            evaluateOverlappingCollisions(j, numberOfDynamicCollidables, collidables.size(), collisionResults, dt);
+
+         // Pairs with the other holders.
+         for (int k = i + 1; k < dynamicCollidableHolders.size(); k++)
+         {
+            int otherStart = holderStartIndices.get(k);
+            int otherEnd = holderStartIndices.get(k + 1);
+
+            for (int j = start; j < end; j++)
+               evaluateOverlappingCollisions(j, otherStart, otherEnd, collisionResults, dt);
+         }
+      }
+   }
+
+   private void evaluateOverlappingCollisions(int indexA, int startIndexB, int endIndexB, CollisionListResult collisionListResultToPack, double dt)
+   {
+      TIntArrayList overlappingIndices = overlappingCollidables.get(indexA);
+      Collidable collidableA = collidables.get(indexA);
+
+      for (int i = 0; i < overlappingIndices.size(); i++)
+      {
+         int indexB = overlappingIndices.getQuick(i);
+
+         if (indexB >= endIndexB)
+            break;
+         if (indexB >= startIndexB)
+            evaluateCollision(collidableA, collidables.get(indexB), collisionListResultToPack, dt);
+      }
+   }
+
    private void evaluateCollision(Collidable collidableA, Collidable collidableB, CollisionListResult collisionListResultToPack, double dt)
    {
       if (!collidableA.isCollidableWith(collidableB))
@@ -51,6 +51,7 @@ public class SingleContactImpulseCalculator implements ImpulseBasedConstraintCal
    private final ContactParameters contactParameters = new ContactParameters();
 
    private boolean isFirstUpdate = false;
+   private boolean isWarmStarted = false;
    private boolean isImpulseZero = false;
    private boolean isContactClosing = false;
 
@@ -225,6 +226,77 @@ public class SingleContactImpulseCalculator implements ImpulseBasedConstraintCal
       velocitySolverInput.setToZero(contactFrame);
 
       isFirstUpdate = true;
+      isWarmStarted = false;
+   }
+
+   private final FrameVector3D warmStartLinearImpulse = new FrameVector3D();
+
+   /**
+    * Initializes the impulse with the one stored in the collision result at the previous tick, if
+    * any, such that the first call to {@link #updateImpulse(double, double, boolean)} starts from it
+    * and the other calculators account for it from their first update.
+    * <p>
+    * This method is to be called after {@link #updateInertia(List, List)}.
+    * </p>
+    */
+   public void applyWarmStart()
+   {
+      if (!collisionResult.hasWarmStartImpulse())
+         return;
+
+      warmStartLinearImpulse.setIncludingFrame(collisionResult.getWarmStartLinearImpulse());
+      warmStartLinearImpulse.changeFrame(contactFrame);
+
+      if (warmStartLinearImpulse.getZ() <= 0.0)
+         return;
+
+      // The collision axis has moved since the previous tick, projecting back onto the friction cone.
+      double tangentialImpulse = EuclidCoreTools.norm(warmStartLinearImpulse.getX(), warmStartLinearImpulse.getY());
+      double maxTangentialImpulse = contactParameters.getCoefficientOfFriction() * warmStartLinearImpulse.getZ();
+      if (tangentialImpulse > maxTangentialImpulse)
+      {
+         double scale = maxTangentialImpulse / tangentialImpulse;
+         warmStartLinearImpulse.setX(scale * warmStartLinearImpulse.getX());
+         warmStartLinearImpulse.setY(scale * warmStartLinearImpulse.getY());
+      }
+
+      impulseA.setToZero(bodyFrameA, contactFrame);
+      impulseA.getLinearPart().set(warmStartLinearImpulse);
+      if (contactParameters.getComputeFrictionMoment())
+         impulseA.getAngularPart().setZ(collisionResult.getWarmStartAngularImpulseZ());
+      impulsePreviousA.setIncludingFrame(impulseA);
+
+      if (rootB != null)
+      {
+         impulseB.setIncludingFrame(contactingBodyB.getBodyFixedFrame(), impulseA);
+         impulseB.negate();
+      }
+
+      isImpulseZero = false;
+      isWarmStarted = true;
+      updateTwistModifiers();
+   }
+
+   /**
+    * Stores the current impulse in the collision result to warm-start the calculator at the next
+    * tick, or clears it if the contact is not active.
+    */
+   public void storeWarmStartImpulse()
+   {
+      if (isImpulseZero)
+      {
+         collisionResult.clearWarmStartImpulse();
+         return;
+      }
+
+      warmStartLinearImpulse.setIncludingFrame(impulseA.getLinearPart());
+      warmStartLinearImpulse.changeFrame(contactFrame.getParent());
+      collisionResult.setWarmStartImpulse(warmStartLinearImpulse, impulseA.getAngularPartZ());
+   }
+
+   public boolean isWarmStarted()
+   {
+      return isWarmStarted;
    }
 
    @Override
@@ -405,7 +477,7 @@ public class SingleContactImpulseCalculator implements ImpulseBasedConstraintCal
       if (impulseA.getLinearPart().getZ() < 0.0)
          throw new IllegalStateException("Malformed impulse");
 
-      if (isFirstUpdate)
+      if (isFirstUpdate && !isWarmStarted)
       {
          if (isContactClosing)
          {
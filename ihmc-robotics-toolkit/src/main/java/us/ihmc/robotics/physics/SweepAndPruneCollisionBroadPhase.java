@@ -0,0 +1,206 @@
+package us.ihmc.robotics.physics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import gnu.trove.list.array.TIntArrayList;
+import us.ihmc.euclid.geometry.interfaces.BoundingBox3DReadOnly;
+
+/**
+ * Broad phase based on sweep-and-prune along the x-axis of the bounding boxes.
+ * <p>
+ * The dynamic and static collidables are kept in two lists sorted by the lower x-bound of their
+ * bounding box, which are swept together such that pairs of static collidables are never visited.
+ * The order of the previous call is kept and updated with an insertion sort, which is linear when
+ * the collidables have only moved a little since, as it is the case between two physics ticks.
+ * </p>
+ */
+public class SweepAndPruneCollisionBroadPhase implements CollisionBroadPhase
+{
+   /**
+    * Same tolerance as in {@link Collidable#isCollidableWith(Collidable)} such that no pair reaching
+    * the narrow phase is culled.
+    */
+   private static final double EPSILON = 1.0e-12;
+
+   private final List<Collidable> previousCollidables = new ArrayList<>();
+   private int previousNumberOfDynamicCollidables = -1;
+
+   private int[] dynamicOrder = new int[0];
+   private int[] staticOrder = new int[0];
+
+   private double[] minX = new double[0];
+   private double[] maxX = new double[0];
+   private double[] minY = new double[0];
+   private double[] maxY = new double[0];
+   private double[] minZ = new double[0];
+   private double[] maxZ = new double[0];
+
+   private final TIntArrayList activeDynamicCollidables = new TIntArrayList();
+   private final TIntArrayList activeStaticCollidables = new TIntArrayList();
+
+   public SweepAndPruneCollisionBroadPhase()
+   {
+   }
+
+   @Override
+   public void computeOverlappingPairs(List<Collidable> collidables, int numberOfDynamicCollidables, OverlappingPairConsumer pairConsumer)
+   {
+      int numberOfCollidables = collidables.size();
+      int numberOfStaticCollidables = numberOfCollidables - numberOfDynamicCollidables;
+
+      updateBounds(collidables);
+
+      if (!isSameCollidables(collidables, numberOfDynamicCollidables))
+      {
+         dynamicOrder = new int[numberOfDynamicCollidables];
+         for (int i = 0; i < numberOfDynamicCollidables; i++)
+            dynamicOrder[i] = i;
+
+         staticOrder = new int[numberOfStaticCollidables];
+         for (int i = 0; i < numberOfStaticCollidables; i++)
+            staticOrder[i] = numberOfDynamicCollidables + i;
+
+         previousCollidables.clear();
+         previousCollidables.addAll(collidables);
+         previousNumberOfDynamicCollidables = numberOfDynamicCollidables;
+      }
+
+      sortByLowerBound(dynamicOrder);
+      sortByLowerBound(staticOrder);
+
+      activeDynamicCollidables.resetQuick();
+      activeStaticCollidables.resetQuick();
+
+      int dynamicIndex = 0;
+      int staticIndex = 0;
+
+      while (dynamicIndex < numberOfDynamicCollidables || staticIndex < numberOfStaticCollidables)
+      {
+         boolean isNextDynamic;
+
+         if (staticIndex == numberOfStaticCollidables)
+            isNextDynamic = true;
+         else if (dynamicIndex == numberOfDynamicCollidables)
+            isNextDynamic = false;
+         else
+            isNextDynamic = minX[dynamicOrder[dynamicIndex]] <= minX[staticOrder[staticIndex]];
+
+         int next = isNextDynamic ? dynamicOrder[dynamicIndex++] : staticOrder[staticIndex++];
+         double lowerBound = minX[next];
+
+         pruneInactive(activeDynamicCollidables, lowerBound);
+         pruneInactive(activeStaticCollidables, lowerBound);
+
+         // All the active collidables overlap the new one along the x-axis.
+         reportOverlaps(next, activeDynamicCollidables, pairConsumer);
+
+         if (isNextDynamic)
+         {
+            reportOverlaps(next, activeStaticCollidables, pairConsumer);
+            activeDynamicCollidables.add(next);
+         }
+         else
+         {
+            activeStaticCollidables.add(next);
+         }
+      }
+   }
+
+   private void updateBounds(List<Collidable> collidables)
+   {
+      int numberOfCollidables = collidables.size();
+
+      if (minX.length < numberOfCollidables)
+      {
+         minX = new double[numberOfCollidables];
+         maxX = new double[numberOfCollidables];
+         minY = new double[numberOfCollidables];
+         maxY = new double[numberOfCollidables];
+         minZ = new double[numberOfCollidables];
+         maxZ = new double[numberOfCollidables];
+      }
+
+      for (int i = 0; i < numberOfCollidables; i++)
+      {
+         BoundingBox3DReadOnly boundingBox = collidables.get(i).getBoundingBox();
+
+         if (boundingBox.containsNaN())
+         { // Undefined bounding boxes pass the test in Collidable.isCollidableWith(Collidable), they overlap everything.
+            minX[i] = minY[i] = minZ[i] = Double.NEGATIVE_INFINITY;
+            maxX[i] = maxY[i] = maxZ[i] = Double.POSITIVE_INFINITY;
+            continue;
+         }
+
+         minX[i] = boundingBox.getMinX();
+         maxX[i] = boundingBox.getMaxX();
+         minY[i] = boundingBox.getMinY();
+         maxY[i] = boundingBox.getMaxY();
+         minZ[i] = boundingBox.getMinZ();
+         maxZ[i] = boundingBox.getMaxZ();
+      }
+   }
+
+   private boolean isSameCollidables(List<Collidable> collidables, int numberOfDynamicCollidables)
+   {
+      if (numberOfDynamicCollidables != previousNumberOfDynamicCollidables || collidables.size() != previousCollidables.size())
+         return false;
+
+      for (int i = 0; i < collidables.size(); i++)
+      {
+         if (collidables.get(i) != previousCollidables.get(i))
+            return false;
+      }
+
+      return true;
+   }
+
+   private void sortByLowerBound(int[] order)
+   {
+      for (int i = 1; i < order.length; i++)
+      {
+         int index = order[i];
+         double lowerBound = minX[index];
+         int j = i - 1;
+
+         while (j >= 0 && minX[order[j]] > lowerBound)
+         {
+            order[j + 1] = order[j];
+            j--;
+         }
+
+         order[j + 1] = index;
+      }
+   }
+
+   private void pruneInactive(TIntArrayList activeCollidables, double lowerBound)
+   {
+      for (int i = activeCollidables.size() - 1; i >= 0; i--)
+      {
+         if (maxX[activeCollidables.getQuick(i)] + EPSILON < lowerBound)
+         {
+            int last = activeCollidables.size() - 1;
+            activeCollidables.setQuick(i, activeCollidables.getQuick(last));
+            activeCollidables.removeAt(last);
+         }
+      }
+   }
+
+   private void reportOverlaps(int index, TIntArrayList activeCollidables, OverlappingPairConsumer pairConsumer)
+   {
+      for (int i = 0; i < activeCollidables.size(); i++)
+      {
+         int other = activeCollidables.getQuick(i);
+
+         if (minY[index] > maxY[other] + EPSILON || minY[other] > maxY[index] + EPSILON)
+            continue;
+         if (minZ[index] > maxZ[other] + EPSILON || minZ[other] > maxZ[index] + EPSILON)
+            continue;
+
+         if (index < other)
+            pairConsumer.accept(index, other);
+         else
+            pairConsumer.accept(other, index);
+      }
+   }
+}
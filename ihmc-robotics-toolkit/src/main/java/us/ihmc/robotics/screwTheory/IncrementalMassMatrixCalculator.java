@@ -0,0 +1,408 @@
+package us.ihmc.robotics.screwTheory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.ejml.data.DMatrixRMaj;
+
+import us.ihmc.mecano.algorithms.CompositeRigidBodyMassMatrixCalculator;
+import us.ihmc.mecano.frames.MovingReferenceFrame;
+import us.ihmc.mecano.multiBodySystem.interfaces.JointReadOnly;
+import us.ihmc.mecano.multiBodySystem.interfaces.MultiBodySystemReadOnly;
+import us.ihmc.mecano.multiBodySystem.interfaces.RigidBodyReadOnly;
+import us.ihmc.mecano.spatial.Momentum;
+import us.ihmc.mecano.spatial.SpatialInertia;
+import us.ihmc.mecano.spatial.interfaces.TwistReadOnly;
+import us.ihmc.mecano.tools.MultiBodySystemTools;
+
+/**
+ * Computes the same mass-matrix as {@link CompositeRigidBodyMassMatrixCalculator} with the
+ * composite rigid-body algorithm, but only updates the coefficients affected by the joints whose
+ * configuration changed since the last call to {@link #compute()}.
+ * <p>
+ * The coefficient <tt>H<sub>ji</sub></tt>, where joint <tt>j</tt> is an ancestor of joint
+ * <tt>i</tt>, only depends on the configuration of the joints from <tt>j</tt> (excluded) down to
+ * <tt>i</tt> and of the joints in the subtree of <tt>i</tt>. The composite inertia of every subtree
+ * is kept between calls and only recomputed when one of the joints in the subtree has moved. For
+ * instance, moving only an arm leaves the coefficients of the legs unchanged, and moving only the
+ * floating joint does not require any update.
+ * </p>
+ * <p>
+ * Changes are detected by comparing the joint configurations to the ones from the previous call,
+ * the reference frames of the system must be up-to-date before calling {@link #compute()}. Any
+ * other change to the system, such as a change of inertia or of a joint offset, requires to call
+ * {@link #reset()} for the next call to {@link #compute()} to perform a full update.
+ * </p>
+ */
+public class IncrementalMassMatrixCalculator
+{
+   /** Defines the multi-body system to use with this calculator. */
+   private final MultiBodySystemReadOnly input;
+
+   /** The root of the internal recursive algorithm. */
+   private final RecursionStep initialRecursionStep;
+   /** All the recursion steps but the root, parents are always before their children. */
+   private final List<RecursionStep> recursionSteps = new ArrayList<>();
+
+   /** The output of this algorithm: the mass-matrix. */
+   private final DMatrixRMaj massMatrix;
+
+   private boolean forceFullUpdate = true;
+   /** Number of mass-matrix coefficient blocks updated during the last call to {@link #compute()}. */
+   private int numberOfBlocksUpdated = 0;
+
+   /**
+    * Creates a calculator for computing the mass-matrix for the system defined by the given
+    * {@code input}, including the inertia of the ignored subtrees.
+    *
+    * @param input the definition of the system to be evaluated by this calculator.
+    */
+   public IncrementalMassMatrixCalculator(MultiBodySystemReadOnly input)
+   {
+      this(input, true);
+   }
+
+   /**
+    * Creates a calculator for computing the mass-matrix for the system defined by the given
+    * {@code input}.
+    *
+    * @param input                          the definition of the system to be evaluated by this
+    *                                       calculator.
+    * @param considerIgnoredSubtreesInertia whether the inertia of the ignored part(s) of the given
+    *                                       multi-body system should be considered.
+    */
+   public IncrementalMassMatrixCalculator(MultiBodySystemReadOnly input, boolean considerIgnoredSubtreesInertia)
+   {
+      this.input = input;
+
+      RigidBodyReadOnly rootBody = input.getRootBody();
+      initialRecursionStep = new RecursionStep(rootBody, null, null, considerIgnoredSubtreesInertia);
+      buildMultiBodyTree(initialRecursionStep, input.getJointsToIgnore(), considerIgnoredSubtreesInertia);
+
+      int nDoFs = MultiBodySystemTools.computeDegreesOfFreedom(input.getJointsToConsider());
+      massMatrix = new DMatrixRMaj(nDoFs, nDoFs);
+   }
+
+   private void buildMultiBodyTree(RecursionStep parent, Collection<? extends JointReadOnly> jointsToIgnore, boolean considerIgnoredSubtreesInertia)
+   {
+      for (JointReadOnly childJoint : parent.rigidBody.getChildrenJoints())
+      {
+         if (jointsToIgnore.contains(childJoint))
+            continue;
+
+         RigidBodyReadOnly childBody = childJoint.getSuccessor();
+
+         if (childBody != null)
+         {
+            int[] jointIndices = input.getJointMatrixIndexProvider().getJointDoFIndices(childJoint);
+            RecursionStep child = new RecursionStep(childBody, parent, jointIndices, considerIgnoredSubtreesInertia);
+            recursionSteps.add(child);
+            buildMultiBodyTree(child, jointsToIgnore, considerIgnoredSubtreesInertia);
+         }
+      }
+   }
+
+   /**
+    * Requests a full update of the mass-matrix at the next call to {@link #compute()}.
+    */
+   public void reset()
+   {
+      forceFullUpdate = true;
+   }
+
+   /**
+    * Updates the mass-matrix for the current configuration of the system.
+    */
+   public void compute()
+   {
+      numberOfBlocksUpdated = 0;
+      boolean hasAnyJointChanged = false;
+
+      for (int i = 0; i < recursionSteps.size(); i++)
+         hasAnyJointChanged |= recursionSteps.get(i).updateJointConfiguration(forceFullUpdate);
+
+      if (hasAnyJointChanged)
+      {
+         initialRecursionStep.updateCompositeInertia(forceFullUpdate);
+
+         for (int i = 0; i < recursionSteps.size(); i++)
+            recursionSteps.get(i).updateMassMatrixColumn();
+      }
+
+      forceFullUpdate = false;
+   }
+
+   /**
+    * Gets the definition of the multi-body system that was used to create this calculator.
+    *
+    * @return this calculator input.
+    */
+   public MultiBodySystemReadOnly getInput()
+   {
+      return input;
+   }
+
+   /**
+    * Gets the mass-matrix as computed by the last call to {@link #compute()}.
+    *
+    * @return the mass-matrix.
+    */
+   public DMatrixRMaj getMassMatrix()
+   {
+      return massMatrix;
+   }
+
+   /**
+    * Gets the number of joint-to-joint blocks of the mass-matrix that were updated during the last
+    * call to {@link #compute()}, the upper and lower blocks being counted once.
+    *
+    * @return the number of blocks updated.
+    */
+   public int getNumberOfBlocksUpdated()
+   {
+      return numberOfBlocksUpdated;
+   }
+
+   /** Intermediate result used for garbage free operations. */
+   private final SpatialInertia childInertia = new SpatialInertia();
+   /** Intermediate result used for garbage free operations. */
+   private final Momentum ancestorUnitMomentum = new Momentum();
+
+   /**
+    * Represents a single recursion step with all the intermediate variables needed.
+    */
+   private final class RecursionStep
+   {
+      /**
+       * The rigid-body for which this recursion is.
+       */
+      private final RigidBodyReadOnly rigidBody;
+      /**
+       * Body inertia expressed in the frame after the parent joint, including the inertia of the
+       * ignored subtrees if requested.
+       */
+      private final SpatialInertia bodyInertia;
+      /**
+       * The recursion step holding onto the direct predecessor of this recursion step's rigid-body.
+       */
+      private final RecursionStep parent;
+      /**
+       * The recursion steps holding onto the direct successor of this recursion step's rigid-body.
+       */
+      private final List<RecursionStep> children = new ArrayList<>();
+      /**
+       * Inertia of the subtree starting at this rigid-body expressed in the frame after the parent
+       * joint. It only depends on the configuration of the joints in the subtree.
+       */
+      private final SpatialInertia compositeInertia;
+      /**
+       * Momentum of the subtree for a unit velocity of each degree of freedom of the parent joint,
+       * expressed in the frame after the parent joint.
+       */
+      private final Momentum[] unitMomenta;
+      /**
+       * Joint configuration at the last update, used to detect changes.
+       */
+      private final DMatrixRMaj previousConfiguration;
+      private final DMatrixRMaj currentConfiguration;
+      /**
+       * Joint indices for storing the coefficients in the main matrix {@code massMatrix}.
+       */
+      private final int[] jointIndices;
+
+      private boolean hasJointChanged = true;
+      private boolean hasCompositeInertiaChanged = true;
+
+      public RecursionStep(RigidBodyReadOnly rigidBody, RecursionStep parent, int[] jointIndices, boolean considerIgnoredSubtreesInertia)
+      {
+         this.rigidBody = rigidBody;
+         this.parent = parent;
+         this.jointIndices = jointIndices;
+
+         if (isRoot())
+         {
+            bodyInertia = null;
+            compositeInertia = null;
+            unitMomenta = null;
+            previousConfiguration = null;
+            currentConfiguration = null;
+         }
+         else
+         {
+            parent.children.add(this);
+            int nDoFs = getJoint().getDegreesOfFreedom();
+
+            MovingReferenceFrame frameAfterJoint = getFrameAfterJoint();
+            bodyInertia = new SpatialInertia(frameAfterJoint, frameAfterJoint);
+            compositeInertia = new SpatialInertia(frameAfterJoint, frameAfterJoint);
+            unitMomenta = new Momentum[nDoFs];
+            for (int i = 0; i < nDoFs; i++)
+               unitMomenta[i] = new Momentum(frameAfterJoint);
+            previousConfiguration = new DMatrixRMaj(getJoint().getConfigurationMatrixSize(), 1);
+            currentConfiguration = new DMatrixRMaj(getJoint().getConfigurationMatrixSize(), 1);
+
+            // The body inertia is constant in the frame after joint, only its composite inertia depends on the configuration.
+            childInertia.setIncludingFrame(rigidBody.getInertia());
+            childInertia.changeFrame(frameAfterJoint);
+            bodyInertia.add(childInertia);
+
+            if (considerIgnoredSubtreesInertia)
+            {
+               for (JointReadOnly childJoint : rigidBody.getChildrenJoints())
+               {
+                  if (input.getJointsToIgnore().contains(childJoint))
+                  {
+                     SpatialInertia subtreeInertia = MultiBodySystemTools.computeSubtreeInertia(childJoint);
+                     subtreeInertia.changeFrame(frameAfterJoint);
+                     bodyInertia.add(subtreeInertia);
+                  }
+               }
+            }
+         }
+      }
+
+      /**
+       * Compares the configuration of the parent joint to the one from the previous update.
+       *
+       * @return whether the joint has moved.
+       */
+      public boolean updateJointConfiguration(boolean forceUpdate)
+      {
+         getJoint().getJointConfiguration(0, currentConfiguration);
+
+         hasJointChanged = forceUpdate;
+
+         for (int i = 0; i < currentConfiguration.getNumRows(); i++)
+         {
+            if (currentConfiguration.get(i) != previousConfiguration.get(i))
+            {
+               hasJointChanged = true;
+               break;
+            }
+         }
+
+         if (hasJointChanged)
+            previousConfiguration.set(currentConfiguration);
+
+         return hasJointChanged;
+      }
+
+      /**
+       * Pass going from the leaves to the root updating the composite inertias of the subtrees that
+       * have moved.
+       *
+       * @return whether a joint of this subtree, this rigid-body's parent joint included, has moved.
+       */
+      public boolean updateCompositeInertia(boolean forceUpdate)
+      {
+         boolean hasSubtreeChanged = forceUpdate;
+
+         for (int childIndex = 0; childIndex < children.size(); childIndex++)
+         {
+            hasSubtreeChanged |= children.get(childIndex).updateCompositeInertia(forceUpdate);
+         }
+
+         if (isRoot())
+            return hasSubtreeChanged;
+
+         hasCompositeInertiaChanged = hasSubtreeChanged || (hasJointChanged && getJoint().isMotionSubspaceVariable());
+
+         if (hasSubtreeChanged)
+         {
+            compositeInertia.set(bodyInertia);
+
+            for (int childIndex = 0; childIndex < children.size(); childIndex++)
+            {
+               childInertia.setIncludingFrame(children.get(childIndex).compositeInertia);
+               childInertia.changeFrame(getFrameAfterJoint());
+               compositeInertia.add(childInertia);
+            }
+         }
+
+         if (hasCompositeInertiaChanged)
+         {
+            List<? extends TwistReadOnly> unitTwists = getJoint().getUnitTwists();
+
+            for (int i = 0; i < unitMomenta.length; i++)
+            {
+               unitMomenta[i].setReferenceFrame(getFrameAfterJoint());
+               unitMomenta[i].compute(compositeInertia, unitTwists.get(i));
+            }
+         }
+
+         return hasSubtreeChanged || hasJointChanged;
+      }
+
+      /**
+       * Updates the coefficients of the mass-matrix coupling the parent joint of this rigid-body to
+       * itself and to its ancestors.
+       */
+      public void updateMassMatrixColumn()
+      {
+         if (hasCompositeInertiaChanged)
+         {
+            setMassMatrixBlock(this, unitMomenta);
+            numberOfBlocksUpdated++;
+         }
+
+         boolean hasPathChanged = hasJointChanged;
+         RecursionStep ancestor = parent;
+
+         while (!ancestor.isRoot())
+         {
+            boolean hasAncestorSubspaceChanged = ancestor.hasJointChanged && ancestor.getJoint().isMotionSubspaceVariable();
+
+            if (hasCompositeInertiaChanged || hasPathChanged || hasAncestorSubspaceChanged)
+            {
+               for (int dofIndex = 0; dofIndex < unitMomenta.length; dofIndex++)
+               {
+                  ancestorUnitMomentum.setIncludingFrame(unitMomenta[dofIndex]);
+                  ancestorUnitMomentum.changeFrame(ancestor.getFrameAfterJoint());
+                  setMassMatrixCoefficients(ancestor, dofIndex, ancestorUnitMomentum);
+               }
+               numberOfBlocksUpdated++;
+            }
+
+            hasPathChanged |= ancestor.hasJointChanged;
+            ancestor = ancestor.parent;
+         }
+      }
+
+      private void setMassMatrixBlock(RecursionStep row, Momentum[] columnUnitMomenta)
+      {
+         for (int dofIndex = 0; dofIndex < columnUnitMomenta.length; dofIndex++)
+            setMassMatrixCoefficients(row, dofIndex, columnUnitMomenta[dofIndex]);
+      }
+
+      private void setMassMatrixCoefficients(RecursionStep row, int columnDoFIndex, Momentum unitMomentum)
+      {
+         List<? extends TwistReadOnly> rowUnitTwists = row.getJoint().getUnitTwists();
+         int column = jointIndices[columnDoFIndex];
+
+         for (int rowDoFIndex = 0; rowDoFIndex < rowUnitTwists.size(); rowDoFIndex++)
+         {
+            TwistReadOnly unitTwist = rowUnitTwists.get(rowDoFIndex);
+            double coefficient = unitTwist.getAngularPart().dot(unitMomentum.getAngularPart()) + unitTwist.getLinearPart().dot(unitMomentum.getLinearPart());
+            int rowIndex = row.jointIndices[rowDoFIndex];
+            massMatrix.set(rowIndex, column, coefficient);
+            massMatrix.set(column, rowIndex, coefficient);
+         }
+      }
+
+      public MovingReferenceFrame getFrameAfterJoint()
+      {
+         return getJoint().getFrameAfterJoint();
+      }
+
+      public JointReadOnly getJoint()
+      {
+         return rigidBody.getParentJoint();
+      }
+
+      private boolean isRoot()
+      {
+         return parent == null;
+      }
+   }
+}
@@ -20,6 +20,7 @@ public class ExecutionTimer
    private final YoLong count;
 
    private long startTime;
+   private LatencyHistogram latencyHistogram = null;
 
    public ExecutionTimer(String name, YoRegistry registry)
    {
@@ -53,6 +54,9 @@ public class ExecutionTimer
       final long currentNanoTime = System.nanoTime();
       if ((currentNanoTime - timeOfFirstMeasurement) > measurementDelay)
       {
+         if (latencyHistogram != null)
+            latencyHistogram.recordValue(currentNanoTime - startTime);
+
          final double timeTaken = Conversions.nanosecondsToSeconds(currentNanoTime - startTime);
          final double previousAverage = average.getDoubleValue();
          double previousSumOfSquares = MathTools.square(standardDeviation.getDoubleValue()) * ((double) count.getLongValue());
@@ -75,6 +79,20 @@ public class ExecutionTimer
       }
    }
 
+   /**
+    * Records every measurement taken after the measurement delay in the given histogram, which can be used to look at the tail of
+    * the timing distribution. Passing {@code null} detaches the current histogram.
+    */
+   public void attachLatencyHistogram(LatencyHistogram latencyHistogram)
+   {
+      this.latencyHistogram = latencyHistogram;
+   }
+
+   public LatencyHistogram getLatencyHistogram()
+   {
+      return latencyHistogram;
+   }
+
    public YoDouble getCurrentTime()
    {
       return current;
@@ -0,0 +1,189 @@
+package us.ihmc.robotics.time;
+
+import java.io.PrintStream;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed size histogram of latencies in nanoseconds, with log-linear buckets in the spirit of HdrHistogram.
+ *
+ * Values below {@code 2 * 2^subBucketBits} nanoseconds have their own bucket, above that every power of two is split into
+ * {@code 2^subBucketBits} linear buckets, which bounds the relative error of a reported value to {@code 2^-subBucketBits}. Values
+ * above the highest trackable value are counted in the last bucket.
+ *
+ * All buckets are allocated on construction. Recording does not allocate and is lock-free, so several threads can record into the
+ * same histogram while another one queries it. Queries made while recording is in progress see an approximate snapshot.
+ */
+public class LatencyHistogram
+{
+   public static final int DEFAULT_SUB_BUCKET_BITS = 5;
+   /** One second */
+   public static final long DEFAULT_HIGHEST_TRACKABLE_VALUE = 1000000000L;
+
+   private final int subBucketBits;
+   private final int subBucketCount;
+   private final long highestTrackableValue;
+
+   private final AtomicLongArray counts;
+   private final AtomicLong totalCount = new AtomicLong();
+   private final AtomicLong totalValue = new AtomicLong();
+   private final AtomicLong maxValue = new AtomicLong();
+
+   public LatencyHistogram()
+   {
+      this(DEFAULT_HIGHEST_TRACKABLE_VALUE, DEFAULT_SUB_BUCKET_BITS);
+   }
+
+   /**
+    * @param highestTrackableValue largest latency in nanoseconds that gets its own bucket
+    * @param subBucketBits         number of linear buckets per power of two is {@code 2^subBucketBits}
+    */
+   public LatencyHistogram(long highestTrackableValue, int subBucketBits)
+   {
+      if (subBucketBits < 1 || subBucketBits > 16)
+         throw new IllegalArgumentException("The number of sub-bucket bits must be in [1, 16], was: " + subBucketBits);
+      if (highestTrackableValue < 1)
+         throw new IllegalArgumentException("The highest trackable value must be positive, was: " + highestTrackableValue);
+
+      this.subBucketBits = subBucketBits;
+      this.subBucketCount = 1 << subBucketBits;
+      this.highestTrackableValue = highestTrackableValue;
+      counts = new AtomicLongArray(computeBucketIndex(highestTrackableValue) + 1);
+   }
+
+   /**
+    * Records a latency, negative values are recorded as zero.
+    */
+   public void recordValue(long nanoseconds)
+   {
+      long value = Math.max(0L, nanoseconds);
+      counts.incrementAndGet(computeBucketIndex(Math.min(value, highestTrackableValue)));
+      totalCount.incrementAndGet();
+      totalValue.addAndGet(value);
+
+      long currentMax = maxValue.get();
+      while (value > currentMax && !maxValue.compareAndSet(currentMax, value))
+         currentMax = maxValue.get();
+   }
+
+   /**
+    * Clears the recorded values. This is not atomic with respect to concurrent recording.
+    */
+   public void reset()
+   {
+      for (int i = 0; i < counts.length(); i++)
+         counts.set(i, 0L);
+      totalCount.set(0L);
+      totalValue.set(0L);
+      maxValue.set(0L);
+   }
+
+   public long getTotalCount()
+   {
+      return totalCount.get();
+   }
+
+   /**
+    * @return the exact largest recorded value in nanoseconds
+    */
+   public long getMaxValue()
+   {
+      return maxValue.get();
+   }
+
+   /**
+    * @return the exact mean of the recorded values in nanoseconds, or {@code NaN} if nothing was recorded
+    */
+   public double getMean()
+   {
+      long count = totalCount.get();
+      return count == 0 ? Double.NaN : (double) totalValue.get() / count;
+   }
+
+   /**
+    * Returns the value below which the given percentage of the recorded values lie, which is the upper bound of the bucket holding
+    * the percentile, capped by the maximum recorded value.
+    *
+    * @param percentile in [0, 100]
+    * @return the value in nanoseconds, or zero if nothing was recorded
+    */
+   public long getValueAtPercentile(double percentile)
+   {
+      long count = 0L;
+      for (int i = 0; i < counts.length(); i++)
+         count += counts.get(i);
+      if (count == 0L)
+         return 0L;
+
+      long countAtPercentile = Math.max(1L, (long) Math.ceil(Math.min(100.0, Math.max(0.0, percentile)) / 100.0 * count));
+      long cumulativeCount = 0L;
+
+      for (int i = 0; i < counts.length(); i++)
+      {
+         cumulativeCount += counts.get(i);
+         if (cumulativeCount >= countAtPercentile)
+            return Math.min(getBucketUpperBound(i), getMaxValue());
+      }
+
+      return getMaxValue();
+   }
+
+   public int getNumberOfBuckets()
+   {
+      return counts.length();
+   }
+
+   public long getCountInBucket(int bucketIndex)
+   {
+      return counts.get(bucketIndex);
+   }
+
+   /**
+    * @return the smallest value in nanoseconds counted in the bucket
+    */
+   public long getBucketLowerBound(int bucketIndex)
+   {
+      if (bucketIndex < 2 * subBucketCount)
+         return bucketIndex;
+
+      int octave = (bucketIndex - 2 * subBucketCount) / subBucketCount;
+      int subBucket = (bucketIndex - 2 * subBucketCount) % subBucketCount;
+      return (long) (subBucketCount + subBucket) << (octave + 1);
+   }
+
+   /**
+    * @return the largest value in nanoseconds counted in the bucket
+    */
+   public long getBucketUpperBound(int bucketIndex)
+   {
+      if (bucketIndex < 2 * subBucketCount)
+         return bucketIndex;
+
+      int octave = (bucketIndex - 2 * subBucketCount) / subBucketCount;
+      return getBucketLowerBound(bucketIndex) + (1L << (octave + 1)) - 1L;
+   }
+
+   int computeBucketIndex(long value)
+   {
+      if (value < 2 * subBucketCount)
+         return (int) value;
+
+      int exponent = 63 - Long.numberOfLeadingZeros(value);
+      int shift = exponent - subBucketBits;
+      int subBucket = (int) (value >>> shift) - subBucketCount;
+      return 2 * subBucketCount + (shift - 1) * subBucketCount + subBucket;
+   }
+
+   /**
+    * Prints one line per non-empty bucket: lower bound, upper bound and count, with bounds in nanoseconds.
+    */
+   public void printBuckets(PrintStream printStream)
+   {
+      for (int i = 0; i < counts.length(); i++)
+      {
+         long count = counts.get(i);
+         if (count > 0L)
+            printStream.println(getBucketLowerBound(i) + ", " + getBucketUpperBound(i) + ", " + count);
+      }
+   }
+}
@@ -0,0 +1,207 @@
+package us.ihmc.robotics.time;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import us.ihmc.commons.Conversions;
+import us.ihmc.yoVariables.registry.YoRegistry;
+import us.ihmc.yoVariables.variable.YoDouble;
+import us.ihmc.yoVariables.variable.YoInteger;
+
+/**
+ * Profiles the stages of a periodic computation, such as a control tick, with one {@link LatencyHistogram} per stage.
+ *
+ * A stage can be started and stopped several times in a tick, the time spent in it is summed and recorded once by
+ * {@link #endTick()}. Stages that were not entered during a tick are not recorded. Stages may be nested, in which case the time of
+ * the inner stage is also part of the outer one. The 50th, 99th and 99.9th percentiles of every stage are published as
+ * {@link YoDouble}s in seconds every {@code percentileUpdatePeriod} ticks, and {@link #writeReport(Path)} dumps all the histograms to
+ * a file.
+ *
+ * Apart from adding stages, nothing allocates after construction.
+ */
+public class LatencyProfiler
+{
+   private final String name;
+   private final YoRegistry registry;
+   private final List<Stage> stages = new ArrayList<>();
+
+   private final YoInteger percentileUpdatePeriod;
+   private int ticksSinceLastUpdate = 0;
+
+   public LatencyProfiler(String name, YoRegistry parentRegistry)
+   {
+      this.name = name;
+      registry = new YoRegistry(name);
+      percentileUpdatePeriod = new YoInteger(name + "PercentileUpdatePeriod", registry);
+      percentileUpdatePeriod.set(100);
+      parentRegistry.addChild(registry);
+   }
+
+   /**
+    * Adds a stage that is measured with {@link Stage#start()} and {@link Stage#stop()}.
+    */
+   public Stage addStage(String stageName)
+   {
+      Stage stage = new Stage(stageName, registry);
+      stages.add(stage);
+      return stage;
+   }
+
+   /**
+    * Adds a stage that records every measurement of an existing timer, see
+    * {@link ExecutionTimer#attachLatencyHistogram(LatencyHistogram)}.
+    */
+   public Stage addStage(String stageName, ExecutionTimer executionTimer)
+   {
+      Stage stage = addStage(stageName);
+      executionTimer.attachLatencyHistogram(stage.histogram);
+      return stage;
+   }
+
+   /**
+    * Records the time spent in each stage during the tick that just ended.
+    */
+   public void endTick()
+   {
+      for (int i = 0; i < stages.size(); i++)
+         stages.get(i).endTick();
+
+      if (++ticksSinceLastUpdate >= percentileUpdatePeriod.getValue())
+      {
+         updatePercentiles();
+         ticksSinceLastUpdate = 0;
+      }
+   }
+
+   public void updatePercentiles()
+   {
+      for (int i = 0; i < stages.size(); i++)
+         stages.get(i).updatePercentiles();
+   }
+
+   public void reset()
+   {
+      for (int i = 0; i < stages.size(); i++)
+         stages.get(i).histogram.reset();
+      updatePercentiles();
+   }
+
+   public List<Stage> getStages()
+   {
+      return stages;
+   }
+
+   /**
+    * Writes a summary of every stage followed by its non-empty buckets. This is safe to call from another thread than the one
+    * running the ticks.
+    */
+   public void writeReport(Path file)
+   {
+      try (PrintStream printStream = new PrintStream(Files.newOutputStream(file)))
+      {
+         writeReport(printStream);
+      }
+      catch (IOException e)
+      {
+         throw new RuntimeException(e);
+      }
+   }
+
+   public void writeReport(PrintStream printStream)
+   {
+      printStream.println("# " + name + ", latencies in nanoseconds");
+      printStream.println("# stage, count, mean, p50, p90, p99, p99.9, max");
+
+      for (int i = 0; i < stages.size(); i++)
+      {
+         Stage stage = stages.get(i);
+         LatencyHistogram histogram = stage.histogram;
+         printStream.println(stage.name + ", " + histogram.getTotalCount() + ", " + Math.round(histogram.getMean()) + ", "
+                             + histogram.getValueAtPercentile(50.0) + ", " + histogram.getValueAtPercentile(90.0) + ", "
+                             + histogram.getValueAtPercentile(99.0) + ", " + histogram.getValueAtPercentile(99.9) + ", "
+                             + histogram.getMaxValue());
+      }
+
+      for (int i = 0; i < stages.size(); i++)
+      {
+         printStream.println();
+         printStream.println("# " + stages.get(i).name + " buckets: lower bound, upper bound, count");
+         stages.get(i).histogram.printBuckets(printStream);
+      }
+   }
+
+   public static class Stage
+   {
+      private final String name;
+      private final LatencyHistogram histogram = new LatencyHistogram();
+
+      private final YoDouble p50;
+      private final YoDouble p99;
+      private final YoDouble p999;
+
+      private long startTime;
+      private int depth = 0;
+      private long timeInTick = 0L;
+      private boolean enteredInTick = false;
+
+      private Stage(String name, YoRegistry registry)
+      {
+         this.name = name;
+         p50 = new YoDouble(name + "P50", registry);
+         p99 = new YoDouble(name + "P99", registry);
+         p999 = new YoDouble(name + "P999", registry);
+      }
+
+      /**
+       * Starts measuring this stage. Calls can be nested, for instance by a recursive method, only the outermost pair is measured.
+       */
+      public void start()
+      {
+         if (depth++ == 0)
+            startTime = System.nanoTime();
+      }
+
+      public void stop()
+      {
+         if (depth == 0)
+            return;
+
+         if (--depth == 0)
+         {
+            timeInTick += System.nanoTime() - startTime;
+            enteredInTick = true;
+         }
+      }
+
+      private void endTick()
+      {
+         if (enteredInTick)
+            histogram.recordValue(timeInTick);
+
+         depth = 0;
+         timeInTick = 0L;
+         enteredInTick = false;
+      }
+
+      private void updatePercentiles()
+      {
+         p50.set(Conversions.nanosecondsToSeconds(histogram.getValueAtPercentile(50.0)));
+         p99.set(Conversions.nanosecondsToSeconds(histogram.getValueAtPercentile(99.0)));
+         p999.set(Conversions.nanosecondsToSeconds(histogram.getValueAtPercentile(99.9)));
+      }
+
+      public String getName()
+      {
+         return name;
+      }
+
+      public LatencyHistogram getHistogram()
+      {
+         return histogram;
+      }
+   }
+}
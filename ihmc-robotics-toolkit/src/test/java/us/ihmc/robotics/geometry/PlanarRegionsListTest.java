@@ -4,11 +4,17 @@ import static us.ihmc.robotics.Assert.*;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 import org.junit.jupiter.api.Test;
 
 import us.ihmc.commons.MutationTestFacilitator;
 import us.ihmc.euclid.geometry.ConvexPolygon2D;
+import us.ihmc.euclid.geometry.LineSegment2D;
+import us.ihmc.euclid.geometry.LineSegment3D;
+import us.ihmc.euclid.geometry.interfaces.BoundingBox2DReadOnly;
+import us.ihmc.euclid.geometry.tools.EuclidGeometryRandomTools;
+import us.ihmc.euclid.tools.EuclidCoreRandomTools;
 import us.ihmc.euclid.transform.RigidBodyTransform;
 import us.ihmc.euclid.tuple2D.Point2D;
 import us.ihmc.euclid.tuple3D.Point3D;
@@ -148,6 +154,96 @@ public class PlanarRegionsListTest
 
    }
 
+   @Test
+   public void testSpatialIndexGivesSameResults() throws Exception
+   {
+      Random random = new Random(8934L);
+      List<PlanarRegion> planarRegions = new ArrayList<>();
+
+      for (int i = 0; i < 200; i++)
+      {
+         PlanarRegion planarRegion = PlanarRegion.generatePlanarRegionFromRandomPolygonsWithRandomTransform(random, 3, 1.0, 6);
+         planarRegion.setRegionId(i);
+         planarRegions.add(planarRegion);
+      }
+
+      PlanarRegionsList indexedList = new PlanarRegionsList(planarRegions);
+      PlanarRegionsList scannedList = new PlanarRegionsList(new ArrayList<>(planarRegions));
+      scannedList.setSpatialIndexEnabled(false);
+      int numberOfHits = 0;
+
+      for (int i = 0; i < 2000; i++)
+      {
+         if (i == 1000)
+         { // Modifying a region without going through the list, the index has to catch up.
+            indexedList.getPlanarRegion(0).applyTransform(new RigidBodyTransform(EuclidCoreRandomTools.nextQuaternion(random), EuclidCoreRandomTools.nextVector3D(random, 5.0)));
+         }
+         else if (i == 1500)
+         { // Replacing a region in the backing lists, the index has to catch up.
+            PlanarRegion newRegion = PlanarRegion.generatePlanarRegionFromRandomPolygonsWithRandomTransform(random, 3, 1.0, 6);
+            planarRegions.set(1, newRegion);
+            scannedList.getPlanarRegionsAsList().set(1, newRegion);
+         }
+
+         PlanarRegion nearbyRegion = planarRegions.get(random.nextInt(planarRegions.size()));
+         Point3D query = new Point3D(nearbyRegion.getPoint());
+         query.add(EuclidCoreRandomTools.nextVector3D(random, 1.0));
+
+         List<PlanarRegion> expected = scannedList.findPlanarRegionsContainingPointByProjectionOntoXYPlane(query.getX(), query.getY());
+         assertEquals(expected, indexedList.findPlanarRegionsContainingPointByProjectionOntoXYPlane(query.getX(), query.getY()));
+         if (expected != null)
+            numberOfHits++;
+
+         expected = scannedList.findPlanarRegionsContainingPointByVerticalLineIntersection(query.getX(), query.getY());
+         assertEquals(expected, indexedList.findPlanarRegionsContainingPointByVerticalLineIntersection(query.getX(), query.getY()));
+
+         expected = scannedList.findPlanarRegionsContainingPoint(query, 0.3);
+         assertEquals(expected, indexedList.findPlanarRegionsContainingPoint(query, 0.3));
+         assertEquals(expected, PlanarRegionTools.findPlanarRegionsContainingPoint(indexedList, query, 0.3));
+
+         expected = new ArrayList<>();
+         List<PlanarRegion> actual = new ArrayList<>();
+         scannedList.findPlanarRegionsWithinEpsilonOfPoint(query, 0.05, expected);
+         indexedList.findPlanarRegionsWithinEpsilonOfPoint(query, 0.05, actual);
+         assertEquals(expected, actual);
+
+         LineSegment2D lineSegment = new LineSegment2D(query.getX(), query.getY(), query.getX() + random.nextDouble(), query.getY() - random.nextDouble());
+         expected.clear();
+         actual.clear();
+         scannedList.findPlanarRegionsIntersectingLineSegment(lineSegment, expected);
+         indexedList.findPlanarRegionsIntersectingLineSegment(lineSegment, actual);
+         assertEquals(expected, actual);
+
+         ConvexPolygon2D polygon = EuclidGeometryRandomTools.nextConvexPolygon2D(random, 0.5, 5);
+         polygon.translate(query.getX(), query.getY());
+         assertEquals(PlanarRegionTools.findPlanarRegionsIntersectingPolygon(polygon, scannedList),
+                      PlanarRegionTools.findPlanarRegionsIntersectingPolygon(polygon, indexedList));
+
+         BoundingBox2DReadOnly polygonBoundingBox = polygon.getBoundingBox();
+         actual.clear();
+         indexedList.findCandidatePlanarRegions(polygonBoundingBox.getMinX(),
+                                                polygonBoundingBox.getMinY(),
+                                                polygonBoundingBox.getMaxX(),
+                                                polygonBoundingBox.getMaxY(),
+                                                actual);
+         assertEquals(indexedList.findCandidatePlanarRegions(polygonBoundingBox.getMinX(),
+                                                             polygonBoundingBox.getMinY(),
+                                                             polygonBoundingBox.getMaxX(),
+                                                             polygonBoundingBox.getMaxY()),
+                      actual);
+
+         LineSegment3D capsuleSegment = new LineSegment3D(query, EuclidCoreRandomTools.nextPoint3D(random, 10.0));
+         assertEquals(PlanarRegionTools.filterPlanarRegionsWithBoundingCapsule(capsuleSegment, 0.5, scannedList),
+                      PlanarRegionTools.filterPlanarRegionsWithBoundingCapsule(capsuleSegment, 0.5, indexedList));
+
+         assertEquals(PlanarRegionTools.projectPointToPlanes(query, scannedList), PlanarRegionTools.projectPointToPlanes(query, indexedList));
+         assertEquals(PlanarRegionTools.projectPointToPlanesVertically(query, scannedList),
+                      PlanarRegionTools.projectPointToPlanesVertically(query, indexedList));
+      }
+
+      assertTrue(numberOfHits > 0);
+   }
+
    public static void main(String[] args)
    {
       MutationTestFacilitator.facilitateMutationTestForClass(PlanarRegionsList.class, PlanarRegionsListTest.class);
@@ -0,0 +1,141 @@
+package us.ihmc.robotics.physics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import us.ihmc.euclid.referenceFrame.FrameBox3D;
+import us.ihmc.euclid.referenceFrame.ReferenceFrame;
+import us.ihmc.euclid.tools.EuclidCoreRandomTools;
+import us.ihmc.euclid.tools.EuclidCoreTools;
+import us.ihmc.euclid.tuple3D.Vector3D;
+import us.ihmc.euclid.tuple3D.interfaces.Vector3DReadOnly;
+import us.ihmc.mecano.multiBodySystem.RigidBody;
+import us.ihmc.mecano.multiBodySystem.SixDoFJoint;
+import us.ihmc.mecano.tools.MomentOfInertiaFactory;
+
+public class ExperimentalPhysicsEngineTest
+{
+   private static final ReferenceFrame worldFrame = ReferenceFrame.getWorldFrame();
+   private static final Vector3DReadOnly gravity = new Vector3D(0.0, 0.0, -9.81);
+   private static final double dt = 0.001;
+   private static final int numberOfTicks = 300;
+   private static final double EPSILON = 1.0e-12;
+
+   @Test
+   public void testParallelCollisionGroupsMatchSerial()
+   {
+      testParallelCollisionGroupsMatchSerial(new Random(34656L), false);
+   }
+
+   @Test
+   public void testParallelCollisionGroupsMatchSerialWithWarmStart()
+   {
+      testParallelCollisionGroupsMatchSerial(new Random(34656L), true);
+   }
+
+   /**
+    * Two boxes are dropped onto the ground far apart from each other, such that each box and its
+    * contacts with the ground form their own collision group. Solving the two groups in parallel
+    * has to result in the same motion as solving them one after the other.
+    */
+   private void testParallelCollisionGroupsMatchSerial(Random random, boolean warmStart)
+   {
+      Vector3D boxSize = new Vector3D(0.4, 0.3, 0.2);
+      double[] xPositions = {-2.0, 2.0};
+
+      ExperimentalPhysicsEngine serialEngine = createEngine(warmStart);
+      ExperimentalPhysicsEngine parallelEngine = createEngine(warmStart);
+      parallelEngine.setSolveCollisionGroupsInParallel(true);
+
+      SixDoFJoint[] serialJoints = new SixDoFJoint[xPositions.length];
+      SixDoFJoint[] parallelJoints = new SixDoFJoint[xPositions.length];
+
+      for (int i = 0; i < xPositions.length; i++)
+      {
+         double mass = EuclidCoreRandomTools.nextDouble(random, 1.0, 10.0);
+         double yaw = EuclidCoreRandomTools.nextDouble(random, Math.PI);
+         Vector3D linearVelocity = new Vector3D(EuclidCoreRandomTools.nextDouble(random, 0.5), EuclidCoreRandomTools.nextDouble(random, 0.5), -1.0);
+         Vector3D angularVelocity = EuclidCoreRandomTools.nextVector3D(random, -0.5, 0.5);
+
+         String name = "box" + i;
+         serialJoints[i] = addBoxRobot(serialEngine, name, boxSize, mass, xPositions[i], yaw, linearVelocity, angularVelocity);
+         parallelJoints[i] = addBoxRobot(parallelEngine, name, boxSize, mass, xPositions[i], yaw, linearVelocity, angularVelocity);
+      }
+
+      for (int tick = 0; tick < numberOfTicks; tick++)
+      {
+         serialEngine.simulate(dt, gravity);
+         parallelEngine.simulate(dt, gravity);
+
+         for (int i = 0; i < xPositions.length; i++)
+         {
+            String messagePrefix = "Tick " + tick + ", robot " + i;
+            assertJointStateEquals(messagePrefix, serialJoints[i], parallelJoints[i]);
+         }
+      }
+
+      for (int i = 0; i < xPositions.length; i++)
+      { // Sanity check that the contacts were actually resolved: the boxes are resting on the ground.
+         assertTrue(Math.abs(parallelJoints[i].getJointTwist().getLinearPart().getZ()) < 0.05, "Robot " + i + " is still moving vertically");
+         assertTrue(parallelJoints[i].getJointPose().getPosition().getZ() > 0.4 * boxSize.getZ(), "Robot " + i + " went through the ground");
+      }
+   }
+
+   private static ExperimentalPhysicsEngine createEngine(boolean warmStart)
+   {
+      ExperimentalPhysicsEngine physicsEngine = new ExperimentalPhysicsEngine();
+      physicsEngine.setGlobalContactParameters(ContactParameters.defaultIneslasticContactParameters(false));
+      physicsEngine.setContactWarmStart(warmStart);
+
+      FrameBox3D groundShape = new FrameBox3D(worldFrame, 100.0, 100.0, 0.1);
+      groundShape.getPose().appendTranslation(0.0, 0.0, -0.05);
+      physicsEngine.addEnvironmentCollidable(new Collidable(null, -1, -1, groundShape));
+      return physicsEngine;
+   }
+
+   private static SixDoFJoint addBoxRobot(ExperimentalPhysicsEngine physicsEngine, String name, Vector3DReadOnly boxSize, double mass, double x, double yaw,
+                                          Vector3DReadOnly linearVelocity, Vector3DReadOnly angularVelocity)
+   {
+      RigidBody rootBody = new RigidBody(name + "RootBody", worldFrame);
+      SixDoFJoint floatingJoint = new SixDoFJoint(name + "RootJoint", rootBody);
+      RigidBody boxBody = new RigidBody(name + "Body",
+                                        floatingJoint,
+                                        MomentOfInertiaFactory.solidBox(mass, boxSize),
+                                        mass,
+                                        EuclidCoreTools.zeroVector3D);
+      floatingJoint.setSuccessor(boxBody);
+
+      // Slightly penetrating the ground such that the contacts are active from the first tick.
+      floatingJoint.getJointPose().getPosition().set(x, 0.0, 0.5 * boxSize.getZ() - 0.001);
+      floatingJoint.getJointPose().getOrientation().setToYawOrientation(yaw);
+      floatingJoint.getJointTwist().getLinearPart().set(linearVelocity);
+      floatingJoint.getJointTwist().getAngularPart().set(angularVelocity);
+      rootBody.updateFramesRecursively();
+
+      RobotCollisionModel collisionModel = RobotCollisionModel.singleBodyCollisionModel(name + "Body", body ->
+      {
+         return new Collidable(body, -1, -1, new FrameBox3D(body.getBodyFixedFrame(), boxSize.getX(), boxSize.getY(), boxSize.getZ()));
+      });
+      physicsEngine.addRobot(name, rootBody, null, null, collisionModel, null);
+      return floatingJoint;
+   }
+
+   private static void assertJointStateEquals(String messagePrefix, SixDoFJoint expected, SixDoFJoint actual)
+   {
+      for (int i = 0; i < 3; i++)
+      {
+         assertEquals(expected.getJointPose().getPosition().getElement(i), actual.getJointPose().getPosition().getElement(i), EPSILON, messagePrefix);
+         assertEquals(expected.getJointTwist().getLinearPart().getElement(i), actual.getJointTwist().getLinearPart().getElement(i), EPSILON, messagePrefix);
+         assertEquals(expected.getJointTwist().getAngularPart().getElement(i), actual.getJointTwist().getAngularPart().getElement(i), EPSILON, messagePrefix);
+      }
+
+      for (int i = 0; i < 4; i++)
+      {
+         assertEquals(expected.getJointPose().getOrientation().getElement(i), actual.getJointPose().getOrientation().getElement(i), EPSILON, messagePrefix);
+      }
+   }
+}
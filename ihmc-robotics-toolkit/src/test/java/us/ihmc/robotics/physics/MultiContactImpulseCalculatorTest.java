@@ -1,5 +1,6 @@
 package us.ihmc.robotics.physics;
 
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static us.ihmc.robotics.physics.SingleContactImpulseCalculatorTest.computeContactVelocity;
 import static us.ihmc.robotics.physics.SingleContactImpulseCalculatorTest.nextCollidable;
 import static us.ihmc.robotics.physics.SingleContactImpulseCalculatorTest.nextSingleFloatingRigidBody;
@@ -51,7 +52,22 @@ public class MultiContactImpulseCalculatorTest
    @Test
    public void testTwoFloatingBodies() throws Throwable
    {
-      Random random = new Random(4363567);
+      testTwoFloatingBodies(new Random(4363567), false);
+   }
+
+   @Test
+   public void testTwoFloatingBodiesWithWarmStart() throws Throwable
+   {
+      testTwoFloatingBodies(new Random(4363567), true);
+   }
+
+   /**
+    * When warm-starting, the impulses are first computed without warm-start and stored in the
+    * collision results, the same problem is then solved again starting from these impulses.
+    */
+   private void testTwoFloatingBodies(Random random, boolean warmStart) throws Throwable
+   {
+      int numberOfWarmStartedSolves = 0;
 
       for (int i = 0; i < ITERATIONS; i++)
       { // singleFloatingBodyA <=> singleFloatingBodyB and singleFloatingBodyA <=> Environment
@@ -87,9 +103,21 @@ public class MultiContactImpulseCalculatorTest
          multiContactImpulseCalculator.setContactParameters(ContactParameters.defaultIneslasticContactParameters(false));
          multiContactImpulseCalculator.setTolerance(TERMINAL_TOLERANCE);
          multiContactImpulseCalculator.setSingleContactTolerance(SINGLE_CONTACT_GAMMA);
+         multiContactImpulseCalculator.setWarmStart(warmStart);
          try
          {
             multiContactImpulseCalculator.computeImpulses(0.0, dt, false);
+            if (warmStart)
+            {
+               // Only converged solutions are stored in the collision results, otherwise the second solve is a cold start.
+               boolean hasColdStartConverged = multiContactImpulseCalculator.hasConverged();
+               multiContactImpulseCalculator.computeImpulses(0.0, dt, false);
+               if (hasColdStartConverged)
+               {
+                  assertTrue(multiContactImpulseCalculator.hasConverged(), "Warm-started solve did not converge at iteration " + i);
+                  numberOfWarmStartedSolves++;
+               }
+            }
             if (!multiContactImpulseCalculator.hasConverged())
             {
                System.err.println("Did not converge");
@@ -119,6 +147,9 @@ public class MultiContactImpulseCalculatorTest
                                                                                POST_IMPULSE_VELOCITY_EPSILON);
          }
       }
+
+      if (warmStart)
+         assertTrue(numberOfWarmStartedSolves > 0, "None of the problems could be warm-started");
    }
 
    public Map<RigidBodyBasics, PhysicsEngineRobotData> toPhysicsEngineRobotDataMap(double dt, Vector3DReadOnly gravity, RigidBodyBasics... rigidBodies)
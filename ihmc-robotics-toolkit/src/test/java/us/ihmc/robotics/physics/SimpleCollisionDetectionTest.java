@@ -0,0 +1,114 @@
+package us.ihmc.robotics.physics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import us.ihmc.euclid.referenceFrame.FrameBox3D;
+import us.ihmc.euclid.referenceFrame.FrameSphere3D;
+import us.ihmc.euclid.referenceFrame.ReferenceFrame;
+import us.ihmc.euclid.tools.EuclidCoreRandomTools;
+import us.ihmc.mecano.multiBodySystem.RigidBody;
+import us.ihmc.mecano.multiBodySystem.interfaces.RigidBodyBasics;
+import us.ihmc.mecano.tools.MultiBodySystemRandomTools;
+
+public class SimpleCollisionDetectionTest
+{
+   private static final int ITERATIONS = 50;
+   private static final ReferenceFrame worldFrame = ReferenceFrame.getWorldFrame();
+
+   @Test
+   public void testBroadPhaseGivesSameCollisionsAsExhaustiveSearch()
+   {
+      Random random = new Random(34905);
+
+      List<List<FrameSphere3D>> robotSpheres = new ArrayList<>();
+      List<CollidableHolder> robotCollidableHolders = new ArrayList<>();
+
+      for (int robotIndex = 0; robotIndex < 3; robotIndex++)
+      {
+         RigidBody rootBody = new RigidBody("robot" + robotIndex + "RootBody", worldFrame);
+         List<RigidBodyBasics> rigidBodies = new ArrayList<>();
+         MultiBodySystemRandomTools.nextJointChain(random, "robot" + robotIndex, rootBody, 10).forEach(joint -> rigidBodies.add(joint.getSuccessor()));
+
+         List<FrameSphere3D> spheres = new ArrayList<>();
+         List<Collidable> collidables = new ArrayList<>();
+
+         for (RigidBodyBasics rigidBody : rigidBodies)
+         {
+            FrameSphere3D sphere = new FrameSphere3D(worldFrame, EuclidCoreRandomTools.nextDouble(random, 0.05, 0.5));
+            spheres.add(sphere);
+            collidables.add(new Collidable(rigidBody, -1, -1, sphere));
+         }
+
+         robotSpheres.add(spheres);
+         robotCollidableHolders.add(CollidableHolder.fromCollection(collidables));
+      }
+
+      List<Collidable> staticCollidables = new ArrayList<>();
+
+      for (int i = 0; i < 300; i++)
+      {
+         FrameBox3D box = new FrameBox3D(worldFrame,
+                                         EuclidCoreRandomTools.nextDouble(random, 0.05, 1.0),
+                                         EuclidCoreRandomTools.nextDouble(random, 0.05, 1.0),
+                                         EuclidCoreRandomTools.nextDouble(random, 0.05, 1.0));
+         box.getPosition().set(EuclidCoreRandomTools.nextPoint3D(random, 5.0));
+         box.getOrientation().set(EuclidCoreRandomTools.nextRotationMatrix(random));
+         Collidable collidable = new Collidable(null, -1, -1, box);
+         collidable.updateBoundingBox(worldFrame);
+         staticCollidables.add(collidable);
+      }
+
+      // A large ground that overlaps most of the collidables.
+      FrameBox3D ground = new FrameBox3D(worldFrame, 20.0, 20.0, 0.5);
+      Collidable groundCollidable = new Collidable(null, -1, -1, ground);
+      groundCollidable.updateBoundingBox(worldFrame);
+      staticCollidables.add(groundCollidable);
+      CollidableHolder staticCollidableHolder = CollidableHolder.fromCollection(staticCollidables);
+
+      SimpleCollisionDetection exhaustiveCollisionDetection = new SimpleCollisionDetection(worldFrame);
+      exhaustiveCollisionDetection.setBroadPhase(null);
+      SimpleCollisionDetection broadPhaseCollisionDetection = new SimpleCollisionDetection(worldFrame);
+
+      boolean foundCollisions = false;
+
+      for (int iteration = 0; iteration < ITERATIONS; iteration++)
+      {
+         for (int robotIndex = 0; robotIndex < robotSpheres.size(); robotIndex++)
+         {
+            for (FrameSphere3D sphere : robotSpheres.get(robotIndex))
+            {
+               if (iteration == 0 || random.nextDouble() < 0.3)
+                  sphere.getPosition().set(EuclidCoreRandomTools.nextPoint3D(random, 5.0));
+               else
+                  sphere.getPosition().add(EuclidCoreRandomTools.nextVector3D(random, 0.05));
+            }
+
+            robotCollidableHolders.get(robotIndex).forEach(collidable -> collidable.updateBoundingBox(worldFrame));
+         }
+
+         CollisionListResult expected = exhaustiveCollisionDetection.evaluationCollisions(robotCollidableHolders, staticCollidableHolder, 0.001);
+         CollisionListResult actual = broadPhaseCollisionDetection.evaluationCollisions(robotCollidableHolders, staticCollidableHolder, 0.001);
+
+         assertEquals(expected.size(), actual.size());
+         foundCollisions |= !expected.isEmpty();
+
+         for (int i = 0; i < expected.size(); i++)
+         {
+            CollisionResult expectedCollision = expected.get(i);
+            CollisionResult actualCollision = actual.get(i);
+            assertTrue(expectedCollision.getCollidableA() == actualCollision.getCollidableA());
+            assertTrue(expectedCollision.getCollidableB() == actualCollision.getCollidableB());
+            assertEquals(expectedCollision.getCollisionData().getSignedDistance(), actualCollision.getCollisionData().getSignedDistance());
+         }
+      }
+
+      assertTrue(foundCollisions);
+   }
+}
@@ -0,0 +1,124 @@
+package us.ihmc.robotics.screwTheory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Random;
+
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.junit.jupiter.api.Test;
+
+import us.ihmc.mecano.algorithms.CompositeRigidBodyMassMatrixCalculator;
+import us.ihmc.mecano.multiBodySystem.Joint;
+import us.ihmc.mecano.multiBodySystem.RevoluteJoint;
+import us.ihmc.mecano.multiBodySystem.interfaces.JointBasics;
+import us.ihmc.mecano.multiBodySystem.interfaces.MultiBodySystemReadOnly;
+import us.ihmc.mecano.multiBodySystem.interfaces.RigidBodyBasics;
+import us.ihmc.mecano.tools.JointStateType;
+import us.ihmc.mecano.tools.MultiBodySystemRandomTools;
+import us.ihmc.mecano.tools.MultiBodySystemRandomTools.RandomFloatingRevoluteJointChain;
+import us.ihmc.mecano.tools.MultiBodySystemTools;
+
+public class IncrementalMassMatrixCalculatorTest
+{
+   private static final int ITERATIONS = 100;
+   private static final double EPSILON = 1.0e-10;
+
+   @Test
+   public void testRevoluteJointTree()
+   {
+      Random random = new Random(34589L);
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         List<RevoluteJoint> joints = MultiBodySystemRandomTools.nextRevoluteJointTree(random, random.nextInt(40) + 1);
+         compareAgainstCompositeRigidBodyMassMatrixCalculator(random, joints, EPSILON);
+      }
+   }
+
+   @Test
+   public void testFloatingRevoluteJointChain()
+   {
+      Random random = new Random(9823L);
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         List<Joint> joints = new RandomFloatingRevoluteJointChain(random, random.nextInt(30) + 1).getJoints();
+         compareAgainstCompositeRigidBodyMassMatrixCalculator(random, joints, EPSILON);
+      }
+   }
+
+   @Test
+   public void testJointChain()
+   {
+      Random random = new Random(1265L);
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         List<JointBasics> joints = MultiBodySystemRandomTools.nextJointChain(random, random.nextInt(20) + 1);
+         compareAgainstCompositeRigidBodyMassMatrixCalculator(random, joints, 1.0e-8);
+      }
+   }
+
+   @Test
+   public void testOnlyAffectedBlocksAreUpdated()
+   {
+      Random random = new Random(4568L);
+      RandomFloatingRevoluteJointChain chain = new RandomFloatingRevoluteJointChain(random, 10);
+      List<Joint> joints = chain.getJoints();
+      RigidBodyBasics rootBody = MultiBodySystemTools.getRootBody(joints.get(0).getPredecessor());
+      MultiBodySystemRandomTools.nextState(random, JointStateType.CONFIGURATION, joints);
+      rootBody.updateFramesRecursively();
+
+      IncrementalMassMatrixCalculator calculator = new IncrementalMassMatrixCalculator(MultiBodySystemReadOnly.toMultiBodySystemInput(rootBody));
+      calculator.compute();
+      // 11 joints in a chain: 11 diagonal blocks and 55 off-diagonal blocks.
+      assertEquals(66, calculator.getNumberOfBlocksUpdated());
+
+      calculator.compute();
+      assertEquals(0, calculator.getNumberOfBlocksUpdated());
+
+      // The floating joint does not affect the mass-matrix.
+      MultiBodySystemRandomTools.nextState(random, JointStateType.CONFIGURATION, joints.subList(0, 1));
+      rootBody.updateFramesRecursively();
+      calculator.compute();
+      assertEquals(0, calculator.getNumberOfBlocksUpdated());
+
+      // The first revolute joint only affects the blocks coupling the floating joint to itself and to the joints below.
+      List<RevoluteJoint> revoluteJoints = chain.getRevoluteJoints();
+      MultiBodySystemRandomTools.nextState(random, JointStateType.CONFIGURATION, revoluteJoints.subList(0, 1));
+      rootBody.updateFramesRecursively();
+      calculator.compute();
+      assertEquals(11, calculator.getNumberOfBlocksUpdated());
+
+      CompositeRigidBodyMassMatrixCalculator expectedCalculator = new CompositeRigidBodyMassMatrixCalculator(MultiBodySystemReadOnly.toMultiBodySystemInput(rootBody));
+      assertTrue(MatrixFeatures_DDRM.isEquals(expectedCalculator.getMassMatrix(), calculator.getMassMatrix(), EPSILON));
+   }
+
+   private static void compareAgainstCompositeRigidBodyMassMatrixCalculator(Random random, List<? extends JointBasics> joints, double epsilon)
+   {
+      RigidBodyBasics rootBody = MultiBodySystemTools.getRootBody(joints.get(0).getPredecessor());
+      MultiBodySystemReadOnly input = MultiBodySystemReadOnly.toMultiBodySystemInput(rootBody);
+      CompositeRigidBodyMassMatrixCalculator expectedCalculator = new CompositeRigidBodyMassMatrixCalculator(input);
+      IncrementalMassMatrixCalculator calculator = new IncrementalMassMatrixCalculator(input);
+
+      for (int update = 0; update < 5; update++)
+      {
+         // Moving a random subset of the joints
+         for (int jointIndex = 0; jointIndex < joints.size(); jointIndex++)
+         {
+            if (update == 0 || random.nextInt(4) == 0)
+               MultiBodySystemRandomTools.nextState(random, JointStateType.CONFIGURATION, joints.subList(jointIndex, jointIndex + 1));
+         }
+         rootBody.updateFramesRecursively();
+
+         expectedCalculator.reset();
+         calculator.compute();
+
+         DMatrixRMaj expected = expectedCalculator.getMassMatrix();
+         DMatrixRMaj actual = calculator.getMassMatrix();
+         assertTrue(MatrixFeatures_DDRM.isEquals(expected, actual, epsilon), "update " + update);
+      }
+   }
+}
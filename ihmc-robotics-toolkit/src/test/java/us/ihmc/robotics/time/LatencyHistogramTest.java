@@ -0,0 +1,134 @@
+package us.ihmc.robotics.time;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import us.ihmc.yoVariables.registry.YoRegistry;
+
+public class LatencyHistogramTest
+{
+   @Test
+   public void testBucketBoundsAreContiguous()
+   {
+      LatencyHistogram histogram = new LatencyHistogram();
+
+      for (int i = 1; i < histogram.getNumberOfBuckets(); i++)
+      {
+         assertEquals(histogram.getBucketUpperBound(i - 1) + 1, histogram.getBucketLowerBound(i));
+         assertEquals(i, histogram.computeBucketIndex(histogram.getBucketLowerBound(i)));
+         assertEquals(i, histogram.computeBucketIndex(histogram.getBucketUpperBound(i)));
+      }
+
+      assertTrue(histogram.getBucketUpperBound(histogram.getNumberOfBuckets() - 1) >= LatencyHistogram.DEFAULT_HIGHEST_TRACKABLE_VALUE);
+   }
+
+   @Test
+   public void testPercentiles()
+   {
+      Random random = new Random(2390L);
+      LatencyHistogram histogram = new LatencyHistogram();
+      int numberOfValues = 100000;
+      long[] values = new long[numberOfValues];
+
+      for (int i = 0; i < numberOfValues; i++)
+      {
+         values[i] = (long) (50000.0 * Math.exp(random.nextGaussian()));
+         histogram.recordValue(values[i]);
+      }
+
+      Arrays.sort(values);
+      assertEquals(numberOfValues, histogram.getTotalCount());
+      assertEquals(values[numberOfValues - 1], histogram.getMaxValue());
+      assertEquals(Arrays.stream(values).average().getAsDouble(), histogram.getMean(), 1.0e-6);
+
+      double[] percentiles = {0.0, 50.0, 90.0, 99.0, 99.9, 100.0};
+      double relativeError = 1.0 / (1 << LatencyHistogram.DEFAULT_SUB_BUCKET_BITS);
+
+      for (double percentile : percentiles)
+      {
+         long expected = values[Math.max(0, (int) Math.ceil(percentile / 100.0 * numberOfValues) - 1)];
+         long actual = histogram.getValueAtPercentile(percentile);
+         assertTrue(actual >= expected, "percentile " + percentile);
+         assertEquals(expected, actual, relativeError * expected, "percentile " + percentile);
+      }
+
+      histogram.reset();
+      assertEquals(0, histogram.getTotalCount());
+      assertEquals(0, histogram.getValueAtPercentile(50.0));
+   }
+
+   @Test
+   public void testValuesAboveRangeAreClamped()
+   {
+      LatencyHistogram histogram = new LatencyHistogram(1000, 3);
+      histogram.recordValue(-10);
+      histogram.recordValue(5000);
+
+      assertEquals(1, histogram.getCountInBucket(0));
+      assertEquals(1, histogram.getCountInBucket(histogram.getNumberOfBuckets() - 1));
+      assertEquals(5000, histogram.getMaxValue());
+   }
+
+   @Test
+   public void testConcurrentRecording() throws InterruptedException
+   {
+      LatencyHistogram histogram = new LatencyHistogram();
+      int numberOfThreads = 4;
+      int valuesPerThread = 100000;
+
+      Thread[] threads = new Thread[numberOfThreads];
+      for (int i = 0; i < numberOfThreads; i++)
+      {
+         long value = 1000L * (i + 1);
+         threads[i] = new Thread(() ->
+         {
+            for (int j = 0; j < valuesPerThread; j++)
+               histogram.recordValue(value);
+         });
+         threads[i].start();
+      }
+
+      for (Thread thread : threads)
+         thread.join();
+
+      assertEquals(numberOfThreads * valuesPerThread, histogram.getTotalCount());
+      assertEquals(1000L * numberOfThreads, histogram.getMaxValue());
+      for (int i = 0; i < numberOfThreads; i++)
+         assertEquals(valuesPerThread, histogram.getCountInBucket(histogram.computeBucketIndex(1000L * (i + 1))));
+   }
+
+   @Test
+   public void testExecutionTimerRecordsIntoAttachedHistogram()
+   {
+      YoRegistry registry = new YoRegistry("testRegistry");
+      ExecutionTimer executionTimer = new ExecutionTimer("executionTimer", registry);
+      LatencyProfiler profiler = new LatencyProfiler("profiler", registry);
+      LatencyProfiler.Stage timerStage = profiler.addStage("timer", executionTimer);
+      LatencyProfiler.Stage stage = profiler.addStage("stage");
+
+      for (int i = 0; i < 10; i++)
+      {
+         executionTimer.startMeasurement();
+         executionTimer.stopMeasurement();
+
+         // Measured twice and nested, recorded once per tick
+         stage.start();
+         stage.start();
+         stage.stop();
+         stage.stop();
+         stage.start();
+         stage.stop();
+         profiler.endTick();
+      }
+
+      profiler.endTick();
+
+      assertEquals(10, timerStage.getHistogram().getTotalCount());
+      assertEquals(10, stage.getHistogram().getTotalCount());
+      assertNotNull(registry.findVariable("stageP999"));
+   }
+}
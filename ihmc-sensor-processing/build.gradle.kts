@@ -28,3 +28,13 @@ testDependencies {
    api("us.ihmc:ihmc-robotics-toolkit-test:source")
    api("us.ihmc:simulation-construction-set-tools-test:source")
 }
+
+benchmarksDependencies {
+   api(ihmc.sourceSetProject("main"))
+
+   api("us.ihmc:ihmc-java-toolkit-benchmarks:source")
+}
+
+ihmc.sourceSetProject("benchmarks").dependencies {
+   add("annotationProcessor", "us.ihmc:ihmc-java-toolkit-benchmarks:source")
+}
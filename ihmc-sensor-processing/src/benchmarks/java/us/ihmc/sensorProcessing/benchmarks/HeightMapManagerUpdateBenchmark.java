@@ -0,0 +1,61 @@
+package us.ihmc.sensorProcessing.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import us.ihmc.euclid.tuple3D.Point3D;
+import us.ihmc.sensorProcessing.heightMap.HeightMapManager;
+import us.ihmc.sensorProcessing.heightMap.HeightMapParameters;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Folds a random point cloud over a 4m x 4m, 2cm resolution height map, on the calling thread or with the parallel update.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class HeightMapManagerUpdateBenchmark
+{
+   @Param({"1", "2", "4", "8"})
+   public int numberOfThreads;
+
+   @Param({"20000", "200000"})
+   public int numberOfPoints;
+
+   private HeightMapManager heightMapManager;
+   private Point3D[] pointCloud;
+
+   @Setup(Level.Trial)
+   public void setup()
+   {
+      HeightMapParameters parameters = new HeightMapParameters();
+      parameters.setNumberOfUpdateThreads(numberOfThreads);
+      heightMapManager = new HeightMapManager(parameters, 0.02, 4.0);
+      heightMapManager.resetAtGridCenter(0.0, 0.0);
+
+      Random random = new Random(1776L);
+      pointCloud = new Point3D[numberOfPoints];
+      for (int i = 0; i < numberOfPoints; i++)
+      {
+         double x = 2.0 * (2.0 * random.nextDouble() - 1.0);
+         double y = 2.0 * (2.0 * random.nextDouble() - 1.0);
+         pointCloud[i] = new Point3D(x, y, 0.1 * Math.sin(2.0 * x) * Math.cos(y) + 0.01 * random.nextGaussian());
+      }
+   }
+
+   @TearDown(Level.Trial)
+   public void tearDown()
+   {
+      heightMapManager.shutdown();
+   }
+
+   @Benchmark
+   public int update()
+   {
+      heightMapManager.update(pointCloud);
+      return heightMapManager.getNumberOfCells();
+   }
+}
@@ -85,6 +85,11 @@ public class HeightMapParameters extends StoredPropertySet implements HeightMapP
    public static final BooleanStoredPropertyKey estimateHeightWithKalmanFilter = keys.addBooleanKey("Estimate height with kalman filter");
    public static final BooleanStoredPropertyKey denoiserEnabled = keys.addBooleanKey("Denoiser enabled");
    public static final BooleanStoredPropertyKey statisticsLoggingEnabled = keys.addBooleanKey("Statistics logging enabled");
+   /**
+    * Number of threads used to fold point clouds into the height map. Zero or one
+    * updates on the calling thread. The result does not depend on it.
+    */
+   public static final IntegerStoredPropertyKey numberOfUpdateThreads = keys.addIntegerKey("Number of update threads");
 
    /**
     * Loads this property set.
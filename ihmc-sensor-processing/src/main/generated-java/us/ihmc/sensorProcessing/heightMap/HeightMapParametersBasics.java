@@ -234,4 +234,13 @@ public interface HeightMapParametersBasics extends HeightMapParametersReadOnly,
    {
       set(HeightMapParameters.statisticsLoggingEnabled, statisticsLoggingEnabled);
    }
+
+   /**
+    * Number of threads used to fold point clouds into the height map. Zero or one
+    * updates on the calling thread. The result does not depend on it.
+    */
+   default void setNumberOfUpdateThreads(int numberOfUpdateThreads)
+   {
+      set(HeightMapParameters.numberOfUpdateThreads, numberOfUpdateThreads);
+   }
 }
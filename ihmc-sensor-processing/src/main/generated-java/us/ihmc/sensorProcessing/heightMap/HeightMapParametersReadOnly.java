@@ -236,4 +236,13 @@ public interface HeightMapParametersReadOnly extends StoredPropertySetReadOnly
    {
       return get(statisticsLoggingEnabled);
    }
+
+   /**
+    * Number of threads used to fold point clouds into the height map. Zero or one
+    * updates on the calling thread. The result does not depend on it.
+    */
+   default int getNumberOfUpdateThreads()
+   {
+      return get(numberOfUpdateThreads);
+   }
 }
@@ -1,11 +1,16 @@
 package us.ihmc.sensorProcessing.globalHeightMap;
 
-import com.esotericsoftware.kryo.util.IntMap;
 import us.ihmc.euclid.tuple2D.interfaces.Point2DReadOnly;
 import us.ihmc.sensorProcessing.heightMap.HeightMapData;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * The GlobalHeightMap class processes local height maps to create a global height map.
@@ -13,6 +18,9 @@ import java.util.HashSet;
  * into tiles, and stitches these tiles together to represent the area the robot has
  * visited and observed. The process is done in an egocentric manner, centering around
  * the robot's current position.
+ *
+ * Optionally, the tiles kept in memory are bounded by a memory budget. When it is exceeded, the least recently touched tiles
+ * are written to a spill directory, see {@link GlobalMapTileStore}, and read back when a height map or a query touches them again.
  */
 
 public class GlobalHeightMap
@@ -20,13 +28,52 @@ public class GlobalHeightMap
    // Zero value in world minus the thickness of the foot
    private final static double MIN_GLOBAL_HEIGHT_MAP_VALUE = -0.02;
 
-   // A map that stores GlobalMapTile objects using their hashed indices.
-   private final IntMap<GlobalMapTile> heightMapDataIntMap = new IntMap<>();
+   // Tiles in memory by tile indices, from least to most recently touched
+   private final LinkedHashMap<Long, GlobalMapTile> tilesInMemory = new LinkedHashMap<>(16, 0.75f, true);
+   // Tiles in memory that changed since they were last written to the spill directory
+   private final HashSet<GlobalMapTile> dirtyTiles = new HashSet<>();
    // A set to keep track of modified tiles.
    private final HashSet<GlobalMapTile> modifiedCells = new HashSet<>();
 
+   private final long memoryBudgetInBytes;
+   private final GlobalMapTileStore tileStore;
+   private final boolean deleteSpillDirectoryOnDestroy;
+   private long bytesInMemory = 0;
+   private GlobalMapTile lastTouchedTile = null;
+
+   /**
+    * Creates a global height map that keeps all tiles in memory
+    */
    public GlobalHeightMap()
    {
+      memoryBudgetInBytes = Long.MAX_VALUE;
+      tileStore = null;
+      deleteSpillDirectoryOnDestroy = false;
+   }
+
+   /**
+    * Creates a global height map that spills tiles to a temporary directory when exceeding the given budget. The directory is deleted
+    * by {@link #destroy()}.
+    */
+   public GlobalHeightMap(long memoryBudgetInBytes)
+   {
+      this(memoryBudgetInBytes, createTemporarySpillDirectory(), true);
+   }
+
+   /**
+    * Creates a global height map that spills tiles to the given directory when exceeding the given budget. The tile files are deleted
+    * by {@link #destroy()}, the directory itself is kept.
+    */
+   public GlobalHeightMap(long memoryBudgetInBytes, Path spillDirectory)
+   {
+      this(memoryBudgetInBytes, spillDirectory, false);
+   }
+
+   private GlobalHeightMap(long memoryBudgetInBytes, Path spillDirectory, boolean deleteSpillDirectoryOnDestroy)
+   {
+      this.memoryBudgetInBytes = memoryBudgetInBytes;
+      this.deleteSpillDirectoryOnDestroy = deleteSpillDirectoryOnDestroy;
+      tileStore = new GlobalMapTileStore(spillDirectory);
    }
 
    // Adds a local height map to the global height map.
@@ -34,6 +81,7 @@ public class GlobalHeightMap
    {
       // Clear the set of modified cells before processing the new height map data
       modifiedCells.clear();
+      lastTouchedTile = null;
 
       // Iterate over each occupied cell in the local height map
       for (int occupiedCell = 0; occupiedCell < heightMapData.getNumberOfOccupiedCells(); occupiedCell++)
@@ -54,31 +102,158 @@ public class GlobalHeightMap
          globalMapTile.setHeightAt(occupiedCellPosition.getX(), occupiedCellPosition.getY(), cellHeight);
 
          modifiedCells.add(globalMapTile);
+         dirtyTiles.add(globalMapTile);
       }
    }
 
+   /**
+    * The modified tiles are kept in memory until the next call to {@link #addHeightMap(HeightMapData)}, even if they exceed the budget.
+    */
    public Collection<GlobalMapTile> getModifiedMapTiles()
    {
       return modifiedCells;
    }
 
+   /**
+    * Returns the height at the given position, or NaN if no height map covered it. Reads the tile back if it was spilled.
+    */
+   public double getHeightAt(double x, double y)
+   {
+      GlobalMapTile tile = getTile(GlobalLattice.toIndex(x), GlobalLattice.toIndex(y));
+      return tile == null ? Double.NaN : tile.getHeightAt(x, y);
+   }
+
+   /**
+    * Returns the tile with the given tile indices, see {@link GlobalLattice}, or null if no height map covered it. Reads the tile
+    * back if it was spilled.
+    */
+   public GlobalMapTile getTile(int xIndex, int yIndex)
+   {
+      long tileKey = GlobalMapTileStore.tileKey(xIndex, yIndex);
+      GlobalMapTile tile = tilesInMemory.get(tileKey);
+
+      if (tile == null && tileStore != null && tileStore.contains(tileKey))
+      {
+         tile = tileStore.read(tileKey);
+         addTileToMemory(tileKey, tile);
+      }
+
+      return tile;
+   }
+
+   public int getNumberOfTilesInMemory()
+   {
+      return tilesInMemory.size();
+   }
+
+   /**
+    * @return the number of tiles that were written to the spill directory, including the ones that have since been read back
+    */
+   public int getNumberOfSpilledTiles()
+   {
+      return tileStore == null ? 0 : tileStore.size();
+   }
+
+   public long getBytesInMemory()
+   {
+      return bytesInMemory;
+   }
+
+   /**
+    * Removes all tiles, from memory and from the spill directory
+    */
+   public void clear()
+   {
+      tilesInMemory.clear();
+      dirtyTiles.clear();
+      modifiedCells.clear();
+      lastTouchedTile = null;
+      bytesInMemory = 0;
+
+      if (tileStore != null)
+         tileStore.clear();
+   }
+
+   /**
+    * Removes all tiles and deletes the spilled tile files, along with the spill directory if it was created by this class
+    */
+   public void destroy()
+   {
+      clear();
+
+      if (tileStore != null && deleteSpillDirectoryOnDestroy)
+         tileStore.deleteDirectory();
+   }
+
+   /**
+    * @return the directory tiles are spilled to, or null if all tiles are kept in memory
+    */
+   Path getSpillDirectory()
+   {
+      return tileStore == null ? null : tileStore.getDirectory();
+   }
+
    private GlobalMapTile getOrCreateDataContainingCell(Point2DReadOnly cellPosition, double resolution)
    {
       // Convert the cell position to global map tile indices
       int xIndex = GlobalLattice.toIndex(cellPosition.getX());
       int yIndex = GlobalLattice.toIndex(cellPosition.getY());
-      // Generate a hash code for the tile indices
-      int hashOfMap = GlobalLattice.hashCodeOfTileIndices(xIndex, yIndex);
-      // Retrieve the global map tile from the map, or create a new one if it doesn't exist
-      GlobalMapTile data = heightMapDataIntMap.get(hashOfMap);
+
+      // Consecutive cells are mostly in the same tile
+      if (lastTouchedTile != null && lastTouchedTile.getCenterX() == xIndex && lastTouchedTile.getCenterY() == yIndex)
+         return lastTouchedTile;
+
+      // Retrieve the global map tile from memory or from the spill directory, or create a new one if it doesn't exist
+      GlobalMapTile data = getTile(xIndex, yIndex);
 
       if (data == null)
       {
          data = new GlobalMapTile(resolution, GlobalLattice.toPosition(xIndex), GlobalLattice.toPosition(yIndex));
-         heightMapDataIntMap.put(hashOfMap, data);
+         addTileToMemory(GlobalMapTileStore.tileKey(xIndex, yIndex), data);
       }
 
+      lastTouchedTile = data;
       return data;
    }
-}
 
+   private void addTileToMemory(long tileKey, GlobalMapTile tile)
+   {
+      tilesInMemory.put(tileKey, tile);
+      bytesInMemory += tile.getSizeInBytes();
+
+      evictTilesOverBudget(tile);
+   }
+
+   /**
+    * Spills the least recently touched tiles until the budget is met. The given tile and the tiles modified by the current height map are kept.
+    */
+   private void evictTilesOverBudget(GlobalMapTile tileToKeep)
+   {
+      Iterator<Map.Entry<Long, GlobalMapTile>> iterator = tilesInMemory.entrySet().iterator();
+      while (bytesInMemory > memoryBudgetInBytes && iterator.hasNext())
+      {
+         Map.Entry<Long, GlobalMapTile> entry = iterator.next();
+         GlobalMapTile tile = entry.getValue();
+         if (tile == tileToKeep || modifiedCells.contains(tile))
+            continue;
+
+         if (dirtyTiles.remove(tile))
+            tileStore.write(entry.getKey(), tile);
+
+         iterator.remove();
+         bytesInMemory -= tile.getSizeInBytes();
+      }
+   }
+
+   private static Path createTemporarySpillDirectory()
+   {
+      try
+      {
+         return Files.createTempDirectory(GlobalHeightMap.class.getSimpleName());
+      }
+      catch (IOException e)
+      {
+         throw new RuntimeException(e);
+      }
+   }
+}
@@ -33,4 +33,13 @@ public class GlobalMapTile extends HeightMapData
       return centerY;
    }
 
+   /**
+    * @return approximate heap size of a tile with every cell occupied, used to keep {@link GlobalHeightMap} within its memory budget
+    */
+   public long getSizeInBytes()
+   {
+      long numberOfCells = (long) getCellsPerAxis() * getCellsPerAxis();
+      return numberOfCells * (4 * Float.BYTES + Integer.BYTES) + numberOfCells / Byte.SIZE;
+   }
+
 }
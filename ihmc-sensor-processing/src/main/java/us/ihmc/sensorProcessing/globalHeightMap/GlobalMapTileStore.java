@@ -0,0 +1,208 @@
+package us.ihmc.sensorProcessing.globalHeightMap;
+
+import gnu.trove.set.hash.TLongHashSet;
+import us.ihmc.euclid.tuple3D.Vector3D;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Keeps {@link GlobalMapTile}s that were evicted from memory in a directory, one file per tile.
+ *
+ * A tile file only stores the occupied cells, as a header followed by the key, height and normal of each cell:
+ * <pre>
+ *    int magic, double resolution, double estimatedGroundHeight, int numberOfOccupiedCells
+ *    (int key, float height, float normalX, float normalY, float normalZ) * numberOfOccupiedCells
+ * </pre>
+ * Files are written and read through a reused direct buffer.
+ */
+class GlobalMapTileStore
+{
+   private static final int MAGIC = 0x474d5431;
+   private static final int HEADER_SIZE = 2 * Integer.BYTES + 2 * Double.BYTES;
+   private static final int CELL_SIZE = Integer.BYTES + 4 * Float.BYTES;
+
+   private final Path directory;
+   private final TLongHashSet storedTiles = new TLongHashSet();
+   private final Vector3D normal = new Vector3D();
+   private ByteBuffer buffer = ByteBuffer.allocateDirect(0);
+
+   GlobalMapTileStore(Path directory)
+   {
+      this.directory = directory;
+
+      try
+      {
+         Files.createDirectories(directory);
+      }
+      catch (IOException e)
+      {
+         throw new RuntimeException(e);
+      }
+   }
+
+   boolean contains(long tileKey)
+   {
+      return storedTiles.contains(tileKey);
+   }
+
+   int size()
+   {
+      return storedTiles.size();
+   }
+
+   Path getDirectory()
+   {
+      return directory;
+   }
+
+   void write(long tileKey, GlobalMapTile tile)
+   {
+      int numberOfOccupiedCells = tile.getNumberOfOccupiedCells();
+      ensureCapacity(HEADER_SIZE + numberOfOccupiedCells * CELL_SIZE);
+
+      buffer.clear();
+      buffer.putInt(MAGIC);
+      buffer.putDouble(tile.getGridResolutionXY());
+      buffer.putDouble(tile.getEstimatedGroundHeight());
+      buffer.putInt(numberOfOccupiedCells);
+
+      for (int i = 0; i < numberOfOccupiedCells; i++)
+      {
+         int key = tile.getKey(i);
+         tile.getNormalAt(key, normal);
+         buffer.putInt(key);
+         buffer.putFloat((float) tile.getHeight(i));
+         buffer.putFloat((float) normal.getX());
+         buffer.putFloat((float) normal.getY());
+         buffer.putFloat((float) normal.getZ());
+      }
+      buffer.flip();
+
+      try (FileChannel channel = FileChannel.open(getTileFile(tileKey),
+                                                  StandardOpenOption.CREATE,
+                                                  StandardOpenOption.WRITE,
+                                                  StandardOpenOption.TRUNCATE_EXISTING))
+      {
+         while (buffer.hasRemaining())
+            channel.write(buffer);
+      }
+      catch (IOException e)
+      {
+         throw new RuntimeException(e);
+      }
+
+      storedTiles.add(tileKey);
+   }
+
+   /**
+    * @return the stored tile, or null if this tile was never written
+    */
+   GlobalMapTile read(long tileKey)
+   {
+      if (!storedTiles.contains(tileKey))
+         return null;
+
+      try (FileChannel channel = FileChannel.open(getTileFile(tileKey), StandardOpenOption.READ))
+      {
+         int fileSize = (int) channel.size();
+         ensureCapacity(fileSize);
+         buffer.clear().limit(fileSize);
+         while (buffer.hasRemaining())
+         {
+            if (channel.read(buffer) < 0)
+               break;
+         }
+         buffer.flip();
+      }
+      catch (IOException e)
+      {
+         throw new RuntimeException(e);
+      }
+
+      if (buffer.getInt() != MAGIC)
+         throw new RuntimeException("Corrupted global map tile file " + getTileFile(tileKey));
+
+      double resolution = buffer.getDouble();
+      GlobalMapTile tile = new GlobalMapTile(resolution, GlobalLattice.toPosition(tileXIndex(tileKey)), GlobalLattice.toPosition(tileYIndex(tileKey)));
+      tile.setEstimatedGroundHeight(buffer.getDouble());
+
+      int numberOfOccupiedCells = buffer.getInt();
+      for (int i = 0; i < numberOfOccupiedCells; i++)
+      {
+         int key = buffer.getInt();
+         float height = buffer.getFloat();
+         normal.set(buffer.getFloat(), buffer.getFloat(), buffer.getFloat());
+         tile.setHeightAt(key, height, normal.containsNaN() ? null : normal);
+      }
+
+      return tile;
+   }
+
+   /**
+    * Deletes all the tile files
+    */
+   void clear()
+   {
+      storedTiles.forEach(tileKey ->
+                          {
+                             try
+                             {
+                                Files.deleteIfExists(getTileFile(tileKey));
+                             }
+                             catch (IOException e)
+                             {
+                                throw new RuntimeException(e);
+                             }
+                             return true;
+                          });
+      storedTiles.clear();
+   }
+
+   /**
+    * Deletes all the tile files and the directory
+    */
+   void deleteDirectory()
+   {
+      clear();
+
+      try
+      {
+         Files.deleteIfExists(directory);
+      }
+      catch (IOException e)
+      {
+         throw new RuntimeException(e);
+      }
+   }
+
+   private Path getTileFile(long tileKey)
+   {
+      return directory.resolve("tile_" + tileXIndex(tileKey) + "_" + tileYIndex(tileKey) + ".bin");
+   }
+
+   private void ensureCapacity(int size)
+   {
+      if (buffer.capacity() < size)
+         buffer = ByteBuffer.allocateDirect(Math.max(size, 2 * buffer.capacity()));
+   }
+
+   static long tileKey(int xIndex, int yIndex)
+   {
+      return ((long) xIndex << 32) | (yIndex & 0xFFFFFFFFL);
+   }
+
+   static int tileXIndex(long tileKey)
+   {
+      return (int) (tileKey >> 32);
+   }
+
+   static int tileYIndex(long tileKey)
+   {
+      return (int) tileKey;
+   }
+}
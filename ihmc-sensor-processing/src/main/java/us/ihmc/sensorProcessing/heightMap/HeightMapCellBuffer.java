@@ -0,0 +1,302 @@
+package us.ihmc.sensorProcessing.heightMap;
+
+import us.ihmc.commons.MathTools;
+
+import java.util.Arrays;
+
+/**
+ * Contains the data of a fixed number of XY grid cells in primitive arrays, indexed by cell. This has the same estimation logic as
+ * {@link HeightMapCell}, which is a single cell view of this buffer.
+ *
+ * Measurements of a cell are stored in a slot of {@code maxPointsPerCell} entries, so after construction adding points does not allocate.
+ * The slots grow if the max points per cell parameter is increased.
+ */
+class HeightMapCellBuffer
+{
+   /* Option to simply take highest point at each cell */
+   private static final boolean QUICK_UPDATE = false;
+
+   private final HeightMapParametersReadOnly parameters;
+   private final int numberOfCells;
+   private int pointsPerCell;
+
+   /** Observed heights within each cell, cell i uses indices [i * pointsPerCell, i * pointsPerCell + numberOfMeasurements[i]) */
+   private double[] heightMeasurements;
+   private double[] varianceMeasurements;
+   private final int[] numberOfMeasurements;
+   private final int[] oldestIndex;
+
+   private final double[] estimatedHeight;
+   private final double[] mapHeight;
+   private final double[] mapVariance;
+
+   /** Filtered parameters */
+   private final boolean[] isGroundCell;
+   private final boolean[] hasSufficientNeighbors;
+
+   HeightMapCellBuffer(HeightMapParametersReadOnly parameters, int numberOfCells)
+   {
+      this.parameters = parameters;
+      this.numberOfCells = numberOfCells;
+      this.pointsPerCell = Math.max(1, parameters.getMaxPointsPerCell());
+
+      heightMeasurements = new double[numberOfCells * pointsPerCell];
+      varianceMeasurements = new double[numberOfCells * pointsPerCell];
+      numberOfMeasurements = new int[numberOfCells];
+      oldestIndex = new int[numberOfCells];
+      estimatedHeight = new double[numberOfCells];
+      mapHeight = new double[numberOfCells];
+      mapVariance = new double[numberOfCells];
+      isGroundCell = new boolean[numberOfCells];
+      hasSufficientNeighbors = new boolean[numberOfCells];
+
+      Arrays.fill(estimatedHeight, Double.NaN);
+      Arrays.fill(mapHeight, Double.NaN);
+      Arrays.fill(mapVariance, Double.NaN);
+   }
+
+   int getNumberOfCells()
+   {
+      return numberOfCells;
+   }
+
+   /**
+    * Clears the cell and its filtered parameters, equivalent to creating a new {@link HeightMapCell}
+    */
+   void initialize(int cell)
+   {
+      clear(cell);
+      isGroundCell[cell] = false;
+      hasSufficientNeighbors[cell] = false;
+   }
+
+   void addPoint(int cell, double heightMeasurement, double varianceMeasurement)
+   {
+      if (QUICK_UPDATE)
+      {
+         if (Double.isNaN(estimatedHeight[cell]))
+         {
+            estimatedHeight[cell] = heightMeasurement;
+         }
+         else
+         {
+            estimatedHeight[cell] = Math.max(estimatedHeight[cell], heightMeasurement);
+         }
+      }
+      else
+      {
+         int maxPointsPerCell = parameters.getMaxPointsPerCell();
+         ensurePointCapacity(maxPointsPerCell);
+
+         double error = Math.abs(heightMeasurement - estimatedHeight[cell]);
+         double maxErrorForReset = parameters.getMahalanobisScale() * parameters.getNominalStandardDeviation();
+         int offset = cell * pointsPerCell;
+
+         if (numberOfMeasurements[cell] == 0 || error > maxErrorForReset)
+         {
+            // Reset, point is above height threshold to merge
+            clear(cell);
+            estimatedHeight[cell] = heightMeasurement;
+            heightMeasurements[offset] = heightMeasurement;
+            varianceMeasurements[offset] = varianceMeasurement;
+            numberOfMeasurements[cell] = 1;
+         }
+         else if (numberOfMeasurements[cell] >= maxPointsPerCell)
+         {
+            addOldestPointToMapEstimate(cell);
+            // Replace oldest point
+            heightMeasurements[offset + oldestIndex[cell]] = heightMeasurement;
+            varianceMeasurements[offset + oldestIndex[cell]] = varianceMeasurement;
+            oldestIndex[cell] = (oldestIndex[cell] + 1) % maxPointsPerCell;
+         }
+         else
+         {
+            // Merge with height estimate
+            heightMeasurements[offset + numberOfMeasurements[cell]] = heightMeasurement;
+            varianceMeasurements[offset + numberOfMeasurements[cell]] = varianceMeasurement;
+            numberOfMeasurements[cell]++;
+         }
+      }
+   }
+
+   void addVariance(int cell, double varianceToAdd)
+   {
+      int offset = cell * pointsPerCell;
+      for (int i = 0; i < numberOfMeasurements[cell]; i++)
+         varianceMeasurements[offset + i] += varianceToAdd;
+   }
+
+   private void addOldestPointToMapEstimate(int cell)
+   {
+      int index = cell * pointsPerCell + oldestIndex[cell];
+
+      if (parameters.getEstimateHeightWithKalmanFilter())
+      {
+         double height = heightMeasurements[index];
+         double variance = varianceMeasurements[index];
+         if (Double.isNaN(mapHeight[cell]))
+         {
+            // map height hasn't been set yet
+            mapHeight[cell] = height;
+            mapVariance[cell] = variance;
+         }
+         else
+         {
+            // roll the oldest measurement into the map height
+            double newHeight = (variance * mapHeight[cell] + mapVariance[cell] * height) / (variance + mapVariance[cell]);
+            double newVariance = variance * mapVariance[cell] / (variance + mapVariance[cell]);
+
+            mapHeight[cell] = newHeight;
+            mapVariance[cell] = newVariance;
+         }
+      }
+      else if (numberOfMeasurements[cell] > 0)
+      {
+         mapHeight[cell] = heightMeasurements[index];
+         mapVariance[cell] = varianceMeasurements[index];
+      }
+   }
+
+   void updateHeightEstimate(int cell)
+   {
+      int offset = cell * pointsPerCell;
+      int size = numberOfMeasurements[cell];
+
+      if (parameters.getEstimateHeightWithKalmanFilter())
+      {
+         double heightSum = 0.0;
+         double varianceSum = 0.0;
+         for (int i = 0; i < size; i++)
+         {
+            heightSum += heightMeasurements[offset + i] / varianceMeasurements[offset + i];
+            varianceSum += 1.0 / varianceMeasurements[offset + i];
+         }
+         double newHeight = heightSum / varianceSum;
+         // FIXME this is likely not the best way to do this
+         double newVariance = varianceMeasurements[offset];
+         for (int i = 1; i < size; i++)
+         {
+            newVariance = (newVariance * varianceMeasurements[offset + i]) / (newVariance + varianceMeasurements[offset + i]);
+         }
+
+         double heightEstimate;
+         if (size == parameters.getMaxPointsPerCell() && !Double.isNaN(mapHeight[cell]))
+            heightEstimate = (mapHeight[cell] * newVariance + newHeight * mapVariance[cell]) / (newVariance + mapVariance[cell]);
+         else
+            heightEstimate = newHeight;
+
+         estimatedHeight[cell] = heightEstimate;
+      }
+      else
+      {
+         double heightSum = 0.0;
+         for (int i = 0; i < size; i++)
+            heightSum += heightMeasurements[offset + i];
+
+         if (Double.isNaN(mapHeight[cell]))
+            estimatedHeight[cell] = heightSum / size;
+         else
+            estimatedHeight[cell] = (heightSum + mapHeight[cell]) / (size + 1);
+      }
+   }
+
+   void clear(int cell)
+   {
+      numberOfMeasurements[cell] = 0;
+      oldestIndex[cell] = 0;
+      estimatedHeight[cell] = Double.NaN;
+      mapHeight[cell] = Double.NaN;
+      mapVariance[cell] = Double.NaN;
+   }
+
+   void resetAtHeight(int cell, double heightMeasurement, double varianceMeasurement)
+   {
+      clear(cell);
+      int offset = cell * pointsPerCell;
+      estimatedHeight[cell] = heightMeasurement;
+      heightMeasurements[offset] = heightMeasurement;
+      varianceMeasurements[offset] = varianceMeasurement;
+      numberOfMeasurements[cell] = 1;
+   }
+
+   double getEstimatedHeight(int cell)
+   {
+      return estimatedHeight[cell];
+   }
+
+   double computeHeightVariance(int cell)
+   {
+      int size = numberOfMeasurements[cell];
+      if (size == 0)
+      {
+         return Double.NaN;
+      }
+
+      int offset = cell * pointsPerCell;
+      double average = 0.0;
+      for (int i = 0; i < size; i++)
+      {
+         average += heightMeasurements[offset + i];
+      }
+
+      average /= size;
+
+      double sigma = 0.0;
+      for (int i = 0; i < size; i++)
+      {
+         sigma += MathTools.square(heightMeasurements[offset + i] - average);
+      }
+
+      return sigma / size;
+   }
+
+   void setGroundCell(int cell, boolean isGroundCell)
+   {
+      this.isGroundCell[cell] = isGroundCell;
+   }
+
+   boolean isGroundCell(int cell)
+   {
+      return isGroundCell[cell];
+   }
+
+   void setHasSufficientNeighbors(int cell, boolean hasSufficientNeighbors)
+   {
+      this.hasSufficientNeighbors[cell] = hasSufficientNeighbors;
+   }
+
+   boolean hasSufficientNeighbors(int cell)
+   {
+      return hasSufficientNeighbors[cell];
+   }
+
+   /**
+    * Grows the measurement slots if the max points per cell parameter was increased. Call this before adding points to different
+    * cells from several threads.
+    */
+   void ensurePointCapacity()
+   {
+      ensurePointCapacity(parameters.getMaxPointsPerCell());
+   }
+
+   /**
+    * Grows the measurement slots if the max points per cell parameter was increased, keeping the stored measurements
+    */
+   private void ensurePointCapacity(int maxPointsPerCell)
+   {
+      if (maxPointsPerCell <= pointsPerCell)
+         return;
+
+      double[] newHeightMeasurements = new double[numberOfCells * maxPointsPerCell];
+      double[] newVarianceMeasurements = new double[numberOfCells * maxPointsPerCell];
+      for (int cell = 0; cell < numberOfCells; cell++)
+      {
+         System.arraycopy(heightMeasurements, cell * pointsPerCell, newHeightMeasurements, cell * maxPointsPerCell, numberOfMeasurements[cell]);
+         System.arraycopy(varianceMeasurements, cell * pointsPerCell, newVarianceMeasurements, cell * maxPointsPerCell, numberOfMeasurements[cell]);
+      }
+
+      heightMeasurements = newHeightMeasurements;
+      varianceMeasurements = newVarianceMeasurements;
+      pointsPerCell = maxPointsPerCell;
+   }
+}
@@ -3,18 +3,32 @@ package us.ihmc.sensorProcessing.heightMap;
 import gnu.trove.list.array.TIntArrayList;
 import us.ihmc.commons.MathTools;
 import us.ihmc.euclid.tuple2D.Point2D;
-import us.ihmc.euclid.tuple3D.Vector3D;
+import us.ihmc.euclid.tuple3D.interfaces.Vector3DBasics;
 import us.ihmc.euclid.tuple3D.interfaces.Vector3DReadOnly;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
 import java.util.Arrays;
 
+/**
+ * Height map stored in flat primitive buffers indexed by key, see {@link HeightMapTools} for converting keys to coordinates.
+ *
+ * Heights are stored as floats, the precision of {@code HeightMapMessage}, and normals as three packed float components per cell.
+ * Occupied cells are tracked in a bitset and a list of keys. The buffers are either heap arrays or, optionally, a single
+ * direct {@link ByteBuffer}, so copies are bulk buffer copies and no object is allocated per cell.
+ */
 public class HeightMapData
 {
    /* Unordered list of the keys of all occupied cells */
-   private TIntArrayList occupiedCells = new TIntArrayList();
-   /* List of heights indexed by key */
-   private final double[] heights;
-   private final Vector3D[] normals;
+   private final TIntArrayList occupiedCells = new TIntArrayList();
+   /* Bitset over keys, set for occupied cells */
+   private final long[] occupancy;
+   /* Heights indexed by key, NaN for cells that haven't been set */
+   private final FloatBuffer heights;
+   /* Normal components indexed by 3 * key, NaN for cells without a normal */
+   private final FloatBuffer normals;
+   private final ByteBuffer directBuffer;
 
    private final int centerIndex;
    private final int cellsPerAxis;
@@ -24,61 +38,91 @@ public class HeightMapData
    private double estimatedGroundHeight = Double.NaN;
 
    private double minX, maxX, minY, maxY;
+   /* Incremented by every write, see getModificationCount */
+   private long modificationCount = 0;
 
    public HeightMapData(double gridResolutionXY, double gridSizeXY, double gridCenterX, double gridCenterY)
+   {
+      this(gridResolutionXY, gridSizeXY, gridCenterX, gridCenterY, false);
+   }
+
+   /**
+    * @param useDirectBuffer whether heights and normals are stored in a direct {@link ByteBuffer} in native order, see {@link #getDirectBuffer()}
+    */
+   public HeightMapData(double gridResolutionXY, double gridSizeXY, double gridCenterX, double gridCenterY, boolean useDirectBuffer)
    {
       this.gridResolutionXY = gridResolutionXY;
       this.gridSizeXY = gridSizeXY;
       this.centerIndex = HeightMapTools.computeCenterIndex(gridSizeXY, gridResolutionXY);
       this.cellsPerAxis = 2 * centerIndex + 1;
-      this.heights = new double[cellsPerAxis * cellsPerAxis];
-      this.normals = new Vector3D[cellsPerAxis * cellsPerAxis];
-      this.gridCenter.set(gridCenterX, gridCenterY);
 
-      double epsilon = 1e-8;
-      double halfWidth = 0.5 * (gridSizeXY + gridResolutionXY) - epsilon;
-      minX = gridCenterX - halfWidth;
-      maxX = gridCenterX + halfWidth;
-      minY = gridCenterY - halfWidth;
-      maxY = gridCenterY + halfWidth;
+      int numberOfCells = cellsPerAxis * cellsPerAxis;
+      this.occupancy = new long[(numberOfCells + 63) >>> 6];
+
+      if (useDirectBuffer)
+      {
+         directBuffer = ByteBuffer.allocateDirect(4 * Float.BYTES * numberOfCells).order(ByteOrder.nativeOrder());
+         directBuffer.limit(Float.BYTES * numberOfCells);
+         heights = directBuffer.slice().order(ByteOrder.nativeOrder()).asFloatBuffer();
+         directBuffer.limit(directBuffer.capacity()).position(Float.BYTES * numberOfCells);
+         normals = directBuffer.slice().order(ByteOrder.nativeOrder()).asFloatBuffer();
+         directBuffer.clear();
+      }
+      else
+      {
+         directBuffer = null;
+         heights = FloatBuffer.wrap(new float[numberOfCells]);
+         normals = FloatBuffer.wrap(new float[3 * numberOfCells]);
+      }
 
+      setGridCenter(gridCenterX, gridCenterY);
       reset();
    }
 
    public HeightMapData(HeightMapData latestHeightMapData)
    {
-      this.gridResolutionXY = latestHeightMapData.getGridResolutionXY();
-      this.gridSizeXY = latestHeightMapData.getGridSizeXY();
-      this.centerIndex = HeightMapTools.computeCenterIndex(latestHeightMapData.getGridSizeXY(), latestHeightMapData.getGridResolutionXY());
-      this.cellsPerAxis = 2 * latestHeightMapData.getCenterIndex() + 1;
+      this(latestHeightMapData, latestHeightMapData.isDirect());
+   }
 
-      this.heights = new double[latestHeightMapData.getCellsPerAxis() * latestHeightMapData.getCellsPerAxis()];
-      this.normals = new Vector3D[latestHeightMapData.getCellsPerAxis() * latestHeightMapData.getCellsPerAxis()];
+   public HeightMapData(HeightMapData latestHeightMapData, boolean useDirectBuffer)
+   {
+      this(latestHeightMapData.getGridResolutionXY(),
+           latestHeightMapData.getGridSizeXY(),
+           latestHeightMapData.getGridCenter().getX(),
+           latestHeightMapData.getGridCenter().getY(),
+           useDirectBuffer);
+      set(latestHeightMapData);
+   }
 
-      for (int i = 0; i < latestHeightMapData.getCellsPerAxis() * latestHeightMapData.getCellsPerAxis(); i++)
-      {
-         this.heights[i] = latestHeightMapData.heights[i];
-         this.normals[i] = latestHeightMapData.normals[i];
-      }
+   /**
+    * Copies the other height map, which must have the same resolution and size, using bulk buffer copies.
+    */
+   public void set(HeightMapData other)
+   {
+      if (other.cellsPerAxis != cellsPerAxis || Double.compare(other.gridResolutionXY, gridResolutionXY) != 0)
+         throw new IllegalArgumentException("Height maps have different dimensions: " + cellsPerAxis + " cells of " + gridResolutionXY + " vs "
+                                            + other.cellsPerAxis + " cells of " + other.gridResolutionXY);
 
-      this.gridCenter.set(latestHeightMapData.getGridCenter());
+      copy(other.heights, heights);
+      copy(other.normals, normals);
+      System.arraycopy(other.occupancy, 0, occupancy, 0, occupancy.length);
 
-      occupiedCells.addAll(latestHeightMapData.occupiedCells);
+      occupiedCells.resetQuick();
+      occupiedCells.addAll(other.occupiedCells);
 
-      double epsilon = 1e-8;
-      double halfWidth = 0.5 * (this.gridSizeXY + this.gridResolutionXY) - epsilon;
-      minX = this.gridCenter.getX() - halfWidth;
-      maxX = this.gridCenter.getX() + halfWidth;
-      minY = this.gridCenter.getY() - halfWidth;
-      maxY = this.gridCenter.getY() + halfWidth;
+      estimatedGroundHeight = other.estimatedGroundHeight;
+      setGridCenter(other.gridCenter.getX(), other.gridCenter.getY());
+      modificationCount++;
    }
 
    public void reset()
    {
-      occupiedCells.clear();
-      Arrays.fill(heights, Double.NaN);
-      Arrays.fill(normals, null);
+      occupiedCells.resetQuick();
+      Arrays.fill(occupancy, 0L);
+      fill(heights, Float.NaN);
+      fill(normals, Float.NaN);
       estimatedGroundHeight = Double.NaN;
+      modificationCount++;
    }
 
    public boolean isEmpty()
@@ -103,7 +147,7 @@ public class HeightMapData
 
    public double getHeight(int i)
    {
-      return heights[occupiedCells.get(i)];
+      return heights.get(occupiedCells.get(i));
    }
 
    public Point2D getCellPosition(int i)
@@ -125,9 +169,9 @@ public class HeightMapData
       }
 
       int key = HeightMapTools.coordinateToKey(x, y, gridCenter.getX(), gridCenter.getY(), gridResolutionXY, centerIndex);
-      if (occupiedCells.contains(key))
+      if (isOccupied(key))
       {
-         return heights[key];
+         return heights.get(key);
       }
       else
       {
@@ -142,16 +186,9 @@ public class HeightMapData
 
    public void setHeightAt(int key, double height, Vector3DReadOnly normal)
    {
-      if (key >= 0 && key < heights.length)
+      if (key >= 0 && key < heights.capacity())
       {
-         if (Double.isNaN(heights[key]))
-         {
-            occupiedCells.add(key);
-         }
-
-         heights[key] = height;
-         if (normal != null)
-            normals[key] = new Vector3D(normal);
+         setHeightAtKey(key, height, normal);
       }
    }
 
@@ -168,19 +205,31 @@ public class HeightMapData
       }
 
       int key = HeightMapTools.coordinateToKey(x, y, gridCenter.getX(), gridCenter.getY(), gridResolutionXY, centerIndex);
-      if (Double.isNaN(heights[key]))
+      setHeightAtKey(key, z, normal);
+   }
+
+   private void setHeightAtKey(int key, double height, Vector3DReadOnly normal)
+   {
+      if (!isOccupied(key))
       {
+         occupancy[key >>> 6] |= 1L << key;
          occupiedCells.add(key);
       }
 
-      heights[key] = z;
+      heights.put(key, (float) height);
       if (normal != null)
-         normals[key] = new Vector3D(normal);
+      {
+         normals.put(3 * key, (float) normal.getX());
+         normals.put(3 * key + 1, (float) normal.getY());
+         normals.put(3 * key + 2, (float) normal.getZ());
+      }
+
+      modificationCount++;
    }
 
    public double getHeightAt(int key)
    {
-      double height = heights[key];
+      double height = heights.get(key);
       return Double.isNaN(height) ? estimatedGroundHeight : height;
    }
 
@@ -191,18 +240,35 @@ public class HeightMapData
          return Double.NaN;
       }
 
-      double height = heights[HeightMapTools.indicesToKey(xIndex, yIndex, centerIndex)];
+      double height = heights.get(HeightMapTools.indicesToKey(xIndex, yIndex, centerIndex));
       return Double.isNaN(height) ? estimatedGroundHeight : height;
    }
 
+   /**
+    * Packs the normal of the cell with the given key.
+    *
+    * @return whether a normal was set for this cell, if not the vector is set to NaN
+    */
+   public boolean getNormalAt(int key, Vector3DBasics normalToPack)
+   {
+      normalToPack.set(normals.get(3 * key), normals.get(3 * key + 1), normals.get(3 * key + 2));
+      return !normalToPack.containsNaN();
+   }
+
    public boolean isCellAtGroundPlane(int xIndex, int yIndex)
    {
-      return Double.isNaN(heights[HeightMapTools.indicesToKey(xIndex, yIndex, centerIndex)]);
+      return Float.isNaN(heights.get(HeightMapTools.indicesToKey(xIndex, yIndex, centerIndex)));
+   }
+
+   public boolean isOccupied(int key)
+   {
+      return (occupancy[key >>> 6] & (1L << key)) != 0L;
    }
 
    public void setEstimatedGroundHeight(double estimatedGroundHeight)
    {
       this.estimatedGroundHeight = estimatedGroundHeight;
+      modificationCount++;
    }
 
    public double getEstimatedGroundHeight()
@@ -228,10 +294,11 @@ public class HeightMapData
    public double getMinHeight()
    {
       double minValue = Double.POSITIVE_INFINITY;
-      for (int i = 0; i < heights.length; i++)
+      for (int i = 0; i < occupiedCells.size(); i++)
       {
-         if (!Double.isNaN(heights[i]) && heights[i] < minValue)
-            minValue = heights[i];
+         float height = heights.get(occupiedCells.get(i));
+         if (!Float.isNaN(height) && height < minValue)
+            minValue = height;
       }
 
       return minValue;
@@ -244,9 +311,13 @@ public class HeightMapData
 
    public void markGroundCell(int i)
    {
-      heights[occupiedCells.get(i)] = Double.NaN;
-      normals[occupiedCells.get(i)] = null;
-      occupiedCells.remove(i);
+      int key = occupiedCells.removeAt(i);
+      occupancy[key >>> 6] &= ~(1L << key);
+      heights.put(key, Float.NaN);
+      normals.put(3 * key, Float.NaN);
+      normals.put(3 * key + 1, Float.NaN);
+      normals.put(3 * key + 2, Float.NaN);
+      modificationCount++;
    }
 
    public void setGridCenter(double x, double y)
@@ -259,5 +330,76 @@ public class HeightMapData
       maxX = gridCenter.getX() + halfWidth;
       minY = gridCenter.getY() - halfWidth;
       maxY = gridCenter.getY() + halfWidth;
+      modificationCount++;
+   }
+
+   /**
+    * Returns a counter incremented by every change made through the methods of this class, which lets consumers skip work when a height
+    * map they already processed is given again unchanged. Writes made directly to the buffers returned by {@link #getHeightBuffer()},
+    * {@link #getNormalBuffer()} and {@link #getDirectBuffer()} are not counted.
+    */
+   public long getModificationCount()
+   {
+      return modificationCount;
+   }
+
+   public boolean isDirect()
+   {
+      return directBuffer != null;
+   }
+
+   /**
+    * @return read-only view of the heights indexed by key, NaN for unset cells
+    */
+   public FloatBuffer getHeightBuffer()
+   {
+      return heights.asReadOnlyBuffer();
+   }
+
+   /**
+    * @return read-only view of the normals, with the x, y and z components of a cell at indices {@code 3 * key} to {@code 3 * key + 2}
+    */
+   public FloatBuffer getNormalBuffer()
+   {
+      return normals.asReadOnlyBuffer();
+   }
+
+   /**
+    * @return the direct buffer holding the heights followed by the normals, or null if this height map is stored in heap arrays
+    */
+   public ByteBuffer getDirectBuffer()
+   {
+      return directBuffer;
+   }
+
+   private static void copy(FloatBuffer source, FloatBuffer destination)
+   {
+      if (source.hasArray() && destination.hasArray())
+      {
+         System.arraycopy(source.array(), source.arrayOffset(), destination.array(), destination.arrayOffset(), destination.capacity());
+      }
+      else
+      {
+         FloatBuffer sourceView = source.duplicate();
+         sourceView.clear();
+         destination.clear();
+         destination.put(sourceView);
+         destination.clear();
+      }
+   }
+
+   private static void fill(FloatBuffer buffer, float value)
+   {
+      if (buffer.hasArray())
+      {
+         Arrays.fill(buffer.array(), buffer.arrayOffset(), buffer.arrayOffset() + buffer.capacity(), value);
+      }
+      else
+      {
+         for (int i = 0; i < buffer.capacity(); i++)
+         {
+            buffer.put(i, value);
+         }
+      }
    }
 }
@@ -2,14 +2,30 @@ package us.ihmc.sensorProcessing.heightMap;
 
 import gnu.trove.list.array.TIntArrayList;
 import us.ihmc.commons.MathTools;
+import us.ihmc.commons.thread.ThreadTools;
 import us.ihmc.euclid.tuple2D.Point2D;
 import us.ihmc.euclid.tuple2D.interfaces.Point2DReadOnly;
 import us.ihmc.euclid.tuple3D.Point3D;
 import us.ihmc.euclid.tuple3D.interfaces.Point3DReadOnly;
 import us.ihmc.log.LogTools;
 
+import java.util.ArrayList;
 import java.util.Arrays;
-
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Height map that is updated from point clouds and follows the robot.
+ *
+ * Cells are stored in a toroidal grid of primitive arrays, see {@link HeightMapCellBuffer}. The cell at index {@code (x, y)} relative to
+ * the current grid center is stored at {@code ((x + xIndexOffset) mod cellsPerAxis, (y + yIndexOffset) mod cellsPerAxis)}, so translating
+ * the grid only releases the cells that leave the window and shifts the offsets, without moving or allocating cells.
+ *
+ * Point clouds can be folded in on several threads, see {@link HeightMapParametersReadOnly#getNumberOfUpdateThreads()}.
+ */
 public class HeightMapManager
 {
    public static final double defaultVariance = 0.1;
@@ -17,18 +33,38 @@ public class HeightMapManager
 
    /*  From HeightMapMessage.msg  */
    public static final int maxCellCount = 30000;
+   /* Point clouds smaller than this are always folded in on the calling thread */
+   private static final int minimumPointsForParallelUpdate = 4096;
 
    private double maxHeight = 0.4;
    private double gridSizeXY;
    private double gridResolutionXY;
    private int centerIndex;
    private int cellsPerAxis;
-   private HeightMapCell[] heightMapCells;
+   private HeightMapCellBuffer heightMapCells;
+   /* Whether each cell of the buffer holds data, indexed by buffer cell */
+   private boolean[] cellOccupied;
+   private int xIndexOffset, yIndexOffset;
+   /* Keys of the occupied cells, relative to the current grid center */
    private TIntArrayList occupiedCells = new TIntArrayList();
+   private TIntArrayList translatedOccupiedCells = new TIntArrayList();
 
    private final HeightMapParametersReadOnly parameters;
    private final Point2D gridCenterXY = new Point2D();
 
+   /* Parallel update, see updateInParallel */
+   private ExecutorService updateExecutorService = null;
+   private final List<UpdateWorker> updateWorkers = new ArrayList<>();
+   private final List<Future<?>> updateFutures = new ArrayList<>();
+   private boolean isShutdown = false;
+   private int[] pointCells = new int[0];
+   private int[] sortedPoints = new int[0];
+   private int[] cellPointStart;
+   private int[] cellPointCount;
+   private int[] touchedCells;
+   private int numberOfTouchedCells;
+   private long[] newCells;
+
    public HeightMapManager(HeightMapParametersReadOnly parameters, double gridResolutionXY, double gridSizeXY)
    {
       this.parameters = parameters;
@@ -37,9 +73,7 @@ public class HeightMapManager
       this.centerIndex = HeightMapTools.computeCenterIndex(gridSizeXY, gridResolutionXY);
       this.cellsPerAxis = 2 * centerIndex + 1;
 
-      this.heightMapCells = new HeightMapCell[cellsPerAxis * cellsPerAxis];
-
-      clear();
+      allocateCells();
    }
 
    /**
@@ -55,8 +89,7 @@ public class HeightMapManager
       this.centerIndex = HeightMapTools.computeCenterIndex(gridSizeXY, gridResolutionXY);
       this.cellsPerAxis = 2 * centerIndex + 1;
 
-      heightMapCells = new HeightMapCell[cellsPerAxis * cellsPerAxis];
-      occupiedCells.reset();
+      allocateCells();
    }
 
    /**
@@ -72,8 +105,7 @@ public class HeightMapManager
       this.centerIndex = HeightMapTools.computeCenterIndex(gridSizeXY, gridResolutionXY);
       this.cellsPerAxis = 2 * centerIndex + 1;
 
-      heightMapCells = new HeightMapCell[cellsPerAxis * cellsPerAxis];
-      occupiedCells.reset();
+      allocateCells();
    }
 
    /**
@@ -95,55 +127,43 @@ public class HeightMapManager
 
    /**
     * Translates the existing height map to a new center location. It keeps all the cells that are still in range and translates them to new locations.
+    * Cells stay in place in the toroidal grid, the ones that left the window are released and reused by the cells that entered it.
     */
    public void translateToNewGridCenter(double xCenter, double yCenter, double varianceToAdd)
    {
-//      int xIndexShift = HeightMapTools.coordinateToIndex(xCenter - this.gridCenterXY.getX(), 0.0, gridResolutionXY, centerIndex);
-//      int yIndexShift = HeightMapTools.coordinateToIndex(yCenter - this.gridCenterXY.getY(), 0.0, gridResolutionXY, centerIndex);
-//      if (xIndexShift == 0 && yIndexShift == 0)
-//         return;
-
       if ((Math.abs(xCenter - this.gridCenterXY.getX()) < gridResolutionXY / 2.0) && (Math.abs(yCenter - this.gridCenterXY.getY()) < gridResolutionXY / 2.0))
          return;
 
-      HeightMapCell[] oldCellArray = heightMapCells;
-      TIntArrayList oldOccupiedCells = occupiedCells;
-      heightMapCells = new HeightMapCell[cellsPerAxis * cellsPerAxis];
-      occupiedCells = new TIntArrayList();
-
-      for (int i = 0; i < oldOccupiedCells.size(); i++)
-      {
-         int oldKey = oldOccupiedCells.get(i);
-         if (oldCellArray[oldKey] == null)
-            continue;
-
-         int oldXIndex = HeightMapTools.keyToXIndex(oldKey, centerIndex);
-         int oldYIndex = HeightMapTools.keyToYIndex(oldKey, centerIndex);
+      int xIndexShift = (int) Math.round((xCenter - gridCenterXY.getX()) / gridResolutionXY);
+      int yIndexShift = (int) Math.round((yCenter - gridCenterXY.getY()) / gridResolutionXY);
+      boolean cellsMoved = xIndexShift != 0 || yIndexShift != 0;
 
-         double xCoordinate = HeightMapTools.keyToXCoordinate(oldKey, gridCenterXY.getX(), gridResolutionXY, centerIndex);
-         double yCoordinate = HeightMapTools.keyToYCoordinate(oldKey, gridCenterXY.getY(), gridResolutionXY, centerIndex);
+      translatedOccupiedCells.resetQuick();
 
-         int xIndex = HeightMapTools.coordinateToIndex(xCoordinate, xCenter, gridResolutionXY, centerIndex);
-//         int xIndex = oldXIndex + xIndexShift;
-         if (xIndex < 0 || xIndex >= cellsPerAxis)
-         {
-            continue;
-         }
+      for (int i = 0; i < occupiedCells.size(); i++)
+      {
+         int oldKey = occupiedCells.get(i);
+         int cell = keyToCell(oldKey);
 
-         int yIndex = HeightMapTools.coordinateToIndex(yCoordinate, yCenter, gridResolutionXY, centerIndex);
-//         int yIndex = oldYIndex + yIndexShift;
-         if (yIndex < 0 || yIndex >= cellsPerAxis)
+         int xIndex = HeightMapTools.keyToXIndex(oldKey, centerIndex) - xIndexShift;
+         int yIndex = HeightMapTools.keyToYIndex(oldKey, centerIndex) - yIndexShift;
+         if (xIndex < 0 || xIndex >= cellsPerAxis || yIndex < 0 || yIndex >= cellsPerAxis)
          {
+            cellOccupied[cell] = false;
             continue;
          }
 
-         int key = HeightMapTools.indicesToKey(xIndex, yIndex, centerIndex);
-         heightMapCells[key] = oldCellArray[oldKey];
-         if (key != oldKey)
-            heightMapCells[key].addVariance(varianceToAdd);
-         occupiedCells.add(key);
+         if (cellsMoved)
+            heightMapCells.addVariance(cell, varianceToAdd);
+         translatedOccupiedCells.add(HeightMapTools.indicesToKey(xIndex, yIndex, centerIndex));
       }
 
+      TIntArrayList previousOccupiedCells = occupiedCells;
+      occupiedCells = translatedOccupiedCells;
+      translatedOccupiedCells = previousOccupiedCells;
+
+      xIndexOffset = Math.floorMod(xIndexOffset + xIndexShift, cellsPerAxis);
+      yIndexOffset = Math.floorMod(yIndexOffset + yIndexShift, cellsPerAxis);
       gridCenterXY.set(xCenter, yCenter);
    }
 
@@ -152,8 +172,50 @@ public class HeightMapManager
     */
    public void clear()
    {
-      Arrays.fill(heightMapCells, null);
-      occupiedCells.clear();
+      for (int i = 0; i < occupiedCells.size(); i++)
+         cellOccupied[keyToCell(occupiedCells.get(i))] = false;
+      occupiedCells.resetQuick();
+   }
+
+   private void allocateCells()
+   {
+      heightMapCells = new HeightMapCellBuffer(parameters, cellsPerAxis * cellsPerAxis);
+      cellOccupied = new boolean[cellsPerAxis * cellsPerAxis];
+      cellPointStart = new int[cellsPerAxis * cellsPerAxis];
+      cellPointCount = new int[cellsPerAxis * cellsPerAxis];
+      touchedCells = new int[cellsPerAxis * cellsPerAxis];
+      newCells = new long[cellsPerAxis * cellsPerAxis];
+      xIndexOffset = 0;
+      yIndexOffset = 0;
+      occupiedCells.reset();
+      translatedOccupiedCells.reset();
+   }
+
+   private int keyToCell(int key)
+   {
+      return indicesToCell(HeightMapTools.keyToXIndex(key, centerIndex), HeightMapTools.keyToYIndex(key, centerIndex));
+   }
+
+   private int cellToKey(int cell)
+   {
+      int xIndex = cell % cellsPerAxis - xIndexOffset;
+      if (xIndex < 0)
+         xIndex += cellsPerAxis;
+      int yIndex = cell / cellsPerAxis - yIndexOffset;
+      if (yIndex < 0)
+         yIndex += cellsPerAxis;
+      return HeightMapTools.indicesToKey(xIndex, yIndex, centerIndex);
+   }
+
+   private int indicesToCell(int xIndex, int yIndex)
+   {
+      int xCell = xIndex + xIndexOffset;
+      if (xCell >= cellsPerAxis)
+         xCell -= cellsPerAxis;
+      int yCell = yIndex + yIndexOffset;
+      if (yCell >= cellsPerAxis)
+         yCell -= cellsPerAxis;
+      return xCell + yCell * cellsPerAxis;
    }
 
    /**
@@ -170,6 +232,13 @@ public class HeightMapManager
     */
    public void update(Point3D[] pointCloud, double verticalMeasurementVariance)
    {
+      updateNumberOfUpdateThreads();
+      if (updateWorkers.size() > 1 && pointCloud.length >= minimumPointsForParallelUpdate)
+      {
+         updateInParallel(pointCloud, verticalMeasurementVariance);
+         return;
+      }
+
 //      List<Point3D> pointList = new ArrayList<>();
 //
 //      for (int i = -2; i <= 2; i++)
@@ -242,7 +311,8 @@ public class HeightMapManager
                continue;
 
             int key = HeightMapTools.indicesToKey(xIndex, yIndex, centerIndex);
-            boolean noCellPresent = heightMapCells[key] == null;
+            int cell = indicesToCell(xIndex, yIndex);
+            boolean noCellPresent = !cellOccupied[cell];
 
             if (noCellPresent && occupiedCells.size() >= maxCellCount)
             {
@@ -251,21 +321,332 @@ public class HeightMapManager
 
             if (noCellPresent)
             {
-               heightMapCells[key] = new HeightMapCell(parameters);
+               heightMapCells.initialize(cell);
+               cellOccupied[cell] = true;
                occupiedCells.add(key);
             }
 
-            heightMapCells[key].addPoint(point.getZ(), verticalMeasurementVariance);
+            heightMapCells.addPoint(cell, point.getZ(), verticalMeasurementVariance);
          }
       }
 
       for (int i = 0; i < occupiedCells.size(); i++)
-         heightMapCells[occupiedCells.get(i)].updateHeightEstimate();
+         heightMapCells.updateHeightEstimate(keyToCell(occupiedCells.get(i)));
 
       if (debug)
          LogTools.info(occupiedCells.size() + " cells");
    }
 
+   /**
+    * Follows {@link HeightMapParametersReadOnly#getNumberOfUpdateThreads()}, the update threads are restarted when it changes.
+    * The result is identical to the single threaded update.
+    */
+   private void updateNumberOfUpdateThreads()
+   {
+      int numberOfUpdateThreads = isShutdown ? 0 : parameters.getNumberOfUpdateThreads();
+      if (numberOfUpdateThreads <= 1)
+         numberOfUpdateThreads = 0;
+      if (numberOfUpdateThreads == updateWorkers.size())
+         return;
+
+      stopUpdateThreads();
+
+      if (numberOfUpdateThreads > 1)
+      {
+         updateExecutorService = Executors.newFixedThreadPool(numberOfUpdateThreads, ThreadTools.createNamedDaemonThreadFactory(getClass().getSimpleName()));
+         for (int i = 0; i < numberOfUpdateThreads; i++)
+            updateWorkers.add(new UpdateWorker());
+      }
+   }
+
+   public int getNumberOfUpdateThreads()
+   {
+      return updateWorkers.size();
+   }
+
+   /**
+    * Stops the update threads, after which point clouds are folded in on the calling thread regardless of the parameters.
+    */
+   public void shutdown()
+   {
+      isShutdown = true;
+      stopUpdateThreads();
+   }
+
+   private void stopUpdateThreads()
+   {
+      if (updateExecutorService != null)
+      {
+         updateExecutorService.shutdownNow();
+         updateExecutorService = null;
+      }
+
+      updateWorkers.clear();
+   }
+
+   /**
+    * Multi-threaded version of {@link #update(Point3D[], double)}, which bins the points by cell with a parallel counting sort:
+    * <ol>
+    *    <li> Each worker computes the cell of the points of its chunk of the point cloud and counts points per cell.
+    *    <li> The counts are turned into offsets, ordered by cell then by worker, so points of a cell stay in point cloud order.
+    *    <li> Each worker writes the indices of its points at their offsets.
+    *    <li> New cells are created in order of their first point, up to {@link #maxCellCount}, as in the serial update.
+    *    <li> Cells are split between workers, each folding the points of its cells in order, then the estimates are updated.
+    * </ol>
+    */
+   private void updateInParallel(Point3D[] pointCloud, double verticalMeasurementVariance)
+   {
+      int numberOfPoints = pointCloud.length;
+      if (pointCells.length < numberOfPoints)
+      {
+         pointCells = new int[numberOfPoints];
+         sortedPoints = new int[numberOfPoints];
+      }
+
+      int numberOfWorkers = updateWorkers.size();
+      int pointsPerWorker = (numberOfPoints + numberOfWorkers - 1) / numberOfWorkers;
+      for (int i = 0; i < numberOfWorkers; i++)
+      {
+         updateWorkers.get(i).setPoints(pointCloud, i * pointsPerWorker, Math.min(numberOfPoints, (i + 1) * pointsPerWorker), verticalMeasurementVariance);
+      }
+
+      runUpdatePhase(UpdatePhase.COUNT);
+      int numberOfBinnedPoints = computeCellOffsets();
+      runUpdatePhase(UpdatePhase.SCATTER);
+      addNewCells();
+
+      // split the cells with points so that each worker folds about the same number of points
+      int workerIndex = 0;
+      int cellIndexStart = 0;
+      int foldedPoints = 0;
+      for (int i = 0; i < numberOfTouchedCells && workerIndex < numberOfWorkers - 1; i++)
+      {
+         foldedPoints += cellPointCount[touchedCells[i]];
+         if (foldedPoints >= (long) (workerIndex + 1) * numberOfBinnedPoints / numberOfWorkers)
+         {
+            updateWorkers.get(workerIndex++).setCells(cellIndexStart, i + 1);
+            cellIndexStart = i + 1;
+         }
+      }
+      for (; workerIndex < numberOfWorkers; workerIndex++)
+      {
+         updateWorkers.get(workerIndex).setCells(cellIndexStart, numberOfTouchedCells);
+         cellIndexStart = numberOfTouchedCells;
+      }
+
+      heightMapCells.ensurePointCapacity();
+      runUpdatePhase(UpdatePhase.FOLD);
+
+      int cellsPerWorker = (occupiedCells.size() + numberOfWorkers - 1) / numberOfWorkers;
+      for (int i = 0; i < numberOfWorkers; i++)
+      {
+         updateWorkers.get(i).setOccupiedCells(i * cellsPerWorker, Math.min(occupiedCells.size(), (i + 1) * cellsPerWorker));
+      }
+      runUpdatePhase(UpdatePhase.ESTIMATE);
+
+      if (debug)
+         LogTools.info(occupiedCells.size() + " cells");
+   }
+
+   /**
+    * Turns the per worker counts into offsets in the sorted point array and collects the cells that have points.
+    *
+    * @return the number of binned points
+    */
+   private int computeCellOffsets()
+   {
+      numberOfTouchedCells = 0;
+      int offset = 0;
+
+      for (int cell = 0; cell < cellOccupied.length; cell++)
+      {
+         int start = offset;
+         for (int i = 0; i < updateWorkers.size(); i++)
+         {
+            int[] counts = updateWorkers.get(i).counts;
+            int count = counts[cell];
+            counts[cell] = offset;
+            offset += count;
+         }
+
+         if (offset > start)
+         {
+            cellPointStart[cell] = start;
+            cellPointCount[cell] = offset - start;
+            touchedCells[numberOfTouchedCells++] = cell;
+         }
+      }
+
+      return offset;
+   }
+
+   /**
+    * Creates the cells that received their first points, in the order of their first point. Points of cells that exceed
+    * {@link #maxCellCount} are dropped.
+    */
+   private void addNewCells()
+   {
+      int numberOfNewCells = 0;
+      for (int i = 0; i < numberOfTouchedCells; i++)
+      {
+         int cell = touchedCells[i];
+         if (!cellOccupied[cell])
+            newCells[numberOfNewCells++] = ((long) sortedPoints[cellPointStart[cell]] << 32) | cell;
+      }
+
+      Arrays.sort(newCells, 0, numberOfNewCells);
+
+      int cellsToAdd = Math.min(numberOfNewCells, Math.max(0, maxCellCount - occupiedCells.size()));
+      for (int i = 0; i < numberOfNewCells; i++)
+      {
+         int cell = (int) newCells[i];
+         if (i < cellsToAdd)
+         {
+            heightMapCells.initialize(cell);
+            cellOccupied[cell] = true;
+            occupiedCells.add(cellToKey(cell));
+         }
+         else
+         {
+            cellPointCount[cell] = 0;
+         }
+      }
+   }
+
+   private void runUpdatePhase(UpdatePhase phase)
+   {
+      updateFutures.clear();
+      for (int i = 0; i < updateWorkers.size(); i++)
+      {
+         UpdateWorker worker = updateWorkers.get(i);
+         worker.phase = phase;
+         updateFutures.add(updateExecutorService.submit(worker));
+      }
+
+      for (int i = 0; i < updateFutures.size(); i++)
+      {
+         try
+         {
+            updateFutures.get(i).get();
+         }
+         catch (InterruptedException | ExecutionException e)
+         {
+            throw new RuntimeException(e);
+         }
+      }
+   }
+
+   private enum UpdatePhase
+   {
+      COUNT, SCATTER, FOLD, ESTIMATE
+   }
+
+   private class UpdateWorker implements Runnable
+   {
+      private UpdatePhase phase;
+      private int[] counts = new int[0];
+
+      private Point3D[] pointCloud;
+      private double verticalMeasurementVariance;
+      private int pointStart, pointEnd;
+      private int touchedCellStart, touchedCellEnd;
+      private int occupiedCellStart, occupiedCellEnd;
+
+      void setPoints(Point3D[] pointCloud, int pointStart, int pointEnd, double verticalMeasurementVariance)
+      {
+         this.pointCloud = pointCloud;
+         this.pointStart = pointStart;
+         this.pointEnd = pointEnd;
+         this.verticalMeasurementVariance = verticalMeasurementVariance;
+      }
+
+      void setCells(int touchedCellStart, int touchedCellEnd)
+      {
+         this.touchedCellStart = touchedCellStart;
+         this.touchedCellEnd = touchedCellEnd;
+      }
+
+      void setOccupiedCells(int occupiedCellStart, int occupiedCellEnd)
+      {
+         this.occupiedCellStart = occupiedCellStart;
+         this.occupiedCellEnd = occupiedCellEnd;
+      }
+
+      @Override
+      public void run()
+      {
+         switch (phase)
+         {
+            case COUNT:
+               count();
+               break;
+            case SCATTER:
+               scatter();
+               break;
+            case FOLD:
+               fold();
+               break;
+            case ESTIMATE:
+               for (int i = occupiedCellStart; i < occupiedCellEnd; i++)
+                  heightMapCells.updateHeightEstimate(keyToCell(occupiedCells.get(i)));
+               break;
+         }
+      }
+
+      private void count()
+      {
+         if (counts.length != cellOccupied.length)
+            counts = new int[cellOccupied.length];
+         else
+            Arrays.fill(counts, 0);
+
+         for (int i = pointStart; i < pointEnd; i++)
+         {
+            pointCells[i] = -1;
+
+            Point3DReadOnly point = pointCloud[i];
+            if (point == null || point.getZ() > maxHeight)
+               continue;
+
+            int xIndex = HeightMapTools.coordinateToIndex(point.getX(), gridCenterXY.getX(), gridResolutionXY, centerIndex);
+            if (xIndex < 0 || xIndex >= cellsPerAxis)
+               continue;
+
+            int yIndex = HeightMapTools.coordinateToIndex(point.getY(), gridCenterXY.getY(), gridResolutionXY, centerIndex);
+            if (yIndex < 0 || yIndex >= cellsPerAxis)
+               continue;
+
+            int cell = indicesToCell(xIndex, yIndex);
+            pointCells[i] = cell;
+            counts[cell]++;
+         }
+      }
+
+      private void scatter()
+      {
+         for (int i = pointStart; i < pointEnd; i++)
+         {
+            int cell = pointCells[i];
+            if (cell >= 0)
+               sortedPoints[counts[cell]++] = i;
+         }
+      }
+
+      private void fold()
+      {
+         for (int i = touchedCellStart; i < touchedCellEnd; i++)
+         {
+            int cell = touchedCells[i];
+            int start = cellPointStart[cell];
+            int end = start + cellPointCount[cell];
+            for (int j = start; j < end; j++)
+            {
+               heightMapCells.addPoint(cell, pointCloud[sortedPoints[j]].getZ(), verticalMeasurementVariance);
+            }
+         }
+      }
+   }
+
    public double getHeightAt(double x, double y)
    {
       int xIndex = HeightMapTools.coordinateToIndex(x, gridCenterXY.getX(), gridResolutionXY, centerIndex);
@@ -281,7 +662,8 @@ public class HeightMapManager
 
    public double getHeightAt(int indexX, int indexY)
    {
-      return heightMapCells[HeightMapTools.indicesToKey(indexX, indexY, centerIndex)].getEstimatedHeight();
+      int cell = indicesToCell(indexX, indexY);
+      return cellOccupied[cell] ? heightMapCells.getEstimatedHeight(cell) : Double.NaN;
    }
 
    public TIntArrayList getOccupiedCells()
@@ -306,7 +688,7 @@ public class HeightMapManager
 
    public double getHeightAt(int i)
    {
-      return heightMapCells[occupiedCells.get(i)].getEstimatedHeight();
+      return heightMapCells.getEstimatedHeight(keyToCell(occupiedCells.get(i)));
    }
 
    public int getKey(int i)
@@ -316,24 +698,26 @@ public class HeightMapManager
 
    public void setGroundCell(int i, boolean isGroundCell)
    {
-      heightMapCells[occupiedCells.get(i)].setGroundCell(isGroundCell);
+      heightMapCells.setGroundCell(keyToCell(occupiedCells.get(i)), isGroundCell);
    }
 
    public void setHasSufficientNeighbors(int i, boolean hasSufficientNeighbors)
    {
-      heightMapCells[occupiedCells.get(i)].setHasSufficientNeighbors(hasSufficientNeighbors);
+      heightMapCells.setHasSufficientNeighbors(keyToCell(occupiedCells.get(i)), hasSufficientNeighbors);
    }
 
    public void resetAtHeight(int i, double height, double variance)
    {
-      heightMapCells[occupiedCells.get(i)].resetAtHeight(height, variance);
+      heightMapCells.resetAtHeight(keyToCell(occupiedCells.get(i)), height, variance);
    }
 
    public void resetAtHeightByKey(int key, double height, double variance)
    {
-      if (heightMapCells[key] == null)
+      int cell = keyToCell(key);
+      if (!cellOccupied[cell])
       {
-         heightMapCells[key] = new HeightMapCell(parameters);
+         heightMapCells.initialize(cell);
+         cellOccupied[cell] = true;
          occupiedCells.add(key);
       }
       else
@@ -341,47 +725,48 @@ public class HeightMapManager
          throw new RuntimeException("Should not get here");
       }
 
-      heightMapCells[key].resetAtHeight(height, variance);
+      heightMapCells.resetAtHeight(cell, height, variance);
    }
 
    public boolean cellHasData(int key)
    {
-      return occupiedCells.contains(key);
+      return key >= 0 && key < cellOccupied.length && cellOccupied[keyToCell(key)];
    }
 
    public boolean cellHasData(int xIndex, int yIndex)
    {
-      return occupiedCells.contains(HeightMapTools.indicesToKey(xIndex, yIndex, centerIndex));
+      if (xIndex < 0 || xIndex >= cellsPerAxis || yIndex < 0 || yIndex >= cellsPerAxis)
+         return false;
+      return cellOccupied[indicesToCell(xIndex, yIndex)];
    }
 
    public boolean cellHasUnfilteredData(int i)
    {
-      HeightMapCell cell = heightMapCells[occupiedCells.get(i)];
-      return !cell.isGroundCell() && cell.hasSufficientNeighbors();
+      int cell = keyToCell(occupiedCells.get(i));
+      return !heightMapCells.isGroundCell(cell) && heightMapCells.hasSufficientNeighbors(cell);
    }
 
    public boolean cellHasUnfilteredData(int xIndex, int yIndex)
    {
-      int key = HeightMapTools.indicesToKey(xIndex, yIndex, centerIndex);
-      HeightMapCell cell = heightMapCells[key];
-      if (cell == null)
+      if (!cellHasData(xIndex, yIndex))
          return false;
-      return !cell.isGroundCell() && cell.hasSufficientNeighbors();
+      int cell = indicesToCell(xIndex, yIndex);
+      return !heightMapCells.isGroundCell(cell) && heightMapCells.hasSufficientNeighbors(cell);
    }
 
    public boolean isGroundCell(int i)
    {
-      return heightMapCells[occupiedCells.get(i)].isGroundCell();
+      return heightMapCells.isGroundCell(keyToCell(occupiedCells.get(i)));
    }
 
    public boolean hasSufficientNeighbors(int i)
    {
-      return heightMapCells[occupiedCells.get(i)].hasSufficientNeighbors();
+      return heightMapCells.hasSufficientNeighbors(keyToCell(occupiedCells.get(i)));
    }
 
    public boolean hasSufficientNeighbors(int xIndex, int yIndex)
    {
-      return heightMapCells[HeightMapTools.indicesToKey(xIndex, yIndex, centerIndex)].hasSufficientNeighbors();
+      return cellHasData(xIndex, yIndex) && heightMapCells.hasSufficientNeighbors(indicesToCell(xIndex, yIndex));
    }
 
    public int getCenterIndex()
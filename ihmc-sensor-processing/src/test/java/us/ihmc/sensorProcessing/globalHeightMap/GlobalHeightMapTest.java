@@ -0,0 +1,94 @@
+package us.ihmc.sensorProcessing.globalHeightMap;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import us.ihmc.sensorProcessing.heightMap.HeightMapData;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class GlobalHeightMapTest
+{
+   @TempDir
+   Path spillDirectory;
+
+   @Test
+   public void testTilesAreSpilledAndReadBack()
+   {
+      double resolution = 0.05;
+      long tileSize = new GlobalMapTile(resolution, 0.0, 0.0).getSizeInBytes();
+      GlobalHeightMap globalHeightMap = new GlobalHeightMap(2 * tileSize, spillDirectory);
+
+      int numberOfTiles = 6;
+      for (int i = 0; i < numberOfTiles; i++)
+      {
+         globalHeightMap.addHeightMap(createLocalHeightMap(resolution, GlobalLattice.toPosition(2 * i), 0.1 * (i + 1)));
+
+         Assertions.assertEquals(1, globalHeightMap.getModifiedMapTiles().size());
+         Assertions.assertEquals(2 * i, globalHeightMap.getModifiedMapTiles().iterator().next().getCenterX());
+         Assertions.assertTrue(globalHeightMap.getBytesInMemory() <= 2 * tileSize);
+      }
+
+      Assertions.assertEquals(2, globalHeightMap.getNumberOfTilesInMemory());
+      Assertions.assertEquals(numberOfTiles - 2, globalHeightMap.getNumberOfSpilledTiles());
+
+      // querying a spilled tile reads it back
+      for (int i = 0; i < numberOfTiles; i++)
+      {
+         double x = GlobalLattice.toPosition(2 * i);
+         Assertions.assertEquals(0.1 * (i + 1), globalHeightMap.getHeightAt(x + 0.2, -0.1), 1e-6);
+         Assertions.assertEquals(-0.02, globalHeightMap.getHeightAt(x + 2.0, 2.0), 1e-6);
+         Assertions.assertTrue(globalHeightMap.getBytesInMemory() <= 2 * tileSize);
+      }
+      Assertions.assertTrue(Double.isNaN(globalHeightMap.getHeightAt(-50.0, 0.0)));
+
+      // updating a spilled tile keeps the previous cells
+      globalHeightMap.addHeightMap(createLocalHeightMap(resolution, 1.0, 0.7));
+      GlobalMapTile tile = globalHeightMap.getModifiedMapTiles().iterator().next();
+      Assertions.assertEquals(0.7, tile.getHeightAt(1.0, 0.0), 1e-6);
+      Assertions.assertEquals(0.1, tile.getHeightAt(0.0, 0.0), 1e-6);
+
+      globalHeightMap.clear();
+      Assertions.assertEquals(0, globalHeightMap.getNumberOfTilesInMemory());
+      Assertions.assertEquals(0, globalHeightMap.getNumberOfSpilledTiles());
+      Assertions.assertTrue(Double.isNaN(globalHeightMap.getHeightAt(0.0, 0.0)));
+   }
+
+   @Test
+   public void testSpillDirectoryIsDeletedOnDestroy()
+   {
+      double resolution = 0.05;
+      long tileSize = new GlobalMapTile(resolution, 0.0, 0.0).getSizeInBytes();
+
+      // temporary directories are deleted
+      GlobalHeightMap globalHeightMap = new GlobalHeightMap(tileSize);
+      Path temporaryDirectory = globalHeightMap.getSpillDirectory();
+      for (int i = 0; i < 3; i++)
+         globalHeightMap.addHeightMap(createLocalHeightMap(resolution, GlobalLattice.toPosition(2 * i), 0.1));
+      Assertions.assertTrue(globalHeightMap.getNumberOfSpilledTiles() > 0);
+      globalHeightMap.destroy();
+      Assertions.assertFalse(Files.exists(temporaryDirectory));
+
+      // given directories are emptied but kept
+      globalHeightMap = new GlobalHeightMap(tileSize, spillDirectory);
+      for (int i = 0; i < 3; i++)
+         globalHeightMap.addHeightMap(createLocalHeightMap(resolution, GlobalLattice.toPosition(2 * i), 0.1));
+      globalHeightMap.destroy();
+      Assertions.assertTrue(Files.isDirectory(spillDirectory));
+      Assertions.assertEquals(0, spillDirectory.toFile().list().length);
+   }
+
+   private static HeightMapData createLocalHeightMap(double resolution, double centerX, double height)
+   {
+      HeightMapData heightMapData = new HeightMapData(resolution, 1.0, centerX, 0.0);
+      for (double x = -0.4; x <= 0.4; x += resolution)
+      {
+         for (double y = -0.4; y <= 0.4; y += resolution)
+         {
+            heightMapData.setHeightAt(centerX + x, y, height);
+         }
+      }
+      return heightMapData;
+   }
+}
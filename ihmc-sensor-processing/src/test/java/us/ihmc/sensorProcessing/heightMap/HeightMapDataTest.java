@@ -0,0 +1,89 @@
+package us.ihmc.sensorProcessing.heightMap;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import us.ihmc.euclid.tools.EuclidCoreRandomTools;
+import us.ihmc.euclid.tuple3D.Vector3D;
+
+import java.util.Random;
+
+public class HeightMapDataTest
+{
+   @Test
+   public void testSetAndGetHeights()
+   {
+      HeightMapData heightMapData = new HeightMapData(0.05, 2.0, 0.5, -0.5);
+      heightMapData.setEstimatedGroundHeight(-0.2);
+
+      Assertions.assertTrue(heightMapData.isEmpty());
+      Assertions.assertEquals(-0.2, heightMapData.getHeightAt(0.5, -0.5));
+      Assertions.assertTrue(Double.isNaN(heightMapData.getHeightAt(5.0, 0.0)));
+
+      heightMapData.setHeightAt(0.5, -0.5, 0.25, new Vector3D(0.0, 0.0, 1.0));
+      heightMapData.setHeightAt(0.5, -0.5, 0.3);
+      int key = HeightMapTools.coordinateToKey(0.5, -0.5, 0.5, -0.5, 0.05, heightMapData.getCenterIndex());
+
+      Assertions.assertEquals(1, heightMapData.getNumberOfOccupiedCells());
+      Assertions.assertTrue(heightMapData.isOccupied(key));
+      Assertions.assertEquals(0.3, heightMapData.getHeightAt(0.5, -0.5), 1e-7);
+      Assertions.assertEquals(0.3, heightMapData.getHeightAt(key), 1e-7);
+
+      Vector3D normal = new Vector3D();
+      Assertions.assertTrue(heightMapData.getNormalAt(key, normal));
+      Assertions.assertEquals(1.0, normal.getZ());
+      Assertions.assertFalse(heightMapData.getNormalAt(key + 1, normal));
+
+      heightMapData.markGroundCell(0);
+      Assertions.assertTrue(heightMapData.isEmpty());
+      Assertions.assertFalse(heightMapData.isOccupied(key));
+      Assertions.assertEquals(-0.2, heightMapData.getHeightAt(0.5, -0.5));
+      Assertions.assertFalse(heightMapData.getNormalAt(key, normal));
+   }
+
+   @Test
+   public void testCopyBetweenHeapAndDirectBuffers()
+   {
+      Random random = new Random(2390);
+      HeightMapData heightMapData = new HeightMapData(0.02, 1.0, 0.0, 0.0);
+      heightMapData.setEstimatedGroundHeight(0.1);
+
+      for (int i = 0; i < 500; i++)
+      {
+         int key = random.nextInt(heightMapData.getCellsPerAxis() * heightMapData.getCellsPerAxis());
+         heightMapData.setHeightAt(key, EuclidCoreRandomTools.nextDouble(random, 1.0), EuclidCoreRandomTools.nextVector3DWithFixedLength(random, 1.0));
+      }
+
+      HeightMapData directCopy = new HeightMapData(heightMapData, true);
+      Assertions.assertTrue(directCopy.isDirect());
+      Assertions.assertNotNull(directCopy.getDirectBuffer());
+      assertHeightMapsEqual(heightMapData, directCopy);
+
+      HeightMapData heapCopy = new HeightMapData(directCopy, false);
+      Assertions.assertFalse(heapCopy.isDirect());
+      assertHeightMapsEqual(heightMapData, heapCopy);
+
+      heightMapData.reset();
+      Assertions.assertTrue(heightMapData.isEmpty());
+      Assertions.assertFalse(heapCopy.isEmpty());
+
+      HeightMapData differentSize = new HeightMapData(0.02, 2.0, 0.0, 0.0);
+      Assertions.assertThrows(IllegalArgumentException.class, () -> differentSize.set(heapCopy));
+   }
+
+   private static void assertHeightMapsEqual(HeightMapData expected, HeightMapData actual)
+   {
+      Assertions.assertEquals(expected.getEstimatedGroundHeight(), actual.getEstimatedGroundHeight());
+      Assertions.assertEquals(expected.getNumberOfOccupiedCells(), actual.getNumberOfOccupiedCells());
+
+      Vector3D expectedNormal = new Vector3D();
+      Vector3D actualNormal = new Vector3D();
+      for (int key = 0; key < expected.getCellsPerAxis() * expected.getCellsPerAxis(); key++)
+      {
+         Assertions.assertEquals(expected.isOccupied(key), actual.isOccupied(key));
+         Assertions.assertEquals(expected.getHeightAt(key), actual.getHeightAt(key));
+         Assertions.assertEquals(expected.getNormalAt(key, expectedNormal), actual.getNormalAt(key, actualNormal));
+         if (!expectedNormal.containsNaN())
+            Assertions.assertEquals(expectedNormal, actualNormal);
+      }
+   }
+}
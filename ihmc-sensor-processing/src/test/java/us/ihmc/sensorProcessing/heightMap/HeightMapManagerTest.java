@@ -7,8 +7,10 @@ import us.ihmc.euclid.tuple3D.Point3D;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
 
 import static us.ihmc.robotics.Assert.assertEquals;
+import static us.ihmc.robotics.Assert.assertTrue;
 
 public class HeightMapManagerTest
 {
@@ -66,4 +68,136 @@ public class HeightMapManagerTest
          assertEquals(height, heightMapManager.getHeightAt(location.getX(), location.getY()), 1e-5);
       }
    }
+
+   @Test
+   public void testRepeatedTranslationKeepsCellsInRange()
+   {
+      HeightMapParameters parameters = new HeightMapParameters();
+      double discretizationXY = 0.05;
+      double sizeXY = 1.0;
+      HeightMapManager heightMapManager = new HeightMapManager(parameters, discretizationXY, sizeXY);
+      heightMapManager.resetAtGridCenter(0.0, 0.0);
+      heightMapManager.setMaxHeight(10.0);
+
+      // one point per cell, with a height that depends on the world cell index
+      int cellsPerAxis = heightMapManager.getCellsPerAxis();
+      int centerIndex = heightMapManager.getCenterIndex();
+      List<Point3D> points = new ArrayList<>();
+      for (int xIndex = 0; xIndex < cellsPerAxis; xIndex++)
+      {
+         for (int yIndex = 0; yIndex < cellsPerAxis; yIndex++)
+         {
+            double x = HeightMapTools.indexToCoordinate(xIndex, 0.0, discretizationXY, centerIndex);
+            double y = HeightMapTools.indexToCoordinate(yIndex, 0.0, discretizationXY, centerIndex);
+            points.add(new Point3D(x, y, heightAt(x, y, discretizationXY)));
+         }
+      }
+      heightMapManager.update(points.toArray(new Point3D[0]));
+      assertEquals(cellsPerAxis * cellsPerAxis, heightMapManager.getNumberOfCells());
+
+      int[][] shifts = {{3, 0}, {0, -7}, {-12, 5}, {cellsPerAxis - 1, 0}, {-(cellsPerAxis - 1), 2}, {4, 4}};
+      Point2D gridCenter = new Point2D();
+      for (int[] shift : shifts)
+      {
+         gridCenter.add(shift[0] * discretizationXY, shift[1] * discretizationXY);
+         heightMapManager.translateToNewGridCenter(gridCenter, 0.0);
+
+         for (int i = 0; i < heightMapManager.getNumberOfCells(); i++)
+         {
+            int key = heightMapManager.getKey(i);
+            double x = HeightMapTools.keyToXCoordinate(key, gridCenter.getX(), discretizationXY, centerIndex);
+            double y = HeightMapTools.keyToYCoordinate(key, gridCenter.getY(), discretizationXY, centerIndex);
+            assertEquals(heightAt(x, y, discretizationXY), heightMapManager.getHeightAt(i), 1e-10);
+            assertEquals(heightAt(x, y, discretizationXY), heightMapManager.getHeightAt(x, y), 1e-10);
+         }
+      }
+
+      // cells that were released when leaving the window have no data and can be filled again
+      int emptyCells = 0;
+      for (int xIndex = 0; xIndex < cellsPerAxis; xIndex++)
+      {
+         for (int yIndex = 0; yIndex < cellsPerAxis; yIndex++)
+         {
+            if (!heightMapManager.cellHasData(xIndex, yIndex))
+            {
+               emptyCells++;
+               double x = HeightMapTools.indexToCoordinate(xIndex, gridCenter.getX(), discretizationXY, centerIndex);
+               double y = HeightMapTools.indexToCoordinate(yIndex, gridCenter.getY(), discretizationXY, centerIndex);
+               heightMapManager.update(new Point3D[] {new Point3D(x, y, -0.1)});
+               assertEquals(-0.1, heightMapManager.getHeightAt(xIndex, yIndex), 1e-10);
+            }
+         }
+      }
+
+      assertEquals(cellsPerAxis * cellsPerAxis, heightMapManager.getNumberOfCells());
+      assertTrue(emptyCells > 0);
+   }
+
+   @Test
+   public void testParallelUpdateMatchesSerialUpdate()
+   {
+      HeightMapParameters serialParameters = new HeightMapParameters();
+      HeightMapParameters parallelParameters = new HeightMapParameters();
+      serialParameters.setNumberOfUpdateThreads(1);
+      parallelParameters.setNumberOfUpdateThreads(4);
+      double discretizationXY = 0.02;
+      double sizeXY = 5.0;
+      HeightMapManager serialManager = new HeightMapManager(serialParameters, discretizationXY, sizeXY);
+      HeightMapManager parallelManager = new HeightMapManager(parallelParameters, discretizationXY, sizeXY);
+      // more cells than the message can hold, so the cell limit is reached
+      assertTrue(serialManager.getCellsPerAxis() * serialManager.getCellsPerAxis() > HeightMapManager.maxCellCount);
+
+      Random random = new Random(3920L);
+      Point2D gridCenter = new Point2D();
+      serialManager.resetAtGridCenter(0.0, 0.0);
+      parallelManager.resetAtGridCenter(0.0, 0.0);
+
+      for (int update = 0; update < 10; update++)
+      {
+         Point3D[] pointCloud = new Point3D[20000];
+         for (int i = 0; i < pointCloud.length; i++)
+         {
+            if (i % 1000 == 0)
+               continue;
+
+            double x = gridCenter.getX() + 0.6 * sizeXY * (2.0 * random.nextDouble() - 1.0);
+            double y = gridCenter.getY() + 0.6 * sizeXY * (2.0 * random.nextDouble() - 1.0);
+            double z = 0.05 * Math.sin(3.0 * x) + 0.2 * random.nextGaussian();
+            pointCloud[i] = new Point3D(x, y, z);
+         }
+
+         serialManager.update(pointCloud);
+         parallelManager.update(pointCloud);
+         assertEquals(0, serialManager.getNumberOfUpdateThreads());
+         assertEquals(4, parallelManager.getNumberOfUpdateThreads());
+
+         assertEquals(serialManager.getNumberOfCells(), parallelManager.getNumberOfCells());
+         for (int i = 0; i < serialManager.getNumberOfCells(); i++)
+         {
+            assertEquals(serialManager.getKey(i), parallelManager.getKey(i));
+            assertEquals(serialManager.getHeightAt(i), parallelManager.getHeightAt(i), 0.0);
+         }
+
+         if (update % 3 == 2)
+         {
+            gridCenter.add(0.5 * random.nextGaussian(), 0.5 * random.nextGaussian());
+            serialManager.translateToNewGridCenter(gridCenter, serialParameters.getVarianceAddedWhenTranslating());
+            parallelManager.translateToNewGridCenter(gridCenter, parallelParameters.getVarianceAddedWhenTranslating());
+         }
+      }
+
+      // the parameter is followed on the next update
+      parallelParameters.setNumberOfUpdateThreads(2);
+      parallelManager.update(new Point3D[] {new Point3D()});
+      assertEquals(2, parallelManager.getNumberOfUpdateThreads());
+
+      parallelManager.shutdown();
+      parallelManager.update(new Point3D[] {new Point3D()});
+      assertEquals(0, parallelManager.getNumberOfUpdateThreads());
+   }
+
+   private static double heightAt(double x, double y, double discretizationXY)
+   {
+      return 0.001 * (Math.round(x / discretizationXY) + 100 * Math.round(y / discretizationXY));
+   }
 }
@@ -55,3 +55,13 @@ testDependencies {
 visualizersDependencies {
    api(ihmc.sourceSetProject("main"))
 }
+
+benchmarksDependencies {
+   api(ihmc.sourceSetProject("main"))
+
+   api("us.ihmc:ihmc-java-toolkit-benchmarks:source")
+}
+
+ihmc.sourceSetProject("benchmarks").dependencies {
+   add("annotationProcessor", "us.ihmc:ihmc-java-toolkit-benchmarks:source")
+}
@@ -0,0 +1,166 @@
+package us.ihmc.robotEnvironmentAwareness.planarRegion.benchmarks;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import controller_msgs.msg.dds.StereoVisionPointCloudMessage;
+import us.ihmc.communication.packets.StereoPointCloudCompression;
+import us.ihmc.euclid.tuple3D.Point3D;
+import us.ihmc.jOctoMap.normalEstimation.NormalEstimationParameters;
+import us.ihmc.jOctoMap.ocTree.NormalOcTree;
+import us.ihmc.jOctoMap.pointCloud.ScanCollection;
+import us.ihmc.robotEnvironmentAwareness.planarRegion.PlanarRegionSegmentationCalculator;
+import us.ihmc.robotEnvironmentAwareness.planarRegion.PlanarRegionSegmentationNodeData;
+import us.ihmc.robotEnvironmentAwareness.planarRegion.PlanarRegionSegmentationParameters;
+import us.ihmc.robotEnvironmentAwareness.planarRegion.SurfaceNormalFilterParameters;
+import us.ihmc.robotEnvironmentAwareness.slam.tools.SLAMTools;
+import us.ihmc.robotEnvironmentAwareness.ui.io.StereoVisionPointCloudDataLoader;
+
+/**
+ * Compares the serial and parallel region growing of {@link PlanarRegionSegmentationCalculator}
+ * when segmenting a whole octree from scratch.
+ * <p>
+ * The octree is built from the stereo point clouds recorded in the folder given with
+ * {@code -p pointCloudDataFolder=<path>}, in the format exported by the REA UI. When no folder is
+ * given, a scene made of a ground, a staircase and a wall is generated instead.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class PlanarRegionSegmentationCalculatorBenchmark
+{
+   private static final double OCTREE_RESOLUTION = 0.02;
+
+   @Param({""})
+   public String pointCloudDataFolder;
+
+   private NormalOcTree octree;
+   private final Point3D sensorPosition = new Point3D(0.0, 0.0, 2.0);
+   private PlanarRegionSegmentationCalculator serialCalculator;
+   private PlanarRegionSegmentationCalculator parallelCalculator;
+
+   @Setup(Level.Trial)
+   public void setup()
+   {
+      if (pointCloudDataFolder.isEmpty())
+         octree = SLAMTools.computeOctreeData(generateScene(new Random(45654L)), sensorPosition, OCTREE_RESOLUTION);
+      else
+         octree = loadOctree(new File(pointCloudDataFolder));
+
+      serialCalculator = createCalculator(false);
+      parallelCalculator = createCalculator(true);
+   }
+
+   @Setup(Level.Invocation)
+   public void clearSegmentation()
+   {
+      serialCalculator.clear();
+      parallelCalculator.clear();
+   }
+
+   @Benchmark
+   public List<PlanarRegionSegmentationNodeData> serial()
+   {
+      serialCalculator.compute(octree.getRoot());
+      return serialCalculator.getSegmentationNodeData();
+   }
+
+   @Benchmark
+   public List<PlanarRegionSegmentationNodeData> parallel()
+   {
+      parallelCalculator.compute(octree.getRoot());
+      return parallelCalculator.getSegmentationNodeData();
+   }
+
+   private PlanarRegionSegmentationCalculator createCalculator(boolean growRegionsInParallel)
+   {
+      PlanarRegionSegmentationCalculator calculator = new PlanarRegionSegmentationCalculator();
+      calculator.setGrowRegionsInParallel(growRegionsInParallel);
+      calculator.setParameters(new PlanarRegionSegmentationParameters());
+      calculator.setSurfaceNormalFilterParameters(new SurfaceNormalFilterParameters());
+      calculator.setBoundingBox(octree.getBoundingBox());
+      calculator.setSensorPosition(sensorPosition);
+      return calculator;
+   }
+
+   private NormalOcTree loadOctree(File dataFolder)
+   {
+      List<StereoVisionPointCloudMessage> messages = StereoVisionPointCloudDataLoader.getMessagesFromFile(dataFolder);
+
+      if (messages.isEmpty())
+         throw new RuntimeException("No point cloud found in " + dataFolder.getAbsolutePath());
+
+      ScanCollection scanCollection = new ScanCollection();
+      int maximumNumberOfPoints = 0;
+
+      for (StereoVisionPointCloudMessage message : messages)
+      {
+         Point3D[] pointCloud = StereoPointCloudCompression.decompressPointCloudToArray(message);
+         scanCollection.addScan(SLAMTools.toScan(Arrays.asList(pointCloud), message.getSensorPosition()));
+         sensorPosition.set(message.getSensorPosition());
+         maximumNumberOfPoints = Math.max(maximumNumberOfPoints, pointCloud.length);
+      }
+
+      scanCollection.setSubSampleSize(maximumNumberOfPoints);
+
+      NormalOcTree octree = new NormalOcTree(OCTREE_RESOLUTION);
+      octree.insertScanCollection(scanCollection, false);
+      octree.enableParallelComputationForNormals(true);
+      NormalEstimationParameters normalEstimationParameters = new NormalEstimationParameters();
+      normalEstimationParameters.setNumberOfIterations(7);
+      octree.setNormalEstimationParameters(normalEstimationParameters);
+      octree.updateNormals();
+      return octree;
+   }
+
+   private static List<Point3D> generateScene(Random random)
+   {
+      List<Point3D> points = new ArrayList<>();
+      double spacing = 0.5 * OCTREE_RESOLUTION;
+      double noise = 0.1 * OCTREE_RESOLUTION;
+
+      // Ground
+      for (double x = -2.0; x <= 1.0; x += spacing)
+      {
+         for (double y = -2.0; y <= 2.0; y += spacing)
+            points.add(new Point3D(x, y, noise * random.nextGaussian()));
+      }
+
+      // Staircase of 5 steps going up along x.
+      double stepLength = 0.3;
+      double stepHeight = 0.15;
+
+      for (int step = 0; step < 5; step++)
+      {
+         double stepStart = 1.0 + step * stepLength;
+         double stepZ = (step + 1) * stepHeight;
+
+         for (double y = -1.0; y <= 1.0; y += spacing)
+         {
+            for (double x = stepStart; x <= stepStart + stepLength; x += spacing)
+               points.add(new Point3D(x, y, stepZ + noise * random.nextGaussian()));
+            for (double z = stepZ - stepHeight; z <= stepZ; z += spacing)
+               points.add(new Point3D(stepStart + noise * random.nextGaussian(), y, z));
+         }
+      }
+
+      // Wall on the side of the staircase.
+      for (double x = -2.0; x <= 2.5; x += spacing)
+      {
+         for (double z = 0.0; z <= 1.5; z += spacing)
+            points.add(new Point3D(x, 2.0 + noise * random.nextGaussian(), z));
+      }
+
+      return points;
+   }
+}
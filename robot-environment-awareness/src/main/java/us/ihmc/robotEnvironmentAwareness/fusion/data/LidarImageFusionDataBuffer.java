@@ -7,6 +7,7 @@ import java.util.concurrent.atomic.AtomicReference;
 import boofcv.struct.calib.CameraPinholeBrown;
 import controller_msgs.msg.dds.StereoVisionPointCloudMessage;
 import us.ihmc.communication.packets.StereoPointCloudCompression;
+import us.ihmc.communication.packets.StereoPointCloudCompression.DecompressionIntermediateVariablesPackage;
 import us.ihmc.euclid.tuple3D.Point3D;
 import us.ihmc.euclid.tuple4D.Quaternion;
 import us.ihmc.messager.Messager;
@@ -33,6 +34,10 @@ public class LidarImageFusionDataBuffer
    private final AtomicReference<ImageSegmentationParameters> latestImageSegmentationParaeters;
    private final AtomicReference<LidarImageFusionData> newBuffer = new AtomicReference<>(null);
 
+   private final DecompressionIntermediateVariablesPackage decompressionVariables = new DecompressionIntermediateVariablesPackage();
+   private float[] pointCloudBuffer = new float[0];
+   private int[] colorBuffer = new int[0];
+
    public LidarImageFusionDataBuffer(Messager messager, CameraPinholeBrown intrinsic)
    {
       //intrinsicParameters = intrinsic;
@@ -55,27 +60,36 @@ public class LidarImageFusionDataBuffer
    {
       StereoVisionPointCloudMessage pointCloudMessage = latestStereoVisionPointCloudMessage.get();
 
-      Point3D[] pointCloudBuffer = StereoPointCloudCompression.decompressPointCloudToArray(pointCloudMessage);
-      int[] colorBuffer = StereoPointCloudCompression.decompressColorsToIntArray(pointCloudMessage);
+      if (colorBuffer.length < pointCloudMessage.getNumberOfPoints())
+      {
+         pointCloudBuffer = new float[3 * pointCloudMessage.getNumberOfPoints()];
+         colorBuffer = new int[pointCloudMessage.getNumberOfPoints()];
+      }
+
+      StereoPointCloudCompression.decompressPointCloud(pointCloudMessage, pointCloudBuffer, decompressionVariables);
+      StereoPointCloudCompression.decompressColors(pointCloudMessage, colorBuffer, decompressionVariables);
       Random random = new Random();
-      int numberOfPoints = pointCloudBuffer.length;
+      int numberOfPoints = pointCloudMessage.getNumberOfPoints();
 
       while (numberOfPoints > bufferSize.get())
       {
          int indexToRemove = random.nextInt(numberOfPoints);
          int lastIndex = numberOfPoints - 1;
 
-         pointCloudBuffer[indexToRemove] = pointCloudBuffer[lastIndex];
+         pointCloudBuffer[3 * indexToRemove] = pointCloudBuffer[3 * lastIndex];
+         pointCloudBuffer[3 * indexToRemove + 1] = pointCloudBuffer[3 * lastIndex + 1];
+         pointCloudBuffer[3 * indexToRemove + 2] = pointCloudBuffer[3 * lastIndex + 2];
          colorBuffer[indexToRemove] = colorBuffer[lastIndex];
 
          numberOfPoints--;
       }
 
+      // Only the points kept are turned into objects.
       Point3D[] pointCloud = new Point3D[numberOfPoints];
       int[] colors = new int[numberOfPoints];
       for (int i = 0; i < numberOfPoints; i++)
       {
-         pointCloud[i] = pointCloudBuffer[i];
+         pointCloud[i] = new Point3D(pointCloudBuffer[3 * i], pointCloudBuffer[3 * i + 1], pointCloudBuffer[3 * i + 2]);
          colors[i] = colorBuffer[i];
       }
 
@@ -0,0 +1,109 @@
+package us.ihmc.robotEnvironmentAwareness.planarRegion;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import gnu.trove.map.hash.TLongObjectHashMap;
+import us.ihmc.euclid.tuple3D.interfaces.Point3DReadOnly;
+import us.ihmc.jOctoMap.node.NormalOcTreeNode;
+
+/**
+ * Set of points within a fixed radius of the locations where the octree has changed.
+ * <p>
+ * The changed locations are hashed into a grid of cells as large as the radius such that only the
+ * locations in the 27 cells around a query point have to be tested.
+ * </p>
+ */
+class OcTreeChangeNeighborhood
+{
+   private final double radius;
+   private final double radiusSquared;
+   private final List<Point3DReadOnly> changedLocations = new ArrayList<>();
+   private final TLongObjectHashMap<List<Point3DReadOnly>> cellToChangedLocations = new TLongObjectHashMap<>();
+
+   OcTreeChangeNeighborhood(double radius)
+   {
+      this.radius = radius;
+      radiusSquared = radius * radius;
+   }
+
+   void addChangedLocation(Point3DReadOnly changedLocation)
+   {
+      changedLocations.add(changedLocation);
+
+      long cellKey = cellKey(cellIndex(changedLocation.getX()), cellIndex(changedLocation.getY()), cellIndex(changedLocation.getZ()));
+      List<Point3DReadOnly> cellLocations = cellToChangedLocations.get(cellKey);
+
+      if (cellLocations == null)
+      {
+         cellLocations = new ArrayList<>();
+         cellToChangedLocations.put(cellKey, cellLocations);
+      }
+
+      cellLocations.add(changedLocation);
+   }
+
+   double getRadius()
+   {
+      return radius;
+   }
+
+   boolean contains(NormalOcTreeNode node)
+   {
+      return contains(node.getX(), node.getY(), node.getZ());
+   }
+
+   boolean contains(double x, double y, double z)
+   {
+      int xIndex = cellIndex(x);
+      int yIndex = cellIndex(y);
+      int zIndex = cellIndex(z);
+
+      for (int i = xIndex - 1; i <= xIndex + 1; i++)
+      {
+         for (int j = yIndex - 1; j <= yIndex + 1; j++)
+         {
+            for (int k = zIndex - 1; k <= zIndex + 1; k++)
+            {
+               List<Point3DReadOnly> cellLocations = cellToChangedLocations.get(cellKey(i, j, k));
+
+               if (cellLocations == null)
+                  continue;
+
+               for (int locationIndex = 0; locationIndex < cellLocations.size(); locationIndex++)
+               {
+                  if (cellLocations.get(locationIndex).distanceSquared(x, y, z) <= radiusSquared)
+                     return true;
+               }
+            }
+         }
+      }
+
+      return false;
+   }
+
+   /**
+    * @return whether any changed location is within the radius of the bounding box of the region.
+    */
+   boolean isTouching(PlanarRegionSegmentationNodeData region)
+   {
+      for (int i = 0; i < changedLocations.size(); i++)
+      {
+         Point3DReadOnly changedLocation = changedLocations.get(i);
+         if (region.distanceSquaredFromOtherBoundingBox(changedLocation, changedLocation) <= radiusSquared)
+            return true;
+      }
+
+      return false;
+   }
+
+   private int cellIndex(double coordinate)
+   {
+      return (int) Math.floor(coordinate / radius);
+   }
+
+   private static long cellKey(int xIndex, int yIndex, int zIndex)
+   {
+      return ((xIndex & 0x1FFFFFL) << 42) | ((yIndex & 0x1FFFFFL) << 21) | (zIndex & 0x1FFFFFL);
+   }
+}
@@ -0,0 +1,114 @@
+package us.ihmc.robotEnvironmentAwareness.planarRegion;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import us.ihmc.jOctoMap.node.NormalOcTreeNode;
+import us.ihmc.jOctoMap.tools.OcTreeNearestNeighborTools;
+import us.ihmc.jOctoMap.tools.OcTreeNearestNeighborTools.NeighborActionRule;
+
+/**
+ * Stores the neighbors found within a fixed radius of octree nodes such that the neighbor searches,
+ * which are the most expensive part of the region growing, can be performed in parallel ahead of
+ * the serial growth.
+ * <p>
+ * The neighbors of a node are kept in the order they were visited by
+ * {@link OcTreeNearestNeighborTools#findRadiusNeighbors}, such that replaying them with
+ * {@link #forEachNeighbor(NormalOcTreeNode, NeighborActionRule)} is equivalent to searching them
+ * directly. The octree must not be modified while a cache is in use.
+ * </p>
+ */
+class OcTreeRadiusNeighborCache
+{
+   private final NormalOcTreeNode root;
+   private final double searchRadius;
+   private final boolean searchInParallel;
+   private final Map<NormalOcTreeNode, NormalOcTreeNode[]> neighborsMap = new HashMap<>();
+
+   /**
+    * @param root             the root of the octree to search.
+    * @param searchRadius     the radius used for every neighbor search.
+    * @param searchInParallel when {@code false}, nothing is cached and the neighbors are searched
+    *                         directly when needed.
+    */
+   OcTreeRadiusNeighborCache(NormalOcTreeNode root, double searchRadius, boolean searchInParallel)
+   {
+      this.root = root;
+      this.searchRadius = searchRadius;
+      this.searchInParallel = searchInParallel;
+   }
+
+   /**
+    * @return whether {@link #prefetch(List)} should be called for the given node before visiting its
+    *         neighbors.
+    */
+   boolean isPrefetchNeeded(NormalOcTreeNode node)
+   {
+      return searchInParallel && !neighborsMap.containsKey(node);
+   }
+
+   /**
+    * Searches in parallel the neighbors of the given nodes that are not cached yet.
+    */
+   void prefetch(List<NormalOcTreeNode> nodes)
+   {
+      if (!searchInParallel)
+         return;
+
+      Set<NormalOcTreeNode> nodesToSearchSet = new HashSet<>();
+      List<NormalOcTreeNode> nodesToSearch = new ArrayList<>();
+
+      for (int i = 0; i < nodes.size(); i++)
+      {
+         NormalOcTreeNode node = nodes.get(i);
+         if (!neighborsMap.containsKey(node) && nodesToSearchSet.add(node))
+            nodesToSearch.add(node);
+      }
+
+      NormalOcTreeNode[][] neighbors = new NormalOcTreeNode[nodesToSearch.size()][];
+      IntStream.range(0, nodesToSearch.size()).parallel().forEach(i -> neighbors[i] = searchNeighbors(nodesToSearch.get(i)));
+
+      for (int i = 0; i < nodesToSearch.size(); i++)
+         neighborsMap.put(nodesToSearch.get(i), neighbors[i]);
+   }
+
+   /**
+    * Calls the action on each neighbor of the given node, in the same order as
+    * {@link OcTreeNearestNeighborTools#findRadiusNeighbors}.
+    */
+   void forEachNeighbor(NormalOcTreeNode node, NeighborActionRule<NormalOcTreeNode> actionRule)
+   {
+      if (!searchInParallel)
+      {
+         OcTreeNearestNeighborTools.findRadiusNeighbors(root, node, searchRadius, actionRule);
+         return;
+      }
+
+      NormalOcTreeNode[] neighbors = neighborsMap.get(node);
+
+      if (neighbors == null)
+      {
+         neighbors = searchNeighbors(node);
+         neighborsMap.put(node, neighbors);
+      }
+
+      for (NormalOcTreeNode neighbor : neighbors)
+      {
+         if (actionRule.earlyAbort())
+            return;
+         actionRule.doActionOnNeighbor(neighbor);
+      }
+   }
+
+   private NormalOcTreeNode[] searchNeighbors(NormalOcTreeNode node)
+   {
+      List<NormalOcTreeNode> neighbors = new ArrayList<>();
+      OcTreeNearestNeighborTools.findRadiusNeighbors(root, node, searchRadius, neighbors::add);
+      return neighbors.toArray(new NormalOcTreeNode[neighbors.size()]);
+   }
+}
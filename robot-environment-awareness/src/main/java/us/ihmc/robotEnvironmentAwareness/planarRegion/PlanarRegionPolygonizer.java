@@ -1,10 +1,13 @@
 package us.ihmc.robotEnvironmentAwareness.planarRegion;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.function.IntPredicate;
 import java.util.stream.Collectors;
 
 import com.vividsolutions.jts.triangulate.quadedge.LocateFailureException;
+import gnu.trove.map.hash.TIntObjectHashMap;
 import us.ihmc.euclid.geometry.ConvexPolygon2D;
 import us.ihmc.euclid.geometry.LineSegment2D;
 import us.ihmc.euclid.transform.RigidBodyTransform;
@@ -36,27 +39,49 @@ public abstract class PlanarRegionPolygonizer
       return new PlanarRegionsList(createPlanarRegions(rawData, concaveHullFactoryParameters, polygonizerParameters, dataExporter));
    }
 
+   /**
+    * Creates the planar regions only for the raw data of the regions that have been updated, the
+    * planar regions created for the other regions during a previous call are reused.
+    *
+    * @param isRegionUpdated   whether the region with the given id has changed since its planar
+    *                          regions were put in the cache.
+    * @param planarRegionCache maps the region ids to the planar regions created for them. It is
+    *                          updated with the new planar regions and cleared of the regions that are
+    *                          not part of {@code rawData} anymore. Modified.
+    */
+   public static PlanarRegionsList createPlanarRegionsList(List<PlanarRegionSegmentationRawData> rawData, IntPredicate isRegionUpdated,
+                                                           TIntObjectHashMap<List<PlanarRegion>> planarRegionCache,
+                                                           ConcaveHullFactoryParameters concaveHullFactoryParameters,
+                                                           PolygonizerParameters polygonizerParameters, PlanarRegionSegmentationDataExporter dataExporter)
+   {
+      List<List<PlanarRegion>> regions = rawData.parallelStream().map(data ->
+      {
+         List<PlanarRegion> cachedRegions = isRegionUpdated.test(data.getRegionId()) ? null : planarRegionCache.get(data.getRegionId());
+         if (cachedRegions != null)
+            return cachedRegions;
+         else
+            return createPlanarRegionsIfValid(data, concaveHullFactoryParameters, polygonizerParameters, dataExporter);
+      }).collect(Collectors.toList());
+
+      planarRegionCache.clear();
+      List<PlanarRegion> flattenedRegions = new ArrayList<>();
+
+      for (int i = 0; i < rawData.size(); i++)
+      {
+         planarRegionCache.put(rawData.get(i).getRegionId(), regions.get(i));
+         flattenedRegions.addAll(regions.get(i));
+      }
+
+      return new PlanarRegionsList(flattenedRegions);
+   }
+
    private static List<PlanarRegion> createPlanarRegions(List<PlanarRegionSegmentationRawData> rawData,
                                                          ConcaveHullFactoryParameters concaveHullFactoryParameters, PolygonizerParameters polygonizerParameters,
                                                          PlanarRegionSegmentationDataExporter dataExporter)
    {
-      List<List<PlanarRegion>> regions = rawData.parallelStream().filter(data -> data.size() >= polygonizerParameters.getMinNumberOfNodes())
-                                                .map(data ->
-                                                     {
-                                                        List<PlanarRegion> planarRegion;
-                                                        try
-                                                        {
-                                                           planarRegion = createPlanarRegion(data, concaveHullFactoryParameters,
-                                                                                             polygonizerParameters, dataExporter);
-                                                        }
-                                                        catch (LocateFailureException e)
-                                                        {
-                                                           LogTools.warn("Locate failed to converge.");
-                                                           planarRegion = new ArrayList<>();
-                                                        }
-                                                        return planarRegion;
-                                                     })
-                                                .filter(region -> region != null).collect(Collectors.toList());
+      List<List<PlanarRegion>> regions = rawData.parallelStream()
+                                                .map(data -> createPlanarRegionsIfValid(data, concaveHullFactoryParameters, polygonizerParameters, dataExporter))
+                                                .collect(Collectors.toList());
 
       List<PlanarRegion> flattenedRegions = new ArrayList<>();
       for (List<PlanarRegion> regionsSublist : regions)
@@ -66,6 +91,30 @@ public abstract class PlanarRegionPolygonizer
       return flattenedRegions;
    }
 
+   /**
+    * @return the planar regions for the raw data, or an empty list if the raw data is too small or
+    *         the polygonization failed.
+    */
+   private static List<PlanarRegion> createPlanarRegionsIfValid(PlanarRegionSegmentationRawData rawData,
+                                                                ConcaveHullFactoryParameters concaveHullFactoryParameters,
+                                                                PolygonizerParameters polygonizerParameters, PlanarRegionSegmentationDataExporter dataExporter)
+   {
+      if (rawData.size() < polygonizerParameters.getMinNumberOfNodes())
+         return Collections.emptyList();
+
+      List<PlanarRegion> planarRegions;
+      try
+      {
+         planarRegions = createPlanarRegion(rawData, concaveHullFactoryParameters, polygonizerParameters, dataExporter);
+      }
+      catch (LocateFailureException e)
+      {
+         LogTools.warn("Locate failed to converge.");
+         planarRegions = null;
+      }
+      return planarRegions == null ? Collections.emptyList() : planarRegions;
+   }
+
    private static List<PlanarRegion> createPlanarRegion(PlanarRegionSegmentationRawData rawData, ConcaveHullFactoryParameters concaveHullFactoryParameters,
                                                         PolygonizerParameters polygonizerParameters, PlanarRegionSegmentationDataExporter dataExporter)
    {
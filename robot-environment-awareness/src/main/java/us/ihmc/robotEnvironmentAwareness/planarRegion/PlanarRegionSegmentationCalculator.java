@@ -2,9 +2,12 @@ package us.ihmc.robotEnvironmentAwareness.planarRegion;
 
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Deque;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
@@ -13,13 +16,17 @@ import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.mutable.MutableBoolean;
 
+import gnu.trove.set.hash.TIntHashSet;
 import us.ihmc.euclid.tuple3D.Vector3D;
 import us.ihmc.euclid.tuple3D.interfaces.Tuple3DReadOnly;
 import us.ihmc.jOctoMap.boundingBox.OcTreeBoundingBoxInterface;
 import us.ihmc.jOctoMap.iterators.OcTreeIterable;
 import us.ihmc.jOctoMap.iterators.OcTreeIteratorFactory;
+import us.ihmc.jOctoMap.key.OcTreeKey;
 import us.ihmc.jOctoMap.node.NormalOcTreeNode;
+import us.ihmc.jOctoMap.ocTree.NormalOcTree;
 import us.ihmc.jOctoMap.rules.interfaces.IteratorSelectionRule;
+import us.ihmc.jOctoMap.tools.OcTreeKeyConversionTools;
 import us.ihmc.jOctoMap.tools.OcTreeNearestNeighborTools;
 import us.ihmc.jOctoMap.tools.OcTreeNearestNeighborTools.NeighborActionRule;
 import us.ihmc.robotEnvironmentAwareness.exception.PlanarRegionSegmentationException;
@@ -27,8 +34,15 @@ import us.ihmc.robotics.geometry.PlanarRegion;
 
 public class PlanarRegionSegmentationCalculator
 {
+   /** Number of nodes from the front of the exploration queue for which the neighbors are searched at once when growing a region. */
+   private static final int NEIGHBOR_SEARCH_BATCH_SIZE = 256;
+   /** Distance the sensor can move before the surface normal filter requires the entire segmentation to be recomputed. */
+   private static final double SENSOR_POSITION_TOLERANCE = 0.05;
+
    private final Random random = new Random(234324L);
 
+   private boolean growRegionsInParallel = true;
+
    private final Set<NormalOcTreeNode> allRegionNodes = new HashSet<>();
    private List<PlanarRegionSegmentationNodeData> regionsNodeData = new ArrayList<>();
    private final List<NormalOcTreeNode> nodesWithoutRegion = new ArrayList<>();
@@ -39,6 +53,13 @@ public class PlanarRegionSegmentationCalculator
 
    private Vector3D estimatedSensorPosition = new Vector3D();
 
+   /** Ids of the regions that were created or modified during the last update. */
+   private final TIntHashSet updatedRegionIds = new TIntHashSet();
+   /** Inputs of the last update, {@code null} when the regions have changed since such that they all have to be updated. */
+   private PlanarRegionSegmentationParameters lastParameters = null;
+   private SurfaceNormalFilterParameters lastSurfaceNormalFilterParameters = null;
+   private final Vector3D lastSensorPosition = new Vector3D();
+
    public void compute(NormalOcTreeNode root)
    {
       allRegionNodes.clear();
@@ -46,7 +67,8 @@ public class PlanarRegionSegmentationCalculator
       regionsNodeData.parallelStream().forEach(region -> removeBadNodesFromRegion(boundingBox, parameters, region));
       regionsNodeData = regionsNodeData.parallelStream().filter(region -> !region.isEmpty()).collect(Collectors.toList());
       regionsNodeData.forEach(region -> region.nodeStream().forEach(allRegionNodes::add));
-      regionsNodeData.forEach(region -> growPlanarRegion(root, region, boundingBox, parameters));
+      OcTreeRadiusNeighborCache neighborCache = newNeighborCache(root, parameters);
+      regionsNodeData.forEach(region -> growPlanarRegion(region, boundingBox, parameters, neighborCache, null));
       regionsNodeData = regionsNodeData.stream().filter(region -> region.getNumberOfNodes() > parameters.getMinRegionSize()).collect(Collectors.toList());
 
       Set<NormalOcTreeNode> nodeSet = new HashSet<>();
@@ -57,12 +79,152 @@ public class PlanarRegionSegmentationCalculator
       nodesWithoutRegion.clear();
       nodesWithoutRegion.addAll(nodeSet);
 
-      regionsNodeData.addAll(searchNewPlanarRegions(root, boundingBox, parameters, random));
+      regionsNodeData.addAll(searchNewPlanarRegions(root, boundingBox, parameters, random, neighborCache));
       regionsNodeData.parallelStream().forEach(PlanarRegionSegmentationNodeData::recomputeNormalAndOrigin);
       regionsNodeData.parallelStream().forEach(PlanarRegionSegmentationCalculator::flipNormalOfOutliers);
       regionsNodeData = regionsNodeData.parallelStream().filter(region -> !isRegionSparse(region)).collect(Collectors.toList());
 
       regionsNodeData = mergePlanarRegionsIfPossible(root, regionsNodeData, parameters);
+
+      updatedRegionIds.clear();
+      regionsNodeData.forEach(region -> updatedRegionIds.add(region.getId()));
+      saveInputsOfLastUpdate();
+   }
+
+   /**
+    * Updates the segmentation only around the nodes that have changed since the last update, the
+    * regions away from the changes are kept as they are.
+    * <p>
+    * The regions touching the changes are cleaned up and grown again from their nodes close to the
+    * changes, and new regions are only searched from the seeds close to the changes. Such that the
+    * cost of an update depends on the number of changed nodes rather than on the size of the octree.
+    * </p>
+    * <p>
+    * The entire segmentation is recomputed with {@link #compute(NormalOcTreeNode)} when there is no
+    * previous update to start from, or when the parameters or the sensor position used by the surface
+    * normal filter have changed. The bounding box is expected to be the same as for the previous
+    * update.
+    * </p>
+    *
+    * @param octree                the octree to segment.
+    * @param changedNodeKeys       the keys of the nodes that have been updated or deleted since the
+    *                              last update.
+    * @param changeInfluenceRadius the distance from a changed node up to which the normals of the
+    *                              other nodes may have been affected, typically the search radius used
+    *                              for estimating the normals.
+    */
+   public void computeIncrementally(NormalOcTree octree, Collection<OcTreeKey> changedNodeKeys, double changeInfluenceRadius)
+   {
+      NormalOcTreeNode root = octree.getRoot();
+
+      if (!canUpdateIncrementally())
+      {
+         compute(root);
+         return;
+      }
+
+      updatedRegionIds.clear();
+
+      if (changedNodeKeys.isEmpty())
+         return;
+
+      OcTreeChangeNeighborhood changeNeighborhood = new OcTreeChangeNeighborhood(parameters.getSearchRadius() + changeInfluenceRadius);
+      List<NormalOcTreeNode> changedNodes = new ArrayList<>();
+
+      for (OcTreeKey changedNodeKey : changedNodeKeys)
+      {
+         changeNeighborhood.addChangedLocation(OcTreeKeyConversionTools.keyToCoordinate(changedNodeKey, octree.getResolution(), octree.getTreeDepth()));
+         NormalOcTreeNode changedNode = octree.search(changedNodeKey);
+         if (changedNode != null)
+            changedNodes.add(changedNode);
+      }
+
+      Map<Boolean, List<PlanarRegionSegmentationNodeData>> touchedAndUntouchedRegions = regionsNodeData.parallelStream()
+                                                                                                         .collect(Collectors.partitioningBy(changeNeighborhood::isTouching));
+      List<PlanarRegionSegmentationNodeData> regionsToUpdate = touchedAndUntouchedRegions.get(true);
+      List<PlanarRegionSegmentationNodeData> untouchedRegions = new ArrayList<>(touchedAndUntouchedRegions.get(false));
+
+      allRegionNodes.clear();
+      untouchedRegions.forEach(region -> region.nodeStream().forEach(allRegionNodes::add));
+
+      regionsToUpdate.parallelStream().forEach(region -> removeBadNodesFromRegion(boundingBox, parameters, region));
+      regionsToUpdate = regionsToUpdate.parallelStream().filter(region -> !region.isEmpty()).collect(Collectors.toList());
+      regionsToUpdate.forEach(region -> region.nodeStream().forEach(allRegionNodes::add));
+      OcTreeRadiusNeighborCache neighborCache = newNeighborCache(root, parameters);
+      regionsToUpdate.forEach(region -> growPlanarRegion(region, boundingBox, parameters, neighborCache, changeNeighborhood));
+      regionsToUpdate = regionsToUpdate.stream().filter(region -> region.getNumberOfNodes() > parameters.getMinRegionSize()).collect(Collectors.toList());
+
+      nodesWithoutRegion.clear();
+      nodesWithoutRegion.addAll(findNodesWithoutRegionAroundChanges(root, changedNodes, changeNeighborhood));
+
+      regionsToUpdate.addAll(searchNewPlanarRegions(root, boundingBox, parameters, random, neighborCache));
+      regionsToUpdate.parallelStream().forEach(PlanarRegionSegmentationNodeData::recomputeNormalAndOrigin);
+      regionsToUpdate.parallelStream().forEach(PlanarRegionSegmentationCalculator::flipNormalOfOutliers);
+      regionsToUpdate = regionsToUpdate.parallelStream().filter(region -> !isRegionSparse(region)).collect(Collectors.toList());
+
+      regionsToUpdate = mergeUpdatedPlanarRegionsIfPossible(root, regionsToUpdate, untouchedRegions, parameters);
+
+      regionsToUpdate.forEach(region -> updatedRegionIds.add(region.getId()));
+      regionsNodeData = new ArrayList<>(untouchedRegions);
+      regionsNodeData.addAll(regionsToUpdate);
+      saveInputsOfLastUpdate();
+   }
+
+   private boolean canUpdateIncrementally()
+   {
+      if (lastParameters == null || parameters != lastParameters || surfaceNormalFilterParameters != lastSurfaceNormalFilterParameters)
+         return false;
+      if (surfaceNormalFilterParameters.isUseSurfaceNormalFilter() && !estimatedSensorPosition.epsilonEquals(lastSensorPosition, SENSOR_POSITION_TOLERANCE))
+         return false;
+      return true;
+   }
+
+   private void saveInputsOfLastUpdate()
+   {
+      lastParameters = parameters;
+      lastSurfaceNormalFilterParameters = surfaceNormalFilterParameters;
+      lastSensorPosition.set(estimatedSensorPosition);
+   }
+
+   /**
+    * Collects the nodes in the bounding box with a normal that are close to the changes and do not
+    * belong to any region yet.
+    */
+   private Set<NormalOcTreeNode> findNodesWithoutRegionAroundChanges(NormalOcTreeNode root, List<NormalOcTreeNode> changedNodes,
+                                                                   OcTreeChangeNeighborhood changeNeighborhood)
+   {
+      double searchRadius = changeNeighborhood.getRadius();
+      List<List<NormalOcTreeNode>> neighbors = changedNodes.parallelStream().map(changedNode ->
+      {
+         List<NormalOcTreeNode> changedNodeNeighbors = new ArrayList<>();
+         OcTreeNearestNeighborTools.findRadiusNeighbors(root, changedNode, searchRadius, changedNodeNeighbors::add);
+         return changedNodeNeighbors;
+      }).collect(Collectors.toList());
+
+      Set<NormalOcTreeNode> nodesWithoutRegion = new LinkedHashSet<>();
+
+      for (List<NormalOcTreeNode> changedNodeNeighbors : neighbors)
+      {
+         for (NormalOcTreeNode node : changedNodeNeighbors)
+         {
+            if (node.isNormalSet() && isNodeInBoundingBox(node, boundingBox) && !allRegionNodes.contains(node))
+               nodesWithoutRegion.add(node);
+         }
+      }
+
+      return nodesWithoutRegion;
+   }
+
+   /**
+    * Whether the region with the given id has been created or modified during the last update.
+    * <p>
+    * When the last update was {@link #computeIncrementally(NormalOcTree, Collection, double)}, the
+    * regions that are not updated are exactly the same as before.
+    * </p>
+    */
+   public boolean isRegionUpdated(int regionId)
+   {
+      return updatedRegionIds.contains(regionId);
    }
 
    public boolean isRegionSparse(PlanarRegionSegmentationNodeData region)
@@ -77,6 +239,16 @@ public class PlanarRegionSegmentationCalculator
    public void removeDeadNodes()
    {
       regionsNodeData.stream().forEach(region -> removeDeadNodesFromRegion(region));
+      requestFullUpdate();
+   }
+
+   /**
+    * Forces the next update to recompute the entire segmentation, to be called whenever changes to
+    * the octree are not passed to {@link #computeIncrementally(NormalOcTree, Collection, double)}.
+    */
+   public void requestFullUpdate()
+   {
+      lastParameters = null;
    }
 
    public List<PlanarRegionSegmentationNodeData> getSegmentationNodeData()
@@ -92,6 +264,7 @@ public class PlanarRegionSegmentationCalculator
    public void clear()
    {
       regionsNodeData.clear();
+      requestFullUpdate();
    }
 
    private IteratorSelectionRule<NormalOcTreeNode> leafInBoundingBoxWithNormalSetRule(OcTreeBoundingBoxInterface boundingBox)
@@ -143,6 +316,49 @@ public class PlanarRegionSegmentationCalculator
       return mergedRegions;
    }
 
+   /**
+    * Same as {@link #mergePlanarRegionsIfPossible(NormalOcTreeNode, List, PlanarRegionSegmentationParameters)} except that only the
+    * pairs involving at least one updated region are tested.
+    *
+    * @param updatedRegions the regions that have been updated. Not modified.
+    * @param otherRegions   the regions that have not been updated, the regions merged onto an updated
+    *                       region are removed from this list. Modified.
+    * @return the updated regions after merging.
+    */
+   private static List<PlanarRegionSegmentationNodeData> mergeUpdatedPlanarRegionsIfPossible(NormalOcTreeNode root,
+                                                                                             List<PlanarRegionSegmentationNodeData> updatedRegions,
+                                                                                             List<PlanarRegionSegmentationNodeData> otherRegions,
+                                                                                             PlanarRegionSegmentationParameters parameters)
+   {
+      List<PlanarRegionSegmentationNodeData> mergedRegions = new ArrayList<>();
+
+      while (!updatedRegions.isEmpty())
+      {
+         PlanarRegionSegmentationNodeData candidateForMergeOtherRegions = updatedRegions.get(0);
+         Map<Boolean, List<PlanarRegionSegmentationNodeData>> mergeableAndNonMergeableUpdatedRegions = updatedRegions.subList(1, updatedRegions.size())
+                                                                                                                     .parallelStream()
+                                                                                                                     .collect(Collectors.partitioningBy(other -> areRegionsMergeable(root,
+                                                                                                                                                                                     candidateForMergeOtherRegions,
+                                                                                                                                                                                     other,
+                                                                                                                                                                                     parameters)));
+         List<PlanarRegionSegmentationNodeData> mergeableOtherRegions = otherRegions.parallelStream()
+                                                                                    .filter(other -> areRegionsMergeable(root,
+                                                                                                                         candidateForMergeOtherRegions,
+                                                                                                                         other,
+                                                                                                                         parameters))
+                                                                                    .collect(Collectors.toList());
+
+         mergeableAndNonMergeableUpdatedRegions.get(true).forEach(candidateForMergeOtherRegions::addNodesFromOtherRegion);
+         mergeableOtherRegions.forEach(candidateForMergeOtherRegions::addNodesFromOtherRegion);
+         otherRegions.removeAll(mergeableOtherRegions);
+
+         updatedRegions = mergeableAndNonMergeableUpdatedRegions.get(false);
+         mergedRegions.add(candidateForMergeOtherRegions);
+      }
+
+      return mergedRegions;
+   }
+
    public static boolean areRegionsMergeable(NormalOcTreeNode root, PlanarRegionSegmentationNodeData currentRegion,
                                              PlanarRegionSegmentationNodeData potentialRegionToMerge, PlanarRegionSegmentationParameters parameters)
    {
@@ -210,20 +426,35 @@ public class PlanarRegionSegmentationCalculator
 
    public List<PlanarRegionSegmentationNodeData> searchNewPlanarRegions(NormalOcTreeNode root, OcTreeBoundingBoxInterface boundingBox,
                                                                         PlanarRegionSegmentationParameters parameters, Random random)
+   {
+      return searchNewPlanarRegions(root, boundingBox, parameters, random, newNeighborCache(root, parameters));
+   }
+
+   private List<PlanarRegionSegmentationNodeData> searchNewPlanarRegions(NormalOcTreeNode root, OcTreeBoundingBoxInterface boundingBox,
+                                                                         PlanarRegionSegmentationParameters parameters, Random random,
+                                                                         OcTreeRadiusNeighborCache neighborCache)
    {
       List<PlanarRegionSegmentationNodeData> newRegions = new ArrayList<>();
 
       float minNormalQuality = (float) parameters.getMinNormalQuality();
+      List<NormalOcTreeNode> seedNodes = new ArrayList<>();
 
       for (NormalOcTreeNode node : nodesWithoutRegion)
       {
          if (node.getNormalAverageDeviation() > minNormalQuality)
             continue;
+         seedNodes.add(node);
+      }
+
+      // Each seed starts a new region, so the neighbors of all the seeds are searched at once.
+      neighborCache.prefetch(seedNodes);
 
+      for (NormalOcTreeNode node : seedNodes)
+      {
          int regionId = PlanarRegion.NO_REGION_ID;
          while (regionId == PlanarRegion.NO_REGION_ID)
             regionId = random.nextInt(Integer.MAX_VALUE);
-         PlanarRegionSegmentationNodeData region = createNewOcTreeNodePlanarRegion(root, node, regionId, boundingBox, parameters);
+         PlanarRegionSegmentationNodeData region = createNewOcTreeNodePlanarRegion(root, node, regionId, boundingBox, parameters, neighborCache);
 
          if (region.getNumberOfNodes() > parameters.getMinRegionSize())
             newRegions.add(region);
@@ -235,28 +466,54 @@ public class PlanarRegionSegmentationCalculator
    public PlanarRegionSegmentationNodeData createNewOcTreeNodePlanarRegion(NormalOcTreeNode root, NormalOcTreeNode seedNode, int regionId,
                                                                            OcTreeBoundingBoxInterface boundingBox,
                                                                            PlanarRegionSegmentationParameters parameters)
+   {
+      return createNewOcTreeNodePlanarRegion(root, seedNode, regionId, boundingBox, parameters, newNeighborCache(root, parameters));
+   }
+
+   private PlanarRegionSegmentationNodeData createNewOcTreeNodePlanarRegion(NormalOcTreeNode root, NormalOcTreeNode seedNode, int regionId,
+                                                                            OcTreeBoundingBoxInterface boundingBox,
+                                                                            PlanarRegionSegmentationParameters parameters,
+                                                                            OcTreeRadiusNeighborCache neighborCache)
    {
       PlanarRegionSegmentationNodeData newRegion = new PlanarRegionSegmentationNodeData(regionId);
       newRegion.addNode(seedNode);
-      growPlanarRegion(root, newRegion, boundingBox, parameters);
+      growPlanarRegion(newRegion, boundingBox, parameters, neighborCache, null);
       return newRegion;
    }
 
+   public void growPlanarRegion(NormalOcTreeNode root, PlanarRegionSegmentationNodeData ocTreeNodePlanarRegion, OcTreeBoundingBoxInterface boundingBox,
+                                PlanarRegionSegmentationParameters parameters)
+   {
+      growPlanarRegion(ocTreeNodePlanarRegion, boundingBox, parameters, newNeighborCache(root, parameters), null);
+   }
+
    /**
+    * Grows the region by exploring breadth-first the neighbors of its nodes.
+    * <p>
+    * The neighbor searches are performed in parallel ahead of the exploration using the given cache,
+    * while the nodes are claimed by the region serially in the same order as when searching
+    * serially, such that the resulting regions do not depend on {@link #setGrowRegionsInParallel(boolean)}.
+    * </p>
+    * <p>
+    * When {@code changeNeighborhood} is not {@code null}, only the nodes of the region that are close
+    * to the changes in the octree are used to start the exploration, the neighbors of the other nodes
+    * have already been explored during the previous updates.
+    * </p>
     * TODO: 2019.10.24.
     * We need to think proper place to check that each octree node is visible from camera position or not.
     * At PR for fix/surface-normal-filter, we decided to keep the place here.
     * But we can modify the Octree library to handle this part more cleverly. 
     */
-   public void growPlanarRegion(NormalOcTreeNode root, PlanarRegionSegmentationNodeData ocTreeNodePlanarRegion, OcTreeBoundingBoxInterface boundingBox,
-                                PlanarRegionSegmentationParameters parameters)
+   private void growPlanarRegion(PlanarRegionSegmentationNodeData ocTreeNodePlanarRegion, OcTreeBoundingBoxInterface boundingBox,
+                                 PlanarRegionSegmentationParameters parameters, OcTreeRadiusNeighborCache neighborCache,
+                                 OcTreeChangeNeighborhood changeNeighborhood)
    {
-      double searchRadius = parameters.getSearchRadius();
-
       Set<NormalOcTreeNode> newSetToExplore = new HashSet<>();
 
       NeighborActionRule<NormalOcTreeNode> extendSearchRule = neighborNode -> recordCandidatesForRegion(neighborNode, ocTreeNodePlanarRegion, newSetToExplore,
                                                                                                         boundingBox, parameters);
+      List<NormalOcTreeNode> regionNodesToExpand;
+
       if (surfaceNormalFilterParameters.isUseSurfaceNormalFilter() && !estimatedSensorPosition.containsNaN())
       {
          double surfaceNormalLowerBound = surfaceNormalFilterParameters.getSurfaceNormalLowerBound();
@@ -264,17 +521,24 @@ public class PlanarRegionSegmentationCalculator
          double lowerBound = Math.cos(surfaceNormalLowerBound) * Math.signum(surfaceNormalLowerBound);
          double upperBound = Math.cos(surfaceNormalUpperBound) * Math.signum(surfaceNormalUpperBound);
 
-         ocTreeNodePlanarRegion.nodeStream() // TODO This should be in parallel, but the previous lambda makes threads share data which is no good.
-                               .filter(node -> isNodeInBoundingBox(node, boundingBox)
-                                     && isNodeSurfaceNormalInBoundary(node, estimatedSensorPosition, lowerBound, upperBound))
-                               .forEach(regionNode -> OcTreeNearestNeighborTools.findRadiusNeighbors(root, regionNode, searchRadius, extendSearchRule));
+         regionNodesToExpand = ocTreeNodePlanarRegion.nodeParallelStream()
+                                                     .filter(node -> isNodeInBoundingBox(node, boundingBox)
+                                                           && (changeNeighborhood == null || changeNeighborhood.contains(node))
+                                                           && isNodeSurfaceNormalInBoundary(node, estimatedSensorPosition, lowerBound, upperBound))
+                                                     .collect(Collectors.toList());
       }
       else
       {
-         ocTreeNodePlanarRegion.nodeStream() // TODO This should be in parallel, but the previous lambda makes threads share data which is no good.
-                               .filter(node -> isNodeInBoundingBox(node, boundingBox))
-                               .forEach(regionNode -> OcTreeNearestNeighborTools.findRadiusNeighbors(root, regionNode, searchRadius, extendSearchRule));
+         regionNodesToExpand = ocTreeNodePlanarRegion.nodeParallelStream()
+                                                     .filter(node -> isNodeInBoundingBox(node, boundingBox)
+                                                           && (changeNeighborhood == null || changeNeighborhood.contains(node)))
+                                                     .collect(Collectors.toList());
       }
+
+      // The candidates depend on the nodes already claimed, so they are recorded serially from the neighbors found in parallel.
+      neighborCache.prefetch(regionNodesToExpand);
+      regionNodesToExpand.forEach(regionNode -> neighborCache.forEachNeighbor(regionNode, extendSearchRule));
+
       Deque<NormalOcTreeNode> nodesToExplore = new ArrayDeque<>(newSetToExplore);
 
       while (!nodesToExplore.isEmpty())
@@ -283,12 +547,41 @@ public class PlanarRegionSegmentationCalculator
          if (!ocTreeNodePlanarRegion.addNode(currentNode)) // TODO This updates the region normal based on the average of the nodes' normals, can very likely be improved.
             continue;
          allRegionNodes.add(currentNode);
+
+         if (neighborCache.isPrefetchNeeded(currentNode))
+            neighborCache.prefetch(nextNodesToExplore(currentNode, nodesToExplore, ocTreeNodePlanarRegion));
+
          newSetToExplore.clear();
-         OcTreeNearestNeighborTools.findRadiusNeighbors(root, currentNode, searchRadius, extendSearchRule);
+         neighborCache.forEachNeighbor(currentNode, extendSearchRule);
          nodesToExplore.addAll(newSetToExplore);
       }
    }
 
+   /**
+    * Every node in the exploration queue that is not part of the region yet is going to be added to
+    * it and have its neighbors visited, so these can be searched ahead of time.
+    */
+   private static List<NormalOcTreeNode> nextNodesToExplore(NormalOcTreeNode currentNode, Deque<NormalOcTreeNode> nodesToExplore,
+                                                            PlanarRegionSegmentationNodeData region)
+   {
+      List<NormalOcTreeNode> nextNodes = new ArrayList<>();
+      nextNodes.add(currentNode);
+
+      for (Iterator<NormalOcTreeNode> iterator = nodesToExplore.iterator(); iterator.hasNext() && nextNodes.size() < NEIGHBOR_SEARCH_BATCH_SIZE;)
+      {
+         NormalOcTreeNode node = iterator.next();
+         if (!region.contains(node))
+            nextNodes.add(node);
+      }
+
+      return nextNodes;
+   }
+
+   private OcTreeRadiusNeighborCache newNeighborCache(NormalOcTreeNode root, PlanarRegionSegmentationParameters parameters)
+   {
+      return new OcTreeRadiusNeighborCache(root, parameters.getSearchRadius(), growRegionsInParallel);
+   }
+
    public void recordCandidatesForRegion(NormalOcTreeNode neighborNode, PlanarRegionSegmentationNodeData region, Set<NormalOcTreeNode> newSetToExplore,
                                          OcTreeBoundingBoxInterface boundingBox, PlanarRegionSegmentationParameters parameters)
    {
@@ -367,6 +660,15 @@ public class PlanarRegionSegmentationCalculator
       return isVisible;
    }
 
+   /**
+    * Sets whether the neighbor searches performed when growing the regions are run in parallel. The
+    * resulting regions are the same either way.
+    */
+   public void setGrowRegionsInParallel(boolean growRegionsInParallel)
+   {
+      this.growRegionsInParallel = growRegionsInParallel;
+   }
+
    public void setParameters(PlanarRegionSegmentationParameters parameters)
    {
       this.parameters = parameters;
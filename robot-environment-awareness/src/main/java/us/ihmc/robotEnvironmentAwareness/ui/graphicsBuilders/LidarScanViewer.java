@@ -9,6 +9,7 @@ import javafx.scene.paint.Material;
 import javafx.scene.paint.PhongMaterial;
 import javafx.scene.shape.MeshView;
 import us.ihmc.communication.packets.LidarPointCloudCompression;
+import us.ihmc.communication.packets.LidarPointCloudCompression.DecompressionIntermediateVariablesPackage;
 import us.ihmc.euclid.tuple3D.Point3D32;
 import us.ihmc.graphicsDescription.MeshDataGenerator;
 import us.ihmc.messager.MessagerAPIFactory.Topic;
@@ -25,6 +26,10 @@ public class LidarScanViewer extends AbstractSourceViewer<LidarScanMessage>
 
    private static final Material defaultMaterial = new PhongMaterial(Color.DARKRED);
 
+   private final DecompressionIntermediateVariablesPackage decompressionVariables = new DecompressionIntermediateVariablesPackage();
+   private float[] pointCloudBuffer = new float[0];
+   private final Point3D32 scanPoint = new Point3D32();
+
    public LidarScanViewer(Topic<LidarScanMessage> messageState, REAUIMessager uiMessager, Topic<Boolean> enableTopic, Topic<Boolean> clearTopic)
    {
       super(messageState, uiMessager, enableTopic, clearTopic);
@@ -68,16 +73,21 @@ public class LidarScanViewer extends AbstractSourceViewer<LidarScanMessage>
       if (message == null)
          return;
 
-      Point3D32 scanPoint = new Point3D32();
       meshBuilder.clear();
       int numberOfScanPoints = message.getNumberOfPoints();
-      LidarPointCloudCompression.decompressPointCloud(message.getScan(), numberOfScanPoints, (i, x, y, z) ->
+
+      if (pointCloudBuffer.length < 3 * numberOfScanPoints)
+         pointCloudBuffer = new float[3 * numberOfScanPoints];
+
+      LidarPointCloudCompression.decompressPointCloud(message.getScan(), numberOfScanPoints, pointCloudBuffer, decompressionVariables);
+
+      for (int i = 0; i < numberOfScanPoints; i++)
       {
          double alpha = i / (double) numberOfScanPoints;
          Color color = Color.hsb(alpha * 240.0, 1.0, 1.0);
-         scanPoint.set(x, y, z);
+         scanPoint.set(pointCloudBuffer[3 * i], pointCloudBuffer[3 * i + 1], pointCloudBuffer[3 * i + 2]);
          meshBuilder.addMesh(MeshDataGenerator.Tetrahedron(SCAN_POINT_SIZE), scanPoint, color);
-      });
+      }
 
 
       MeshView scanMeshView = new MeshView(meshBuilder.generateMesh());
@@ -7,6 +7,7 @@ import controller_msgs.msg.dds.StereoVisionPointCloudMessage;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.MeshView;
 import us.ihmc.communication.packets.StereoPointCloudCompression;
+import us.ihmc.communication.packets.StereoPointCloudCompression.DecompressionIntermediateVariablesPackage;
 import us.ihmc.euclid.tuple3D.Point3D32;
 import us.ihmc.graphicsDescription.MeshDataGenerator;
 import us.ihmc.messager.MessagerAPIFactory.Topic;
@@ -17,6 +18,11 @@ public class StereoVisionPointCloudViewer extends AbstractSourceViewer<StereoVis
 {
    private final AtomicReference<Integer> sizeOfPointCloud;
 
+   private final DecompressionIntermediateVariablesPackage decompressionVariables = new DecompressionIntermediateVariablesPackage();
+   private float[] pointCloudBuffer = new float[0];
+   private int[] colorBuffer = new int[0];
+   private final Point3D32 scanPoint = new Point3D32();
+
    public StereoVisionPointCloudViewer(Topic<StereoVisionPointCloudMessage> messageState, REAUIMessager uiMessager, Topic<Boolean> enableTopic, Topic<Boolean> clearTopic,
                                        Topic<Integer> sizeTopic)
    {
@@ -44,11 +50,17 @@ public class StereoVisionPointCloudViewer extends AbstractSourceViewer<StereoVis
    @Override
    public void unpackPointCloud(StereoVisionPointCloudMessage message)
    {
-      Point3D32[] pointcloud = StereoPointCloudCompression.decompressPointCloudToArray32(message);
-      int[] colors = StereoPointCloudCompression.decompressColorsToIntArray(message);
+      if (colorBuffer.length < message.getNumberOfPoints())
+      {
+         pointCloudBuffer = new float[3 * message.getNumberOfPoints()];
+         colorBuffer = new int[message.getNumberOfPoints()];
+      }
+
+      StereoPointCloudCompression.decompressPointCloud(message, pointCloudBuffer, decompressionVariables);
+      StereoPointCloudCompression.decompressColors(message, colorBuffer, decompressionVariables);
 
       meshBuilder.clear();
-      int numberOfScanPoints = pointcloud.length;
+      int numberOfScanPoints = message.getNumberOfPoints();
       int sizeOfPointCloudToVisualize = Math.min(numberOfScanPoints, sizeOfPointCloud.get());
 
       Random random = new Random();
@@ -60,9 +72,10 @@ public class StereoVisionPointCloudViewer extends AbstractSourceViewer<StereoVis
          else
             indexToVisualize = random.nextInt(numberOfScanPoints);
 
-         Color color = intToColor(colors[indexToVisualize]);
+         Color color = intToColor(colorBuffer[indexToVisualize]);
+         scanPoint.set(pointCloudBuffer[3 * indexToVisualize], pointCloudBuffer[3 * indexToVisualize + 1], pointCloudBuffer[3 * indexToVisualize + 2]);
 
-         meshBuilder.addMesh(MeshDataGenerator.Tetrahedron(SCAN_POINT_SIZE), pointcloud[indexToVisualize], color);
+         meshBuilder.addMesh(MeshDataGenerator.Tetrahedron(SCAN_POINT_SIZE), scanPoint, color);
       }
 
       MeshView scanMeshView = new MeshView(meshBuilder.generateMesh());
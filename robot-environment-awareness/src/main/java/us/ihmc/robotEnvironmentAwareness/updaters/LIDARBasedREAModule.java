@@ -1,6 +1,7 @@
 package us.ihmc.robotEnvironmentAwareness.updaters;
 
 import java.util.HashMap;
+import java.util.Set;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
@@ -20,6 +21,7 @@ import us.ihmc.communication.packets.PlanarRegionsRequestType;
 import us.ihmc.communication.util.NetworkPorts;
 import us.ihmc.euclid.geometry.Pose3D;
 import us.ihmc.euclid.geometry.interfaces.Pose3DReadOnly;
+import us.ihmc.jOctoMap.key.OcTreeKey;
 import us.ihmc.jOctoMap.normalEstimation.NormalEstimationParameters;
 import us.ihmc.jOctoMap.ocTree.NormalOcTree;
 import us.ihmc.jOctoMap.tools.JOctoMapTools;
@@ -307,7 +309,11 @@ public class LIDARBasedREAModule implements PerceptionModule
             if (isThreadInterrupted())
                return;
 
-            timeReporter.run(() -> planarRegionFeatureUpdater.update(mainOctree, sensorPose.getPosition()), planarRegionsTimeReport);
+            // Polled once the segmentation is certain to run such that no change is missed when the thread is interrupted.
+            Set<OcTreeKey> changedNodeKeys = mainUpdater.pollChangedNodeKeys();
+            double changeInfluenceRadius = mainUpdater.getNormalEstimationRadius();
+            timeReporter.run(() -> planarRegionFeatureUpdater.update(mainOctree, sensorPose.getPosition(), changedNodeKeys, changeInfluenceRadius),
+                             planarRegionsTimeReport);
             timeReporter.run(() -> moduleStateReporter.reportPlanarRegionsState(planarRegionFeatureUpdater), reportPlanarRegionsStateTimeReport);
 
             networkProvider.update(planarRegionFeatureUpdater, ocTreeUpdateSuccess, mainOctree);
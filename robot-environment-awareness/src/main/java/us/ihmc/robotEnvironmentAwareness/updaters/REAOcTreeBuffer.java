@@ -58,6 +58,16 @@ public class REAOcTreeBuffer
    private final AtomicReference<Integer> stereoVisionBufferSize;
    private final AtomicReference<Integer> depthCloudBufferSize;
 
+   // Only used by the buffer thread to decompress the incoming point-clouds.
+   private final StereoPointCloudCompression.DecompressionIntermediateVariablesPackage stereoDecompressionVariables = new StereoPointCloudCompression.DecompressionIntermediateVariablesPackage();
+   private final LidarPointCloudCompression.DecompressionIntermediateVariablesPackage lidarDecompressionVariables = new LidarPointCloudCompression.DecompressionIntermediateVariablesPackage();
+   private float[] decompressedPointCloud = new float[0];
+   /**
+    * Recycled between frames, the scan built from it is inserted in the buffer octree by the same call to the buffer thread before
+    * the next message is decompressed.
+    */
+   private final PointCloud pointCloud = new PointCloud();
+
    public REAOcTreeBuffer(double octreeResolution, Messager reaMessager, Topic<Boolean> enableBufferTopic, boolean enableBufferInitialValue,
                           Topic<Integer> ocTreeCapacityTopic, int ocTreeCapacityValue, Topic<Integer> messageCapacityTopic, int messageCapacityInitialValue,
                           Topic<Boolean> requestStateTopic, Topic<NormalOcTreeMessage> stateTopic)
@@ -269,17 +279,32 @@ public class REAOcTreeBuffer
       }
    }
 
-   private static Scan toScan(StereoVisionPointCloudMessage stereoMessage)
+   private Scan toScan(StereoVisionPointCloudMessage stereoMessage)
+   {
+      int numberOfPoints = StereoPointCloudCompression.decompressPointCloud(stereoMessage,
+                                                                            getDecompressedPointCloud(stereoMessage.getNumberOfPoints()),
+                                                                            stereoDecompressionVariables);
+      return new Scan(stereoMessage.getSensorPosition(), toPointCloud(numberOfPoints));
+   }
+
+   private Scan toScan(IDLSequence.Byte data, int numberOfPoints, Point3DReadOnly sensorPosition)
+   {
+      LidarPointCloudCompression.decompressPointCloud(data, numberOfPoints, getDecompressedPointCloud(numberOfPoints), lidarDecompressionVariables);
+      return new Scan(sensorPosition, toPointCloud(numberOfPoints));
+   }
+
+   private float[] getDecompressedPointCloud(int numberOfPoints)
    {
-      PointCloud pointCloud = new PointCloud();
-      StereoPointCloudCompression.decompressPointCloud(stereoMessage, pointCloud::add);
-      return new Scan(stereoMessage.getSensorPosition(), pointCloud);
+      if (decompressedPointCloud.length < 3 * numberOfPoints)
+         decompressedPointCloud = new float[3 * numberOfPoints];
+      return decompressedPointCloud;
    }
 
-   private static Scan toScan(IDLSequence.Byte data, int numberOfPoints, Point3DReadOnly sensorPosition)
+   private PointCloud toPointCloud(int numberOfPoints)
    {
-      PointCloud pointCloud = new PointCloud();
-      LidarPointCloudCompression.decompressPointCloud(data, numberOfPoints, (i, x, y, z) -> pointCloud.add(x, y, z));
-      return new Scan(sensorPosition, pointCloud);
+      pointCloud.clear();
+      for (int i = 0; i < numberOfPoints; i++)
+         pointCloud.add(decompressedPointCloud[3 * i], decompressedPointCloud[3 * i + 1], decompressedPointCloud[3 * i + 2]);
+      return pointCloud;
    }
 }
@@ -8,10 +8,12 @@ import java.util.concurrent.atomic.AtomicReference;
 import us.ihmc.euclid.geometry.Pose3D;
 import us.ihmc.euclid.geometry.interfaces.Pose3DBasics;
 import us.ihmc.euclid.geometry.interfaces.Pose3DReadOnly;
+import us.ihmc.euclid.tools.EuclidCoreTools;
 import us.ihmc.euclid.tuple3D.Point3D;
 import us.ihmc.euclid.tuple3D.interfaces.Point3DReadOnly;
 import us.ihmc.euclid.tuple4D.Quaternion;
 import us.ihmc.jOctoMap.boundingBox.OcTreeBoundingBoxWithCenterAndYaw;
+import us.ihmc.jOctoMap.key.OcTreeKey;
 import us.ihmc.jOctoMap.node.NormalOcTreeNode;
 import us.ihmc.jOctoMap.normalEstimation.NormalEstimationParameters;
 import us.ihmc.jOctoMap.ocTree.NormalOcTree;
@@ -25,6 +27,17 @@ import us.ihmc.robotEnvironmentAwareness.io.FilePropertyHelper;
 
 public class REAOcTreeUpdater
 {
+   /**
+    * The bounding box is only moved along with the sensor when it has moved by more than these
+    * tolerances, such that the octree can be segmented incrementally while the robot stands still.
+    * <p>
+    * This applies to every user of the octree: the bounding box can lag behind the sensor by up to
+    * 5 cm and 0.05 rad of yaw, so the nodes at its edges may be cropped or kept accordingly.
+    * </p>
+    */
+   private static final double BOUNDING_BOX_POSITION_TOLERANCE = 0.05;
+   private static final double BOUNDING_BOX_YAW_TOLERANCE = 0.05;
+
    private final Messager reaMessager;
    private NormalOcTree referenceOctree;
    private Pose3DBasics sensorPose = new Pose3D();
@@ -47,6 +60,14 @@ public class REAOcTreeUpdater
    /** Lifetime of a node in milliseconds before it decays when not being hit. */
    private final AtomicReference<Long> nodeLifetimeMilliseconds;
 
+   /** Keys of the nodes updated or deleted since the last call to {@link #pollChangedNodeKeys()}. */
+   private Set<OcTreeKey> changedNodeKeys = new HashSet<>();
+   /** Whether the octree may have changed in a way that is not described by {@link #changedNodeKeys}. */
+   private boolean hasEntireOcTreeChanged = true;
+   private NormalEstimationParameters lastNormalEstimationParameters = null;
+   private BoundingBoxParametersMessage lastBoundingBoxParameters = null;
+   private Pose3D lastBoundingBoxSensorPose = null;
+
    public REAOcTreeUpdater(double octreeResolution, REAOcTreeBuffer[] buffers, Map<REAOcTreeBuffer, AtomicReference<Pose3D>> sensorPoses, Messager reaMessager)
    {
       initializeReferenceOctree(octreeResolution);
@@ -84,6 +105,9 @@ public class REAOcTreeUpdater
       referenceOctree.enableParallelComputationForNormals(true);
       referenceOctree.enableParallelInsertionOfMisses(true);
       referenceOctree.setCustomRayMissProbabilityUpdater(new AdaptiveRayMissProbabilityUpdater());
+      lastBoundingBoxParameters = null;
+      lastBoundingBoxSensorPose = null;
+      hasEntireOcTreeChanged = true;
    }
 
    private void sendCurrentState()
@@ -152,6 +176,12 @@ public class REAOcTreeUpdater
          referenceOctree.setBoundsInsertRange(minRange.get(), maxRange.get());
       }
 
+      if (normalEstimationParameters.get() != lastNormalEstimationParameters)
+      {
+         lastNormalEstimationParameters = normalEstimationParameters.get();
+         hasEntireOcTreeChanged = true;
+      }
+
       referenceOctree.setNormalEstimationParameters(normalEstimationParameters.get());
 
       boolean hasOcTreeBeenUpdated = false;
@@ -174,14 +204,24 @@ public class REAOcTreeUpdater
          if (bufferOctree != null)
          {
             if (bufferClearRequest.get(buffer).getAndSet(false))
+            {
                referenceOctree.clear();
+               hasEntireOcTreeChanged = true;
+            }
 
             PointCloud pointCloud = new PointCloud();
             bufferOctree.forEach(node -> pointCloud.add(node.getHitLocationX(), node.getHitLocationY(), node.getHitLocationZ()));
             pointCloud.setTimestamp(TimeUnit.NANOSECONDS.toMillis(System.nanoTime()));
             Scan scan = new Scan(sensorOrigin, pointCloud);
             Set<NormalOcTreeNode> updatedNodes = new HashSet<>();
-            referenceOctree.insertScan(scan, updatedNodes, null);
+            Set<OcTreeKey> deletedNodeKeys = new HashSet<>();
+            referenceOctree.insertScan(scan, updatedNodes, deletedNodeKeys);
+
+            if (!hasEntireOcTreeChanged)
+            {
+               updatedNodes.forEach(node -> changedNodeKeys.add(node.getKeyCopy()));
+               changedNodeKeys.addAll(deletedNodeKeys);
+            }
 
             if (nodeLifetimeMilliseconds.get() > 0L)
                decayOcTreeNodes();
@@ -198,6 +238,7 @@ public class REAOcTreeUpdater
       if (clearNormals.getAndSet(false))
       {
          referenceOctree.clearNormals();
+         hasEntireOcTreeChanged = true;
          return;
       }
 
@@ -218,6 +259,9 @@ public class REAOcTreeUpdater
             decayedNodes.add(node);
       }
       decayedNodes.forEach(node -> referenceOctree.deleteNode(node.getKeyCopy()));
+
+      if (!hasEntireOcTreeChanged)
+         decayedNodes.forEach(node -> changedNodeKeys.add(node.getKeyCopy()));
    }
 
    public void clearOcTreeOnNextUpdate(REAOcTreeBuffer bufferToClear)
@@ -228,22 +272,48 @@ public class REAOcTreeUpdater
    public void clearOcTree()
    {
       referenceOctree.clear();
+      hasEntireOcTreeChanged = true;
+   }
+
+   /**
+    * Gets the keys of the nodes that have been updated or deleted since the last call to this method
+    * and starts a new change set.
+    *
+    * @return the keys of the changed nodes, or {@code null} if the octree may have changed entirely,
+    *         for instance after being cleared or when the bounding box has moved.
+    */
+   public Set<OcTreeKey> pollChangedNodeKeys()
+   {
+      Set<OcTreeKey> keys = hasEntireOcTreeChanged ? null : changedNodeKeys;
+      changedNodeKeys = new HashSet<>();
+      hasEntireOcTreeChanged = false;
+      return keys;
+   }
+
+   /**
+    * @return the distance from a changed node up to which the normals of the other nodes may be
+    *         affected.
+    */
+   public double getNormalEstimationRadius()
+   {
+      return normalEstimationParameters.get().getSearchRadius();
    }
 
    private void handleBoundingBox()
    {
       if (!useBoundingBox.get())
       {
+         if (lastBoundingBoxParameters != null)
+         {
+            lastBoundingBoxParameters = null;
+            lastBoundingBoxSensorPose = null;
+            hasEntireOcTreeChanged = true;
+         }
+
          referenceOctree.disableBoundingBox();
          return;
       }
 
-      OcTreeBoundingBoxWithCenterAndYaw boundingBox = new OcTreeBoundingBoxWithCenterAndYaw();
-
-      Point3D min = atomicBoundingBoxParameters.get().getMin();
-      Point3D max = atomicBoundingBoxParameters.get().getMax();
-      boundingBox.setLocalMinMaxCoordinates(min, max);
-
       Pose3D sensorPose = null;
       for (REAOcTreeBuffer buffer : reaOcTreeBuffers)
       {
@@ -252,6 +322,19 @@ public class REAOcTreeUpdater
             sensorPose = sensorPoseReference.get();
       }
 
+      if (atomicBoundingBoxParameters.get() == lastBoundingBoxParameters && isCloseToLastBoundingBoxSensorPose(sensorPose))
+         return;
+
+      lastBoundingBoxParameters = atomicBoundingBoxParameters.get();
+      lastBoundingBoxSensorPose = sensorPose == null ? null : new Pose3D(sensorPose);
+      hasEntireOcTreeChanged = true;
+
+      OcTreeBoundingBoxWithCenterAndYaw boundingBox = new OcTreeBoundingBoxWithCenterAndYaw();
+
+      Point3D min = atomicBoundingBoxParameters.get().getMin();
+      Point3D max = atomicBoundingBoxParameters.get().getMax();
+      boundingBox.setLocalMinMaxCoordinates(min, max);
+
       if (sensorPose != null)
       {
          boundingBox.setOffset(sensorPose.getPosition());
@@ -262,6 +345,19 @@ public class REAOcTreeUpdater
       referenceOctree.setBoundingBox(boundingBox);
    }
 
+   private boolean isCloseToLastBoundingBoxSensorPose(Pose3DReadOnly sensorPose)
+   {
+      if (sensorPose == null || lastBoundingBoxSensorPose == null)
+         return sensorPose == lastBoundingBoxSensorPose;
+
+      if (sensorPose.getPosition().distance(lastBoundingBoxSensorPose.getPosition()) > BOUNDING_BOX_POSITION_TOLERANCE)
+         return false;
+
+      double yawDifference = EuclidCoreTools.angleDifferenceMinusPiToPi(sensorPose.getOrientation().getYaw(),
+                                                                        lastBoundingBoxSensorPose.getOrientation().getYaw());
+      return Math.abs(yawDifference) <= BOUNDING_BOX_YAW_TOLERANCE;
+   }
+
    public NormalOcTree getMainOctree()
    {
       return referenceOctree;
@@ -1,8 +1,10 @@
 package us.ihmc.robotEnvironmentAwareness.updaters;
 
 import java.io.File;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.IntPredicate;
 import java.util.concurrent.atomic.AtomicReference;
 
 import controller_msgs.msg.dds.ConcaveHullFactoryParametersMessage;
@@ -11,6 +13,7 @@ import gnu.trove.map.hash.TIntObjectHashMap;
 import perception_msgs.msg.dds.PolygonizerParametersMessage;
 import us.ihmc.euclid.geometry.LineSegment3D;
 import us.ihmc.euclid.tuple3D.interfaces.Tuple3DReadOnly;
+import us.ihmc.jOctoMap.key.OcTreeKey;
 import us.ihmc.jOctoMap.ocTree.NormalOcTree;
 import us.ihmc.messager.Messager;
 import us.ihmc.messager.MessagerAPIFactory.Topic;
@@ -49,6 +52,10 @@ public class REAPlanarRegionFeatureUpdater implements RegionFeaturesProvider
    private final PlanarRegionSegmentationCalculator segmentationCalculator = new PlanarRegionSegmentationCalculator();
 
    private final TIntObjectHashMap<PlanarRegion> customPlanarRegions = new TIntObjectHashMap<>();
+   /** The planar regions created for each segmented region, reused for the regions that have not been updated. */
+   private final TIntObjectHashMap<List<PlanarRegion>> polygonizedRegionsCache = new TIntObjectHashMap<>();
+   private ConcaveHullFactoryParameters lastConcaveHullFactoryParameters = null;
+   private PolygonizerParameters lastPolygonizerParameters = null;
 
    private PlanarRegionsList planarRegionsList = null;
    private List<LineSegment3D> planarRegionsIntersections = null;
@@ -297,9 +304,26 @@ public class REAPlanarRegionFeatureUpdater implements RegionFeaturesProvider
    }
 
    public void update(NormalOcTree octree, Tuple3DReadOnly sensorPosition)
+   {
+      update(octree, sensorPosition, null, 0.0);
+   }
+
+   /**
+    * Updates the planar regions reprocessing only the regions around the octree nodes that have
+    * changed since the previous update.
+    *
+    * @param changedNodeKeys       the keys of the nodes that have been updated or deleted since the
+    *                              previous update, or {@code null} to process the entire octree.
+    * @param changeInfluenceRadius the distance from a changed node up to which the other nodes may
+    *                              have been affected, typically the normal estimation search radius.
+    */
+   public void update(NormalOcTree octree, Tuple3DReadOnly sensorPosition, Collection<OcTreeKey> changedNodeKeys, double changeInfluenceRadius)
    {
       if (!isOcTreeEnabled.get())
+      { // The changes are dropped, the segmentation can only catch up with a full update.
+         segmentationCalculator.requestFullUpdate();
          return;
+      }
 
       if (clearSegmentation.getAndSet(false))
       {
@@ -318,7 +342,10 @@ public class REAPlanarRegionFeatureUpdater implements RegionFeaturesProvider
       segmentationCalculator.setSurfaceNormalFilterParameters(surfaceNormalFilterParameters.get());
       segmentationCalculator.setSensorPosition(sensorPosition);
 
-      timeReporter.run(() -> segmentationCalculator.compute(octree.getRoot()), segmentationTimeReport);
+      if (changedNodeKeys == null)
+         timeReporter.run(() -> segmentationCalculator.compute(octree.getRoot()), segmentationTimeReport);
+      else
+         timeReporter.run(() -> segmentationCalculator.computeIncrementally(octree, changedNodeKeys, changeInfluenceRadius), segmentationTimeReport);
 
       List<PlanarRegionSegmentationRawData> rawData = segmentationCalculator.getSegmentationRawData();
 
@@ -345,6 +372,7 @@ public class REAPlanarRegionFeatureUpdater implements RegionFeaturesProvider
       if (clearPolygonizer.getAndSet(false))
       {
          planarRegionsList = null;
+         polygonizedRegionsCache.clear();
       }
       else if (enablePolygonizer.get())
       {
@@ -352,6 +380,11 @@ public class REAPlanarRegionFeatureUpdater implements RegionFeaturesProvider
          if (planarRegionsList != null)
             unmergedCustomPlanarRegions.forEach(planarRegionsList::addPlanarRegion);
       }
+      else
+      {
+         // The regions updated in the meantime would be missed.
+         polygonizedRegionsCache.clear();
+      }
    }
 
    public void registerCustomPlanarRegion(PlanarRegion planarRegion)
@@ -382,10 +415,23 @@ public class REAPlanarRegionFeatureUpdater implements RegionFeaturesProvider
       ConcaveHullFactoryParameters concaveHullFactoryParameters = this.concaveHullFactoryParameters.get();
       PolygonizerParameters polygonizerParameters = this.polygonizerParameters.get();
 
-      if (EXPORT_SEGMENTATION_ON_EXCEPTION)
-         planarRegionsList = PlanarRegionPolygonizer.createPlanarRegionsList(rawData, concaveHullFactoryParameters, polygonizerParameters, dataExporter);
-      else
-         planarRegionsList = PlanarRegionPolygonizer.createPlanarRegionsList(rawData, concaveHullFactoryParameters, polygonizerParameters);
+      // The intersections and the custom regions modify the raw data of regions that may not have been updated by the segmentation.
+      boolean isRawDataModified = enableIntersectionCalulator.get() || (enableCustomRegions.get() && !customPlanarRegions.isEmpty());
+      boolean canReusePolygons = !isRawDataModified && concaveHullFactoryParameters == lastConcaveHullFactoryParameters
+            && polygonizerParameters == lastPolygonizerParameters;
+      IntPredicate isRegionUpdated = canReusePolygons ? segmentationCalculator::isRegionUpdated : regionId -> true;
+
+      planarRegionsList = PlanarRegionPolygonizer.createPlanarRegionsList(rawData,
+                                                                          isRegionUpdated,
+                                                                          polygonizedRegionsCache,
+                                                                          concaveHullFactoryParameters,
+                                                                          polygonizerParameters,
+                                                                          dataExporter);
+
+      if (isRawDataModified)
+         polygonizedRegionsCache.clear();
+      lastConcaveHullFactoryParameters = concaveHullFactoryParameters;
+      lastPolygonizerParameters = polygonizerParameters;
    }
 
    private void updateIntersections(List<PlanarRegionSegmentationRawData> rawData)
@@ -0,0 +1,269 @@
+package us.ihmc.robotEnvironmentAwareness.planarRegion;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import us.ihmc.euclid.tuple3D.Point3D;
+import us.ihmc.euclid.tuple3D.Vector3D;
+import us.ihmc.jOctoMap.iterators.OcTreeIteratorFactory;
+import us.ihmc.jOctoMap.key.OcTreeKey;
+import us.ihmc.jOctoMap.node.NormalOcTreeNode;
+import us.ihmc.jOctoMap.normalEstimation.NormalEstimationParameters;
+import us.ihmc.jOctoMap.ocTree.NormalOcTree;
+import us.ihmc.robotEnvironmentAwareness.slam.tools.SLAMTools;
+
+public class PlanarRegionSegmentationCalculatorTest
+{
+   private static final double OCTREE_RESOLUTION = 0.02;
+
+   @Test
+   public void testParallelRegionGrowingGivesSameRegions()
+   {
+      Random random = new Random(65461L);
+      Point3D sensorPosition = new Point3D(0.0, 0.0, 2.0);
+      NormalOcTree octree = SLAMTools.computeOctreeData(generateBoxOnGround(random), sensorPosition, OCTREE_RESOLUTION);
+
+      // The segmentation flips the normals of the outliers, they are restored such that both calculators start from the same octree.
+      Map<NormalOcTreeNode, Vector3D> initialNormals = new HashMap<>();
+      OcTreeIteratorFactory.createLeafIterable(octree.getRoot()).forEach(node -> initialNormals.put(node, node.getNormalCopy()));
+
+      List<List<PlanarRegionSegmentationNodeData>> expectedRegions = segment(octree, sensorPosition, false, initialNormals);
+      List<List<PlanarRegionSegmentationNodeData>> actualRegions = segment(octree, sensorPosition, true, initialNormals);
+
+      assertTrue(expectedRegions.get(0).size() > 1);
+
+      for (int update = 0; update < expectedRegions.size(); update++)
+      {
+         List<PlanarRegionSegmentationNodeData> expected = expectedRegions.get(update);
+         List<PlanarRegionSegmentationNodeData> actual = actualRegions.get(update);
+         assertEquals(expected.size(), actual.size());
+
+         for (int regionIndex = 0; regionIndex < expected.size(); regionIndex++)
+         {
+            PlanarRegionSegmentationNodeData expectedRegion = expected.get(regionIndex);
+            PlanarRegionSegmentationNodeData actualRegion = actual.get(regionIndex);
+            assertEquals(expectedRegion.getId(), actualRegion.getId());
+            assertEquals(expectedRegion.getNumberOfNodes(), actualRegion.getNumberOfNodes());
+
+            for (int nodeIndex = 0; nodeIndex < expectedRegion.getNumberOfNodes(); nodeIndex++)
+               assertTrue(expectedRegion.getNode(nodeIndex) == actualRegion.getNode(nodeIndex));
+         }
+      }
+   }
+
+   @Test
+   public void testIncrementalUpdateOnlyReprocessesRegionsAroundChanges()
+   {
+      Random random = new Random(3247L);
+      Point3D sensorPosition = new Point3D(0.0, 0.0, 2.0);
+      NormalOcTree octree = SLAMTools.computeOctreeData(generateBoxOnGround(random), sensorPosition, OCTREE_RESOLUTION);
+
+      PlanarRegionSegmentationCalculator calculator = new PlanarRegionSegmentationCalculator();
+      calculator.setParameters(new PlanarRegionSegmentationParameters());
+      calculator.setSurfaceNormalFilterParameters(new SurfaceNormalFilterParameters());
+      calculator.setBoundingBox(octree.getBoundingBox());
+      calculator.setSensorPosition(sensorPosition);
+      calculator.compute(octree.getRoot());
+
+      List<PlanarRegionSegmentationNodeData> initialRegions = new ArrayList<>(calculator.getSegmentationNodeData());
+      PlanarRegionSegmentationNodeData boxTopRegion = initialRegions.stream()
+                                                                    .filter(region -> region.getOrigin().getZ() > 0.2 && Math.abs(region.getNormal().getZ()) > 0.9)
+                                                                    .findFirst()
+                                                                    .orElse(null);
+      assertNotNull(boxTopRegion);
+      int numberOfBoxTopNodes = boxTopRegion.getNumberOfNodes();
+      initialRegions.forEach(region -> assertTrue(calculator.isRegionUpdated(region.getId())));
+
+      // Without any change, the regions are kept as they are.
+      calculator.computeIncrementally(octree, Collections.emptyList(), 0.05);
+      assertEquals(initialRegions, calculator.getSegmentationNodeData());
+      initialRegions.forEach(region -> assertFalse(calculator.isRegionUpdated(region.getId())));
+
+      // A change in the corner of the ground does not affect the top of the box.
+      List<OcTreeKey> changedNodeKeys = new ArrayList<>();
+      for (NormalOcTreeNode node : OcTreeIteratorFactory.createLeafIterable(octree.getRoot()))
+      {
+         if (node.getX() < -0.9 && node.getY() < -0.9)
+            changedNodeKeys.add(node.getKeyCopy());
+      }
+      assertFalse(changedNodeKeys.isEmpty());
+
+      calculator.computeIncrementally(octree, changedNodeKeys, 0.05);
+      assertFalse(calculator.isRegionUpdated(boxTopRegion.getId()));
+      assertTrue(calculator.getSegmentationNodeData().contains(boxTopRegion));
+      assertEquals(numberOfBoxTopNodes, boxTopRegion.getNumberOfNodes());
+   }
+
+   @Test
+   public void testIncrementalUpdateGivesSameRegionsAsFullUpdate()
+   {
+      Random random = new Random(9823L);
+      Point3D sensorPosition = new Point3D(0.0, 0.0, 2.0);
+      NormalOcTree octree = SLAMTools.computeOctreeData(generateBoxOnGround(random), sensorPosition, OCTREE_RESOLUTION);
+
+      // Both calculators share the octree, the normals are restored before each update as the segmentation flips the normals of the outliers.
+      Map<NormalOcTreeNode, Vector3D> initialNormals = getNormals(octree);
+      PlanarRegionSegmentationCalculator incrementalCalculator = createCalculator(octree, sensorPosition);
+      PlanarRegionSegmentationCalculator fullCalculator = createCalculator(octree, sensorPosition);
+      restoreNormals(initialNormals);
+      incrementalCalculator.compute(octree.getRoot());
+      restoreNormals(initialNormals);
+      fullCalculator.compute(octree.getRoot());
+      int numberOfInitialRegions = fullCalculator.getSegmentationNodeData().size();
+      assertEquals(getRegionNodeSets(fullCalculator), getRegionNodeSets(incrementalCalculator));
+
+      // A second box appears in the corner of the ground.
+      Set<NormalOcTreeNode> updatedNodes = new HashSet<>();
+      Set<OcTreeKey> deletedNodeKeys = new HashSet<>();
+      octree.insertScan(SLAMTools.toScan(generateBox(random, -0.6, -0.6, 0.15), sensorPosition), updatedNodes, deletedNodeKeys);
+      octree.updateNormals();
+
+      List<OcTreeKey> changedNodeKeys = new ArrayList<>(deletedNodeKeys);
+      updatedNodes.forEach(node -> changedNodeKeys.add(node.getKeyCopy()));
+      assertFalse(changedNodeKeys.isEmpty());
+      // SLAMTools estimates the normals with the default search radius.
+      double changeInfluenceRadius = new NormalEstimationParameters().getSearchRadius();
+
+      Map<NormalOcTreeNode, Vector3D> changedNormals = getNormals(octree);
+      restoreNormals(changedNormals);
+      incrementalCalculator.computeIncrementally(octree, changedNodeKeys, changeInfluenceRadius);
+      Set<Set<NormalOcTreeNode>> incrementalRegions = getRegionNodeSets(incrementalCalculator);
+      restoreNormals(changedNormals);
+      fullCalculator.compute(octree.getRoot());
+      Set<Set<NormalOcTreeNode>> fullRegions = getRegionNodeSets(fullCalculator);
+
+      assertTrue(fullRegions.size() > numberOfInitialRegions);
+      assertEquals(fullRegions, incrementalRegions);
+   }
+
+   private static PlanarRegionSegmentationCalculator createCalculator(NormalOcTree octree, Point3D sensorPosition)
+   {
+      PlanarRegionSegmentationCalculator calculator = new PlanarRegionSegmentationCalculator();
+      calculator.setGrowRegionsInParallel(false);
+      calculator.setParameters(new PlanarRegionSegmentationParameters());
+      calculator.setSurfaceNormalFilterParameters(new SurfaceNormalFilterParameters());
+      calculator.setBoundingBox(octree.getBoundingBox());
+      calculator.setSensorPosition(sensorPosition);
+      return calculator;
+   }
+
+   /**
+    * The region ids depend on the order in which the regions are found, the regions are compared
+    * using their nodes only.
+    */
+   private static Set<Set<NormalOcTreeNode>> getRegionNodeSets(PlanarRegionSegmentationCalculator calculator)
+   {
+      Set<Set<NormalOcTreeNode>> regionNodeSets = new HashSet<>();
+      calculator.getSegmentationNodeData().forEach(region -> regionNodeSets.add(region.nodeStream().collect(Collectors.toSet())));
+      return regionNodeSets;
+   }
+
+   private static Map<NormalOcTreeNode, Vector3D> getNormals(NormalOcTree octree)
+   {
+      Map<NormalOcTreeNode, Vector3D> normals = new HashMap<>();
+      OcTreeIteratorFactory.createLeafIterable(octree.getRoot()).forEach(node -> normals.put(node, node.getNormalCopy()));
+      return normals;
+   }
+
+   private static void restoreNormals(Map<NormalOcTreeNode, Vector3D> normals)
+   {
+      normals.forEach((node, normal) ->
+      {
+         if (node.getNormalCopy().dot(normal) < 0.0)
+            node.negateNormal();
+      });
+   }
+
+   /**
+    * Runs the segmentation twice, the second time the regions from the first one are grown again.
+    */
+   private static List<List<PlanarRegionSegmentationNodeData>> segment(NormalOcTree octree, Point3D sensorPosition, boolean growRegionsInParallel,
+                                                                       Map<NormalOcTreeNode, Vector3D> initialNormals)
+   {
+      restoreNormals(initialNormals);
+
+      PlanarRegionSegmentationCalculator calculator = new PlanarRegionSegmentationCalculator();
+      calculator.setGrowRegionsInParallel(growRegionsInParallel);
+      calculator.setParameters(new PlanarRegionSegmentationParameters());
+      calculator.setSurfaceNormalFilterParameters(new SurfaceNormalFilterParameters());
+      calculator.setBoundingBox(octree.getBoundingBox());
+      calculator.setSensorPosition(sensorPosition);
+
+      List<List<PlanarRegionSegmentationNodeData>> regions = new ArrayList<>();
+
+      for (int update = 0; update < 2; update++)
+      {
+         calculator.compute(octree.getRoot());
+         regions.add(new ArrayList<>(calculator.getSegmentationNodeData()));
+      }
+
+      return regions;
+   }
+
+   /**
+    * Generates the top and sides of a box standing on the ground, seen from above.
+    */
+   private static List<Point3D> generateBox(Random random, double centerX, double centerY, double boxHeight)
+   {
+      List<Point3D> points = new ArrayList<>();
+      double spacing = 0.5 * OCTREE_RESOLUTION;
+      double noise = 0.1 * OCTREE_RESOLUTION;
+      double halfSize = 0.15;
+
+      for (double x = -halfSize; x <= halfSize; x += spacing)
+      {
+         for (double y = -halfSize; y <= halfSize; y += spacing)
+            points.add(new Point3D(centerX + x, centerY + y, boxHeight + noise * random.nextGaussian()));
+      }
+
+      for (double t = -halfSize; t <= halfSize; t += spacing)
+      {
+         for (double z = 0.0; z <= boxHeight; z += spacing)
+         { // The two sides facing the sensor.
+            points.add(new Point3D(centerX + halfSize + noise * random.nextGaussian(), centerY + t, z));
+            points.add(new Point3D(centerX + t, centerY + halfSize + noise * random.nextGaussian(), z));
+         }
+      }
+
+      return points;
+   }
+
+   private static List<Point3D> generateBoxOnGround(Random random)
+   {
+      List<Point3D> points = new ArrayList<>();
+      double spacing = 0.5 * OCTREE_RESOLUTION;
+      double noise = 0.1 * OCTREE_RESOLUTION;
+      double boxHeight = 0.3;
+
+      for (double x = -1.0; x <= 1.0; x += spacing)
+      {
+         for (double y = -1.0; y <= 1.0; y += spacing)
+         {
+            boolean isOnBox = Math.abs(x - 0.5) <= 0.25 && Math.abs(y) <= 0.25;
+            points.add(new Point3D(x, y, (isOnBox ? boxHeight : 0.0) + noise * random.nextGaussian()));
+         }
+      }
+
+      for (double y = -0.25; y <= 0.25; y += spacing)
+      {
+         for (double z = 0.0; z <= boxHeight; z += spacing)
+            points.add(new Point3D(0.25 + noise * random.nextGaussian(), y, z));
+      }
+
+      return points;
+   }
+}